@@ -0,0 +1,146 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes, at compile time, the index of the classes the web service otherwise finds by scanning the classpath on
+ * every start: the classes annotated with {@code @StorableEntity} and the implementations of
+ * {@code ModuleRegistration}. Each index is a resource under {@value #INDEX_DIR} listing one class name per line, and
+ * every jar carries the index of its own classes. The indexes are written even when empty, so that a jar built with the
+ * processor is never mistaken for one that has to be scanned.
+ * <p>
+ * The processor works on the names of the types so that it does not depend on the modules defining them. When only
+ * a part of a module is recompiled, the entries of the existing index are kept as long as their classes still exist.
+ */
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+    // keep in sync with com.hortonworks.streamline.common.util.ClassIndex
+    static final String INDEX_DIR = "META-INF/streamline/";
+    static final String STORABLE_ENTITIES = "storable-entities";
+    static final String MODULE_REGISTRATIONS = "module-registrations";
+
+    private static final String STORABLE_ENTITY_ANNOTATION = "com.hortonworks.streamline.storage.annotation.StorableEntity";
+    private static final String MODULE_REGISTRATION_INTERFACE = "com.hortonworks.streamline.common.ModuleRegistration";
+
+    private final Set<String> storableEntities = new TreeSet<>();
+    private final Set<String> moduleRegistrations = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex(STORABLE_ENTITIES, storableEntities);
+            writeIndex(MODULE_REGISTRATIONS, moduleRegistrations);
+        } else {
+            TypeElement moduleRegistration = processingEnv.getElementUtils().getTypeElement(MODULE_REGISTRATION_INTERFACE);
+            for (Element element : roundEnv.getRootElements()) {
+                collect(element, moduleRegistration);
+            }
+        }
+        // the other processors still see every annotation
+        return false;
+    }
+
+    private void collect(Element element, TypeElement moduleRegistration) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        if (isAnnotatedWith(type, STORABLE_ENTITY_ANNOTATION)) {
+            storableEntities.add(name);
+        }
+        if (moduleRegistration != null && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+            TypeMirror moduleRegistrationType = processingEnv.getTypeUtils().erasure(moduleRegistration.asType());
+            if (processingEnv.getTypeUtils().isAssignable(type.asType(), moduleRegistrationType)) {
+                moduleRegistrations.add(name);
+            }
+        }
+        for (Element enclosed : type.getEnclosedElements()) {
+            collect(enclosed, moduleRegistration);
+        }
+    }
+
+    private static boolean isAnnotatedWith(TypeElement type, String annotationName) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex(String index, Set<String> classNames) {
+        String resource = INDEX_DIR + index;
+        Set<String> entries = new TreeSet<>(classNames);
+        readExistingEntries(resource, entries);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (Writer writer = file.openWriter()) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write the class index " + resource + ": " + e);
+        }
+    }
+
+    private void readExistingEntries(String resource, Set<String> entries) {
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && processingEnv.getElementUtils().getTypeElement(line.replace('$', '.')) != null) {
+                        entries.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no index from a previous compilation
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.processor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClassIndexProcessorTest {
+    // the processor only knows these types by name, stand-ins are enough
+    private static final String STORABLE_ENTITY =
+            "package com.hortonworks.streamline.storage.annotation;\n"
+            + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+            + "public @interface StorableEntity {}";
+    private static final String MODULE_REGISTRATION =
+            "package com.hortonworks.streamline.common;\n"
+            + "public interface ModuleRegistration {}";
+
+    private Path output;
+
+    @Before
+    public void setUp() throws Exception {
+        output = Files.createTempDirectory("class-index");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(output.toFile());
+    }
+
+    @Test
+    public void testIndexesStorableEntitiesAndModules() throws Exception {
+        compile(STORABLE_ENTITY, MODULE_REGISTRATION,
+                "package test;\n"
+                + "@com.hortonworks.streamline.storage.annotation.StorableEntity\n"
+                + "public class Topology {\n"
+                + "    @com.hortonworks.streamline.storage.annotation.StorableEntity\n"
+                + "    public static class Version {}\n"
+                + "}",
+                "package test;\n"
+                + "public class Component {}",
+                "package test;\n"
+                + "public abstract class AbstractModule implements com.hortonworks.streamline.common.ModuleRegistration {}",
+                "package test;\n"
+                + "public class StreamsModule extends AbstractModule {}");
+
+        assertEquals(Arrays.asList("test.Topology", "test.Topology$Version"),
+                readIndex(ClassIndexProcessor.STORABLE_ENTITIES));
+        assertEquals(Collections.singletonList("test.StreamsModule"), readIndex(ClassIndexProcessor.MODULE_REGISTRATIONS));
+    }
+
+    @Test
+    public void testWritesEmptyIndexes() throws Exception {
+        compile("package test;\n"
+                + "public class Component {}");
+
+        // the empty indexes tell the runtime that this jar does not have to be scanned
+        assertEquals(Collections.emptyList(), readIndex(ClassIndexProcessor.STORABLE_ENTITIES));
+        assertEquals(Collections.emptyList(), readIndex(ClassIndexProcessor.MODULE_REGISTRATIONS));
+    }
+
+    @Test
+    public void testIncrementalCompilationKeepsExistingEntries() throws Exception {
+        compile(STORABLE_ENTITY,
+                "package test;\n"
+                + "@com.hortonworks.streamline.storage.annotation.StorableEntity\n"
+                + "public class Topology {}");
+        Files.write(output.resolve(ClassIndexProcessor.INDEX_DIR + ClassIndexProcessor.STORABLE_ENTITIES),
+                Arrays.asList("test.Removed", "test.Topology"), StandardCharsets.UTF_8);
+
+        compile("package test;\n"
+                + "@com.hortonworks.streamline.storage.annotation.StorableEntity\n"
+                + "public class Stream {}");
+
+        // the entry of the class that is gone is dropped
+        assertEquals(Arrays.asList("test.Stream", "test.Topology"), readIndex(ClassIndexProcessor.STORABLE_ENTITIES));
+    }
+
+    private void compile(String... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Collections.singletonList(output.toFile()));
+            List<JavaFileObject> units = new ArrayList<>();
+            for (String source : sources) {
+                units.add(new Source(source));
+            }
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, null, null, units);
+            task.setProcessors(Collections.singletonList(new ClassIndexProcessor()));
+            assertTrue("compilation failed", task.call());
+        }
+    }
+
+    private List<String> readIndex(String index) throws IOException {
+        return Files.readAllLines(output.resolve(ClassIndexProcessor.INDEX_DIR + index), StandardCharsets.UTF_8);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+        private static final Pattern DECLARATION = Pattern.compile("package ([\\w.]+);.*?(?:class|interface) (\\w+)",
+                Pattern.DOTALL);
+
+        private final String code;
+
+        Source(String code) {
+            super(URI.create("string:///" + className(code).replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+
+        private static String className(String code) {
+            Matcher matcher = DECLARATION.matcher(code);
+            if (!matcher.find()) {
+                throw new IllegalArgumentException("No type declared in " + code);
+            }
+            return matcher.group(1) + "." + matcher.group(2);
+        }
+    }
+}
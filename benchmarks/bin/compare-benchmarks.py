@@ -0,0 +1,90 @@
+#!/usr/bin/env python
+#
+# Copyright 2017 Hortonworks.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+
+#   http://www.apache.org/licenses/LICENSE-2.0
+
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+"""
+Compares two JMH JSON result files and flags the benchmarks that regressed.
+
+USAGE: compare-benchmarks.py [--threshold PERCENT] baseline.json current.json
+
+Benchmarks are matched on their name and parameters. Throughput scores (ops/time) are better when higher, time
+scores (time/op) are better when lower. Exits with status 1 if any benchmark regressed by more than the threshold.
+"""
+
+from __future__ import print_function
+
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = json.load(f)
+    scores = {}
+    for result in results:
+        params = result.get('params') or {}
+        key = result['benchmark'] + ''.join(
+            ':%s=%s' % (name, params[name]) for name in sorted(params))
+        metric = result['primaryMetric']
+        scores[key] = (metric['score'], metric.get('scoreError'), metric['scoreUnit'])
+    return scores
+
+
+def higher_is_better(unit):
+    return unit.startswith('ops/')
+
+
+def main():
+    parser = argparse.ArgumentParser(description='Compare JMH results against a baseline.')
+    parser.add_argument('--threshold', type=float, default=10.0,
+                        help='percentage change treated as a regression (default: 10)')
+    parser.add_argument('baseline')
+    parser.add_argument('current')
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = 0
+    print('%-100s %15s %15s %9s' % ('Benchmark', 'Baseline', 'Current', 'Change'))
+    for key in sorted(current):
+        score, _, unit = current[key]
+        if key not in baseline:
+            print('%-100s %15s %15.3f %9s  %s' % (key, '-', score, '-', unit))
+            continue
+        base_score, _, base_unit = baseline[key]
+        if base_unit != unit or base_score == 0:
+            print('%-100s %15.3f %15.3f %9s  %s (not comparable)' % (key, base_score, score, '-', unit))
+            continue
+        change = (score - base_score) * 100.0 / base_score
+        regression = -change if higher_is_better(unit) else change
+        flag = ''
+        if regression > args.threshold:
+            flag = '  REGRESSION'
+            regressions += 1
+        print('%-100s %15.3f %15.3f %+8.1f%%  %s%s' % (key, base_score, score, change, unit, flag))
+
+    for key in sorted(set(baseline) - set(current)):
+        print('%-100s missing from current results' % key)
+
+    if regressions:
+        print('\n%d benchmark(s) regressed by more than %.1f%%' % (regressions, args.threshold))
+        return 1
+    return 0
+
+
+if __name__ == '__main__':
+    sys.exit(main())
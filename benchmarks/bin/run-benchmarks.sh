@@ -0,0 +1,37 @@
+#!/bin/bash
+#
+# Copyright 2017 Hortonworks.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+
+#   http://www.apache.org/licenses/LICENSE-2.0
+
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+# Runs the JMH benchmarks and writes the results as JSON.
+# USAGE: run-benchmarks.sh [results.json] [jmh options]
+# e.g. run-benchmarks.sh results.json -p numRules=10 RuleProcessorRuntimeBenchmark
+
+BENCHMARKS_HOME="$(cd "$(dirname "$0")/.." && pwd)"
+BENCHMARKS_JAR="${BENCHMARKS_HOME}/target/benchmarks.jar"
+
+if [ ! -f "${BENCHMARKS_JAR}" ];
+then
+        echo "${BENCHMARKS_JAR} not found, build it with: mvn -Pbenchmarks -pl benchmarks -am package -DskipTests"
+        exit 1
+fi
+
+RESULTS="results.json"
+if [ $# -gt 0 ] && [[ "$1" == *.json ]];
+then
+        RESULTS="$1"
+        shift
+fi
+
+exec java ${BENCHMARKS_OPTS} -jar "${BENCHMARKS_JAR}" -rf json -rff "${RESULTS}" "$@"
@@ -0,0 +1,133 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.storage.PrimaryKey;
+import com.hortonworks.streamline.storage.annotation.StorableEntity;
+import com.hortonworks.streamline.storage.catalog.AbstractStorable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A storable with the shape of the catalog entities: a generated id, a name, a description, a reference to a parent
+ * entity and a timestamp.
+ */
+@StorableEntity
+public class BenchmarkStorable extends AbstractStorable {
+    public static final String NAMESPACE = "benchmark_storable";
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String DESCRIPTION = "description";
+    public static final String PARENT_ID = "parentId";
+    public static final String TIMESTAMP = "timestamp";
+
+    public static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + NAMESPACE + " (" +
+            "id BIGINT AUTO_INCREMENT NOT NULL, " +
+            "name VARCHAR(255) NOT NULL, " +
+            "description TEXT NOT NULL, " +
+            "parentId BIGINT NOT NULL, " +
+            "timestamp BIGINT, " +
+            "PRIMARY KEY (id))";
+    public static final String DROP_TABLE = "DROP TABLE IF EXISTS " + NAMESPACE;
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long parentId;
+    private Long timestamp;
+
+    public BenchmarkStorable() {
+    }
+
+    public BenchmarkStorable(Long id, Long parentId) {
+        this.id = id;
+        this.name = "entity-" + id;
+        this.description = "Description of entity " + id + " which belongs to parent " + parentId;
+        this.parentId = parentId;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    @JsonIgnore
+    @Override
+    public String getNameSpace() {
+        return NAMESPACE;
+    }
+
+    @JsonIgnore
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        Map<Schema.Field, Object> fieldToObjectMap = new HashMap<>();
+        fieldToObjectMap.put(new Schema.Field(ID, Schema.Type.LONG), this.id);
+        return new PrimaryKey(fieldToObjectMap);
+    }
+
+    @JsonIgnore
+    @Override
+    public Schema getSchema() {
+        return Schema.of(
+                new Schema.Field(ID, Schema.Type.LONG),
+                new Schema.Field(NAME, Schema.Type.STRING),
+                new Schema.Field(DESCRIPTION, Schema.Type.STRING),
+                new Schema.Field(PARENT_ID, Schema.Type.LONG),
+                new Schema.Field(TIMESTAMP, Schema.Type.LONG)
+        );
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
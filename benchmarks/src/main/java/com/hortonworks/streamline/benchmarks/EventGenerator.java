@@ -0,0 +1,127 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.benchmarks;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates events shaped like the truck geo events of the sample topologies: a handful of typed top level fields, a
+ * nested driver record and a configurable number of extra sensor readings. The generator is seeded so that every run
+ * of a benchmark sees the same data.
+ */
+public class EventGenerator {
+    public static final String DATA_SOURCE_ID = "truck-events-source";
+    public static final String STREAM = "truck_events";
+
+    public static final String DRIVER_ID = "driverId";
+    public static final String TRUCK_ID = "truckId";
+    public static final String EVENT_TYPE = "eventType";
+    public static final String LATITUDE = "latitude";
+    public static final String LONGITUDE = "longitude";
+    public static final String SPEED = "speed";
+    public static final String EVENT_TIME = "eventTime";
+    public static final String ROUTE_NAME = "routeName";
+    public static final String DRIVER = "driver";
+    public static final String DRIVER_NAME = "name";
+    public static final String DRIVER_CERTIFIED = "certified";
+    public static final String READING_PREFIX = "reading_";
+
+    private static final String[] EVENT_TYPES = {"Normal", "Overspeed", "Lane Departure", "Unsafe following distance",
+            "Unsafe tail distance"};
+    private static final String[] ROUTES = {"Saint Louis to Tulsa", "Des Moines to Chicago", "Memphis to Little Rock",
+            "Peoria to Ceder Rapids", "Springfield to KC Via Columbia"};
+    private static final int DRIVERS = 1000;
+
+    private final int readings;
+    private final Random random;
+
+    public EventGenerator(int readings) {
+        this(readings, 42L);
+    }
+
+    public EventGenerator(int readings, long seed) {
+        this.readings = readings;
+        this.random = new Random(seed);
+    }
+
+    public Map<String, Object> nextFieldsAndValues() {
+        Map<String, Object> fieldsAndValues = new LinkedHashMap<>();
+        int driverId = random.nextInt(DRIVERS);
+        fieldsAndValues.put(DRIVER_ID, driverId);
+        fieldsAndValues.put(TRUCK_ID, random.nextInt(DRIVERS * 2));
+        fieldsAndValues.put(EVENT_TYPE, EVENT_TYPES[random.nextInt(EVENT_TYPES.length)]);
+        fieldsAndValues.put(LATITUDE, 35 + random.nextDouble() * 6);
+        fieldsAndValues.put(LONGITUDE, -95 + random.nextDouble() * 8);
+        fieldsAndValues.put(SPEED, 40 + random.nextInt(60));
+        fieldsAndValues.put(EVENT_TIME, System.currentTimeMillis());
+        fieldsAndValues.put(ROUTE_NAME, ROUTES[random.nextInt(ROUTES.length)]);
+        Map<String, Object> driver = new LinkedHashMap<>();
+        driver.put(DRIVER_NAME, "driver-" + driverId);
+        driver.put(DRIVER_CERTIFIED, driverId % 3 != 0);
+        fieldsAndValues.put(DRIVER, driver);
+        for (int i = 0; i < readings; i++) {
+            fieldsAndValues.put(READING_PREFIX + i, random.nextGaussian() * 10);
+        }
+        return fieldsAndValues;
+    }
+
+    public StreamlineEvent nextEvent() {
+        return new StreamlineEventImpl(nextFieldsAndValues(), DATA_SOURCE_ID, Collections.<String, Object>emptyMap(), STREAM);
+    }
+
+    public List<StreamlineEvent> nextEvents(int count) {
+        List<StreamlineEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(nextEvent());
+        }
+        return events;
+    }
+
+    /**
+     * @return the avro schema of the generated events
+     */
+    public Schema getAvroSchema() {
+        SchemaBuilder.FieldAssembler<Schema> driver = SchemaBuilder
+                .record(DRIVER).fields()
+                .requiredString(DRIVER_NAME)
+                .requiredBoolean(DRIVER_CERTIFIED);
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder
+                .record("TruckEvent").namespace("com.hortonworks.streamline.benchmarks").fields()
+                .requiredInt(DRIVER_ID)
+                .requiredInt(TRUCK_ID)
+                .requiredString(EVENT_TYPE)
+                .requiredDouble(LATITUDE)
+                .requiredDouble(LONGITUDE)
+                .requiredInt(SPEED)
+                .requiredLong(EVENT_TIME)
+                .requiredString(ROUTE_NAME)
+                .name(DRIVER).type(driver.endRecord()).noDefault();
+        for (int i = 0; i < readings; i++) {
+            fields = fields.requiredDouble(READING_PREFIX + i);
+        }
+        return fields.endRecord();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.layout.Transform;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.rule.Rule;
+import com.hortonworks.streamline.streams.layout.component.rule.action.Action;
+import com.hortonworks.streamline.streams.layout.component.rule.action.TransformAction;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Condition;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Expression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.FieldExpression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Literal;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Operator;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Projection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates rule sets over the events of {@link EventGenerator}. Every rule checks the speed against a threshold that
+ * grows with the rule index and the position against a geo fence, so that the fraction of matching events decreases
+ * as the rule index increases. Every other rule also projects a subset of the fields.
+ */
+public class RuleSetGenerator {
+    private static final String OUTPUT_STREAM_PREFIX = "rule_out_";
+
+    private RuleSetGenerator() {
+    }
+
+    public static RulesProcessor rulesProcessor(int numRules) {
+        RulesProcessor rulesProcessor = new RulesProcessor();
+        rulesProcessor.setId("1");
+        rulesProcessor.setName("benchmark_rules");
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < numRules; i++) {
+            rulesProcessor.addOutputStream(new Stream(OUTPUT_STREAM_PREFIX + i));
+            rules.add(rule(i));
+        }
+        rulesProcessor.setRules(rules);
+        rulesProcessor.setProcessAll(true);
+        return rulesProcessor;
+    }
+
+    public static Condition condition(int ruleIndex) {
+        Expression speed = new FieldExpression(Schema.Field.of(EventGenerator.SPEED, Schema.Type.INTEGER));
+        Expression latitude = new FieldExpression(Schema.Field.of(EventGenerator.LATITUDE, Schema.Type.DOUBLE));
+        Condition condition = new Condition();
+        condition.setExpression(new BinaryExpression(Operator.AND,
+                new BinaryExpression(Operator.GREATER_THAN, speed, new Literal(String.valueOf(50 + ruleIndex % 50))),
+                new BinaryExpression(Operator.LESS_THAN, latitude, new Literal(String.valueOf(40 - ruleIndex % 5)))));
+        return condition;
+    }
+
+    public static Projection projection() {
+        return new Projection(ImmutableList.<Expression>of(
+                new FieldExpression(Schema.Field.of(EventGenerator.DRIVER_ID, Schema.Type.INTEGER)),
+                new FieldExpression(Schema.Field.of(EventGenerator.SPEED, Schema.Type.INTEGER)),
+                new FieldExpression(Schema.Field.of(EventGenerator.EVENT_TYPE, Schema.Type.STRING))));
+    }
+
+    private static Rule rule(int ruleIndex) {
+        Rule rule = new Rule();
+        rule.setId((long) ruleIndex);
+        rule.setName("rule_" + ruleIndex);
+        rule.setRuleProcessorName("benchmark_rules");
+        rule.setStreams(Collections.singleton(EventGenerator.STREAM));
+        rule.setCondition(condition(ruleIndex));
+        if (ruleIndex % 2 == 1) {
+            rule.setProjection(projection());
+        }
+        Action action = new TransformAction(Collections.<Transform>emptyList(),
+                Collections.singleton(OUTPUT_STREAM_PREFIX + ruleIndex));
+        rule.setActions(Collections.singletonList(action));
+        return rule;
+    }
+}
@@ -0,0 +1,147 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage;
+
+import com.hortonworks.streamline.benchmarks.BenchmarkStorable;
+import com.hortonworks.streamline.common.QueryParam;
+import com.hortonworks.streamline.storage.impl.jdbc.JdbcStorageManager;
+import com.hortonworks.streamline.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.streamline.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.streamline.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.streamline.storage.impl.memory.InMemoryStorageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link StorageManager} operations used by the catalog services, against the in memory storage and
+ * against {@link JdbcStorageManager} backed by an in memory H2 database in MySQL mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageManagerBenchmark {
+    private static final String H2_URL = "jdbc:h2:mem:streamline_benchmarks;MODE=MySQL;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1";
+    private static final int PARENTS = 10;
+
+    public enum Backend {
+        IN_MEMORY, JDBC_H2
+    }
+
+    @Param({"IN_MEMORY", "JDBC_H2"})
+    private Backend backend;
+
+    @Param({"1000"})
+    private int rows;
+
+    private StorageManager storageManager;
+    private ConnectionBuilder connectionBuilder;
+    private long next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        switch (backend) {
+            case IN_MEMORY:
+                storageManager = new InMemoryStorageManager();
+                break;
+            case JDBC_H2:
+                Map<String, Object> hikariConfig = new HashMap<>();
+                hikariConfig.put("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+                hikariConfig.put("dataSource.URL", H2_URL);
+                connectionBuilder = new HikariCPConnectionBuilder(hikariConfig);
+                execute(BenchmarkStorable.DROP_TABLE, BenchmarkStorable.CREATE_TABLE);
+                storageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported backend " + backend);
+        }
+        storageManager.registerStorables(Collections.<Class<? extends Storable>>singletonList(BenchmarkStorable.class));
+        for (long id = 1; id <= rows; id++) {
+            storageManager.add(new BenchmarkStorable(id, id % PARENTS));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        storageManager.cleanup();
+        if (connectionBuilder != null) {
+            execute(BenchmarkStorable.DROP_TABLE);
+        }
+    }
+
+    @Benchmark
+    public Storable get() {
+        return storageManager.get(new BenchmarkStorable(nextId(), 0L).getStorableKey());
+    }
+
+    @Benchmark
+    public Collection<Storable> findByParent() {
+        List<QueryParam> queryParams = Collections.singletonList(
+                new QueryParam(BenchmarkStorable.PARENT_ID, String.valueOf(nextId() % PARENTS)));
+        return storageManager.find(BenchmarkStorable.NAMESPACE, queryParams);
+    }
+
+    @Benchmark
+    public Collection<Storable> list() {
+        return storageManager.list(BenchmarkStorable.NAMESPACE);
+    }
+
+    @Benchmark
+    public void addOrUpdate() {
+        long id = nextId();
+        storageManager.addOrUpdate(new BenchmarkStorable(id, id % PARENTS));
+    }
+
+    private synchronized long nextId() {
+        next = next % rows + 1;
+        return next;
+    }
+
+    private void execute(String... statements) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.common;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link StreamlineEventImpl}, which is created at least once per event by every component.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamlineEventImplBenchmark {
+
+    @Param({"8", "64"})
+    private int readings;
+
+    private Map<String, Object> fieldsAndValues;
+    private Map<String, Object> newFieldsAndValues;
+    private StreamlineEvent event;
+
+    @Setup
+    public void setUp() {
+        EventGenerator generator = new EventGenerator(readings);
+        fieldsAndValues = generator.nextFieldsAndValues();
+        event = new StreamlineEventImpl(fieldsAndValues, EventGenerator.DATA_SOURCE_ID);
+        newFieldsAndValues = new HashMap<>();
+        newFieldsAndValues.put("alert", true);
+        newFieldsAndValues.put("score", 0.87);
+    }
+
+    @Benchmark
+    public StreamlineEvent create() {
+        return new StreamlineEventImpl(fieldsAndValues, EventGenerator.DATA_SOURCE_ID,
+                Collections.<String, Object>emptyMap(), EventGenerator.STREAM);
+    }
+
+    @Benchmark
+    public StreamlineEvent build() {
+        return StreamlineEventImpl.builder()
+                .putAll(fieldsAndValues)
+                .dataSourceId(EventGenerator.DATA_SOURCE_ID)
+                .sourceStream(EventGenerator.STREAM)
+                .build();
+    }
+
+    @Benchmark
+    public StreamlineEvent copyWithStream() {
+        return new StreamlineEventImpl(event, event.getDataSourceId(), event.getId(), event.getHeader(),
+                EventGenerator.STREAM, event.getAuxiliaryFieldsAndValues());
+    }
+
+    @Benchmark
+    public StreamlineEvent addFieldsAndValues() {
+        return event.addFieldsAndValues(newFieldsAndValues);
+    }
+
+    @Benchmark
+    public Object getField() {
+        return event.get(EventGenerator.SPEED);
+    }
+
+    @Benchmark
+    public byte[] getBytes() {
+        return event.getBytes();
+    }
+}
@@ -0,0 +1,84 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.instrumentation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of instrumenting a hot path, which is the same shape as the instrumented runtimes: a timer and
+ * a counter around a unit of work. 'tokens' sizes the work; 1000 tokens is about the cost of evaluating a simple rule.
+ * <p/>
+ * 'disabled' should stay within 1% of 'baseline', which runs the same work without any instrumentation call.
+ * 'enabled' shows the cost of recording into HdrHistogram when instrumentation is turned on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class InstrumentationBenchmark {
+    @Param({"100", "1000"})
+    private long tokens;
+
+    private Instrumentation.Timer disabledTimer;
+    private Instrumentation.Counter disabledCounter;
+    private Instrumentation.Timer enabledTimer;
+    private Instrumentation.Counter enabledCounter;
+
+    @Setup
+    public void setUp() {
+        disabledTimer = Instrumentation.NOOP.timer("work");
+        disabledCounter = Instrumentation.NOOP.counter("work");
+        Instrumentation enabled = new HdrInstrumentation();
+        enabledTimer = enabled.timer("work");
+        enabledCounter = enabled.counter("work");
+    }
+
+    @Benchmark
+    public void baseline() {
+        Blackhole.consumeCPU(tokens);
+    }
+
+    @Benchmark
+    public void disabled() {
+        long start = disabledTimer.start();
+        Blackhole.consumeCPU(tokens);
+        disabledTimer.stop(start);
+        disabledCounter.inc();
+    }
+
+    @Benchmark
+    public void enabled() {
+        long start = enabledTimer.start();
+        Blackhole.consumeCPU(tokens);
+        enabledTimer.stop(start);
+        enabledCounter.inc();
+    }
+}
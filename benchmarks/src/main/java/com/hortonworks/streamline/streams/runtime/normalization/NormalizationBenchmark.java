@@ -0,0 +1,125 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.normalization;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldBasedNormalizationConfig;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldValueGenerator;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationConfig;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.Transformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a field based normalization over schemas of different widths. A quarter of the fields is converted by a
+ * script, a quarter is copied to a new field, a quarter is filtered and the rest is passed through; one new field is
+ * generated with a constant value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NormalizationBenchmark {
+    private static final int EVENTS = 256;
+
+    @Param({"16", "64", "256"})
+    private int width;
+
+    private NormalizationProcessorRuntime normalizationProcessorRuntime;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Schema.Field> inputFields = new ArrayList<>();
+        List<Schema.Field> outputFields = new ArrayList<>();
+        List<Transformer> transformers = new ArrayList<>();
+        List<String> filters = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            Schema.Field field = new Schema.Field("f" + i, Schema.Type.INTEGER);
+            inputFields.add(field);
+            switch (i % 4) {
+                case 0:
+                    Schema.Field converted = new Schema.Field("g" + i, Schema.Type.INTEGER);
+                    Transformer transformer = new Transformer(field, converted);
+                    transformer.setConverterScript("f" + i + " * 2");
+                    transformers.add(transformer);
+                    outputFields.add(converted);
+                    break;
+                case 1:
+                    Schema.Field copied = new Schema.Field("c" + i, Schema.Type.INTEGER);
+                    transformers.add(new Transformer(field, copied));
+                    outputFields.add(copied);
+                    break;
+                case 2:
+                    filters.add(field.getName());
+                    break;
+                default:
+                    outputFields.add(field);
+            }
+        }
+        Schema.Field generated = new Schema.Field("source", Schema.Type.STRING);
+        outputFields.add(generated);
+        List<FieldValueGenerator> generators = Collections.singletonList(new FieldValueGenerator(generated, "benchmark"));
+
+        Map<String, NormalizationConfig> configs = new HashMap<>();
+        configs.put(NormalizationProcessor.DEFAULT_STREAM_ID,
+                new FieldBasedNormalizationConfig(Schema.of(inputFields), transformers, filters, generators));
+        Stream outputStream = new Stream("normalized-output", Schema.of(outputFields));
+        normalizationProcessorRuntime = new NormalizationProcessorRuntime(
+                new NormalizationProcessor(configs, outputStream, NormalizationProcessor.Type.fineGrained));
+        normalizationProcessorRuntime.initialize(Collections.<String, Object>emptyMap());
+
+        events = new ArrayList<>(EVENTS);
+        for (int e = 0; e < EVENTS; e++) {
+            Map<String, Object> values = new HashMap<>();
+            for (int i = 0; i < width; i++) {
+                values.put("f" + i, e + i);
+            }
+            events.add(new StreamlineEventImpl(values, "ds-1"));
+        }
+    }
+
+    @Benchmark
+    public List<Result> normalize() throws Exception {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return normalizationProcessorRuntime.process(event);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.processor;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.benchmarks.RuleSetGenerator;
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.exception.ProcessingException;
+import com.hortonworks.streamline.streams.runtime.instrumentation.HdrInstrumentation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link RuleProcessorRuntime#process(StreamlineEvent)} for both script types, with generated rule sets
+ * where all the rules are evaluated for every event, with and without instrumentation enabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleProcessorRuntimeBenchmark {
+    private static final int EVENTS = 1024;
+
+    @Param({"GROOVY", "SQL"})
+    private RuleProcessorRuntime.ScriptType scriptType;
+
+    @Param({"1", "10"})
+    private int numRules;
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private RuleProcessorRuntime ruleProcessorRuntime;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ruleProcessorRuntime = new RuleProcessorRuntime(RuleSetGenerator.rulesProcessor(numRules), scriptType);
+        ruleProcessorRuntime.initialize(Collections.<String, Object>emptyMap());
+        if (instrumented) {
+            ruleProcessorRuntime.setInstrumentation(new HdrInstrumentation());
+        }
+        events = new EventGenerator(8).nextEvents(EVENTS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ruleProcessorRuntime.cleanup();
+    }
+
+    @Benchmark
+    public List<Result> process() throws ProcessingException {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return ruleProcessorRuntime.process(event);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.rule.sql;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.benchmarks.RuleSetGenerator;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.rule.condition.expression.StormSqlExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.script.ScriptException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks evaluation of a rule condition with a projection by {@link SqlScript}, including the conversion of the
+ * event to and from storm sql values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlScriptBenchmark {
+    private static final int EVENTS = 1024;
+
+    private SqlScript sqlScript;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        StormSqlExpression expression = new StormSqlExpression(RuleSetGenerator.condition(0), RuleSetGenerator.projection());
+        sqlScript = new SqlScript(expression, new SqlEngine());
+        sqlScript.setValuesConverter(new SqlScript.ValuesToStreamlineEventConverter(sqlScript.getOutputFields()));
+        events = new EventGenerator(8).nextEvents(EVENTS);
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) throws ScriptException {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        // the result is converted lazily, so consume it to include the conversion
+        for (StreamlineEvent result : sqlScript.evaluate(event)) {
+            blackhole.consume(result);
+        }
+    }
+}
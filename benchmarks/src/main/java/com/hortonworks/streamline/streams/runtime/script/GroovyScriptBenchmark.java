@@ -0,0 +1,111 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.script;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.benchmarks.RuleSetGenerator;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.rule.condition.expression.GroovyExpression;
+import com.hortonworks.streamline.streams.runtime.script.engine.GroovyScriptEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.script.ScriptException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks evaluation of a rule condition by {@link GroovyScript}, including the binding of the event fields, with
+ * the dynamically and the statically compiled script, and the creation of new scripts sharing the same text. The
+ * number of compiled scripts and the metaspace used are printed at the end of each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroovyScriptBenchmark {
+    private static final int EVENTS = 1024;
+
+    private static final Schema SCHEMA = Schema.of(
+            Schema.Field.of(EventGenerator.SPEED, Schema.Type.INTEGER),
+            Schema.Field.of(EventGenerator.LATITUDE, Schema.Type.DOUBLE));
+
+    private String expression;
+    private GroovyScript<Boolean> groovyScript;
+    private GroovyScript<Boolean> staticGroovyScript;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        expression = new GroovyExpression(RuleSetGenerator.condition(0)).asString();
+        groovyScript = new GroovyScript<>(expression, new GroovyScriptEngine());
+        staticGroovyScript = new GroovyScript<>(expression, new GroovyScriptEngine(), Collections.<String, Object>emptyMap(),
+                SCHEMA, GroovyScript.CompileMode.COMPILE_STATIC);
+        events = new EventGenerator(8).nextEvents(EVENTS);
+    }
+
+    @Benchmark
+    public Boolean evaluate() throws ScriptException {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return groovyScript.evaluate(event);
+    }
+
+    @Benchmark
+    public Boolean evaluateStatic() throws ScriptException {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return staticGroovyScript.evaluate(event);
+    }
+
+    /**
+     * A new script with an already seen text, as created by every rule, transformer and field value generator.
+     */
+    @Benchmark
+    public Boolean createAndEvaluate() throws ScriptException {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return new GroovyScript<Boolean>(expression, new GroovyScriptEngine()).evaluate(event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        long metaspace = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                metaspace = pool.getUsage().getUsed();
+            }
+        }
+        System.out.printf("%nCompiled scripts: %d, compilations: %d, metaspace used: %d KB%n",
+                GroovyScriptClassCache.size(), GroovyScriptClassCache.compilations(), metaspace / 1024);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.splitjoin;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.JoinAction;
+import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.SplitAction;
+import com.hortonworks.streamline.streams.runtime.rule.action.ActionRuntimeContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link JoinActionRuntime} joining the partitions of events split by the default splitter. One operation
+ * groups all the partitions of one event and emits the joined event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JoinActionRuntimeBenchmark {
+    private static final int EVENTS = 1024;
+
+    @Param({"2", "4"})
+    private int partitions;
+
+    private JoinActionRuntime joinActionRuntime;
+    private List<List<StreamlineEvent>> splitEvents;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> config = Collections.emptyMap();
+        Set<String> splitStreams = new HashSet<>();
+        for (int i = 0; i < partitions; i++) {
+            splitStreams.add("split-stream-" + i);
+        }
+        SplitAction splitAction = new SplitAction();
+        splitAction.setOutputStreams(splitStreams);
+        SplitActionRuntime splitActionRuntime = new SplitActionRuntime(splitAction);
+        splitActionRuntime.setActionRuntimeContext(new ActionRuntimeContext(null, splitAction));
+        splitActionRuntime.initialize(config);
+
+        JoinAction joinAction = new JoinAction();
+        joinAction.setOutputStreams(Collections.singleton("joined-stream"));
+        joinActionRuntime = new JoinActionRuntime(joinAction);
+        joinActionRuntime.setActionRuntimeContext(new ActionRuntimeContext(null, joinAction));
+        joinActionRuntime.initialize(config);
+
+        splitEvents = new ArrayList<>(EVENTS);
+        for (StreamlineEvent event : new EventGenerator(8).nextEvents(EVENTS)) {
+            List<StreamlineEvent> parts = new ArrayList<>();
+            for (Result result : splitActionRuntime.execute(event)) {
+                parts.addAll(result.events);
+            }
+            splitEvents.add(parts);
+        }
+    }
+
+    @Benchmark
+    public void join(Blackhole blackhole) {
+        List<StreamlineEvent> parts = splitEvents.get(next);
+        next = (next + 1) % EVENTS;
+        for (StreamlineEvent part : parts) {
+            blackhole.consume(joinActionRuntime.execute(part));
+        }
+    }
+}
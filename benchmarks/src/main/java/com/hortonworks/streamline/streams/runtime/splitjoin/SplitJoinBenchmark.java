@@ -0,0 +1,141 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.splitjoin;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.EventIdGenerator;
+import com.hortonworks.streamline.streams.common.EventIds;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.JoinAction;
+import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.SplitAction;
+import com.hortonworks.streamline.streams.runtime.rule.action.ActionRuntimeContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a 4 way split followed by the join of the partitions, one operation splitting one event and joining its
+ * partitions back. The "previous" splitter copies the header into a new map for every partition and uses random UUIDs for
+ * the group and partition ids, as the default splitter used to; "default" is the current {@link DefaultSplitter}. The id
+ * generator is the one used for the partition and joined event ids. Runs with 4 threads, as the executors of a worker
+ * share the id generator. Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SplitJoinBenchmark {
+    private static final int EVENTS = 1024;
+    private static final int PARTITIONS = 4;
+
+    @Param({"previous", "default"})
+    private String splitter;
+
+    @Param({"UUID", "TIME_ORDERED", "COUNTER"})
+    private String idGenerator;
+
+    private SplitActionRuntime splitActionRuntime;
+    private JoinActionRuntime joinActionRuntime;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        EventIds.setGenerator(EventIdGenerator.Type.valueOf(idGenerator).create());
+
+        Map<String, Object> config = Collections.emptyMap();
+        Set<String> splitStreams = new LinkedHashSet<>();
+        for (int i = 0; i < PARTITIONS; i++) {
+            splitStreams.add("split-stream-" + i);
+        }
+        SplitAction splitAction = "previous".equals(splitter)
+                ? new SplitAction(PreviousSplitter.class.getName()) : new SplitAction();
+        splitAction.setOutputStreams(splitStreams);
+        splitActionRuntime = new SplitActionRuntime(splitAction);
+        splitActionRuntime.setActionRuntimeContext(new ActionRuntimeContext(null, splitAction));
+        splitActionRuntime.initialize(config);
+
+        JoinAction joinAction = new JoinAction();
+        joinAction.setOutputStreams(Collections.singleton("joined-stream"));
+        joinActionRuntime = new JoinActionRuntime(joinAction);
+        joinActionRuntime.setActionRuntimeContext(new ActionRuntimeContext(null, joinAction));
+        joinActionRuntime.initialize(config);
+
+        events = new EventGenerator(8).nextEvents(EVENTS);
+    }
+
+    @Benchmark
+    public void splitJoin(Blackhole blackhole) {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        for (Result result : splitActionRuntime.execute(event)) {
+            for (StreamlineEvent part : result.events) {
+                blackhole.consume(joinActionRuntime.execute(part));
+            }
+        }
+    }
+
+    /**
+     * The split logic of the default splitter before partitions shared the header of the split event.
+     */
+    public static class PreviousSplitter implements Splitter {
+        @Override
+        public List<Result> splitEvent(StreamlineEvent inputEvent, Set<String> outputStreams) {
+            List<Result> results = new ArrayList<>();
+            String groupId = UUID.randomUUID().toString();
+            int curPartNo = 0;
+            int totalParts = outputStreams.size();
+            for (String stream : outputStreams) {
+                Map<String, Object> headers = new HashMap<>();
+                if (inputEvent.getHeader() != null) {
+                    headers.putAll(inputEvent.getHeader());
+                }
+                headers.put(SplitActionRuntime.SPLIT_GROUP_ID, groupId);
+                headers.put(SplitActionRuntime.SPLIT_PARTITION_ID, ++curPartNo);
+                headers.put(SplitActionRuntime.SPLIT_TOTAL_PARTITIONS_ID, totalParts);
+                StreamlineEvent partitionedEvent = new StreamlineEventImpl(inputEvent, inputEvent.getDataSourceId(),
+                        UUID.randomUUID().toString(), headers, stream, inputEvent.getAuxiliaryFieldsAndValues());
+                results.add(new Result(stream, Collections.singletonList(partitionedEvent)));
+            }
+            return results;
+        }
+    }
+}
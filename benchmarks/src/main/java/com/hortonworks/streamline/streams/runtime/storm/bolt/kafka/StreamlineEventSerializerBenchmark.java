@@ -0,0 +1,90 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.kafka;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the avro encoding done by the kafka sink. The schema registry lookup is left out, so that the benchmark
+ * measures the conversion of the event to an avro record by {@link StreamlineEventSerializer} and its binary encoding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamlineEventSerializerBenchmark {
+    private static final int EVENTS = 1024;
+
+    @Param({"8", "64"})
+    private int readings;
+
+    private Schema schema;
+    private GenericDatumWriter<Object> datumWriter;
+    private ByteArrayOutputStream out;
+    private BinaryEncoder encoder;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        EventGenerator generator = new EventGenerator(readings);
+        schema = generator.getAvroSchema();
+        events = generator.nextEvents(EVENTS);
+        datumWriter = new GenericDatumWriter<>(schema);
+        out = new ByteArrayOutputStream();
+    }
+
+    @Benchmark
+    public Object toAvroRecord() {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return StreamlineEventSerializer.getAvroRecord(event, schema);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        out.reset();
+        encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+        datumWriter.write(StreamlineEventSerializer.getAvroRecord(event, schema), encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+}
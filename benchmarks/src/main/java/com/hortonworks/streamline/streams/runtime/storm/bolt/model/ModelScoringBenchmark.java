@@ -0,0 +1,160 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.common.MLModelArtifact;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.impl.model.ModelProcessor;
+import org.apache.storm.task.GeneralTopologyContext;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.TupleImpl;
+import org.apache.storm.tuple.Values;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scoring of events with a PMML regression model over the generated truck events: the continuous
+ * readings and the speed as numeric predictors, the event type as a categorical one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelScoringBenchmark {
+    private static final int EVENTS = 1024;
+    private static final String SOURCE_COMPONENT = "source";
+    private static final String TARGET = "risk";
+
+    @Param({"8", "64"})
+    private int readings;
+
+    private StreamlineJPMMLModelRunnerFactory runnerFactory;
+    private StreamlineJPMMLModelRunner runner;
+    private List<Tuple> tuples;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        ModelProcessor modelProcessor = new ModelProcessor();
+        modelProcessor.setId("model");
+        modelProcessor.addOutputStream(new Stream("scored",
+                Collections.singletonList(new Schema.Field(TARGET, Schema.Type.DOUBLE))));
+        modelProcessor.setModelArtifact(MLModelArtifact.fromPmml("risk-model", regressionModel(readings)));
+        String modelProcessorJson = new ObjectMapper().writeValueAsString(modelProcessor);
+
+        runnerFactory = new StreamlineJPMMLModelRunnerFactory(modelProcessorJson,
+                new StreamlineEventModelOutputs(modelProcessor));
+        runner = runnerFactory.newModelRunner();
+        tuples = toTuples(new EventGenerator(readings).nextEvents(EVENTS));
+    }
+
+    @Benchmark
+    public Object scoreOneByOne() {
+        Tuple tuple = tuples.get(next);
+        next = (next + 1) % EVENTS;
+        return runner.scoredTuplePerStream(tuple);
+    }
+
+    @Benchmark
+    public StreamlineEvent score() {
+        Tuple tuple = tuples.get(next);
+        next = (next + 1) % EVENTS;
+        return runner.score(tuple);
+    }
+
+    /**
+     * Creating the runner of another executor of the same worker, which reuses the cached evaluator.
+     */
+    @Benchmark
+    public Object newModelRunner() {
+        return runnerFactory.newModelRunner();
+    }
+
+    private static List<Tuple> toTuples(List<StreamlineEvent> events) {
+        Map<Integer, String> taskToComponent = Collections.singletonMap(1, SOURCE_COMPONENT);
+        Map<String, Map<String, Fields>> componentToStreamToFields = Collections.singletonMap(SOURCE_COMPONENT,
+                Collections.singletonMap(EventGenerator.STREAM, new Fields(StreamlineEvent.STREAMLINE_EVENT)));
+        GeneralTopologyContext context = new GeneralTopologyContext(null, new HashMap<>(), taskToComponent,
+                new HashMap<>(), componentToStreamToFields, "model-scoring-benchmark");
+        List<Tuple> tuples = new ArrayList<>(events.size());
+        for (StreamlineEvent event : events) {
+            tuples.add(new TupleImpl(context, new Values(event), 1, EventGenerator.STREAM));
+        }
+        return tuples;
+    }
+
+    private static String regressionModel(int readings) {
+        StringBuilder dataFields = new StringBuilder();
+        StringBuilder miningFields = new StringBuilder();
+        StringBuilder predictors = new StringBuilder();
+        for (int i = 0; i < readings; i++) {
+            String name = EventGenerator.READING_PREFIX + i;
+            dataFields.append("<DataField name=\"").append(name).append("\" optype=\"continuous\" dataType=\"double\"/>");
+            miningFields.append("<MiningField name=\"").append(name).append("\"/>");
+            predictors.append("<NumericPredictor name=\"").append(name).append("\" coefficient=\"")
+                    .append((i % 7 + 1) / 10.0).append("\"/>");
+        }
+        return "<PMML xmlns=\"http://www.dmg.org/PMML-4_2\" version=\"4.2\">" +
+                "<Header/>" +
+                "<DataDictionary>" +
+                dataFields +
+                "<DataField name=\"" + EventGenerator.SPEED + "\" optype=\"continuous\" dataType=\"double\"/>" +
+                "<DataField name=\"" + EventGenerator.EVENT_TYPE + "\" optype=\"categorical\" dataType=\"string\">" +
+                "<Value value=\"Normal\"/><Value value=\"Overspeed\"/><Value value=\"Lane Departure\"/>" +
+                "<Value value=\"Unsafe following distance\"/><Value value=\"Unsafe tail distance\"/>" +
+                "</DataField>" +
+                "<DataField name=\"" + TARGET + "\" optype=\"continuous\" dataType=\"double\"/>" +
+                "</DataDictionary>" +
+                "<RegressionModel functionName=\"regression\">" +
+                "<MiningSchema>" +
+                miningFields +
+                "<MiningField name=\"" + EventGenerator.SPEED + "\"/>" +
+                "<MiningField name=\"" + EventGenerator.EVENT_TYPE + "\"/>" +
+                "<MiningField name=\"" + TARGET + "\" usageType=\"target\"/>" +
+                "</MiningSchema>" +
+                "<RegressionTable intercept=\"1.0\">" +
+                predictors +
+                "<NumericPredictor name=\"" + EventGenerator.SPEED + "\" coefficient=\"0.05\"/>" +
+                "<CategoricalPredictor name=\"" + EventGenerator.EVENT_TYPE + "\" value=\"Overspeed\" coefficient=\"2.0\"/>" +
+                "<CategoricalPredictor name=\"" + EventGenerator.EVENT_TYPE + "\" value=\"Lane Departure\" coefficient=\"1.5\"/>" +
+                "</RegressionTable>" +
+                "</RegressionModel>" +
+                "</PMML>";
+    }
+}
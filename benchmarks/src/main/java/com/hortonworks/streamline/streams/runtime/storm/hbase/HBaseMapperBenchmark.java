@@ -0,0 +1,106 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hbase;
+
+import com.google.common.base.Charsets;
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.storm.hbase.common.ColumnList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.storm.hbase.common.Utils.toBytes;
+
+/**
+ * Benchmarks mapping an event with a nested driver record to an HBase mutation: the previous mapping, which looked up
+ * each value twice and encoded it with storm-hbase's Utils, against {@link StreamlineEventHBaseMapper} with all the
+ * event fields and with configured fields. Only the client side mapping is measured, not the write to a region server.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HBaseMapperBenchmark {
+    private static final int EVENTS = 1024;
+    private static final byte[] COLUMN_FAMILY = "cf".getBytes(Charsets.UTF_8);
+
+    @Param({"8", "64"})
+    private int readings;
+
+    private StreamlineEventHBaseMapper mapper;
+    private StreamlineEventHBaseMapper fieldsMapper;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        events = new EventGenerator(readings).nextEvents(EVENTS);
+        mapper = new StreamlineEventHBaseMapper("cf");
+        fieldsMapper = new StreamlineEventHBaseMapper("cf")
+                .withFields(new ArrayList<>(events.get(0).keySet()))
+                .withRowKeyStrategy(HBaseRowKeyStrategy.Type.FIELDS.name())
+                .withRowKeyFields(Arrays.asList(EventGenerator.TRUCK_ID, EventGenerator.EVENT_TIME));
+    }
+
+    @Benchmark
+    public Put previousMapping() {
+        StreamlineEvent event = nextEvent();
+        ColumnList columnList = new ColumnList();
+        for (String key : event.keySet()) {
+            if (event.get(key) != null) {
+                columnList.addColumn(COLUMN_FAMILY, key.getBytes(Charsets.UTF_8), toBytes(event.get(key)));
+            }
+        }
+        Put put = new Put(toBytes(event.getId()));
+        for (ColumnList.Column column : columnList.getColumns()) {
+            put.addColumn(column.getFamily(), column.getQualifier(), column.getValue());
+        }
+        return put;
+    }
+
+    @Benchmark
+    public Put allFields() {
+        return mapper.put(nextEvent());
+    }
+
+    @Benchmark
+    public Put configuredFields() {
+        return fieldsMapper.put(nextEvent());
+    }
+
+    private StreamlineEvent nextEvent() {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return event;
+    }
+}
@@ -0,0 +1,182 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hdfs;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.storm.task.GeneralTopologyContext;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.TupleImpl;
+import org.apache.storm.tuple.Values;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the record formatting of the HDFS sink: the previous StringBuilder based text formatting, the buffered
+ * {@link HdfsTextOutputFormat} and writing Parquet records to a local file. At the end of each iteration the bytes
+ * written per record in text and in Parquet are printed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HdfsSinkBenchmark {
+    private static final int EVENTS = 1024;
+    private static final String SOURCE_COMPONENT = "source";
+
+    @Param({"8", "64"})
+    private int readings;
+
+    private List<String> fields;
+    private List<Tuple> tuples;
+    private HdfsTextOutputFormat textOutputFormat;
+    private ParquetRecordMapper recordMapper;
+    private File directory;
+    private File parquetFile;
+    private ParquetWriter<GenericRecord> parquetWriter;
+    private long textBytes;
+    private long textRecords;
+    private long parquetRecords;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<StreamlineEvent> events = new EventGenerator(readings).nextEvents(EVENTS);
+        fields = new ArrayList<>(events.get(0).keySet());
+        List<String> fieldTypes = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            Object value = events.get(0).get(field);
+            fieldTypes.add(value instanceof Integer ? "INTEGER" : value instanceof Long ? "LONG"
+                    : value instanceof Double ? "DOUBLE" : value instanceof Map ? "NESTED" : "STRING");
+        }
+        tuples = toTuples(events);
+        textOutputFormat = new HdfsTextOutputFormat().withFields(String.join(",", fields));
+        recordMapper = new ParquetRecordMapper(fields, fieldTypes);
+        directory = Files.createTempDirectory("hdfs-sink-benchmark").toFile();
+    }
+
+    @Setup(Level.Iteration)
+    public void openParquetFile() throws IOException {
+        parquetFile = new File(directory, "events-" + System.nanoTime() + ".parquet");
+        parquetWriter = AvroParquetWriter.<GenericRecord>builder(new Path(parquetFile.toURI()))
+                .withSchema(recordMapper.getSchema())
+                .withConf(new Configuration())
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .build();
+        textBytes = textRecords = parquetRecords = 0;
+    }
+
+    @Benchmark
+    public byte[] textFormatPrevious() {
+        StreamlineEvent event = (StreamlineEvent) nextTuple().getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = event.get(fields.get(i));
+            if (value != null) {
+                sb.append(value);
+            }
+            if (i != fields.size() - 1) {
+                sb.append(',');
+            }
+        }
+        sb.append('\n');
+        return sb.toString().getBytes();
+    }
+
+    @Benchmark
+    public byte[] textFormat() {
+        byte[] record = textOutputFormat.format(nextTuple());
+        textBytes += record.length;
+        textRecords++;
+        return record;
+    }
+
+    @Benchmark
+    public void parquetWrite() throws IOException {
+        StreamlineEvent event = (StreamlineEvent) nextTuple().getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+        parquetWriter.write(recordMapper.toRecord(event));
+        parquetRecords++;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeParquetFile() throws IOException {
+        parquetWriter.close();
+        if (textRecords > 0) {
+            System.out.printf("%nText bytes per record: %.1f%n", textBytes / (double) textRecords);
+        }
+        if (parquetRecords > 0) {
+            System.out.printf("%nParquet bytes per record: %.1f%n", parquetFile.length() / (double) parquetRecords);
+        }
+        parquetFile.delete();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    private Tuple nextTuple() {
+        Tuple tuple = tuples.get(next);
+        next = (next + 1) % EVENTS;
+        return tuple;
+    }
+
+    private static List<Tuple> toTuples(List<StreamlineEvent> events) {
+        Map<Integer, String> taskToComponent = Collections.singletonMap(1, SOURCE_COMPONENT);
+        Map<String, Map<String, Fields>> componentToStreamToFields = Collections.singletonMap(SOURCE_COMPONENT,
+                Collections.singletonMap(EventGenerator.STREAM, new Fields(StreamlineEvent.STREAMLINE_EVENT)));
+        GeneralTopologyContext context = new GeneralTopologyContext(null, new HashMap<>(), taskToComponent,
+                new HashMap<>(), componentToStreamToFields, "hdfs-sink-benchmark");
+        List<Tuple> tuples = new ArrayList<>(events.size());
+        for (StreamlineEvent event : events) {
+            tuples.add(new TupleImpl(context, new Values(event), 1, EventGenerator.STREAM));
+        }
+        return tuples;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.spout;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the avro payload decoding done by the kafka spout. The schema registry lookup is left out, so that the
+ * benchmark measures the decoding of the payload and its conversion to the fields and values of a streamline event
+ * done by {@link AvroStreamsSnapshotDeserializer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvroStreamsSnapshotDeserializerBenchmark {
+    private static final int EVENTS = 1024;
+
+    @Param({"8", "64"})
+    private int readings;
+
+    private final AvroStreamsSnapshotDeserializer deserializer = new AvroStreamsSnapshotDeserializer();
+    private GenericDatumReader<Object> datumReader;
+    private BinaryDecoder decoder;
+    private List<byte[]> payloads;
+    private List<GenericRecord> records;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        EventGenerator generator = new EventGenerator(readings);
+        Schema schema = generator.getAvroSchema();
+        GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+        payloads = new ArrayList<>(EVENTS);
+        records = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            GenericRecord record = toRecord(generator.nextFieldsAndValues(), schema);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            datumWriter.write(record, encoder);
+            encoder.flush();
+            payloads.add(out.toByteArray());
+            records.add(record);
+        }
+        datumReader = new GenericDatumReader<>(schema);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeAndConvert() throws IOException {
+        byte[] payload = payloads.get(next);
+        next = (next + 1) % EVENTS;
+        decoder = DecoderFactory.get().binaryDecoder(payload, decoder);
+        return deserializer.toFieldsAndValues(datumReader.read(null, decoder));
+    }
+
+    @Benchmark
+    public Map<String, Object> convert() {
+        GenericRecord record = records.get(next);
+        next = (next + 1) % EVENTS;
+        return deserializer.toFieldsAndValues(record);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GenericRecord toRecord(Map<String, Object> fieldsAndValues, Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        for (Map.Entry<String, Object> entry : fieldsAndValues.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                value = toRecord((Map<String, Object>) value, schema.getField(entry.getKey()).schema());
+            }
+            record.put(entry.getKey(), value);
+        }
+        return record;
+    }
+}
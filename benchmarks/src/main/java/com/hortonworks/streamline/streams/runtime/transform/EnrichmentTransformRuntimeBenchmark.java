@@ -0,0 +1,80 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.transform;
+
+import com.hortonworks.streamline.benchmarks.EventGenerator;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.layout.component.rule.action.transform.EnrichmentTransform;
+import com.hortonworks.streamline.streams.layout.component.rule.action.transform.InmemoryTransformDataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link EnrichmentTransformRuntime} enriching the driver id of events from an in memory data provider.
+ * The cache size controls how often the lookup misses the cache and goes to the data provider.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrichmentTransformRuntimeBenchmark {
+    private static final int EVENTS = 4096;
+
+    @Param({"100", "1000"})
+    private long maxCacheSize;
+
+    private EnrichmentTransformRuntime enrichmentTransformRuntime;
+    private List<StreamlineEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        events = new EventGenerator(8).nextEvents(EVENTS);
+        Map<Object, Object> data = new HashMap<>();
+        for (StreamlineEvent event : events) {
+            Object driverId = event.get(EventGenerator.DRIVER_ID);
+            data.put(driverId, "profile-of-driver-" + driverId);
+        }
+        EnrichmentTransform enrichmentTransform = new EnrichmentTransform("driver-profile",
+                Collections.singletonList(EventGenerator.DRIVER_ID), new InmemoryTransformDataProvider(data));
+        enrichmentTransform.withMaxCacheSize(maxCacheSize);
+        enrichmentTransformRuntime = new EnrichmentTransformRuntime(enrichmentTransform);
+    }
+
+    @Benchmark
+    public List<StreamlineEvent> enrich() {
+        StreamlineEvent event = events.get(next);
+        next = (next + 1) % EVENTS;
+        return enrichmentTransformRuntime.execute(event);
+    }
+}
@@ -0,0 +1,122 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.udaf;
+
+import com.hortonworks.streamline.streams.rule.UDAF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the built in aggregate functions over a window of values. One operation aggregates the whole window and
+ * computes the result, as done by a windowed rule when the window fires.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UdafBenchmark {
+
+    @Param({"100", "10000"})
+    private int windowSize;
+
+    private Double[] values;
+
+    private final Mean mean = new Mean();
+    private final Stddev stddev = new Stddev();
+    private final Stddevp stddevp = new Stddevp();
+    private final Variance variance = new Variance();
+    private final Variancep variancep = new Variancep();
+    private final NumberSum numberSum = new NumberSum();
+    private final CollectList collectList = new CollectList();
+    private final Topn<Double> topn = new Topn<>();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        values = new Double[windowSize];
+        for (int i = 0; i < windowSize; i++) {
+            values[i] = 60 + random.nextGaussian() * 15;
+        }
+    }
+
+    @Benchmark
+    public Double mean() {
+        return aggregate(mean);
+    }
+
+    @Benchmark
+    public Double stddev() {
+        return aggregate(stddev);
+    }
+
+    @Benchmark
+    public Double stddevp() {
+        return aggregate(stddevp);
+    }
+
+    @Benchmark
+    public Double variance() {
+        return aggregate(variance);
+    }
+
+    @Benchmark
+    public Double variancep() {
+        return aggregate(variancep);
+    }
+
+    @Benchmark
+    public Number numberSum() {
+        return aggregate(numberSum);
+    }
+
+    @Benchmark
+    public List<Object> collectList() {
+        return aggregate(collectList);
+    }
+
+    @Benchmark
+    public List<Double> topn() {
+        PriorityQueue<Double> aggregate = topn.init();
+        for (Double value : values) {
+            aggregate = topn.add(aggregate, 10, value);
+        }
+        return topn.result(aggregate);
+    }
+
+    private <A, R> R aggregate(UDAF<A, ? super Double, R> udaf) {
+        A aggregate = udaf.init();
+        for (Double value : values) {
+            aggregate = udaf.add(aggregate, value);
+        }
+        return udaf.result(aggregate);
+    }
+}
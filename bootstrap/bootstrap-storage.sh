@@ -57,12 +57,16 @@ function createTables {
     ${JAVA} -Dbootstrap.dir=$BOOTSTRAP_DIR  -cp ${CLASSPATH} ${TABLE_INITIALIZER_MAIN_CLASS} -m ${MYSQL_JAR_URL_PATH} -c ${CONFIG_FILE_PATH} -s ${SCRIPT_ROOT_DIR} --create
 }
 
+function upgradeTables {
+    ${JAVA} -Dbootstrap.dir=$BOOTSTRAP_DIR  -cp ${CLASSPATH} ${TABLE_INITIALIZER_MAIN_CLASS} -m ${MYSQL_JAR_URL_PATH} -c ${CONFIG_FILE_PATH} -s ${SCRIPT_ROOT_DIR} --upgrade
+}
+
 function checkStorageConnection {
     ${JAVA} -Dbootstrap.dir=$BOOTSTRAP_DIR  -cp ${CLASSPATH} ${TABLE_INITIALIZER_MAIN_CLASS} -m ${MYSQL_JAR_URL_PATH} -c ${CONFIG_FILE_PATH} -s ${SCRIPT_ROOT_DIR} --check-connection
 }
 
 function printUsage {
-    echo "USAGE: $0 [create|drop|check-connection|drop-create]"
+    echo "USAGE: $0 [create|drop|upgrade|check-connection|drop-create]"
 }
 
 opt="create"
@@ -82,6 +86,9 @@ drop)
 drop-create)
     dropTables && createTables
     ;;
+upgrade)
+    upgradeTables
+    ;;
 check-connection)
     checkStorageConnection
     if [ $? == 0 ]
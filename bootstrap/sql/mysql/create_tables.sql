@@ -340,6 +340,8 @@ CREATE TABLE IF NOT EXISTS service_configuration (
   configuration TEXT NOT NULL,
   description TEXT,
   filename VARCHAR(256),
+  version BIGINT,
+  tag VARCHAR(256),
   timestamp BIGINT,
   PRIMARY KEY (id)
 );
@@ -467,7 +469,9 @@ CREATE TABLE IF NOT EXISTS topology_test_run_histories (
   success CHAR(5) NOT NULL,
   expectedOutputRecords TEXT,
   actualOutputRecords TEXT,
+  actualOutputRecordsFile VARCHAR(255),
   matched CHAR(5),
+  mismatches TEXT,
   startTime BIGINT,
   finishTime BIGINT,
   timestamp BIGINT,
@@ -475,3 +479,10 @@ CREATE TABLE IF NOT EXISTS topology_test_run_histories (
   FOREIGN KEY (topologyId) REFERENCES topology(id),
   FOREIGN KEY (versionId) REFERENCES topology_version(id)
 );
+
+-- next free id of every namespace, when ids are reserved in blocks (idBlockSize)
+CREATE TABLE IF NOT EXISTS id_block (
+  namespace VARCHAR(255) NOT NULL,
+  next_id BIGINT NOT NULL,
+  PRIMARY KEY (namespace)
+);
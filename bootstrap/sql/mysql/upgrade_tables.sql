@@ -0,0 +1,7 @@
+-- Upgrades the tables created by an earlier release, to be run once with "bootstrap-storage.sh upgrade".
+
+-- version and tag of the service configurations, to only update the configurations changed in Ambari on re-import
+ALTER TABLE service_configuration ADD COLUMN version BIGINT, ADD COLUMN tag VARCHAR(256);
+
+-- complete actual output of large test runs kept in file storage, and the mismatches of failed test runs
+ALTER TABLE topology_test_run_histories ADD COLUMN actualOutputRecordsFile VARCHAR(255), ADD COLUMN mismatches TEXT;
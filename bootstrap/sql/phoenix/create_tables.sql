@@ -21,7 +21,7 @@ CREATE TABLE IF NOT EXISTS topology_window ("id" BIGINT NOT NULL, "versionId" BI
 CREATE TABLE IF NOT EXISTS udf ("id" BIGINT NOT NULL, "name" VARCHAR, "displayName" VARCHAR, "description" VARCHAR, "type" VARCHAR, "className" VARCHAR, "jarStoragePath" VARCHAR, "digest" VARCHAR, "argTypes" VARCHAR, "returnType" VARCHAR, "builtin" CHAR(5), CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS cluster ("id" BIGINT NOT NULL, "name" VARCHAR, "ambariImportUrl" VARCHAR, "description" VARCHAR, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS service ("id" BIGINT NOT NULL, "clusterId" BIGINT, "name" VARCHAR, "description" VARCHAR, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
-CREATE TABLE IF NOT EXISTS service_configuration ("id" BIGINT NOT NULL, "serviceId" BIGINT, "name" VARCHAR, "configuration" VARCHAR, "description" VARCHAR, "filename" VARCHAR, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
+CREATE TABLE IF NOT EXISTS service_configuration ("id" BIGINT NOT NULL, "serviceId" BIGINT, "name" VARCHAR, "configuration" VARCHAR, "description" VARCHAR, "filename" VARCHAR, "version" BIGINT, "tag" VARCHAR, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS component ("id" BIGINT NOT NULL, "serviceId" BIGINT, "name" VARCHAR, "hosts" VARCHAR, "protocol" VARCHAR, "port" INTEGER, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS namespace ("id" BIGINT NOT NULL, "name" VARCHAR, "streamingEngine" VARCHAR, "timeSeriesDB" VARCHAR, "description" VARCHAR, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS namespace_service_cluster_mapping ("namespaceId" BIGINT NOT NULL, "serviceName" VARCHAR NOT NULL, "clusterId" BIGINT NOT NULL, CONSTRAINT pk PRIMARY KEY ("namespaceId", "serviceName", "clusterId"))
@@ -40,7 +40,7 @@ CREATE TABLE IF NOT EXISTS user_role ("userId" BIGINT NOT NULL, "roleId" BIGINT
 CREATE TABLE IF NOT EXISTS topology_test_run_case ("id" BIGINT NOT NULL, "name" VARCHAR(256) NOT NULL, "topologyId" BIGINT NOT NULL, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS topology_test_run_case_source ("id" BIGINT NOT NULL, "testCaseId" BIGINT NOT NULL, "sourceId" BIGINT NOT NULL, "records" VARCHAR NOT NULL, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS topology_test_run_case_sink ("id" BIGINT NOT NULL, "testCaseId" BIGINT NOT NULL, "sinkId" BIGINT NOT NULL, "records" VARCHAR NOT NULL, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
-CREATE TABLE IF NOT EXISTS topology_test_run_histories ("id" BIGINT NOT NULL, "topologyId" BIGINT NOT NULL, "versionId" BIGINT, "testRecords" TEXT NOT NULL, "finished" CHAR(5) NOT NULL, "success" CHAR(5) NOT NULL, "expectedOutputRecords" VARCHAR, "actualOutputRecords" VARCHAR, "matched" CHAR(5), "startTime" BIGINT, "finishTime" BIGINT, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
+CREATE TABLE IF NOT EXISTS topology_test_run_histories ("id" BIGINT NOT NULL, "topologyId" BIGINT NOT NULL, "versionId" BIGINT, "testRecords" TEXT NOT NULL, "finished" CHAR(5) NOT NULL, "success" CHAR(5) NOT NULL, "expectedOutputRecords" VARCHAR, "actualOutputRecords" VARCHAR, "actualOutputRecordsFile" VARCHAR, "matched" CHAR(5), "mismatches" VARCHAR, "startTime" BIGINT, "finishTime" BIGINT, "timestamp" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 CREATE TABLE IF NOT EXISTS sequence_table ("id" VARCHAR, "file" BIGINT, "topology_version" BIGINT, "topology" BIGINT, "topology_component_bundle" BIGINT,"topology_component" BIGINT, "tag" BIGINT,  "topology_stream" BIGINT, "notifier" BIGINT, "topology_source" BIGINT, "topology_sink" BIGINT, "topology_processor" BIGINT, "topology_edge" BIGINT,"topology_rule" BIGINT, "topology_window" BIGINT, "udf" BIGINT, "cluster" BIGINT, "service" BIGINT, "service_configuration" BIGINT,"topology_branchrule" BIGINT, "component" BIGINT, "dashboard" BIGINT, "widget" BIGINT, "datasource" BIGINT, "namespace" BIGINT, "ml_model" BIGINT, "topology_state" BIGINT, "service_bundle" BIGINT, "acl_entry" BIGINT, "role" BIGINT, "role_hierarchy" BIGINT, "user_entry" BIGINT, "user_role" BIGINT, "topology_editor_toolbar" BIGINT, "topology_test_run_case" BIGINT, "topology_test_run_case_source" BIGINT, "topology_test_run_case_sink" BIGINT, "topology_test_run_histories" BIGINT, CONSTRAINT pk PRIMARY KEY ("id"))
 
 CREATE SEQUENCE IF NOT EXISTS topology_version_sequence
@@ -0,0 +1,2 @@
+ALTER TABLE service_configuration ADD IF NOT EXISTS "version" BIGINT, "tag" VARCHAR
+ALTER TABLE topology_test_run_histories ADD IF NOT EXISTS "actualOutputRecordsFile" VARCHAR, "mismatches" VARCHAR
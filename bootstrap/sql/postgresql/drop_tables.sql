@@ -40,3 +40,4 @@ DROP TABLE IF EXISTS user_entry CASCADE;
 DROP TABLE IF EXISTS topology_test_run_case CASCADE;
 DROP TABLE IF EXISTS topology_test_run_case_source CASCADE;
 DROP TABLE IF EXISTS topology_test_run_histories CASCADE;
+DROP TABLE IF EXISTS id_block CASCADE;
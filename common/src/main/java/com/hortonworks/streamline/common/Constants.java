@@ -24,6 +24,7 @@ public class Constants {
     }
     public static final String CATALOG_ROOT_URL = "catalog.root.url";
     public static final String LOCAL_FILES_PATH = "local.files.path";
+    public static final String TASK_ID = "task.id";
     public static final String CONFIG_CATALOG_ROOT_URL = "catalogRootUrl";
     public static final String CONFIG_AUTHORIZER = "authorizer";
     public static final String CONFIG_SECURITY_CATALOG_SERVICE = "securityCatalogService";
@@ -0,0 +1,146 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.common;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The form in which a model from the model registry is shipped to the runtime: the model document gzip compressed and
+ * base64 encoded, along with the SHA-256 checksum of the uncompressed document. The checksum identifies the model
+ * contents, so that the runtime can share one evaluator between all the executors of a worker running the same model.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class MLModelArtifact {
+    public static final String FORMAT_PMML_GZIP = "pmml+gzip";
+
+    private String name;
+    private String format;
+    private String checksum;
+    private String payload;
+
+    public MLModelArtifact() {
+    }
+
+    private MLModelArtifact(String name, String format, String checksum, String payload) {
+        this.name = name;
+        this.format = format;
+        this.checksum = checksum;
+        this.payload = payload;
+    }
+
+    /**
+     * Creates the artifact of the given PMML document.
+     */
+    public static MLModelArtifact fromPmml(String name, String pmml) {
+        byte[] document = pmml.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(document.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress the model " + name, e);
+        }
+        return new MLModelArtifact(name, FORMAT_PMML_GZIP, checksum(document),
+                BaseEncoding.base64().encode(compressed.toByteArray()));
+    }
+
+    /**
+     * @return the SHA-256 checksum, hex encoded, of the given PMML document
+     */
+    public static String checksum(String pmml) {
+        return checksum(pmml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String checksum(byte[] document) {
+        return Hashing.sha256().hashBytes(document).toString();
+    }
+
+    /**
+     * @return a stream over the uncompressed model document
+     */
+    public InputStream openStream() throws IOException {
+        if (!FORMAT_PMML_GZIP.equals(format)) {
+            throw new IOException("Unsupported model artifact format " + format + " for the model " + name);
+        }
+        return new GZIPInputStream(new ByteArrayInputStream(BaseEncoding.base64().decode(payload)));
+    }
+
+    /**
+     * @return the uncompressed model document
+     */
+    @JsonIgnore
+    public String getDocument() {
+        try (InputStream in = openStream()) {
+            return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the model " + name, e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return "MLModelArtifact{" +
+                "name='" + name + '\'' +
+                ", format='" + format + '\'' +
+                ", checksum='" + checksum + '\'' +
+                ", payloadLength=" + (payload != null ? payload.length() : 0) +
+                '}';
+    }
+}
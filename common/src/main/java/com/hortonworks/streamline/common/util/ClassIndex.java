@@ -0,0 +1,146 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads the class indexes written at compile time by the streamline annotation processor. Every jar built with the
+ * processor carries the index of its own classes, and the indexes of all the jars on the classpath are merged.
+ * <p>
+ * A jar built without the processor carries no index, its classes are found by scanning the locations returned by
+ * {@link #getUnindexedLocations(String, String)}. The indexes can be ignored with the {@value #DISABLE_PROPERTY}
+ * system property, in which case every location is scanned.
+ */
+public final class ClassIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassIndex.class);
+
+    public static final String STORABLE_ENTITIES = "storable-entities";
+    public static final String MODULE_REGISTRATIONS = "module-registrations";
+    public static final String DISABLE_PROPERTY = "streamline.classindex.disable";
+
+    // keep in sync with com.hortonworks.streamline.processor.ClassIndexProcessor
+    private static final String INDEX_DIR = "META-INF/streamline/";
+
+    private ClassIndex() {
+    }
+
+    /**
+     * @return the classes listed by the given index, or empty if no jar on the classpath carries the index
+     */
+    public static Optional<Collection<Class<?>>> getClasses(String index) {
+        if (Boolean.getBoolean(DISABLE_PROPERTY)) {
+            return Optional.empty();
+        }
+        ClassLoader classLoader = classLoader();
+        Set<String> classNames = new LinkedHashSet<>();
+        boolean found = false;
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_DIR + index);
+            while (resources.hasMoreElements()) {
+                found = true;
+                readClassNames(resources.nextElement(), classNames);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to read the class index [{}]", index, e);
+            return Optional.empty();
+        }
+        if (!found) {
+            return Optional.empty();
+        }
+        Collection<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                // an index left over by a previous build, the class is gone
+                LOG.warn("Class [{}] listed by the class index [{}] was not found", className, index);
+            }
+        }
+        return Optional.of(classes);
+    }
+
+    /**
+     * @return the classpath locations, jars or directories, holding classes of the given package but not the given
+     * index, as the URLs of their roots. Their classes are missing from {@link #getClasses(String)}.
+     */
+    public static Collection<URL> getUnindexedLocations(String index, String basePackage) {
+        ClassLoader classLoader = classLoader();
+        String packagePath = basePackage.replace('.', '/');
+        Set<String> indexed = Boolean.getBoolean(DISABLE_PROPERTY)
+                ? Collections.emptySet()
+                : locations(classLoader, INDEX_DIR + index);
+        Collection<URL> unindexed = new ArrayList<>();
+        for (String location : locations(classLoader, packagePath)) {
+            if (!indexed.contains(location)) {
+                try {
+                    unindexed.add(new URL(location));
+                } catch (MalformedURLException e) {
+                    throw new IllegalStateException("Invalid classpath location " + location, e);
+                }
+            }
+        }
+        return unindexed;
+    }
+
+    private static Set<String> locations(ClassLoader classLoader, String resource) {
+        Set<String> locations = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(resource);
+            while (resources.hasMoreElements()) {
+                String url = resources.nextElement().toString();
+                locations.add(url.substring(0, url.lastIndexOf(resource)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to list the classpath locations of " + resource, e);
+        }
+        return locations;
+    }
+
+    private static void readClassNames(URL url, Set<String> classNames) throws IOException {
+        try (InputStream in = url.openStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    classNames.add(line);
+                }
+            }
+        }
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : ClassIndex.class.getClassLoader();
+    }
+}
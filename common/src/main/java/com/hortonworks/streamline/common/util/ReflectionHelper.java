@@ -20,13 +20,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -89,4 +97,30 @@ public class ReflectionHelper {
         return classes;
     }
 
+    /**
+     * Same as {@link #getAnnotatedClasses(String, Class)} but only scans the given classpath locations, as returned by
+     * {@link ClassIndex#getUnindexedLocations(String, String)}.
+     */
+    public static Collection<Class<?>> getAnnotatedClasses(Collection<URL> locations, String basePackage,
+                                                           Class<? extends Annotation> annotation) {
+        Collection<Class<?>> classes = new ArrayList<>();
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(resolver);
+        TypeFilter filter = new AnnotationTypeFilter(annotation);
+        String packagePath = basePackage.replace('.', '/');
+        for (URL location : locations) {
+            try {
+                for (Resource resource : resolver.getResources(location + packagePath + "/**/*.class")) {
+                    MetadataReader reader = readerFactory.getMetadataReader(resource);
+                    if (filter.match(reader, readerFactory)) {
+                        classes.add(Class.forName(reader.getClassMetadata().getClassName()));
+                    }
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return classes;
+    }
+
 }
@@ -0,0 +1,67 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MLModelArtifactTest {
+    private static final String PMML = "<PMML xmlns=\"http://www.dmg.org/PMML-4_2\" version=\"4.2\"><Header/></PMML>";
+
+    @Test
+    public void testRoundTripThroughJson() throws Exception {
+        MLModelArtifact artifact = MLModelArtifact.fromPmml("model", PMML);
+        ObjectMapper mapper = new ObjectMapper();
+        MLModelArtifact read = mapper.readValue(mapper.writeValueAsString(artifact), MLModelArtifact.class);
+
+        assertEquals("model", read.getName());
+        assertEquals(MLModelArtifact.FORMAT_PMML_GZIP, read.getFormat());
+        assertEquals(MLModelArtifact.checksum(PMML), read.getChecksum());
+        assertEquals(PMML, read.getDocument());
+    }
+
+    @Test
+    public void testChecksumIdentifiesContents() throws Exception {
+        assertEquals(MLModelArtifact.checksum(PMML), MLModelArtifact.fromPmml("other", PMML).getChecksum());
+        assertNotEquals(MLModelArtifact.checksum(PMML), MLModelArtifact.checksum(PMML + " "));
+    }
+
+    @Test
+    public void testLargeDocumentIsCompressed() throws Exception {
+        StringBuilder pmml = new StringBuilder("<PMML>");
+        for (int i = 0; i < 1000; i++) {
+            pmml.append("<DataField name=\"reading_").append(i).append("\" optype=\"continuous\" dataType=\"double\"/>");
+        }
+        pmml.append("</PMML>");
+        MLModelArtifact artifact = MLModelArtifact.fromPmml("model", pmml.toString());
+
+        assertTrue(artifact.getPayload().length() < pmml.length() / 4);
+        assertEquals(pmml.toString(), artifact.getDocument());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownFormat() throws Exception {
+        MLModelArtifact artifact = MLModelArtifact.fromPmml("model", PMML);
+        artifact.setFormat("onnx");
+        artifact.openStream();
+    }
+}
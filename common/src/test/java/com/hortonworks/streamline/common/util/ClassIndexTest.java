@@ -0,0 +1,135 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.common.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClassIndexTest {
+    private static final String INDEX = "test-index";
+
+    private ClassLoader contextClassLoader;
+    private Path indexed;
+    private Path otherIndexed;
+    private Path unindexed;
+
+    @Before
+    public void setUp() throws Exception {
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        indexed = Files.createTempDirectory("indexed");
+        otherIndexed = Files.createTempDirectory("other-indexed");
+        unindexed = Files.createTempDirectory("unindexed");
+        writeIndex(indexed, "# generated", "java.lang.String", "", "java.lang.Integer");
+        writeIndex(otherIndexed, "java.lang.Long", "java.lang.String", "com.example.Removed");
+        for (Path location : Arrays.asList(indexed, otherIndexed, unindexed)) {
+            Files.createDirectories(location.resolve("com/example"));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        System.clearProperty(ClassIndex.DISABLE_PROPERTY);
+        for (Path location : Arrays.asList(indexed, otherIndexed, unindexed)) {
+            delete(location.toFile());
+        }
+    }
+
+    @Test
+    public void testIndexesOfAllLocationsAreMerged() throws Exception {
+        useClasspath(indexed, otherIndexed, unindexed);
+
+        Optional<Collection<Class<?>>> classes = ClassIndex.getClasses(INDEX);
+
+        assertTrue(classes.isPresent());
+        // blank lines, comments and the classes that no longer exist are skipped
+        assertEquals(Arrays.asList(String.class, Integer.class, Long.class), classes.get());
+    }
+
+    @Test
+    public void testNoIndex() throws Exception {
+        useClasspath(unindexed);
+
+        assertFalse(ClassIndex.getClasses(INDEX).isPresent());
+        assertFalse(ClassIndex.getClasses(ClassIndex.STORABLE_ENTITIES).isPresent());
+    }
+
+    @Test
+    public void testOnlyLocationsWithoutIndexAreUnindexed() throws Exception {
+        useClasspath(indexed, otherIndexed, unindexed);
+
+        assertEquals(Collections.singletonList(location(unindexed)),
+                ClassIndex.getUnindexedLocations(INDEX, "com.example"));
+        assertEquals(Collections.emptyList(), ClassIndex.getUnindexedLocations(INDEX, "com.other"));
+    }
+
+    @Test
+    public void testDisabledIndexes() throws Exception {
+        useClasspath(indexed, otherIndexed, unindexed);
+        System.setProperty(ClassIndex.DISABLE_PROPERTY, "true");
+
+        assertFalse(ClassIndex.getClasses(INDEX).isPresent());
+        assertEquals(new HashSet<>(Arrays.asList(location(indexed), location(otherIndexed), location(unindexed))),
+                new HashSet<>(ClassIndex.getUnindexedLocations(INDEX, "com.example")));
+    }
+
+    private void useClasspath(Path... locations) throws Exception {
+        URL[] urls = new URL[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            urls[i] = location(locations[i]);
+        }
+        // no parent, only the bootstrap classes and the given locations are visible
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(urls, null));
+    }
+
+    private static URL location(Path path) throws Exception {
+        return path.toUri().toURL();
+    }
+
+    private static void writeIndex(Path location, String... lines) throws IOException {
+        Path index = location.resolve("META-INF/streamline/" + INDEX);
+        Files.createDirectories(index.getParent());
+        Files.write(index, Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.hortonworks.streamline.registries.model.client;
 
+import com.hortonworks.streamline.common.MLModelArtifact;
+import com.hortonworks.streamline.common.util.Utils;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.slf4j.Logger;
@@ -60,4 +62,20 @@ public final class MLModelRegistryClient {
             throw new RuntimeException(exception);
         }
     }
+
+    public MLModelArtifact getMLModelArtifact(String modelName) {
+        try {
+            Response response = client.target(String.format("%s/%s/%s", modelRegistryURL, "artifact", modelName)).request().get();
+            if(response.getStatus() != OK.getStatusCode()) {
+                throw new RuntimeException(
+                        String.format("Error occurred while getting the response %s", response.getStatus()));
+            } else {
+                return Utils.createObjectFromJson(response.readEntity(String.class), MLModelArtifact.class);
+            }
+        } catch (Exception exception) {
+            LOG.error(String.format("An error was thrown while reading the model artifact for %s", modelName),
+                      exception);
+            throw new RuntimeException(exception);
+        }
+    }
 }
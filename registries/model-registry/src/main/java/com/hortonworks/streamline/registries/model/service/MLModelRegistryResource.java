@@ -314,4 +314,18 @@ public final class MLModelRegistryResource {
         MLModel modelInfo = modelRegistryService.getModelInfo(modelName);
         return WSUtils.respondEntity(modelInfo.getPmml(), OK);
     }
+
+    /*
+    * API endpoint to get the compressed model artifact, with the checksum of the model contents, for the given name.
+    * <p>
+    *     curl -sS -X GET http://localhost:8080/api/v1/catalog/ml/models/artifact/{name}
+    * </p>
+    */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("ml/models/artifact/{name}")
+    @Timed
+    public Response getMLModelArtifact(@PathParam("name") String modelName) {
+        return WSUtils.respondEntity(modelRegistryService.getModelArtifact(modelName), OK);
+    }
 }
@@ -17,6 +17,7 @@
 package com.hortonworks.streamline.registries.model.service;
 
 import org.apache.commons.io.IOUtils;
+import com.hortonworks.streamline.common.MLModelArtifact;
 import com.hortonworks.streamline.common.QueryParam;
 import com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException;
 import com.hortonworks.streamline.registries.model.data.MLModel;
@@ -101,6 +102,16 @@ public final class MLModelRegistryService {
         }
         return modelInfos.iterator().next();
     }
+
+    /**
+     * Returns the model with the given name in the compressed form shipped to the runtime, so that topologies do not
+     * carry the raw PMML document around.
+     */
+    public MLModelArtifact getModelArtifact(String name) {
+        MLModel modelInfo = getModelInfo(name);
+        return MLModelArtifact.fromPmml(modelInfo.getName(), modelInfo.getPmml());
+    }
+
     public MLModel getModelInfo(Long modelId) {
         MLModel modelInfo = new MLModel();
         modelInfo.setId(modelId);
@@ -24,6 +24,7 @@ import com.google.common.collect.Sets;
 import com.hortonworks.streamline.registries.tag.Tag;
 import com.hortonworks.streamline.registries.tag.TaggedEntity;
 import com.hortonworks.streamline.registries.tag.dto.TagDto;
+import com.hortonworks.streamline.registries.tag.dto.TaggedEntityTagsDto;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 
@@ -35,7 +36,10 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -243,6 +247,66 @@ public class TagClient {
         return makeTags(tagDtos);
     }
 
+    /**
+     * Return the tags associated with each of the given entities, with a single request.
+     *
+     * @param taggedEntities the entities
+     * @return the tags of each entity, keyed by the entity
+     */
+    public Map<TaggedEntity, List<Tag>> getTags(Collection<TaggedEntity> taggedEntities) {
+        Response response = client.target(String.format("%s/%s/%s", catalogRootUrl, "taggedentities", "tags"))
+                .request(MediaType.APPLICATION_JSON_TYPE)
+                .post(Entity.json(taggedEntities));
+        handleErrorResponse(response);
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode node = mapper.readTree(response.readEntity(String.class));
+            Map<Long, TagDto> tagDtos = new HashMap<>();
+            for (JsonNode tagNode : node.get("tags")) {
+                TagDto tagDto = mapper.treeToValue(tagNode, TagDto.class);
+                tagDtos.put(tagDto.getId(), tagDto);
+            }
+            Map<Long, Tag> tags = new HashMap<>();
+            Map<TaggedEntity, List<Tag>> result = new LinkedHashMap<>();
+            for (JsonNode entityNode : node.get("entities")) {
+                TaggedEntityTagsDto entityTags = mapper.treeToValue(entityNode, TaggedEntityTagsDto.class);
+                List<Tag> entityTagList = new ArrayList<>();
+                for (Long tagId : entityTags.getTagIds()) {
+                    entityTagList.add(makeTag(tagId, tagDtos, tags));
+                }
+                result.put(new TaggedEntity(entityTags.getNamespace(), entityTags.getId()), entityTagList);
+            }
+            return result;
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    // builds the tag and its parents from the tags of a bulk response, without any further request
+    private Tag makeTag(Long tagId, Map<Long, TagDto> tagDtos, Map<Long, Tag> tags) {
+        Tag tag = tags.get(tagId);
+        if (tag == null) {
+            TagDto tagDto = tagDtos.get(tagId);
+            if (tagDto == null) {
+                throw new IllegalArgumentException("Tag with id " + tagId + " does not exist.");
+            }
+            tag = new Tag();
+            tag.setId(tagDto.getId());
+            tag.setName(tagDto.getName());
+            tag.setDescription(tagDto.getDescription());
+            tag.setTimestamp(tagDto.getTimestamp());
+            tags.put(tagId, tag);
+            List<Tag> parentTags = new ArrayList<>();
+            if (tagDto.getTagIds() != null) {
+                for (Long parentTagId : tagDto.getTagIds()) {
+                    parentTags.add(makeTag(parentTagId, tagDtos, tags));
+                }
+            }
+            tag.setTags(parentTags);
+        }
+        return tag;
+    }
+
     private List<TagDto> getTagDtos(TaggedEntity taggedEntity) {
         return getEntities(client.target(String.format("%s/%s/%s/%s/%s", catalogRootUrl, "taggedentities", taggedEntity.getNamespace(), taggedEntity.getId(), "tags")), TagDto.class);
     }
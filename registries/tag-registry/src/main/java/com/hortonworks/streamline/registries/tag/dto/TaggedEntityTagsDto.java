@@ -0,0 +1,72 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.registries.tag.dto;
+
+import com.hortonworks.streamline.registries.tag.TaggedEntity;
+
+import java.util.List;
+
+/**
+ * The ids of the tags an entity is tagged with, as returned by the bulk tag lookup.
+ */
+public class TaggedEntityTagsDto {
+    private String namespace;
+    private Long id;
+    private List<Long> tagIds;
+
+    // for jackson
+    public TaggedEntityTagsDto() {
+    }
+
+    public TaggedEntityTagsDto(TaggedEntity taggedEntity, List<Long> tagIds) {
+        this.namespace = taggedEntity.getNamespace();
+        this.id = taggedEntity.getId();
+        this.tagIds = tagIds;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public List<Long> getTagIds() {
+        return tagIds;
+    }
+
+    public void setTagIds(List<Long> tagIds) {
+        this.tagIds = tagIds;
+    }
+
+    @Override
+    public String toString() {
+        return "TaggedEntityTagsDto{" +
+                "namespace='" + namespace + '\'' +
+                ", id=" + id +
+                ", tagIds=" + tagIds +
+                '}';
+    }
+}
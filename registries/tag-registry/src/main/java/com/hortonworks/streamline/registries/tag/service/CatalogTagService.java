@@ -15,7 +15,6 @@
  **/
 package com.hortonworks.streamline.registries.tag.service;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -33,28 +32,41 @@ import com.hortonworks.streamline.storage.util.StorageUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Catalog db based tag service.
+ * <p>
+ * Reads are served from a {@link TagIndex} built from the tags and tag mappings in the catalog db on first use, and
+ * kept up to date with the changes made through this service.
  */
 public class CatalogTagService implements TagService {
     private static final String TAG_NAMESPACE = new Tag().getNameSpace();
     private static final String TAG_STORABLE_MAPPING_NAMESPACE = new TagStorableMapping().getNameSpace();
     private final StorageManager dao;
+    private volatile TagIndex index;
 
     public CatalogTagService(StorageManager dao) {
         this.dao = dao;
     }
 
+    private TagIndex index() {
+        TagIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    index = result = TagIndex.build(dao.<Tag>list(TAG_NAMESPACE),
+                            dao.<TagStorableMapping>list(TAG_STORABLE_MAPPING_NAMESPACE));
+                }
+            }
+        }
+        return result;
+    }
+
     // handle this check at application layer since in-memory storage etc does not contain unique key constraint
     private void validateTag(Tag tag) {
         StorageUtils.ensureUnique(tag, this::listTags, QueryParam.params("name", tag.getName()));
@@ -71,13 +83,14 @@ public class CatalogTagService implements TagService {
         validateTag(tag);
         checkCycles(tag, tag.getTags());
         dao.add(tag);
+        index().putTag(tag);
         addTagsForStorable(getTaggedEntity(tag), tag.getTags());
         return tag;
     }
 
     private void checkCycles(Tag current, List<Tag> tags) {
         for (Tag tag : tags) {
-            if (tag.equals(current) || flatten(getTags(getTaggedEntity(tag))).contains(current)) {
+            if (tag.equals(current) || index().getAncestorTagIds(getTaggedEntity(tag)).contains(current.getId())) {
                 throw new IllegalArgumentException("Tagging " + current +
                         " with " + tag + " would result in a cycle.");
             }
@@ -89,19 +102,6 @@ public class CatalogTagService implements TagService {
         return new TaggedEntity(tag.getNameSpace(), tag.getId());
     }
 
-    private List<Tag> flatten(Tag tag) {
-        return flatten(Collections.singletonList(tag));
-    }
-
-    private List<Tag> flatten(List<Tag> tags) {
-        List<Tag> res = new ArrayList<>();
-        for (Tag tag: tags) {
-            res.add(tag);
-            res.addAll(flatten(tag.getTags()));
-        }
-        return res;
-    }
-
     @Override
     public Tag addOrUpdateTag(Long tagId, Tag tag) {
         if (tag.getId() == null) {
@@ -116,19 +116,14 @@ public class CatalogTagService implements TagService {
         List<Tag> tagsToBeRemoved = getTagsToBeRemoved(existingTags, tag.getTags());
         checkCycles(tag, tagsToBeAdded);
         this.dao.addOrUpdate(tag);
+        index().putTag(tag);
         updateTags(getTaggedEntity(tag), tagsToBeAdded, tagsToBeRemoved);
         return tag;
     }
 
     @Override
     public Tag getTag(Long tagId) {
-        Tag tag = new Tag();
-        tag.setId(tagId);
-        Tag result = this.dao.get(new StorableKey(TAG_NAMESPACE, tag.getPrimaryKey()));
-        if (result != null) {
-            result.setTags(getTags(getTaggedEntity(result)));
-        }
-        return result;
+        return index().getTag(tagId);
     }
 
     @Override
@@ -140,13 +135,14 @@ public class CatalogTagService implements TagService {
             }
             removeTagsFromStorable(getTaggedEntity(tag), tag.getTags());
             dao.<Tag>remove(new StorableKey(TAG_NAMESPACE, tag.getPrimaryKey()));
+            index().removeTag(tagId);
         }
         return tag;
     }
 
     @Override
     public Collection<Tag> listTags() {
-        return makeTags(this.dao.<Tag>list(TAG_NAMESPACE));
+        return index().listTags();
     }
 
     @Override
@@ -163,6 +159,7 @@ public class CatalogTagService implements TagService {
                 tagStorable.setStorableNamespace(taggedEntity.getNamespace());
                 tagStorable.setStorableId(taggedEntity.getId());
                 this.dao.add(tagStorable);
+                index().addMapping(tag.getId(), taggedEntity);
             }
         }
     }
@@ -197,68 +194,32 @@ public class CatalogTagService implements TagService {
                 tagStorable.setStorableId(taggedEntity.getId());
                 tagStorable.setStorableNamespace(taggedEntity.getNamespace());
                 this.dao.remove(tagStorable.getStorableKey());
+                index().removeMapping(tag.getId(), taggedEntity);
             }
         }
     }
 
     @Override
     public List<Tag> getTags(TaggedEntity taggedEntity) {
-        List<Tag> tags = new ArrayList<>();
-        QueryParam qp1 = new QueryParam(TagStorableMapping.FIELD_STORABLE_ID,
-                                        String.valueOf(taggedEntity.getId()));
-        QueryParam qp2 = new QueryParam(TagStorableMapping.FIELD_STORABLE_NAMESPACE,
-                                        String.valueOf(taggedEntity.getNamespace()));
-        for (TagStorableMapping mapping : listTagStorableMapping(ImmutableList.of(qp1, qp2))) {
-            tags.add(getTag(mapping.getTagId()));
-        }
-        return tags;
+        return index().getTags(taggedEntity);
     }
 
-    enum State {
-        VISITING, VISITED
+    @Override
+    public Map<TaggedEntity, List<Tag>> getTags(Collection<TaggedEntity> taggedEntities) {
+        return index().getTags(taggedEntities);
     }
 
     @Override
     public List<TaggedEntity> getEntities(Long tagId, boolean recurse) {
-        return getEntities(tagId, recurse, new HashMap<Long, State>());
-    }
-
-    public List<TaggedEntity> getEntities(Long tagId, boolean recurse, Map<Long, State> state) {
-        State tagState = state.get(tagId);
-        Set<TaggedEntity> result = new HashSet<>();
-        if (tagState == State.VISITING) {
-            throw new IllegalStateException("Cycle detected");
-        } else if (tagState != State.VISITED) {
-            state.put(tagId, State.VISITING);
-            for (TaggedEntity taggedEntity : getTaggedEntities(tagId)) {
-                if (recurse && Tag.NAMESPACE.equalsIgnoreCase(taggedEntity.getNamespace())) {
-                    result.addAll(getEntities(taggedEntity.getId(), recurse, state));
-                } else {
-                    result.add(taggedEntity);
-                }
-            }
-            state.put(tagId, State.VISITED);
-        }
-        return new LinkedList<>(result);
-    }
-
-    private List<TaggedEntity> getTaggedEntities(Long tagId) {
-        List<TaggedEntity> taggedEntities = new ArrayList<>();
-        QueryParam qp1 = new QueryParam(TagStorableMapping.FIELD_TAG_ID, String.valueOf(tagId));
-        for (TagStorableMapping mapping : listTagStorableMapping(ImmutableList.of(qp1))) {
-            taggedEntities.add(new TaggedEntity(mapping.getStorableNamespace(), mapping.getStorableId()));
-        }
-        return taggedEntities;
-    }
-
-    private Collection<TagStorableMapping> listTagStorableMapping(List<QueryParam> params) {
-        return dao.find(TAG_STORABLE_MAPPING_NAMESPACE, params);
+        return index().getEntities(tagId, recurse);
     }
 
     private Collection<Tag> makeTags(Collection<Tag> tags) {
         if (tags != null) {
+            Map<TaggedEntity, List<Tag>> parentTags = getTags(
+                    tags.stream().map(this::getTaggedEntity).collect(Collectors.toList()));
             for (Tag tag : tags) {
-                tag.setTags(getTags(getTaggedEntity(tag)));
+                tag.setTags(parentTags.get(getTaggedEntity(tag)));
             }
         }
         return tags;
@@ -31,6 +31,7 @@ import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.registries.tag.Tag;
 import com.hortonworks.streamline.registries.tag.TaggedEntity;
 import com.hortonworks.streamline.registries.tag.dto.TagDto;
+import com.hortonworks.streamline.registries.tag.dto.TaggedEntityTagsDto;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
@@ -38,6 +39,7 @@ import javax.ws.rs.core.UriInfo;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -420,6 +422,64 @@ public class TagCatalogResource {
         throw EntityNotFoundException.byId(entityId.toString());
     }
 
+    /**
+     * <p>
+     * Gets the tags of several entities at once. The response lists the ids of the tags of each entity,
+     * and every tag referenced by them, including all the ancestors of nested tags, exactly once.
+     * </p>
+     * <b>POST /api/v1/catalog/taggedentities/tags</b>
+     * <pre>
+     * [{"namespace": "topology", "id": 1}, {"namespace": "topology", "id": 2}]
+     * </pre>
+     * <i>Sample success response: </i>
+     * <pre>
+     * {
+     *   "entities": [
+     *     {"namespace": "topology", "id": 1, "tagIds": [3]},
+     *     {"namespace": "topology", "id": 2, "tagIds": []}
+     *   ],
+     *   "tags": [
+     *     {"id": 3, "name": "thermostat", "description": "thermostat device", "timestamp": 1481673224536, "tagIds": [2]},
+     *     {"id": 2, "name": "device", "description": "device tag", "timestamp": 1481673156548, "tagIds": []}
+     *   ]
+     * }
+     * </pre>
+     *
+     * @param taggedEntities the entities
+     * @return the response
+     */
+    @POST
+    @Path("/taggedentities/tags")
+    @Timed
+    public Response getTagsForEntities(List<TaggedEntity> taggedEntities) {
+        Map<TaggedEntity, List<Tag>> tagsByEntity = tagService.getTags(taggedEntities);
+        List<TaggedEntityTagsDto> entities = new ArrayList<>(tagsByEntity.size());
+        Map<Long, TagDto> tags = new LinkedHashMap<>();
+        for (Map.Entry<TaggedEntity, List<Tag>> entry : tagsByEntity.entrySet()) {
+            List<Long> tagIds = new ArrayList<>(entry.getValue().size());
+            for (Tag tag : entry.getValue()) {
+                tagIds.add(tag.getId());
+                addTagDtos(tag, tags);
+            }
+            entities.add(new TaggedEntityTagsDto(entry.getKey(), tagIds));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entities", entities);
+        result.put("tags", tags.values());
+        return WSUtils.respondEntity(result, OK);
+    }
+
+    private void addTagDtos(Tag tag, Map<Long, TagDto> tagDtos) {
+        if (!tagDtos.containsKey(tag.getId())) {
+            tagDtos.put(tag.getId(), makeTagDto(tag));
+            if (tag.getTags() != null) {
+                for (Tag parent : tag.getTags()) {
+                    addTagDtos(parent, tagDtos);
+                }
+            }
+        }
+    }
+
     private Collection<TagDto> makeTagDto(Collection<Tag> tags) {
         List<TagDto> tagDtos = new ArrayList<>();
         for (Tag tag : tags) {
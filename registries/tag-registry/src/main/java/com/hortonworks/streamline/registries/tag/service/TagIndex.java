@@ -0,0 +1,248 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.registries.tag.service;
+
+import com.hortonworks.streamline.registries.tag.Tag;
+import com.hortonworks.streamline.registries.tag.TagStorableMapping;
+import com.hortonworks.streamline.registries.tag.TaggedEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In memory index of the tags and of the tag to entity mappings. Tags are nested by tagging a tag with its parent
+ * tags, so the mappings form a DAG with the tags as inner nodes and the other entities as leaves.
+ * <p>
+ * The index keeps the direct edges in both directions, which are updated as mappings are added and removed, and the
+ * transitive closures (tag to all the entities below it, tag to all the tags above it), which are computed on first
+ * use and dropped whenever an edge changes. Closures are only kept for tags, so their size is bounded by the number of
+ * tags rather than by the number of entities queried; the tags above any other entity are derived from the closures
+ * of its direct tags. The index only reflects the changes made through it, so the
+ * {@link CatalogTagService} owning it must be the only writer of the tag tables.
+ */
+class TagIndex {
+    private final Map<Long, Tag> tags = new LinkedHashMap<>();
+    private final Map<Long, Set<TaggedEntity>> entitiesByTag = new HashMap<>();
+    private final Map<TaggedEntity, Set<Long>> tagsByEntity = new HashMap<>();
+
+    private final Map<Long, Set<TaggedEntity>> descendantEntities = new HashMap<>();
+    private final Map<Long, Set<Long>> ancestorTags = new HashMap<>();
+
+    private enum State {
+        VISITING, VISITED
+    }
+
+    static TagIndex build(Collection<Tag> tags, Collection<TagStorableMapping> mappings) {
+        TagIndex index = new TagIndex();
+        for (Tag tag : tags) {
+            index.putTag(tag);
+        }
+        for (TagStorableMapping mapping : mappings) {
+            index.addMapping(mapping.getTagId(),
+                    new TaggedEntity(mapping.getStorableNamespace(), mapping.getStorableId()));
+        }
+        return index;
+    }
+
+    synchronized void putTag(Tag tag) {
+        Tag copy = new Tag();
+        copy.setId(tag.getId());
+        copy.setName(tag.getName());
+        copy.setDescription(tag.getDescription());
+        copy.setTimestamp(tag.getTimestamp());
+        tags.put(copy.getId(), copy);
+    }
+
+    synchronized void removeTag(Long tagId) {
+        tags.remove(tagId);
+    }
+
+    synchronized void addMapping(Long tagId, TaggedEntity entity) {
+        if (entitiesByTag.computeIfAbsent(tagId, id -> new LinkedHashSet<>()).add(entity)) {
+            tagsByEntity.computeIfAbsent(entity, e -> new LinkedHashSet<>()).add(tagId);
+            clearClosures();
+        }
+    }
+
+    synchronized void removeMapping(Long tagId, TaggedEntity entity) {
+        Set<TaggedEntity> entities = entitiesByTag.get(tagId);
+        if (entities != null && entities.remove(entity)) {
+            if (entities.isEmpty()) {
+                entitiesByTag.remove(tagId);
+            }
+            Set<Long> tagIds = tagsByEntity.get(entity);
+            tagIds.remove(tagId);
+            if (tagIds.isEmpty()) {
+                tagsByEntity.remove(entity);
+            }
+            clearClosures();
+        }
+    }
+
+    private void clearClosures() {
+        descendantEntities.clear();
+        ancestorTags.clear();
+    }
+
+    /**
+     * @return the tag with its parent tags, or null if there is no tag with the given id
+     */
+    synchronized Tag getTag(Long tagId) {
+        return materialize(tagId, new HashMap<>());
+    }
+
+    synchronized List<Tag> listTags() {
+        Map<Long, Tag> materialized = new HashMap<>();
+        List<Tag> result = new ArrayList<>(tags.size());
+        for (Long tagId : tags.keySet()) {
+            result.add(materialize(tagId, materialized));
+        }
+        return result;
+    }
+
+    /**
+     * @return the tags the entity is directly tagged with, along with their parent tags
+     */
+    synchronized List<Tag> getTags(TaggedEntity entity) {
+        return getTags(entity, new HashMap<>());
+    }
+
+    synchronized Map<TaggedEntity, List<Tag>> getTags(Collection<TaggedEntity> entities) {
+        Map<Long, Tag> materialized = new HashMap<>();
+        Map<TaggedEntity, List<Tag>> result = new LinkedHashMap<>();
+        for (TaggedEntity entity : entities) {
+            result.put(entity, getTags(entity, materialized));
+        }
+        return result;
+    }
+
+    private List<Tag> getTags(TaggedEntity entity, Map<Long, Tag> materialized) {
+        Set<Long> tagIds = tagsByEntity.getOrDefault(entity, Collections.emptySet());
+        List<Tag> result = new ArrayList<>(tagIds.size());
+        for (Long tagId : tagIds) {
+            Tag tag = materialize(tagId, materialized);
+            if (tag != null) {
+                result.add(tag);
+            }
+        }
+        return result;
+    }
+
+    private Tag materialize(Long tagId, Map<Long, Tag> materialized) {
+        Tag result = materialized.get(tagId);
+        if (result == null) {
+            Tag tag = tags.get(tagId);
+            if (tag == null) {
+                return null;
+            }
+            result = new Tag();
+            result.setId(tag.getId());
+            result.setName(tag.getName());
+            result.setDescription(tag.getDescription());
+            result.setTimestamp(tag.getTimestamp());
+            materialized.put(tagId, result);
+            result.setTags(getTags(new TaggedEntity(Tag.NAMESPACE, tagId), materialized));
+        }
+        return result;
+    }
+
+    /**
+     * @return the entities tagged with the given tag. When recursing, the entities of the nested tags are included
+     * instead of the nested tags themselves.
+     */
+    synchronized List<TaggedEntity> getEntities(Long tagId, boolean recurse) {
+        if (!recurse) {
+            return new ArrayList<>(entitiesByTag.getOrDefault(tagId, Collections.emptySet()));
+        }
+        return new ArrayList<>(descendantEntities(tagId, new HashMap<>()));
+    }
+
+    private Set<TaggedEntity> descendantEntities(Long tagId, Map<Long, State> state) {
+        Set<TaggedEntity> result = descendantEntities.get(tagId);
+        if (result != null) {
+            return result;
+        }
+        if (state.put(tagId, State.VISITING) == State.VISITING) {
+            throw new IllegalStateException("Cycle detected");
+        }
+        result = new LinkedHashSet<>();
+        for (TaggedEntity entity : entitiesByTag.getOrDefault(tagId, Collections.emptySet())) {
+            if (isTag(entity)) {
+                result.addAll(descendantEntities(entity.getId(), state));
+            } else {
+                result.add(entity);
+            }
+        }
+        state.put(tagId, State.VISITED);
+        descendantEntities.put(tagId, result);
+        return result;
+    }
+
+    /**
+     * @return the ids of all the tags above the given entity, through any number of nested tags
+     */
+    synchronized Set<Long> getAncestorTagIds(TaggedEntity entity) {
+        if (isTag(entity)) {
+            return Collections.unmodifiableSet(ancestorTags(entity.getId(), new HashMap<>()));
+        }
+        Set<Long> result = new LinkedHashSet<>();
+        Map<Long, State> state = new HashMap<>();
+        for (Long tagId : tagsByEntity.getOrDefault(entity, Collections.emptySet())) {
+            result.add(tagId);
+            result.addAll(ancestorTags(tagId, state));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    private Set<Long> ancestorTags(Long tagId, Map<Long, State> state) {
+        Set<Long> result = ancestorTags.get(tagId);
+        if (result != null) {
+            return result;
+        }
+        if (state.put(tagId, State.VISITING) == State.VISITING) {
+            throw new IllegalStateException("Cycle detected");
+        }
+        result = new LinkedHashSet<>();
+        for (Long parentId : tagsByEntity.getOrDefault(new TaggedEntity(Tag.NAMESPACE, tagId), Collections.emptySet())) {
+            result.add(parentId);
+            result.addAll(ancestorTags(parentId, state));
+        }
+        state.put(tagId, State.VISITED);
+        ancestorTags.put(tagId, result);
+        return result;
+    }
+
+    /**
+     * @return the number of tags with a cached closure, for testing
+     */
+    synchronized int cachedClosureCount() {
+        Set<Long> tagIds = new HashSet<>(descendantEntities.keySet());
+        tagIds.addAll(ancestorTags.keySet());
+        return tagIds.size();
+    }
+
+    private static boolean isTag(TaggedEntity entity) {
+        return Tag.NAMESPACE.equalsIgnoreCase(entity.getNamespace());
+    }
+}
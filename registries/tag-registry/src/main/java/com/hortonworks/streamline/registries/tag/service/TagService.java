@@ -20,7 +20,9 @@ import com.hortonworks.streamline.registries.tag.Tag;
 import com.hortonworks.streamline.registries.tag.TaggedEntity;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for managing tags in the system. A storable entity in
@@ -127,6 +129,20 @@ public interface TagService {
      */
     List<Tag> getTags(TaggedEntity entityId);
 
+    /**
+     * Return the tags associated with each of the given entities.
+     *
+     * @param entityIds the entities
+     * @return the tags of each entity, keyed by the entity in the order of the given entities
+     */
+    default Map<TaggedEntity, List<Tag>> getTags(Collection<TaggedEntity> entityIds) {
+        Map<TaggedEntity, List<Tag>> result = new LinkedHashMap<>();
+        for (TaggedEntity entityId : entityIds) {
+            result.put(entityId, getTags(entityId));
+        }
+        return result;
+    }
+
 
     /**
      * Gets all the entities under the given tag id
@@ -0,0 +1,124 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.registries.tag.service;
+
+import com.hortonworks.streamline.registries.tag.Tag;
+import com.hortonworks.streamline.registries.tag.TaggedEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TagIndexTest {
+    private static final String TOPOLOGY_NAMESPACE = "topology";
+
+    private TagIndex index;
+
+    @Before
+    public void setUp() {
+        index = TagIndex.build(Arrays.asList(tag(1L, "finance"), tag(2L, "payments"), tag(3L, "cards")),
+                Collections.emptyList());
+        // finance > payments > cards
+        index.addMapping(1L, tagEntity(2L));
+        index.addMapping(2L, tagEntity(3L));
+    }
+
+    @Test
+    public void testClosuresAfterAddingEdges() {
+        index.addMapping(3L, topology(10L));
+        index.addMapping(1L, topology(11L));
+
+        assertEquals(new HashSet<>(Arrays.asList(topology(10L), topology(11L))),
+                new HashSet<>(index.getEntities(1L, true)));
+        assertEquals(Collections.singletonList(topology(10L)), index.getEntities(2L, true));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L)), index.getAncestorTagIds(topology(10L)));
+        assertEquals(Collections.singleton(1L), index.getAncestorTagIds(topology(11L)));
+
+        // a new edge must be reflected by the closures computed before
+        index.addMapping(2L, topology(12L));
+        assertEquals(new HashSet<>(Arrays.asList(topology(10L), topology(11L), topology(12L))),
+                new HashSet<>(index.getEntities(1L, true)));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), index.getAncestorTagIds(topology(12L)));
+    }
+
+    @Test
+    public void testClosuresAfterRemovingEdges() {
+        index.addMapping(3L, topology(10L));
+        assertEquals(Collections.singletonList(topology(10L)), index.getEntities(1L, true));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L)), index.getAncestorTagIds(topology(10L)));
+
+        // detach cards from payments
+        index.removeMapping(2L, tagEntity(3L));
+        assertTrue(index.getEntities(1L, true).isEmpty());
+        assertEquals(Collections.singletonList(topology(10L)), index.getEntities(3L, true));
+        assertEquals(Collections.singleton(3L), index.getAncestorTagIds(topology(10L)));
+        assertTrue(index.getAncestorTagIds(tagEntity(3L)).isEmpty());
+
+        index.removeMapping(3L, topology(10L));
+        assertTrue(index.getEntities(3L, true).isEmpty());
+        assertTrue(index.getAncestorTagIds(topology(10L)).isEmpty());
+    }
+
+    @Test
+    public void testNestedTagsAreMaterialized() {
+        index.addMapping(3L, topology(10L));
+        List<Tag> tags = index.getTags(topology(10L));
+        assertEquals(1, tags.size());
+        assertEquals("cards", tags.get(0).getName());
+        assertEquals("payments", tags.get(0).getTags().get(0).getName());
+        assertEquals("finance", tags.get(0).getTags().get(0).getTags().get(0).getName());
+    }
+
+    @Test
+    public void testClosuresAreOnlyCachedForTags() {
+        for (long id = 100; id < 1100; id++) {
+            index.addMapping(3L, topology(id));
+        }
+        for (long id = 100; id < 1100; id++) {
+            assertEquals(3, index.getAncestorTagIds(topology(id)).size());
+        }
+        index.getEntities(1L, true);
+        assertTrue(index.cachedClosureCount() <= 3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCycleIsDetected() {
+        index.addMapping(3L, tagEntity(1L));
+        index.getAncestorTagIds(tagEntity(1L));
+    }
+
+    private static Tag tag(Long id, String name) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setName(name);
+        tag.setTimestamp(System.currentTimeMillis());
+        return tag;
+    }
+
+    private static TaggedEntity tagEntity(Long tagId) {
+        return new TaggedEntity(Tag.NAMESPACE, tagId);
+    }
+
+    private static TaggedEntity topology(Long id) {
+        return new TaggedEntity(TOPOLOGY_NAMESPACE, id);
+    }
+}
@@ -112,6 +112,23 @@ public class TagRestServiceTest {
         allTags = tagClient.getTags(new TaggedEntity("Device", 2L));
         Assert.assertTrue("tag count mismatch", allTags.size() == 2);
 
+        //entities of nested tags are included in the entities of the parent tag
+        tagClient.addTagForEntity(new TaggedEntity("Device", 4L), childTagId);
+        allEntities = tagClient.getTaggedEntities(parentTagId);
+        Assert.assertEquals("entity count mismatch", 3, allEntities.size());
+        Assert.assertTrue(allEntities.contains(new TaggedEntity("Device", 4L)));
+
+        //get the tags of several entities at once
+        Map<TaggedEntity, List<Tag>> tagsByEntity = tagClient.getTags(ImmutableList.of(
+                new TaggedEntity("Device", 2L), new TaggedEntity("Device", 4L), new TaggedEntity("Device", 5L)));
+        Assert.assertEquals(3, tagsByEntity.size());
+        Assert.assertEquals(2, tagsByEntity.get(new TaggedEntity("Device", 2L)).size());
+        List<Tag> nestedTags = tagsByEntity.get(new TaggedEntity("Device", 4L));
+        Assert.assertEquals(1, nestedTags.size());
+        Assert.assertEquals(childTagId, nestedTags.get(0).getId().longValue());
+        Assert.assertEquals(parentTagId, nestedTags.get(0).getTags().get(0).getId().longValue());
+        Assert.assertTrue(tagsByEntity.get(new TaggedEntity("Device", 5L)).isEmpty());
+
         //try adding unknown tag for a Entity
         try {
             tagClient.addTagForEntity(new TaggedEntity("Device", 1L), 100L);
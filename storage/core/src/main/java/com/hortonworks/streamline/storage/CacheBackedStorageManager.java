@@ -33,6 +33,7 @@ public class CacheBackedStorageManager implements StorageManager {
     private final StorageWriter writer;
     private final Cache<StorableKey, Storable> cache;
     private final StorageManager dao;
+    private final StorageVersions versions = new StorageVersions();
 
     public CacheBackedStorageManager(Cache<StorableKey, Storable> cache, StorageWriter storageWriter) {
         if (cache == null || storageWriter == null) {
@@ -53,6 +54,7 @@ public class CacheBackedStorageManager implements StorageManager {
     public void add(Storable storable) throws StorageException {
         writer.add(storable);
         cache.put(storable.getStorableKey(), storable);
+        versions.increment(storable.getNameSpace());
     }
 
     @Override
@@ -60,6 +62,7 @@ public class CacheBackedStorageManager implements StorageManager {
         writer.remove(key);
         final T oldVal = (T) cache.get(key);
         cache.remove(key);
+        versions.increment(key.getNameSpace());
         return oldVal;
     }
 
@@ -67,6 +70,7 @@ public class CacheBackedStorageManager implements StorageManager {
     public void addOrUpdate(Storable storable) throws StorageException {
         writer.addOrUpdate(storable);
         cache.put(storable.getStorableKey(), storable);
+        versions.increment(storable.getNameSpace());
     }
 
     @Override
@@ -97,6 +101,13 @@ public class CacheBackedStorageManager implements StorageManager {
         return dao.nextId(namespace);
     }
 
+    /**
+     * @return the modification counters of the namespaces written through this storage manager
+     */
+    public StorageVersions getVersions() {
+        return versions;
+    }
+
     @Override
     public void registerStorables(Collection<Class<? extends Storable>> classes) throws StorageException {
         dao.registerStorables(classes);
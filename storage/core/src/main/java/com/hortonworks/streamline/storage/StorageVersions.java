@@ -0,0 +1,45 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modification counters per storable namespace, incremented by the write paths of the {@link StorageManager}.
+ * Readers can compare the versions of the namespaces a response was built from to tell whether it may have changed.
+ * <p>
+ * The counters live in memory, so the epoch (the time the counters were created at) changes on every restart and
+ * has to be part of anything derived from the versions. Writes done by another process are not seen.
+ */
+public class StorageVersions {
+    private final long epoch = System.currentTimeMillis();
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long get(String namespace) {
+        AtomicLong version = versions.get(namespace);
+        return version != null ? version.get() : 0L;
+    }
+
+    public long increment(String namespace) {
+        return versions.computeIfAbsent(namespace, ns -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -31,6 +31,7 @@ import com.hortonworks.streamline.storage.impl.jdbc.provider.mysql.factory.MySql
 import com.hortonworks.streamline.storage.impl.jdbc.provider.phoenix.factory.PhoenixExecutor;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.postgresql.factory.PostgresqlExecutor;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.QueryMetrics;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.query.MetadataHelper;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
 import org.slf4j.Logger;
@@ -66,13 +67,15 @@ public class JdbcStorageManager implements StorageManager {
     }
 
     @Override
-    public <T extends Storable> T remove(StorableKey key) throws StorageException {
-        T oldVal = get(key);
-        if (key != null) {
-            log.debug("Removing storable key [{}]", key);
-            queryExecutor.delete(key);
-        }
-        return oldVal;
+    public <T extends Storable> T remove(final StorableKey key) throws StorageException {
+        return queryExecutor.pipeline(executor -> {
+            T oldVal = get(key);
+            if (key != null) {
+                log.debug("Removing storable key [{}]", key);
+                executor.delete(key);
+            }
+            return oldVal;
+        });
     }
 
     @Override
@@ -105,16 +108,15 @@ public class JdbcStorageManager implements StorageManager {
         if (queryParams == null || queryParams.size() == 0) {
             return list(namespace);
         }
-        Collection<T> entries = Collections.EMPTY_LIST;
-
-        try {
-            StorableKey storableKey = buildStorableKey(namespace, queryParams);
-            if (storableKey != null) {
-                entries = queryExecutor.select(storableKey);
+        // the column lookups and the select share one connection
+        Collection<T> entries = queryExecutor.pipeline(executor -> {
+            try {
+                StorableKey storableKey = buildStorableKey(namespace, queryParams);
+                return storableKey != null ? executor.<T>select(storableKey) : Collections.<T>emptyList();
+            } catch (Exception e) {
+                throw new StorageException(e);
             }
-        } catch (Exception e) {
-            throw new StorageException(e);
-        }
+        });
         log.debug("Querying table = [{}]\n\t filter = [{}]\n\t returned [{}]", namespace, queryParams, entries);
         return entries;
     }
@@ -127,6 +129,13 @@ public class JdbcStorageManager implements StorageManager {
         return entries;
     }
 
+    /**
+     * @return the statistics of the statements run against the database, per namespace
+     */
+    public QueryMetrics getQueryMetrics() {
+        return queryExecutor.getMetrics();
+    }
+
     @Override
     public void cleanup() throws StorageException {
         queryExecutor.cleanup();
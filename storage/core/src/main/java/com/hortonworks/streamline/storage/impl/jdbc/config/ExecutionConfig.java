@@ -28,13 +28,36 @@ import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.statement.Prepa
  **/
 public class ExecutionConfig {
     private final int queryTimeoutSecs;
+    private final int statementCacheSize;
 
     // Replace constructors with Builder pattern as more configuration options become available
     public ExecutionConfig(int queryTimeoutSecs) {
+        this(queryTimeoutSecs, 0);
+    }
+
+    /**
+     * @param queryTimeoutSecs query timeout, not set on the statements if not positive
+     * @param statementCacheSize number of prepared statements the JDBC driver caches per connection, 0 if the driver
+     *                           does not cache them. Only used to report the statement cache hits.
+     */
+    public ExecutionConfig(int queryTimeoutSecs, int statementCacheSize) {
         this.queryTimeoutSecs = queryTimeoutSecs;
+        this.statementCacheSize = statementCacheSize;
     }
 
     public int getQueryTimeoutSecs() {
         return queryTimeoutSecs;
     }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionConfig{" +
+                "queryTimeoutSecs=" + queryTimeoutSecs +
+                ", statementCacheSize=" + statementCacheSize +
+                '}';
+    }
 }
@@ -28,6 +28,8 @@ import com.hortonworks.streamline.storage.impl.jdbc.provider.mysql.query.MySqlIn
 import com.hortonworks.streamline.storage.impl.jdbc.provider.mysql.query.MysqlInsertQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.mysql.query.MysqlSelectQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.AbstractQueryExecutor;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.IdBlockAllocator;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.IdBlockTable;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.query.SqlInsertQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
@@ -46,15 +48,29 @@ import java.util.Properties;
  * https://dev.mysql.com/doc/connector-j/5.1/en/connector-j-usagenotes-last-insert-id.html
  *
  * If the value of id is null, we let MySQL issue new ID and get the new ID. If the value of id is not null, we just use that value.
+ *
+ * When {@code idBlockSize} is set, ids are instead reserved in blocks from the {@link IdBlockTable}, for {@link #nextId(String)}
+ * as well as for the inserts of storables without id.
  */
 public class MySqlExecutor extends AbstractQueryExecutor {
+    private final IdBlockAllocator idBlockAllocator;
 
     /**
      * @param config Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
      */
     public MySqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
+        this(config, connectionBuilder, 0);
+    }
+
+    /**
+     * @param config Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
+     * @param connectionBuilder Object that establishes the connection to the database
+     * @param idBlockSize number of ids reserved at once per namespace, 0 to let the database issue the ids
+     */
+    public MySqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, int idBlockSize) {
         super(config, connectionBuilder);
+        this.idBlockAllocator = createIdBlockAllocator(connectionBuilder, idBlockSize);
     }
 
     /**
@@ -65,6 +81,7 @@ public class MySqlExecutor extends AbstractQueryExecutor {
      */
     public MySqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
         super(config, connectionBuilder, cacheBuilder);
+        this.idBlockAllocator = null;
     }
 
     // ============= Public API methods =============
@@ -81,8 +98,8 @@ public class MySqlExecutor extends AbstractQueryExecutor {
 
     @Override
     public Long nextId(String namespace) {
-        // We intentionally return null. Please refer the class javadoc for more details.
-        return null;
+        // We intentionally return null unless ids are reserved in blocks. Please refer the class javadoc for more details.
+        return idBlockAllocator != null ? idBlockAllocator.nextId(namespace) : null;
     }
 
     @Override
@@ -112,19 +129,54 @@ public class MySqlExecutor extends AbstractQueryExecutor {
             }
         }
 
+        int idBlockSize = IdBlockAllocator.getBlockSize(jdbcProps, 0);
+        log.info("id block size: [{}]", idBlockSize);
+
         Properties properties = new Properties();
         properties.putAll(jdbcProps);
+        properties.remove(IdBlockAllocator.ID_BLOCK_SIZE);
+        int statementCacheSize = configureStatementCache(dataSourceClassName, properties);
         HikariConfig hikariConfig = new HikariConfig(properties);
 
         HikariCPConnectionBuilder connectionBuilder = new HikariCPConnectionBuilder(hikariConfig);
-        ExecutionConfig executionConfig = new ExecutionConfig(queryTimeOutInSecs);
-        return new MySqlExecutor(executionConfig, connectionBuilder);
+        ExecutionConfig executionConfig = new ExecutionConfig(queryTimeOutInSecs, statementCacheSize);
+        return new MySqlExecutor(executionConfig, connectionBuilder, idBlockSize);
+    }
+
+    /**
+     * Connections are borrowed from the pool for every statement, so Connector/J is asked to cache the prepared
+     * statements per connection and to prepare them on the server, unless configured otherwise.
+     *
+     * @return the number of statements cached per connection, 0 if the driver does not cache them
+     */
+    private static int configureStatementCache(String dataSourceClassName, Properties properties) {
+        if (dataSourceClassName == null || !dataSourceClassName.startsWith("com.mysql.")) {
+            return 0;
+        }
+        properties.putIfAbsent("dataSource.cachePrepStmts", "true");
+        properties.putIfAbsent("dataSource.useServerPrepStmts", "true");
+        properties.putIfAbsent("dataSource.prepStmtCacheSize", "250");
+        properties.putIfAbsent("dataSource.prepStmtCacheSqlLimit", "2048");
+        log.info("Prepared statement cache: cachePrepStmts [{}], prepStmtCacheSize [{}]",
+                properties.get("dataSource.cachePrepStmts"), properties.get("dataSource.prepStmtCacheSize"));
+
+        return Boolean.parseBoolean(properties.get("dataSource.cachePrepStmts").toString())
+                ? Integer.parseInt(properties.get("dataSource.prepStmtCacheSize").toString()) : 0;
+    }
+
+    private IdBlockAllocator createIdBlockAllocator(ConnectionBuilder connectionBuilder, int idBlockSize) {
+        return idBlockSize > 0
+                ? new IdBlockAllocator(new IdBlockTable(connectionBuilder, queryTimeoutSecs), idBlockSize) : null;
     }
 
     private void insertOrUpdateWithUniqueId(final Storable storable, final SqlQuery sqlQuery) {
         try {
             Long id = storable.getId();
-            if (id == null) {
+            if (id == null && idBlockAllocator != null) {
+                // ids issued by the database could collide with the reserved ones
+                storable.setId(idBlockAllocator.nextId(storable.getNameSpace()));
+                executeUpdate(sqlQuery);
+            } else if (id == null) {
                 id = executeUpdateWithReturningGeneratedKey(sqlQuery);
                 storable.setId(id);
             } else {
@@ -27,6 +27,7 @@ import com.hortonworks.streamline.storage.impl.jdbc.provider.phoenix.query.Phoen
 import com.hortonworks.streamline.storage.impl.jdbc.provider.phoenix.query.PhoenixSequenceIdQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.phoenix.query.PhoenixUpsertQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.AbstractQueryExecutor;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.IdBlockAllocator;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
 import com.hortonworks.streamline.storage.impl.jdbc.util.Util;
@@ -43,15 +44,30 @@ import java.util.Map;
  * in safe way.
  *
  * If the value of id is null, we issue a new ID and set ID to entity. If the value of id is not null, we just use that value.
+ * As that takes 3 round trips, ids are reserved in blocks of {@code idBlockSize} consecutive sequence values.
  */
 public class PhoenixExecutor extends AbstractQueryExecutor {
+    // same as the default CACHE of the sequences
+    public static final int DEFAULT_ID_BLOCK_SIZE = 100;
+
+    private final IdBlockAllocator idBlockAllocator;
 
     public PhoenixExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
-        super(config, connectionBuilder);
+        this(config, connectionBuilder, null);
     }
 
     public PhoenixExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
+        this(config, connectionBuilder, cacheBuilder, 1);
+    }
+
+    /**
+     * @param idBlockSize number of ids reserved at once from the sequence of a namespace
+     */
+    public PhoenixExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder,
+                           CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder, int idBlockSize) {
         super(config, connectionBuilder, cacheBuilder);
+        this.idBlockAllocator = new IdBlockAllocator((namespace, blockSize) ->
+                new PhoenixSequenceIdQuery(namespace, connectionBuilder, queryTimeoutSecs).getNextIDs(blockSize), idBlockSize);
     }
 
     @Override
@@ -91,8 +107,7 @@ public class PhoenixExecutor extends AbstractQueryExecutor {
 
     @Override
     public Long nextId(String namespace) {
-        PhoenixSequenceIdQuery phoenixSequenceIdQuery = new PhoenixSequenceIdQuery(namespace, connectionBuilder, queryTimeoutSecs);
-        return phoenixSequenceIdQuery.getNextID();
+        return idBlockAllocator.nextId(namespace);
     }
 
     public static PhoenixExecutor createExecutor(Map<String, Object> jdbcProps) throws Exception {
@@ -122,7 +137,9 @@ public class PhoenixExecutor extends AbstractQueryExecutor {
         if(jdbcProps.containsKey("cacheSize")) {
             cacheBuilder = CacheBuilder.newBuilder().maximumSize((Integer)jdbcProps.get("cacheSize"));
         }
-        return new PhoenixExecutor(executionConfig, connectionBuilder, cacheBuilder);
+        int idBlockSize = Math.max(1, IdBlockAllocator.getBlockSize(jdbcProps, DEFAULT_ID_BLOCK_SIZE));
+        log.info("id block size: [{}]", idBlockSize);
+        return new PhoenixExecutor(executionConfig, connectionBuilder, cacheBuilder, idBlockSize);
     }
 
 }
@@ -48,6 +48,15 @@ public class PhoenixSequenceIdQuery {
     }
 
     public Long getNextID() {
+        return getNextIDs(1);
+    }
+
+    /**
+     * Reserves {@code count} consecutive sequence ids at once with the bulk allocation of Phoenix sequences.
+     *
+     * @return the first reserved id
+     */
+    public Long getNextIDs(int count) {
         // this is kind of work around as there is no direct support in phoenix to get next sequence-id without using any tables,
         // it involves 3 roundtrips to phoenix/hbase (inefficient but there is a limitation from phoenix!).
         // SEQUENCE can be used for such columns in UPSERT queries directly but to get a simple sequence-id involves all this.
@@ -56,7 +65,8 @@ public class PhoenixSequenceIdQuery {
         // delete that entry from the table.
         long nextId = 0;
         UUID uuid = UUID.randomUUID();
-        PhoenixSqlQuery updateQuery = new PhoenixSqlQuery("UPSERT INTO " + SEQUENCE_TABLE + "(\""+ID+"\", \"" + namespace + "\") VALUES('" + uuid + "', NEXT VALUE FOR " + namespace + "_sequence)");
+        String nextValue = count == 1 ? "NEXT VALUE FOR " : "NEXT " + count + " VALUES FOR ";
+        PhoenixSqlQuery updateQuery = new PhoenixSqlQuery("UPSERT INTO " + SEQUENCE_TABLE + "(\""+ID+"\", \"" + namespace + "\") VALUES('" + uuid + "', " + nextValue + namespace + "_sequence)");
         PhoenixSqlQuery selectQuery = new PhoenixSqlQuery("SELECT \"" + namespace + "\" FROM " + SEQUENCE_TABLE + " WHERE \"" + ID + "\"='" + uuid + "'");
         PhoenixSqlQuery deleteQuery = new PhoenixSqlQuery("DELETE FROM " + SEQUENCE_TABLE + " WHERE \"id\"='" + uuid + "'");
 
@@ -15,6 +15,8 @@ import com.hortonworks.streamline.storage.impl.jdbc.provider.postgresql.query.Po
 import com.hortonworks.streamline.storage.impl.jdbc.provider.postgresql.query.PostgresqlInsertQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.postgresql.query.PostgresqlSelectQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.AbstractQueryExecutor;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.IdBlockAllocator;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory.IdBlockTable;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.query.SqlInsertQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.streamline.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
@@ -36,15 +38,32 @@ import java.util.Properties;
  * SERIAL feature
  *
  * If the value of id is null, we let Postgres issue new ID and get the new ID. If the value of id is not null, we just use that value.
+ *
+ * When {@code idBlockSize} is set, ids are instead reserved in blocks from the {@link IdBlockTable}, for {@link #nextId(String)}
+ * as well as for the inserts of storables without id.
  */
 public class PostgresqlExecutor extends AbstractQueryExecutor {
+    // default of the preparedStatementCacheQueries connection property
+    private static final int DEFAULT_STATEMENT_CACHE_QUERIES = 256;
+
+    private final IdBlockAllocator idBlockAllocator;
 
     /**
      * @param config Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
      */
     public PostgresqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
+        this(config, connectionBuilder, 0);
+    }
+
+    /**
+     * @param config Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
+     * @param connectionBuilder Object that establishes the connection to the database
+     * @param idBlockSize number of ids reserved at once per namespace, 0 to let the database issue the ids
+     */
+    public PostgresqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, int idBlockSize) {
         super(config, connectionBuilder);
+        this.idBlockAllocator = createIdBlockAllocator(connectionBuilder, idBlockSize);
     }
 
     /**
@@ -55,6 +74,7 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
      */
     public PostgresqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
         super(config, connectionBuilder, cacheBuilder);
+        this.idBlockAllocator = null;
     }
 
     // ============= Public API methods =============
@@ -86,8 +106,8 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
 
     @Override
     public Long nextId(String namespace) {
-        // We intentionally return null. Please refer the class javadoc for more details.
-        return null;
+        // We intentionally return null unless ids are reserved in blocks. Please refer the class javadoc for more details.
+        return idBlockAllocator != null ? idBlockAllocator.nextId(namespace) : null;
     }
 
     public static PostgresqlExecutor createExecutor(Map<String, Object> jdbcProps) {
@@ -107,13 +127,38 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
             }
         }
 
+        int idBlockSize = IdBlockAllocator.getBlockSize(jdbcProps, 0);
+        log.info("id block size: [{}]", idBlockSize);
+
         Properties properties = new Properties();
         properties.putAll(jdbcProps);
+        properties.remove(IdBlockAllocator.ID_BLOCK_SIZE);
+        int statementCacheSize = configureStatementCache(dataSourceClassName, properties);
         HikariConfig hikariConfig = new HikariConfig(properties);
 
         HikariCPConnectionBuilder connectionBuilder = new HikariCPConnectionBuilder(hikariConfig);
-        ExecutionConfig executionConfig = new ExecutionConfig(queryTimeOutInSecs);
-        return new PostgresqlExecutor(executionConfig, connectionBuilder);
+        ExecutionConfig executionConfig = new ExecutionConfig(queryTimeOutInSecs, statementCacheSize);
+        return new PostgresqlExecutor(executionConfig, connectionBuilder, idBlockSize);
+    }
+
+    /**
+     * Connections are borrowed from the pool for every statement, and the driver caches the statements per connection.
+     * Unless configured otherwise, they are prepared on the server from their first execution, instead of the 5th one.
+     *
+     * @return the number of statements cached per connection, 0 if they are never prepared on the server
+     */
+    private static int configureStatementCache(String dataSourceClassName, Properties properties) {
+        if (dataSourceClassName == null || !dataSourceClassName.startsWith("org.postgresql.")) {
+            return 0;
+        }
+        properties.putIfAbsent("dataSource.prepareThreshold", "1");
+        log.info("Prepared statement prepareThreshold [{}]", properties.get("dataSource.prepareThreshold"));
+
+        if (Integer.parseInt(properties.get("dataSource.prepareThreshold").toString()) <= 0) {
+            return 0;
+        }
+        Object cacheQueries = properties.get("dataSource.preparedStatementCacheQueries");
+        return cacheQueries != null ? Integer.parseInt(cacheQueries.toString()) : DEFAULT_STATEMENT_CACHE_QUERIES;
     }
 
     // this is required since the Id type in Storable is long and Postgres supports Int type for SERIAL (auto increment) field
@@ -136,10 +181,19 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         };
     }
 
+    private IdBlockAllocator createIdBlockAllocator(ConnectionBuilder connectionBuilder, int idBlockSize) {
+        return idBlockSize > 0
+                ? new IdBlockAllocator(new IdBlockTable(connectionBuilder, queryTimeoutSecs), idBlockSize) : null;
+    }
+
     private void insertOrUpdateWithUniqueId(final Storable storable, final SqlQuery sqlQuery) {
         try {
             Long id = storable.getId();
-            if (id == null) {
+            if (id == null && idBlockAllocator != null) {
+                // ids issued by the database could collide with the reserved ones
+                storable.setId(idBlockAllocator.nextId(storable.getNameSpace()));
+                executeUpdate(sqlQuery);
+            } else if (id == null) {
                 id = executeUpdateWithReturningGeneratedKey(sqlQuery);
                 log.debug("after executeUpdate, generated id {}", id);
                 storable.setId(id);
@@ -52,7 +52,12 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
 /**
- *
+ * Base {@link QueryExecutor} of the JDBC providers.
+ * <p>
+ * Unless a statement cache is given, every statement borrows a connection from the pool and gives it back once executed,
+ * so that no connection is held while idle, and the statements are closed to let the driver cache them per connection
+ * (e.g. cachePrepStmts for MySQL, prepareThreshold for Postgres). Statements run in a {@link #pipeline(Pipeline)} share
+ * one borrowed connection. Pool wait, latency and statement cache hits are reported per namespace by {@link #getMetrics()}.
  */
 public abstract class AbstractQueryExecutor implements QueryExecutor {
 
@@ -62,6 +67,9 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
     protected final List<Connection> activeConnections;
 
     private final Cache<SqlQuery, PreparedStatementBuilder> cache;
+    private final QueryMetrics metrics = new QueryMetrics();
+    private final StatementCacheTracker statementCacheTracker;
+    private final ThreadLocal<Connection> pipelineConnection = new ThreadLocal<>();
     private StorableFactory storableFactory;
 
     public AbstractQueryExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
@@ -73,6 +81,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         this.config = config;
         cache = cacheBuilder != null ? buildCache(cacheBuilder) : null;
         this.queryTimeoutSecs = config.getQueryTimeoutSecs();
+        this.statementCacheTracker = new StatementCacheTracker(config.getStatementCacheSize());
         activeConnections = Collections.synchronizedList(new ArrayList<Connection>());
     }
 
@@ -101,16 +110,32 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         return config;
     }
 
+    @Override
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the connection of the pipeline running in the current thread, if any, or borrows a new one.
+     */
     @Override
     public Connection getConnection() {
+        Connection connection = pipelineConnection.get();
+        return connection != null ? connection : openConnection();
+    }
+
+    private Connection openConnection() {
         Connection connection = connectionBuilder.getConnection();
         log.debug("Opened connection {}", connection);
         activeConnections.add(connection);
         return connection;
     }
 
+    /**
+     * Closes the given connection, unless it is the connection of the pipeline running in the current thread.
+     */
     public void closeConnection(Connection connection) {
-        if (connection != null) {
+        if (connection != null && connection != pipelineConnection.get()) {
             try {
                 connection.close();
                 log.debug("Closed connection {}", connection);
@@ -121,6 +146,25 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         }
     }
 
+    /**
+     * Runs the statements issued by {@code pipeline} from the current thread on a single connection. When the statements
+     * are cached, they are already bound to their own connections and the pipeline runs as is.
+     */
+    @Override
+    public <R> R pipeline(Pipeline<R> pipeline) {
+        if (isCacheEnabled() || pipelineConnection.get() != null) {
+            return pipeline.run(this);
+        }
+        final Connection connection = openConnection();
+        pipelineConnection.set(connection);
+        try {
+            return pipeline.run(this);
+        } finally {
+            pipelineConnection.remove();
+            closeConnection(connection);
+        }
+    }
+
     public void cleanup() {
         if (isCacheEnabled()) {
             cache.invalidateAll();
@@ -194,58 +238,63 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
     protected class QueryExecution {
         private final SqlQuery sqlBuilder;
+        private final QueryMetrics.NamespaceMetrics namespaceMetrics;
         private Connection connection;
+        private PreparedStatement preparedStatement;
 
         public QueryExecution(SqlQuery sqlBuilder) {
             this.sqlBuilder = sqlBuilder;
+            this.namespaceMetrics = metrics.get(String.valueOf(sqlBuilder.getNamespace()));
         }
 
         <T extends Storable> Collection<T> executeQuery(String namespace) {
             Collection<T> result;
+            final long startNanos = System.nanoTime();
+            boolean failed = true;
             try {
-                ResultSet resultSet = getPreparedStatement().executeQuery();
-                result = getStorablesFromResultSet(resultSet, namespace);
+                try (ResultSet resultSet = getPreparedStatement().executeQuery()) {
+                    result = getStorablesFromResultSet(resultSet, namespace);
+                }
+                failed = false;
             } catch (SQLException | ExecutionException e) {
                 throw new StorageException(e);
             } finally {
-                // Close every opened connection if not using cache. If using cache, cache expiry manages connections
-                if (!isCacheEnabled()) {
-                    closeConn();
-                }
+                release(startNanos, failed);
             }
             return result;
         }
 
         void executeUpdate() {
+            final long startNanos = System.nanoTime();
+            boolean failed = true;
             try {
                 getPreparedStatement().executeUpdate();
+                failed = false;
             } catch (SQLException | ExecutionException e) {
                 throw new StorageException(e);
             } finally {
-                // Close every opened connection if not using cache. If using cache, cache expiry manages connections
-                if (!isCacheEnabled()) {
-                    closeConn();
-                }
+                release(startNanos, failed);
             }
         }
 
         Long executeUpdateWithReturningGeneratedKey() {
+            final long startNanos = System.nanoTime();
+            boolean failed = true;
             try {
                 PreparedStatement pstmt = getPreparedStatementWithSetReturningGeneratedKey();
                 pstmt.executeUpdate();
-                ResultSet generatedKeys = pstmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    return generatedKeys.getLong(1);
-                } else {
-                    return null;
+                Long generatedKey = null;
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        generatedKey = generatedKeys.getLong(1);
+                    }
                 }
+                failed = false;
+                return generatedKey;
             } catch (SQLException | ExecutionException e) {
                 throw new StorageException(e);
             } finally {
-                // Close every opened connection if not using cache. If using cache, cache expiry manages connections
-                if (!isCacheEnabled()) {
-                    closeConn();
-                }
+                release(startNanos, failed);
             }
 
         }
@@ -256,35 +305,72 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         // ====== private helper methods ======
 
-        private PreparedStatement getPreparedStatement() throws ExecutionException, SQLException {
-            PreparedStatementBuilder preparedStatementBuilder = null;
+        private void release(long startNanos, boolean failed) {
+            namespaceMetrics.recordQuery(System.nanoTime() - startNanos, failed);
+            // Close every opened statement and connection if not using cache. If using cache, cache expiry manages connections
+            if (!isCacheEnabled()) {
+                closeStatement();
+                closeConn();
+            }
+        }
 
-            if (isCacheEnabled()) {
-                preparedStatementBuilder = cache.get(sqlBuilder, new PreparedStatementBuilderCallable(sqlBuilder, false));
-            } else {
-                connection = getConnection();
-                log.debug("sqlBuilder {}", sqlBuilder.toString());
-                preparedStatementBuilder = PreparedStatementBuilder.of(connection, config, sqlBuilder);
+        // closing the statement hands it over to the statement cache of the driver, if enabled
+        private void closeStatement() {
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    log.warn("Failed to close statement [{}]", preparedStatement, e);
+                }
             }
-            return preparedStatementBuilder.getPreparedStatement(sqlBuilder);
+        }
+
+        private Connection borrowConnection() {
+            if (pipelineConnection.get() != null) {
+                return pipelineConnection.get();
+            }
+            final long startNanos = System.nanoTime();
+            final Connection borrowed = getConnection();
+            namespaceMetrics.recordPoolWait(System.nanoTime() - startNanos);
+            return borrowed;
+        }
+
+        private PreparedStatement getPreparedStatement() throws ExecutionException, SQLException {
+            return getPreparedStatement(false);
         }
 
         private PreparedStatement getPreparedStatementWithSetReturningGeneratedKey() throws ExecutionException, SQLException {
+            return getPreparedStatement(true);
+        }
+
+        private PreparedStatement getPreparedStatement(boolean returnGeneratedKeys) throws ExecutionException, SQLException {
             PreparedStatementBuilder preparedStatementBuilder = null;
 
             if (isCacheEnabled()) {
-                preparedStatementBuilder = cache.get(sqlBuilder, new PreparedStatementBuilderCallable(sqlBuilder, true));
-            } else {
-                connection = getConnection();
+                PreparedStatementBuilderCallable loader = new PreparedStatementBuilderCallable(sqlBuilder, returnGeneratedKeys);
+                preparedStatementBuilder = cache.get(sqlBuilder, loader);
+                namespaceMetrics.recordStatementPrepared(!loader.loaded);
+                return preparedStatementBuilder.getPreparedStatement(sqlBuilder);
+            }
+
+            connection = borrowConnection();
+            log.debug("sqlBuilder {}", sqlBuilder.toString());
+            if (returnGeneratedKeys) {
                 preparedStatementBuilder = PreparedStatementBuilder.supportReturnGeneratedKeys(connection, config, sqlBuilder);
+            } else {
+                preparedStatementBuilder = PreparedStatementBuilder.of(connection, config, sqlBuilder);
             }
-            return preparedStatementBuilder.getPreparedStatement(sqlBuilder);
+            preparedStatement = preparedStatementBuilder.getPreparedStatement(sqlBuilder);
+            namespaceMetrics.recordStatementPrepared(
+                    statementCacheTracker.prepared(connection, sqlBuilder.getParametrizedSql()));
+            return preparedStatement;
         }
 
         /** This callable is instantiated and called the first time every key:val entry is inserted into the cache */
         private class PreparedStatementBuilderCallable implements Callable<PreparedStatementBuilder> {
             private final SqlQuery sqlBuilder;
             private final boolean returnGeneratedKeys;
+            private boolean loaded;
 
             private PreparedStatementBuilderCallable(SqlQuery sqlBuilder, boolean returnGeneratedKeys) {
                 this.sqlBuilder = sqlBuilder;
@@ -309,6 +395,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                     preparedStatementBuilder = PreparedStatementBuilder.of(getConnection(), config, sqlBuilder);
                 }
                 log.debug("Loading cache with [key: {}, val: {}]", sqlBuilder, preparedStatementBuilder);
+                loaded = true;
                 return preparedStatementBuilder;
             }
         }
@@ -0,0 +1,114 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory;
+
+import com.hortonworks.streamline.storage.exception.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out ids from blocks of consecutive ids reserved in the storage, so that a round trip is only needed once every
+ * {@code blockSize} ids of a namespace. Reserving a block is atomic in the storage, which keeps the ids unique across
+ * the instances sharing it. The ids left in a block are lost when the instance stops.
+ */
+public class IdBlockAllocator {
+    private static final Logger log = LoggerFactory.getLogger(IdBlockAllocator.class);
+
+    /**
+     * Property of the jdbc properties setting the number of ids reserved at once per namespace.
+     */
+    public static final String ID_BLOCK_SIZE = "idBlockSize";
+
+    /**
+     * Reserves blocks of ids in the storage.
+     */
+    public interface BlockReserver {
+        /**
+         * Reserves {@code blockSize} consecutive ids for the given namespace, which are never reserved again.
+         *
+         * @return the first id of the block
+         */
+        long reserve(String namespace, int blockSize);
+    }
+
+    private final BlockReserver blockReserver;
+    private final int blockSize;
+    private final ConcurrentMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdBlockAllocator(BlockReserver blockReserver, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Id block size must be positive: " + blockSize);
+        }
+        this.blockReserver = blockReserver;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return the block size configured in the given jdbc properties, or {@code defaultBlockSize}
+     */
+    public static int getBlockSize(Map<String, Object> jdbcProps, int defaultBlockSize) {
+        Object blockSize = jdbcProps.get(ID_BLOCK_SIZE);
+        if (blockSize == null) {
+            return defaultBlockSize;
+        }
+        int value = blockSize instanceof Number ? ((Number) blockSize).intValue() : Integer.parseInt(blockSize.toString());
+        if (value < 0) {
+            throw new IllegalArgumentException(ID_BLOCK_SIZE + " property can not be negative");
+        }
+        return value;
+    }
+
+    public Long nextId(String namespace) {
+        Block block = blocks.get(namespace);
+        if (block == null) {
+            Block newBlock = new Block();
+            block = blocks.putIfAbsent(namespace, newBlock);
+            if (block == null) {
+                block = newBlock;
+            }
+        }
+        // namespaces reserve their blocks independently of each other
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long start;
+                try {
+                    start = blockReserver.reserve(namespace, blockSize);
+                } catch (StorageException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new StorageException(e);
+                }
+                log.debug("Reserved ids [{}, {}) for namespace [{}]", start, start + blockSize, namespace);
+                block.next = start;
+                block.end = start + blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    private static class Block {
+        private long next;
+        private long end;
+    }
+}
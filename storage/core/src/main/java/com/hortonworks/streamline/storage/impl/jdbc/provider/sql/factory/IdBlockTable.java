@@ -0,0 +1,131 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory;
+
+import com.hortonworks.streamline.storage.exception.StorageException;
+import com.hortonworks.streamline.storage.impl.jdbc.connection.ConnectionBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reserves blocks of ids in the {@code id_block} table, which keeps the next free id of every namespace. The row of a
+ * namespace is incremented by the block size and read back in one transaction, the row lock taken by the update making
+ * the reservation atomic across instances. The row is created on first use, starting after the largest id of the
+ * namespace table so that the ids issued before, e.g. by auto increment columns, are never reused.
+ */
+public class IdBlockTable implements IdBlockAllocator.BlockReserver {
+    private static final Logger log = LoggerFactory.getLogger(IdBlockTable.class);
+
+    public static final String TABLE = "id_block";
+    private static final String UPDATE_SQL = "UPDATE " + TABLE + " SET next_id = next_id + ? WHERE namespace = ?";
+    private static final String SELECT_SQL = "SELECT next_id FROM " + TABLE + " WHERE namespace = ?";
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE + " (namespace, next_id) VALUES (?, ?)";
+
+    private final ConnectionBuilder connectionBuilder;
+    private final int queryTimeoutSecs;
+
+    public IdBlockTable(ConnectionBuilder connectionBuilder, int queryTimeoutSecs) {
+        this.connectionBuilder = connectionBuilder;
+        this.queryTimeoutSecs = queryTimeoutSecs;
+    }
+
+    @Override
+    public long reserve(String namespace, int blockSize) {
+        try (Connection connection = connectionBuilder.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Long start = increment(connection, namespace, blockSize);
+                if (start == null) {
+                    start = insert(connection, namespace, blockSize);
+                }
+                if (start == null) {
+                    // another instance created the row in the meantime
+                    start = increment(connection, namespace, blockSize);
+                }
+                if (start == null) {
+                    throw new StorageException("Failed to reserve ids for namespace [" + namespace + "]");
+                }
+                connection.commit();
+                return start;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    // returns the first id of the reserved block, null if the namespace has no row yet
+    private Long increment(Connection connection, String namespace, int blockSize) throws SQLException {
+        try (PreparedStatement update = prepare(connection, UPDATE_SQL)) {
+            update.setLong(1, blockSize);
+            update.setString(2, namespace);
+            if (update.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        try (PreparedStatement select = prepare(connection, SELECT_SQL)) {
+            select.setString(1, namespace);
+            try (ResultSet resultSet = select.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new StorageException("No row in " + TABLE + " for namespace [" + namespace + "]");
+                }
+                return resultSet.getLong(1) - blockSize;
+            }
+        }
+    }
+
+    // returns the first id of the reserved block, null if the row was created concurrently
+    private Long insert(Connection connection, String namespace, int blockSize) throws SQLException {
+        final long start = maxId(connection, namespace) + 1;
+        try (PreparedStatement insert = prepare(connection, INSERT_SQL)) {
+            insert.setString(1, namespace);
+            insert.setLong(2, start + blockSize);
+            insert.executeUpdate();
+            log.info("Created {} row for namespace [{}] starting at id [{}]", TABLE, namespace, start);
+            return start;
+        } catch (SQLException e) {
+            // most likely a duplicate key, the row is locked by the failed insert on some databases so start over
+            log.debug("Failed to create {} row for namespace [{}]", TABLE, namespace, e);
+            connection.rollback();
+            return null;
+        }
+    }
+
+    private long maxId(Connection connection, String namespace) throws SQLException {
+        try (PreparedStatement select = prepare(connection, "SELECT MAX(id) FROM " + namespace);
+             ResultSet resultSet = select.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (queryTimeoutSecs > 0) {
+            statement.setQueryTimeout(queryTimeoutSecs);
+        }
+        return statement;
+    }
+}
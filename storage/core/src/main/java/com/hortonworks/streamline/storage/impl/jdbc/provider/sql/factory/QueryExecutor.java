@@ -66,6 +66,19 @@ public interface QueryExecutor {
      */
     Long nextId(String namespace);
 
+    /**
+     * Runs the statements issued through the given executor by the current thread on a single connection, which is
+     * returned to the pool once the pipeline completes. A pipeline started within another one joins it.
+     *
+     * @return the value returned by {@code pipeline}
+     */
+    <R> R pipeline(Pipeline<R> pipeline);
+
+    /**
+     * @return the statistics of the statements run by this executor, per namespace
+     */
+    QueryMetrics getMetrics();
+
     /**
      * @return an open connection to the underlying storage
      */
@@ -81,4 +94,13 @@ public interface QueryExecutor {
     ExecutionConfig getConfig();
 
     void setStorableFactory(StorableFactory storableFactory);
+
+    /**
+     * Statements run on a single connection.
+     *
+     * @see #pipeline(Pipeline)
+     */
+    interface Pipeline<R> {
+        R run(QueryExecutor executor);
+    }
 }
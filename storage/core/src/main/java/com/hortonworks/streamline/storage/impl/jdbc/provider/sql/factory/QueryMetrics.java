@@ -0,0 +1,174 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the statements run by a {@link QueryExecutor}, kept per namespace: the time waited to borrow a connection
+ * from the pool, the statement latency and the prepared statements served from the driver's statement cache.
+ */
+public class QueryMetrics {
+    private final ConcurrentMap<String, NamespaceMetrics> namespaces = new ConcurrentHashMap<>();
+
+    /**
+     * @return the metrics of the given namespace, created on first use
+     */
+    public NamespaceMetrics get(String namespace) {
+        NamespaceMetrics metrics = namespaces.get(namespace);
+        if (metrics == null) {
+            NamespaceMetrics newMetrics = new NamespaceMetrics();
+            metrics = namespaces.putIfAbsent(namespace, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of all the namespaces queried so far
+     */
+    public Map<String, NamespaceMetrics> getAll() {
+        return Collections.unmodifiableMap(namespaces);
+    }
+
+    public void reset() {
+        namespaces.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryMetrics{" + namespaces + '}';
+    }
+
+    public static class NamespaceMetrics {
+        private final AtomicLong queries = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private final AtomicLong connectionsBorrowed = new AtomicLong();
+        private final AtomicLong totalPoolWaitNanos = new AtomicLong();
+        private final AtomicLong maxPoolWaitNanos = new AtomicLong();
+        private final AtomicLong statementsPrepared = new AtomicLong();
+        private final AtomicLong statementCacheHits = new AtomicLong();
+
+        void recordQuery(long latencyNanos, boolean failed) {
+            queries.incrementAndGet();
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            totalLatencyNanos.addAndGet(latencyNanos);
+            updateMax(maxLatencyNanos, latencyNanos);
+        }
+
+        void recordPoolWait(long waitNanos) {
+            connectionsBorrowed.incrementAndGet();
+            totalPoolWaitNanos.addAndGet(waitNanos);
+            updateMax(maxPoolWaitNanos, waitNanos);
+        }
+
+        void recordStatementPrepared(boolean cacheHit) {
+            statementsPrepared.incrementAndGet();
+            if (cacheHit) {
+                statementCacheHits.incrementAndGet();
+            }
+        }
+
+        private static void updateMax(AtomicLong max, long value) {
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+                // retry
+            }
+        }
+
+        public long getQueries() {
+            return queries.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public double getMeanLatencyMs() {
+            return mean(totalLatencyNanos.get(), queries.get());
+        }
+
+        public double getMaxLatencyMs() {
+            return toMillis(maxLatencyNanos.get());
+        }
+
+        /**
+         * @return the number of connections borrowed from the pool, statements run in a pipeline share one connection
+         */
+        public long getConnectionsBorrowed() {
+            return connectionsBorrowed.get();
+        }
+
+        public double getMeanPoolWaitMs() {
+            return mean(totalPoolWaitNanos.get(), connectionsBorrowed.get());
+        }
+
+        public double getMaxPoolWaitMs() {
+            return toMillis(maxPoolWaitNanos.get());
+        }
+
+        public long getStatementsPrepared() {
+            return statementsPrepared.get();
+        }
+
+        /**
+         * @return the number of statements prepared with a SQL already prepared on the same physical connection, and so
+         * served from the driver's statement cache when it is enabled
+         */
+        public long getStatementCacheHits() {
+            return statementCacheHits.get();
+        }
+
+        public double getStatementCacheHitRatio() {
+            long prepared = statementsPrepared.get();
+            return prepared == 0 ? 0 : (double) statementCacheHits.get() / prepared;
+        }
+
+        private static double mean(long totalNanos, long count) {
+            return count == 0 ? 0 : toMillis(totalNanos) / count;
+        }
+
+        private static double toMillis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return "NamespaceMetrics{" +
+                    "queries=" + getQueries() +
+                    ", failures=" + getFailures() +
+                    ", meanLatencyMs=" + getMeanLatencyMs() +
+                    ", maxLatencyMs=" + getMaxLatencyMs() +
+                    ", connectionsBorrowed=" + getConnectionsBorrowed() +
+                    ", meanPoolWaitMs=" + getMeanPoolWaitMs() +
+                    ", maxPoolWaitMs=" + getMaxPoolWaitMs() +
+                    ", statementsPrepared=" + getStatementsPrepared() +
+                    ", statementCacheHits=" + getStatementCacheHits() +
+                    '}';
+        }
+    }
+}
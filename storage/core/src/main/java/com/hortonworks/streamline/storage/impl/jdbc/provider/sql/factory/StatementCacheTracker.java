@@ -0,0 +1,76 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Follows the statements prepared on every physical connection of the pool, the way a driver side statement cache of
+ * the given size would, to tell whether a statement is served from that cache. Connections are weakly referenced so that
+ * the ones retired by the pool are dropped.
+ */
+class StatementCacheTracker {
+    private final int cacheSize;
+    private final Map<Connection, Map<String, Boolean>> statements = new WeakHashMap<>();
+
+    /**
+     * @param cacheSize number of statements the driver caches per connection, nothing is tracked if not positive
+     */
+    StatementCacheTracker(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Records that {@code sql} is prepared on the given connection.
+     *
+     * @return true if the statement was prepared on the same physical connection recently enough to be cached
+     */
+    boolean prepared(Connection connection, String sql) {
+        if (cacheSize <= 0) {
+            return false;
+        }
+        Connection physicalConnection = unwrap(connection);
+        synchronized (statements) {
+            Map<String, Boolean> connectionStatements = statements.get(physicalConnection);
+            if (connectionStatements == null) {
+                connectionStatements = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > cacheSize;
+                    }
+                };
+                statements.put(physicalConnection, connectionStatements);
+            }
+            return connectionStatements.put(sql, Boolean.TRUE) != null;
+        }
+    }
+
+    // pooled connections are proxies handed out on every borrow, the statement cache belongs to the connection they wrap
+    private static Connection unwrap(Connection connection) {
+        try {
+            if (connection.isWrapperFor(Connection.class)) {
+                return connection.unwrap(Connection.class);
+            }
+        } catch (SQLException e) {
+            // not a wrapper
+        }
+        return connection;
+    }
+}
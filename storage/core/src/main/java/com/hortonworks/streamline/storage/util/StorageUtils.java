@@ -18,12 +18,18 @@ package com.hortonworks.streamline.storage.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hortonworks.streamline.common.QueryParam;
+import com.hortonworks.streamline.common.util.ClassIndex;
 import com.hortonworks.streamline.storage.annotation.StorableEntity;
 import com.hortonworks.streamline.common.exception.DuplicateEntityException;
 import com.hortonworks.streamline.storage.Storable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -36,7 +42,8 @@ import static com.hortonworks.streamline.common.util.ReflectionHelper.getAnnotat
  * Utility methods for the storage package.
  */
 public final class StorageUtils {
-
+    private static final Logger LOG = LoggerFactory.getLogger(StorageUtils.class);
+    private static final String BASE_PACKAGE = "com.hortonworks";
 
     private StorageUtils() {
     }
@@ -63,11 +70,22 @@ public final class StorageUtils {
         }
     }
 
+    /**
+     * Returns the classes annotated with {@link StorableEntity}. They are read from the indexes generated at compile
+     * time, only the jars and directories without an index are scanned.
+     */
     @SuppressWarnings("unchecked")
     public static Collection<Class<? extends Storable>> getStreamlineEntities() {
+        Collection<Class<?>> classes = new ArrayList<>(
+                ClassIndex.getClasses(ClassIndex.STORABLE_ENTITIES).orElse(Collections.emptyList()));
+        Collection<URL> unindexed = ClassIndex.getUnindexedLocations(ClassIndex.STORABLE_ENTITIES, BASE_PACKAGE);
+        if (!unindexed.isEmpty()) {
+            LOG.info("No index of the storable entities in {}, scanning them", unindexed);
+            classes.addAll(getAnnotatedClasses(unindexed, BASE_PACKAGE, StorableEntity.class));
+        }
         Set<Class<? extends Storable>> entities = new HashSet<>();
-        getAnnotatedClasses("com.hortonworks", StorableEntity.class).forEach(clazz -> {
-            if (Storable.class.isAssignableFrom(clazz)) {
+        classes.forEach(clazz -> {
+            if (Storable.class.isAssignableFrom(clazz) && clazz.isAnnotationPresent(StorableEntity.class)) {
                 entities.add((Class<? extends Storable>) clazz);
             }
         });
@@ -0,0 +1,250 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.storage.PrimaryKey;
+import com.hortonworks.streamline.storage.Storable;
+import com.hortonworks.streamline.storage.StorableFactory;
+import com.hortonworks.streamline.storage.catalog.AbstractStorable;
+import com.hortonworks.streamline.storage.exception.StorageException;
+import com.hortonworks.streamline.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.streamline.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.streamline.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.streamline.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.streamline.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks on an H2 database how the statements of a {@link QueryExecutor#pipeline(QueryExecutor.Pipeline)} share the
+ * connection borrowed from the pool.
+ */
+public class AbstractQueryExecutorTest {
+    private HikariCPConnectionBuilder hikariConnectionBuilder;
+    private CountingConnectionBuilder connectionBuilder;
+    private AbstractQueryExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> config = HikariBasicConfig.getH2HikariConfig();
+        config.put("dataSource.URL", "jdbc:h2:mem:pipeline;MODE=MySQL;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1");
+        hikariConnectionBuilder = new HikariCPConnectionBuilder(config);
+        execute("CREATE TABLE pipeline_entity (id BIGINT NOT NULL, name VARCHAR(255), PRIMARY KEY (id))");
+        connectionBuilder = new CountingConnectionBuilder(hikariConnectionBuilder);
+        executor = new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder);
+        StorableFactory storableFactory = new StorableFactory();
+        storableFactory.addStorableClasses(Collections.<Class<? extends Storable>>singletonList(PipelineEntity.class));
+        executor.setStorableFactory(storableFactory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.cleanup();
+        execute("DROP TABLE pipeline_entity");
+        hikariConnectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testStatementsBorrowAConnectionEach() {
+        executor.insert(new PipelineEntity(1L, "first"));
+        executor.insert(new PipelineEntity(2L, "second"));
+        Assert.assertEquals(2, executor.select(PipelineEntity.NAMESPACE).size());
+
+        Assert.assertEquals(3, connectionBuilder.borrowed.get());
+        Assert.assertEquals(0, connectionBuilder.open.get());
+    }
+
+    @Test
+    public void testPipelineBorrowsOneConnection() {
+        Collection<Storable> entities = executor.pipeline(queryExecutor -> {
+            queryExecutor.insert(new PipelineEntity(1L, "first"));
+            queryExecutor.insert(new PipelineEntity(2L, "second"));
+            // the connection stays borrowed until the end of the pipeline
+            Assert.assertEquals(1, connectionBuilder.open.get());
+            return queryExecutor.select(PipelineEntity.NAMESPACE);
+        });
+
+        Assert.assertEquals(2, entities.size());
+        Assert.assertEquals(1, connectionBuilder.borrowed.get());
+        Assert.assertEquals(0, connectionBuilder.open.get());
+    }
+
+    @Test
+    public void testNestedPipelineSharesTheConnection() {
+        executor.pipeline(queryExecutor -> {
+            queryExecutor.insert(new PipelineEntity(1L, "first"));
+            return queryExecutor.pipeline(nested -> nested.select(PipelineEntity.NAMESPACE));
+        });
+
+        Assert.assertEquals(1, connectionBuilder.borrowed.get());
+        Assert.assertEquals(0, connectionBuilder.open.get());
+    }
+
+    @Test
+    public void testPipelineReleasesConnectionOnException() {
+        try {
+            executor.pipeline(queryExecutor -> {
+                queryExecutor.insert(new PipelineEntity(1L, "first"));
+                // the same primary key again
+                queryExecutor.insert(new PipelineEntity(1L, "duplicate"));
+                return null;
+            });
+            Assert.fail("Expected the failed statement to fail the pipeline");
+        } catch (StorageException e) {
+            // expected
+        }
+        Assert.assertEquals(1, connectionBuilder.borrowed.get());
+        Assert.assertEquals(0, connectionBuilder.open.get());
+
+        try {
+            executor.pipeline(queryExecutor -> {
+                queryExecutor.select(PipelineEntity.NAMESPACE);
+                throw new IllegalStateException("failed between statements");
+            });
+            Assert.fail("Expected the exception to be propagated");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(2, connectionBuilder.borrowed.get());
+        Assert.assertEquals(0, connectionBuilder.open.get());
+
+        // the next statement runs outside of any pipeline, on its own connection
+        Assert.assertEquals(1, executor.select(PipelineEntity.NAMESPACE).size());
+        Assert.assertEquals(3, connectionBuilder.borrowed.get());
+        Assert.assertEquals(0, connectionBuilder.open.get());
+    }
+
+    private void execute(String... sqls) throws SQLException {
+        try (Connection connection = hikariConnectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Counts the connections borrowed from the pool, and those not given back yet.
+     */
+    private static class CountingConnectionBuilder implements ConnectionBuilder<Object> {
+        private final ConnectionBuilder<?> delegate;
+        private final AtomicInteger borrowed = new AtomicInteger();
+        private final AtomicInteger open = new AtomicInteger();
+
+        CountingConnectionBuilder(ConnectionBuilder<?> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void prepare() {
+            delegate.prepare();
+        }
+
+        @Override
+        public Connection getConnection() {
+            final Connection connection = delegate.getConnection();
+            borrowed.incrementAndGet();
+            open.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "close":
+                                open.decrementAndGet();
+                                break;
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        @Override
+        public Object getConfig() {
+            return delegate.getConfig();
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+
+    public static class PipelineEntity extends AbstractStorable {
+        static final String NAMESPACE = "pipeline_entity";
+
+        private Long id;
+        private String name;
+
+        public PipelineEntity() {
+        }
+
+        PipelineEntity(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public String getNameSpace() {
+            return NAMESPACE;
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            Map<Schema.Field, Object> fieldToObjectMap = new HashMap<>();
+            fieldToObjectMap.put(new Schema.Field("id", Schema.Type.LONG), id);
+            return new PrimaryKey(fieldToObjectMap);
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
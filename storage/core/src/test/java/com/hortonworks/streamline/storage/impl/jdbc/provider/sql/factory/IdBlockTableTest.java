@@ -0,0 +1,120 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory;
+
+import com.hortonworks.streamline.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.streamline.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class IdBlockTableTest {
+    private HikariCPConnectionBuilder connectionBuilder;
+
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> config = HikariBasicConfig.getH2HikariConfig();
+        config.put("dataSource.URL", "jdbc:h2:mem:id_block;MODE=MySQL;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1");
+        connectionBuilder = new HikariCPConnectionBuilder(config);
+        execute("CREATE TABLE id_block (namespace VARCHAR(255) NOT NULL, next_id BIGINT NOT NULL, PRIMARY KEY (namespace))",
+                "CREATE TABLE topology (id BIGINT AUTO_INCREMENT NOT NULL, name VARCHAR(255), PRIMARY KEY (id))",
+                "INSERT INTO topology (name) VALUES ('first'), ('second'), ('third')");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP TABLE id_block", "DROP TABLE topology");
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testBlocksStartAfterExistingIds() {
+        IdBlockAllocator allocator = new IdBlockAllocator(new IdBlockTable(connectionBuilder, -1), 10);
+
+        for (long expected = 4; expected < 30; expected++) {
+            Assert.assertEquals(Long.valueOf(expected), allocator.nextId("topology"));
+        }
+    }
+
+    @Test
+    public void testInstancesGetDisjointBlocks() {
+        IdBlockAllocator first = new IdBlockAllocator(new IdBlockTable(connectionBuilder, -1), 5);
+        IdBlockAllocator second = new IdBlockAllocator(new IdBlockTable(connectionBuilder, -1), 5);
+
+        Assert.assertEquals(Long.valueOf(4), first.nextId("topology"));
+        Assert.assertEquals(Long.valueOf(9), second.nextId("topology"));
+        Assert.assertEquals(Long.valueOf(5), first.nextId("topology"));
+        Assert.assertEquals(Long.valueOf(10), second.nextId("topology"));
+    }
+
+    @Test
+    public void testConcurrentAllocationsAreUnique() throws Exception {
+        final List<IdBlockAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            allocators.add(new IdBlockAllocator(new IdBlockTable(connectionBuilder, -1), 7));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                final IdBlockAllocator allocator = allocators.get(i % allocators.size());
+                futures.add(executorService.submit(new Callable<List<Long>>() {
+                    @Override
+                    public List<Long> call() {
+                        List<Long> ids = new ArrayList<>();
+                        for (int j = 0; j < 100; j++) {
+                            ids.add(allocator.nextId("topology"));
+                        }
+                        return ids;
+                    }
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                for (Long id : future.get()) {
+                    Assert.assertTrue("Duplicate id " + id, ids.add(id));
+                    Assert.assertTrue(id > 3);
+                }
+            }
+            Assert.assertEquals(600, ids.size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void execute(String... sqls) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
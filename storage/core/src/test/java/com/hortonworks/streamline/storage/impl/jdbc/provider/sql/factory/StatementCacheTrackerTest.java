@@ -0,0 +1,88 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.storage.impl.jdbc.provider.sql.factory;
+
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.sql.Connection;
+
+@RunWith(JMockit.class)
+public class StatementCacheTrackerTest {
+    private static final String SELECT_TOPOLOGY = "SELECT * FROM topology WHERE id = ?";
+    private static final String SELECT_COMPONENT = "SELECT * FROM topology_component WHERE id = ?";
+    private static final String SELECT_STREAM = "SELECT * FROM topology_stream WHERE id = ?";
+
+    @Mocked
+    private Connection connection;
+
+    @Mocked
+    private Connection otherConnection;
+
+    @Test
+    public void testHitsPerConnection() {
+        StatementCacheTracker tracker = new StatementCacheTracker(10);
+
+        Assert.assertFalse(tracker.prepared(connection, SELECT_TOPOLOGY));
+        Assert.assertTrue(tracker.prepared(connection, SELECT_TOPOLOGY));
+        Assert.assertFalse(tracker.prepared(otherConnection, SELECT_TOPOLOGY));
+        Assert.assertTrue(tracker.prepared(otherConnection, SELECT_TOPOLOGY));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedStatementsAreEvicted() {
+        StatementCacheTracker tracker = new StatementCacheTracker(2);
+
+        tracker.prepared(connection, SELECT_TOPOLOGY);
+        tracker.prepared(connection, SELECT_COMPONENT);
+        Assert.assertTrue(tracker.prepared(connection, SELECT_TOPOLOGY));
+        tracker.prepared(connection, SELECT_STREAM);
+
+        Assert.assertTrue(tracker.prepared(connection, SELECT_TOPOLOGY));
+        Assert.assertFalse(tracker.prepared(connection, SELECT_COMPONENT));
+    }
+
+    @Test
+    public void testNoHitsWithoutDriverCache() {
+        StatementCacheTracker tracker = new StatementCacheTracker(0);
+
+        Assert.assertFalse(tracker.prepared(connection, SELECT_TOPOLOGY));
+        Assert.assertFalse(tracker.prepared(connection, SELECT_TOPOLOGY));
+    }
+
+    @Test
+    public void testNamespaceMetrics() {
+        QueryMetrics metrics = new QueryMetrics();
+        QueryMetrics.NamespaceMetrics topologyMetrics = metrics.get("topology");
+        topologyMetrics.recordPoolWait(2_000_000);
+        topologyMetrics.recordQuery(4_000_000, false);
+        topologyMetrics.recordStatementPrepared(false);
+        topologyMetrics.recordQuery(2_000_000, true);
+        topologyMetrics.recordStatementPrepared(true);
+
+        Assert.assertSame(topologyMetrics, metrics.get("topology"));
+        Assert.assertEquals(2, topologyMetrics.getQueries());
+        Assert.assertEquals(1, topologyMetrics.getFailures());
+        Assert.assertEquals(3.0, topologyMetrics.getMeanLatencyMs(), 0.001);
+        Assert.assertEquals(4.0, topologyMetrics.getMaxLatencyMs(), 0.001);
+        Assert.assertEquals(1, topologyMetrics.getConnectionsBorrowed());
+        Assert.assertEquals(2.0, topologyMetrics.getMeanPoolWaitMs(), 0.001);
+        Assert.assertEquals(0.5, topologyMetrics.getStatementCacheHitRatio(), 0.001);
+    }
+}
@@ -20,10 +20,12 @@ public class TablesInitializer {
     private static final String OPTION_MYSQL_JAR_URL_PATH = "mysql-jar-url";
     private static final String OPTION_EXECUTE_CREATE_TABLE = "create";
     private static final String OPTION_EXECUTE_DROP_TABLE = "drop";
+    private static final String OPTION_EXECUTE_UPGRADE_TABLE = "upgrade";
     private static final String OPTION_EXECUTE_CHECK_CONNECTION = "check-connection";
 
     private static final String CREATE_SCRIPT_FILE_NAME = "create_tables.sql";
     private static final String DROP_SCRIPT_FILE_NAME = "drop_tables.sql";
+    private static final String UPGRADE_SCRIPT_FILE_NAME = "upgrade_tables.sql";
 
     public static void main(String[] args) throws Exception {
         Options options = new Options();
@@ -68,6 +70,14 @@ public class TablesInitializer {
                         .build()
         );
 
+        options.addOption(
+                Option.builder()
+                        .hasArg(false)
+                        .longOpt(OPTION_EXECUTE_UPGRADE_TABLE)
+                        .desc("Execute 'upgrade table' script, adding to the tables of an earlier release what they lack")
+                        .build()
+        );
+
         options.addOption(
                 Option.builder()
                         .hasArg(false)
@@ -84,19 +94,24 @@ public class TablesInitializer {
             System.exit(1);
         }
 
-        // either create or drop should be specified, not both
+        // exactly one of create, drop, upgrade or check-connection should be specified
         boolean executeCreate = commandLine.hasOption(OPTION_EXECUTE_CREATE_TABLE);
         boolean executeDrop = commandLine.hasOption(OPTION_EXECUTE_DROP_TABLE);
+        boolean executeUpgrade = commandLine.hasOption(OPTION_EXECUTE_UPGRADE_TABLE);
         boolean checkConnection = commandLine.hasOption(OPTION_EXECUTE_CHECK_CONNECTION);
 
-        boolean moreThanOneOperationIsSpecified = executeCreate == executeDrop ? executeCreate : checkConnection;
-        boolean noOperationSpecified = !(executeCreate || executeDrop || checkConnection);
+        int operations = 0;
+        for (boolean operation : new boolean[] {executeCreate, executeDrop, executeUpgrade, checkConnection}) {
+            if (operation) {
+                operations++;
+            }
+        }
 
-        if (moreThanOneOperationIsSpecified) {
-            System.out.println("Only one operation can be execute at once, please select 'create' or 'drop', or 'check-connection'.");
+        if (operations > 1) {
+            System.out.println("Only one operation can be execute at once, please select 'create', 'drop', 'upgrade' or 'check-connection'.");
             System.exit(1);
-        } else if (noOperationSpecified) {
-            System.out.println("One of 'create', 'drop', 'check-connection' operation should be specified to execute.");
+        } else if (operations == 0) {
+            System.out.println("One of 'create', 'drop', 'upgrade', 'check-connection' operation should be specified to execute.");
             System.exit(1);
         }
 
@@ -142,6 +157,8 @@ public class TablesInitializer {
                 }
             } else if (executeDrop) {
                 doExecuteDrop(sqlScriptRunner, storageProperties, scriptRootPath);
+            } else if (executeUpgrade) {
+                doExecuteUpgrade(sqlScriptRunner, storageProperties, scriptRootPath);
             } else {
                 // executeCreate
                 doExecuteCreate(sqlScriptRunner, storageProperties, scriptRootPath);
@@ -160,6 +177,14 @@ public class TablesInitializer {
         doExecute(sqlScriptRunner, scriptPath);
     }
 
+    private static void doExecuteUpgrade(SQLScriptRunner sqlScriptRunner, StorageProviderConfiguration storageProperties,
+                                         String scriptRootPath) throws Exception {
+        String scriptPath = scriptRootPath + File.separator + storageProperties.getDbType() +
+                File.separator + UPGRADE_SCRIPT_FILE_NAME;
+
+        doExecute(sqlScriptRunner, scriptPath);
+    }
+
     private static void doExecuteDrop(SQLScriptRunner sqlScriptRunner, StorageProviderConfiguration storageProperties,
                                       String scriptRootPath) throws Exception {
         System.out.println("The operation will drop any existing tables.");
@@ -27,4 +27,14 @@ public interface TopologyActionContext {
      * @param description the description
      */
     void setCurrentAction(String description);
+
+    /**
+     * Record the time spent in a phase of the action being performed, e.g. assembling
+     * the topology jar or submitting the topology.
+     *
+     * @param phase the description of the phase
+     * @param elapsedMillis the time spent in the phase in milliseconds
+     */
+    default void recordPhaseTime(String phase, long elapsedMillis) {
+    }
 }
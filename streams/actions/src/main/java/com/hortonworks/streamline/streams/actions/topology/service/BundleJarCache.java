@@ -0,0 +1,152 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.topology.service;
+
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.hortonworks.streamline.common.util.FileStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Local cache of the jars (custom processor and UDF bundles, ...) which are downloaded from {@link FileStorage}
+ * when a topology is deployed or test run.
+ * <p>
+ * Bundle and UDF jars are stored under a generated (UUID or digest based) name, so the content for such a name
+ * never changes. Custom processor jars however are uploaded again under the same name when the custom processor
+ * is updated, so callers pass a version for those jars (e.g. the timestamp of the custom processor bundle), which
+ * becomes part of the cache key; a jar is cached once per name and version.
+ * <p>
+ * The SHA-256 of each jar is recorded next to it when it is downloaded, and verified every time the cached jar is
+ * used; a jar failing verification is downloaded again.
+ */
+class BundleJarCache {
+    private static final Logger LOG = LoggerFactory.getLogger(BundleJarCache.class);
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+
+    private final FileStorage fileStorage;
+    private final Path cacheDir;
+    private final ExecutorService executorService;
+
+    BundleJarCache(FileStorage fileStorage, Path cacheDir, ExecutorService executorService) {
+        this.fileStorage = fileStorage;
+        this.cacheDir = cacheDir;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Same as {@link #copyJars(Map, Path)} for jars whose content never changes for a name.
+     */
+    void copyJars(Collection<String> jars, Path destinationPath) throws IOException {
+        Map<String, String> unversioned = new HashMap<>();
+        for (String jar : jars) {
+            unversioned.put(jar, null);
+        }
+        copyJars(unversioned, destinationPath);
+    }
+
+    /**
+     * Makes the given jars available in the destination directory, downloading the jars that are not cached
+     * in parallel. Cached jars are hard linked to the destination when possible, and copied otherwise.
+     *
+     * @param jars the jar names mapped to the version of their content, or to null if the content for the name
+     *             never changes
+     */
+    void copyJars(Map<String, String> jars, Path destinationPath) throws IOException {
+        Files.createDirectories(cacheDir);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<String, String> entry : jars.entrySet()) {
+            String jar = entry.getKey();
+            String version = entry.getValue();
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    Path cachedJar = getOrDownload(jar, version);
+                    Path destPath = destinationPath.resolve(Paths.get(jar).getFileName().toString());
+                    linkOrCopy(cachedJar, destPath);
+                    LOG.debug("Jar {} copied to {}", jar, destPath);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executorService));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Path getOrDownload(String jar, String version) throws IOException {
+        String cacheKey = version == null ? jar : jar + "-" + version;
+        String cacheFileName = cacheKey.replaceAll("[^A-Za-z0-9._-]", "_");
+        Path cachedJar = cacheDir.resolve(cacheFileName);
+        Path checksumFile = cacheDir.resolve(cacheFileName + CHECKSUM_SUFFIX);
+
+        if (Files.exists(cachedJar) && Files.exists(checksumFile)) {
+            String expected = new String(Files.readAllBytes(checksumFile), StandardCharsets.UTF_8);
+            String actual = com.google.common.io.Files.asByteSource(cachedJar.toFile()).hash(Hashing.sha256()).toString();
+            if (expected.equals(actual)) {
+                LOG.debug("Using cached jar {} for {}", cachedJar, jar);
+                return cachedJar;
+            }
+            LOG.warn("Checksum of cached jar {} doesn't match, downloading {} again", cachedJar, jar);
+        }
+
+        Path tmpJar = Files.createTempFile(cacheDir, cacheFileName, ".tmp");
+        try {
+            String checksum;
+            try (HashingInputStream src = new HashingInputStream(Hashing.sha256(), fileStorage.downloadFile(jar))) {
+                Files.copy(src, tmpJar, StandardCopyOption.REPLACE_EXISTING);
+                checksum = src.hash().toString();
+            }
+            Files.move(tmpJar, cachedJar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.write(checksumFile, checksum.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(tmpJar);
+        }
+        LOG.debug("Jar {} downloaded to {}", jar, cachedJar);
+        return cachedJar;
+    }
+
+    private void linkOrCopy(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            // e.g. the cache and the destination are on different file systems
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
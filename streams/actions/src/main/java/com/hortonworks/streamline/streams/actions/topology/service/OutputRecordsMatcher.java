@@ -0,0 +1,91 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.topology.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches the actual output records of a test run sink against the expected records one record at a time,
+ * so that the actual records never need to be held in memory.
+ * <p>
+ * Records are compared regardless of their order. The first mismatch is detected as soon as the offending
+ * record is offered, and at most {@code maxReportedMismatches} mismatches are kept for reporting.
+ */
+class OutputRecordsMatcher {
+    private final Map<Map<String, Object>, Integer> remaining = new HashMap<>();
+    private final int maxReportedMismatches;
+    private final List<String> mismatches = new ArrayList<>();
+    private long offeredCount;
+    private boolean matched = true;
+
+    OutputRecordsMatcher(List<Map<String, Object>> expectedRecords, int maxReportedMismatches) {
+        this.maxReportedMismatches = maxReportedMismatches;
+        for (Map<String, Object> expectedRecord : expectedRecords) {
+            remaining.merge(expectedRecord, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Offers the next actual record.
+     *
+     * @return {@code false} once any mismatch has been found, {@code true} otherwise
+     */
+    boolean offer(Map<String, Object> actualRecord) {
+        offeredCount++;
+        Integer count = remaining.get(actualRecord);
+        if (count == null) {
+            addMismatch("unexpected record #" + offeredCount + ": " + actualRecord);
+        } else if (count == 1) {
+            remaining.remove(actualRecord);
+        } else {
+            remaining.put(actualRecord, count - 1);
+        }
+        return matched;
+    }
+
+    /**
+     * Completes matching once every actual record has been offered.
+     *
+     * @return {@code true} if actual records are same as expected records
+     */
+    boolean finish() {
+        for (Map.Entry<Map<String, Object>, Integer> entry : remaining.entrySet()) {
+            addMismatch("missing record (x" + entry.getValue() + "): " + entry.getKey());
+            if (mismatches.size() >= maxReportedMismatches) {
+                break;
+            }
+        }
+        return matched;
+    }
+
+    boolean isMatched() {
+        return matched;
+    }
+
+    List<String> getMismatches() {
+        return mismatches;
+    }
+
+    private void addMismatch(String mismatch) {
+        matched = false;
+        if (mismatches.size() < maxReportedMismatches) {
+            mismatches.add(mismatch);
+        }
+    }
+}
@@ -37,8 +37,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -47,6 +49,7 @@ import java.util.Set;
 public class StormTopologyDependenciesHandler extends TopologyDagVisitor {
     private static final Logger LOG = LoggerFactory.getLogger(StormTopologyDependenciesHandler.class);
     private final Set<String> extraJars = new HashSet<>();
+    private final Map<String, String> extraJarVersions = new HashMap<>();
     private final Set<String> resourceNames = new HashSet<>();
     private Set<TopologyComponentBundle> topologyComponentBundleSet = new HashSet<>();
     private List<String> mavenArtifacts = new ArrayList<>();
@@ -103,6 +106,14 @@ public class StormTopologyDependenciesHandler extends TopologyDagVisitor {
         return extraJars;
     }
 
+    /**
+     * Returns the versions of the extra jars whose content can change for the same name (custom processor jars
+     * are uploaded again under the same name when the custom processor is updated).
+     */
+    public Map<String, String> getExtraJarVersions() {
+        return extraJarVersions;
+    }
+
     public Set<String> getExtraResources() {
         return resourceNames;
     }
@@ -139,7 +150,11 @@ public class StormTopologyDependenciesHandler extends TopologyDagVisitor {
         if (TopologyComponentBundle.TopologyComponentType.PROCESSOR.equals(topologyComponentBundle.getType()) && ComponentTypes.CUSTOM.equals
                 (topologyComponentBundle.getSubType())) {
             try {
-                extraJars.add(new CustomProcessorInfo().fromTopologyComponentBundle(topologyComponentBundle).getJarFileName());
+                String jarFileName = new CustomProcessorInfo().fromTopologyComponentBundle(topologyComponentBundle).getJarFileName();
+                extraJars.add(jarFileName);
+                if (topologyComponentBundle.getTimestamp() != null) {
+                    extraJarVersions.put(jarFileName, topologyComponentBundle.getTimestamp().toString());
+                }
             } catch (IOException e) {
                 LOG.warn("IOException while getting jar file name for custom processor from bundle", topologyComponentBundle);
                 throw new RuntimeException(e);
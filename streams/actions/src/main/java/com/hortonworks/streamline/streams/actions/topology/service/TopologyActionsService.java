@@ -17,9 +17,9 @@ package com.hortonworks.streamline.streams.actions.topology.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Stopwatch;
 import com.hortonworks.streamline.streams.catalog.TopologyTestRunHistory;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import com.hortonworks.streamline.common.util.FileStorage;
 import com.hortonworks.streamline.registries.model.client.MLModelRegistryClient;
 import com.hortonworks.streamline.streams.actions.TopologyActions;
@@ -51,9 +51,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
@@ -61,6 +59,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static com.hortonworks.streamline.streams.actions.topology.state.TopologyStates.TOPOLOGY_STATE_INITIAL;
 
@@ -68,22 +68,24 @@ public class TopologyActionsService implements ContainingNamespaceAwareContainer
     private static final Logger LOG = LoggerFactory.getLogger(TopologyActionsService.class);
 
     public static final String TOPOLOGY_TEST_RUN_RESULT_DIR = "topologyTestRunResultDir";
+    public static final String JAR_CACHE_DIR = "jarCacheDir";
+
+    private static final int JAR_DOWNLOAD_PARALLELISM = 4;
 
     private final StreamCatalogService catalogService;
     private final EnvironmentService environmentService;
     private final TopologyDagBuilder topologyDagBuilder;
     private final ConfigFileWriter configFileWriter;
-    private final FileStorage fileStorage;
     private final TopologyActionsContainer topologyActionsContainer;
     private final TopologyStateFactory stateFactory;
     private final TopologyTestRunner topologyTestRunner;
+    private final BundleJarCache bundleJarCache;
 
     public TopologyActionsService(StreamCatalogService catalogService, EnvironmentService environmentService,
                                   FileStorage fileStorage, MLModelRegistryClient modelRegistryClient,
                                   Map<String, Object> configuration) {
         this.catalogService = catalogService;
         this.environmentService = environmentService;
-        this.fileStorage = fileStorage;
         this.topologyDagBuilder = new TopologyDagBuilder(catalogService, modelRegistryClient);
         this.configFileWriter = new ConfigFileWriter();
 
@@ -105,15 +107,32 @@ public class TopologyActionsService implements ContainingNamespaceAwareContainer
         this.topologyActionsContainer = new TopologyActionsContainer(environmentService, conf);
         this.stateFactory = TopologyStateFactory.getInstance();
         this.topologyTestRunner = new TopologyTestRunner(catalogService, this, topologyTestRunResultDir);
+
+        String jarCacheDir = conf.get(JAR_CACHE_DIR);
+        if (StringUtils.isEmpty(jarCacheDir)) {
+            jarCacheDir = System.getProperty("java.io.tmpdir") + File.separator + "streamline-jar-cache";
+        }
+        this.bundleJarCache = new BundleJarCache(fileStorage, Paths.get(jarCacheDir),
+                Executors.newFixedThreadPool(JAR_DOWNLOAD_PARALLELISM, r -> {
+                    Thread thread = new Thread(r, "jar-download");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
     }
 
     public Void deployTopology(Topology topology) throws Exception {
         TopologyContext ctx = getTopologyContext(topology);
         LOG.debug("Deploying topology {}", topology);
+        Stopwatch stopwatch = Stopwatch.createStarted();
         while (ctx.getState() != TopologyStates.TOPOLOGY_STATE_DEPLOYED) {
-            LOG.debug("Current state {}", ctx.getStateName());
+            String stateName = ctx.getStateName();
+            LOG.debug("Current state {}", stateName);
+            long startMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
             ctx.deploy();
+            ctx.recordPhaseTime(stateName, stopwatch.elapsed(TimeUnit.MILLISECONDS) - startMillis);
         }
+        LOG.info("Deployed topology {} - elapsed: {} ms, per phase: {}", topology.getId(),
+                stopwatch.elapsed(TimeUnit.MILLISECONDS), ctx.getPhaseTimes());
         return null;
     }
 
@@ -189,7 +208,11 @@ public class TopologyActionsService implements ContainingNamespaceAwareContainer
         Set<String> extraJars = new HashSet<>();
         extraJars.addAll(extraJarsHandler.getExtraJars());
         extraJars.addAll(getBundleJars(extraJarsHandler.getTopologyComponentBundleSet()));
-        downloadAndCopyJars(extraJars, extraJarsLocation);
+        Map<String, String> jarsToDownload = new HashMap<>();
+        for (String jar : extraJars) {
+            jarsToDownload.put(jar, extraJarsHandler.getExtraJarVersions().get(jar));
+        }
+        downloadAndCopyJars(jarsToDownload, extraJarsLocation);
         return extraJarsHandler.getMavenDeps();
     }
 
@@ -201,20 +224,11 @@ public class TopologyActionsService implements ContainingNamespaceAwareContainer
         return bundleJars;
     }
 
-    private void downloadAndCopyJars (Set<String> jarsToDownload, Path destinationPath) throws IOException {
-        Set<String> copiedJars = new HashSet<>();
-        for (String jar: jarsToDownload) {
-            if (!copiedJars.contains(jar)) {
-                File destPath = Paths.get(destinationPath.toString(), Paths.get(jar).getFileName().toString()).toFile();
-                try (InputStream src = fileStorage.downloadFile(jar);
-                     FileOutputStream dest = new FileOutputStream(destPath)
-                ) {
-                    IOUtils.copy(src, dest);
-                    copiedJars.add(jar);
-                    LOG.debug("Jar {} copied to {}", jar, destPath);
-                }
-            }
-        }
+    private void downloadAndCopyJars (Map<String, String> jarsToDownload, Path destinationPath) throws IOException {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        bundleJarCache.copyJars(jarsToDownload, destinationPath);
+        LOG.debug("[END] Copy jars {} to {} - elapsed: {} ms", jarsToDownload.keySet(), destinationPath,
+                stopwatch.elapsed(TimeUnit.MILLISECONDS));
     }
 
     public void setUpClusterArtifacts(Topology topology, TopologyActions topologyActions) throws IOException {
@@ -15,6 +15,8 @@
  **/
 package com.hortonworks.streamline.streams.actions.topology.service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,10 +40,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -63,6 +71,9 @@ public class TopologyTestRunner {
     private final String topologyTestRunResultDir;
 
     private static final int FORK_JOIN_POOL_PARALLELISM = 10;
+    private static final long MAX_INLINE_OUTPUT_BYTES = 1024 * 1024;
+    private static final int PREVIEW_OUTPUT_RECORDS_PER_SINK = 100;
+    private static final int MAX_REPORTED_MISMATCHES = 10;
     private final ForkJoinPool forkJoinPool = new ForkJoinPool(FORK_JOIN_POOL_PARALLELISM);
 
     public TopologyTestRunner(StreamCatalogService catalogService, TopologyActionsService topologyActionsService, String topologyTestRunResultDir) {
@@ -146,13 +157,7 @@ public class TopologyTestRunner {
 
             history.finishSuccessfully();
 
-            Map<String, List<Map<String, Object>>> actualOutputRecordsMap = parseTestRunOutputFiles(testRunSinkMap);
-            history.setActualOutputRecords(objectMapper.writeValueAsString(actualOutputRecordsMap));
-
-            if (expectedOutputRecordsMap != null) {
-                boolean matched = equalsOutputRecords(expectedOutputRecordsMap, actualOutputRecordsMap);
-                history.setMatched(matched);
-            }
+            processTestRunOutputFiles(history, testRunSinkMap, expectedOutputRecordsMap);
         } catch (Throwable e) {
             LOG.warn("Exception thrown while running Topology as test mode. Marking as 'failed'. topology id: {}",
                     topology.getId(), e);
@@ -230,56 +235,129 @@ public class TopologyTestRunner {
         return topologyTestRunResultDir + File.separator + uuid;
     }
 
-    private Map<String, List<Map<String, Object>>> parseTestRunOutputFiles(Map<String, TestRunSink> testRunSinkMap) {
-        return testRunSinkMap.entrySet().stream()
-                .collect(toMap(s -> s.getKey(), s -> {
-                    String filePath = s.getValue().getOutputFilePath();
-
-                    try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-                        return br.lines().map(line -> {
-                            try {
-                                return (Map<String, Object>) objectMapper.readValue(line,
-                                        new TypeReference<Map<String, Object>>() {
-                                        });
-                            } catch (IOException e) {
-                                throw new RuntimeException(e);
+    /**
+     * Streams through the output files of test run sinks once, matching actual records against expected records
+     * and building the actual output records of the history. When the output is larger than
+     * {@link #MAX_INLINE_OUTPUT_BYTES} the complete output is stored in file storage and the history
+     * only keeps a preview of each sink along with the name of the stored file. Up to
+     * {@link #MAX_REPORTED_MISMATCHES} mismatches of each sink are stored in the history.
+     */
+    private void processTestRunOutputFiles(TopologyTestRunHistory history,
+                                           Map<String, TestRunSink> testRunSinkMap,
+                                           Map<String, List<Map<String, Object>>> expectedOutputRecordsMap) throws IOException {
+        boolean matched = expectedOutputRecordsMap != null
+                && expectedOutputRecordsMap.keySet().equals(testRunSinkMap.keySet());
+        Map<String, List<String>> mismatches = new LinkedHashMap<>();
+
+        long outputBytes = 0;
+        for (TestRunSink testRunSink : testRunSinkMap.values()) {
+            outputBytes += new File(testRunSink.getOutputFilePath()).length();
+        }
+        boolean spill = outputBytes > MAX_INLINE_OUTPUT_BYTES;
+
+        File spillFile = spill ? File.createTempFile("test-run-output-", ".json", new File(topologyTestRunResultDir)) : null;
+        try {
+            StringWriter inlineOutput = new StringWriter();
+            try (JsonGenerator inline = objectMapper.getFactory().createGenerator(inlineOutput);
+                 JsonGenerator spilled = spill ? objectMapper.getFactory().createGenerator(spillFile, JsonEncoding.UTF8) : null) {
+                inline.writeStartObject();
+                if (spilled != null) {
+                    spilled.writeStartObject();
+                }
+
+                for (Map.Entry<String, TestRunSink> sinkEntry : testRunSinkMap.entrySet()) {
+                    String sinkName = sinkEntry.getKey();
+                    OutputRecordsMatcher matcher = matched ?
+                            new OutputRecordsMatcher(expectedOutputRecordsMap.get(sinkName), MAX_REPORTED_MISMATCHES) : null;
+
+                    inline.writeArrayFieldStart(sinkName);
+                    if (spilled != null) {
+                        spilled.writeArrayFieldStart(sinkName);
+                    }
+
+                    String filePath = sinkEntry.getValue().getOutputFilePath();
+                    try (BufferedReader br = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+                        long recordCount = 0;
+                        String line;
+                        while ((line = br.readLine()) != null) {
+                            if (line.isEmpty()) {
+                                continue;
                             }
-                        }).collect(toList());
-                    } catch (FileNotFoundException e) {
+
+                            if (spilled != null) {
+                                spilled.writeRawValue(line);
+                            }
+                            if (!spill || recordCount < PREVIEW_OUTPUT_RECORDS_PER_SINK) {
+                                inline.writeRawValue(line);
+                            }
+                            recordCount++;
+
+                            if (matcher != null && !matcher.offer(readOutputRecord(line))
+                                    && matcher.getMismatches().size() >= MAX_REPORTED_MISMATCHES) {
+                                reportMismatches(history, sinkName, matcher, mismatches);
+                                matcher = null;
+                                matched = false;
+                            }
+                        }
+                    } catch (NoSuchFileException e) {
                         throw new RuntimeException("Output file not found - file path: " + filePath, e);
                     } catch (IOException e) {
                         throw new RuntimeException("Fail to read output file - file path: " + filePath, e);
                     }
-                }));
-    }
 
-    private boolean equalsOutputRecords(Map<String, List<Map<String, Object>>> expectedOutputRecordsMap,
-                                        Map<String, List<Map<String, Object>>> actualOutputRecordsMap) {
-        if (expectedOutputRecordsMap.size() != actualOutputRecordsMap.size()) {
-            return false;
-        }
+                    if (matcher != null && !matcher.finish()) {
+                        reportMismatches(history, sinkName, matcher, mismatches);
+                        matched = false;
+                    }
 
-        for (Map.Entry<String, List<Map<String, Object>>> expectedEntry : expectedOutputRecordsMap.entrySet()) {
-            String sinkName = expectedEntry.getKey();
+                    inline.writeEndArray();
+                    if (spilled != null) {
+                        spilled.writeEndArray();
+                    }
+                }
 
-            if (!actualOutputRecordsMap.containsKey(sinkName)) {
-                return false;
+                inline.writeEndObject();
+                if (spilled != null) {
+                    spilled.writeEndObject();
+                }
             }
 
-            List<Map<String, Object>> expectedRecords = expectedEntry.getValue();
-            List<Map<String, Object>> actualRecords = actualOutputRecordsMap.get(sinkName);
-
-            // both should be not null
-            if (expectedRecords == null || actualRecords == null) {
-                return false;
-            } else if (expectedRecords.size() != actualRecords.size()) {
-                return false;
-            } else if (!expectedRecords.containsAll(actualRecords)) {
-                return false;
+            history.setActualOutputRecords(inlineOutput.toString());
+            if (spill) {
+                String fileName = "topology-test-run-output-" + history.getId() + ".json";
+                try (InputStream is = new FileInputStream(spillFile)) {
+                    history.setActualOutputRecordsFile(catalogService.uploadFileToStorage(is, fileName));
+                }
+                LOG.info("Stored {} bytes of test run output to file storage - history id: {}, file: {}",
+                        spillFile.length(), history.getId(), history.getActualOutputRecordsFile());
+            }
+        } finally {
+            if (spillFile != null && !spillFile.delete()) {
+                LOG.warn("Fail to delete temporary file {}", spillFile);
             }
         }
 
-        return true;
+        if (expectedOutputRecordsMap != null) {
+            history.setMatched(matched);
+        }
+        if (!mismatches.isEmpty()) {
+            history.setMismatches(objectMapper.writeValueAsString(mismatches));
+        }
+    }
+
+    private Map<String, Object> readOutputRecord(String line) {
+        try {
+            return objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void reportMismatches(TopologyTestRunHistory history, String sinkName, OutputRecordsMatcher matcher,
+                                  Map<String, List<String>> mismatches) {
+        LOG.info("Actual output records of sink {} don't match expected records - history id: {}, mismatches: {}",
+                sinkName, history.getId(), matcher.getMismatches());
+        mismatches.put(sinkName, matcher.getMismatches());
     }
 
 }
@@ -22,6 +22,9 @@ import com.hortonworks.streamline.streams.catalog.Topology;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 public class TopologyContext implements TopologyActionContext {
@@ -31,6 +34,7 @@ public class TopologyContext implements TopologyActionContext {
     private final TopologyActionsService topologyActionsService;
     private String mavenArtifacts;
     private TopologyState state;
+    private final Map<String, Long> phaseTimes = new LinkedHashMap<>();
 
 
     public TopologyContext(Topology topology, TopologyActionsService actionsService) {
@@ -104,4 +108,17 @@ public class TopologyContext implements TopologyActionContext {
         LOG.debug("Topology id: {}, state: {}", topology.getId(), catalogState);
         topologyActionsService.getCatalogService().addOrUpdateTopologyState(topology.getId(), catalogState);
     }
+
+    @Override
+    public void recordPhaseTime(String phase, long elapsedMillis) {
+        LOG.debug("Topology id: {}, phase: {} - elapsed: {} ms", topology.getId(), phase, elapsedMillis);
+        phaseTimes.put(phase, elapsedMillis);
+    }
+
+    /**
+     * The time spent in milliseconds in each phase recorded so far, in the order they were recorded.
+     */
+    public Map<String, Long> getPhaseTimes() {
+        return Collections.unmodifiableMap(phaseTimes);
+    }
 }
@@ -0,0 +1,166 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.topology.service;
+
+import com.hortonworks.streamline.common.util.FileStorage;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class BundleJarCacheTest {
+    private Path tempDir;
+    private ExecutorService executorService;
+    private InMemoryFileStorage fileStorage;
+    private BundleJarCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("bundle-jar-cache-test");
+        executorService = Executors.newFixedThreadPool(4);
+        fileStorage = new InMemoryFileStorage();
+        fileStorage.put("processor-1234.jar", "processor");
+        fileStorage.put("udf-5678.jar", "udf");
+        cache = new BundleJarCache(fileStorage, tempDir.resolve("cache"), executorService);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Test
+    public void testDownloadsOnceAndReuses() throws Exception {
+        Path first = Files.createDirectories(tempDir.resolve("first"));
+        Path second = Files.createDirectories(tempDir.resolve("second"));
+
+        cache.copyJars(Arrays.asList("processor-1234.jar", "udf-5678.jar"), first);
+        cache.copyJars(Arrays.asList("processor-1234.jar", "udf-5678.jar"), second);
+
+        assertEquals(2, fileStorage.downloads.get());
+        assertEquals("processor", content(second.resolve("processor-1234.jar")));
+        assertEquals("udf", content(second.resolve("udf-5678.jar")));
+    }
+
+    @Test
+    public void testCorruptedJarIsDownloadedAgainWithoutAffectingJarsInUse() throws Exception {
+        Path inUse = Files.createDirectories(tempDir.resolve("in-use"));
+        cache.copyJars(Collections.singletonList("processor-1234.jar"), inUse);
+
+        Files.write(tempDir.resolve("cache").resolve("processor-1234.jar"), "corrupted".getBytes(StandardCharsets.UTF_8));
+        Path redeploy = Files.createDirectories(tempDir.resolve("redeploy"));
+        cache.copyJars(Collections.singletonList("processor-1234.jar"), redeploy);
+
+        assertEquals(2, fileStorage.downloads.get());
+        assertEquals("processor", content(redeploy.resolve("processor-1234.jar")));
+    }
+
+    @Test
+    public void testJarUploadedAgainUnderSameNameIsDownloadedForNewVersion() throws Exception {
+        Path before = Files.createDirectories(tempDir.resolve("before"));
+        cache.copyJars(Collections.singletonMap("processor-1234.jar", "1"), before);
+
+        fileStorage.put("processor-1234.jar", "updated processor");
+        Path after = Files.createDirectories(tempDir.resolve("after"));
+        cache.copyJars(Collections.singletonMap("processor-1234.jar", "2"), after);
+        Path again = Files.createDirectories(tempDir.resolve("again"));
+        cache.copyJars(Collections.singletonMap("processor-1234.jar", "2"), again);
+
+        assertEquals(2, fileStorage.downloads.get());
+        assertEquals("processor", content(before.resolve("processor-1234.jar")));
+        assertEquals("updated processor", content(after.resolve("processor-1234.jar")));
+        assertEquals("updated processor", content(again.resolve("processor-1234.jar")));
+    }
+
+    @Test
+    public void testConcurrentDeploysOfSameJars() throws Exception {
+        Path[] destinations = new Path[8];
+        ExecutorService deploys = Executors.newFixedThreadPool(destinations.length);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < destinations.length; i++) {
+                Path destination = Files.createDirectories(tempDir.resolve("deploy-" + i));
+                destinations[i] = destination;
+                futures.add(deploys.submit(() -> {
+                    cache.copyJars(Arrays.asList("processor-1234.jar", "udf-5678.jar"), destination);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            deploys.shutdownNow();
+        }
+        for (Path destination : destinations) {
+            assertEquals("processor", content(destination.resolve("processor-1234.jar")));
+            assertEquals("udf", content(destination.resolve("udf-5678.jar")));
+        }
+    }
+
+    private String content(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    private static class InMemoryFileStorage implements FileStorage {
+        private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+        private final AtomicInteger downloads = new AtomicInteger();
+
+        void put(String name, String content) {
+            files.put(name, content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void init(Map<String, String> config) {
+        }
+
+        @Override
+        public String uploadFile(InputStream inputStream, String name) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream downloadFile(String name) throws IOException {
+            downloads.incrementAndGet();
+            return new ByteArrayInputStream(files.get(name));
+        }
+
+        @Override
+        public boolean deleteFile(String name) throws IOException {
+            return files.remove(name) != null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.topology.service;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OutputRecordsMatcherTest {
+
+    private static final Map<String, Object> RECORD_1 = ImmutableMap.of("A", 1, "B", 2);
+    private static final Map<String, Object> RECORD_2 = ImmutableMap.of("A", 3, "B", 4);
+    private static final Map<String, Object> RECORD_3 = ImmutableMap.of("A", 5, "B", 6);
+
+    @Test
+    public void testMatchRegardlessOfOrder() throws Exception {
+        OutputRecordsMatcher matcher = new OutputRecordsMatcher(Lists.newArrayList(RECORD_1, RECORD_2, RECORD_1), 10);
+        assertTrue(matcher.offer(RECORD_1));
+        assertTrue(matcher.offer(RECORD_2));
+        assertTrue(matcher.offer(RECORD_1));
+        assertTrue(matcher.finish());
+        assertTrue(matcher.getMismatches().isEmpty());
+    }
+
+    @Test
+    public void testUnexpectedRecordIsReportedImmediately() throws Exception {
+        OutputRecordsMatcher matcher = new OutputRecordsMatcher(Lists.newArrayList(RECORD_1, RECORD_2), 10);
+        assertTrue(matcher.offer(RECORD_1));
+        assertFalse(matcher.offer(RECORD_3));
+        assertEquals(1, matcher.getMismatches().size());
+    }
+
+    @Test
+    public void testMissingAndDuplicatedRecords() throws Exception {
+        OutputRecordsMatcher matcher = new OutputRecordsMatcher(Lists.newArrayList(RECORD_1, RECORD_2), 10);
+        assertTrue(matcher.offer(RECORD_1));
+        assertFalse(matcher.offer(RECORD_1));
+        assertFalse(matcher.finish());
+        assertEquals(2, matcher.getMismatches().size());
+    }
+
+    @Test
+    public void testReportedMismatchesAreBounded() throws Exception {
+        OutputRecordsMatcher matcher = new OutputRecordsMatcher(Collections.<Map<String, Object>>emptyList(), 2);
+        List<Map<String, Object>> actualRecords = Lists.newArrayList(RECORD_1, RECORD_2, RECORD_3);
+        actualRecords.forEach(matcher::offer);
+        assertFalse(matcher.finish());
+        assertEquals(2, matcher.getMismatches().size());
+    }
+}
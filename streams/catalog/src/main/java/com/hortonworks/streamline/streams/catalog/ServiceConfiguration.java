@@ -41,6 +41,8 @@ public class ServiceConfiguration extends AbstractStorable {
   private String configuration;
   private String description = "";
   private String filename = "";
+  private Long version;
+  private String tag;
   private Long timestamp;
 
   /**
@@ -121,6 +123,29 @@ public class ServiceConfiguration extends AbstractStorable {
     this.filename = filename;
   }
 
+  /**
+   * Version of the configuration in the cluster it is imported from. (optional)
+   */
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  /**
+   * Tag of the configuration in the cluster it is imported from, used to find the configurations changed since
+   * imported. (optional)
+   */
+  public String getTag() {
+    return tag;
+  }
+
+  public void setTag(String tag) {
+    this.tag = tag;
+  }
+
   public Long getTimestamp() {
     return timestamp;
   }
@@ -165,6 +190,10 @@ public class ServiceConfiguration extends AbstractStorable {
     if (getFilename() != null ?
         !getFilename().equals(that.getFilename()) :
         that.getFilename() != null) return false;
+    if (getVersion() != null ? !getVersion().equals(that.getVersion()) : that.getVersion() != null)
+      return false;
+    if (getTag() != null ? !getTag().equals(that.getTag()) : that.getTag() != null)
+      return false;
     return getTimestamp() != null ?
         getTimestamp().equals(that.getTimestamp()) :
         that.getTimestamp() == null;
@@ -179,6 +208,8 @@ public class ServiceConfiguration extends AbstractStorable {
     result = 31 * result + (getConfiguration() != null ? getConfiguration().hashCode() : 0);
     result = 31 * result + (getDescription() != null ? getDescription().hashCode() : 0);
     result = 31 * result + (getFilename() != null ? getFilename().hashCode() : 0);
+    result = 31 * result + (getVersion() != null ? getVersion().hashCode() : 0);
+    result = 31 * result + (getTag() != null ? getTag().hashCode() : 0);
     result = 31 * result + (getTimestamp() != null ? getTimestamp().hashCode() : 0);
     return result;
   }
@@ -192,6 +223,8 @@ public class ServiceConfiguration extends AbstractStorable {
         ", configuration='" + configuration + '\'' +
         ", description='" + description + '\'' +
         ", filename='" + filename + '\'' +
+        ", version=" + version +
+        ", tag='" + tag + '\'' +
         ", timestamp=" + timestamp +
         '}';
   }
@@ -26,7 +26,9 @@ public class TopologyTestRunHistory extends AbstractStorable {
     private static final String SUCCESS = "success";
     private static final String EXPECTED_OUTPUT_RECORDS = "expectedOutputRecords";
     private static final String ACTUAL_OUTPUT_RECORDS = "actualOutputRecords";
+    private static final String ACTUAL_OUTPUT_RECORDS_FILE = "actualOutputRecordsFile";
     private static final String MATCHED = "matched";
+    private static final String MISMATCHES = "mismatches";
     private static final String START_TIME = "startTime";
     private static final String FINISH_TIME = "finishTime";
     private static final String TIMESTAMP = "timestamp";
@@ -39,7 +41,9 @@ public class TopologyTestRunHistory extends AbstractStorable {
     private Boolean success = false;
     private String expectedOutputRecords;
     private String actualOutputRecords;
+    private String actualOutputRecordsFile;
     private Boolean matched = false;
+    private String mismatches;
     private Long startTime;
     private Long finishTime;
     private Long timestamp;
@@ -148,6 +152,18 @@ public class TopologyTestRunHistory extends AbstractStorable {
         this.actualOutputRecords = actualOutputRecords;
     }
 
+    /**
+     * The name of the file in file storage which contains the complete actual output records, when they are
+     * too large to be stored in this entity. In that case actual output records only contain a preview.
+     */
+    public String getActualOutputRecordsFile() {
+        return actualOutputRecordsFile;
+    }
+
+    public void setActualOutputRecordsFile(String actualOutputRecordsFile) {
+        this.actualOutputRecordsFile = actualOutputRecordsFile;
+    }
+
     /**
      * The flag indicating whether expected and actual are matched or not.
      */
@@ -159,6 +175,18 @@ public class TopologyTestRunHistory extends AbstractStorable {
         this.matched = matched;
     }
 
+    /**
+     * The JSON representation of the mismatches between expected and actual output records
+     * (sink -> mismatches), when they don't match.
+     */
+    public String getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(String mismatches) {
+        this.mismatches = mismatches;
+    }
+
     /**
      * The timestamp of start time of test run.
      */
@@ -222,7 +250,9 @@ public class TopologyTestRunHistory extends AbstractStorable {
                 Schema.Field.optional(SUCCESS, Schema.Type.STRING),
                 Schema.Field.optional(EXPECTED_OUTPUT_RECORDS, Schema.Type.STRING),
                 Schema.Field.optional(ACTUAL_OUTPUT_RECORDS, Schema.Type.STRING),
+                Schema.Field.optional(ACTUAL_OUTPUT_RECORDS_FILE, Schema.Type.STRING),
                 Schema.Field.optional(MATCHED, Schema.Type.STRING),
+                Schema.Field.optional(MISMATCHES, Schema.Type.STRING),
                 new Schema.Field(START_TIME, Schema.Type.LONG),
                 Schema.Field.optional(FINISH_TIME, Schema.Type.LONG),
                 new Schema.Field(TIMESTAMP, Schema.Type.LONG)
@@ -256,12 +286,14 @@ public class TopologyTestRunHistory extends AbstractStorable {
 
         map.put(EXPECTED_OUTPUT_RECORDS, expectedOutputRecords);
         map.put(ACTUAL_OUTPUT_RECORDS, actualOutputRecords);
+        map.put(ACTUAL_OUTPUT_RECORDS_FILE, actualOutputRecordsFile);
 
         if (matched != null) {
             map.put(MATCHED, matched.toString());
         } else {
             map.put(MATCHED, null);
         }
+        map.put(MISMATCHES, mismatches);
 
         map.put(START_TIME, startTime);
         map.put(FINISH_TIME, finishTime);
@@ -290,12 +322,14 @@ public class TopologyTestRunHistory extends AbstractStorable {
 
         expectedOutputRecords = (String) map.get(EXPECTED_OUTPUT_RECORDS);
         actualOutputRecords = (String) map.get(ACTUAL_OUTPUT_RECORDS);
+        actualOutputRecordsFile = (String) map.get(ACTUAL_OUTPUT_RECORDS_FILE);
 
         if (map.get(MATCHED) != null) {
             matched = Boolean.valueOf((String) map.get(MATCHED));
         } else {
             matched = null;
         }
+        mismatches = (String) map.get(MISMATCHES);
 
         startTime = (Long) map.get(START_TIME);
         finishTime = (Long) map.get(FINISH_TIME);
@@ -325,7 +359,11 @@ public class TopologyTestRunHistory extends AbstractStorable {
             return false;
         if (getActualOutputRecords() != null ? !getActualOutputRecords().equals(that.getActualOutputRecords()) : that.getActualOutputRecords() != null)
             return false;
+        if (getActualOutputRecordsFile() != null ? !getActualOutputRecordsFile().equals(that.getActualOutputRecordsFile()) : that.getActualOutputRecordsFile() != null)
+            return false;
         if (getMatched() != null ? !getMatched().equals(that.getMatched()) : that.getMatched() != null) return false;
+        if (getMismatches() != null ? !getMismatches().equals(that.getMismatches()) : that.getMismatches() != null)
+            return false;
         if (getStartTime() != null ? !getStartTime().equals(that.getStartTime()) : that.getStartTime() != null)
             return false;
         if (getFinishTime() != null ? !getFinishTime().equals(that.getFinishTime()) : that.getFinishTime() != null)
@@ -343,7 +381,9 @@ public class TopologyTestRunHistory extends AbstractStorable {
         result = 31 * result + (getSuccess() != null ? getSuccess().hashCode() : 0);
         result = 31 * result + (getExpectedOutputRecords() != null ? getExpectedOutputRecords().hashCode() : 0);
         result = 31 * result + (getActualOutputRecords() != null ? getActualOutputRecords().hashCode() : 0);
+        result = 31 * result + (getActualOutputRecordsFile() != null ? getActualOutputRecordsFile().hashCode() : 0);
         result = 31 * result + (getMatched() != null ? getMatched().hashCode() : 0);
+        result = 31 * result + (getMismatches() != null ? getMismatches().hashCode() : 0);
         result = 31 * result + (getStartTime() != null ? getStartTime().hashCode() : 0);
         result = 31 * result + (getFinishTime() != null ? getFinishTime().hashCode() : 0);
         result = 31 * result + (getTimestamp() != null ? getTimestamp().hashCode() : 0);
@@ -361,7 +401,9 @@ public class TopologyTestRunHistory extends AbstractStorable {
                 ", success=" + success +
                 ", expectedOutputRecords='" + expectedOutputRecords + '\'' +
                 ", actualOutputRecords='" + actualOutputRecords + '\'' +
+                ", actualOutputRecordsFile='" + actualOutputRecordsFile + '\'' +
                 ", matched=" + matched +
+                ", mismatches='" + mismatches + '\'' +
                 ", startTime=" + startTime +
                 ", finishTime=" + finishTime +
                 ", timestamp=" + timestamp +
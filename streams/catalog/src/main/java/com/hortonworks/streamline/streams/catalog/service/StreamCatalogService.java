@@ -72,7 +72,9 @@ import com.hortonworks.streamline.streams.catalog.rule.RuleParser;
 import com.hortonworks.streamline.streams.catalog.topology.TopologyComponentBundle;
 import com.hortonworks.streamline.streams.catalog.topology.TopologyComponentUISpecification;
 import com.hortonworks.streamline.streams.catalog.topology.TopologyData;
+import com.hortonworks.streamline.streams.catalog.topology.component.TopologyComponentLookup;
 import com.hortonworks.streamline.streams.catalog.topology.component.TopologyDagBuilder;
+import com.hortonworks.streamline.streams.catalog.topology.component.TopologyEntities;
 import com.hortonworks.streamline.streams.catalog.topology.component.TopologyExportVisitor;
 import com.hortonworks.streamline.streams.catalog.topology.state.TopologyState;
 import com.hortonworks.streamline.streams.layout.TopologyLayoutConstants;
@@ -125,7 +127,7 @@ import static com.hortonworks.streamline.streams.catalog.TopologyEditorMetadata.
 /**
  * A service layer where we could put our business logic.
  */
-public class StreamCatalogService {
+public class StreamCatalogService implements TopologyComponentLookup {
 
     private static final Logger LOG = LoggerFactory.getLogger(StreamCatalogService.class);
 
@@ -280,12 +282,14 @@ public class StreamCatalogService {
         }
         topologyVersion.setTimestamp(timestamp);
         dao.addOrUpdate(topologyVersion);
+        topologyDagBuilder.invalidate(versionId);
         return topologyVersion;
     }
 
     public TopologyVersion removeTopologyVersionInfo(Long versionId) {
         TopologyVersion topologyVersion = new TopologyVersion();
         topologyVersion.setId(versionId);
+        topologyDagBuilder.invalidate(versionId);
         return dao.remove(new StorableKey(TOPOLOGY_VERSIONINFO_NAMESPACE, topologyVersion.getPrimaryKey()));
     }
 
@@ -454,6 +458,11 @@ public class StreamCatalogService {
 
         // remove topology editor metadata
         removeTopologyEditorMetadata(topologyId, versionId);
+
+        // remove test run histories
+        for (TopologyTestRunHistory history : listTopologyTestRunHistory(topologyId, versionId)) {
+            removeTopologyTestRunHistory(history.getId());
+        }
     }
 
     /**
@@ -556,6 +565,67 @@ public class StreamCatalogService {
         return topologyComponent;
     }
 
+    /**
+     * Loads all the entities of a topology version with a single find per namespace, so that
+     * the topology dag can be assembled without a catalog lookup per component and edge.
+     */
+    public TopologyEntities loadTopologyEntities(Long topologyId, Long versionId) {
+        Long versionTimestamp = getVersionTimestamp(versionId);
+        List<QueryParam> queryParams = WSUtils.buildTopologyIdAndVersionIdAwareQueryParams(topologyId, versionId, null);
+        List<QueryParam> versionQueryParams = Collections.singletonList(
+                new QueryParam(TopologySourceStreamMapping.FIELD_VERSION_ID, versionId.toString()));
+
+        Collection<TopologyStream> streams = dao.find(STREAMINFO_NAMESPACE, queryParams);
+        Map<Long, TopologyStream> streamsById = new HashMap<>();
+        for (TopologyStream stream : streams) {
+            stream.setVersionTimestamp(versionTimestamp);
+            streamsById.put(stream.getId(), stream);
+        }
+
+        Collection<TopologySource> sources = dao.find(TOPOLOGY_SOURCE_NAMESPACE, queryParams);
+        Map<Long, List<Long>> sourceStreamIds = new HashMap<>();
+        for (TopologySourceStreamMapping mapping : dao.<TopologySourceStreamMapping>find(
+                TOPOLOGY_SOURCE_STREAM_MAPPING_NAMESPACE, versionQueryParams)) {
+            sourceStreamIds.computeIfAbsent(mapping.getSourceId(), k -> new ArrayList<>()).add(mapping.getStreamId());
+        }
+        for (TopologySource source : sources) {
+            fillOutputStreams(source, sourceStreamIds.get(source.getId()), streamsById);
+        }
+
+        Collection<TopologyProcessor> processors = dao.find(TOPOLOGY_PROCESSOR_NAMESPACE, queryParams);
+        Map<Long, List<Long>> processorStreamIds = new HashMap<>();
+        for (TopologyProcessorStreamMapping mapping : dao.<TopologyProcessorStreamMapping>find(
+                TOPOLOGY_PROCESSOR_STREAM_MAPPING_NAMESPACE, versionQueryParams)) {
+            processorStreamIds.computeIfAbsent(mapping.getProcessorId(), k -> new ArrayList<>()).add(mapping.getStreamId());
+        }
+        for (TopologyProcessor processor : processors) {
+            fillOutputStreams(processor, processorStreamIds.get(processor.getId()), streamsById);
+        }
+
+        Collection<TopologySink> sinks = dao.find(TOPOLOGY_SINK_NAMESPACE, queryParams);
+        Collection<TopologyEdge> edges = dao.find(TOPOLOGY_EDGE_NAMESPACE, queryParams);
+        Collection<TopologyRule> rules = dao.find(TOPOLOGY_RULEINFO_NAMESPACE, queryParams);
+        Collection<TopologyBranchRule> branchRules = dao.find(TOPOLOGY_BRANCHRULEINFO_NAMESPACE, queryParams);
+        Collection<TopologyWindow> windows = dao.find(TOPOLOGY_WINDOWINFO_NAMESPACE, queryParams);
+
+        return new TopologyEntities(topologyId, versionId, versionTimestamp, sources, processors, sinks, edges,
+                streams, rules, branchRules, windows);
+    }
+
+    private void fillOutputStreams(TopologyOutputComponent component, List<Long> streamIds, Map<Long, TopologyStream> streamsById) {
+        List<TopologyStream> outputStreams = new ArrayList<>();
+        if (streamIds != null) {
+            for (Long streamId : streamIds) {
+                TopologyStream topologyStream = streamsById.get(streamId);
+                if (topologyStream != null) {
+                    outputStreams.add(topologyStream);
+                }
+            }
+        }
+        component.setOutputStreams(outputStreams);
+        component.setOutputStreamIds(outputStreams.stream().map(TopologyStream::getId).collect(Collectors.toList()));
+    }
+
     public String exportTopology(Topology topology) throws Exception {
         Preconditions.checkNotNull(topology);
         TopologyData topologyData = doExportTopology(topology);
@@ -2444,6 +2514,25 @@ public class StreamCatalogService {
         return history;
     }
 
+    /**
+     * Removes the test run history along with its actual output records file in file storage, if any.
+     */
+    public TopologyTestRunHistory removeTopologyTestRunHistory(Long id) {
+        TopologyTestRunHistory history = getTopologyTestRunHistory(id);
+        if (history != null) {
+            history = dao.remove(history.getStorableKey());
+            if (history.getActualOutputRecordsFile() != null) {
+                try {
+                    deleteFileFromStorage(history.getActualOutputRecordsFile());
+                } catch (IOException e) {
+                    LOG.warn("Fail to delete actual output records file {} of test run history {}",
+                            history.getActualOutputRecordsFile(), id, e);
+                }
+            }
+        }
+        return history;
+    }
+
     public Collection<TopologyTestRunCase> listTopologyTestRunCase(Long topologyId) {
         List<QueryParam> queryParams = new ArrayList<>();
         queryParams.add(new QueryParam("topologyId", String.valueOf(topologyId)));
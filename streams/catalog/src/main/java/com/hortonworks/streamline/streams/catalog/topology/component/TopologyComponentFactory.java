@@ -32,7 +32,6 @@ import com.hortonworks.streamline.streams.catalog.TopologyProcessor;
 import com.hortonworks.streamline.streams.catalog.TopologySink;
 import com.hortonworks.streamline.streams.catalog.TopologySource;
 import com.hortonworks.streamline.streams.catalog.TopologyWindow;
-import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
 import com.hortonworks.streamline.streams.layout.component.Edge;
 import com.hortonworks.streamline.streams.layout.component.InputComponent;
 import com.hortonworks.streamline.streams.layout.component.StreamlineComponent;
@@ -63,7 +62,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -91,10 +93,10 @@ public class TopologyComponentFactory {
     private static final Logger LOG = LoggerFactory.getLogger(TopologyComponentFactory.class);
 
     private final Map<Class<?>, Map<String, ?>> providerMap;
-    private final StreamCatalogService catalogService;
+    private final TopologyComponentLookup catalogService;
     private final MLModelRegistryClient modelRegistryClient;
 
-    public TopologyComponentFactory(StreamCatalogService catalogService, MLModelRegistryClient modelRegistryClient) {
+    public TopologyComponentFactory(TopologyComponentLookup catalogService, MLModelRegistryClient modelRegistryClient) {
         this.catalogService = catalogService;
         this.modelRegistryClient = modelRegistryClient;
         ImmutableMap.Builder<Class<?>, Map<String, ?>> builder = ImmutableMap.builder();
@@ -123,10 +125,17 @@ public class TopologyComponentFactory {
     }
 
     public Edge getStreamlineEdge(TopologyEdge topologyEdge) {
+        return getStreamlineEdge(topologyEdge, getOutputComponent(topologyEdge), getInputComponent(topologyEdge));
+    }
+
+    /**
+     * Constructs the edge between the already constructed from and to components of the topology edge.
+     */
+    public Edge getStreamlineEdge(TopologyEdge topologyEdge, OutputComponent from, InputComponent to) {
         Edge edge = new Edge();
         edge.setId(topologyEdge.getId().toString());
-        edge.setFrom(getOutputComponent(topologyEdge));
-        edge.setTo(getInputComponent(topologyEdge));
+        edge.setFrom(from);
+        edge.setTo(to);
         Set<StreamGrouping> streamGroupings = new HashSet<>();
         for (TopologyEdge.StreamGrouping streamGrouping : topologyEdge.getStreamGroupings()) {
             Stream stream = getStream(catalogService.getStreamInfo(topologyEdge.getTopologyId(),
@@ -155,12 +164,50 @@ public class TopologyComponentFactory {
                 .create(topologyComponent);
         component.setId(topologyComponent.getId().toString());
         component.setName(topologyComponent.getName());
-        component.setConfig(topologyComponent.getConfig());
+        // copy the config so that changes to the component config do not leak back into the catalog entity
+        if (topologyComponent.getConfig() != null) {
+            component.setConfig(copyOf(topologyComponent.getConfig()));
+        }
         component.setTopologyComponentBundleId(topologyComponentBundle.getId().toString());
         component.setTransformationClass(topologyComponentBundle.getTransformationClass());
         return clazz.cast(component);
     }
 
+    /**
+     * Copies the config along with the maps and collections nested in it, since the catalog entity may be part of a
+     * cached {@link TopologyEntities} snapshot shared by the dags built from it.
+     */
+    private static Config copyOf(Config config) {
+        Config copy = new Config();
+        for (Map.Entry<String, Object> entry : config.getProperties().entrySet()) {
+            copy.put(entry.getKey(), copyOf(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static Object copyOf(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), copyOf(entry.getValue()));
+            }
+            return copy;
+        } else if (value instanceof Set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            for (Object element : (Set<?>) value) {
+                copy.add(copyOf(element));
+            }
+            return copy;
+        } else if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                copy.add(copyOf(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
     private OutputComponent getOutputComponent(TopologyEdge topologyEdge) {
         TopologySource topologySource;
         TopologyProcessor topologyProcessor;
@@ -375,7 +422,7 @@ public class TopologyComponentFactory {
                 String modelName = component.getConfig().getString(ModelProcessor.CONFIG_MODEL_NAME, StringUtils.EMPTY);
                 ModelProcessor modelProcessor = new ModelProcessor();
                 if (!modelName.equals(StringUtils.EMPTY)) {
-                    modelProcessor.setPmml(modelRegistryClient.getMLModelContents(modelName));
+                    modelProcessor.setModelArtifact(modelRegistryClient.getMLModelArtifact(modelName));
                 }
                 return modelProcessor;
             }
@@ -0,0 +1,50 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.catalog.topology.component;
+
+import com.hortonworks.streamline.streams.catalog.TopologyBranchRule;
+import com.hortonworks.streamline.streams.catalog.TopologyProcessor;
+import com.hortonworks.streamline.streams.catalog.TopologyRule;
+import com.hortonworks.streamline.streams.catalog.TopologySink;
+import com.hortonworks.streamline.streams.catalog.TopologySource;
+import com.hortonworks.streamline.streams.catalog.TopologyStream;
+import com.hortonworks.streamline.streams.catalog.TopologyWindow;
+import com.hortonworks.streamline.streams.catalog.topology.TopologyComponentBundle;
+
+/**
+ * The catalog lookups needed by the {@link TopologyComponentFactory} to construct the topology components.
+ * Each lookup returns null if the entity does not exist in the given topology version.
+ */
+public interface TopologyComponentLookup {
+
+    TopologySource getTopologySource(Long topologyId, Long sourceId, Long versionId);
+
+    TopologyProcessor getTopologyProcessor(Long topologyId, Long processorId, Long versionId);
+
+    TopologySink getTopologySink(Long topologyId, Long sinkId, Long versionId);
+
+    TopologyStream getStreamInfo(Long topologyId, Long streamId, Long versionId);
+
+    TopologyStream getStreamInfoByName(Long topologyId, String streamId, Long versionId);
+
+    TopologyRule getRule(Long topologyId, Long ruleId, Long versionId) throws Exception;
+
+    TopologyBranchRule getBranchRule(Long topologyId, Long ruleId, Long versionId) throws Exception;
+
+    TopologyWindow getWindow(Long topologyId, Long windowId, Long versionId) throws Exception;
+
+    TopologyComponentBundle getTopologyComponentBundle(Long topologyComponentBundleId);
+}
@@ -16,70 +16,134 @@
 package com.hortonworks.streamline.streams.catalog.topology.component;
 
 
-import com.hortonworks.streamline.common.QueryParam;
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.hortonworks.streamline.registries.model.client.MLModelRegistryClient;
 import com.hortonworks.streamline.streams.catalog.Topology;
-import com.hortonworks.streamline.streams.catalog.TopologyComponent;
 import com.hortonworks.streamline.streams.catalog.TopologyEdge;
 import com.hortonworks.streamline.streams.catalog.TopologyProcessor;
 import com.hortonworks.streamline.streams.catalog.TopologySink;
 import com.hortonworks.streamline.streams.catalog.TopologySource;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
+import com.hortonworks.streamline.streams.catalog.topology.TopologyComponentBundle;
+import com.hortonworks.streamline.streams.layout.component.Component;
+import com.hortonworks.streamline.streams.layout.component.InputComponent;
+import com.hortonworks.streamline.streams.layout.component.OutputComponent;
+import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSink;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSource;
 import com.hortonworks.streamline.streams.layout.component.TopologyDag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Constructs the {@link TopologyDag} of a topology version.
+ * <p>
+ * All the catalog entities of the version are loaded in bulk (see {@link StreamCatalogService#loadTopologyEntities})
+ * and the dag is assembled in memory. The loaded entities are cached per topology version and reloaded once the
+ * version timestamp, which is updated on every edit, changes. Component bundles are not versioned with the
+ * topology, so they are fetched again for every dag. A new dag is assembled for every call since the
+ * callers attach it to the topology and may modify its components.
+ * </p>
+ */
 public class TopologyDagBuilder {
+    private static final Logger LOG = LoggerFactory.getLogger(TopologyDagBuilder.class);
+    private static final int MAX_CACHED_VERSIONS = 100;
+
     private final StreamCatalogService catalogService;
-    private final TopologyComponentFactory factory;
+    private final MLModelRegistryClient modelRegistryClient;
+    private final Cache<Long, TopologyEntities> entitiesCache;
 
     public TopologyDagBuilder(StreamCatalogService catalogService, MLModelRegistryClient modelRegistryClient) {
         this.catalogService = catalogService;
-        factory = new TopologyComponentFactory(catalogService, modelRegistryClient);
+        this.modelRegistryClient = modelRegistryClient;
+        this.entitiesCache = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_VERSIONS).build();
     }
 
     public TopologyDag getDag(Topology topology) {
         try {
-            TopologyDag dag = new TopologyDag();
-            addSources(dag, topology);
-            addProcessors(dag, topology);
-            addSinks(dag, topology);
-            addEdges(dag, topology);
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            TopologyEntities entities = withComponentBundles(getTopologyEntities(topology));
+            long loadMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+            TopologyDag dag = buildDag(entities);
+            LOG.info("Constructed dag for topology {} version {} - load: {} ms, assemble: {} ms, total: {} ms",
+                    topology.getId(), topology.getVersionId(), loadMs,
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS) - loadMs, stopwatch.elapsed(TimeUnit.MILLISECONDS));
             return dag;
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
-    private void addSources(TopologyDag dag, Topology topology) throws Exception {
-        for (TopologySource topologySource : catalogService.listTopologySources(queryParam(topology))) {
-            dag.add(factory.getStreamlineSource(topologySource));
-        }
+    /**
+     * Drops the cached entities of the given topology version.
+     */
+    public void invalidate(Long versionId) {
+        entitiesCache.invalidate(versionId);
     }
 
-    private void addProcessors(TopologyDag dag, Topology topology) throws Exception {
-        for (TopologyProcessor topologyProcessor : catalogService.listTopologyProcessors(queryParam(topology))) {
-            dag.add(factory.getStreamlineProcessor(topologyProcessor));
+    private TopologyEntities getTopologyEntities(Topology topology) {
+        Long versionId = topology.getVersionId();
+        Long versionTimestamp = catalogService.getVersionTimestamp(versionId);
+        TopologyEntities entities = entitiesCache.getIfPresent(versionId);
+        if (entities == null || !entities.getTopologyId().equals(topology.getId())
+                || !entities.getVersionTimestamp().equals(versionTimestamp)) {
+            entities = catalogService.loadTopologyEntities(topology.getId(), versionId);
+            entitiesCache.put(versionId, entities);
+            LOG.debug("Loaded {}", entities);
         }
+        return entities;
     }
 
-    private void addSinks(TopologyDag dag, Topology topology) throws Exception {
-        for (TopologySink topologySink : catalogService.listTopologySinks(queryParam(topology))) {
-            dag.add(factory.getStreamlineSink(topologySink));
+    private TopologyEntities withComponentBundles(TopologyEntities entities) {
+        // a topology uses only a handful of distinct bundles
+        List<TopologyComponentBundle> bundles = new ArrayList<>();
+        for (Long bundleId : entities.getComponentBundleIds()) {
+            TopologyComponentBundle bundle = catalogService.getTopologyComponentBundle(bundleId);
+            if (bundle != null) {
+                bundles.add(bundle);
+            }
         }
+        return entities.withComponentBundles(bundles);
     }
 
-    private void addEdges(TopologyDag dag, Topology topology) throws Exception {
-        for (TopologyEdge topologyEdge: catalogService.listTopologyEdges(queryParam(topology))) {
-            dag.addEdge(factory.getStreamlineEdge(topologyEdge));
+    private TopologyDag buildDag(TopologyEntities entities) {
+        TopologyComponentFactory factory = new TopologyComponentFactory(entities, modelRegistryClient);
+        TopologyDag dag = new TopologyDag();
+        Map<Long, Component> components = new HashMap<>();
+        for (TopologySource topologySource : entities.getSources()) {
+            StreamlineSource source = factory.getStreamlineSource(topologySource);
+            dag.add(source);
+            components.put(topologySource.getId(), source);
         }
-    }
-
-    private List<QueryParam> queryParam(Topology topology) {
-        List<QueryParam> queryParams = new ArrayList<>();
-        queryParams.add(new QueryParam(TopologyComponent.TOPOLOGYID, topology.getId().toString()));
-        queryParams.add(new QueryParam(TopologyComponent.VERSIONID, topology.getVersionId().toString()));
-        return queryParams;
+        for (TopologyProcessor topologyProcessor : entities.getProcessors()) {
+            StreamlineProcessor processor = factory.getStreamlineProcessor(topologyProcessor);
+            dag.add(processor);
+            components.put(topologyProcessor.getId(), processor);
+        }
+        for (TopologySink topologySink : entities.getSinks()) {
+            StreamlineSink sink = factory.getStreamlineSink(topologySink);
+            dag.add(sink);
+            components.put(topologySink.getId(), sink);
+        }
+        for (TopologyEdge topologyEdge : entities.getEdges()) {
+            Component from = components.get(topologyEdge.getFromId());
+            Component to = components.get(topologyEdge.getToId());
+            if (!(from instanceof OutputComponent)) {
+                throw new IllegalArgumentException("Invalid from id for edge " + topologyEdge);
+            }
+            if (!(to instanceof InputComponent)) {
+                throw new IllegalArgumentException("Invalid to id for edge " + topologyEdge);
+            }
+            dag.addEdge(factory.getStreamlineEdge(topologyEdge, (OutputComponent) from, (InputComponent) to));
+        }
+        return dag;
     }
 }
@@ -0,0 +1,233 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.catalog.topology.component;
+
+import com.google.common.collect.Iterables;
+import com.hortonworks.streamline.streams.catalog.TopologyBranchRule;
+import com.hortonworks.streamline.streams.catalog.TopologyComponent;
+import com.hortonworks.streamline.streams.catalog.TopologyEdge;
+import com.hortonworks.streamline.streams.catalog.TopologyProcessor;
+import com.hortonworks.streamline.streams.catalog.TopologyRule;
+import com.hortonworks.streamline.streams.catalog.TopologySink;
+import com.hortonworks.streamline.streams.catalog.TopologySource;
+import com.hortonworks.streamline.streams.catalog.TopologyStream;
+import com.hortonworks.streamline.streams.catalog.TopologyWindow;
+import com.hortonworks.streamline.streams.catalog.topology.TopologyComponentBundle;
+import com.hortonworks.streamline.storage.Storable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A snapshot of all the catalog entities that make up a topology version, loaded in bulk so that
+ * the {@link TopologyDagBuilder} can assemble the dag without going back to the catalog for
+ * each component and edge.
+ * <p>
+ * The snapshot is shared across dag constructions and should be treated as read only. Component
+ * bundles can be updated independently of the topology version, so they are not part of the cached
+ * snapshot; they are attached to a copy for each dag construction (see {@link #withComponentBundles}).
+ * </p>
+ */
+public final class TopologyEntities implements TopologyComponentLookup {
+    private final Long topologyId;
+    private final Long versionId;
+    private final Long versionTimestamp;
+    private final Map<Long, TopologySource> sources;
+    private final Map<Long, TopologyProcessor> processors;
+    private final Map<Long, TopologySink> sinks;
+    private final List<TopologyEdge> edges;
+    private final Map<Long, TopologyStream> streams;
+    private final Map<String, TopologyStream> streamsByName;
+    private final Map<Long, TopologyRule> rules;
+    private final Map<Long, TopologyBranchRule> branchRules;
+    private final Map<Long, TopologyWindow> windows;
+    private final Map<Long, TopologyComponentBundle> bundles;
+
+    public TopologyEntities(Long topologyId, Long versionId, Long versionTimestamp,
+                            Collection<TopologySource> sources,
+                            Collection<TopologyProcessor> processors,
+                            Collection<TopologySink> sinks,
+                            Collection<TopologyEdge> edges,
+                            Collection<TopologyStream> streams,
+                            Collection<TopologyRule> rules,
+                            Collection<TopologyBranchRule> branchRules,
+                            Collection<TopologyWindow> windows) {
+        this.topologyId = topologyId;
+        this.versionId = versionId;
+        this.versionTimestamp = versionTimestamp;
+        this.sources = byId(sources);
+        this.processors = byId(processors);
+        this.sinks = byId(sinks);
+        this.edges = Collections.unmodifiableList(new ArrayList<>(edges));
+        this.streams = byId(streams);
+        Map<String, TopologyStream> streamsByName = new LinkedHashMap<>();
+        for (TopologyStream stream : streams) {
+            streamsByName.put(stream.getStreamId(), stream);
+        }
+        this.streamsByName = Collections.unmodifiableMap(streamsByName);
+        this.rules = byId(rules);
+        this.branchRules = byId(branchRules);
+        this.windows = byId(windows);
+        this.bundles = Collections.emptyMap();
+    }
+
+    private TopologyEntities(TopologyEntities other, Collection<TopologyComponentBundle> bundles) {
+        this.topologyId = other.topologyId;
+        this.versionId = other.versionId;
+        this.versionTimestamp = other.versionTimestamp;
+        this.sources = other.sources;
+        this.processors = other.processors;
+        this.sinks = other.sinks;
+        this.edges = other.edges;
+        this.streams = other.streams;
+        this.streamsByName = other.streamsByName;
+        this.rules = other.rules;
+        this.branchRules = other.branchRules;
+        this.windows = other.windows;
+        this.bundles = byId(bundles);
+    }
+
+    /**
+     * Returns a copy of this snapshot that resolves component bundles from the given bundles.
+     */
+    public TopologyEntities withComponentBundles(Collection<TopologyComponentBundle> bundles) {
+        return new TopologyEntities(this, bundles);
+    }
+
+    /**
+     * The distinct ids of the component bundles used by the sources, processors and sinks.
+     */
+    public Set<Long> getComponentBundleIds() {
+        Set<Long> bundleIds = new LinkedHashSet<>();
+        for (TopologyComponent component : Iterables.concat(sources.values(), processors.values(), sinks.values())) {
+            bundleIds.add(component.getTopologyComponentBundleId());
+        }
+        return bundleIds;
+    }
+
+    public Long getTopologyId() {
+        return topologyId;
+    }
+
+    public Long getVersionId() {
+        return versionId;
+    }
+
+    /**
+     * The timestamp of the topology version when the snapshot was loaded. Every edit to the
+     * topology version updates the version timestamp, so a snapshot is stale once they differ.
+     */
+    public Long getVersionTimestamp() {
+        return versionTimestamp;
+    }
+
+    public Collection<TopologySource> getSources() {
+        return sources.values();
+    }
+
+    public Collection<TopologyProcessor> getProcessors() {
+        return processors.values();
+    }
+
+    public Collection<TopologySink> getSinks() {
+        return sinks.values();
+    }
+
+    public List<TopologyEdge> getEdges() {
+        return edges;
+    }
+
+    @Override
+    public TopologySource getTopologySource(Long topologyId, Long sourceId, Long versionId) {
+        return lookup(sources, topologyId, sourceId, versionId);
+    }
+
+    @Override
+    public TopologyProcessor getTopologyProcessor(Long topologyId, Long processorId, Long versionId) {
+        return lookup(processors, topologyId, processorId, versionId);
+    }
+
+    @Override
+    public TopologySink getTopologySink(Long topologyId, Long sinkId, Long versionId) {
+        return lookup(sinks, topologyId, sinkId, versionId);
+    }
+
+    @Override
+    public TopologyStream getStreamInfo(Long topologyId, Long streamId, Long versionId) {
+        return isSameVersion(topologyId, versionId) ? streams.get(streamId) : null;
+    }
+
+    @Override
+    public TopologyStream getStreamInfoByName(Long topologyId, String streamId, Long versionId) {
+        return isSameVersion(topologyId, versionId) ? streamsByName.get(streamId) : null;
+    }
+
+    @Override
+    public TopologyRule getRule(Long topologyId, Long ruleId, Long versionId) {
+        return isSameVersion(topologyId, versionId) ? rules.get(ruleId) : null;
+    }
+
+    @Override
+    public TopologyBranchRule getBranchRule(Long topologyId, Long ruleId, Long versionId) {
+        return isSameVersion(topologyId, versionId) ? branchRules.get(ruleId) : null;
+    }
+
+    @Override
+    public TopologyWindow getWindow(Long topologyId, Long windowId, Long versionId) {
+        return isSameVersion(topologyId, versionId) ? windows.get(windowId) : null;
+    }
+
+    @Override
+    public TopologyComponentBundle getTopologyComponentBundle(Long topologyComponentBundleId) {
+        return bundles.get(topologyComponentBundleId);
+    }
+
+    private boolean isSameVersion(Long topologyId, Long versionId) {
+        return this.topologyId.equals(topologyId) && this.versionId.equals(versionId);
+    }
+
+    private <T extends TopologyComponent> T lookup(Map<Long, T> components, Long topologyId, Long id, Long versionId) {
+        return isSameVersion(topologyId, versionId) ? components.get(id) : null;
+    }
+
+    private static <T extends Storable> Map<Long, T> byId(Collection<T> storables) {
+        Map<Long, T> result = new LinkedHashMap<>();
+        for (T storable : storables) {
+            result.put(storable.getId(), storable);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public String toString() {
+        return "TopologyEntities{" +
+                "topologyId=" + topologyId +
+                ", versionId=" + versionId +
+                ", versionTimestamp=" + versionTimestamp +
+                ", sources=" + sources.size() +
+                ", processors=" + processors.size() +
+                ", sinks=" + sinks.size() +
+                ", edges=" + edges.size() +
+                ", streams=" + streams.size() +
+                '}';
+    }
+}
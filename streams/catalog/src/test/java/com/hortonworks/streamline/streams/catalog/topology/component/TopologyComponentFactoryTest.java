@@ -0,0 +1,76 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.catalog.topology.component;
+
+import com.hortonworks.streamline.common.Config;
+import com.hortonworks.streamline.streams.catalog.TopologySink;
+import com.hortonworks.streamline.streams.catalog.topology.TopologyComponentBundle;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSink;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TopologyComponentFactoryTest {
+    private static final Long TOPOLOGY_ID = 1L;
+    private static final Long VERSION_ID = 2L;
+
+    @Test
+    public void testNestedConfigIsNotSharedWithCatalogEntity() throws Exception {
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("key", "value");
+        List<Object> list = new ArrayList<>(Arrays.asList("a", "b"));
+        Config config = new Config();
+        config.put("nested", nested);
+        config.put("list", list);
+        TopologySink sink = new TopologySink();
+        sink.setId(10L);
+        sink.setTopologyId(TOPOLOGY_ID);
+        sink.setVersionId(VERSION_ID);
+        sink.setName("sink");
+        sink.setTopologyComponentBundleId(40L);
+        sink.setConfig(config);
+        TopologyComponentBundle bundle = new TopologyComponentBundle();
+        bundle.setId(40L);
+        bundle.setSubType("TEST");
+        TopologyEntities entities = new TopologyEntities(TOPOLOGY_ID, VERSION_ID, 1000L,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.singletonList(sink),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList())
+                .withComponentBundles(Collections.singletonList(bundle));
+
+        StreamlineSink component = new TopologyComponentFactory(entities, null).getStreamlineSink(sink);
+        Map<String, Object> componentNested = component.getConfig().getAny("nested");
+        componentNested.put("key", "changed");
+        List<Object> componentList = component.getConfig().getAny("list");
+        componentList.add("c");
+
+        assertEquals("value", nested.get("key"));
+        assertEquals(Arrays.asList("a", "b"), list);
+        assertEquals("changed", ((Map<?, ?>) component.getConfig().getAny("nested")).get("key"));
+    }
+}
@@ -0,0 +1,135 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.catalog.topology.component;
+
+import com.hortonworks.streamline.streams.catalog.TopologyComponent;
+import com.hortonworks.streamline.streams.catalog.TopologyEdge;
+import com.hortonworks.streamline.streams.catalog.TopologyProcessor;
+import com.hortonworks.streamline.streams.catalog.TopologyRule;
+import com.hortonworks.streamline.streams.catalog.TopologySink;
+import com.hortonworks.streamline.streams.catalog.TopologySource;
+import com.hortonworks.streamline.streams.catalog.TopologyStream;
+import com.hortonworks.streamline.streams.catalog.topology.TopologyComponentBundle;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TopologyEntitiesTest {
+    private static final Long TOPOLOGY_ID = 1L;
+    private static final Long VERSION_ID = 2L;
+
+    private TopologySource source;
+    private TopologyProcessor processor;
+    private TopologySink sink;
+    private TopologyStream stream;
+    private TopologyRule rule;
+    private TopologyComponentBundle bundle;
+    private TopologyEntities entities;
+
+    @Before
+    public void setup() {
+        source = component(new TopologySource(), 10L);
+        processor = component(new TopologyProcessor(), 11L);
+        sink = component(new TopologySink(), 12L);
+        stream = new TopologyStream();
+        stream.setId(20L);
+        stream.setStreamId("default");
+        stream.setTopologyId(TOPOLOGY_ID);
+        stream.setVersionId(VERSION_ID);
+        rule = new TopologyRule();
+        rule.setId(30L);
+        rule.setTopologyId(TOPOLOGY_ID);
+        rule.setVersionId(VERSION_ID);
+        bundle = new TopologyComponentBundle();
+        bundle.setId(40L);
+        source.setTopologyComponentBundleId(40L);
+        processor.setTopologyComponentBundleId(41L);
+        sink.setTopologyComponentBundleId(40L);
+        TopologyEdge edge = new TopologyEdge();
+        edge.setId(50L);
+        edge.setFromId(source.getId());
+        edge.setToId(processor.getId());
+        entities = new TopologyEntities(TOPOLOGY_ID, VERSION_ID, 1000L,
+                Collections.singletonList(source),
+                Collections.singletonList(processor),
+                Collections.singletonList(sink),
+                Collections.singletonList(edge),
+                Collections.singletonList(stream),
+                Collections.singletonList(rule),
+                Collections.emptyList(),
+                Collections.emptyList())
+                .withComponentBundles(Collections.singletonList(bundle));
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+        assertSame(source, entities.getTopologySource(TOPOLOGY_ID, 10L, VERSION_ID));
+        assertSame(processor, entities.getTopologyProcessor(TOPOLOGY_ID, 11L, VERSION_ID));
+        assertSame(sink, entities.getTopologySink(TOPOLOGY_ID, 12L, VERSION_ID));
+        assertSame(stream, entities.getStreamInfo(TOPOLOGY_ID, 20L, VERSION_ID));
+        assertSame(stream, entities.getStreamInfoByName(TOPOLOGY_ID, "default", VERSION_ID));
+        assertSame(rule, entities.getRule(TOPOLOGY_ID, 30L, VERSION_ID));
+        assertSame(bundle, entities.getTopologyComponentBundle(40L));
+        assertEquals(1, entities.getEdges().size());
+    }
+
+    @Test
+    public void testLookupOfMissingEntities() throws Exception {
+        assertNull(entities.getTopologySource(TOPOLOGY_ID, 11L, VERSION_ID));
+        assertNull(entities.getTopologySink(TOPOLOGY_ID, 10L, VERSION_ID));
+        assertNull(entities.getStreamInfoByName(TOPOLOGY_ID, "missing", VERSION_ID));
+        assertNull(entities.getBranchRule(TOPOLOGY_ID, 30L, VERSION_ID));
+        assertNull(entities.getWindow(TOPOLOGY_ID, 30L, VERSION_ID));
+    }
+
+    @Test
+    public void testLookupInOtherVersion() throws Exception {
+        assertNull(entities.getTopologySource(TOPOLOGY_ID, 10L, VERSION_ID + 1));
+        assertNull(entities.getStreamInfo(TOPOLOGY_ID + 1, 20L, VERSION_ID));
+        assertNull(entities.getRule(TOPOLOGY_ID, 30L, VERSION_ID + 1));
+    }
+
+    @Test
+    public void testComponentBundlesAreAttachedToCopy() {
+        assertEquals(new HashSet<>(Arrays.asList(40L, 41L)), entities.getComponentBundleIds());
+        TopologyComponentBundle updated = new TopologyComponentBundle();
+        updated.setId(40L);
+        TopologyEntities copy = entities.withComponentBundles(Collections.singletonList(updated));
+        assertSame(updated, copy.getTopologyComponentBundle(40L));
+        assertSame(bundle, entities.getTopologyComponentBundle(40L));
+        assertSame(source, copy.getTopologySource(TOPOLOGY_ID, 10L, VERSION_ID));
+        assertEquals(entities.getVersionTimestamp(), copy.getVersionTimestamp());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsReadOnly() {
+        entities.getSources().clear();
+    }
+
+    private <T extends TopologyComponent> T component(T component, Long id) {
+        component.setId(id);
+        component.setTopologyId(TOPOLOGY_ID);
+        component.setVersionId(VERSION_ID);
+        return component;
+    }
+}
@@ -15,30 +15,45 @@
  **/
 package com.hortonworks.streamline.streams.cluster;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Stopwatch;
 import com.hortonworks.streamline.common.util.ParallelStreamUtil;
 import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.Component;
 import com.hortonworks.streamline.streams.catalog.Service;
 import com.hortonworks.streamline.streams.catalog.ServiceConfiguration;
 import com.hortonworks.streamline.streams.cluster.discovery.ServiceNodeDiscoverer;
+import com.hortonworks.streamline.streams.cluster.discovery.VersionedConfiguration;
 import com.hortonworks.streamline.streams.cluster.discovery.ambari.ServiceConfigurations;
 import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * Imports the services of a cluster along with their configurations and components.
+ * <p>
+ * Re-importing a cluster only writes what changed since the previous import: configurations whose tag did not change
+ * are not fetched from the discoverer, rows keep their ids, and services which are no longer available are removed.
+ * Nothing is written until discovery of all services succeeded.
+ */
 public class ClusterImporter {
     private static final Logger LOG = LoggerFactory.getLogger(ClusterImporter.class);
     private static final int FORK_JOIN_POOL_PARALLELISM = 20;
 
     private final EnvironmentService environmentService;
     private final ForkJoinPool forkJoinPool;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     public ClusterImporter(EnvironmentService environmentService) {
         this.environmentService = environmentService;
@@ -46,103 +61,308 @@ public class ClusterImporter {
     }
 
     public Cluster importCluster(ServiceNodeDiscoverer serviceNodeDiscoverer, Cluster cluster) {
-        // remove all of relevant services and associated components
-        removeAllServices(cluster);
+        importServices(serviceNodeDiscoverer, cluster);
+        return cluster;
+    }
 
-        List<String> availableServices = serviceNodeDiscoverer.getServices();
+    public ImportStats importServices(ServiceNodeDiscoverer serviceNodeDiscoverer, Cluster cluster) {
+        ImportStats stats = new ImportStats();
+        Stopwatch stopwatch = Stopwatch.createStarted();
 
-        ParallelStreamUtil.execute(
-                () -> handleServices(serviceNodeDiscoverer, cluster, availableServices),
+        Map<String, ImportedService> importedServices = loadImportedServices(cluster);
+        stats.loadMillis = lap(stopwatch);
+
+        List<String> availableServices = serviceNodeDiscoverer.getServices();
+        List<DiscoveredService> discoveredServices = ParallelStreamUtil.execute(
+                () -> availableServices.parallelStream()
+                        .filter(ServiceConfigurations::contains)
+                        .map(serviceName -> discoverService(serviceNodeDiscoverer, serviceName,
+                                importedServices.get(serviceName)))
+                        .collect(Collectors.toList()),
                 forkJoinPool);
+        stats.discoveryMillis = lap(stopwatch);
 
-        return cluster;
+        Changes changes = new Changes();
+        for (DiscoveredService discovered : discoveredServices) {
+            diffService(serviceNodeDiscoverer, cluster, discovered, importedServices.remove(discovered.name), changes, stats);
+        }
+        for (ImportedService removed : importedServices.values()) {
+            LOG.debug("service removed {}", removed.service.getName());
+            changes.removeService(removed);
+            stats.servicesRemoved++;
+        }
+        apply(changes, stats);
+        stats.writeMillis = lap(stopwatch);
+
+        LOG.info("Imported services of cluster {}: {}", cluster.getName(), stats);
+        return stats;
+    }
+
+    private Map<String, ImportedService> loadImportedServices(Cluster cluster) {
+        Map<String, ImportedService> importedServices = new HashMap<>();
+        for (Service service : environmentService.listServices(cluster.getId())) {
+            ImportedService imported = new ImportedService(service);
+            for (Component component : environmentService.listComponents(service.getId())) {
+                imported.components.put(component.getName(), component);
+            }
+            for (ServiceConfiguration configuration : environmentService.listServiceConfigurations(service.getId())) {
+                imported.configurations.put(configuration.getName(), configuration);
+            }
+            importedServices.put(service.getName(), imported);
+        }
+        return importedServices;
     }
 
-    private Void handleServices(ServiceNodeDiscoverer serviceNodeDiscoverer, Cluster cluster, List<String> availableServices) {
-        availableServices.parallelStream()
-                .filter(ServiceConfigurations::contains)
-                .forEach(serviceName -> {
-                    LOG.debug("service start {}", serviceName);
+    private DiscoveredService discoverService(ServiceNodeDiscoverer serviceNodeDiscoverer, String serviceName,
+                                              ImportedService imported) {
+        LOG.debug("service start {}", serviceName);
 
-                    Service service = addService(cluster, serviceName);
+        Map<String, String> importedTags = new HashMap<>();
+        if (imported != null) {
+            imported.configurations.values().stream()
+                    .filter(configuration -> configuration.getTag() != null)
+                    .forEach(configuration -> importedTags.put(configuration.getName(), configuration.getTag()));
+        }
 
-                    Map<String, String> flattenConfigurations = new ConcurrentHashMap<>();
-                    Map<String, Map<String, String>> configurations = serviceNodeDiscoverer.getConfigurations(serviceName);
-                    handleConfigurations(serviceNodeDiscoverer, flattenConfigurations, configurations, service);
+        DiscoveredService discovered = new DiscoveredService(serviceName);
+        discovered.configurations.putAll(serviceNodeDiscoverer.getConfigurations(serviceName, importedTags));
 
-                    List<String> components = serviceNodeDiscoverer.getComponents(serviceName);
-                    handleComponents(serviceNodeDiscoverer, serviceName, flattenConfigurations, service, components);
-                });
+        List<String> components = serviceNodeDiscoverer.getComponents(serviceName);
+        components.parallelStream().forEach(componentName ->
+                discovered.componentHosts.put(componentName,
+                        serviceNodeDiscoverer.getComponentNodes(serviceName, componentName)));
 
-        return null;
+        LOG.debug("service end {}", serviceName);
+        return discovered;
     }
 
-    private void handleComponents(ServiceNodeDiscoverer serviceNodeDiscoverer, String serviceName, Map<String, String> flattenConfigurations, Service service, List<String> components) {
-        components.parallelStream().forEach(componentName -> {
-            LOG.debug("component start {}", componentName);
+    private void diffService(ServiceNodeDiscoverer serviceNodeDiscoverer, Cluster cluster, DiscoveredService discovered,
+                             ImportedService imported, Changes changes, ImportStats stats) {
+        Service service;
+        if (imported == null) {
+            service = environmentService.initializeService(cluster, discovered.name);
+            changes.addedServices.add(service);
+            stats.servicesAdded++;
+            imported = new ImportedService(service);
+        } else {
+            service = imported.service;
+        }
 
-            List<String> hosts = serviceNodeDiscoverer.getComponentNodes(serviceName, componentName);
-            addComponent(flattenConfigurations, service, componentName, hosts);
+        Map<String, String> flattenConfigurations = new HashMap<>();
+        for (Map.Entry<String, VersionedConfiguration> entry : discovered.configurations.entrySet()) {
+            String confType = entry.getKey();
+            VersionedConfiguration configuration = entry.getValue();
+            ServiceConfiguration existing = imported.configurations.remove(confType);
+            try {
+                if (configuration.isUnchanged()) {
+                    flattenConfigurations.putAll(existing.getConfigurationMap());
+                    stats.configurationsUnchanged++;
+                    continue;
+                }
+                stats.configurationsFetched++;
+                flattenConfigurations.putAll(configuration.getProperties());
 
-            LOG.debug("component end {}", componentName);
-        });
-    }
+                String json = objectMapper.writeValueAsString(configuration.getProperties());
+                if (existing == null) {
+                    ServiceConfiguration added = environmentService.initializeServiceConfiguration(service.getId(),
+                            confType, serviceNodeDiscoverer.getOriginalFileName(confType), configuration.getProperties());
+                    added.setVersion(configuration.getVersion());
+                    added.setTag(configuration.getTag());
+                    changes.addedConfigurations.add(added);
+                } else if (!json.equals(existing.getConfiguration())
+                        || !Objects.equals(configuration.getVersion(), existing.getVersion())
+                        || !Objects.equals(configuration.getTag(), existing.getTag())) {
+                    existing.setConfiguration(json);
+                    existing.setFilename(serviceNodeDiscoverer.getOriginalFileName(confType));
+                    existing.setVersion(configuration.getVersion());
+                    existing.setTag(configuration.getTag());
+                    existing.setTimestamp(System.currentTimeMillis());
+                    changes.updatedConfigurations.add(existing);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        changes.removedConfigurations.addAll(imported.configurations.values());
 
-    private void handleConfigurations(ServiceNodeDiscoverer serviceNodeDiscoverer, Map<String, String> flattenConfigurations, Map<String, Map<String, String>> configurations, Service service) {
-        configurations.entrySet().parallelStream()
-                .forEach(entry -> {
-                    try {
-                        String confType = entry.getKey();
-                        Map<String, String> configuration = entry.getValue();
+        for (Map.Entry<String, List<String>> entry : discovered.componentHosts.entrySet()) {
+            String componentName = entry.getKey();
+            List<String> hosts = entry.getValue();
+            Component existing = imported.components.remove(componentName);
+            if (existing == null) {
+                Component added = environmentService.initializeComponent(service, componentName, hosts);
+                environmentService.injectProtocolAndPortToComponent(flattenConfigurations, added);
+                changes.addedComponents.add(added);
+            } else {
+                Component discoveredComponent = new Component();
+                discoveredComponent.setName(componentName);
+                discoveredComponent.setHosts(hosts);
+                environmentService.injectProtocolAndPortToComponent(flattenConfigurations, discoveredComponent);
+                if (!Objects.equals(discoveredComponent.getHosts(), existing.getHosts())
+                        || !Objects.equals(discoveredComponent.getProtocol(), existing.getProtocol())
+                        || !Objects.equals(discoveredComponent.getPort(), existing.getPort())) {
+                    existing.setHosts(discoveredComponent.getHosts());
+                    existing.setProtocol(discoveredComponent.getProtocol());
+                    existing.setPort(discoveredComponent.getPort());
+                    existing.setTimestamp(System.currentTimeMillis());
+                    changes.updatedComponents.add(existing);
+                }
+            }
+        }
+        changes.removedComponents.addAll(imported.components.values());
+    }
 
-                        LOG.debug("conf-type start {}", confType);
+    private void apply(Changes changes, ImportStats stats) {
+        for (Component component : changes.removedComponents) {
+            environmentService.removeComponent(component.getId());
+        }
+        for (ServiceConfiguration configuration : changes.removedConfigurations) {
+            environmentService.removeServiceConfiguration(configuration.getId());
+        }
+        for (Service service : changes.removedServices) {
+            environmentService.removeService(service.getId());
+        }
 
-                        String actualFileName = serviceNodeDiscoverer.getOriginalFileName(confType);
+        for (Service service : changes.addedServices) {
+            environmentService.addService(service);
+        }
+        for (ServiceConfiguration configuration : changes.addedConfigurations) {
+            environmentService.addServiceConfiguration(configuration);
+        }
+        for (ServiceConfiguration configuration : changes.updatedConfigurations) {
+            environmentService.addOrUpdateServiceConfiguration(configuration.getServiceId(), configuration);
+        }
+        for (Component component : changes.addedComponents) {
+            environmentService.addComponent(component);
+        }
+        for (Component component : changes.updatedComponents) {
+            environmentService.addOrUpdateComponent(component.getServiceId(), component);
+        }
 
-                        addServiceConfiguration(service, confType, configuration, actualFileName);
-                        flattenConfigurations.putAll(configuration);
+        stats.configurationsWritten = changes.addedConfigurations.size() + changes.updatedConfigurations.size();
+        stats.configurationsRemoved = changes.removedConfigurations.size();
+        stats.componentsWritten = changes.addedComponents.size() + changes.updatedComponents.size();
+        stats.componentsRemoved = changes.removedComponents.size();
+    }
 
-                        LOG.debug("conf-type end {}", confType);
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
-                });
+    private static long lap(Stopwatch stopwatch) {
+        long elapsed = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        stopwatch.reset().start();
+        return elapsed;
     }
 
-    private void addComponent(Map<String, String> flatConfigurations, Service service, String componentName, List<String> hosts) {
-        Component component = environmentService.initializeComponent(service, componentName, hosts);
-        environmentService.injectProtocolAndPortToComponent(flatConfigurations, component);
-        environmentService.addComponent(component);
+    private static class ImportedService {
+        private final Service service;
+        private final Map<String, Component> components = new HashMap<>();
+        private final Map<String, ServiceConfiguration> configurations = new HashMap<>();
+
+        private ImportedService(Service service) {
+            this.service = service;
+        }
     }
 
-    private void addServiceConfiguration(Service service, String confType, Map<String, String> configuration, String actualFileName) throws JsonProcessingException {
-        ServiceConfiguration serviceConfiguration = environmentService.initializeServiceConfiguration(service.getId(),
-                confType, actualFileName, configuration);
+    private static class DiscoveredService {
+        private final String name;
+        private final Map<String, VersionedConfiguration> configurations = new HashMap<>();
+        private final Map<String, List<String>> componentHosts = new ConcurrentHashMap<>();
 
-        environmentService.addServiceConfiguration(serviceConfiguration);
+        private DiscoveredService(String name) {
+            this.name = name;
+        }
     }
 
-    private Service addService(Cluster cluster, String serviceName) {
-        Service service = environmentService.initializeService(cluster, serviceName);
-        environmentService.addService(service);
-        LOG.debug("service added {}", serviceName);
-        return service;
+    private static class Changes {
+        private final List<Service> addedServices = new ArrayList<>();
+        private final List<Service> removedServices = new ArrayList<>();
+        private final List<ServiceConfiguration> addedConfigurations = new ArrayList<>();
+        private final List<ServiceConfiguration> updatedConfigurations = new ArrayList<>();
+        private final List<ServiceConfiguration> removedConfigurations = new ArrayList<>();
+        private final List<Component> addedComponents = new ArrayList<>();
+        private final List<Component> updatedComponents = new ArrayList<>();
+        private final List<Component> removedComponents = new ArrayList<>();
+
+        private void removeService(ImportedService imported) {
+            removedServices.add(imported.service);
+            removedConfigurations.addAll(imported.configurations.values());
+            removedComponents.addAll(imported.components.values());
+        }
     }
 
-    private void removeAllServices(Cluster cluster) {
-        Collection<Service> services = environmentService.listServices(cluster.getId());
-        for (Service service : services) {
-            Collection<Component> components = environmentService.listComponents(service.getId());
-            for (Component component : components) {
-                environmentService.removeComponent(component.getId());
-            }
+    /**
+     * Counts and phase timings of an import.
+     */
+    public static class ImportStats {
+        private long loadMillis;
+        private long discoveryMillis;
+        private long writeMillis;
+        private int servicesAdded;
+        private int servicesRemoved;
+        private int configurationsFetched;
+        private int configurationsUnchanged;
+        private int configurationsWritten;
+        private int configurationsRemoved;
+        private int componentsWritten;
+        private int componentsRemoved;
 
-            Collection<ServiceConfiguration> configurations = environmentService.listServiceConfigurations(service.getId());
-            for (ServiceConfiguration configuration : configurations) {
-                environmentService.removeServiceConfiguration(configuration.getId());
-            }
+        public long getLoadMillis() {
+            return loadMillis;
+        }
 
-            environmentService.removeService(service.getId());
+        public long getDiscoveryMillis() {
+            return discoveryMillis;
+        }
+
+        public long getWriteMillis() {
+            return writeMillis;
+        }
+
+        public int getServicesAdded() {
+            return servicesAdded;
+        }
+
+        public int getServicesRemoved() {
+            return servicesRemoved;
+        }
+
+        public int getConfigurationsFetched() {
+            return configurationsFetched;
+        }
+
+        public int getConfigurationsUnchanged() {
+            return configurationsUnchanged;
+        }
+
+        public int getConfigurationsWritten() {
+            return configurationsWritten;
+        }
+
+        public int getConfigurationsRemoved() {
+            return configurationsRemoved;
+        }
+
+        public int getComponentsWritten() {
+            return componentsWritten;
+        }
+
+        public int getComponentsRemoved() {
+            return componentsRemoved;
+        }
+
+        @Override
+        public String toString() {
+            return "ImportStats{" +
+                    "loadMillis=" + loadMillis +
+                    ", discoveryMillis=" + discoveryMillis +
+                    ", writeMillis=" + writeMillis +
+                    ", servicesAdded=" + servicesAdded +
+                    ", servicesRemoved=" + servicesRemoved +
+                    ", configurationsFetched=" + configurationsFetched +
+                    ", configurationsUnchanged=" + configurationsUnchanged +
+                    ", configurationsWritten=" + configurationsWritten +
+                    ", configurationsRemoved=" + configurationsRemoved +
+                    ", componentsWritten=" + componentsWritten +
+                    ", componentsRemoved=" + componentsRemoved +
+                    '}';
         }
     }
 }
@@ -19,7 +19,6 @@ import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.exception.ServiceConfigurationNotFoundException;
 import com.hortonworks.streamline.streams.catalog.exception.ServiceNotFoundException;
 import com.hortonworks.streamline.streams.cluster.Constants;
-import com.hortonworks.streamline.streams.cluster.service.metadata.HDFSMetadataService;
 import com.hortonworks.streamline.streams.cluster.bundle.AbstractBundleHintProvider;
 
 import java.util.HashMap;
@@ -31,8 +30,7 @@ public abstract class AbstractHDFSBundleHintProvider extends AbstractBundleHintP
         Map<String, Object> hintMap = new HashMap<>();
 
         try {
-            HDFSMetadataService hdfsMetadataService = HDFSMetadataService.newInstance(environmentService, cluster.getId());
-            hintMap.put(getFieldNameForFSUrl(), hdfsMetadataService.getDefaultFsUrl());
+            hintMap.put(getFieldNameForFSUrl(), environmentService.getMetadataClients().getHdfsDefaultFsUrl(cluster.getId()));
         } catch (ServiceNotFoundException e) {
             // we access it from mapping information so shouldn't be here
             throw new IllegalStateException("Service " + Constants.HDFS.SERVICE_NAME + " in cluster " + cluster.getName() +
@@ -20,7 +20,6 @@ import com.hortonworks.streamline.streams.catalog.exception.ServiceConfiguration
 import com.hortonworks.streamline.streams.catalog.exception.ServiceNotFoundException;
 import com.hortonworks.streamline.streams.cluster.Constants;
 import com.hortonworks.streamline.streams.cluster.bundle.AbstractBundleHintProvider;
-import com.hortonworks.streamline.streams.cluster.service.metadata.HBaseMetadataService;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,8 +30,8 @@ public class HBaseBundleHintProvider extends AbstractBundleHintProvider {
     @Override
     public Map<String, Object> getHintsOnCluster(Cluster cluster) {
         Map<String, Object> hintMap = new HashMap<>();
-        try (HBaseMetadataService hBaseMetadataService = HBaseMetadataService.newInstance(environmentService, cluster.getId())) {
-            hintMap.put(FIELD_NAME_TABLE, hBaseMetadataService.getHBaseTables().getTables());
+        try {
+            hintMap.put(FIELD_NAME_TABLE, environmentService.getMetadataClients().getHBaseTables(cluster.getId()).getTables());
         } catch (ServiceNotFoundException e) {
             // we access it from mapping information so shouldn't be here
             throw new IllegalStateException("Service " + Constants.HBase.SERVICE_NAME + " in cluster " + cluster.getName() +
@@ -20,6 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.exception.ServiceConfigurationNotFoundException;
 import com.hortonworks.streamline.streams.catalog.exception.ServiceNotFoundException;
+import com.hortonworks.streamline.streams.cluster.service.metadata.ClusterMetadataClients;
 import com.hortonworks.streamline.streams.cluster.service.metadata.KafkaMetadataService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.ZookeeperMetadataService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.common.HostPort;
@@ -43,9 +44,10 @@ public class KafkaBundleHintProvider extends AbstractBundleHintProvider {
     @Override
     public Map<String, Object> getHintsOnCluster(Cluster cluster) {
         Map<String, Object> hintClusterMap = new HashMap<>();
-        try (KafkaMetadataService kafkaMetadataService = KafkaMetadataService.newInstance(environmentService, cluster.getId())) {
-            KafkaMetadataService.KafkaZkConnection zkConnection = kafkaMetadataService.getKafkaZkConnection();
-            KafkaMetadataService.Topics topics = kafkaMetadataService.getTopicsFromZk();
+        ClusterMetadataClients metadataClients = environmentService.getMetadataClients();
+        try {
+            KafkaMetadataService.KafkaZkConnection zkConnection = metadataClients.getKafkaZkConnection(cluster.getId());
+            KafkaMetadataService.Topics topics = metadataClients.getKafkaTopics(cluster.getId());
 
             String zkUrl = zkConnection.createZkConnString();
             String brokerPath = DEFAULT_BROKER_ZK_PATH;
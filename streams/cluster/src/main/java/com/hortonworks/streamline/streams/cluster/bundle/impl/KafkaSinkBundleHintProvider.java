@@ -20,6 +20,7 @@ import org.apache.commons.lang.StringUtils;
 import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.exception.ServiceConfigurationNotFoundException;
 import com.hortonworks.streamline.streams.catalog.exception.ServiceNotFoundException;
+import com.hortonworks.streamline.streams.cluster.service.metadata.ClusterMetadataClients;
 import com.hortonworks.streamline.streams.cluster.service.metadata.KafkaMetadataService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.common.HostPort;
 import com.hortonworks.streamline.streams.cluster.bundle.AbstractBundleHintProvider;
@@ -38,11 +39,12 @@ public class KafkaSinkBundleHintProvider extends AbstractBundleHintProvider {
     @Override
     public Map<String, Object> getHintsOnCluster(Cluster cluster) {
         Map<String, Object> hintClusterMap = new HashMap<>();
-        try (KafkaMetadataService kafkaMetadataService = KafkaMetadataService.newInstance(environmentService, cluster.getId())) {
-            KafkaMetadataService.Topics topics = kafkaMetadataService.getTopicsFromZk();
+        ClusterMetadataClients metadataClients = environmentService.getMetadataClients();
+        try {
+            KafkaMetadataService.Topics topics = metadataClients.getKafkaTopics(cluster.getId());
             hintClusterMap.put(FIELD_NAME_TOPIC, topics.getTopics());
 
-            KafkaMetadataService.BrokersInfo<HostPort> brokerHosts = kafkaMetadataService.getBrokerHostPortFromStreamsJson(cluster.getId());
+            KafkaMetadataService.BrokersInfo<HostPort> brokerHosts = metadataClients.getKafkaBrokerHostPorts(cluster.getId());
             List<HostPort> hosts = brokerHosts.getInfo();
             if (hosts != null && !hosts.isEmpty()) {
                 List<String> bootstrapServerList = hosts.stream()
@@ -51,7 +53,7 @@ public class KafkaSinkBundleHintProvider extends AbstractBundleHintProvider {
                 hintClusterMap.put(FIELD_NAME_BOOTSTRAP_SERVERS, String.join(",", bootstrapServerList));
             }
 
-            String protocol = kafkaMetadataService.getProtocolFromStreamsJson(cluster.getId());
+            String protocol = metadataClients.getKafkaProtocol(cluster.getId());
             if (!StringUtils.isEmpty(protocol)) {
                 hintClusterMap.put(FIELD_NAME_SECURITY_PROTOCOL, protocol);
             }
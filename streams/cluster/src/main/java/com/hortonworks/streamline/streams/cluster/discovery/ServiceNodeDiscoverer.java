@@ -17,6 +17,7 @@ package com.hortonworks.streamline.streams.cluster.discovery;
 
 import com.hortonworks.streamline.streams.exception.ConfigException;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -65,6 +66,23 @@ public interface ServiceNodeDiscoverer {
    */
   Map<String, Map<String, String>> getConfigurations(String serviceName);
 
+  /**
+   * Retrieves all configurations from cluster for given service, without fetching the properties of the configurations
+   * whose tag did not change since they were imported. Discoverers which don't version configurations return all of
+   * them with their properties.
+   *
+   * @param serviceName service name. some examples are 'STORM', 'KAFKA', and so on.
+   * @param importedTags config type -> tag of the configurations imported before.
+   * @return config type -> configuration, see {@link VersionedConfiguration#isUnchanged()}.
+   */
+  default Map<String, VersionedConfiguration> getConfigurations(String serviceName, Map<String, String> importedTags) {
+    Map<String, VersionedConfiguration> configurations = new HashMap<>();
+    for (Map.Entry<String, Map<String, String>> entry : getConfigurations(serviceName).entrySet()) {
+      configurations.put(entry.getKey(), new VersionedConfiguration(null, null, entry.getValue()));
+    }
+    return configurations;
+  }
+
   /**
    * Get original file name for given config type. This is for including configuration files to topology jar.
    *
@@ -0,0 +1,68 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.cluster.discovery;
+
+import java.util.Map;
+
+/**
+ * Configuration of a service along with its version and tag in the cluster manager. The properties are not set when the
+ * configuration did not change since it was imported.
+ */
+public class VersionedConfiguration {
+  private final Long version;
+  private final String tag;
+  private final Map<String, String> properties;
+
+  public VersionedConfiguration(Long version, String tag, Map<String, String> properties) {
+    this.version = version;
+    this.tag = tag;
+    this.properties = properties;
+  }
+
+  /**
+   * @return version of the configuration, null if the cluster manager does not version configurations
+   */
+  public Long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return tag of the configuration, null if the cluster manager does not version configurations
+   */
+  public String getTag() {
+    return tag;
+  }
+
+  /**
+   * @return the configuration properties, null if they did not change since imported
+   */
+  public Map<String, String> getProperties() {
+    return properties;
+  }
+
+  public boolean isUnchanged() {
+    return properties == null;
+  }
+
+  @Override
+  public String toString() {
+    return "VersionedConfiguration{" +
+        "version=" + version +
+        ", tag='" + tag + '\'' +
+        ", unchanged=" + isUnchanged() +
+        '}';
+  }
+}
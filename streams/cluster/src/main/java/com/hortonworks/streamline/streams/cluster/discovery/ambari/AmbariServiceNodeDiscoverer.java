@@ -16,9 +16,11 @@
 package com.hortonworks.streamline.streams.cluster.discovery.ambari;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hortonworks.streamline.common.JsonClientUtil;
 import com.hortonworks.streamline.common.exception.WrappedWebApplicationException;
 import com.hortonworks.streamline.streams.cluster.discovery.ServiceNodeDiscoverer;
+import com.hortonworks.streamline.streams.cluster.discovery.VersionedConfiguration;
 import com.hortonworks.streamline.streams.exception.ConfigException;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
@@ -45,11 +47,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.stream.Collectors.toList;
 
 /**
  * Services and nodes discover using Ambari.
+ * <p>
+ * The configuration listing of the cluster is fetched once after {@link #init(Map)} and shared by all the services, and
+ * the properties of the configurations are fetched in parallel, by at most {@code configFetchParallelism} requests.
  */
 public class AmbariServiceNodeDiscoverer implements ServiceNodeDiscoverer {
   private static final Logger LOG = LoggerFactory.getLogger(AmbariServiceNodeDiscoverer.class);
@@ -60,8 +71,12 @@ public class AmbariServiceNodeDiscoverer implements ServiceNodeDiscoverer {
   public static final String COMPONENT_URL = "/services/%s/components/%s";
   public static final String AMBARI_VIEWS_STORM_MONITORING_URL = "/views/Storm_Monitoring";
   public static final MediaType AMBARI_REST_API_MEDIA_TYPE = MediaType.TEXT_PLAIN_TYPE;
+  public static final String CONF_CONFIG_FETCH_PARALLELISM = "configFetchParallelism";
+  public static final int DEFAULT_CONFIG_FETCH_PARALLELISM = 8;
 
   private Client client;
+  private ExecutorService configFetchExecutor;
+  private volatile List<Map<String, ?>> configurationItems;
   private final String apiRootUrl;
 
   private final String username;
@@ -76,6 +91,8 @@ public class AmbariServiceNodeDiscoverer implements ServiceNodeDiscoverer {
   @Override
   public void init(Map<String, String> conf) throws ConfigException {
     setupClient();
+    setupConfigFetchExecutor(conf);
+    configurationItems = null;
   }
 
   @Override public List<String> getServices() {
@@ -147,6 +164,16 @@ public class AmbariServiceNodeDiscoverer implements ServiceNodeDiscoverer {
   }
 
   @Override public Map<String, Map<String, String>> getConfigurations(String serviceName) {
+    Map<String, Map<String, String>> configurations = new HashMap<>();
+    for (Map.Entry<String, VersionedConfiguration> entry :
+        getConfigurations(serviceName, Collections.emptyMap()).entrySet()) {
+      configurations.put(entry.getKey(), entry.getValue().getProperties());
+    }
+    return configurations;
+  }
+
+  @Override public Map<String, VersionedConfiguration> getConfigurations(String serviceName,
+                                                                       Map<String, String> importedTags) {
     // this will throw IllegalArgumentException if service is not supported yet.
     ServiceConfigurations serviceConfigurations;
     try {
@@ -157,24 +184,31 @@ public class AmbariServiceNodeDiscoverer implements ServiceNodeDiscoverer {
 
     List<String> confNameList = createAmbariConfNameList(serviceConfigurations);
 
-    Map<String, Map<String, String>> configurations = new HashMap<>();
-
-    String targetUrl = apiRootUrl + CONFIGURATIONS_URL;
-
-    LOG.debug("configurations URI: {}", targetUrl);
+    Map<String, VersionedConfiguration> configurations = new HashMap<>();
 
     try {
-      Map<String, ?> responseMap = JsonClientUtil.getEntity(client.target(targetUrl), AMBARI_REST_API_MEDIA_TYPE, Map.class);
-      List<Map<String, ?>> items = (List<Map<String, ?>>) responseMap.get(AmbariRestAPIConstants.AMBARI_JSON_SCHEMA_COMMON_ITEMS);
+      List<Map<String, ?>> items = getConfigurationItems();
 
       if (items.size() > 0) {
         Map<String, ServiceConfigurationItem> confToItem = extractLatestConfigurationItems(
                 confNameList, items);
 
+        Map<ServiceConfigurationItem, Future<Map<String, String>>> fetches = new HashMap<>();
         for (ServiceConfigurationItem confItem : confToItem.values()) {
           // convert Ambari type to the actual Service's configuration file
           String type = getOriginConfigTypeName(confItem.getType());
-          configurations.put(type, getProperties(confItem));
+          if (confItem.getTag() != null && confItem.getTag().equals(importedTags.get(type))) {
+            LOG.debug("configuration {} of service {} is unchanged, tag {}", type, serviceName, confItem.getTag());
+            configurations.put(type, new VersionedConfiguration(getVersion(confItem), confItem.getTag(), null));
+          } else {
+            fetches.put(confItem, configFetchExecutor.submit(() -> getProperties(confItem)));
+          }
+        }
+
+        for (Map.Entry<ServiceConfigurationItem, Future<Map<String, String>>> fetch : fetches.entrySet()) {
+          ServiceConfigurationItem confItem = fetch.getKey();
+          configurations.put(getOriginConfigTypeName(confItem.getType()),
+              new VersionedConfiguration(getVersion(confItem), confItem.getTag(), await(fetch.getValue(), fetches)));
         }
       }
 
@@ -184,6 +218,45 @@ public class AmbariServiceNodeDiscoverer implements ServiceNodeDiscoverer {
     }
   }
 
+  // the listing has the configurations of all the services, so it is only fetched once per import
+  private List<Map<String, ?>> getConfigurationItems() {
+    List<Map<String, ?>> items = configurationItems;
+    if (items == null) {
+      String targetUrl = apiRootUrl + CONFIGURATIONS_URL;
+
+      LOG.debug("configurations URI: {}", targetUrl);
+
+      Map<String, ?> responseMap = JsonClientUtil.getEntity(client.target(targetUrl), AMBARI_REST_API_MEDIA_TYPE, Map.class);
+      items = (List<Map<String, ?>>) responseMap.get(AmbariRestAPIConstants.AMBARI_JSON_SCHEMA_COMMON_ITEMS);
+      configurationItems = items;
+    }
+    return items;
+  }
+
+  private Long getVersion(ServiceConfigurationItem confItem) {
+    return confItem.getVersion() != null ? confItem.getVersion().longValue() : null;
+  }
+
+  private Map<String, String> await(Future<Map<String, String>> future,
+                                    Map<ServiceConfigurationItem, Future<Map<String, String>>> fetches) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fetches.values().forEach(f -> f.cancel(true));
+      throw new RuntimeException("Interrupted while fetching configurations", e);
+    } catch (ExecutionException e) {
+      fetches.values().forEach(f -> f.cancel(true));
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+  }
+
   private List<String> createAmbariConfNameList(ServiceConfigurations serviceConfigurations) {
     String[] confNames = serviceConfigurations.getConfNames();
     return Arrays.stream(confNames).map(confName -> {
@@ -296,6 +369,22 @@ public class AmbariServiceNodeDiscoverer implements ServiceNodeDiscoverer {
     }
   }
 
+  private void setupConfigFetchExecutor(Map<String, String> conf) {
+    int parallelism = DEFAULT_CONFIG_FETCH_PARALLELISM;
+    if (conf != null && conf.containsKey(CONF_CONFIG_FETCH_PARALLELISM)) {
+      parallelism = Integer.parseInt(conf.get(CONF_CONFIG_FETCH_PARALLELISM));
+    }
+    if (configFetchExecutor != null) {
+      configFetchExecutor.shutdown();
+    }
+    // idle threads time out, as the discoverer has no lifecycle end
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("ambari-config-fetch-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    configFetchExecutor = executor;
+  }
+
   private void setupClient() {
     HttpAuthenticationFeature feature = HttpAuthenticationFeature.basicBuilder()
         .credentials(username, password).build();
@@ -32,6 +32,7 @@ import com.hortonworks.streamline.streams.cluster.container.ContainingNamespaceA
 import com.hortonworks.streamline.streams.cluster.ClusterImporter;
 import com.hortonworks.streamline.streams.cluster.discovery.ServiceNodeDiscoverer;
 import com.hortonworks.streamline.streams.cluster.discovery.ambari.ComponentPropertyPattern;
+import com.hortonworks.streamline.streams.cluster.service.metadata.ClusterMetadataClients;
 import com.hortonworks.streamline.streams.layout.exception.ComponentConfigException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +63,7 @@ public class EnvironmentService {
     private final ClusterImporter clusterImporter;
     private final List<ContainingNamespaceAwareContainer> containers;
     private final ObjectMapper objectMapper;
+    private volatile ClusterMetadataClients metadataClients;
 
     public EnvironmentService(StorageManager dao) {
         this.dao = dao;
@@ -74,8 +76,28 @@ public class EnvironmentService {
         this.containers.add(container);
     }
 
+    /**
+     * @return the shared, pooled and cached clients used to read metadata of the services of the clusters
+     */
+    public ClusterMetadataClients getMetadataClients() {
+        ClusterMetadataClients clients = metadataClients;
+        if (clients == null) {
+            synchronized (this) {
+                clients = metadataClients;
+                if (clients == null) {
+                    clients = metadataClients = new ClusterMetadataClients(this);
+                }
+            }
+        }
+        return clients;
+    }
+
     public Cluster importClusterServices(ServiceNodeDiscoverer serviceNodeDiscoverer, Cluster cluster) throws Exception {
-        return clusterImporter.importCluster(serviceNodeDiscoverer, cluster);
+        try {
+            return clusterImporter.importCluster(serviceNodeDiscoverer, cluster);
+        } finally {
+            invalidateMetadataClients(cluster.getId());
+        }
     }
 
     public Service initializeService(Cluster cluster, String serviceName) {
@@ -151,6 +173,7 @@ public class EnvironmentService {
     public Cluster removeCluster(Long clusterId) {
         Cluster cluster = new Cluster();
         cluster.setId(clusterId);
+        invalidateMetadataClients(clusterId);
         return dao.remove(new StorableKey(CLUSTER_NAMESPACE, cluster.getPrimaryKey()));
     }
 
@@ -214,7 +237,11 @@ public class EnvironmentService {
     public Service removeService(Long serviceId) {
         Service service = new Service();
         service.setId(serviceId);
-        return dao.remove(new StorableKey(SERVICE_NAMESPACE, service.getPrimaryKey()));
+        Service removed = dao.remove(new StorableKey(SERVICE_NAMESPACE, service.getPrimaryKey()));
+        if (removed != null) {
+            invalidateMetadataClients(removed.getClusterId());
+        }
+        return removed;
     }
 
     public Service addOrUpdateService(Long clusterId, Service service) {
@@ -328,7 +355,12 @@ public class EnvironmentService {
     public ServiceConfiguration removeServiceConfiguration(Long configurationId) {
         ServiceConfiguration serviceConfiguration = new ServiceConfiguration();
         serviceConfiguration.setId(configurationId);
-        return this.dao.remove(new StorableKey(SERVICE_CONFIGURATION_NAMESPACE, serviceConfiguration.getPrimaryKey()));
+        ServiceConfiguration removed = this.dao.remove(new StorableKey(SERVICE_CONFIGURATION_NAMESPACE,
+                serviceConfiguration.getPrimaryKey()));
+        if (removed != null) {
+            invalidateMetadataClientsOfService(removed.getServiceId());
+        }
+        return removed;
     }
 
     public ServiceConfiguration addServiceConfiguration(ServiceConfiguration serviceConfiguration) {
@@ -339,6 +371,7 @@ public class EnvironmentService {
             serviceConfiguration.setTimestamp(System.currentTimeMillis());
         }
         this.dao.add(serviceConfiguration);
+        invalidateMetadataClientsOfService(serviceConfiguration.getServiceId());
         return serviceConfiguration;
     }
 
@@ -355,6 +388,7 @@ public class EnvironmentService {
             serviceConfiguration.setTimestamp(System.currentTimeMillis());
         }
         this.dao.addOrUpdate(serviceConfiguration);
+        invalidateMetadataClientsOfService(serviceId);
         return serviceConfiguration;
     }
 
@@ -537,4 +571,20 @@ public class EnvironmentService {
         this.containers.forEach(c -> c.invalidateInstance(namespaceId));
     }
 
+    private void invalidateMetadataClients(Long clusterId) {
+        ClusterMetadataClients clients = metadataClients;
+        if (clients != null && clusterId != null) {
+            clients.invalidate(clusterId);
+        }
+    }
+
+    // the metadata clients are built from the service configurations
+    private void invalidateMetadataClientsOfService(Long serviceId) {
+        if (metadataClients != null && serviceId != null) {
+            Service service = getService(serviceId);
+            if (service != null) {
+                invalidateMetadataClients(service.getClusterId());
+            }
+        }
+    }
 }
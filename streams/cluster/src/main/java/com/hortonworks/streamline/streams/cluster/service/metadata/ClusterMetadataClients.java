@@ -0,0 +1,163 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.cluster.service.metadata;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
+import com.hortonworks.streamline.streams.cluster.service.metadata.common.HostPort;
+import com.hortonworks.streamline.streams.cluster.service.metadata.common.Tables;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point for reading cluster metadata from the Kafka, HBase, Hive and HDFS services of a cluster.
+ * <p>
+ * The underlying {@link KafkaMetadataService}, {@link HBaseMetadataService} and {@link HiveMetadataService} instances are
+ * kept in a {@link MetadataClientPool} per service, so that their connections are reused across requests and closed after
+ * being idle for a while. Results are kept in a {@link MetadataCache} for a short time; {@link #refresh(Long)} drops the
+ * cached results of a cluster and {@link #invalidate(Long)} also closes its connections, e.g. when the cluster is
+ * reimported or removed.
+ */
+public class ClusterMetadataClients implements AutoCloseable {
+    public static final long DEFAULT_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+    public static final int DEFAULT_MAX_IDLE_PER_CLUSTER = 2;
+
+    private final EnvironmentService environmentService;
+    private final MetadataClientPool<KafkaMetadataService> kafkaClients;
+    private final MetadataClientPool<HBaseMetadataService> hbaseClients;
+    private final MetadataClientPool<HiveMetadataService> hiveClients;
+    private final MetadataCache cache;
+    private final ScheduledExecutorService evictor;
+
+    public ClusterMetadataClients(EnvironmentService environmentService) {
+        this(environmentService, DEFAULT_CACHE_TTL_MS, DEFAULT_IDLE_TIMEOUT_MS, DEFAULT_MAX_IDLE_PER_CLUSTER);
+    }
+
+    public ClusterMetadataClients(EnvironmentService environmentService, long cacheTtlMs, long idleTimeoutMs,
+                                  int maxIdlePerCluster) {
+        this.environmentService = environmentService;
+        this.kafkaClients = new MetadataClientPool<>("kafka",
+                clusterId -> KafkaMetadataService.newInstance(environmentService, clusterId), maxIdlePerCluster, idleTimeoutMs);
+        this.hbaseClients = new MetadataClientPool<>("hbase",
+                clusterId -> HBaseMetadataService.newInstance(environmentService, clusterId), maxIdlePerCluster, idleTimeoutMs);
+        this.hiveClients = new MetadataClientPool<>("hive",
+                clusterId -> HiveMetadataService.newInstance(environmentService, clusterId), maxIdlePerCluster, idleTimeoutMs);
+        this.cache = new MetadataCache(cacheTtlMs);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("metadata-client-evictor-%d").setDaemon(true).build());
+        long evictionPeriodMs = Math.max(1000L, idleTimeoutMs / 2);
+        this.evictor.scheduleWithFixedDelay(this::evictIdle, evictionPeriodMs, evictionPeriodMs, TimeUnit.MILLISECONDS);
+    }
+
+    // === Kafka
+
+    public KafkaMetadataService.Topics getKafkaTopics(Long clusterId) throws Exception {
+        return cache.get(clusterId, "kafka.topics",
+                () -> kafkaClients.call(clusterId, KafkaMetadataService::getTopicsFromZk));
+    }
+
+    public KafkaMetadataService.BrokersInfo<HostPort> getKafkaBrokerHostPorts(Long clusterId) throws Exception {
+        return cache.get(clusterId, "kafka.brokers",
+                () -> kafkaClients.call(clusterId, kafka -> kafka.getBrokerHostPortFromStreamsJson(clusterId)));
+    }
+
+    public String getKafkaProtocol(Long clusterId) throws Exception {
+        return cache.get(clusterId, "kafka.protocol",
+                () -> kafkaClients.call(clusterId, kafka -> kafka.getProtocolFromStreamsJson(clusterId)));
+    }
+
+    public KafkaMetadataService.KafkaZkConnection getKafkaZkConnection(Long clusterId) throws Exception {
+        return cache.get(clusterId, "kafka.zkConnection",
+                () -> kafkaClients.call(clusterId, KafkaMetadataService::getKafkaZkConnection));
+    }
+
+    // === HBase
+
+    public HBaseMetadataService.Namespaces getHBaseNamespaces(Long clusterId) throws Exception {
+        return cache.get(clusterId, "hbase.namespaces",
+                () -> hbaseClients.call(clusterId, HBaseMetadataService::getHBaseNamespaces));
+    }
+
+    public Tables getHBaseTables(Long clusterId) throws Exception {
+        return cache.get(clusterId, "hbase.tables",
+                () -> hbaseClients.call(clusterId, HBaseMetadataService::getHBaseTables));
+    }
+
+    public Tables getHBaseTables(Long clusterId, String namespace) throws Exception {
+        return cache.get(clusterId, "hbase.tables." + namespace,
+                () -> hbaseClients.call(clusterId, hbase -> hbase.getHBaseTables(namespace)));
+    }
+
+    // === Hive
+
+    public HiveMetadataService.Databases getHiveDatabases(Long clusterId) throws Exception {
+        return cache.get(clusterId, "hive.databases",
+                () -> hiveClients.call(clusterId, HiveMetadataService::getHiveDatabases));
+    }
+
+    public Tables getHiveTables(Long clusterId, String dbName) throws Exception {
+        return cache.get(clusterId, "hive.tables." + dbName,
+                () -> hiveClients.call(clusterId, hive -> hive.getHiveTables(dbName)));
+    }
+
+    // === HDFS
+
+    public String getHdfsDefaultFsUrl(Long clusterId) throws Exception {
+        // HDFSMetadataService holds no connection, only the configuration which is what is worth caching
+        return cache.get(clusterId, "hdfs.defaultFs",
+                () -> HDFSMetadataService.newInstance(environmentService, clusterId).getDefaultFsUrl());
+    }
+
+    /**
+     * Drops the cached metadata of the cluster so that it is read again on the next request.
+     */
+    public void refresh(Long clusterId) {
+        cache.invalidate(clusterId);
+    }
+
+    /**
+     * Drops the cached metadata of the cluster and closes its idle connections. Connections in use are closed once released.
+     */
+    public void invalidate(Long clusterId) {
+        cache.invalidate(clusterId);
+        kafkaClients.invalidate(clusterId);
+        hbaseClients.invalidate(clusterId);
+        hiveClients.invalidate(clusterId);
+    }
+
+    void evictIdle() {
+        kafkaClients.evictIdle();
+        hbaseClients.evictIdle();
+        hiveClients.evictIdle();
+    }
+
+    // package protected useful for unit tests
+    MetadataClientPool<KafkaMetadataService> getKafkaClients() {
+        return kafkaClients;
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        cache.invalidateAll();
+        kafkaClients.close();
+        hbaseClients.close();
+        hiveClients.close();
+    }
+}
@@ -0,0 +1,101 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.cluster.service.metadata;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches cluster metadata (topics, brokers, tables, namespaces, ...) for a fixed time after it is loaded. Concurrent
+ * lookups of the same entry share a single load, and the entries of a cluster can be dropped explicitly to force a refresh.
+ */
+public class MetadataCache {
+    private final Cache<Key, Optional<Object>> cache;
+
+    public MetadataCache(long ttlMs) {
+        this(ttlMs, Ticker.systemTicker());
+    }
+
+    // package protected useful for unit tests
+    MetadataCache(long ttlMs, Ticker ticker) {
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Returns the cached value of the entry, loading it with the given loader if it is missing or expired. Exceptions
+     * thrown by the loader are rethrown as is and nothing is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Long clusterId, String entry, Callable<V> loader) throws Exception {
+        try {
+            return (V) cache.get(new Key(clusterId, entry), () -> Optional.<Object>ofNullable(loader.call())).orElse(null);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops all the entries of the cluster.
+     */
+    public void invalidate(Long clusterId) {
+        cache.asMap().keySet().removeIf(key -> key.clusterId.equals(clusterId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static final class Key {
+        private final Long clusterId;
+        private final String entry;
+
+        Key(Long clusterId, String entry) {
+            this.clusterId = clusterId;
+            this.entry = entry;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return clusterId.equals(key.clusterId) && entry.equals(key.entry);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clusterId, entry);
+        }
+    }
+}
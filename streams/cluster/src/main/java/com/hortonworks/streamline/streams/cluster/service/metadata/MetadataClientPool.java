@@ -0,0 +1,207 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.cluster.service.metadata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps metadata clients (zookeeper, HBase admin, Hive metastore connections) open across requests, keyed by cluster id.
+ * <p>
+ * A client is used by one caller at a time. Callers go through {@link #call(Long, ClientCall)}: an idle client of the
+ * cluster is taken, or a new one is created, and it is given back to the pool once the call returns. A client whose call
+ * throws is closed instead, so a broken connection is never handed out again. Clients idle for longer than the idle timeout
+ * are closed by {@link #evictIdle()}.
+ */
+public class MetadataClientPool<T extends AutoCloseable> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(MetadataClientPool.class);
+
+    /**
+     * Creates a new client connected to the given cluster.
+     */
+    public interface ClientFactory<T> {
+        T create(Long clusterId) throws Exception;
+    }
+
+    /**
+     * Does a unit of work with a client borrowed from the pool.
+     */
+    public interface ClientCall<T, R> {
+        R call(T client) throws Exception;
+    }
+
+    private final String name;
+    private final ClientFactory<T> factory;
+    private final int maxIdlePerCluster;
+    private final long idleTimeoutNanos;
+    private final ConcurrentMap<Long, Deque<PooledClient<T>>> idleClients = new ConcurrentHashMap<>();
+    // bumped by invalidate() so that clients created before it are closed rather than returned to the pool
+    private final ConcurrentMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public MetadataClientPool(String name, ClientFactory<T> factory, int maxIdlePerCluster, long idleTimeoutMs) {
+        if (maxIdlePerCluster < 0) {
+            throw new IllegalArgumentException("maxIdlePerCluster must be >= 0");
+        }
+        if (idleTimeoutMs < 0) {
+            throw new IllegalArgumentException("idleTimeoutMs must be >= 0");
+        }
+        this.name = name;
+        this.factory = factory;
+        this.maxIdlePerCluster = maxIdlePerCluster;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+    }
+
+    public <R> R call(Long clusterId, ClientCall<T, R> call) throws Exception {
+        if (closed) {
+            throw new IllegalStateException("Metadata client pool " + name + " is closed");
+        }
+        PooledClient<T> pooled = borrow(clusterId);
+        boolean succeeded = false;
+        try {
+            R result = call.call(pooled.client);
+            succeeded = true;
+            return result;
+        } finally {
+            if (succeeded) {
+                release(clusterId, pooled);
+            } else {
+                closeQuietly(pooled);
+            }
+        }
+    }
+
+    /**
+     * Closes the idle clients of the cluster. Clients in use are closed when they are given back.
+     */
+    public void invalidate(Long clusterId) {
+        generation(clusterId).incrementAndGet();
+        Deque<PooledClient<T>> idle = idleClients.get(clusterId);
+        if (idle != null) {
+            drain(idle);
+        }
+    }
+
+    /**
+     * Closes the clients that have not been used for longer than the idle timeout.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Deque<PooledClient<T>> idle : idleClients.values()) {
+            synchronized (idle) {
+                // most recently used clients are at the head, so the expired ones are at the tail
+                for (Iterator<PooledClient<T>> it = idle.descendingIterator(); it.hasNext(); ) {
+                    PooledClient<T> pooled = it.next();
+                    if (now - pooled.lastUsedNanos < idleTimeoutNanos) {
+                        break;
+                    }
+                    it.remove();
+                    closeQuietly(pooled);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of idle clients kept for the cluster
+     */
+    public int idleCount(Long clusterId) {
+        Deque<PooledClient<T>> idle = idleClients.get(clusterId);
+        if (idle == null) {
+            return 0;
+        }
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Deque<PooledClient<T>> idle : idleClients.values()) {
+            drain(idle);
+        }
+    }
+
+    private PooledClient<T> borrow(Long clusterId) throws Exception {
+        long generation = generation(clusterId).get();
+        Deque<PooledClient<T>> idle = idleClients.get(clusterId);
+        if (idle != null) {
+            PooledClient<T> pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled != null) {
+                return pooled;
+            }
+        }
+        LOG.debug("Opening {} metadata client for cluster {}", name, clusterId);
+        return new PooledClient<>(factory.create(clusterId), generation);
+    }
+
+    private void release(Long clusterId, PooledClient<T> pooled) {
+        Deque<PooledClient<T>> idle = idleClients.computeIfAbsent(clusterId, id -> new ArrayDeque<>());
+        synchronized (idle) {
+            // checked under the lock so that a concurrent invalidate() either sees this client or makes it stale
+            if (!closed && pooled.generation == generation(clusterId).get() && idle.size() < maxIdlePerCluster) {
+                pooled.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(pooled);
+                return;
+            }
+        }
+        closeQuietly(pooled);
+    }
+
+    private AtomicLong generation(Long clusterId) {
+        return generations.computeIfAbsent(clusterId, id -> new AtomicLong());
+    }
+
+    private void drain(Deque<PooledClient<T>> idle) {
+        synchronized (idle) {
+            PooledClient<T> pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                closeQuietly(pooled);
+            }
+        }
+    }
+
+    private void closeQuietly(PooledClient<T> pooled) {
+        try {
+            pooled.client.close();
+        } catch (Exception e) {
+            LOG.warn("Error closing {} metadata client", name, e);
+        }
+    }
+
+    private static class PooledClient<T> {
+        private final T client;
+        private final long generation;
+        private long lastUsedNanos;
+
+        PooledClient(T client, long generation) {
+            this.client = client;
+            this.generation = generation;
+        }
+    }
+}
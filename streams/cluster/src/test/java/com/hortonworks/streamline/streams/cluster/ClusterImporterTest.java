@@ -0,0 +1,205 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.cluster;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.hortonworks.streamline.storage.impl.memory.InMemoryStorageManager;
+import com.hortonworks.streamline.streams.catalog.Cluster;
+import com.hortonworks.streamline.streams.catalog.Component;
+import com.hortonworks.streamline.streams.catalog.Service;
+import com.hortonworks.streamline.streams.catalog.ServiceConfiguration;
+import com.hortonworks.streamline.streams.cluster.discovery.ambari.AmbariServiceNodeDiscoverer;
+import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Imports a cluster from a stubbed Ambari serving recorded responses.
+ */
+public class ClusterImporterTest {
+    private static final int AMBARI_PORT = 18090;
+    private static final String API_PATH = "/api/v1/clusters/c1";
+    private static final String API_ROOT_URL = "http://localhost:" + AMBARI_PORT + API_PATH;
+    private static final String ZOO_CFG_VERSION2_PATH = API_PATH + "/configurations?type=zoo.cfg&tag=version2";
+    private static final String ZOO_CFG_VERSION3_PATH = API_PATH + "/configurations?type=zoo.cfg&tag=version3";
+    private static final String ZOOKEEPER_ENV_PATH = API_PATH + "/configurations?type=zookeeper-env&tag=version1";
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(AMBARI_PORT);
+
+    private EnvironmentService environmentService;
+    private ClusterImporter clusterImporter;
+    private Cluster cluster;
+
+    @Before
+    public void setUp() throws Exception {
+        environmentService = new EnvironmentService(new InMemoryStorageManager());
+        clusterImporter = new ClusterImporter(environmentService);
+        cluster = new Cluster();
+        cluster.setId(1L);
+        cluster.setName("c1");
+
+        stubAmbari(API_PATH + "/services", "services.json");
+        stubAmbari(API_PATH + "/services/ZOOKEEPER", "service-zookeeper.json");
+        stubAmbari(API_PATH + "/services/ZOOKEEPER/components/ZOOKEEPER_SERVER", "component-zookeeper-server.json");
+        stubAmbari(API_PATH + "/configurations", "configurations.json");
+        stubAmbari(ZOO_CFG_VERSION2_PATH, "zoo.cfg-version2.json");
+        stubAmbari(ZOO_CFG_VERSION3_PATH, "zoo.cfg-version3.json");
+        stubAmbari(ZOOKEEPER_ENV_PATH, "zookeeper-env-version1.json");
+    }
+
+    @Test
+    public void testImportCluster() throws Exception {
+        ClusterImporter.ImportStats stats = importCluster();
+
+        assertEquals(1, stats.getServicesAdded());
+        assertEquals(2, stats.getConfigurationsFetched());
+        assertEquals(0, stats.getConfigurationsUnchanged());
+        assertEquals(2, stats.getConfigurationsWritten());
+        assertEquals(1, stats.getComponentsWritten());
+
+        Service service = getOnlyService();
+        assertEquals("ZOOKEEPER", service.getName());
+
+        ServiceConfiguration zooCfg = environmentService.getServiceConfigurationByName(service.getId(), "zoo.cfg");
+        assertEquals(Long.valueOf(2L), zooCfg.getVersion());
+        assertEquals("version2", zooCfg.getTag());
+        assertEquals("2181", zooCfg.getConfigurationMap().get("clientPort"));
+
+        Component component = environmentService.getComponentByName(service.getId(), "ZOOKEEPER_SERVER");
+        assertEquals(Arrays.asList("zk1.example.com", "zk2.example.com"), component.getHosts());
+        assertEquals(Integer.valueOf(2181), component.getPort());
+    }
+
+    @Test
+    public void testReimportUnchangedClusterFetchesNoConfiguration() throws Exception {
+        importCluster();
+        Map<String, Long> idsBefore = snapshotIds();
+
+        ClusterImporter.ImportStats stats = importCluster();
+
+        assertEquals(0, stats.getServicesAdded());
+        assertEquals(0, stats.getServicesRemoved());
+        assertEquals(0, stats.getConfigurationsFetched());
+        assertEquals(2, stats.getConfigurationsUnchanged());
+        assertEquals(0, stats.getConfigurationsWritten());
+        assertEquals(0, stats.getComponentsWritten());
+        assertEquals(idsBefore, snapshotIds());
+
+        // the properties are only fetched by the first import
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo(ZOO_CFG_VERSION2_PATH)));
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo(ZOOKEEPER_ENV_PATH)));
+    }
+
+    @Test
+    public void testReimportFetchesOnlyChangedConfiguration() throws Exception {
+        importCluster();
+        Map<String, Long> idsBefore = snapshotIds();
+        stubAmbari(API_PATH + "/configurations", "configurations-zoo-cfg-changed.json");
+
+        ClusterImporter.ImportStats stats = importCluster();
+
+        assertEquals(1, stats.getConfigurationsFetched());
+        assertEquals(1, stats.getConfigurationsUnchanged());
+        assertEquals(1, stats.getConfigurationsWritten());
+        assertEquals(1, stats.getComponentsWritten());
+        assertEquals(idsBefore, snapshotIds());
+
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo(ZOO_CFG_VERSION3_PATH)));
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo(ZOOKEEPER_ENV_PATH)));
+
+        Service service = getOnlyService();
+        ServiceConfiguration zooCfg = environmentService.getServiceConfigurationByName(service.getId(), "zoo.cfg");
+        assertEquals(Long.valueOf(3L), zooCfg.getVersion());
+        assertEquals("version3", zooCfg.getTag());
+
+        // the port of the component is taken from the fetched configuration
+        Component component = environmentService.getComponentByName(service.getId(), "ZOOKEEPER_SERVER");
+        assertEquals(Integer.valueOf(2182), component.getPort());
+    }
+
+    @Test
+    public void testReimportRemovesServiceNoLongerAvailable() throws Exception {
+        importCluster();
+        Service service = getOnlyService();
+        stubAmbari(API_PATH + "/services", "services-without-zookeeper.json");
+
+        ClusterImporter.ImportStats stats = importCluster();
+
+        assertEquals(1, stats.getServicesRemoved());
+        assertEquals(2, stats.getConfigurationsRemoved());
+        assertEquals(1, stats.getComponentsRemoved());
+        assertTrue(environmentService.listServices(cluster.getId()).isEmpty());
+        assertTrue(environmentService.listServiceConfigurations(service.getId()).isEmpty());
+        assertTrue(environmentService.listComponents(service.getId()).isEmpty());
+    }
+
+    private ClusterImporter.ImportStats importCluster() throws Exception {
+        // a discoverer is created per import, as ClusterCatalogResource does
+        AmbariServiceNodeDiscoverer discoverer = new AmbariServiceNodeDiscoverer(API_ROOT_URL, "admin", "admin");
+        discoverer.init(null);
+        return clusterImporter.importServices(discoverer, cluster);
+    }
+
+    private Service getOnlyService() {
+        Collection<Service> services = environmentService.listServices(cluster.getId());
+        assertEquals(1, services.size());
+        return services.iterator().next();
+    }
+
+    private Map<String, Long> snapshotIds() {
+        Map<String, Long> ids = new HashMap<>();
+        for (Service service : environmentService.listServices(cluster.getId())) {
+            ids.put("service:" + service.getName(), service.getId());
+            for (ServiceConfiguration configuration : environmentService.listServiceConfigurations(service.getId())) {
+                ids.put("configuration:" + configuration.getName(), configuration.getId());
+            }
+            for (Component component : environmentService.listComponents(service.getId())) {
+                ids.put("component:" + component.getName(), component.getId());
+            }
+        }
+        return ids;
+    }
+
+    private void stubAmbari(String url, String resource) throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo(url))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "text/plain")
+                        .withBody(readResource(resource))));
+    }
+
+    private String readResource(String resource) throws IOException {
+        return IOUtils.toString(getClass().getClassLoader().getResourceAsStream("ambari/" + resource),
+                StandardCharsets.UTF_8);
+    }
+}
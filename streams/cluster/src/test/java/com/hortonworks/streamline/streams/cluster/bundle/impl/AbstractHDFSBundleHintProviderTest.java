@@ -19,6 +19,7 @@ import mockit.Expectations;
 import mockit.Mocked;
 import mockit.integration.junit4.JMockit;
 import com.hortonworks.streamline.streams.catalog.Cluster;
+import com.hortonworks.streamline.storage.StorageManager;
 import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.HDFSMetadataService;
 import com.hortonworks.streamline.streams.cluster.discovery.ambari.ServiceConfigurations;
@@ -43,14 +44,14 @@ public class AbstractHDFSBundleHintProviderTest {
     private TestHDFSBundleHintProvider provider = new TestHDFSBundleHintProvider();
 
     @Mocked
-    private EnvironmentService environmentService;
+    private StorageManager dao;
 
     @Mocked
     private HDFSMetadataService hdfsMetadataService;
 
     @Before
     public void setUp() throws Exception {
-        provider.init(environmentService);
+        provider.init(new EnvironmentService(dao));
     }
 
     @Test
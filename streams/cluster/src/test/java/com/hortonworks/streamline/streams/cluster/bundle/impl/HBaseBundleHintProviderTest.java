@@ -21,6 +21,7 @@ import mockit.Mocked;
 import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import com.hortonworks.streamline.streams.catalog.Cluster;
+import com.hortonworks.streamline.storage.StorageManager;
 import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.HBaseMetadataService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.common.Tables;
@@ -39,14 +40,14 @@ public class HBaseBundleHintProviderTest {
     private HBaseBundleHintProvider provider = new HBaseBundleHintProvider();
 
     @Mocked
-    private EnvironmentService environmentService;
+    private StorageManager dao;
 
     @Mocked
     private HBaseMetadataService hbaseMetadataService;
 
     @Before
     public void setUp() throws Exception {
-        provider.init(environmentService);
+        provider.init(new EnvironmentService(dao));
     }
 
     @Test
@@ -20,14 +20,17 @@ import mockit.Expectations;
 import mockit.Mocked;
 import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
+import com.hortonworks.streamline.storage.StorageManager;
 import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.exception.ServiceNotFoundException;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
+import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.KafkaMetadataService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.ZookeeperMetadataService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.common.HostPort;
 import com.hortonworks.streamline.streams.cluster.discovery.ambari.ServiceConfigurations;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -45,6 +48,14 @@ public class KafkaBundleHintProviderTest {
     @Mocked
     private KafkaMetadataService kafkaMetadataService;
 
+    @Mocked
+    private StorageManager dao;
+
+    @Before
+    public void setUp() throws Exception {
+        provider.init(new EnvironmentService(dao));
+    }
+
     @Mocked
     private ZookeeperMetadataService zookeeperMetadataService;
 
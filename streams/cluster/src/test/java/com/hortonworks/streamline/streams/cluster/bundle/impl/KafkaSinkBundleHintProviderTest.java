@@ -20,12 +20,15 @@ import mockit.Expectations;
 import mockit.Mocked;
 import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
+import com.hortonworks.streamline.storage.StorageManager;
 import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
+import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.KafkaMetadataService;
 import com.hortonworks.streamline.streams.cluster.service.metadata.common.HostPort;
 import com.hortonworks.streamline.streams.cluster.discovery.ambari.ServiceConfigurations;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -42,6 +45,14 @@ public class KafkaSinkBundleHintProviderTest {
     @Mocked
     private KafkaMetadataService kafkaMetadataService;
 
+    @Mocked
+    private StorageManager dao;
+
+    @Before
+    public void setUp() throws Exception {
+        provider.init(new EnvironmentService(dao));
+    }
+
     @Test
     public void getHintsOnCluster() throws Exception {
         List<String> topics = Lists.newArrayList("test1", "test2", "test3");
@@ -0,0 +1,136 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.cluster.service.metadata;
+
+import com.google.common.collect.Sets;
+import com.hortonworks.streamline.streams.catalog.ServiceConfiguration;
+import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RunWith(JMockit.class)
+public class ClusterMetadataClientsTest {
+    private static final Long CLUSTER_ID = 1L;
+    private static final Long KAFKA_SERVICE_ID = 2L;
+    private static final String TOPICS_PATH = "/" + KafkaMetadataService.KAFKA_TOPICS_ZK_RELATIVE_PATH;
+
+    @Injectable
+    private EnvironmentService environmentService;
+
+    private TestingServer zookeeper;
+    private ZookeeperClient zkCli;
+
+    @Before
+    public void setUp() throws Exception {
+        zookeeper = new TestingServer();
+        zkCli = ZookeeperClient.newInstance(zookeeper.getConnectString());
+        zkCli.start();
+
+        final ServiceConfiguration brokerConfig = new ServiceConfiguration();
+        brokerConfig.setConfiguration("{\"" + KafkaMetadataService.KAFKA_ZK_CONNECT_PROP + "\":\"" + zookeeper.getConnectString() + "\"}");
+        new Expectations() {{
+            environmentService.getServiceIdByName(CLUSTER_ID, KafkaMetadataService.STREAMS_JSON_SCHEMA_SERVICE_KAFKA);
+            result = KAFKA_SERVICE_ID; minTimes = 0;
+            environmentService.getServiceConfigurationByName(KAFKA_SERVICE_ID, KafkaMetadataService.STREAMS_JSON_SCHEMA_CONFIG_KAFKA_BROKER);
+            result = brokerConfig; minTimes = 0;
+        }};
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        zkCli.close();
+        zookeeper.close();
+    }
+
+    @Test
+    public void testKafkaTopicsAreCachedUntilRefresh() throws Exception {
+        zkCli.createPath(TOPICS_PATH + "/topic1");
+        try (ClusterMetadataClients metadataClients = new ClusterMetadataClients(environmentService)) {
+            Assert.assertEquals(Sets.newHashSet("topic1"), topics(metadataClients));
+
+            zkCli.createPath(TOPICS_PATH + "/topic2");
+            Assert.assertEquals(Sets.newHashSet("topic1"), topics(metadataClients));
+
+            metadataClients.refresh(CLUSTER_ID);
+            Assert.assertEquals(Sets.newHashSet("topic1", "topic2"), topics(metadataClients));
+        }
+    }
+
+    @Test
+    public void testKafkaClientIsReusedAcrossRequests() throws Exception {
+        zkCli.createPath(TOPICS_PATH + "/topic1");
+        try (ClusterMetadataClients metadataClients = new ClusterMetadataClients(environmentService)) {
+            for (int i = 0; i < 3; i++) {
+                metadataClients.refresh(CLUSTER_ID);
+                Assert.assertEquals(Sets.newHashSet("topic1"), topics(metadataClients));
+            }
+            Assert.assertEquals(1, metadataClients.getKafkaClients().idleCount(CLUSTER_ID));
+        }
+
+        new Verifications() {{
+            // the zookeeper connection string is only looked up when the client is created
+            environmentService.getServiceConfigurationByName(KAFKA_SERVICE_ID, anyString); times = 1;
+        }};
+    }
+
+    @Test
+    public void testIdleAndInvalidatedClientsAreClosed() throws Exception {
+        zkCli.createPath(TOPICS_PATH + "/topic1");
+        try (ClusterMetadataClients metadataClients = new ClusterMetadataClients(environmentService,
+                ClusterMetadataClients.DEFAULT_CACHE_TTL_MS, 0, ClusterMetadataClients.DEFAULT_MAX_IDLE_PER_CLUSTER)) {
+            topics(metadataClients);
+            Assert.assertEquals(1, metadataClients.getKafkaClients().idleCount(CLUSTER_ID));
+            metadataClients.evictIdle();
+            Assert.assertEquals(0, metadataClients.getKafkaClients().idleCount(CLUSTER_ID));
+
+            metadataClients.refresh(CLUSTER_ID);
+            topics(metadataClients);
+            Assert.assertEquals(1, metadataClients.getKafkaClients().idleCount(CLUSTER_ID));
+            metadataClients.invalidate(CLUSTER_ID);
+            Assert.assertEquals(0, metadataClients.getKafkaClients().idleCount(CLUSTER_ID));
+        }
+    }
+
+    @Test
+    public void testFailedCallDiscardsClient() throws Exception {
+        try (ClusterMetadataClients metadataClients = new ClusterMetadataClients(environmentService)) {
+            try {
+                metadataClients.getKafkaClients().call(CLUSTER_ID, kafka -> {
+                    throw new IllegalStateException("broken connection");
+                });
+                Assert.fail("Expected the failure of the call to be propagated");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            Assert.assertEquals(0, metadataClients.getKafkaClients().idleCount(CLUSTER_ID));
+        }
+    }
+
+    private Set<String> topics(ClusterMetadataClients metadataClients) throws Exception {
+        return new HashSet<>(metadataClients.getKafkaTopics(CLUSTER_ID).getTopics());
+    }
+}
@@ -0,0 +1,110 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.common;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the ids of the {@link com.hortonworks.streamline.streams.StreamlineEvent}s created in this process.
+ * <p>
+ * Implementations must be thread safe and should return ids unique across the workers of a topology. The built-in
+ * generators are listed in {@link Type}; a custom one can be used by configuring its class name, see {@link EventIds}.
+ */
+public interface EventIdGenerator {
+
+    String nextId();
+
+    enum Type {
+        /**
+         * Random (version 4) UUIDs. Each id draws from a shared {@link SecureRandom}, which contends across threads.
+         */
+        UUID {
+            @Override
+            public EventIdGenerator create() {
+                return new RandomUuid();
+            }
+        },
+        /**
+         * 128 bit ids formatted as UUIDs whose high bits are the creation time in milliseconds followed by a sequence
+         * number, so that ids sort by creation time. The low bits are random per process.
+         */
+        TIME_ORDERED {
+            @Override
+            public EventIdGenerator create() {
+                return new TimeOrdered();
+            }
+        },
+        /**
+         * A random prefix drawn once per process followed by a counter. Cheapest, but the ids carry no time.
+         */
+        COUNTER {
+            @Override
+            public EventIdGenerator create() {
+                return new WorkerCounter();
+            }
+        };
+
+        public abstract EventIdGenerator create();
+    }
+
+    class RandomUuid implements EventIdGenerator {
+        @Override
+        public String nextId() {
+            return java.util.UUID.randomUUID().toString();
+        }
+    }
+
+    class TimeOrdered implements EventIdGenerator {
+        private static final int SEQUENCE_BITS = 16;
+
+        // millis << SEQUENCE_BITS | sequence of the last id, only ever increases
+        private final AtomicLong last = new AtomicLong();
+        private final long node;
+
+        public TimeOrdered() {
+            // variant bits as in RFC 4122 so that the ids are valid UUIDs
+            node = (new SecureRandom().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        }
+
+        @Override
+        public String nextId() {
+            long now = System.currentTimeMillis() << SEQUENCE_BITS;
+            long prev;
+            long next;
+            do {
+                prev = last.get();
+                // when the clock goes back or the sequence of this millisecond is exhausted, keep counting from prev
+                next = Math.max(now, prev + 1);
+            } while (!last.compareAndSet(prev, next));
+            return new java.util.UUID(next, node).toString();
+        }
+    }
+
+    class WorkerCounter implements EventIdGenerator {
+        private final String prefix;
+        private final AtomicLong counter = new AtomicLong();
+
+        public WorkerCounter() {
+            prefix = Long.toHexString(new SecureRandom().nextLong()) + "-";
+        }
+
+        @Override
+        public String nextId() {
+            return prefix + Long.toHexString(counter.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.common;
+
+import java.util.Map;
+
+/**
+ * Holds the {@link EventIdGenerator} used for the ids of the events created in this process (a worker, for storm), which
+ * generates random UUIDs unless configured otherwise with {@link #ID_GENERATOR}.
+ */
+public final class EventIds {
+    /**
+     * Config key for the event id generator: the name of one of the {@link EventIdGenerator.Type}s or the fully qualified
+     * class name of an {@link EventIdGenerator} having a no-arg constructor.
+     */
+    public static final String ID_GENERATOR = "streamline.event.id.generator";
+
+    private static volatile EventIdGenerator generator = EventIdGenerator.Type.UUID.create();
+    private static volatile String configured = EventIdGenerator.Type.UUID.name();
+
+    private EventIds() {
+    }
+
+    public static String next() {
+        return generator.nextId();
+    }
+
+    public static EventIdGenerator getGenerator() {
+        return generator;
+    }
+
+    public static void setGenerator(EventIdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("idGenerator can not be null");
+        }
+        generator = idGenerator;
+        configured = null;
+    }
+
+    /**
+     * Sets the generator configured with {@link #ID_GENERATOR} in the given config, if any. Configuring the generator
+     * already in use is a no-op, so that it can be called by every task of a worker.
+     */
+    public static synchronized void configure(Map<?, ?> conf) {
+        Object value = conf != null ? conf.get(ID_GENERATOR) : null;
+        if (value == null || value.toString().equals(configured)) {
+            return;
+        }
+        String name = value.toString();
+        generator = create(name);
+        configured = name;
+    }
+
+    static EventIdGenerator create(String name) {
+        for (EventIdGenerator.Type type : EventIdGenerator.Type.values()) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type.create();
+            }
+        }
+        try {
+            return Class.forName(name, true, Thread.currentThread().getContextClassLoader())
+                    .asSubclass(EventIdGenerator.class).newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Invalid event id generator: " + name, e);
+        }
+    }
+}
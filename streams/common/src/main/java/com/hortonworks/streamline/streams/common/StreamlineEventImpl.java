@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * A default implementation of StreamlineEvent.
@@ -52,10 +51,10 @@ public final class StreamlineEventImpl extends ForwardingMap<String, Object> imp
 
     /**
      * Creates an StreamlineEvent with given keyValues, dataSourceId
-     * and a random UUID as the id.
+     * and an id from {@link EventIds}.
      */
     public StreamlineEventImpl(Map<String, Object> keyValues, String dataSourceId) {
-        this(keyValues, dataSourceId, UUID.randomUUID().toString());
+        this(keyValues, dataSourceId, EventIds.next());
     }
 
     /**
@@ -69,7 +68,7 @@ public final class StreamlineEventImpl extends ForwardingMap<String, Object> imp
      * Creates an StreamlineEvent with given keyValues, dataSourceId and header.
      */
     public StreamlineEventImpl(Map<String, Object> keyValues, String dataSourceId, Map<String, Object> header) {
-        this(keyValues, dataSourceId, UUID.randomUUID().toString(), header, DEFAULT_SOURCE_STREAM);
+        this(keyValues, dataSourceId, EventIds.next(), header, DEFAULT_SOURCE_STREAM);
     }
 
 
@@ -92,7 +91,7 @@ public final class StreamlineEventImpl extends ForwardingMap<String, Object> imp
      * Creates an StreamlineEvent with given keyValues, dataSourceId, header and sourceStream.
      */
     public StreamlineEventImpl(Map<String, Object> keyValues, String dataSourceId, Map<String, Object> header, String sourceStream) {
-        this(keyValues, dataSourceId, UUID.randomUUID().toString(), header, sourceStream);
+        this(keyValues, dataSourceId, EventIds.next(), header, sourceStream);
     }
 
     /**
@@ -118,7 +117,7 @@ public final class StreamlineEventImpl extends ForwardingMap<String, Object> imp
         private Map<String, Object> auxiliaryFieldsAndValues;
         private String sourceStream = DEFAULT_SOURCE_STREAM;
         private String dataSourceId = "";
-        private String id = UUID.randomUUID().toString();
+        private String id = EventIds.next();
 
         private Builder() {}
 
@@ -206,6 +205,32 @@ public final class StreamlineEventImpl extends ForwardingMap<String, Object> imp
         this.delegate = ImmutableMap.copyOf(other.delegate);
     }
 
+    /*
+     * Creates a copy of 'other' with the given id, header and source stream, sharing the fields of 'other'.
+     */
+    private StreamlineEventImpl(StreamlineEventImpl other, String id, Map<String, Object> header, String sourceStream) {
+        this.header = header;
+        this.sourceStream = sourceStream;
+        this.auxiliaryFieldsAndValues = new HashMap<>(other.auxiliaryFieldsAndValues);
+        this.dataSourceId = other.dataSourceId;
+        this.id = id;
+        this.delegate = other.delegate;
+    }
+
+    /**
+     * Returns a new Streamline event with the same fields and values as this event, and the given id, header and source
+     * stream. Unlike the constructors, neither the fields nor the header are copied, so the given header must not be
+     * modified afterwards.
+     *
+     * @param id the id of the new event
+     * @param header the header of the new event
+     * @param sourceStream the source stream of the new event
+     * @return the new StreamlineEvent
+     */
+    public StreamlineEventImpl derive(String id, Map<String, Object> header, String sourceStream) {
+        return new StreamlineEventImpl(this, id, header != null ? header : new HashMap<>(), sourceStream);
+    }
+
     /*
      * Creates a copy of 'other' but with the given keyValues.
      */
@@ -282,9 +307,10 @@ public final class StreamlineEventImpl extends ForwardingMap<String, Object> imp
      */
     @Override
     public StreamlineEvent addHeaders(Map<String, Object> headers) {
-        StreamlineEventImpl result = new StreamlineEventImpl(this);
-        result.header.putAll(headers);
-        return result;
+        // the header of this event may be shared with other events, so it is copied rather than modified
+        Map<String, Object> newHeader = new HashMap<>(header);
+        newHeader.putAll(headers);
+        return new StreamlineEventImpl(this, id, newHeader, sourceStream);
     }
 
     @Override
@@ -0,0 +1,107 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventIdGeneratorTest {
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 20_000;
+
+    @Test
+    public void testTimeOrderedIdsAreUniqueAndMonotonic() throws Exception {
+        // the high bits hold the time and the sequence, they only ever increase
+        assertUniqueAndMonotonic(EventIdGenerator.Type.TIME_ORDERED.create(),
+                id -> UUID.fromString(id).getMostSignificantBits());
+    }
+
+    @Test
+    public void testTimeOrderedIdsAreValidUuids() throws Exception {
+        UUID id = UUID.fromString(EventIdGenerator.Type.TIME_ORDERED.create().nextId());
+        assertEquals(2, id.variant());
+        // the ids start with the creation time
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - millis) < 60_000);
+    }
+
+    @Test
+    public void testCounterIdsAreUniqueAndMonotonic() throws Exception {
+        assertUniqueAndMonotonic(EventIdGenerator.Type.COUNTER.create(),
+                id -> Long.parseLong(id.substring(id.indexOf('-') + 1), 16));
+    }
+
+    @Test
+    public void testGeneratorsOfDifferentProcessesDoNotCollide() throws Exception {
+        for (EventIdGenerator.Type type : EventIdGenerator.Type.values()) {
+            EventIdGenerator generator = type.create();
+            EventIdGenerator other = type.create();
+            Set<String> ids = new HashSet<>();
+            for (int i = 0; i < 1000; i++) {
+                ids.add(generator.nextId());
+                ids.add(other.nextId());
+            }
+            assertEquals(type.name(), 2000, ids.size());
+        }
+    }
+
+    /**
+     * Generates ids from several threads at once and checks that no id is repeated and that the ids of each thread
+     * come in increasing order of the given key.
+     */
+    private static void assertUniqueAndMonotonic(EventIdGenerator generator, ToLongFunction<String> key) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<List<String>>> tasks = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    List<String> ids = new ArrayList<>(IDS_PER_THREAD);
+                    for (int j = 0; j < IDS_PER_THREAD; j++) {
+                        ids.add(generator.nextId());
+                    }
+                    return ids;
+                });
+            }
+            Set<String> allIds = Collections.synchronizedSet(new HashSet<>());
+            for (Future<List<String>> future : executor.invokeAll(tasks)) {
+                long previous = Long.MIN_VALUE;
+                for (String id : future.get()) {
+                    long current = key.applyAsLong(id);
+                    assertTrue("id " + id + " is not after the previous id of its thread", current > previous);
+                    previous = current;
+                    allIds.add(id);
+                }
+            }
+            assertEquals(THREADS * IDS_PER_THREAD, allIds.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.common;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EventIdsTest {
+
+    @After
+    public void tearDown() {
+        EventIds.setGenerator(EventIdGenerator.Type.UUID.create());
+    }
+
+    @Test
+    public void testConfigureWithType() {
+        EventIds.configure(Collections.singletonMap(EventIds.ID_GENERATOR, "counter"));
+
+        assertTrue(EventIds.getGenerator() instanceof EventIdGenerator.WorkerCounter);
+    }
+
+    @Test
+    public void testConfigureWithClassName() {
+        EventIds.configure(Collections.singletonMap(EventIds.ID_GENERATOR, FixedIdGenerator.class.getName()));
+
+        assertTrue(EventIds.getGenerator() instanceof FixedIdGenerator);
+        assertEquals("fixed", EventIds.next());
+    }
+
+    @Test
+    public void testReconfiguringWithSameValueIsNoOp() {
+        EventIds.configure(Collections.singletonMap(EventIds.ID_GENERATOR, EventIdGenerator.Type.TIME_ORDERED.name()));
+        EventIdGenerator generator = EventIds.getGenerator();
+
+        // as done by every task of a worker
+        EventIds.configure(Collections.singletonMap(EventIds.ID_GENERATOR, EventIdGenerator.Type.TIME_ORDERED.name()));
+        assertSame(generator, EventIds.getGenerator());
+
+        EventIds.configure(Collections.singletonMap(EventIds.ID_GENERATOR, EventIdGenerator.Type.COUNTER.name()));
+        assertNotSame(generator, EventIds.getGenerator());
+    }
+
+    @Test
+    public void testConfigureWithoutGeneratorKeepsCurrentOne() {
+        EventIdGenerator generator = EventIds.getGenerator();
+
+        EventIds.configure(Collections.emptyMap());
+        EventIds.configure(null);
+
+        assertSame(generator, EventIds.getGenerator());
+    }
+
+    @Test
+    public void testConfigureWithInvalidGenerator() {
+        EventIdGenerator generator = EventIds.getGenerator();
+        for (String invalid : new String[] {"com.example.Missing", String.class.getName()}) {
+            try {
+                EventIds.configure(Collections.singletonMap(EventIds.ID_GENERATOR, invalid));
+                fail("Expected " + invalid + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        assertSame(generator, EventIds.getGenerator());
+    }
+
+    public static class FixedIdGenerator implements EventIdGenerator {
+        @Override
+        public String nextId() {
+            return "fixed";
+        }
+    }
+}
@@ -49,6 +49,12 @@ public final class TopologyLayoutConstants {
             "hBaseMapperImplClassName";
     public final static String JSON_KEY_WRITE_TO_WAL = "writeToWAL";
     public final static String JSON_KEY_BATCH_SIZE = "batchSize";
+    public final static String JSON_KEY_FLUSH_INTERVAL_SECS = "flushIntervalSecs";
+    public final static String JSON_KEY_COLUMN_FIELDS = "columnFields";
+    public final static String JSON_KEY_ROW_KEY_STRATEGY = "rowKeyStrategy";
+    public final static String JSON_KEY_ROW_KEY_FIELDS = "rowKeyFields";
+    public final static String JSON_KEY_SALT_BUCKETS = "saltBuckets";
+    public final static String JSON_KEY_TIMESTAMP_FIELD = "timestampField";
     public final static String JSON_KEY_FS_URL = "fsUrl";
     public final static String JSON_KEY_PATH = "path";
     public final static String JSON_KEY_PREFIX = "prefix";
@@ -69,6 +75,10 @@ public final class TopologyLayoutConstants {
     public final static String JSON_KEY_ROTATION_INTERVAL = "rotationInterval";
     public final static String JSON_KEY_ROTATION_INTERVAL_UNIT = "rotationIntervalUnit";
     public final static String JSON_KEY_ROTATION_ACTIONS = "rotationActions";
+    public final static String JSON_KEY_OUTPUT_FORMAT = "outputFormat";
+    public final static String JSON_KEY_OUTPUT_FIELDS = "outputFields";
+    public final static String JSON_KEY_ROW_GROUP_SIZE_MB = "rowGroupSizeMB";
+    public final static String JSON_KEY_COMPRESSION_CODEC = "compressionCodec";
     public final static String JSON_KEY_LINKS = "links";
     public final static String JSON_KEY_FROM = "from";
     public final static String JSON_KEY_TO = "to";
@@ -142,6 +152,8 @@ public final class TopologyLayoutConstants {
     public final static String JSON_KEY_CUSTOM_PROCESSOR_JAR_FILENAME = "jarFileName";
     public final static String JSON_KEY_CUSTOM_PROCESSOR_IMAGE_FILENAME = "imageFileName";
     public final static String JSON_KEY_CUSTOM_PROCESSOR_SUB_TYPE = "CUSTOM";
+    public final static String JSON_KEY_CUSTOM_PROCESSOR_INSTANTIATION_STRATEGY = "instantiationStrategy";
+    public final static String JSON_KEY_CUSTOM_PROCESSOR_POOL_SIZE = "poolSize";
     public final static String JSON_KEY_LOCAL_JAR_PATH = "localJarPath";
     public final static String JSON_KEY_LOCAL_JAR_PATH_TOOLTIP = "Local path on worker node to download jar.";
     // Custom processor's own config fields will be uploaded in Streamline topology components with a namespace to avoid collision with the CustomProcessorBolt's
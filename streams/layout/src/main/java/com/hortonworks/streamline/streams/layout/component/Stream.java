@@ -39,7 +39,15 @@ public class Stream implements Serializable {
         /**
          * Fields grouping
          */
-        FIELDS
+        FIELDS,
+        /**
+         * Partial key grouping, each key is split between the less loaded of two candidate tasks
+         */
+        PARTIAL_KEY,
+        /**
+         * Fields grouping on a consistent hash ring, each key is processed by exactly one task
+         */
+        CONSISTENT_HASH
     }
 
     private Stream() {
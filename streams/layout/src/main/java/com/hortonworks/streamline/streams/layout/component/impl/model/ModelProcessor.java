@@ -17,13 +17,18 @@
 package com.hortonworks.streamline.streams.layout.component.impl.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.hortonworks.streamline.common.MLModelArtifact;
 import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class ModelProcessor extends StreamlineProcessor {
     public static final String CONFIG_MODEL_NAME = "modelName";
     private String pmml;
+    private MLModelArtifact modelArtifact;
 
+    /**
+     * @return the raw PMML document, only set by topologies created before the model was shipped as an artifact
+     */
     public String getPmml() {
         return pmml;
     }
@@ -31,4 +36,12 @@ public final class ModelProcessor extends StreamlineProcessor {
     public void setPmml(String pmml) {
         this.pmml = pmml;
     }
+
+    public MLModelArtifact getModelArtifact() {
+        return modelArtifact;
+    }
+
+    public void setModelArtifact(MLModelArtifact modelArtifact) {
+        this.modelArtifact = modelArtifact;
+    }
 }
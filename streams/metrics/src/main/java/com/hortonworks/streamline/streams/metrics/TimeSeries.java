@@ -0,0 +1,328 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.metrics;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable series of data points which keeps timestamps and values as primitive arrays sorted by timestamp.
+ * <p/>
+ * Use {@link #asMap()} to hand the series to the Map based metrics model: it is a read-only view over the arrays
+ * which iterates in timestamp order, so no boxed copy of the points is kept around.
+ */
+public final class TimeSeries {
+    public static final TimeSeries EMPTY = new TimeSeries(new long[0], new double[0], 0);
+
+    private final long[] timestamps;
+    private final double[] values;
+    private final int size;
+
+    private TimeSeries(long[] timestamps, double[] values, int size) {
+        this.timestamps = timestamps;
+        this.values = values;
+        this.size = size;
+    }
+
+    public static TimeSeries fromMap(Map<Long, Double> points) {
+        if (points == null || points.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(points.size());
+        for (Map.Entry<Long, Double> point : points.entrySet()) {
+            if (point.getValue() != null) {
+                builder.add(point.getKey(), point.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Concatenates series which don't overlap and are given in timestamp order.
+     */
+    public static TimeSeries concat(List<TimeSeries> series) {
+        int total = 0;
+        TimeSeries nonEmpty = EMPTY;
+        for (TimeSeries s : series) {
+            total += s.size;
+            if (s.size > 0) {
+                nonEmpty = s;
+            }
+        }
+        if (total == nonEmpty.size) {
+            return nonEmpty;
+        }
+        long[] timestamps = new long[total];
+        double[] values = new double[total];
+        int pos = 0;
+        for (TimeSeries s : series) {
+            System.arraycopy(s.timestamps, 0, timestamps, pos, s.size);
+            System.arraycopy(s.values, 0, values, pos, s.size);
+            pos += s.size;
+        }
+        return new TimeSeries(timestamps, values, total);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long timestampAt(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    public double valueAt(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Returns the points whose timestamps are in [from, to]. The returned series shares the arrays when possible.
+     */
+    public TimeSeries slice(long from, long to) {
+        int start = lowerBound(from);
+        int end = to == Long.MAX_VALUE ? size : lowerBound(to + 1);
+        if (start >= end) {
+            return EMPTY;
+        }
+        if (start == 0 && end == size) {
+            return this;
+        }
+        return new TimeSeries(Arrays.copyOfRange(timestamps, start, end), Arrays.copyOfRange(values, start, end), end - start);
+    }
+
+    public Map<Long, Double> asMap() {
+        return new MapView();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimeSeries that = (TimeSeries) o;
+        if (size != that.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (timestamps[i] != that.timestamps[i]
+                    || Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(that.values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Long.hashCode(timestamps[i]);
+            result = 31 * result + Double.hashCode(values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSeries{" + asMap() + '}';
+    }
+
+    // index of the first point whose timestamp is equal or greater than given timestamp
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    private final class MapView extends AbstractMap<Long, Double> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Double get(Object key) {
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : null;
+        }
+
+        @Override
+        public Set<Entry<Long, Double>> entrySet() {
+            return new AbstractSet<Entry<Long, Double>>() {
+                @Override
+                public Iterator<Entry<Long, Double>> iterator() {
+                    return new Iterator<Entry<Long, Double>>() {
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Entry<Long, Double> next() {
+                            if (next >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<Long, Double> entry = new SimpleImmutableEntry<>(timestamps[next], values[next]);
+                            next++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private int indexOf(Object key) {
+            if (!(key instanceof Long)) {
+                return -1;
+            }
+            long timestamp = (Long) key;
+            int index = lowerBound(timestamp);
+            return index < size && timestamps[index] == timestamp ? index : -1;
+        }
+    }
+
+    /**
+     * Collects data points in any order. When the same timestamp is added more than once, the last value wins.
+     */
+    public static class Builder {
+        private long[] timestamps;
+        private double[] values;
+        private int size;
+        private boolean sorted = true;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            timestamps = new long[capacity];
+            values = new double[capacity];
+        }
+
+        public Builder add(long timestamp, double value) {
+            if (size == timestamps.length) {
+                int capacity = size * 2;
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            if (size > 0 && timestamps[size - 1] > timestamp) {
+                sorted = false;
+            }
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public TimeSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (!sorted) {
+                mergeSort(0, size - 1, new long[size], new double[size]);
+            }
+            // drop duplicated timestamps, keeping the value which was added last
+            int last = 0;
+            for (int i = 1; i < size; i++) {
+                if (timestamps[i] == timestamps[last]) {
+                    values[last] = values[i];
+                } else {
+                    last++;
+                    timestamps[last] = timestamps[i];
+                    values[last] = values[i];
+                }
+            }
+            int newSize = last + 1;
+            TimeSeries series = new TimeSeries(Arrays.copyOf(timestamps, newSize), Arrays.copyOf(values, newSize), newSize);
+            size = 0;
+            sorted = true;
+            return series;
+        }
+
+        // the sort has to be stable so that the value added last for a timestamp is kept while removing duplicates
+        private void mergeSort(int low, int high, long[] tmpTimestamps, double[] tmpValues) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    long ts = timestamps[i];
+                    double value = values[i];
+                    int j = i - 1;
+                    while (j >= low && timestamps[j] > ts) {
+                        timestamps[j + 1] = timestamps[j];
+                        values[j + 1] = values[j];
+                        j--;
+                    }
+                    timestamps[j + 1] = ts;
+                    values[j + 1] = value;
+                }
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            mergeSort(low, mid, tmpTimestamps, tmpValues);
+            mergeSort(mid + 1, high, tmpTimestamps, tmpValues);
+            System.arraycopy(timestamps, low, tmpTimestamps, low, high - low + 1);
+            System.arraycopy(values, low, tmpValues, low, high - low + 1);
+            int left = low;
+            int right = mid + 1;
+            for (int k = low; k <= high; k++) {
+                if (right > high || (left <= mid && tmpTimestamps[left] <= tmpTimestamps[right])) {
+                    timestamps[k] = tmpTimestamps[left];
+                    values[k] = tmpValues[left];
+                    left++;
+                } else {
+                    timestamps[k] = tmpTimestamps[right];
+                    values[k] = tmpValues[right];
+                    right++;
+                }
+            }
+        }
+    }
+}
@@ -17,6 +17,8 @@ package com.hortonworks.streamline.streams.metrics;
 
 import com.hortonworks.streamline.streams.exception.ConfigException;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -59,6 +61,35 @@ public interface TimeSeriesQuerier {
      */
     Map<Long, Double> getMetrics(String topologyName, String componentId, String metricName, AggregateFunction aggrFunction, long from, long to);
 
+    /**
+     * Query multiple metrics of a topology to time-series DB.
+     * <p/>
+     * The default implementation issues one query per metric. Implementations should override this to query
+     * all the metrics with as few requests as possible. When resolution is given, implementations which support it
+     * should let the time-series DB downsample the points so that there's at most one point per resolution.
+     *
+     * @param topologyName  topology name (not ID)
+     * @param queries       metrics to query
+     * @param from          beginning of the time period: timestamp (in milliseconds)
+     * @param to            end of the time period: timestamp (in milliseconds)
+     * @param resolution    interval between data points (in milliseconds), 0 or less to keep the stored resolution
+     * @return Map of query and data points. Queries which don't have any data point could be missing.
+     */
+    default Map<TimeSeriesQuery, TimeSeries> getMetrics(String topologyName, Collection<TimeSeriesQuery> queries,
+                                                        long from, long to, long resolution) {
+        Map<TimeSeriesQuery, TimeSeries> ret = new HashMap<>(queries.size());
+        for (TimeSeriesQuery query : queries) {
+            Map<Long, Double> points;
+            if (query.isTopologyLevel()) {
+                points = getTopologyLevelMetrics(topologyName, query.getMetricName(), query.getAggrFunction(), from, to);
+            } else {
+                points = getMetrics(topologyName, query.getComponentId(), query.getMetricName(), query.getAggrFunction(), from, to);
+            }
+            ret.put(query, TimeSeries.fromMap(points));
+        }
+        return ret;
+    }
+
     /**
      * Query metrics without modification (raw) to time-series DB.
      *
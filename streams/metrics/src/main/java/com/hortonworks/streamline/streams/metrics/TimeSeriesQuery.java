@@ -0,0 +1,84 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.metrics;
+
+import java.util.Objects;
+
+/**
+ * A metric to query as a part of a batched query, see {@link TimeSeriesQuerier#getMetrics(String, java.util.Collection, long, long, long)}.
+ * <p/>
+ * A query without component id is a topology level query, which aggregates the metric across all components.
+ */
+public final class TimeSeriesQuery {
+    private final String componentId;
+    private final String metricName;
+    private final TimeSeriesQuerier.AggregateFunction aggrFunction;
+
+    private TimeSeriesQuery(String componentId, String metricName, TimeSeriesQuerier.AggregateFunction aggrFunction) {
+        this.componentId = componentId;
+        this.metricName = Objects.requireNonNull(metricName, "metricName");
+        this.aggrFunction = Objects.requireNonNull(aggrFunction, "aggrFunction");
+    }
+
+    public static TimeSeriesQuery forTopology(String metricName, TimeSeriesQuerier.AggregateFunction aggrFunction) {
+        return new TimeSeriesQuery(null, metricName, aggrFunction);
+    }
+
+    public static TimeSeriesQuery forComponent(String componentId, String metricName,
+                                               TimeSeriesQuerier.AggregateFunction aggrFunction) {
+        return new TimeSeriesQuery(Objects.requireNonNull(componentId, "componentId"), metricName, aggrFunction);
+    }
+
+    public boolean isTopologyLevel() {
+        return componentId == null;
+    }
+
+    public String getComponentId() {
+        return componentId;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public TimeSeriesQuerier.AggregateFunction getAggrFunction() {
+        return aggrFunction;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimeSeriesQuery that = (TimeSeriesQuery) o;
+        return Objects.equals(componentId, that.componentId) &&
+                metricName.equals(that.metricName) &&
+                aggrFunction == that.aggrFunction;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(componentId, metricName, aggrFunction);
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSeriesQuery{" +
+                "componentId='" + componentId + '\'' +
+                ", metricName='" + metricName + '\'' +
+                ", aggrFunction=" + aggrFunction +
+                '}';
+    }
+}
@@ -28,6 +28,7 @@ import com.hortonworks.streamline.streams.layout.TopologyLayoutConstants;
 import com.hortonworks.streamline.streams.metrics.TimeSeriesQuerier;
 import com.hortonworks.streamline.streams.metrics.topology.TopologyMetrics;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,8 +38,15 @@ public class TopologyMetricsContainer extends NamespaceAwareContainer<TopologyMe
     public static final String COMPONENT_NAME_METRICS_COLLECTOR = ComponentPropertyPattern.METRICS_COLLECTOR.name();
     public static final String COLLECTOR_API_URL_KEY = "collectorApiUrl";
 
+    private final Map<String, String> streamlineConf;
+
     public TopologyMetricsContainer(EnvironmentService environmentService) {
+        this(environmentService, Collections.emptyMap());
+    }
+
+    public TopologyMetricsContainer(EnvironmentService environmentService, Map<String, String> streamlineConf) {
         super(environmentService);
+        this.streamlineConf = streamlineConf;
     }
 
     @Override
@@ -118,7 +126,7 @@ public class TopologyMetricsContainer extends NamespaceAwareContainer<TopologyMe
 
         assertHostAndPort(uiServer.getName(), uiHost, uiPort);
 
-        Map<String, String> conf = new HashMap<>();
+        Map<String, String> conf = new HashMap<>(streamlineConf);
         conf.put(TopologyLayoutConstants.STORM_API_ROOT_URL_KEY, buildStormRestApiRootUrl(uiHost, uiPort));
         return conf;
     }
@@ -19,6 +19,8 @@ import com.hortonworks.streamline.streams.layout.component.Component;
 import com.hortonworks.streamline.streams.layout.component.TopologyLayout;
 import com.hortonworks.streamline.streams.metrics.TimeSeriesQuerier;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -45,6 +47,20 @@ public interface TopologyTimeSeriesMetrics {
      */
     TimeSeriesComponentMetric getTopologyStats(TopologyLayout topology, long from, long to);
 
+    /**
+     * Retrieve "topology stats" on topology, downsampled to the resolution.
+     * The default implementation ignores the resolution.
+     *
+     * @param topology      topology catalog instance
+     * @param from          beginning of the time period: timestamp (in milliseconds)
+     * @param to            end of the time period: timestamp (in milliseconds)
+     * @param resolution    interval between data points (in milliseconds), 0 or less to keep the stored resolution
+     * @return Map of metric name and Map of data points which are paired to (timestamp, value).
+     */
+    default TimeSeriesComponentMetric getTopologyStats(TopologyLayout topology, long from, long to, long resolution) {
+        return getTopologyStats(topology, from, to);
+    }
+
     /**
      * Retrieve "complete latency" on source.
      *
@@ -85,6 +101,27 @@ public interface TopologyTimeSeriesMetrics {
      */
     TimeSeriesComponentMetric getComponentStats(TopologyLayout topology, Component component, long from, long to);
 
+    /**
+     * Retrieve "component stats" on multiple components, downsampled to the resolution.
+     * The default implementation ignores the resolution and retrieves stats per component; implementations are
+     * encouraged to query all the components at once.
+     *
+     * @param topology      topology catalog instance
+     * @param components    component layout instances
+     * @param from          beginning of the time period: timestamp (in milliseconds)
+     * @param to            end of the time period: timestamp (in milliseconds)
+     * @param resolution    interval between data points (in milliseconds), 0 or less to keep the stored resolution
+     * @return Map of component id and its component stats.
+     */
+    default Map<String, TimeSeriesComponentMetric> getComponentStats(TopologyLayout topology, Collection<? extends Component> components,
+                                                                     long from, long to, long resolution) {
+        Map<String, TimeSeriesComponentMetric> ret = new HashMap<>();
+        for (Component component : components) {
+            ret.put(component.getId(), getComponentStats(topology, component, from, to));
+        }
+        return ret;
+    }
+
     /**
      * Get instance of TimeSeriesQuerier.
      */
@@ -29,6 +29,9 @@ import com.hortonworks.streamline.streams.metrics.topology.TopologyTimeSeriesMet
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -40,8 +43,17 @@ public class TopologyMetricsService implements ContainingNamespaceAwareContainer
     private final TopologyMetricsContainer topologyMetricsContainer;
 
     public TopologyMetricsService(EnvironmentService environmentService) {
+        this(environmentService, Collections.emptyMap());
+    }
+
+    public TopologyMetricsService(EnvironmentService environmentService, Map<String, Object> configuration) {
         this.environmentService = environmentService;
-        this.topologyMetricsContainer = new TopologyMetricsContainer(environmentService);
+        Map<String, String> conf = new HashMap<>();
+        for (Map.Entry<String, Object> confEntry : configuration.entrySet()) {
+            Object value = confEntry.getValue();
+            conf.put(confEntry.getKey(), value == null ? null : value.toString());
+        }
+        this.topologyMetricsContainer = new TopologyMetricsContainer(environmentService, conf);
     }
 
     public Map<String, TopologyMetrics.ComponentMetric> getTopologyMetrics(Topology topology) throws IOException {
@@ -59,11 +71,26 @@ public class TopologyMetricsService implements ContainingNamespaceAwareContainer
         return topologyMetrics.getTopologyStats(CatalogToLayoutConverter.getTopologyLayout(topology), from, to);
     }
 
+    public TopologyTimeSeriesMetrics.TimeSeriesComponentMetric getTopologyStats(Topology topology, Long from, Long to, long resolution) throws IOException {
+        TopologyMetrics topologyMetrics = getTopologyMetricsInstance(topology);
+        return topologyMetrics.getTopologyStats(CatalogToLayoutConverter.getTopologyLayout(topology), from, to, resolution);
+    }
+
     public TopologyTimeSeriesMetrics.TimeSeriesComponentMetric getComponentStats(Topology topology, TopologyComponent component, Long from, Long to) throws IOException {
         TopologyMetrics topologyMetrics = getTopologyMetricsInstance(topology);
         return topologyMetrics.getComponentStats(CatalogToLayoutConverter.getTopologyLayout(topology), CatalogToLayoutConverter.getComponentLayout(component), from, to);
     }
 
+    public Map<String, TopologyTimeSeriesMetrics.TimeSeriesComponentMetric> getComponentStats(Topology topology,
+                                                                                              Collection<? extends TopologyComponent> components,
+                                                                                              Long from, Long to, long resolution) throws IOException {
+        TopologyMetrics topologyMetrics = getTopologyMetricsInstance(topology);
+        List<com.hortonworks.streamline.streams.layout.component.Component> componentLayouts = components.stream()
+                .map(CatalogToLayoutConverter::getComponentLayout)
+                .collect(toList());
+        return topologyMetrics.getComponentStats(CatalogToLayoutConverter.getTopologyLayout(topology), componentLayouts, from, to, resolution);
+    }
+
     public Map<String, Map<Long, Double>> getKafkaTopicOffsets(Topology topology, TopologyComponent component, Long from, Long to) throws IOException {
         TopologyMetrics topologyMetrics = getTopologyMetricsInstance(topology);
         return topologyMetrics.getkafkaTopicOffsets(CatalogToLayoutConverter.getTopologyLayout(topology), CatalogToLayoutConverter.getComponentLayout(component), from, to);
@@ -0,0 +1,198 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.storm.topology;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Cache of topology jars, which are the streamline storm jar with topology artifacts (e.g. cluster configuration
+ * files) added to the root of the jar.
+ * <p>
+ * Jars are content addressed: the file name is the SHA-256 of the base jar and of the name and content of every
+ * artifact, so deploying an unchanged topology reuses the jar assembled for the previous deploy. Jars are
+ * assembled in the JVM through the zip file system, which copies the compressed bytes of the existing entries
+ * of the base jar without inflating or recompressing them.
+ * <p>
+ * Jars are handed out as {@link CachedJar} leases. A jar is in use until its lease is closed, and the least
+ * recently used jars are evicted only when they are not in use, so a deploy never loses its jar to a concurrent
+ * deploy that fills up the cache.
+ */
+class ArtifactJarCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ArtifactJarCache.class);
+
+    private final Path cacheDir;
+    private final int maxCachedJars;
+    private final ConcurrentMap<Path, FileHash> baseJarHashes = new ConcurrentHashMap<>();
+    private final Map<Path, Integer> jarsInUse = new HashMap<>();
+
+    ArtifactJarCache(Path cacheDir, int maxCachedJars) {
+        this.cacheDir = cacheDir;
+        this.maxCachedJars = maxCachedJars;
+    }
+
+    /**
+     * Returns the jar which contains every entry of the base jar and the given artifacts, assembling it if
+     * it is not cached yet. The jar is not evicted until the returned lease is closed.
+     */
+    synchronized CachedJar getOrCreate(Path baseJar, List<Path> artifacts) throws IOException {
+        List<Path> sortedArtifacts = artifacts.stream()
+                .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                .collect(toList());
+
+        Hasher hasher = Hashing.sha256().newHasher().putBytes(hashBaseJar(baseJar).asBytes());
+        for (Path artifact : sortedArtifacts) {
+            hasher.putString(artifact.getFileName().toString(), StandardCharsets.UTF_8)
+                    .putByte((byte) 0)
+                    .putBytes(com.google.common.io.Files.asByteSource(artifact.toFile()).hash(Hashing.sha256()).asBytes());
+        }
+        Path cachedJar = cacheDir.resolve(hasher.hash().toString() + ".jar");
+
+        if (Files.exists(cachedJar)) {
+            LOG.debug("Reusing cached jar {} for artifacts {}", cachedJar, sortedArtifacts);
+            cachedJar.toFile().setLastModified(System.currentTimeMillis());
+            return acquire(cachedJar);
+        }
+
+        Files.createDirectories(cacheDir);
+        Path tmpJar = Files.createTempFile(cacheDir, "assembling-", ".tmp");
+        try {
+            Files.copy(baseJar, tmpJar, StandardCopyOption.REPLACE_EXISTING);
+            try (FileSystem jarFs = FileSystems.newFileSystem(tmpJar, null)) {
+                for (Path artifact : sortedArtifacts) {
+                    Files.copy(artifact, jarFs.getPath("/" + artifact.getFileName().toString()),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(tmpJar, cachedJar, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpJar);
+        }
+        LOG.debug("Added files {} to jar {}", sortedArtifacts, cachedJar);
+
+        CachedJar lease = acquire(cachedJar);
+        evict();
+        return lease;
+    }
+
+    private CachedJar acquire(Path jar) {
+        jarsInUse.merge(jar, 1, Integer::sum);
+        return new CachedJar(jar, this);
+    }
+
+    private synchronized void release(Path jar) {
+        jarsInUse.computeIfPresent(jar, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    synchronized boolean isInUse(Path jar) {
+        return jarsInUse.containsKey(jar);
+    }
+
+    private HashCode hashBaseJar(Path baseJar) throws IOException {
+        File file = baseJar.toFile();
+        FileHash fileHash = baseJarHashes.get(baseJar);
+        if (fileHash == null || fileHash.length != file.length() || fileHash.lastModified != file.lastModified()) {
+            fileHash = new FileHash(file.length(), file.lastModified(),
+                    com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()));
+            baseJarHashes.put(baseJar, fileHash);
+        }
+        return fileHash.hash;
+    }
+
+    private void evict() {
+        File[] cachedJars = cacheDir.toFile().listFiles((dir, name) -> name.endsWith(".jar"));
+        if (cachedJars == null || cachedJars.length <= maxCachedJars) {
+            return;
+        }
+        Arrays.sort(cachedJars, Comparator.comparingLong(File::lastModified));
+        int toEvict = cachedJars.length - maxCachedJars;
+        for (int i = 0; i < cachedJars.length && toEvict > 0; i++) {
+            if (jarsInUse.containsKey(cachedJars[i].toPath())) {
+                continue;
+            }
+            if (cachedJars[i].delete()) {
+                LOG.debug("Evicted cached jar {}", cachedJars[i]);
+                toEvict--;
+            }
+        }
+    }
+
+    /**
+     * A jar handed out for a deploy. The jar is kept in the cache until the lease is closed.
+     */
+    static class CachedJar implements AutoCloseable {
+        private final Path path;
+        private final ArtifactJarCache cache;
+        private boolean closed;
+
+        private CachedJar(Path path, ArtifactJarCache cache) {
+            this.path = path;
+            this.cache = cache;
+        }
+
+        /**
+         * A lease for a jar which is not managed by the cache, e.g. the base jar when there are no artifacts.
+         */
+        static CachedJar uncached(Path path) {
+            return new CachedJar(path, null);
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed && cache != null) {
+                cache.release(path);
+            }
+            closed = true;
+        }
+    }
+
+    private static class FileHash {
+        private final long length;
+        private final long lastModified;
+        private final HashCode hash;
+
+        FileHash(long length, long lastModified, HashCode hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.storm.topology;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.streamline.common.Constants;
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.exception.ProcessingException;
+import com.hortonworks.streamline.streams.layout.component.Component;
+import com.hortonworks.streamline.streams.layout.component.Edge;
+import com.hortonworks.streamline.streams.layout.component.InputComponent;
+import com.hortonworks.streamline.streams.layout.component.OutputComponent;
+import com.hortonworks.streamline.streams.layout.component.StreamGrouping;
+import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
+import com.hortonworks.streamline.streams.layout.component.TopologyDag;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.testing.TestRunSink;
+import com.hortonworks.streamline.streams.layout.component.impl.testing.TestRunSource;
+import com.hortonworks.streamline.streams.layout.component.rule.Rule;
+import com.hortonworks.streamline.streams.layout.storm.OperatorFusionPlanner;
+import com.hortonworks.streamline.streams.runtime.ProcessorRuntime;
+import com.hortonworks.streamline.streams.runtime.normalization.NormalizationProcessorRuntime;
+import com.hortonworks.streamline.streams.runtime.processor.RuleProcessorRuntime;
+import com.hortonworks.streamline.streams.runtime.rule.condition.expression.StormSqlExpression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a test run topology dag (see {@link TestTopologyDagCreatingVisitor}) in the current JVM, without
+ * generating and submitting a Storm topology.
+ * <p>
+ * The test records of each {@link TestRunSource} are pushed through the {@link ProcessorRuntime} of each
+ * processor, following the streams of the dag edges, and the events reaching a {@link TestRunSink} are written
+ * to its output file in the same format as the test run sink bolt. The run finishes as soon as all the test
+ * records are processed.
+ * </p>
+ * <p>
+ * Only the stateless rules and normalization processors are supported, and only as long as they don't refer to
+ * user defined functions, see {@link #canRun(TopologyDag)}. Topologies with any other processor need their jars
+ * shipped along with the topology and to be run on Storm. When the runtimes can not be initialized in process, the
+ * run fails with an {@link InitializationException} and the caller is expected to run the test on Storm instead.
+ * </p>
+ */
+public class InProcessTestRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(InProcessTestRunner.class);
+
+    private final TopologyDag testTopologyDag;
+    private final Map<String, Object> runtimeConfig;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Component, ProcessorRuntime> runtimes = new HashMap<>();
+    private final Map<Component, Writer> sinkWriters = new HashMap<>();
+    private final Map<Component, ComponentStats> stats = new LinkedHashMap<>();
+
+    public InProcessTestRunner(TopologyDag testTopologyDag, String catalogRootUrl) {
+        this.testTopologyDag = testTopologyDag;
+        this.runtimeConfig = new HashMap<>();
+        runtimeConfig.put(Constants.CATALOG_ROOT_URL, catalogRootUrl);
+    }
+
+    /**
+     * Returns true if every component of the test run topology dag can be run in process.
+     */
+    public static boolean canRun(TopologyDag testTopologyDag) {
+        for (Component component : testTopologyDag.getComponents()) {
+            if (!(component instanceof TestRunSource || component instanceof TestRunSink
+                    || OperatorFusionPlanner.isFusible(component))) {
+                LOG.debug("Component {} can not be run in process", component);
+                return false;
+            }
+            if (component instanceof RulesProcessor && refersToUdfs((RulesProcessor) component)) {
+                LOG.debug("Component {} refers to user defined functions and can not be run in process", component);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * The jars of the user defined functions are only shipped with the topology jar, so they are not
+     * on the classpath here.
+     */
+    private static boolean refersToUdfs(RulesProcessor rulesProcessor) {
+        for (Rule rule : rulesProcessor.getRules()) {
+            StormSqlExpression expression = new StormSqlExpression(rule.getCondition(), rule.getProjection(),
+                    rule.getGroupBy(), rule.getHaving());
+            if (!expression.createFunctions().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the test records through the topology. The statistics of each component are logged once done.
+     *
+     * @throws InitializationException if the processor runtimes or the sink output files can not be initialized,
+     *                                 or the runtimes need classes which are not available in process
+     */
+    public void run() throws Exception {
+        if (!canRun(testTopologyDag)) {
+            throw new IllegalStateException("Test run topology contains components which can not be run in process");
+        }
+        long start = System.nanoTime();
+        try {
+            try {
+                prepare();
+            } catch (Exception | LinkageError e) {
+                throw new InitializationException("Fail to initialize the test run topology in process", e);
+            }
+            emitTestRecords();
+        } catch (LinkageError e) {
+            throw new InitializationException("Storm runtime classes are not available in process", e);
+        } finally {
+            cleanup();
+        }
+        Map<String, ComponentStats> result = new LinkedHashMap<>();
+        for (Map.Entry<Component, ComponentStats> entry : stats.entrySet()) {
+            result.put(entry.getKey().getName(), entry.getValue());
+        }
+        LOG.info("Finished in process test run - elapsed: {} ms, components: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), result);
+    }
+
+    private void prepare() throws IOException {
+        for (Component component : testTopologyDag.getComponents()) {
+            stats.put(component, new ComponentStats());
+            if (component instanceof TestRunSink) {
+                String outputFilePath = ((TestRunSink) component).getOutputFilePath();
+                LOG.info("output file path: " + outputFilePath);
+                sinkWriters.put(component, new BufferedWriter(new FileWriter(outputFilePath, true)));
+            } else if (component instanceof StreamlineProcessor) {
+                ProcessorRuntime runtime = createRuntime((StreamlineProcessor) component);
+                runtime.initialize(runtimeConfig);
+                runtimes.put(component, runtime);
+            }
+        }
+    }
+
+    private ProcessorRuntime createRuntime(StreamlineProcessor processor) {
+        if (processor instanceof NormalizationProcessor) {
+            return new NormalizationProcessorRuntime((NormalizationProcessor) processor);
+        }
+        // same script type as the rules bolt
+        return new RuleProcessorRuntime((RulesProcessor) processor, RuleProcessorRuntime.ScriptType.SQL);
+    }
+
+    /*
+     * Emits at most one record per output stream in turn until all the records are emitted,
+     * in the same order as the test run source spout.
+     */
+    private void emitTestRecords() throws Exception {
+        Map<TestRunSource, List<Map.Entry<String, Queue<Map<String, Object>>>>> pending = new LinkedHashMap<>();
+        for (OutputComponent component : testTopologyDag.getOutputComponents()) {
+            if (component instanceof TestRunSource) {
+                TestRunSource source = (TestRunSource) component;
+                List<Map.Entry<String, Queue<Map<String, Object>>>> queues = new ArrayList<>();
+                for (Map.Entry<String, List<Map<String, Object>>> entry : source.getTestRecordsForEachStream().entrySet()) {
+                    queues.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), new LinkedList<>(entry.getValue())));
+                }
+                pending.put(source, queues);
+            }
+        }
+        boolean emitted = true;
+        while (emitted) {
+            emitted = false;
+            for (Map.Entry<TestRunSource, List<Map.Entry<String, Queue<Map<String, Object>>>>> entry : pending.entrySet()) {
+                TestRunSource source = entry.getKey();
+                Iterator<Map.Entry<String, Queue<Map<String, Object>>>> it = entry.getValue().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, Queue<Map<String, Object>>> streamRecords = it.next();
+                    Map<String, Object> record = streamRecords.getValue().poll();
+                    if (record == null) {
+                        it.remove();
+                        continue;
+                    }
+                    StreamlineEvent event = new StreamlineEventImpl(record, source.getId());
+                    LOG.debug("Emitting event {} to stream {}", event, streamRecords.getKey());
+                    stats.get(source).emitted++;
+                    emit(source, streamRecords.getKey(), event);
+                    emitted = true;
+                }
+            }
+        }
+    }
+
+    private void emit(OutputComponent from, String stream, StreamlineEvent event) throws Exception {
+        for (Edge edge : testTopologyDag.getEdgesFrom(from)) {
+            for (StreamGrouping streamGrouping : edge.getStreamGroupings()) {
+                if (streamGrouping.getStream().getId().equals(stream)) {
+                    execute(edge.getTo(), new StreamlineEventImpl(event, event.getDataSourceId(), event.getId(),
+                            event.getHeader(), stream, event.getAuxiliaryFieldsAndValues()));
+                }
+            }
+        }
+    }
+
+    private void execute(InputComponent component, StreamlineEvent event) throws Exception {
+        ComponentStats componentStats = stats.get(component);
+        componentStats.received++;
+        Writer writer = sinkWriters.get(component);
+        if (writer != null) {
+            long start = System.nanoTime();
+            writer.write(objectMapper.writeValueAsString(event) + "\n");
+            componentStats.executeNanos += System.nanoTime() - start;
+            return;
+        }
+        long start = System.nanoTime();
+        List<Result> results;
+        try {
+            results = runtimes.get(component).process(event);
+        } catch (ProcessingException e) {
+            throw new RuntimeException("Processing of event " + event + " failed in component " + component.getName(), e);
+        } finally {
+            componentStats.executeNanos += System.nanoTime() - start;
+        }
+        if (results != null) {
+            for (Result result : results) {
+                for (StreamlineEvent e : result.events) {
+                    componentStats.emitted++;
+                    emit((OutputComponent) component, result.stream, e);
+                }
+            }
+        }
+    }
+
+    private void cleanup() {
+        for (ProcessorRuntime runtime : runtimes.values()) {
+            try {
+                runtime.cleanup();
+            } catch (Exception e) {
+                LOG.warn("Error while cleaning up processor runtime {}", runtime, e);
+            }
+        }
+        for (Writer writer : sinkWriters.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOG.warn("Error while closing test run sink output file", e);
+            }
+        }
+    }
+
+    /**
+     * Thrown when the test run topology can not be run in process, in which case it can still be run on Storm.
+     */
+    public static class InitializationException extends Exception {
+        public InitializationException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Number of events received and emitted by a component, and the time spent executing them. The execute time
+     * of a processor does not include the time spent in its downstream components.
+     */
+    private static class ComponentStats {
+        private long received;
+        private long emitted;
+        private long executeNanos;
+
+        public long getExecuteMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(executeNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "ComponentStats{" +
+                    "received=" + received +
+                    ", emitted=" + emitted +
+                    ", executeMillis=" + getExecuteMillis() +
+                    '}';
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.hortonworks.streamline.streams.actions.storm.topology;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Stopwatch;
 import com.hortonworks.streamline.common.exception.service.exception.request.TopologyAlreadyExistsOnCluster;
 import com.hortonworks.streamline.streams.actions.TopologyActionContext;
 import com.hortonworks.streamline.streams.layout.component.impl.testing.TestRunSink;
@@ -45,6 +46,7 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
@@ -55,6 +57,7 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -71,15 +74,19 @@ public class StormTopologyActionsImpl implements TopologyActions {
 
     private static final String NIMBUS_SEEDS = "nimbus.seeds";
     private static final String NIMBUS_PORT = "nimbus.port";
+    private static final String TEST_RUN_IN_PROCESS = "testRunInProcess";
+    private static final String JAR_CACHE_DIR_NAME = ".jar-cache";
+    private static final int MAX_CACHED_JARS = 20;
 
     private String stormArtifactsLocation = "/tmp/storm-artifacts/";
     private String stormCliPath = "storm";
     private String stormJarLocation;
     private String catalogRootUrl;
-    private String javaJarCommand;
+    private ArtifactJarCache artifactJarCache;
     private StormRestAPIClient client;
     private String nimbusSeeds;
     private Integer nimbusPort;
+    private boolean testRunInProcess = true;
     private Map<String, String> conf;
 
     public StormTopologyActionsImpl() {
@@ -103,17 +110,6 @@ public class StormTopologyActionsImpl implements TopologyActions {
 
             catalogRootUrl = conf.get(StormTopologyLayoutConstants.YAML_KEY_CATALOG_ROOT_URL);
 
-            Map<String, String> env = System.getenv();
-            String javaHomeStr = env.get("JAVA_HOME");
-            if (StringUtils.isNotEmpty(javaHomeStr)) {
-                if (!javaHomeStr.endsWith(File.separator)) {
-                    javaHomeStr += File.separator;
-                }
-                javaJarCommand = javaHomeStr + "bin" + File.separator + "jar";
-            } else {
-                javaJarCommand = "jar";
-            }
-
             String stormApiRootUrl = null;
             if (conf != null) {
                 stormApiRootUrl = conf.get(TopologyLayoutConstants.STORM_API_ROOT_URL_KEY);
@@ -122,29 +118,42 @@ public class StormTopologyActionsImpl implements TopologyActions {
             this.client = new StormRestAPIClient(restClient, stormApiRootUrl);
             nimbusSeeds = conf.get(NIMBUS_SEEDS);
             nimbusPort = Integer.valueOf(conf.get(NIMBUS_PORT));
+            if (conf.containsKey(TEST_RUN_IN_PROCESS)) {
+                testRunInProcess = Boolean.parseBoolean(conf.get(TEST_RUN_IN_PROCESS));
+            }
         }
         File f = new File (stormArtifactsLocation);
         f.mkdirs();
+        artifactJarCache = new ArtifactJarCache(Paths.get(stormArtifactsLocation, JAR_CACHE_DIR_NAME), MAX_CACHED_JARS);
     }
 
     @Override
     public void deploy(TopologyLayout topology, String mavenArtifacts, TopologyActionContext ctx) throws Exception {
+        Stopwatch stopwatch = Stopwatch.createStarted();
         ctx.setCurrentAction("Adding artifacts to jar");
-        Path jarToDeploy = addArtifactsToJar(getArtifactsLocation(topology));
-        ctx.setCurrentAction("Creating Storm topology YAML file");
-        String fileName = createYamlFile(topology);
-        ctx.setCurrentAction("Deploying topology via 'storm jar' command");
-        List<String> commands = new ArrayList<String>();
-        commands.add(stormCliPath);
-        commands.add("jar");
-        commands.add(jarToDeploy.toString());
-        commands.addAll(getExtraJarsArg(topology));
-        commands.addAll(getMavenArtifactsRelatedArgs(mavenArtifacts));
-        commands.addAll(getNimbusConf());
-        commands.add("org.apache.storm.flux.Flux");
-        commands.add("--remote");
-        commands.add(fileName);
-        ShellProcessResult shellProcessResult = executeShellProcess(commands);
+        ShellProcessResult shellProcessResult;
+        try (ArtifactJarCache.CachedJar jarToDeploy = addArtifactsToJar(getArtifactsLocation(topology))) {
+            ctx.recordPhaseTime("Adding artifacts to jar", stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            stopwatch.reset().start();
+            ctx.setCurrentAction("Creating Storm topology YAML file");
+            String fileName = createYamlFile(topology);
+            ctx.recordPhaseTime("Creating Storm topology YAML file", stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            stopwatch.reset().start();
+            ctx.setCurrentAction("Deploying topology via 'storm jar' command");
+            List<String> commands = new ArrayList<String>();
+            commands.add(stormCliPath);
+            commands.add("jar");
+            commands.add(jarToDeploy.getPath().toString());
+            commands.addAll(getExtraJarsArg(topology));
+            commands.addAll(getMavenArtifactsRelatedArgs(mavenArtifacts));
+            commands.addAll(getNimbusConf());
+            commands.add("org.apache.storm.flux.Flux");
+            commands.add("--remote");
+            commands.add(fileName);
+            shellProcessResult = executeShellProcess(commands);
+            StormTopologyUtil.invalidateTopologySummary(client);
+            ctx.recordPhaseTime("Deploying topology via 'storm jar' command", stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        }
         int exitValue = shellProcessResult.exitValue;
         if (exitValue != 0) {
             LOG.error("Topology deploy command failed - exit code: {} / output: {}", exitValue, shellProcessResult.stdout);
@@ -173,24 +182,36 @@ public class StormTopologyActionsImpl implements TopologyActions {
         originalTopologyDag.traverse(visitor);
         TopologyDag testTopologyDag = visitor.getTestTopologyDag();
 
+        if (testRunInProcess && InProcessTestRunner.canRun(testTopologyDag)) {
+            try {
+                new InProcessTestRunner(testTopologyDag, catalogRootUrl).run();
+                return;
+            } catch (InProcessTestRunner.InitializationException e) {
+                LOG.warn("Unable to run the topology test in process, running it with storm instead.", e);
+                truncateOutputFiles(testRunSinksForEachSink);
+            }
+        }
+
         TopologyLayout testTopology = copyTopologyLayout(topology, testTopologyDag);
 
-        Path jarToDeploy = addArtifactsToJar(getArtifactsLocation(testTopology));
-        String fileName = createYamlFile(testTopology);
-        List<String> commands = new ArrayList<String>();
-        commands.add(stormCliPath);
-        commands.add("jar");
-        commands.add(jarToDeploy.toString());
-        commands.addAll(getExtraJarsArg(testTopology));
-        commands.addAll(getMavenArtifactsRelatedArgs(mavenArtifacts));
-        commands.addAll(getNimbusConf());
-        commands.add("org.apache.storm.flux.Flux");
-        commands.add("--local");
-        commands.add("-s");
-        commands.add(String.valueOf(TEST_RUN_TOPOLOGY_WAIT_MILLIS_FOR_SHUTDOWN));
-        commands.add(fileName);
-
-        ShellProcessResult shellProcessResult = executeShellProcess(commands);
+        ShellProcessResult shellProcessResult;
+        try (ArtifactJarCache.CachedJar jarToDeploy = addArtifactsToJar(getArtifactsLocation(testTopology))) {
+            String fileName = createYamlFile(testTopology);
+            List<String> commands = new ArrayList<String>();
+            commands.add(stormCliPath);
+            commands.add("jar");
+            commands.add(jarToDeploy.getPath().toString());
+            commands.addAll(getExtraJarsArg(testTopology));
+            commands.addAll(getMavenArtifactsRelatedArgs(mavenArtifacts));
+            commands.addAll(getNimbusConf());
+            commands.add("org.apache.storm.flux.Flux");
+            commands.add("--local");
+            commands.add("-s");
+            commands.add(String.valueOf(TEST_RUN_TOPOLOGY_WAIT_MILLIS_FOR_SHUTDOWN));
+            commands.add(fileName);
+
+            shellProcessResult = executeShellProcess(commands);
+        }
         int exitValue = shellProcessResult.exitValue;
         if (exitValue != 0) {
             LOG.error("Topology deploy command as test mode failed - exit code: {} / output: {}", exitValue, shellProcessResult.stdout);
@@ -204,6 +225,7 @@ public class StormTopologyActionsImpl implements TopologyActions {
         String stormTopologyId = getRuntimeTopologyId(topology);
 
         boolean killed = client.killTopology(stormTopologyId, DEFAULT_WAIT_TIME_SEC);
+        StormTopologyUtil.invalidateTopologySummary(client);
         if (!killed) {
             throw new Exception("Topology could not be killed " +
                     "successfully.");
@@ -285,6 +307,12 @@ public class StormTopologyActionsImpl implements TopologyActions {
         return stormTopologyId;
     }
 
+    private void truncateOutputFiles(Map<String, TestRunSink> testRunSinksForEachSink) throws IOException {
+        for (TestRunSink testRunSink : testRunSinksForEachSink.values()) {
+            new FileWriter(testRunSink.getOutputFilePath(), false).close();
+        }
+    }
+
     private TopologyLayout copyTopologyLayout(TopologyLayout topology, TopologyDag replacedTopologyDag) {
         return new TopologyLayout(topology.getId(), topology.getName(), topology.getConfig(), replacedTopologyDag);
     }
@@ -335,41 +363,25 @@ public class StormTopologyActionsImpl implements TopologyActions {
         return args;
     }
 
-    private Path addArtifactsToJar(Path artifactsLocation) throws Exception {
+    private ArtifactJarCache.CachedJar addArtifactsToJar(Path artifactsLocation) throws Exception {
         Path jarFile = Paths.get(stormJarLocation);
         if (artifactsLocation.toFile().isDirectory()) {
             File[] artifacts = artifactsLocation.toFile().listFiles();
             if (artifacts != null && artifacts.length > 0) {
-                Path newJar = Files.copy(jarFile, artifactsLocation.resolve(jarFile.getFileName()));
-
-                List<String> artifactFileNames = Arrays.stream(artifacts).filter(File::isFile)
-                        .map(File::getName).collect(toList());
-                List<String> commands = new ArrayList<>();
-
-                commands.add(javaJarCommand);
-                commands.add("uf");
-                commands.add(newJar.toString());
-
-                artifactFileNames.stream().forEachOrdered(name -> {
-                    commands.add("-C");
-                    commands.add(artifactsLocation.toString());
-                    commands.add(name);
-                });
-
-                ShellProcessResult shellProcessResult = executeShellProcess(commands);
-                if (shellProcessResult.exitValue != 0) {
-                    LOG.error("Adding artifacts to jar command failed - exit code: {} / output: {}",
-                            shellProcessResult.exitValue, shellProcessResult.stdout);
+                List<Path> artifactFiles = Arrays.stream(artifacts).filter(File::isFile)
+                        .map(File::toPath).collect(toList());
+                try {
+                    return artifactJarCache.getOrCreate(jarFile, artifactFiles);
+                } catch (IOException e) {
+                    LOG.error("Adding artifacts {} to jar {} failed", artifactFiles, jarFile, e);
                     throw new RuntimeException("Topology could not be deployed " +
-                            "successfully: fail to add artifacts to jar");
+                            "successfully: fail to add artifacts to jar", e);
                 }
-                LOG.debug("Added files {} to jar {}", artifactFileNames, jarFile);
-                return newJar;
             }
         } else {
             LOG.debug("Artifacts directory {} does not exist, not adding any artifacts to jar", artifactsLocation);
         }
-        return jarFile;
+        return ArtifactJarCache.CachedJar.uncached(jarFile);
     }
 
     private String createYamlFile (TopologyLayout topology) throws Exception {
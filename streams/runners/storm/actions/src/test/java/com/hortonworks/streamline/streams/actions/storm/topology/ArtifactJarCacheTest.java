@@ -0,0 +1,125 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.storm.topology;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ArtifactJarCacheTest {
+    private Path tempDir;
+    private Path baseJar;
+    private ArtifactJarCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("artifact-jar-cache-test");
+        baseJar = tempDir.resolve("base.jar");
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(baseJar.toFile()))) {
+            jos.putNextEntry(new JarEntry("com/example/Base.class"));
+            jos.write(new byte[]{1, 2, 3});
+            jos.closeEntry();
+        }
+        cache = new ArtifactJarCache(tempDir.resolve("cache"), 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        org.apache.commons.io.FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Test
+    public void testAssembleAndReuse() throws Exception {
+        Path artifact = writeArtifact("hbase-site.xml", "<configuration/>");
+
+        try (ArtifactJarCache.CachedJar jar = cache.getOrCreate(baseJar, Collections.singletonList(artifact))) {
+            assertEquals(new HashSet<>(java.util.Arrays.asList("com/example/Base.class", "hbase-site.xml")),
+                    entryNames(jar.getPath()));
+            try (ArtifactJarCache.CachedJar reused = cache.getOrCreate(baseJar, Collections.singletonList(artifact))) {
+                assertEquals(jar.getPath(), reused.getPath());
+            }
+
+            writeArtifact("hbase-site.xml", "<configuration><property/></configuration>");
+            try (ArtifactJarCache.CachedJar changed = cache.getOrCreate(baseJar, Collections.singletonList(artifact))) {
+                assertNotEquals(jar.getPath(), changed.getPath());
+            }
+        }
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            cache.getOrCreate(baseJar, Collections.singletonList(writeArtifact("conf.xml", "<c" + i + "/>"))).close();
+        }
+        assertEquals(2, cachedJars().length);
+    }
+
+    @Test
+    public void testJarInUseIsNotEvicted() throws Exception {
+        ArtifactJarCache.CachedJar inUse = cache.getOrCreate(baseJar,
+                Collections.singletonList(writeArtifact("conf.xml", "<in-use/>")));
+        // make the jar in use the least recently used one
+        assertTrue(inUse.getPath().toFile().setLastModified(System.currentTimeMillis() - 60_000));
+        for (int i = 0; i < 4; i++) {
+            cache.getOrCreate(baseJar, Collections.singletonList(writeArtifact("conf.xml", "<c" + i + "/>"))).close();
+        }
+        assertTrue(Files.exists(inUse.getPath()));
+        assertTrue(cache.isInUse(inUse.getPath()));
+        assertEquals(2, cachedJars().length);
+
+        inUse.close();
+        inUse.close();
+        assertFalse(cache.isInUse(inUse.getPath()));
+        cache.getOrCreate(baseJar, Collections.singletonList(writeArtifact("conf.xml", "<c4/>"))).close();
+        assertFalse(Files.exists(inUse.getPath()));
+        assertEquals(2, cachedJars().length);
+    }
+
+    private File[] cachedJars() {
+        return tempDir.resolve("cache").toFile().listFiles((dir, name) -> name.endsWith(".jar"));
+    }
+
+    private Path writeArtifact(String name, String content) throws IOException {
+        Path artifactsDir = Files.createDirectories(tempDir.resolve("artifacts"));
+        return Files.write(artifactsDir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Set<String> entryNames(Path jar) throws IOException {
+        Set<String> names = new HashSet<>();
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            jarFile.stream().map(JarEntry::getName).filter(n -> !n.endsWith("/")).forEach(names::add);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.actions.storm.topology;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.actions.utils.TopologyTestHelper;
+import com.hortonworks.streamline.streams.layout.component.Edge;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSource;
+import com.hortonworks.streamline.streams.layout.component.TopologyDag;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.testing.TestRunSink;
+import com.hortonworks.streamline.streams.layout.component.impl.testing.TestRunSource;
+import com.hortonworks.streamline.streams.layout.component.rule.Rule;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Expression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.FieldExpression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.FunctionExpression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Projection;
+import com.hortonworks.streamline.streams.layout.storm.RuleBoltFluxComponent;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InProcessTestRunnerTest {
+
+    @Test
+    public void testRunSourceToSink() throws Exception {
+        File outputFile = File.createTempFile("test-run-", ".out");
+        outputFile.deleteOnExit();
+        TestRunSource source = createTestRunSource("1");
+        TestRunSink sink = new TestRunSink(outputFile.getAbsolutePath());
+        sink.setId("2");
+        sink.setName("testSink_2");
+
+        TopologyDag dag = new TopologyDag();
+        dag.add(source);
+        dag.add(sink);
+        dag.addEdge(new Edge("e1", source, sink, "default", Stream.Grouping.SHUFFLE));
+
+        assertTrue(InProcessTestRunner.canRun(dag));
+        new InProcessTestRunner(dag, null).run();
+
+        List<String> lines = Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String line : lines) {
+            Map<String, Object> record = objectMapper.readValue(line, Map.class);
+            assertEquals(1, record.get("A"));
+            assertEquals(2, record.get("B"));
+        }
+    }
+
+    @Test(expected = InProcessTestRunner.InitializationException.class)
+    public void testInitializationFailure() throws Exception {
+        File outputDir = Files.createTempDirectory("test-run-").toFile();
+        outputDir.deleteOnExit();
+        TestRunSource source = createTestRunSource("1");
+        TestRunSink sink = new TestRunSink(new File(outputDir, "missing/output").getAbsolutePath());
+        sink.setId("2");
+        sink.setName("testSink_2");
+
+        TopologyDag dag = new TopologyDag();
+        dag.add(source);
+        dag.add(sink);
+        dag.addEdge(new Edge("e1", source, sink, "default", Stream.Grouping.SHUFFLE));
+
+        new InProcessTestRunner(dag, null).run();
+    }
+
+    @Test
+    public void testCanRunStatelessRulesProcessor() throws Exception {
+        RulesProcessor rulesProcessor = TopologyTestHelper.createRulesProcessor("2");
+        rulesProcessor.setTransformationClass(RuleBoltFluxComponent.class.getName());
+
+        TopologyDag dag = new TopologyDag();
+        TestRunSource source = createTestRunSource("1");
+        dag.add(source);
+        dag.add(rulesProcessor);
+
+        assertTrue(InProcessTestRunner.canRun(dag));
+    }
+
+    @Test
+    public void testCanNotRunRulesProcessorWithUdf() throws Exception {
+        Projection projection = new Projection();
+        projection.setExpressions(Collections.<Expression>singletonList(new FunctionExpression("MY_UDF",
+                "com.example.MyUdf", Collections.singletonList(new FieldExpression(Schema.Field.of("A", Schema.Type.INTEGER))))));
+        Rule rule = new Rule();
+        rule.setId(1L);
+        rule.setName("rule_1");
+        rule.setProjection(projection);
+        RulesProcessor rulesProcessor = TopologyTestHelper.createRulesProcessor("2");
+        rulesProcessor.setTransformationClass(RuleBoltFluxComponent.class.getName());
+        rulesProcessor.setRules(Collections.singletonList(rule));
+
+        TopologyDag dag = new TopologyDag();
+        dag.add(createTestRunSource("1"));
+        dag.add(rulesProcessor);
+
+        assertFalse(InProcessTestRunner.canRun(dag));
+    }
+
+    @Test
+    public void testCanNotRunOtherProcessors() throws Exception {
+        StreamlineProcessor processor = TopologyTestHelper.createStreamlineProcessor("2");
+
+        TopologyDag dag = new TopologyDag();
+        dag.add(createTestRunSource("1"));
+        dag.add(processor);
+
+        assertFalse(InProcessTestRunner.canRun(dag));
+    }
+
+    private TestRunSource createTestRunSource(String id) {
+        StreamlineSource originSource = TopologyTestHelper.createStreamlineSource(id);
+        TestRunSource source = new TestRunSource(originSource.getOutputStreams(),
+                Collections.singletonMap("default", TopologyTestHelper.createTestRecords()));
+        source.setId(originSource.getId());
+        source.setName(originSource.getName());
+        return source;
+    }
+}
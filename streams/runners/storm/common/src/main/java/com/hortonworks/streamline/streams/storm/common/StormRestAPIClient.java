@@ -39,6 +39,10 @@ public class StormRestAPIClient {
         this.stormApiRootUrl = stormApiRootUrl;
     }
 
+    public String getStormApiRootUrl() {
+        return stormApiRootUrl;
+    }
+
     public Map getTopologySummary() {
         return doGetRequest(getTopologySummaryUrl());
     }
@@ -0,0 +1,248 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.storm.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the mapping of streamline topology id to the id and name of the topology in a Storm cluster,
+ * built from the Storm UI topology summary.
+ * <p>
+ * The summary is requested at most once per refresh interval, no matter how many lookups are made, and
+ * concurrent lookups while the summary is being refreshed share the single in-flight request. The cache
+ * is shared by everything talking to the same Storm UI (see {@link #getInstance(StormRestAPIClient)}), and
+ * should be invalidated whenever a topology is deployed or killed so that the change is visible immediately.
+ */
+public class StormTopologySummaryCache {
+    private static final Logger LOG = LoggerFactory.getLogger(StormTopologySummaryCache.class);
+
+    public static final long DEFAULT_REFRESH_INTERVAL_MS = 5_000;
+
+    private static final ConcurrentMap<String, StormTopologySummaryCache> INSTANCES = new ConcurrentHashMap<>();
+
+    private final StormRestAPIClient client;
+    private final long refreshIntervalNanos;
+    private final Ticker ticker;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong loadFailureCount = new AtomicLong();
+
+    private volatile Summary summary;
+    // guarded by this
+    private CompletableFuture<Summary> inFlight;
+    // guarded by this
+    private long generation;
+
+    /**
+     * Returns the cache shared by all the clients for the Storm UI of the given client.
+     */
+    public static StormTopologySummaryCache getInstance(StormRestAPIClient client) {
+        return INSTANCES.computeIfAbsent(Objects.toString(client.getStormApiRootUrl(), ""),
+                url -> new StormTopologySummaryCache(client, DEFAULT_REFRESH_INTERVAL_MS, Ticker.systemTicker()));
+    }
+
+    @VisibleForTesting
+    StormTopologySummaryCache(StormRestAPIClient client, long refreshIntervalMs, Ticker ticker) {
+        this.client = client;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+        this.ticker = ticker;
+    }
+
+    /**
+     * Returns the id of the topology in Storm, or null if the topology is not running in Storm.
+     */
+    public String findStormTopologyId(Long topologyId) {
+        String[] idAndName = getSummary().find(topologyId);
+        return idAndName == null ? null : idAndName[0];
+    }
+
+    /**
+     * Returns the complete name of the topology in Storm, or null if the topology is not running in Storm.
+     */
+    public String findStormTopologyName(Long topologyId) {
+        String[] idAndName = getSummary().find(topologyId);
+        return idAndName == null ? null : idAndName[1];
+    }
+
+    /**
+     * Discards the cached summary, so that the next lookup requests the summary from Storm.
+     */
+    public synchronized void invalidate() {
+        summary = null;
+        generation++;
+    }
+
+    public Stats getStats() {
+        Summary current = summary;
+        long stalenessMs = current == null ? 0 : TimeUnit.NANOSECONDS.toMillis(ticker.read() - current.loadedAtNanos);
+        return new Stats(hitCount.get(), missCount.get(), loadCount.get(), loadFailureCount.get(), stalenessMs);
+    }
+
+    private Summary getSummary() {
+        Summary current = summary;
+        if (isFresh(current)) {
+            hitCount.incrementAndGet();
+            return current;
+        }
+        missCount.incrementAndGet();
+
+        CompletableFuture<Summary> future;
+        long loadGeneration;
+        boolean loader = false;
+        synchronized (this) {
+            // the summary may have been loaded while waiting for the lock
+            if (isFresh(summary)) {
+                return summary;
+            }
+            if (inFlight == null) {
+                inFlight = new CompletableFuture<>();
+                loader = true;
+            }
+            future = inFlight;
+            loadGeneration = generation;
+        }
+
+        if (loader) {
+            try {
+                Summary loaded = load();
+                synchronized (this) {
+                    if (generation == loadGeneration) {
+                        summary = loaded;
+                    }
+                    inFlight = null;
+                }
+                future.complete(loaded);
+            } catch (RuntimeException e) {
+                loadFailureCount.incrementAndGet();
+                synchronized (this) {
+                    inFlight = null;
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isFresh(Summary summary) {
+        return summary != null && ticker.read() - summary.loadedAtNanos < refreshIntervalNanos;
+    }
+
+    private Summary load() {
+        loadCount.incrementAndGet();
+        Map<?, ?> summaryMap = client.getTopologySummary();
+        List<Map<?, ?>> topologies = (List<Map<?, ?>>) summaryMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGIES);
+        Summary loaded = new Summary(topologies == null ? Collections.emptyList() : topologies, ticker.read());
+        LOG.debug("Loaded topology summary from Storm - topologies: {}, stats: {}", loaded.idAndNames.size(), getStats());
+        return loaded;
+    }
+
+    private static class Summary {
+        private final Map<Long, String[]> idAndNames = new HashMap<>();
+        private final long loadedAtNanos;
+
+        Summary(List<Map<?, ?>> topologies, long loadedAtNanos) {
+            this.loadedAtNanos = loadedAtNanos;
+            for (Map<?, ?> topologyMap : topologies) {
+                String name = (String) topologyMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGY_NAME);
+                String id = (String) topologyMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGY_ID_ENCODED);
+                Long topologyId = StormTopologyUtil.parseTopologyId(name);
+                if (topologyId != null) {
+                    idAndNames.putIfAbsent(topologyId, new String[]{id, name});
+                }
+            }
+        }
+
+        String[] find(Long topologyId) {
+            return idAndNames.get(topologyId);
+        }
+    }
+
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long loadCount;
+        private final long loadFailureCount;
+        private final long stalenessMs;
+
+        Stats(long hitCount, long missCount, long loadCount, long loadFailureCount, long stalenessMs) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadCount = loadCount;
+            this.loadFailureCount = loadFailureCount;
+            this.stalenessMs = stalenessMs;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        public long getLoadFailureCount() {
+            return loadFailureCount;
+        }
+
+        /**
+         * The age of the cached summary in milliseconds.
+         */
+        public long getStalenessMs() {
+            return stalenessMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", loadCount=" + loadCount +
+                    ", loadFailureCount=" + loadFailureCount +
+                    ", stalenessMs=" + stalenessMs +
+                    '}';
+        }
+    }
+}
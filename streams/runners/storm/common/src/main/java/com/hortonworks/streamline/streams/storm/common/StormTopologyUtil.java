@@ -15,51 +15,53 @@
  **/
 package com.hortonworks.streamline.streams.storm.common;
 
-import java.util.List;
-import java.util.Map;
-
 public class StormTopologyUtil {
+    private static final String STORM_TOPOLOGY_NAME_PREFIX = "streamline-";
+
     private StormTopologyUtil() {
     }
 
     public static String generateStormTopologyName(Long topologyId, String topologyName) {
-        return "streamline-" + topologyId + "-" + topologyName;
+        return STORM_TOPOLOGY_NAME_PREFIX + topologyId + "-" + topologyName;
     }
 
     public static String generateUniqueStormTopologyNamePrefix(Long topologyId) {
-        return "streamline-" + topologyId + "-";
+        return STORM_TOPOLOGY_NAME_PREFIX + topologyId + "-";
     }
 
-    public static String findStormTopologyId(StormRestAPIClient client, Long topologyId) {
-        String topologyNamePrefix = generateUniqueStormTopologyNamePrefix(topologyId);
-        Map<?, ?> summaryMap = client.getTopologySummary();
-        List<Map<?, ?>> topologies = (List<Map<?, ?>>) summaryMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGIES);
-        String stormTopologyId = null;
-        for (Map<?, ?> topologyMap : topologies) {
-            String topologyNameForStorm = (String) topologyMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGY_NAME);
-
-            if (topologyNameForStorm.startsWith(topologyNamePrefix)) {
-                stormTopologyId = (String) topologyMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGY_ID_ENCODED);
-                break;
-            }
+    /**
+     * Returns the streamline topology id from the name of a topology in Storm, or null if the topology
+     * is not deployed by streamline.
+     */
+    public static Long parseTopologyId(String stormTopologyName) {
+        if (stormTopologyName == null || !stormTopologyName.startsWith(STORM_TOPOLOGY_NAME_PREFIX)) {
+            return null;
+        }
+        int end = stormTopologyName.indexOf('-', STORM_TOPOLOGY_NAME_PREFIX.length());
+        if (end < 0) {
+            return null;
+        }
+        try {
+            return Long.valueOf(stormTopologyName.substring(STORM_TOPOLOGY_NAME_PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return null;
         }
-        return stormTopologyId;
+    }
+
+    public static String findStormTopologyId(StormRestAPIClient client, Long topologyId) {
+        return StormTopologySummaryCache.getInstance(client).findStormTopologyId(topologyId);
     }
 
     public static String findStormCompleteTopologyName(StormRestAPIClient client, Long topologyId) {
-        String topologyNamePrefix = generateUniqueStormTopologyNamePrefix(topologyId);
-        Map<?, ?> summaryMap = client.getTopologySummary();
-        List<Map<?, ?>> topologies = (List<Map<?, ?>>) summaryMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGIES);
-        String topologyName = null;
-        for (Map<?, ?> topologyMap : topologies) {
-            String topologyNameForStorm = (String) topologyMap.get(StormRestAPIConstant.TOPOLOGY_SUMMARY_JSON_TOPOLOGY_NAME);
+        return StormTopologySummaryCache.getInstance(client).findStormTopologyName(topologyId);
+    }
 
-            if (topologyNameForStorm.startsWith(topologyNamePrefix)) {
-                topologyName = topologyNameForStorm;
-                break;
-            }
-        }
-        return topologyName;
+    /**
+     * Discards the cached topology summary of the Storm cluster of the given client. This should be called
+     * whenever a topology is deployed or killed.
+     */
+    public static void invalidateTopologySummary(StormRestAPIClient client) {
+        StormTopologySummaryCache.getInstance(client).invalidate();
     }
 
     public static String findOrGenerateTopologyName(StormRestAPIClient client, Long topologyId, String topologyName) {
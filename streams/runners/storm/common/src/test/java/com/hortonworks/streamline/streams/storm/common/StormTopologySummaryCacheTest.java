@@ -0,0 +1,132 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.storm.common;
+
+import com.google.common.base.Ticker;
+import com.sun.net.httpserver.HttpServer;
+import org.glassfish.jersey.client.ClientConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.client.ClientBuilder;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class StormTopologySummaryCacheTest {
+    private static final long REFRESH_INTERVAL_MS = 1000;
+    private static final String SUMMARY = "{\"topologies\": [" +
+            "{\"name\": \"streamline-1-first\", \"encodedId\": \"streamline-1-first-1-1500000000\"}," +
+            "{\"name\": \"other-topology\", \"encodedId\": \"other-topology-2-1500000000\"}]}";
+
+    private HttpServer stormUi;
+    private final AtomicInteger summaryRequests = new AtomicInteger();
+    private volatile long responseDelayMs;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private StormTopologySummaryCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        stormUi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stormUi.createContext("/api/v1/topology/summary", exchange -> {
+            summaryRequests.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = SUMMARY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        stormUi.setExecutor(Executors.newCachedThreadPool());
+        stormUi.start();
+
+        String stormApiRootUrl = "http://localhost:" + stormUi.getAddress().getPort() + "/api/v1";
+        StormRestAPIClient client = new StormRestAPIClient(ClientBuilder.newClient(new ClientConfig()), stormApiRootUrl);
+        cache = new StormTopologySummaryCache(client, REFRESH_INTERVAL_MS, new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stormUi.stop(0);
+    }
+
+    @Test
+    public void testLookupsWithinRefreshIntervalShareSummary() throws Exception {
+        assertEquals("streamline-1-first-1-1500000000", cache.findStormTopologyId(1L));
+        assertEquals("streamline-1-first", cache.findStormTopologyName(1L));
+        assertNull(cache.findStormTopologyId(2L));
+        assertEquals(1, summaryRequests.get());
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(REFRESH_INTERVAL_MS));
+        cache.findStormTopologyId(1L);
+        assertEquals(2, summaryRequests.get());
+
+        StormTopologySummaryCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(2, stats.getLoadCount());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        cache.findStormTopologyId(1L);
+        cache.invalidate();
+        cache.findStormTopologyId(1L);
+        assertEquals(2, summaryRequests.get());
+    }
+
+    @Test
+    public void testConcurrentLookupsShareSingleRequest() throws Exception {
+        responseDelayMs = 200;
+        ExecutorService executorService = Executors.newFixedThreadPool(10);
+        try {
+            List<Callable<String>> lookups = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                lookups.add(() -> cache.findStormTopologyId(1L));
+            }
+            for (Future<String> result : executorService.invokeAll(lookups)) {
+                assertEquals("streamline-1-first-1-1500000000", result.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(1, summaryRequests.get());
+    }
+}
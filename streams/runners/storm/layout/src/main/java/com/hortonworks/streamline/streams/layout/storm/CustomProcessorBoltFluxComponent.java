@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,8 @@ import java.util.Map;
 public class CustomProcessorBoltFluxComponent extends AbstractFluxComponent {
 
     private static final Logger LOG = LoggerFactory.getLogger(CustomProcessorBoltFluxComponent.class);
+    // names of CustomProcessorInstantiationStrategy in the storm runtime
+    private static final List<String> INSTANTIATION_STRATEGIES = Arrays.asList("SHARED", "PER_EXECUTOR", "POOLED");
 
     @Override
     protected void generateComponent () {
@@ -53,6 +56,12 @@ public class CustomProcessorBoltFluxComponent extends AbstractFluxComponent {
             throw new RuntimeException(message, e);
         }
         List<Map<String, Object>> configMethods = getConfigMethodsYaml(configMethodNames, values);
+        String[] optionalConfigMethodNames = {"instantiationStrategy", "poolSize"};
+        String[] optionalConfigKeys = {
+            TopologyLayoutConstants.JSON_KEY_CUSTOM_PROCESSOR_INSTANTIATION_STRATEGY,
+            TopologyLayoutConstants.JSON_KEY_CUSTOM_PROCESSOR_POOL_SIZE
+        };
+        configMethods.addAll(getConfigMethodsYaml(optionalConfigMethodNames, optionalConfigKeys));
         component = createComponent(boltId, boltClassName, null, null, configMethods);
         addParallelismToComponent();
     }
@@ -61,6 +70,7 @@ public class CustomProcessorBoltFluxComponent extends AbstractFluxComponent {
     public void validateConfig () throws ComponentConfigException {
         super.validateConfig();
         validateStringFields();
+        validateInstantiationStrategy();
         String fieldToValidate = TopologyLayoutConstants.JSON_KEY_INPUT_SCHEMA;
         try {
             Map inputSchema = (Map) conf.get(fieldToValidate);
@@ -91,6 +101,19 @@ public class CustomProcessorBoltFluxComponent extends AbstractFluxComponent {
         validateStringFields(requiredStringFields, true);
     }
 
+    private void validateInstantiationStrategy () throws ComponentConfigException {
+        String fieldToValidate = TopologyLayoutConstants.JSON_KEY_CUSTOM_PROCESSOR_INSTANTIATION_STRATEGY;
+        Object strategy = conf.get(fieldToValidate);
+        if (strategy != null && !INSTANTIATION_STRATEGIES.contains(strategy)) {
+            throw new ComponentConfigException(String.format(TopologyLayoutConstants.ERR_MSG_MISSING_INVALID_CONFIG, fieldToValidate));
+        }
+        fieldToValidate = TopologyLayoutConstants.JSON_KEY_CUSTOM_PROCESSOR_POOL_SIZE;
+        Object poolSize = conf.get(fieldToValidate);
+        if (poolSize != null && (!(poolSize instanceof Integer) || (Integer) poolSize <= 0)) {
+            throw new ComponentConfigException(String.format(TopologyLayoutConstants.ERR_MSG_MISSING_INVALID_CONFIG, fieldToValidate));
+        }
+    }
+
     private String getInputSchemaJson () throws JsonProcessingException {
         return getObjectAsJson(conf.get(TopologyLayoutConstants.JSON_KEY_INPUT_SCHEMA));
     }
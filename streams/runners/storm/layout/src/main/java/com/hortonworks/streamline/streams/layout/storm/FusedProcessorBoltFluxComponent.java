@@ -0,0 +1,102 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.layout.storm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flux yaml generation for a chain of processors found by {@link OperatorFusionPlanner}, executed in process by a single
+ * FusedProcessorBolt.
+ */
+public class FusedProcessorBoltFluxComponent extends AbstractFluxComponent {
+    private static final Logger LOG = LoggerFactory.getLogger(FusedProcessorBoltFluxComponent.class);
+
+    private final List<Stage> stages;
+
+    public FusedProcessorBoltFluxComponent(List<Stage> stages) {
+        this.stages = stages;
+    }
+
+    @Override
+    protected void generateComponent() {
+        String boltId = "fusedProcessorBolt" + UUID_FOR_COMPONENTS;
+        String boltClassName = "com.hortonworks.streamline.streams.runtime.storm.bolt.FusedProcessorBolt";
+        ObjectMapper mapper = new ObjectMapper();
+        List<Map<String, Object>> stagesConfig = new ArrayList<>();
+        try {
+            for (Stage stage : stages) {
+                Map<String, Object> stageConfig = new LinkedHashMap<>();
+                stageConfig.put(StormTopologyLayoutConstants.FUSED_STAGE_NAME, stage.name);
+                stageConfig.put(StormTopologyLayoutConstants.FUSED_STAGE_TYPE, getStageType(stage.processor));
+                stageConfig.put(StormTopologyLayoutConstants.FUSED_STAGE_INPUT_STREAMS, new ArrayList<>(stage.inputStreams));
+                stageConfig.put(StormTopologyLayoutConstants.FUSED_STAGE_PROCESSOR, mapper.writeValueAsString(stage.processor));
+                stagesConfig.add(stageConfig);
+            }
+            List<String> boltConstructorArgs = new ArrayList<>();
+            boltConstructorArgs.add(mapper.writeValueAsString(stagesConfig));
+            component = createComponent(boltId, boltClassName, null, boltConstructorArgs, null);
+        } catch (JsonProcessingException e) {
+            LOG.error("Error creating json config string for fused processors {}", stages, e);
+            throw new RuntimeException(e);
+        }
+        addParallelismToComponent();
+    }
+
+    private String getStageType(StreamlineProcessor processor) {
+        if (processor instanceof RulesProcessor) {
+            return StormTopologyLayoutConstants.FUSED_STAGE_TYPE_RULES;
+        } else if (processor instanceof NormalizationProcessor) {
+            return StormTopologyLayoutConstants.FUSED_STAGE_TYPE_NORMALIZATION;
+        }
+        throw new IllegalArgumentException("Processor can not be fused: " + processor);
+    }
+
+    /**
+     * A processor in the fused chain along with the streams of the previous processor it consumes.
+     */
+    public static class Stage {
+        private final String name;
+        private final StreamlineProcessor processor;
+        private final Collection<String> inputStreams;
+
+        public Stage(String name, StreamlineProcessor processor, Collection<String> inputStreams) {
+            this.name = name;
+            this.processor = processor;
+            this.inputStreams = inputStreams;
+        }
+
+        @Override
+        public String toString() {
+            return "Stage{" +
+                    "name='" + name + '\'' +
+                    ", processor=" + processor +
+                    ", inputStreams=" + inputStreams +
+                    '}';
+        }
+    }
+}
@@ -30,7 +30,7 @@ public class HbaseBoltFluxComponent extends AbstractFluxComponent {
     protected void generateComponent () {
         String hbaseMapperRef = addHbaseMapperComponent();
         String boltId = "hbaseBolt" + UUID_FOR_COMPONENTS;
-        String boltClassName = "org.apache.storm.hbase.bolt.HBaseBolt";
+        String boltClassName = "com.hortonworks.streamline.streams.runtime.storm.hbase.StreamlineHBaseBolt";
         String[] constructorArgNames = {
             TopologyLayoutConstants.JSON_KEY_TABLE
         };
@@ -47,6 +47,10 @@ public class HbaseBoltFluxComponent extends AbstractFluxComponent {
             configMethodNames.add("withBatchSize");
             values.add(conf.get(TopologyLayoutConstants.JSON_KEY_BATCH_SIZE));
         }
+        if (conf.get(TopologyLayoutConstants.JSON_KEY_FLUSH_INTERVAL_SECS) != null) {
+            configMethodNames.add("withFlushIntervalSecs");
+            values.add(conf.get(TopologyLayoutConstants.JSON_KEY_FLUSH_INTERVAL_SECS));
+        }
         /*
          * configKey is mandatory for hbase bolt. The topology config is expected to contain
          * "hbaseConf" with the required hbase config.
@@ -61,7 +65,7 @@ public class HbaseBoltFluxComponent extends AbstractFluxComponent {
     private String addHbaseMapperComponent () {
         String hbaseMapperComponentId = "hbaseMapper" + UUID_FOR_COMPONENTS;
 
-        // currently only ParserOutputHbaseMapper is supported.
+        // currently only StreamlineEventHBaseMapper is supported.
         String hbaseMapperClassName = "com.hortonworks.streamline.streams.runtime.storm.hbase.StreamlineEventHBaseMapper";
 
         //constructor args
@@ -70,9 +74,19 @@ public class HbaseBoltFluxComponent extends AbstractFluxComponent {
         };
         List<Object> hbaseMapperConstructorArgs = getConstructorArgsYaml
                 (constructorArgNames);
+        String[] configMethodNames = {
+            "withFields", "withRowKeyStrategy", "withRowKeyFields", "withSaltBuckets", "withTimestampField"
+        };
+        String[] configKeys = {
+            TopologyLayoutConstants.JSON_KEY_COLUMN_FIELDS,
+            TopologyLayoutConstants.JSON_KEY_ROW_KEY_STRATEGY,
+            TopologyLayoutConstants.JSON_KEY_ROW_KEY_FIELDS,
+            TopologyLayoutConstants.JSON_KEY_SALT_BUCKETS,
+            TopologyLayoutConstants.JSON_KEY_TIMESTAMP_FIELD
+        };
 
         this.addToComponents(this.createComponent(hbaseMapperComponentId,
-                hbaseMapperClassName, null, hbaseMapperConstructorArgs, null));
+                hbaseMapperClassName, null, hbaseMapperConstructorArgs, getConfigMethodsYaml(configMethodNames, configKeys)));
         return hbaseMapperComponentId;
 
     }
@@ -98,7 +112,9 @@ public class HbaseBoltFluxComponent extends AbstractFluxComponent {
         };
         validateStringFields(requiredStringFields, true);
         String[] optionalStringFields = {
-            TopologyLayoutConstants.JSON_KEY_CONFIG_KEY
+            TopologyLayoutConstants.JSON_KEY_CONFIG_KEY,
+            TopologyLayoutConstants.JSON_KEY_ROW_KEY_STRATEGY,
+            TopologyLayoutConstants.JSON_KEY_TIMESTAMP_FIELD
         };
         validateStringFields(optionalStringFields, false);
     }
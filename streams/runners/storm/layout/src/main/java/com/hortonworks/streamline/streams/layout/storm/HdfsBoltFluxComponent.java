@@ -15,7 +15,9 @@
  **/
 package com.hortonworks.streamline.streams.layout.storm;
 
+import com.hortonworks.registries.common.Schema;
 import com.hortonworks.streamline.streams.layout.TopologyLayoutConstants;
+import com.hortonworks.streamline.streams.layout.component.Stream;
 import com.hortonworks.streamline.streams.layout.exception.ComponentConfigException;
 
 import java.util.ArrayList;
@@ -23,14 +25,21 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation for HdfsBolt
  */
 public class HdfsBoltFluxComponent extends AbstractFluxComponent {
 
+    private static final String OUTPUT_FORMAT_PARQUET = "PARQUET";
+
     @Override
     protected void generateComponent () {
+        if (OUTPUT_FORMAT_PARQUET.equals(conf.get(TopologyLayoutConstants.JSON_KEY_OUTPUT_FORMAT))) {
+            generateParquetComponent();
+            return;
+        }
         String boltId = "hdfsBolt" + UUID_FOR_COMPONENTS;
         String boltClassName = "org.apache.storm.hdfs.bolt.HdfsBolt";
 
@@ -63,6 +72,87 @@ public class HdfsBoltFluxComponent extends AbstractFluxComponent {
 
 
 
+    /*
+     * Columnar output: the column types are taken from the schema of the input streams and the rotation policy is
+     * applied by the bolt itself, which closes a file when it is rotated.
+     */
+    private void generateParquetComponent () {
+        String boltId = "parquetHdfsBolt" + UUID_FOR_COMPONENTS;
+        String boltClassName = "com.hortonworks.streamline.streams.runtime.storm.hdfs.ParquetHdfsBolt";
+
+        List<String> fields = (List<String>) conf.get(TopologyLayoutConstants.JSON_KEY_OUTPUT_FIELDS);
+        List<String> fieldTypes = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            fieldTypes.add(getInputFieldType(field));
+        }
+        List<String> configMethodNames = new ArrayList<>(Arrays.asList("withFsUrl", "withConfigKey",
+                "withCompressionCodec"));
+        List<Object> values = new ArrayList<>(Arrays.asList(conf.get(TopologyLayoutConstants.JSON_KEY_FS_URL),
+                conf.get(TopologyLayoutConstants.JSON_KEY_CONFIG_KEY), conf.get(TopologyLayoutConstants.JSON_KEY_COMPRESSION_CODEC)));
+        configMethodNames.add("withFields");
+        values.add(fields);
+        configMethodNames.add("withFieldTypes");
+        values.add(fieldTypes);
+        Number rowGroupSizeMB = (Number) conf.get(TopologyLayoutConstants.JSON_KEY_ROW_GROUP_SIZE_MB);
+        if (rowGroupSizeMB != null) {
+            configMethodNames.add("withRowGroupSizeBytes");
+            values.add(rowGroupSizeMB.intValue() * 1024 * 1024);
+        }
+        Map<String, Object> rotationPolicy = (Map<String, Object>) conf.get(TopologyLayoutConstants.JSON_KEY_ROTATION_POLICY);
+        if (rotationPolicy != null && rotationPolicy.containsKey(TopologyLayoutConstants.JSON_KEY_TIME_BASED_ROTATION)) {
+            Map<String, Object> timeBased = (Map<String, Object>) rotationPolicy.get(TopologyLayoutConstants.JSON_KEY_TIME_BASED_ROTATION);
+            double interval = ((Number) timeBased.get(TopologyLayoutConstants.JSON_KEY_ROTATION_INTERVAL)).doubleValue();
+            TimeUnit unit = TimeUnit.valueOf((String) timeBased.get(TopologyLayoutConstants.JSON_KEY_ROTATION_INTERVAL_UNIT));
+            configMethodNames.add("withRotationIntervalSecs");
+            values.add((int) Math.max(1, interval * unit.toSeconds(1)));
+        } else if (rotationPolicy != null && rotationPolicy.containsKey(TopologyLayoutConstants.JSON_KEY_SIZE_BASED_ROTATION)) {
+            Map<String, Object> sizeBased = (Map<String, Object>) rotationPolicy.get(TopologyLayoutConstants.JSON_KEY_SIZE_BASED_ROTATION);
+            double size = ((Number) sizeBased.get(TopologyLayoutConstants.JSON_KEY_ROTATION_SIZE)).doubleValue();
+            String unit = (String) sizeBased.get(TopologyLayoutConstants.JSON_KEY_ROTATION_SIZE_UNIT);
+            configMethodNames.add("withRotationSizeBytes");
+            values.add((long) (size * getSizeUnitBytes(unit)));
+        }
+        List<Map<String, Object>> configMethods = new ArrayList<>();
+        for (int i = 0; i < configMethodNames.size(); i++) {
+            if (values.get(i) != null) {
+                configMethods.addAll(getConfigMethodsYaml(new String[] {configMethodNames.get(i)}, new Object[] {values.get(i)}));
+            }
+        }
+        configMethods.addAll(getConfigMethodWithRefArg(new String[] {"withFileNameFormat"},
+                new String[] {addFileNameFormatComponent()}));
+        component = createComponent(boltId, boltClassName, null, null, configMethods);
+        addParallelismToComponent();
+    }
+
+    private String getInputFieldType(String field) {
+        List<Stream> inputStreams = (List<Stream>) conf.get(StormTopologyLayoutConstants.INPUT_STREAMS_CONF_KEY);
+        if (inputStreams != null) {
+            for (Stream stream : inputStreams) {
+                for (Schema.Field schemaField : stream.getSchema().getFields()) {
+                    if (schemaField.getName().equals(field)) {
+                        return schemaField.getType().name();
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Output field " + field + " is not a field of the input streams");
+    }
+
+    private static long getSizeUnitBytes(String unit) {
+        switch (unit) {
+            case "KB":
+                return 1024L;
+            case "MB":
+                return 1024L * 1024;
+            case "GB":
+                return 1024L * 1024 * 1024;
+            case "TB":
+                return 1024L * 1024 * 1024 * 1024;
+            default:
+                throw new IllegalArgumentException("Unsupported rotation size unit " + unit);
+        }
+    }
+
     private String addFileNameFormatComponent () {
         String fileNameFormatComponentId = "fileNameFormat" +
                 UUID_FOR_COMPONENTS;
@@ -95,7 +185,7 @@ public class HdfsBoltFluxComponent extends AbstractFluxComponent {
         // setup the call to 'withFields()' config method
         Map<String, Object> withFieldsMethod = new LinkedHashMap<>();
         withFieldsMethod.put(StormTopologyLayoutConstants.YAML_KEY_NAME, "withFields");
-        String outputFields = getCommaSepList( (List<String>) conf.get("outputFields") ) ;
+        String outputFields = getCommaSepList( (List<String>) conf.get(TopologyLayoutConstants.JSON_KEY_OUTPUT_FIELDS) ) ;
         withFieldsMethod.put(StormTopologyLayoutConstants.YAML_KEY_ARGS, Arrays.asList(outputFields));
         configMethods.add(withFieldsMethod);
 
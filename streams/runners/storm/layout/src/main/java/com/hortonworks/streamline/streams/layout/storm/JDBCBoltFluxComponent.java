@@ -33,22 +33,26 @@ public class JDBCBoltFluxComponent extends AbstractFluxComponent {
     private static final String KEY_DATASOURCE_URL = "dataSource.url";
     private static final String KEY_DATASOURCE_USER = "dataSource.user";
     private static final String KEY_DATASOURCE_PASSWORD = "dataSource.password";
+    private static final String KEY_BATCH_SIZE = "batchSize";
+    private static final String KEY_BATCH_FLUSH_INTERVAL_SECS = "batchFlushIntervalSecs";
+    private static final String KEY_QUERY_TIMEOUT_SECS = "queryTimeoutSecs";
+    private static final String KEY_UPSERT_DIALECT = "upsertDialect";
+    private static final String KEY_KEY_COLUMNS = "keyColumns";
 
     @Override
     protected void generateComponent() {
-        String boltId = "jdbcInsertBolt" + UUID_FOR_COMPONENTS;
-        String boltClassName = "org.apache.storm.jdbc.bolt.JdbcInsertBolt";
+        String boltId = "jdbcSinkBolt" + UUID_FOR_COMPONENTS;
+        String boltClassName = "com.hortonworks.streamline.streams.runtime.storm.bolt.jdbc.JdbcSinkBolt";
         List<Object> constructorArgs = new ArrayList<>();
-        List<Map<String, Object>> configMethods = new ArrayList<>();
-        String connectionProviderId = getConnectionProvider();
-        addArg(constructorArgs, getRefYaml(connectionProviderId));
-        addArg(constructorArgs, getRefYaml(getJdbcMapper(connectionProviderId)));
-        Map<String, Object> withTableName = new LinkedHashMap<>();
-        withTableName.put(StormTopologyLayoutConstants.YAML_KEY_NAME, "withTableName");
-        String tableName = (String) conf.get(KEY_TABLE_NAME);
-        withTableName.put(StormTopologyLayoutConstants.YAML_KEY_ARGS, Arrays.asList(tableName));
-        configMethods.add(withTableName);
-        component = createComponent(boltId, boltClassName, null, constructorArgs, configMethods);
+        addArg(constructorArgs, getRefYaml(getConnectionProvider()));
+        addArg(constructorArgs, KEY_TABLE_NAME);
+        addArg(constructorArgs, getRefYaml(getColumnList((List<String>) conf.get(KEY_COLUMNS))));
+        String[] configMethodNames = {"withBatchSize", "withBatchFlushIntervalSecs", "withQueryTimeoutSecs",
+                "withUpsertDialect", "withKeyColumns"};
+        String[] configKeys = {KEY_BATCH_SIZE, KEY_BATCH_FLUSH_INTERVAL_SECS, KEY_QUERY_TIMEOUT_SECS,
+                KEY_UPSERT_DIALECT, KEY_KEY_COLUMNS};
+        component = createComponent(boltId, boltClassName, null, constructorArgs,
+                getConfigMethodsYaml(configMethodNames, configKeys));
         addParallelismToComponent();
     }
 
@@ -98,16 +102,4 @@ public class JDBCBoltFluxComponent extends AbstractFluxComponent {
         addToComponents(createComponent(componentId, className, null, null, configMethods));
         return componentId;
     }
-
-    private String getJdbcMapper(String connectionProviderId) {
-        String componentId = "JdbcMapper" + UUID_FOR_COMPONENTS;
-        List<Object> constructorArgs = new ArrayList<>();
-        addArg(constructorArgs, KEY_TABLE_NAME);
-        addArg(constructorArgs, getRefYaml(connectionProviderId));
-        String columnListId = getColumnList((List<String>) conf.get(KEY_COLUMNS));
-        addArg(constructorArgs, getRefYaml(columnListId));
-        String className = "com.hortonworks.streamline.streams.runtime.storm.bolt.StreamlineJdbcMapper";
-        addToComponents(createComponent(componentId, className, null, constructorArgs, null));
-        return componentId;
-    }
 }
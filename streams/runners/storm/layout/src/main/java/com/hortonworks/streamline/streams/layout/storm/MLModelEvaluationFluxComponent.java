@@ -20,11 +20,13 @@ import com.google.common.collect.Lists;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.hortonworks.streamline.streams.layout.component.impl.model.ModelProcessor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -36,8 +38,8 @@ public class MLModelEvaluationFluxComponent extends AbstractFluxComponent {
     @Override
     protected void generateComponent() {
         LOG.debug("Generating [{}]", this.getClass().getSimpleName());
-        final String boltId = "PMMLPredictorBolt" + UUID_FOR_COMPONENTS;
-        final String boltClassName = "org.apache.storm.pmml.PMMLPredictorBolt";
+        final String boltId = "ModelEvaluationBolt" + UUID_FOR_COMPONENTS;
+        final String boltClassName = "com.hortonworks.streamline.streams.runtime.storm.bolt.model.ModelEvaluationBolt";
         final List<Object> boltConstructorArgs = Lists.newArrayList(
                 getRefYaml(modelRunnerFactory()),
                 getRefYaml(modelOutputs()));
@@ -50,7 +52,7 @@ public class MLModelEvaluationFluxComponent extends AbstractFluxComponent {
     private String modelRunnerFactory() {
         final String componentId = "ModelRunnerFactory_" + UUID_FOR_COMPONENTS;
         final String className = "com.hortonworks.streamline.streams.runtime.storm.bolt.model.StreamlineJPMMLModelRunnerFactory";
-        final List<Object> constructorArgs = Lists.newArrayList(modelProcessorJson(), getRefYaml(modelOutputs()));
+        final List<Object> constructorArgs = Lists.newArrayList(modelProcessorJson(true), getRefYaml(modelOutputs()));
 
         addToComponents(createComponent(componentId, className, null, constructorArgs, null));
         LOG.debug("Created [{}] with component id [{}]", "StreamlineJPMMLModelRunnerFactory", componentId);
@@ -61,7 +63,8 @@ public class MLModelEvaluationFluxComponent extends AbstractFluxComponent {
         if (modelOutputsComponentId == null) {
             modelOutputsComponentId = "ModelOutputs_" + UUID_FOR_COMPONENTS;
             final String className = "com.hortonworks.streamline.streams.runtime.storm.bolt.model.StreamlineEventModelOutputs";
-            final List<Object> constructorArgs = Collections.singletonList(modelProcessorJson());
+            // the outputs only need the streams, the model is left out to keep the topology definition small
+            final List<Object> constructorArgs = Collections.singletonList(modelProcessorJson(false));
 
             addToComponents(createComponent(modelOutputsComponentId, className, null, constructorArgs, null));
         }
@@ -70,13 +73,17 @@ public class MLModelEvaluationFluxComponent extends AbstractFluxComponent {
     }
 
 
-    private String modelProcessorJson() {
+    private String modelProcessorJson(boolean includeModel) {
         final ModelProcessor modelProcessorUI = (ModelProcessor) conf.get(StormTopologyLayoutConstants.STREAMLINE_COMPONENT_CONF_KEY);
 
         ObjectMapper mapper = new ObjectMapper();
         String modelProcessorJson;
         try {
-            modelProcessorJson = mapper.writeValueAsString(modelProcessorUI);
+            ObjectNode node = mapper.valueToTree(modelProcessorUI);
+            if (!includeModel) {
+                node.remove(Arrays.asList("pmml", "modelArtifact"));
+            }
+            modelProcessorJson = mapper.writeValueAsString(node);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error creating JSON config string for ML ModelProcessor", e);
         }
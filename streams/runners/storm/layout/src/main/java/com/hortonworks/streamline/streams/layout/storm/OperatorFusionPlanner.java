@@ -0,0 +1,152 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.layout.storm;
+
+import com.hortonworks.streamline.streams.layout.TopologyLayoutConstants;
+import com.hortonworks.streamline.streams.layout.component.Component;
+import com.hortonworks.streamline.streams.layout.component.Edge;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.StreamGrouping;
+import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
+import com.hortonworks.streamline.streams.layout.component.TopologyDag;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.JoinAction;
+import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.JoinProcessor;
+import com.hortonworks.streamline.streams.layout.component.rule.Rule;
+import com.hortonworks.streamline.streams.layout.component.rule.action.Action;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds linear chains of stateless processors in a {@link TopologyDag} which can be executed by a single fused bolt.
+ * <p>
+ * Two processors are chained when the upstream processor has a single edge which goes to the downstream processor,
+ * the downstream processor has no other incoming edge, all stream groupings on the edge are shuffle groupings and both
+ * processors have the same parallelism. Only rules (including projection, split and stage processors) without windows or
+ * join actions and normalization processors are fused, since their runtimes keep no state across events.
+ */
+public class OperatorFusionPlanner {
+
+    /**
+     * @return chains of at least two processors in data flow order, no processor is part of more than one chain
+     */
+    public List<List<StreamlineProcessor>> plan(TopologyDag topologyDag) {
+        List<List<StreamlineProcessor>> chains = new ArrayList<>();
+        for (Component component : topologyDag.getComponents()) {
+            if (!isFusible(component) || getFusiblePredecessor(topologyDag, component) != null) {
+                continue;
+            }
+            List<StreamlineProcessor> chain = new ArrayList<>();
+            StreamlineProcessor current = (StreamlineProcessor) component;
+            while (current != null) {
+                chain.add(current);
+                current = getFusibleSuccessor(topologyDag, current);
+            }
+            if (chain.size() > 1) {
+                chains.add(chain);
+            }
+        }
+        return chains;
+    }
+
+    /**
+     * @return the processor the given fusible component can be fused after, or null
+     */
+    private StreamlineProcessor getFusiblePredecessor(TopologyDag topologyDag, Component component) {
+        List<Edge> edgesTo = topologyDag.getEdgesTo(component);
+        if (edgesTo.size() == 1) {
+            Component from = edgesTo.get(0).getFrom();
+            if (isFusible(from) && canFuse(topologyDag, (StreamlineProcessor) from, (StreamlineProcessor) component)) {
+                return (StreamlineProcessor) from;
+            }
+        }
+        return null;
+    }
+
+    private StreamlineProcessor getFusibleSuccessor(TopologyDag topologyDag, StreamlineProcessor processor) {
+        List<Edge> edgesFrom = topologyDag.getEdgesFrom(processor);
+        if (edgesFrom.size() == 1) {
+            Component to = edgesFrom.get(0).getTo();
+            if (isFusible(to) && canFuse(topologyDag, processor, (StreamlineProcessor) to)) {
+                return (StreamlineProcessor) to;
+            }
+        }
+        return null;
+    }
+
+    private boolean canFuse(TopologyDag topologyDag, StreamlineProcessor from, StreamlineProcessor to) {
+        if (from == to) {
+            return false;
+        }
+        List<Edge> edgesFrom = topologyDag.getEdgesFrom(from);
+        List<Edge> edgesTo = topologyDag.getEdgesTo(to);
+        if (edgesFrom.size() != 1 || edgesTo.size() != 1 || edgesFrom.get(0) != edgesTo.get(0)) {
+            return false;
+        }
+        for (StreamGrouping streamGrouping : edgesFrom.get(0).getStreamGroupings()) {
+            if (streamGrouping.getGrouping() != Stream.Grouping.SHUFFLE) {
+                return false;
+            }
+        }
+        return getParallelism(from) == getParallelism(to);
+    }
+
+    /**
+     * Returns true if the component is a stateless rules or normalization processor,
+     * i.e. one that processes each event independently of the others.
+     */
+    public static boolean isFusible(Component component) {
+        if (!(component instanceof StreamlineProcessor)) {
+            return false;
+        }
+        String transformationClass = ((StreamlineProcessor) component).getTransformationClass();
+        if (component instanceof NormalizationProcessor) {
+            return NormalizationBoltFluxComponent.class.getName().equals(transformationClass);
+        } else if (component instanceof RulesProcessor && !(component instanceof JoinProcessor)) {
+            return RuleBoltFluxComponent.class.getName().equals(transformationClass)
+                    && isStateless(((RulesProcessor) component).getRules());
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if none of the rules has a window or a join action.
+     */
+    static boolean isStateless(List<Rule> rules) {
+        if (rules == null) {
+            return false;
+        }
+        for (Rule rule : rules) {
+            if (rule.getWindow() != null) {
+                return false;
+            }
+            if (rule.getActions() != null) {
+                for (Action action : rule.getActions()) {
+                    if (action instanceof JoinAction) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private int getParallelism(Component component) {
+        return component.getConfig().getInt(TopologyLayoutConstants.JSON_KEY_PARALLELISM, 1);
+    }
+}
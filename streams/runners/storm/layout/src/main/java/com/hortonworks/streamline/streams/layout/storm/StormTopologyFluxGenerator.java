@@ -20,6 +20,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Multimap;
 import com.hortonworks.streamline.common.Config;
+import com.hortonworks.streamline.streams.layout.TopologyLayoutConstants;
 import com.hortonworks.streamline.streams.layout.component.Component;
 import com.hortonworks.streamline.streams.layout.component.Edge;
 import com.hortonworks.streamline.streams.layout.component.InputComponent;
@@ -32,7 +33,9 @@ import com.hortonworks.streamline.streams.layout.component.StreamGrouping;
 import com.hortonworks.streamline.streams.layout.component.TopologyDag;
 import com.hortonworks.streamline.streams.layout.component.TopologyDagVisitor;
 import com.hortonworks.streamline.streams.layout.component.TopologyLayout;
+import com.hortonworks.streamline.streams.layout.component.impl.CustomProcessor;
 import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.JoinProcessor;
 import com.hortonworks.streamline.streams.layout.component.rule.Rule;
 import com.hortonworks.streamline.streams.layout.component.rule.expression.Window;
 import org.slf4j.Logger;
@@ -63,12 +66,22 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
     private final TopologyDag topologyDag;
     private final Map<String, String> config;
     private final Config topologyConfig;
+    // processor to the fused chain it is part of
+    private final Map<Component, List<StreamlineProcessor>> fusedChains = new HashMap<>();
 
     public StormTopologyFluxGenerator(TopologyLayout topologyLayout, Map<String, String> config, Path extraJarsLocation) {
         this.topologyDag = topologyLayout.getTopologyDag();
         this.topologyConfig = topologyLayout.getConfig();
         this.config = config;
         fluxComponentFactory = new FluxComponentFactory(extraJarsLocation);
+        if (topologyConfig.getBoolean(StormTopologyLayoutConstants.TOPOLOGY_FUSION_ENABLED, false)) {
+            for (List<StreamlineProcessor> chain : new OperatorFusionPlanner().plan(topologyDag)) {
+                LOG.debug("Fusing processors {}", chain);
+                for (StreamlineProcessor processor : chain) {
+                    fusedChains.put(processor, chain);
+                }
+            }
+        }
     }
 
     @Override
@@ -85,6 +98,13 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
 
     @Override
     public void visit(StreamlineProcessor processor) {
+        if (fusedChains.containsKey(processor)) {
+            visitFused(processor);
+            return;
+        }
+        if (processor instanceof CustomProcessor) {
+            applyCustomProcessorDefaults(processor.getConfig());
+        }
         keysAndComponents.add(makeEntry(StormTopologyLayoutConstants.YAML_KEY_BOLTS,
                 getYamlComponents(fluxComponentFactory.getFluxComponent(processor), processor)));
     }
@@ -92,6 +112,10 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
 
     @Override
     public void visit(final RulesProcessor rulesProcessor) {
+        if (fusedChains.containsKey(rulesProcessor)) {
+            visitFused(rulesProcessor);
+            return;
+        }
         rulesProcessor.getConfig().setAny("outputStreams", rulesProcessor.getOutputStreams());
         List<Rule> rulesWithWindow = new ArrayList<>();
         List<Rule> rulesWithoutWindow = new ArrayList<>();
@@ -145,6 +169,62 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         }
     }
 
+    /**
+     * Generates a single bolt for the whole chain when visiting its first processor, the other processors of the chain
+     * are skipped. The fused bolt gets the flux id of the first processor so that edges into the chain are unchanged,
+     * which also means that the Storm metrics of the whole chain are reported under the first processor.
+     */
+    private void visitFused(StreamlineProcessor processor) {
+        List<StreamlineProcessor> chain = fusedChains.get(processor);
+        if (chain.get(0) != processor) {
+            return;
+        }
+        List<FusedProcessorBoltFluxComponent.Stage> stages = new ArrayList<>();
+        StreamlineProcessor previous = null;
+        for (StreamlineProcessor member : chain) {
+            if (member instanceof RulesProcessor) {
+                RulesProcessor rulesProcessor = (RulesProcessor) member;
+                rulesProcessor.getConfig().setAny("outputStreams", rulesProcessor.getOutputStreams());
+                rulesProcessor.getConfig().setAny(RulesProcessor.CONFIG_KEY_RULES, Collections2.transform(rulesProcessor.getRules(), new Function<Rule, Long>() {
+                    @Override
+                    public Long apply(Rule input) {
+                        return input.getId();
+                    }
+                }));
+            }
+            List<String> inputStreams = new ArrayList<>();
+            if (previous != null) {
+                for (StreamGrouping streamGrouping : topologyDag.getEdgesFrom(previous).get(0).getStreamGroupings()) {
+                    inputStreams.add(streamGrouping.getStream().getId());
+                }
+            }
+            stages.add(new FusedProcessorBoltFluxComponent.Stage(getComponentFluxId(member), member, inputStreams));
+            previous = member;
+        }
+        keysAndComponents.add(makeEntry(StormTopologyLayoutConstants.YAML_KEY_BOLTS,
+                getYamlComponents(new FusedProcessorBoltFluxComponent(stages), processor)));
+    }
+
+    private boolean isFusedEdge(Edge edge) {
+        List<StreamlineProcessor> chain = fusedChains.get(edge.getFrom());
+        return chain != null && chain == fusedChains.get(edge.getTo());
+    }
+
+    private void applyCustomProcessorDefaults(Config componentConfig) {
+        String strategyKey = TopologyLayoutConstants.JSON_KEY_CUSTOM_PROCESSOR_INSTANTIATION_STRATEGY;
+        if (!componentConfig.contains(strategyKey)
+                && topologyConfig.contains(StormTopologyLayoutConstants.TOPOLOGY_CUSTOM_PROCESSOR_INSTANTIATION_STRATEGY)) {
+            componentConfig.setAny(strategyKey,
+                    String.valueOf(topologyConfig.getAny(StormTopologyLayoutConstants.TOPOLOGY_CUSTOM_PROCESSOR_INSTANTIATION_STRATEGY)));
+        }
+        String poolSizeKey = TopologyLayoutConstants.JSON_KEY_CUSTOM_PROCESSOR_POOL_SIZE;
+        if (!componentConfig.contains(poolSizeKey)
+                && topologyConfig.contains(StormTopologyLayoutConstants.TOPOLOGY_CUSTOM_PROCESSOR_POOL_SIZE)) {
+            componentConfig.setAny(poolSizeKey,
+                    Integer.parseInt(String.valueOf(topologyConfig.getAny(StormTopologyLayoutConstants.TOPOLOGY_CUSTOM_PROCESSOR_POOL_SIZE))));
+        }
+    }
+
     private void mayBeUpdateTopologyConfig(Window window) {
         int messageTimeoutSecs = DELTA;
         int maxPending = DELTA;
@@ -205,6 +285,9 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
 
     @Override
     public void visit(Edge edge) {
+        if (isFusedEdge(edge)) {
+            return;
+        }
         if (sourceYamlComponentExists(edge)) {
             for (StreamGrouping streamGrouping : edge.getStreamGroupings()) {
                 addEdge(edge.getFrom(),
@@ -240,6 +323,9 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         props.putAll(topologyComponent.getConfig().getProperties());
         // below line is needed becuase kafka, normalization, notification and rules flux components need design time entities
         props.put(StormTopologyLayoutConstants.STREAMLINE_COMPONENT_CONF_KEY, topologyComponent);
+        if (topologyComponent instanceof InputComponent) {
+            props.put(StormTopologyLayoutConstants.INPUT_STREAMS_CONF_KEY, getInputStreams(topologyComponent));
+        }
         fluxComponent.withConfig(props);
 
         for (Map<String, Object> referencedComponent : fluxComponent.getReferencedComponents()) {
@@ -251,18 +337,27 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         return yamlComponent;
     }
 
+    private List<Stream> getInputStreams(Component component) {
+        List<Stream> inputStreams = new ArrayList<>();
+        for (Edge edge : topologyDag.getEdgesTo(component)) {
+            for (StreamGrouping streamGrouping : edge.getStreamGroupings()) {
+                inputStreams.add(streamGrouping.getStream());
+            }
+        }
+        return inputStreams;
+    }
+
     private void addEdge(OutputComponent from, InputComponent to, String streamId, Stream.Grouping groupingType, List<String> fields) {
+        validateGrouping(to, groupingType);
         LinkFluxComponent fluxComponent = new LinkFluxComponent();
         Map<String, Object> config = new HashMap<>();
         Map<String, Object> grouping = new LinkedHashMap<>();
         if (Stream.Grouping.FIELDS.equals(groupingType)) {
-            grouping.put(StormTopologyLayoutConstants.YAML_KEY_TYPE, StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING);
-            Map<Object, Object> customGroupingClass = new HashMap<>();
-            customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME, StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING_CLASSNAME);
-            List<Object> constructorArgs = new ArrayList<>();
-            constructorArgs.add(fields);
-            customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CONSTRUCTOR_ARGS, constructorArgs);
-            grouping.put(StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING_CLASS, customGroupingClass);
+            addCustomGrouping(grouping, StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING_CLASSNAME, fields);
+        } else if (Stream.Grouping.PARTIAL_KEY.equals(groupingType)) {
+            addCustomGrouping(grouping, StormTopologyLayoutConstants.YAML_KEY_PARTIAL_KEY_GROUPING_CLASSNAME, fields);
+        } else if (Stream.Grouping.CONSISTENT_HASH.equals(groupingType)) {
+            addCustomGrouping(grouping, StormTopologyLayoutConstants.YAML_KEY_CONSISTENT_HASH_GROUPING_CLASSNAME, fields);
         } else if (Stream.Grouping.SHUFFLE.equals(groupingType)) {
             grouping.put(StormTopologyLayoutConstants.YAML_KEY_TYPE, StormTopologyLayoutConstants.YAML_KEY_LOCAL_OR_SHUFFLE_GROUPING);
         } else {
@@ -277,11 +372,48 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         keysAndComponents.add(makeEntry(StormTopologyLayoutConstants.YAML_KEY_STREAMS, yamlComponent));
     }
 
+    /**
+     * Partial key grouping splits each key between two tasks, which breaks windowed, join and other stateful bolts since
+     * they need all the tuples of a key on the same task. Consistent hash grouping keeps the key on one task.
+     */
+    static void validateGrouping(InputComponent to, Stream.Grouping groupingType) {
+        if (Stream.Grouping.PARTIAL_KEY.equals(groupingType) && requiresKeyAffinity(to)) {
+            throw new IllegalArgumentException("Grouping " + groupingType + " is not supported on edges into component "
+                    + to.getName() + ", which needs all the events of a key on the same task. Use "
+                    + Stream.Grouping.FIELDS + " or " + Stream.Grouping.CONSISTENT_HASH + " instead.");
+        }
+    }
+
+    private static boolean requiresKeyAffinity(Component component) {
+        if (component instanceof JoinProcessor) {
+            return true;
+        } else if (component instanceof RulesProcessor) {
+            List<Rule> rules = ((RulesProcessor) component).getRules();
+            return rules != null && !OperatorFusionPlanner.isStateless(rules);
+        }
+        return false;
+    }
+
+    private void addCustomGrouping(Map<String, Object> grouping, String groupingClassName, List<String> fields) {
+        grouping.put(StormTopologyLayoutConstants.YAML_KEY_TYPE, StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING);
+        Map<Object, Object> customGroupingClass = new HashMap<>();
+        customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME, groupingClassName);
+        List<Object> constructorArgs = new ArrayList<>();
+        constructorArgs.add(fields);
+        customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CONSTRUCTOR_ARGS, constructorArgs);
+        grouping.put(StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING_CLASS, customGroupingClass);
+    }
+
     private Map.Entry<String, Map<String, Object>> makeEntry(String key, Map<String, Object> component) {
         return new AbstractMap.SimpleImmutableEntry<>(key, component);
     }
 
     private String getFluxId(Component component) {
+        List<StreamlineProcessor> chain = fusedChains.get(component);
+        return getComponentFluxId(chain != null ? chain.get(0) : component);
+    }
+
+    private String getComponentFluxId(Component component) {
         return component.getId() + "-" + component.getName();
     }
 }
@@ -27,6 +27,22 @@ public final class StormTopologyLayoutConstants {
     public static final String TOPOLOGY_MESSAGE_TIMEOUT_SECS = "topology.message.timeout.secs";
     public static final String TOPOLOGY_MAX_SPOUT_PENDING = "topology.max.spout.pending";
     public static final String STREAMLINE_COMPONENT_CONF_KEY = "streamlineComponent";
+    // the streams received by an input component, for flux components deriving their schema from the input
+    public static final String INPUT_STREAMS_CONF_KEY = "streamlineInputStreams";
+    // topology wide defaults for custom processor components which do not set their own
+    public static final String TOPOLOGY_CUSTOM_PROCESSOR_INSTANTIATION_STRATEGY = "topology.streamline.customprocessor.instantiation.strategy";
+    public static final String TOPOLOGY_CUSTOM_PROCESSOR_POOL_SIZE = "topology.streamline.customprocessor.pool.size";
+    // set to true to run chains of stateless processors in one bolt. Off by default since the Storm metrics of a fused
+    // chain are only reported under its first processor.
+    public static final String TOPOLOGY_FUSION_ENABLED = "topology.streamline.fusion.enabled";
+
+    // keys of the stages passed to the fused processor bolt
+    public static final String FUSED_STAGE_NAME = "name";
+    public static final String FUSED_STAGE_TYPE = "type";
+    public static final String FUSED_STAGE_TYPE_RULES = "RULES";
+    public static final String FUSED_STAGE_TYPE_NORMALIZATION = "NORMALIZATION";
+    public static final String FUSED_STAGE_INPUT_STREAMS = "inputStreams";
+    public static final String FUSED_STAGE_PROCESSOR = "processor";
 
     // yaml key constants
     public static final String YAML_KEY_NAME = "name";
@@ -67,4 +83,6 @@ public final class StormTopologyLayoutConstants {
     public final static String YAML_KEY_PARALLELISM = "parallelism";
     public final static String YAML_KEY_CUSTOM_GROUPING_CLASS = "customClass";
     public final static String YAML_KEY_CUSTOM_GROUPING_CLASSNAME = "com.hortonworks.streamline.streams.runtime.storm.grouping.FieldsGroupingAsCustomGrouping";
+    public final static String YAML_KEY_PARTIAL_KEY_GROUPING_CLASSNAME = "com.hortonworks.streamline.streams.runtime.storm.grouping.PartialKeyGrouping";
+    public final static String YAML_KEY_CONSISTENT_HASH_GROUPING_CLASSNAME = "com.hortonworks.streamline.streams.runtime.storm.grouping.ConsistentHashGrouping";
 }
@@ -0,0 +1,141 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.layout.storm;
+
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSink;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSource;
+import com.hortonworks.streamline.streams.layout.component.TopologyDag;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.rule.Rule;
+import com.hortonworks.streamline.streams.layout.component.rule.action.Action;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Window;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OperatorFusionPlannerTest {
+    private TopologyDag dag;
+    private StreamlineSource source;
+    private StreamlineSink sink;
+    private final OperatorFusionPlanner planner = new OperatorFusionPlanner();
+
+    @Before
+    public void setUp() {
+        dag = new TopologyDag();
+        source = new StreamlineSource(Collections.singleton(new Stream("source-stream")));
+        source.setId("1");
+        sink = new StreamlineSink();
+        sink.setId("99");
+        dag.add(source).add(sink);
+    }
+
+    @Test
+    public void testLinearChainIsFused() throws Exception {
+        RulesProcessor r1 = rulesProcessor("2");
+        RulesProcessor r2 = rulesProcessor("3");
+        RulesProcessor r3 = rulesProcessor("4");
+        dag.add(r1).add(r2).add(r3);
+        dag.addEdge(source, r1);
+        dag.addEdge(r1, r2);
+        dag.addEdge(r2, r3);
+        dag.addEdge(r3, sink);
+
+        List<List<StreamlineProcessor>> chains = planner.plan(dag);
+        assertEquals(1, chains.size());
+        assertEquals(Arrays.<StreamlineProcessor>asList(r1, r2, r3), chains.get(0));
+    }
+
+    @Test
+    public void testFieldsGroupingBreaksChain() throws Exception {
+        RulesProcessor r1 = rulesProcessor("2");
+        RulesProcessor r2 = rulesProcessor("3");
+        dag.add(r1).add(r2);
+        dag.addEdge(source, r1);
+        dag.addEdge("e1", r1, r2, "stream-2", Stream.Grouping.FIELDS);
+        dag.addEdge(r2, sink);
+
+        assertTrue(planner.plan(dag).isEmpty());
+    }
+
+    @Test
+    public void testFanOutAndParallelismBreakChain() throws Exception {
+        RulesProcessor r1 = rulesProcessor("2");
+        RulesProcessor r2 = rulesProcessor("3");
+        RulesProcessor r3 = rulesProcessor("4");
+        RulesProcessor r4 = rulesProcessor("5");
+        r4.getConfig().setAny("parallelism", 4);
+        dag.add(r1).add(r2).add(r3).add(r4);
+        dag.addEdge(source, r1);
+        // r1 fans out to r2 and sink
+        dag.addEdge(r1, r2);
+        dag.addEdge(r1, sink);
+        dag.addEdge(r2, r3);
+        // different parallelism
+        dag.addEdge(r3, r4);
+        dag.addEdge(r4, sink);
+
+        List<List<StreamlineProcessor>> chains = planner.plan(dag);
+        assertEquals(1, chains.size());
+        assertEquals(Arrays.<StreamlineProcessor>asList(r2, r3), chains.get(0));
+    }
+
+    @Test
+    public void testWindowedRulesAreNotFused() throws Exception {
+        RulesProcessor r1 = rulesProcessor("2");
+        RulesProcessor r2 = rulesProcessor("3");
+        r2.getRules().get(0).setWindow(new Window("{\"windowLength\":{\"class\":\".Window$Count\",\"count\":10}}"));
+        dag.add(r1).add(r2);
+        dag.addEdge(source, r1);
+        dag.addEdge(r1, r2);
+        dag.addEdge(r2, sink);
+
+        assertTrue(planner.plan(dag).isEmpty());
+    }
+
+    @Test
+    public void testFusionDisabledByTransformationClass() throws Exception {
+        RulesProcessor r1 = rulesProcessor("2");
+        RulesProcessor r2 = rulesProcessor("3");
+        r2.setTransformationClass(JoinBoltFluxComponent.class.getName());
+        dag.add(r1).add(r2);
+        dag.addEdge(source, r1);
+        dag.addEdge(r1, r2);
+        dag.addEdge(r2, sink);
+
+        assertTrue(planner.plan(dag).isEmpty());
+    }
+
+    private RulesProcessor rulesProcessor(String id) {
+        RulesProcessor rulesProcessor = new RulesProcessor();
+        rulesProcessor.setId(id);
+        rulesProcessor.setName("rule" + id);
+        rulesProcessor.setTransformationClass(RuleBoltFluxComponent.class.getName());
+        rulesProcessor.addOutputStream(new Stream("stream-" + id));
+        Rule rule = new Rule();
+        rule.setId(Long.valueOf(id));
+        rule.setActions(Collections.<Action>emptyList());
+        rulesProcessor.setRules(Collections.singletonList(rule));
+        return rulesProcessor;
+    }
+}
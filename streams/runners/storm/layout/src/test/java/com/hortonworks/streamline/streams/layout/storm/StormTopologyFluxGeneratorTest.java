@@ -0,0 +1,211 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.layout.storm;
+
+import com.hortonworks.streamline.common.Config;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.StreamGrouping;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSink;
+import com.hortonworks.streamline.streams.layout.component.StreamlineSource;
+import com.hortonworks.streamline.streams.layout.component.TopologyDag;
+import com.hortonworks.streamline.streams.layout.component.TopologyLayout;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.rule.Rule;
+import com.hortonworks.streamline.streams.layout.component.rule.action.Action;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Window;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StormTopologyFluxGeneratorTest {
+    private static final String RULES_BOLT_CLASS = "com.hortonworks.streamline.streams.runtime.storm.bolt.rules.RulesBolt";
+    private static final String FUSED_BOLT_CLASS = "com.hortonworks.streamline.streams.runtime.storm.bolt.FusedProcessorBolt";
+
+    private TopologyDag dag;
+    private StreamlineSource source;
+    private StreamlineSink sink;
+    private Config topologyConfig;
+
+    @Before
+    public void setUp() {
+        dag = new TopologyDag();
+        topologyConfig = new Config();
+        source = new StreamlineSource(Collections.singleton(new Stream("source-stream")));
+        source.setId("1");
+        source.setName("source");
+        source.setTransformationClass(TestFluxComponent.class.getName());
+        sink = new StreamlineSink();
+        sink.setId("99");
+        sink.setName("sink");
+        sink.setTransformationClass(TestFluxComponent.class.getName());
+        dag.add(source).add(sink);
+    }
+
+    @Test
+    public void testPartialKeyGroupingIntoWindowedRulesIsRejected() throws Exception {
+        RulesProcessor windowed = rulesProcessor("2");
+        windowed.getRules().get(0).setWindow(new Window("{\"windowLength\":{\"class\":\".Window$Count\",\"count\":10}}"));
+        connect(windowed, Stream.Grouping.PARTIAL_KEY);
+
+        try {
+            generate();
+            fail("Partial key grouping into a windowed bolt should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains(Stream.Grouping.PARTIAL_KEY.name()));
+        }
+    }
+
+    @Test
+    public void testKeyAffineGroupingsIntoWindowedRulesAreAccepted() throws Exception {
+        RulesProcessor windowed = rulesProcessor("2");
+        windowed.getRules().get(0).setWindow(new Window("{\"windowLength\":{\"class\":\".Window$Count\",\"count\":10}}"));
+        connect(windowed, Stream.Grouping.CONSISTENT_HASH);
+
+        assertEquals(1, countStreamsTo(generate(), "2.1-WindowedRulesProcessor"));
+    }
+
+    @Test
+    public void testPartialKeyGroupingIntoStatelessRulesIsAccepted() throws Exception {
+        RulesProcessor rules = rulesProcessor("2");
+        connect(rules, Stream.Grouping.PARTIAL_KEY);
+
+        assertEquals(1, countStreamsTo(generate(), "2-rule2"));
+    }
+
+    @Test
+    public void testStatelessChainIsNotFusedByDefault() throws Exception {
+        connectChain();
+
+        List<Map.Entry<String, Map<String, Object>>> keysAndComponents = generate();
+        assertEquals(3, countBolts(keysAndComponents, RULES_BOLT_CLASS));
+        assertEquals(0, countBolts(keysAndComponents, FUSED_BOLT_CLASS));
+        assertEquals(1, countStreamsTo(keysAndComponents, "3-rule3"));
+        assertEquals(1, countStreamsTo(keysAndComponents, "4-rule4"));
+    }
+
+    @Test
+    public void testStatelessChainIsFusedWhenEnabled() throws Exception {
+        topologyConfig.setAny(StormTopologyLayoutConstants.TOPOLOGY_FUSION_ENABLED, true);
+        connectChain();
+
+        List<Map.Entry<String, Map<String, Object>>> keysAndComponents = generate();
+        assertEquals(0, countBolts(keysAndComponents, RULES_BOLT_CLASS));
+        assertEquals(1, countBolts(keysAndComponents, FUSED_BOLT_CLASS));
+        // the fused bolt takes the id of the head of the chain, the edges inside the chain are dropped
+        Map<String, Object> fusedBolt = getBolt(keysAndComponents, FUSED_BOLT_CLASS);
+        assertEquals("2-rule2", fusedBolt.get(StormTopologyLayoutConstants.YAML_KEY_ID));
+        assertEquals(1, countStreamsTo(keysAndComponents, "2-rule2"));
+        assertEquals(0, countStreamsTo(keysAndComponents, "3-rule3"));
+        assertEquals(0, countStreamsTo(keysAndComponents, "4-rule4"));
+        assertEquals(1, countStreamsTo(keysAndComponents, "99-sink"));
+        String stages = String.valueOf(((List<?>) fusedBolt.get(StormTopologyLayoutConstants.YAML_KEY_CONSTRUCTOR_ARGS)).get(0));
+        assertTrue(stages.contains("\"2-rule2\"") && stages.contains("\"3-rule3\"") && stages.contains("\"4-rule4\""));
+    }
+
+    private void connectChain() {
+        RulesProcessor r1 = rulesProcessor("2", RuleBoltFluxComponent.class);
+        RulesProcessor r2 = rulesProcessor("3", RuleBoltFluxComponent.class);
+        RulesProcessor r3 = rulesProcessor("4", RuleBoltFluxComponent.class);
+        dag.add(r1).add(r2).add(r3);
+        dag.addEdge(source, r1);
+        dag.addEdge(r1, r2);
+        dag.addEdge(r2, r3);
+        dag.addEdge(r3, sink);
+    }
+
+    private int countBolts(List<Map.Entry<String, Map<String, Object>>> keysAndComponents, String className) {
+        int count = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : keysAndComponents) {
+            if (entry.getKey().equals(StormTopologyLayoutConstants.YAML_KEY_BOLTS)
+                    && className.equals(entry.getValue().get(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Map<String, Object> getBolt(List<Map.Entry<String, Map<String, Object>>> keysAndComponents, String className) {
+        for (Map.Entry<String, Map<String, Object>> entry : keysAndComponents) {
+            if (entry.getKey().equals(StormTopologyLayoutConstants.YAML_KEY_BOLTS)
+                    && className.equals(entry.getValue().get(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME))) {
+                return entry.getValue();
+            }
+        }
+        throw new AssertionError("No bolt of class " + className);
+    }
+
+    private void connect(RulesProcessor processor, Stream.Grouping grouping) {
+        dag.add(processor);
+        dag.addEdge("e1", source, processor, new StreamGrouping(source.getOutputStream("source-stream"), grouping,
+                Collections.singletonList("key")));
+        dag.addEdge(processor, sink);
+    }
+
+    private List<Map.Entry<String, Map<String, Object>>> generate() throws Exception {
+        StormTopologyFluxGenerator generator = new StormTopologyFluxGenerator(
+                new TopologyLayout(1L, "topology", topologyConfig, dag), Collections.<String, String>emptyMap(),
+                Paths.get(System.getProperty("java.io.tmpdir")));
+        dag.traverse(generator);
+        return generator.getYamlKeysAndComponents();
+    }
+
+    private int countStreamsTo(List<Map.Entry<String, Map<String, Object>>> keysAndComponents, String fluxId) {
+        int count = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : keysAndComponents) {
+            if (entry.getKey().equals(StormTopologyLayoutConstants.YAML_KEY_STREAMS)
+                    && fluxId.equals(entry.getValue().get(StormTopologyLayoutConstants.YAML_KEY_TO))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private RulesProcessor rulesProcessor(String id) {
+        return rulesProcessor(id, TestFluxComponent.class);
+    }
+
+    private RulesProcessor rulesProcessor(String id, Class<? extends FluxComponent> fluxComponentClass) {
+        RulesProcessor rulesProcessor = new RulesProcessor();
+        rulesProcessor.setId(id);
+        rulesProcessor.setName("rule" + id);
+        rulesProcessor.setTransformationClass(fluxComponentClass.getName());
+        rulesProcessor.addOutputStream(new Stream("stream-" + id));
+        Rule rule = new Rule();
+        rule.setId(Long.valueOf(id));
+        rule.setActions(Collections.<Action>emptyList());
+        rulesProcessor.setRules(Collections.singletonList(rule));
+        return rulesProcessor;
+    }
+
+    /**
+     * Generates a bare bolt or spout, the generator only needs the flux id of the components.
+     */
+    public static class TestFluxComponent extends AbstractFluxComponent {
+        @Override
+        protected void generateComponent() {
+            component = createComponent("test" + UUID_FOR_COMPONENTS, "org.apache.storm.testing.TestWordSpout", null,
+                    null, null);
+        }
+    }
+}
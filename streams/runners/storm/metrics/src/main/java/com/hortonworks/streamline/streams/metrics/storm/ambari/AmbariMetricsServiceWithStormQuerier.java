@@ -15,24 +15,36 @@
  **/
 package com.hortonworks.streamline.streams.metrics.storm.ambari;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.google.common.collect.Lists;
 import com.hortonworks.streamline.common.JsonClientUtil;
+import com.hortonworks.streamline.common.exception.WrappedWebApplicationException;
 import com.hortonworks.streamline.streams.exception.ConfigException;
 import com.hortonworks.streamline.streams.metrics.AbstractTimeSeriesQuerier;
+import com.hortonworks.streamline.streams.metrics.TimeSeries;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuery;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.uri.internal.JerseyUriBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.core.MediaType;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of TimeSeriesQuerier for Ambari Metric Service (AMS) with Storm.
@@ -59,6 +71,10 @@ public class AmbariMetricsServiceWithStormQuerier extends AbstractTimeSeriesQuer
     public static final String DEFAULT_APP_ID = "nimbus";
     public static final String WILDCARD_ALL_COMPONENTS = "%";
 
+    // keeps the query string of a batched query within common URL length limits
+    private static final int MAX_METRICS_PER_REQUEST = 30;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private Client client;
     private URI collectorApiUri;
     private String appId;
@@ -118,6 +134,135 @@ public class AmbariMetricsServiceWithStormQuerier extends AbstractTimeSeriesQuer
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Metrics are queried with comma separated 'metricNames'. Since 'seriesAggregateFunction' applies to the whole
+     * request, one request is made per aggregate function (and per {@link #MAX_METRICS_PER_REQUEST} metrics).
+     * Resolution is translated to the nearest coarser AMS 'precision'.
+     */
+    @Override
+    public Map<TimeSeriesQuery, TimeSeries> getMetrics(String topologyName, Collection<TimeSeriesQuery> queries,
+                                                       long from, long to, long resolution) {
+        Map<AggregateFunction, List<TimeSeriesQuery>> queriesPerFunction = new EnumMap<>(AggregateFunction.class);
+        for (TimeSeriesQuery query : queries) {
+            queriesPerFunction.computeIfAbsent(query.getAggrFunction(), f -> new ArrayList<>()).add(query);
+        }
+
+        Map<TimeSeriesQuery, TimeSeries> ret = new HashMap<>(queries.size());
+        for (Map.Entry<AggregateFunction, List<TimeSeriesQuery>> entry : queriesPerFunction.entrySet()) {
+            for (List<TimeSeriesQuery> chunk : Lists.partition(entry.getValue(), MAX_METRICS_PER_REQUEST)) {
+                ret.putAll(queryMetrics(topologyName, entry.getKey(), chunk, from, to, resolution));
+            }
+        }
+        return ret;
+    }
+
+    private Map<TimeSeriesQuery, TimeSeries> queryMetrics(String topologyName, AggregateFunction aggrFunction,
+                                                          List<TimeSeriesQuery> queries, long from, long to, long resolution) {
+        Map<String, TimeSeriesQuery> metricNameToQuery = new HashMap<>(queries.size());
+        for (TimeSeriesQuery query : queries) {
+            String componentId = query.isTopologyLevel() ? WILDCARD_ALL_COMPONENTS : query.getComponentId();
+            metricNameToQuery.put(buildMetricName(topologyName, componentId, query.getMetricName()), query);
+        }
+
+        JerseyUriBuilder uriBuilder = new JerseyUriBuilder();
+        uriBuilder.uri(collectorApiUri)
+                .queryParam("appId", DEFAULT_APP_ID)
+                .queryParam("hostname", "")
+                .queryParam("metricNames", String.join(",", metricNameToQuery.keySet()))
+                .queryParam("startTime", String.valueOf(from))
+                .queryParam("endTime", String.valueOf(to))
+                .queryParam("seriesAggregateFunction", aggrFunction.name());
+        if (resolution > 0) {
+            uriBuilder.queryParam("precision", toPrecision(resolution));
+        }
+        URI targetUri = uriBuilder.build();
+
+        log.debug("Calling {} for querying metrics", targetUri.toString());
+
+        Map<String, TimeSeries> series;
+        try {
+            String response = client.target(targetUri).request(MediaType.APPLICATION_JSON_TYPE).get(String.class);
+            series = parseMetrics(response);
+        } catch (WebApplicationException e) {
+            throw WrappedWebApplicationException.of(e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        Map<TimeSeriesQuery, TimeSeries> ret = new HashMap<>(queries.size());
+        if (queries.size() == 1 && series.size() == 1) {
+            // same as querying single metric: take the only series regardless of the name AMS reports
+            ret.put(queries.get(0), series.values().iterator().next());
+            return ret;
+        }
+        for (Map.Entry<String, TimeSeries> entry : series.entrySet()) {
+            TimeSeriesQuery query = metricNameToQuery.get(entry.getKey());
+            if (query != null) {
+                ret.put(query, entry.getValue());
+            } else {
+                log.warn("Ignoring unexpected metric from AMS: {}", entry.getKey());
+            }
+        }
+        return ret;
+    }
+
+    private String toPrecision(long resolution) {
+        if (resolution < TimeUnit.MINUTES.toMillis(1)) {
+            return "SECONDS";
+        } else if (resolution < TimeUnit.HOURS.toMillis(1)) {
+            return "MINUTES";
+        } else if (resolution < TimeUnit.DAYS.toMillis(1)) {
+            return "HOURS";
+        }
+        return "DAYS";
+    }
+
+    // reads {"metrics": [{"metricname": "...", "metrics": {"<timestamp>": value, ...}}, ...]} without building intermediate objects
+    private Map<String, TimeSeries> parseMetrics(String response) throws IOException {
+        Map<String, TimeSeries> ret = new HashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected response from AMS: " + parser.getCurrentToken());
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (!"metrics".equals(fieldName) || token != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    String metricName = null;
+                    TimeSeries points = TimeSeries.EMPTY;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String metricFieldName = parser.getCurrentName();
+                        JsonToken metricToken = parser.nextToken();
+                        if ("metricname".equals(metricFieldName)) {
+                            metricName = parser.getValueAsString();
+                        } else if ("metrics".equals(metricFieldName) && metricToken == JsonToken.START_OBJECT) {
+                            TimeSeries.Builder builder = new TimeSeries.Builder();
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                long timestamp = Long.parseLong(parser.getCurrentName());
+                                if (parser.nextToken() != JsonToken.VALUE_NULL) {
+                                    builder.add(timestamp, parser.getDoubleValue());
+                                }
+                            }
+                            points = builder.build();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if (metricName != null) {
+                        ret.put(metricName, points);
+                    }
+                }
+            }
+        }
+        return ret;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -15,21 +15,34 @@
  **/
 package com.hortonworks.streamline.streams.metrics.storm.graphite;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 import com.hortonworks.streamline.common.JsonClientUtil;
+import com.hortonworks.streamline.common.exception.WrappedWebApplicationException;
 import com.hortonworks.streamline.streams.exception.ConfigException;
 import com.hortonworks.streamline.streams.metrics.AbstractTimeSeriesQuerier;
+import com.hortonworks.streamline.streams.metrics.TimeSeries;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuery;
 import org.apache.commons.lang.BooleanUtils;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.uri.internal.JerseyUriBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -60,6 +73,8 @@ public class GraphiteWithStormQuerier extends AbstractTimeSeriesQuerier {
     );
     public static final String WILDCARD_ALL_COMPONENTS = "*";
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private Client client;
     private URI renderApiUrl;
     private String metricNamePrefix;
@@ -111,6 +126,50 @@ public class GraphiteWithStormQuerier extends AbstractTimeSeriesQuerier {
         return formatDataPointsFromGraphiteToMap(dataPoints);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * All the metrics are queried with one render call. Each target is aliased to the index of its query, so that
+     * series can be matched to queries even when Graphite drops targets without data.
+     * Downsampling is done via Graphite 'summarize' function, which aligns buckets to the interval.
+     */
+    @Override
+    public Map<TimeSeriesQuery, TimeSeries> getMetrics(String topologyName, Collection<TimeSeriesQuery> queries,
+                                                       long from, long to, long resolution) {
+        if (queries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<TimeSeriesQuery> queryList = new ArrayList<>(queries);
+        Form form = new Form();
+        for (int i = 0; i < queryList.size(); i++) {
+            TimeSeriesQuery query = queryList.get(i);
+            String componentId = query.isTopologyLevel() ? WILDCARD_ALL_COMPONENTS : query.getComponentId();
+            String target = buildMetricName(topologyName, componentId, query.getMetricName(), query.getAggrFunction());
+            if (resolution >= 1000) {
+                target = String.format("summarize(%s,\"%ds\",\"%s\")", target, resolution / 1000,
+                        query.getAggrFunction().name().toLowerCase());
+            }
+            form.param("target", String.format("alias(%s,\"%d\")", target, i));
+        }
+        form.param("format", "json")
+                .param("from", String.valueOf((int) (from / 1000)))
+                .param("until", String.valueOf((int) (to / 1000)));
+
+        log.debug("Calling {} for querying {} metrics", renderApiUrl, queryList.size());
+
+        try {
+            // POST since the query string of the batched query could exceed the limit of URL length
+            String response = client.target(renderApiUrl).request(MediaType.APPLICATION_JSON_TYPE)
+                    .post(Entity.form(form), String.class);
+            return parseAliasedSeries(response, queryList);
+        } catch (WebApplicationException e) {
+            throw WrappedWebApplicationException.of(e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -163,6 +222,55 @@ public class GraphiteWithStormQuerier extends AbstractTimeSeriesQuerier {
                 .build();
     }
 
+    // reads [{"target": "<index>", "datapoints": [[value, timestamp], ...]}, ...] without building intermediate objects
+    private Map<TimeSeriesQuery, TimeSeries> parseAliasedSeries(String response, List<TimeSeriesQuery> queries) throws IOException {
+        Map<TimeSeriesQuery, TimeSeries> ret = new HashMap<>(queries.size());
+        try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Unexpected response from Graphite: " + parser.getCurrentToken());
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String target = null;
+                TimeSeries points = TimeSeries.EMPTY;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    JsonToken token = parser.nextToken();
+                    if ("target".equals(fieldName)) {
+                        target = parser.getValueAsString();
+                    } else if ("datapoints".equals(fieldName) && token == JsonToken.START_ARRAY) {
+                        points = readDataPoints(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+
+                Integer index = target != null ? Ints.tryParse(target) : null;
+                if (index != null && index >= 0 && index < queries.size()) {
+                    ret.put(queries.get(index), points);
+                } else {
+                    log.warn("Ignoring unexpected series from Graphite: {}", target);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private TimeSeries readDataPoints(JsonParser parser) throws IOException {
+        TimeSeries.Builder builder = new TimeSeries.Builder();
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            // ex. [2940.0, 1465803540] -> 1465803540000, 2940.0
+            JsonToken valueToken = parser.nextToken();
+            double value = valueToken == JsonToken.VALUE_NULL ? 0.0 : parser.getDoubleValue();
+            parser.nextToken();
+            long timestamp = parser.getLongValue();
+            parser.nextToken(); // END_ARRAY
+            if (valueToken != JsonToken.VALUE_NULL) {
+                builder.add(timestamp * 1000, value);
+            }
+        }
+        return builder.build();
+    }
+
     private Map<Long, Double> formatDataPointsFromGraphiteToMap(List<List<Number>> dataPoints) {
         Map<Long, Double> pointsForOutput = new HashMap<>();
 
@@ -41,6 +41,7 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -79,6 +80,7 @@ public class StormTopologyMetricsImpl implements TopologyMetrics {
     private static final int MAX_SIZE_COMPONENT_CACHE = 50;
     private static final int CACHE_DURATION_SECS = 30;
     private static final int FORK_JOIN_POOL_PARALLELISM = 50;
+    private static final String TIME_SERIES_CACHE_SETTLE_TIME_SECS = "timeSeriesCacheSettleTimeSecs";
 
     // shared across the metrics instances
     private static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool(FORK_JOIN_POOL_PARALLELISM);
@@ -98,12 +100,23 @@ public class StormTopologyMetricsImpl implements TopologyMetrics {
     @Override
     public void init(Map<String, String> conf) throws ConfigException {
         String stormApiRootUrl = null;
+        String cacheSettleTimeSecs = null;
         if (conf != null) {
             stormApiRootUrl = conf.get(TopologyLayoutConstants.STORM_API_ROOT_URL_KEY);
+            cacheSettleTimeSecs = conf.get(TIME_SERIES_CACHE_SETTLE_TIME_SECS);
         }
         Client restClient = ClientBuilder.newClient(new ClientConfig());
         this.client = new StormRestAPIClient(restClient, stormApiRootUrl);
-        timeSeriesMetrics = new StormTopologyTimeSeriesMetricsImpl(client);
+        if (cacheSettleTimeSecs != null) {
+            try {
+                timeSeriesMetrics = new StormTopologyTimeSeriesMetricsImpl(client,
+                        TimeUnit.SECONDS.toMillis(Long.parseLong(cacheSettleTimeSecs)));
+            } catch (NumberFormatException e) {
+                throw new ConfigException("Invalid " + TIME_SERIES_CACHE_SETTLE_TIME_SECS + ": " + cacheSettleTimeSecs, e);
+            }
+        } else {
+            timeSeriesMetrics = new StormTopologyTimeSeriesMetricsImpl(client);
+        }
         topologyRetrieveCache = CacheBuilder.newBuilder()
                 .maximumSize(MAX_SIZE_TOPOLOGY_CACHE)
                 .expireAfterWrite(CACHE_DURATION_SECS, TimeUnit.SECONDS)
@@ -252,6 +265,23 @@ public class StormTopologyMetricsImpl implements TopologyMetrics {
         return timeSeriesMetrics.getComponentStats(topology, component, from, to);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TimeSeriesComponentMetric getTopologyStats(TopologyLayout topology, long from, long to, long resolution) {
+        return timeSeriesMetrics.getTopologyStats(topology, from, to, resolution);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, TimeSeriesComponentMetric> getComponentStats(TopologyLayout topology, Collection<? extends Component> components,
+                                                                    long from, long to, long resolution) {
+        return timeSeriesMetrics.getComponentStats(topology, components, from, to, resolution);
+    }
+
     private long getErrorCountFromAllComponents(String topologyId, List<Map<String, ?>> spouts, List<Map<String, ?>> bolts) {
         LOG.debug("[START] getErrorCountFromAllComponents - topology id: {}", topologyId);
         Stopwatch stopwatch = Stopwatch.createStarted();
@@ -16,36 +16,33 @@
 package com.hortonworks.streamline.streams.metrics.storm.topology;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.hortonworks.streamline.common.util.ParallelStreamUtil;
 import com.hortonworks.streamline.streams.layout.TopologyLayoutConstants;
 import com.hortonworks.streamline.streams.layout.component.Component;
 import com.hortonworks.streamline.streams.layout.component.TopologyLayout;
+import com.hortonworks.streamline.streams.metrics.TimeSeries;
 import com.hortonworks.streamline.streams.metrics.TimeSeriesQuerier;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuery;
 import com.hortonworks.streamline.streams.metrics.topology.TopologyTimeSeriesMetrics;
 import com.hortonworks.streamline.streams.storm.common.StormRestAPIClient;
 import com.hortonworks.streamline.streams.storm.common.StormTopologyUtil;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ForkJoinPool;
-
-import static java.util.stream.Collectors.toMap;
 
 /**
  * Storm implementation of the TopologyTimeSeriesMetrics interface
+ * <p/>
+ * Stats are queried with one batched query per request, and the results are cached per time bucket so that
+ * periodic refreshes only query the recent range.
  */
 public class StormTopologyTimeSeriesMetricsImpl implements TopologyTimeSeriesMetrics {
-    private static final int FORK_JOIN_POOL_PARALLELISM = 30;
-
-    // shared across the metrics instances
-    private static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool(FORK_JOIN_POOL_PARALLELISM);
-
     private final StormRestAPIClient client;
+    private final TimeSeriesResultCache resultCache;
     private TimeSeriesQuerier timeSeriesQuerier;
     private final ObjectMapper mapper = new ObjectMapper();
     public static final StormMappedMetric[] STATS_METRICS = new StormMappedMetric[]{
@@ -54,7 +51,16 @@ public class StormTopologyTimeSeriesMetricsImpl implements TopologyTimeSeriesMet
     };
 
     public StormTopologyTimeSeriesMetricsImpl(StormRestAPIClient client) {
+        this(client, TimeSeriesResultCache.DEFAULT_SETTLE_TIME_MS);
+    }
+
+    /**
+     * @param cacheSettleTimeMs how old data points must be before they are cached, should be at least
+     *                          the ingestion lag of the time-series DB
+     */
+    public StormTopologyTimeSeriesMetricsImpl(StormRestAPIClient client, long cacheSettleTimeMs) {
         this.client = client;
+        this.resultCache = new TimeSeriesResultCache(cacheSettleTimeMs);
     }
 
     @Override
@@ -102,34 +108,74 @@ public class StormTopologyTimeSeriesMetricsImpl implements TopologyTimeSeriesMet
 
     @Override
     public TimeSeriesComponentMetric getTopologyStats(TopologyLayout topology, long from, long to) {
+        return getTopologyStats(topology, from, to, 0L);
+    }
+
+    @Override
+    public TimeSeriesComponentMetric getTopologyStats(TopologyLayout topology, long from, long to, long resolution) {
         assertTimeSeriesQuerierIsSet();
 
         String stormTopologyName = StormTopologyUtil.findOrGenerateTopologyName(client, topology.getId(), topology.getName());
 
-        Map<String, Map<Long, Double>> stats = ParallelStreamUtil.execute(() ->
-                Arrays.asList(STATS_METRICS)
-                        .parallelStream()
-                        .collect(toMap(m -> m.name(), m -> queryTopologyMetrics(stormTopologyName, m, from, to))),
-                FORK_JOIN_POOL);
+        Map<StormMappedMetric, TimeSeriesQuery> queries = new HashMap<>();
+        for (StormMappedMetric metric : STATS_METRICS) {
+            queries.put(metric, TimeSeriesQuery.forTopology(metric.getStormMetricName(), metric.getAggregateFunction()));
+        }
 
-        return buildTimeSeriesComponentMetric(topology.getName(), stats);
+        Map<TimeSeriesQuery, TimeSeries> results = queryWithCache(stormTopologyName, queries.values(), from, to, resolution);
+        return buildTimeSeriesComponentMetric(topology.getName(), queries, results);
     }
 
     @Override
     public TimeSeriesComponentMetric getComponentStats(TopologyLayout topology, Component component, long from, long to) {
+        return getComponentStats(topology, Collections.singletonList(component), from, to, 0L).get(component.getId());
+    }
+
+    @Override
+    public Map<String, TimeSeriesComponentMetric> getComponentStats(TopologyLayout topology, Collection<? extends Component> components,
+                                                                    long from, long to, long resolution) {
         assertTimeSeriesQuerierIsSet();
 
         String stormTopologyName = StormTopologyUtil.findOrGenerateTopologyName(client, topology.getId(), topology.getName());
-        String stormComponentName = getComponentName(component);
 
-        Map<String, Map<Long, Double>> componentStats = ParallelStreamUtil.execute(() ->
-                Arrays.asList(STATS_METRICS)
-                        .parallelStream()
-                        .collect(toMap(m -> m.name(),
-                                m -> queryComponentMetrics(stormTopologyName, stormComponentName, m, from, to))),
-                FORK_JOIN_POOL);
+        Map<Component, Map<StormMappedMetric, TimeSeriesQuery>> queriesPerComponent = new HashMap<>();
+        List<TimeSeriesQuery> allQueries = new ArrayList<>(components.size() * STATS_METRICS.length);
+        for (Component component : components) {
+            String stormComponentName = getComponentName(component);
+            Map<StormMappedMetric, TimeSeriesQuery> queries = new HashMap<>();
+            for (StormMappedMetric metric : STATS_METRICS) {
+                TimeSeriesQuery query = TimeSeriesQuery.forComponent(stormComponentName, metric.getStormMetricName(),
+                        metric.getAggregateFunction());
+                queries.put(metric, query);
+                allQueries.add(query);
+            }
+            queriesPerComponent.put(component, queries);
+        }
+
+        Map<TimeSeriesQuery, TimeSeries> results = queryWithCache(stormTopologyName, allQueries, from, to, resolution);
+
+        Map<String, TimeSeriesComponentMetric> componentStats = new HashMap<>();
+        for (Map.Entry<Component, Map<StormMappedMetric, TimeSeriesQuery>> entry : queriesPerComponent.entrySet()) {
+            Component component = entry.getKey();
+            componentStats.put(component.getId(), buildTimeSeriesComponentMetric(component.getName(), entry.getValue(), results));
+        }
+        return componentStats;
+    }
 
-        return buildTimeSeriesComponentMetric(component.getName(), componentStats);
+    private Map<TimeSeriesQuery, TimeSeries> queryWithCache(String stormTopologyName, Collection<TimeSeriesQuery> queries,
+                                                            long from, long to, long resolution) {
+        return resultCache.get(stormTopologyName, queries, from, to, resolution,
+                (missingQueries, loadFrom, loadTo) ->
+                        timeSeriesQuerier.getMetrics(stormTopologyName, missingQueries, loadFrom, loadTo, resolution));
+    }
+
+    private TimeSeriesComponentMetric buildTimeSeriesComponentMetric(String name, Map<StormMappedMetric, TimeSeriesQuery> queries,
+                                                                     Map<TimeSeriesQuery, TimeSeries> results) {
+        Map<String, Map<Long, Double>> stats = new HashMap<>();
+        for (Map.Entry<StormMappedMetric, TimeSeriesQuery> entry : queries.entrySet()) {
+            stats.put(entry.getKey().name(), results.getOrDefault(entry.getValue(), TimeSeries.EMPTY).asMap());
+        }
+        return buildTimeSeriesComponentMetric(name, stats);
     }
 
     private TimeSeriesComponentMetric buildTimeSeriesComponentMetric(String name, Map<String, Map<Long, Double>> stats) {
@@ -187,12 +233,6 @@ public class StormTopologyTimeSeriesMetricsImpl implements TopologyTimeSeriesMet
         return kafkaTopicName;
     }
 
-    private Map<Long, Double> queryTopologyMetrics(String stormTopologyName, StormMappedMetric mappedMetric, long from, long to) {
-        Map<Long, Double> metrics = timeSeriesQuerier.getTopologyLevelMetrics(stormTopologyName,
-                mappedMetric.getStormMetricName(), mappedMetric.getAggregateFunction(), from, to);
-        return new TreeMap<>(metrics);
-    }
-
     private Map<Long, Double> queryComponentMetrics(String stormTopologyName, String sourceId, StormMappedMetric mappedMetric, long from, long to) {
         Map<Long, Double> metrics = timeSeriesQuerier.getMetrics(stormTopologyName, sourceId, mappedMetric.getStormMetricName(),
                 mappedMetric.getAggregateFunction(), from, to);
@@ -0,0 +1,177 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.metrics.storm.topology;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hortonworks.streamline.streams.metrics.TimeSeries;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of time-series query results, keyed by (topology, component, metric, aligned time bucket).
+ * <p/>
+ * Only buckets which are old enough to be settled are cached: metrics sinks push data points with delay, so recent
+ * buckets can still change. The settle time should be at least the ingestion lag of the time-series DB, which is
+ * about 5 minutes for Ambari Metrics. Empty buckets are never cached, as a bucket without any data point more likely
+ * hasn't been ingested yet than has no data. For each request the cached leading buckets are reused and only the remaining range is
+ * queried, with all the queries that miss batched into one call.
+ */
+class TimeSeriesResultCache {
+    static final long DEFAULT_BUCKET_SIZE_MS = TimeUnit.MINUTES.toMillis(1);
+    static final long DEFAULT_SETTLE_TIME_MS = TimeUnit.MINUTES.toMillis(10);
+
+    // bounds the cache by the number of data points rather than the number of buckets
+    private static final long MAX_CACHED_POINTS = 2_000_000L;
+    private static final long EXPIRE_AFTER_ACCESS_MINS = 60;
+
+    interface Loader {
+        Map<TimeSeriesQuery, TimeSeries> load(Collection<TimeSeriesQuery> queries, long from, long to);
+    }
+
+    private final Cache<BucketKey, TimeSeries> buckets;
+    private final long bucketSizeMs;
+    private final long settleTimeMs;
+    private final LongSupplier clock;
+
+    TimeSeriesResultCache() {
+        this(DEFAULT_SETTLE_TIME_MS);
+    }
+
+    TimeSeriesResultCache(long settleTimeMs) {
+        this(DEFAULT_BUCKET_SIZE_MS, settleTimeMs, System::currentTimeMillis);
+    }
+
+    TimeSeriesResultCache(long bucketSizeMs, long settleTimeMs, LongSupplier clock) {
+        this.bucketSizeMs = bucketSizeMs;
+        this.settleTimeMs = settleTimeMs;
+        this.clock = clock;
+        this.buckets = CacheBuilder.newBuilder()
+                .maximumWeight(MAX_CACHED_POINTS)
+                .weigher((BucketKey key, TimeSeries value) -> value.size() + 1)
+                .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINS, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Returns data points in [from, to] for each query, querying only what the cache doesn't have via loader.
+     * The loader is called at most once, with a bucket aligned beginning of the time period.
+     */
+    Map<TimeSeriesQuery, TimeSeries> get(String topologyName, Collection<TimeSeriesQuery> queries,
+                                         long from, long to, long resolution, Loader loader) {
+        long bucketSize = bucketSize(resolution);
+        long firstBucket = align(from, bucketSize);
+        // buckets which end before this are settled
+        long settledUntil = align(clock.getAsLong() - settleTimeMs, bucketSize);
+
+        Map<TimeSeriesQuery, List<TimeSeries>> parts = new HashMap<>(queries.size());
+        Map<TimeSeriesQuery, Long> missingFrom = new HashMap<>();
+        for (TimeSeriesQuery query : queries) {
+            List<TimeSeries> cached = new ArrayList<>();
+            long bucket = firstBucket;
+            while (bucket <= to && bucket + bucketSize <= settledUntil) {
+                TimeSeries points = buckets.getIfPresent(new BucketKey(topologyName, query, resolution, bucket));
+                if (points == null) {
+                    break;
+                }
+                cached.add(points);
+                bucket += bucketSize;
+            }
+            if (bucket <= to) {
+                missingFrom.put(query, bucket);
+            }
+            parts.put(query, cached);
+        }
+
+        if (!missingFrom.isEmpty()) {
+            long loadFrom = missingFrom.values().stream().mapToLong(Long::longValue).min().getAsLong();
+            Map<TimeSeriesQuery, TimeSeries> loaded = loader.load(missingFrom.keySet(), loadFrom, to);
+            for (Map.Entry<TimeSeriesQuery, Long> entry : missingFrom.entrySet()) {
+                TimeSeriesQuery query = entry.getKey();
+                TimeSeries points = loaded.getOrDefault(query, TimeSeries.EMPTY);
+                for (long bucket = entry.getValue();
+                     bucket + bucketSize <= settledUntil && bucket + bucketSize - 1 <= to;
+                     bucket += bucketSize) {
+                    TimeSeries bucketPoints = points.slice(bucket, bucket + bucketSize - 1);
+                    if (!bucketPoints.isEmpty()) {
+                        buckets.put(new BucketKey(topologyName, query, resolution, bucket), bucketPoints);
+                    }
+                }
+                parts.get(query).add(points.slice(entry.getValue(), to));
+            }
+        }
+
+        Map<TimeSeriesQuery, TimeSeries> ret = new HashMap<>(queries.size());
+        for (Map.Entry<TimeSeriesQuery, List<TimeSeries>> entry : parts.entrySet()) {
+            ret.put(entry.getKey(), TimeSeries.concat(entry.getValue()).slice(from, to));
+        }
+        return ret;
+    }
+
+    long size() {
+        return buckets.size();
+    }
+
+    // bucket size should be a multiple of resolution so that downsampled points don't cross buckets
+    private long bucketSize(long resolution) {
+        if (resolution <= 0 || resolution >= bucketSizeMs) {
+            return Math.max(bucketSizeMs, resolution);
+        }
+        return ((bucketSizeMs + resolution - 1) / resolution) * resolution;
+    }
+
+    private static long align(long timestamp, long bucketSize) {
+        return Math.floorDiv(timestamp, bucketSize) * bucketSize;
+    }
+
+    private static final class BucketKey {
+        private final String topologyName;
+        private final TimeSeriesQuery query;
+        private final long resolution;
+        private final long bucket;
+
+        BucketKey(String topologyName, TimeSeriesQuery query, long resolution, long bucket) {
+            this.topologyName = topologyName;
+            this.query = query;
+            this.resolution = resolution;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BucketKey that = (BucketKey) o;
+            return resolution == that.resolution &&
+                    bucket == that.bucket &&
+                    topologyName.equals(that.topologyName) &&
+                    query.equals(that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topologyName, query, resolution, bucket);
+        }
+    }
+}
@@ -16,23 +16,30 @@
 package com.hortonworks.streamline.streams.metrics.storm.graphite;
 
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.hortonworks.streamline.streams.metrics.TimeSeries;
 import com.hortonworks.streamline.streams.metrics.TimeSeriesQuerier;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuery;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class GraphiteWithStormQuerierTest {
@@ -102,6 +109,38 @@ public class GraphiteWithStormQuerierTest {
                 .withQueryParam("until", equalTo("5678")));
     }
 
+    @Test
+    public void getMetricsWithBatchedQuery() throws Exception {
+        stubFor(post(urlPathEqualTo(TEST_RENDER_API_PATH))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"target\": \"1\", \"datapoints\": [[456.789, 2345], [null, 2400], [890.123, 3456]]}]")));
+
+        TimeSeriesQuery emitCount = TimeSeriesQuery.forComponent("testComponent", "__emit-count",
+                TimeSeriesQuerier.AggregateFunction.SUM);
+        TimeSeriesQuery completeLatency = TimeSeriesQuery.forTopology("__complete-latency",
+                TimeSeriesQuerier.AggregateFunction.AVG);
+        long from = 1234000L;
+        long to = 5678000L;
+
+        Map<TimeSeriesQuery, TimeSeries> metrics = querier.getMetrics("testTopology",
+                Arrays.asList(emitCount, completeLatency), from, to, 60000L);
+
+        // series without data are dropped by Graphite, so alias is used to match series to query
+        assertFalse(metrics.containsKey(emitCount));
+        assertEquals(2, metrics.get(completeLatency).size());
+        assertResult(metrics.get(completeLatency).asMap());
+
+        verify(1, postRequestedFor(urlPathEqualTo(TEST_RENDER_API_PATH))
+                .withRequestBody(containing("sumSeries"))
+                .withRequestBody(containing("averageSeries"))
+                .withRequestBody(containing("summarize"))
+                .withRequestBody(containing("60s"))
+                .withRequestBody(containing("from=1234"))
+                .withRequestBody(containing("until=5678")));
+    }
+
     @Test
     public void getRawMetrics() throws Exception {
         stubMetricUrl();
@@ -23,7 +23,9 @@ import com.hortonworks.streamline.streams.layout.component.Component;
 import com.hortonworks.streamline.streams.layout.component.StreamlineComponent;
 import com.hortonworks.streamline.streams.layout.component.TopologyDagVisitor;
 import com.hortonworks.streamline.streams.layout.component.TopologyLayout;
+import com.hortonworks.streamline.streams.metrics.TimeSeries;
 import com.hortonworks.streamline.streams.metrics.TimeSeriesQuerier;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuery;
 import mockit.Expectations;
 import mockit.Mocked;
 import com.hortonworks.streamline.streams.metrics.topology.TopologyTimeSeriesMetrics;
@@ -174,17 +176,22 @@ public class StormTopologyTimeSeriesMetricsImplTest {
     public void getComponentStats() throws Exception {
         final TopologyLayout topology = getTopologyLayoutForTest();
 
-        final long from = 1L;
-        final long to = 3L;
+        final long from = 60_000L;
+        final long to = 179_999L;
 
         final Map<String, Map<Long, Double>> expected = new HashMap<>();
-
-        expected.put(StormMappedMetric.inputRecords.name(), generateTestPointsMap());
-        expected.put(StormMappedMetric.outputRecords.name(), generateTestPointsMap());
-        expected.put(StormMappedMetric.failedRecords.name(), generateTestPointsMap());
-        expected.put(StormMappedMetric.processedTime.name(), generateTestPointsMap());
-        expected.put(StormMappedMetric.recordsInWaitQueue.name(), generateTestPointsMap());
-        expected.put(StormMappedMetric.ackedRecords.name(), generateTestPointsMap());
+        final Map<TimeSeriesQuery, TimeSeries> queried = new HashMap<>();
+        double value = 0.0;
+        for (StormMappedMetric metric : StormTopologyTimeSeriesMetricsImpl.STATS_METRICS) {
+            // every one minute bucket of the range has data points, since empty buckets are not cached
+            Map<Long, Double> points = new HashMap<>();
+            for (long timestamp = from; timestamp < to; timestamp += 30_000L) {
+                points.put(timestamp, value++);
+            }
+            expected.put(metric.name(), points);
+            queried.put(TimeSeriesQuery.forComponent(component.getId() + "-" + component.getName(),
+                    metric.getStormMetricName(), metric.getAggregateFunction()), TimeSeries.fromMap(points));
+        }
 
         final TopologyTimeSeriesMetrics.TimeSeriesComponentMetric expectedMetric =
                 new TopologyTimeSeriesMetrics.TimeSeriesComponentMetric(component.getName(),
@@ -197,71 +204,24 @@ public class StormTopologyTimeSeriesMetricsImplTest {
                                 expected.get(StormMappedMetric.ackedRecords.name()))
                 );
 
+        // all the metrics should be queried at once, and only once since the range is settled and cached
         new Expectations() {{
             mockTimeSeriesQuerier.getMetrics(
                     withEqual(mockedTopologyName),
-                    withEqual(component.getId() + "-" + component.getName()),
-                    withEqual(StormMappedMetric.inputRecords.getStormMetricName()),
-                    withEqual(StormMappedMetric.inputRecords.getAggregateFunction()),
-                    withEqual(from), withEqual(to)
-            );
-
-            result = expected.get(StormMappedMetric.inputRecords.name());
-
-            mockTimeSeriesQuerier.getMetrics(
-                    withEqual(mockedTopologyName),
-                    withEqual(component.getId() + "-" + component.getName()),
-                    withEqual(StormMappedMetric.outputRecords.getStormMetricName()),
-                    withEqual(StormMappedMetric.outputRecords.getAggregateFunction()),
-                    withEqual(from), withEqual(to)
-            );
-
-            result = expected.get(StormMappedMetric.outputRecords.name());
-
-            mockTimeSeriesQuerier.getMetrics(
-                    withEqual(mockedTopologyName),
-                    withEqual(component.getId() + "-" + component.getName()),
-                    withEqual(StormMappedMetric.failedRecords.getStormMetricName()),
-                    withEqual(StormMappedMetric.failedRecords.getAggregateFunction()),
-                    withEqual(from), withEqual(to)
-            );
-
-            result = expected.get(StormMappedMetric.failedRecords.name());
-
-            mockTimeSeriesQuerier.getMetrics(
-                    withEqual(mockedTopologyName),
-                    withEqual(component.getId() + "-" + component.getName()),
-                    withEqual(StormMappedMetric.processedTime.getStormMetricName()),
-                    withEqual(StormMappedMetric.processedTime.getAggregateFunction()),
-                    withEqual(from), withEqual(to)
-            );
-
-            result = expected.get(StormMappedMetric.processedTime.name());
-
-            mockTimeSeriesQuerier.getMetrics(
-                    withEqual(mockedTopologyName),
-                    withEqual(component.getId() + "-" + component.getName()),
-                    withEqual(StormMappedMetric.recordsInWaitQueue.getStormMetricName()),
-                    withEqual(StormMappedMetric.recordsInWaitQueue.getAggregateFunction()),
-                    withEqual(from), withEqual(to)
+                    withEqual(queried.keySet()),
+                    withEqual(from), withEqual(to), withEqual(0L)
             );
 
-            result = expected.get(StormMappedMetric.recordsInWaitQueue.name());
-
-            mockTimeSeriesQuerier.getMetrics(
-                    withEqual(mockedTopologyName),
-                    withEqual(component.getId() + "-" + component.getName()),
-                    withEqual(StormMappedMetric.ackedRecords.getStormMetricName()),
-                    withEqual(StormMappedMetric.ackedRecords.getAggregateFunction()),
-                    withEqual(from), withEqual(to)
-            );
-
-            result = expected.get(StormMappedMetric.ackedRecords.name());
+            result = queried;
+            times = 1;
         }};
 
         TopologyTimeSeriesMetrics.TimeSeriesComponentMetric actual =
                 stormTopologyTimeSeriesMetrics.getComponentStats(topology, component, from, to);
         assertEquals(expectedMetric, actual);
+
+        actual = stormTopologyTimeSeriesMetrics.getComponentStats(topology, component, from, to);
+        assertEquals(expectedMetric, actual);
     }
 
     private TopologyLayout getTopologyLayoutForTest() throws IOException {
@@ -0,0 +1,137 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.metrics.storm.topology;
+
+import com.hortonworks.streamline.streams.metrics.TimeSeries;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuerier;
+import com.hortonworks.streamline.streams.metrics.TimeSeriesQuery;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeSeriesResultCacheTest {
+    private static final long BUCKET_SIZE = 1000L;
+    private static final long SETTLE_TIME = 2000L;
+
+    private static final TimeSeriesQuery QUERY_A = TimeSeriesQuery.forComponent("1-source", "__emit-count",
+            TimeSeriesQuerier.AggregateFunction.SUM);
+    private static final TimeSeriesQuery QUERY_B = TimeSeriesQuery.forComponent("2-sink", "__execute-count",
+            TimeSeriesQuerier.AggregateFunction.SUM);
+
+    private long now;
+    private TimeSeriesResultCache cache;
+    private List<long[]> loadedRanges;
+    private List<Collection<TimeSeriesQuery>> loadedQueries;
+
+    @Before
+    public void setUp() {
+        now = 10_000L;
+        cache = new TimeSeriesResultCache(BUCKET_SIZE, SETTLE_TIME, () -> now);
+        loadedRanges = new ArrayList<>();
+        loadedQueries = new ArrayList<>();
+    }
+
+    @Test
+    public void testReusesSettledBuckets() {
+        Map<TimeSeriesQuery, TimeSeries> result = get(Arrays.asList(QUERY_A, QUERY_B), 1500L, 5999L);
+        assertEquals(1, loadedRanges.size());
+        assertEquals(1000L, loadedRanges.get(0)[0]);
+        assertEquals(points(1500L, 5999L), result.get(QUERY_A));
+        assertEquals(points(1500L, 5999L), result.get(QUERY_B));
+
+        // overlapping range: only the part after the cached buckets should be queried
+        result = get(Arrays.asList(QUERY_A, QUERY_B), 2000L, 9999L);
+        assertEquals(2, loadedRanges.size());
+        assertEquals(6000L, loadedRanges.get(1)[0]);
+        assertEquals(9999L, loadedRanges.get(1)[1]);
+        assertEquals(points(2000L, 9999L), result.get(QUERY_A));
+    }
+
+    @Test
+    public void testDoesNotCacheRecentBuckets() {
+        // buckets after now - settle time can still change
+        get(Arrays.asList(QUERY_A), 7000L, 9999L);
+        get(Arrays.asList(QUERY_A), 7000L, 9999L);
+        assertEquals(2, loadedRanges.size());
+        assertEquals(8000L, loadedRanges.get(1)[0]);
+
+        now = 20_000L;
+        get(Arrays.asList(QUERY_A), 7000L, 9999L);
+        get(Arrays.asList(QUERY_A), 7000L, 9999L);
+        assertEquals(3, loadedRanges.size());
+    }
+
+    @Test
+    public void testQueriesOnlyMissingMetrics() {
+        get(Arrays.asList(QUERY_A), 1000L, 4999L);
+        Map<TimeSeriesQuery, TimeSeries> result = get(Arrays.asList(QUERY_A, QUERY_B), 1000L, 4999L);
+
+        assertEquals(2, loadedQueries.size());
+        assertEquals(1, loadedQueries.get(1).size());
+        assertTrue(loadedQueries.get(1).contains(QUERY_B));
+        assertEquals(points(1000L, 4999L), result.get(QUERY_A));
+        assertEquals(points(1000L, 4999L), result.get(QUERY_B));
+    }
+
+    @Test
+    public void testDoesNotCacheEmptyBuckets() {
+        // settled buckets without data points are usually not ingested yet
+        Map<TimeSeriesQuery, TimeSeries> result = cache.get("topology", Arrays.asList(QUERY_A), 1000L, 4999L, 0L,
+                (missingQueries, loadFrom, loadTo) -> {
+                    loadedRanges.add(new long[] {loadFrom, loadTo});
+                    return Collections.singletonMap(QUERY_A, points(loadFrom, 2999L));
+                });
+        assertEquals(points(1000L, 2999L), result.get(QUERY_A));
+        assertEquals(2, cache.size());
+
+        result = get(Arrays.asList(QUERY_A), 1000L, 4999L);
+        assertEquals(2, loadedRanges.size());
+        assertEquals(3000L, loadedRanges.get(1)[0]);
+        assertEquals(points(1000L, 4999L), result.get(QUERY_A));
+        assertEquals(4, cache.size());
+    }
+
+    private Map<TimeSeriesQuery, TimeSeries> get(Collection<TimeSeriesQuery> queries, long from, long to) {
+        return cache.get("topology", queries, from, to, 0L, (missingQueries, loadFrom, loadTo) -> {
+            loadedRanges.add(new long[] {loadFrom, loadTo});
+            loadedQueries.add(new ArrayList<>(missingQueries));
+            Map<TimeSeriesQuery, TimeSeries> ret = new HashMap<>();
+            for (TimeSeriesQuery query : missingQueries) {
+                ret.put(query, points(loadFrom, loadTo));
+            }
+            return ret;
+        });
+    }
+
+    // one point per 500 ms, valued with its timestamp
+    private TimeSeries points(long from, long to) {
+        TimeSeries.Builder builder = new TimeSeries.Builder();
+        for (long ts = ((from + 499) / 500) * 500; ts <= to; ts += 500) {
+            builder.add(ts, ts);
+        }
+        return builder.build();
+    }
+}
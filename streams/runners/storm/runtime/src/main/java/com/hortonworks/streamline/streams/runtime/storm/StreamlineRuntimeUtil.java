@@ -22,8 +22,15 @@ import java.util.Map;
 public class StreamlineRuntimeUtil {
 
     public static Object getFieldValue (StreamlineEvent streamlineEvent, String fieldName) {
+        return getFieldValue(streamlineEvent, fieldName.split(StreamlineEvent.NESTED_FIELD_SPLIT_REGEX));
+    }
+
+    /**
+     * Same as {@link #getFieldValue(StreamlineEvent, String)} but with the field name already split into its nested keys,
+     * so that callers on a per event path can split once and reuse the keys.
+     */
+    public static Object getFieldValue (StreamlineEvent streamlineEvent, String[] nestedKeys) {
         Map fieldValues = streamlineEvent;
-        String[] nestedKeys = fieldName.split(StreamlineEvent.NESTED_FIELD_SPLIT_REGEX);
         for (int i = 0; i < (nestedKeys.length - 1); ++i) {
             if (fieldValues == null)
                 break;
@@ -17,6 +17,10 @@
 package com.hortonworks.streamline.streams.runtime.storm.bolt;
 
 import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.EventIds;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentations;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumented;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.base.BaseRichBolt;
@@ -33,15 +37,62 @@ import java.util.Map;
 public abstract class AbstractProcessorBolt extends BaseTickTupleAwareRichBolt {
     protected static final Logger LOG = LoggerFactory.getLogger(AbstractProcessorBolt.class);
 
+    private static final String METRICS_BUCKET_SIZE_SECS_KEY = "topology.builtin.metrics.bucket.size.secs";
+    private static final int DEFAULT_METRICS_BUCKET_SIZE_SECS = 60;
+    private static final String INSTRUMENTATION_METRIC_NAME = "streamline";
+    private static final String WORKER_INSTRUMENTATION_METRIC_NAME = "streamline.worker";
+
     protected Map stormConf;
     protected TopologyContext context;
     protected OutputCollector collector;
+    protected Instrumentation instrumentation = Instrumentation.NOOP;
+
+    private Instrumentation.Timer executeTimer = Instrumentation.NOOP.timer(null);
 
     @Override
     public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
         this.stormConf = stormConf;
         this.context = context;
         this.collector = collector;
+        EventIds.configure(stormConf);
+        instrumentation = createInstrumentation(stormConf, context);
+        executeTimer = instrumentation.timer("execute");
+    }
+
+    /**
+     * Sets the instrumentation of this task to the runtime if it's {@link Instrumented}.
+     * Subclasses should call this after initializing their runtimes.
+     */
+    protected void instrument(Object runtime) {
+        if (runtime instanceof Instrumented) {
+            ((Instrumented) runtime).setInstrumentation(instrumentation);
+        }
+    }
+
+    /**
+     * Returns the bucket size of the built-in metrics, which is also used by the metrics registered by the bolts.
+     */
+    public static int getMetricsBucketSecs(Map stormConf) {
+        Object bucketSecs = stormConf != null ? stormConf.get(METRICS_BUCKET_SIZE_SECS_KEY) : null;
+        return bucketSecs instanceof Number ? ((Number) bucketSecs).intValue() : DEFAULT_METRICS_BUCKET_SIZE_SECS;
+    }
+
+    /**
+     * Creates the instrumentation of a task and, when it's enabled, registers it as a metric of the task so that
+     * it is exported wherever the topology metrics go. Bolts which don't extend this class use it to be instrumented
+     * the same way.
+     */
+    public static Instrumentation createInstrumentation(Map stormConf, TopologyContext context) {
+        Instrumentation instrumentation = Instrumentations.create(stormConf);
+        if (instrumentation.isEnabled() && context != null) {
+            int bucketSecs = getMetricsBucketSecs(stormConf);
+            context.registerMetric(INSTRUMENTATION_METRIC_NAME, instrumentation::snapshotAndReset, bucketSecs);
+            if (Instrumentations.claimWorkerExport()) {
+                Instrumentation worker = Instrumentations.worker();
+                context.registerMetric(WORKER_INSTRUMENTATION_METRIC_NAME, worker::snapshotAndReset, bucketSecs);
+            }
+        }
+        return instrumentation;
     }
 
     @Override
@@ -51,7 +102,9 @@ public abstract class AbstractProcessorBolt extends BaseTickTupleAwareRichBolt {
             LOG.debug("Executing StreamlineEvent: [{}] with tuple: [{}]", event, tuple);
 
             if(event instanceof StreamlineEvent) {
+                long start = executeTimer.start();
                 process(tuple, (StreamlineEvent) event);
+                executeTimer.stop(start);
             } else {
                 LOG.debug("Received invalid input tuple:[{}] with streamline event:[{}] and it is not processed.", tuple, event);
             }
@@ -22,16 +22,14 @@ import com.hortonworks.streamline.streams.StreamlineEvent;
 import com.hortonworks.streamline.streams.Result;
 import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
 import com.hortonworks.streamline.streams.exception.ProcessingException;
-import com.hortonworks.streamline.streams.runtime.CustomProcessorRuntime;
 import org.apache.commons.lang.StringUtils;
+import org.apache.storm.metric.api.IMetric;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
-import org.apache.storm.topology.base.BaseRichBolt;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
-import org.apache.storm.utils.TupleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,16 +37,17 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Bolt for supporting custom processors components in an Streamline topology
  */
 public class CustomProcessorBolt extends AbstractProcessorBolt {
     private static final Logger LOG = LoggerFactory.getLogger(CustomProcessorBolt.class);
-    private static final ConcurrentHashMap<String, CustomProcessorRuntime> customProcessorConcurrentHashMap = new ConcurrentHashMap<>();
-    private CustomProcessorRuntime customProcessorRuntime;
+    private CustomProcessorRuntimeProvider customProcessorRuntimeProvider;
     private String customProcessorImpl;
+    private CustomProcessorInstantiationStrategy instantiationStrategy = CustomProcessorInstantiationStrategy.SHARED;
+    private int poolSize = 1;
     private Map<String, Object> config;
     private Schema inputSchema;
     private Map<String, Schema> outputSchema = new HashMap<>();
@@ -58,6 +57,27 @@ public class CustomProcessorBolt extends AbstractProcessorBolt {
         return this;
     }
 
+    /**
+     * Associate the strategy used to instantiate the custom processor implementation in this worker
+     * @param instantiationStrategy one of {@link CustomProcessorInstantiationStrategy} names
+     * @return
+     */
+    public CustomProcessorBolt instantiationStrategy (String instantiationStrategy) {
+        this.instantiationStrategy = CustomProcessorInstantiationStrategy.valueOf(instantiationStrategy);
+        return this;
+    }
+
+    /**
+     * Associate the number of custom processor instances shared by executors in a worker, used only with
+     * {@link CustomProcessorInstantiationStrategy#POOLED}
+     * @param poolSize
+     * @return
+     */
+    public CustomProcessorBolt poolSize (int poolSize) {
+        this.poolSize = poolSize;
+        return this;
+    }
+
     /**
      * Associate output schema that is a json string
      * @param outputSchemaJson
@@ -151,14 +171,16 @@ public class CustomProcessorBolt extends AbstractProcessorBolt {
             LOG.error(message);
             throw new RuntimeException(message);
         }
-        customProcessorRuntime = getCustomProcessorRuntime();
-        customProcessorRuntime.initialize(config);
+        customProcessorRuntimeProvider = CustomProcessorRuntimeProvider.acquire(customProcessorImpl, instantiationStrategy, poolSize, config);
+        if (context != null) {
+            registerMetrics(stormConf, context);
+        }
     }
 
     @Override
     protected void process (Tuple input, StreamlineEvent event) {
         try {
-            List<Result> results = customProcessorRuntime.process(new StreamlineEventImpl(event, event.getDataSourceId(), event
+            List<Result> results = customProcessorRuntimeProvider.process(new StreamlineEventImpl(event, event.getDataSourceId(), event
                     .getId(), event.getHeader(), input.getSourceStreamId()));
             if (results != null) {
                 for (Result result : results) {
@@ -187,19 +209,36 @@ public class CustomProcessorBolt extends AbstractProcessorBolt {
 
     @Override
     public void cleanup () {
-        customProcessorRuntime.cleanup();
+        if (customProcessorRuntimeProvider != null) {
+            customProcessorRuntimeProvider.release();
+        }
     }
 
-    private CustomProcessorRuntime getCustomProcessorRuntime() {
-        CustomProcessorRuntime customProcessorRuntime = customProcessorConcurrentHashMap.get(customProcessorImpl);
-        if (customProcessorRuntime == null) {
-            try {
-                customProcessorRuntime = (CustomProcessorRuntime) Class.forName(customProcessorImpl).newInstance();
-                customProcessorConcurrentHashMap.put(customProcessorImpl, customProcessorRuntime);
-            } catch (ClassNotFoundException|InstantiationException|IllegalAccessException e) {
-                throw new RuntimeException("Failed to load custom processor: " + customProcessorImpl, e);
+    private void registerMetrics(Map stormConf, TopologyContext context) {
+        int bucketSizeSecs = getMetricsBucketSecs(stormConf);
+        context.registerMetric("customProcessor.instances", new IMetric() {
+            @Override
+            public Object getValueAndReset() {
+                return customProcessorRuntimeProvider.getInstanceCount();
             }
-        }
-        return customProcessorRuntime;
+        }, bucketSizeSecs);
+        context.registerMetric("customProcessor.inUse", new IMetric() {
+            @Override
+            public Object getValueAndReset() {
+                return customProcessorRuntimeProvider.getInUseCount();
+            }
+        }, bucketSizeSecs);
+        context.registerMetric("customProcessor.processed", new IMetric() {
+            @Override
+            public Object getValueAndReset() {
+                return customProcessorRuntimeProvider.getAndResetProcessedCount();
+            }
+        }, bucketSizeSecs);
+        context.registerMetric("customProcessor.borrowWaitMs", new IMetric() {
+            @Override
+            public Object getValueAndReset() {
+                return TimeUnit.NANOSECONDS.toMillis(customProcessorRuntimeProvider.getAndResetBorrowWaitNanos());
+            }
+        }, bucketSizeSecs);
     }
 }
@@ -0,0 +1,37 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt;
+
+/**
+ * Controls how {@link CustomProcessorBolt} executors obtain their {@link com.hortonworks.streamline.streams.runtime.CustomProcessorRuntime}
+ * instances within a worker.
+ */
+public enum CustomProcessorInstantiationStrategy {
+    /**
+     * One instance per custom processor implementation and config, shared by every executor in the worker.
+     * The implementation has to be thread safe.
+     */
+    SHARED,
+    /**
+     * Every executor gets its own instance. No thread safety is required from the implementation.
+     */
+    PER_EXECUTOR,
+    /**
+     * A fixed size pool of instances shared by the executors in the worker. Each event is processed by an instance
+     * which is exclusively borrowed from the pool.
+     */
+    POOLED
+}
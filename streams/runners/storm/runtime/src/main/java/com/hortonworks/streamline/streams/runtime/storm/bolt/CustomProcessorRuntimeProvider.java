@@ -0,0 +1,354 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt;
+
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.exception.ProcessingException;
+import com.hortonworks.streamline.streams.runtime.CustomProcessorRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out {@link CustomProcessorRuntime} instances to {@link CustomProcessorBolt} executors according to a
+ * {@link CustomProcessorInstantiationStrategy}. Implementation classes are loaded once per worker. Every instance is initialized
+ * exactly once and cleaned up once the last executor using it calls {@link #release()}.
+ * <p>
+ * A provider is obtained per executor through {@link #acquire(String, CustomProcessorInstantiationStrategy, int, Map)} and
+ * is not meant to be shared between executors.
+ */
+public abstract class CustomProcessorRuntimeProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(CustomProcessorRuntimeProvider.class);
+
+    private static final ConcurrentHashMap<String, Class<? extends CustomProcessorRuntime>> runtimeClasses = new ConcurrentHashMap<>();
+    // guarded by itself
+    private static final Map<InstanceKey, SharedInstances> sharedInstances = new HashMap<>();
+
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+
+    private boolean released;
+
+    /**
+     * Returns a provider for the calling executor. Instances for {@link CustomProcessorInstantiationStrategy#SHARED} and
+     * {@link CustomProcessorInstantiationStrategy#POOLED} are shared by all executors in the worker that use the same
+     * implementation class, strategy and config.
+     *
+     * @param customProcessorImpl fully qualified name of the {@link CustomProcessorRuntime} implementation
+     * @param strategy instantiation strategy
+     * @param poolSize number of instances, only used with {@link CustomProcessorInstantiationStrategy#POOLED}
+     * @param config config passed to {@link CustomProcessorRuntime#initialize(Map)}
+     */
+    public static CustomProcessorRuntimeProvider acquire(String customProcessorImpl, CustomProcessorInstantiationStrategy strategy,
+                                                         int poolSize, Map<String, Object> config) {
+        switch (strategy) {
+            case PER_EXECUTOR:
+                return new PerExecutor(newInstance(customProcessorImpl), config);
+            case SHARED:
+                return new Shared(acquireShared(new InstanceKey(customProcessorImpl, strategy, config), 1));
+            case POOLED:
+                if (poolSize <= 0) {
+                    throw new IllegalArgumentException("Pool size must be positive for pooled custom processor: " + customProcessorImpl);
+                }
+                return new Pooled(acquireShared(new InstanceKey(customProcessorImpl, strategy, config), poolSize));
+            default:
+                throw new IllegalArgumentException("Unsupported instantiation strategy: " + strategy);
+        }
+    }
+
+    /**
+     * Processes the event with one of the instances this provider has access to.
+     */
+    public final List<Result> process(StreamlineEvent event) throws ProcessingException {
+        CustomProcessorRuntime runtime = borrow();
+        try {
+            return runtime.process(event);
+        } finally {
+            giveBack(runtime);
+            processedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Releases the instances held by this provider. Instances which are not used by any other executor are cleaned up.
+     */
+    public final synchronized void release() {
+        if (!released) {
+            released = true;
+            doRelease();
+        }
+    }
+
+    /**
+     * @return number of instances this provider may process events with
+     */
+    public abstract int getInstanceCount();
+
+    /**
+     * @return number of instances currently processing an event, across all executors sharing them
+     */
+    public abstract int getInUseCount();
+
+    /**
+     * @return number of events processed through this provider since the last call
+     */
+    public long getAndResetProcessedCount() {
+        return processedCount.getAndSet(0);
+    }
+
+    /**
+     * @return total time in nanos this provider spent waiting for a pooled instance since the last call
+     */
+    public long getAndResetBorrowWaitNanos() {
+        return borrowWaitNanos.getAndSet(0);
+    }
+
+    protected void recordBorrowWait(long nanos) {
+        borrowWaitNanos.addAndGet(nanos);
+    }
+
+    protected abstract CustomProcessorRuntime borrow() throws ProcessingException;
+
+    protected abstract void giveBack(CustomProcessorRuntime runtime);
+
+    protected abstract void doRelease();
+
+    private static CustomProcessorRuntime newInstance(String customProcessorImpl) {
+        Class<? extends CustomProcessorRuntime> clazz = runtimeClasses.get(customProcessorImpl);
+        try {
+            if (clazz == null) {
+                clazz = Class.forName(customProcessorImpl).asSubclass(CustomProcessorRuntime.class);
+                Class<? extends CustomProcessorRuntime> existing = runtimeClasses.putIfAbsent(customProcessorImpl, clazz);
+                if (existing != null) {
+                    clazz = existing;
+                }
+            }
+            return clazz.newInstance();
+        } catch (ClassNotFoundException | ClassCastException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("Failed to load custom processor: " + customProcessorImpl, e);
+        }
+    }
+
+    private static SharedInstances acquireShared(InstanceKey key, int instanceCount) {
+        synchronized (sharedInstances) {
+            SharedInstances shared = sharedInstances.get(key);
+            if (shared == null) {
+                List<CustomProcessorRuntime> instances = new ArrayList<>(instanceCount);
+                for (int i = 0; i < instanceCount; ++i) {
+                    CustomProcessorRuntime runtime = newInstance(key.customProcessorImpl);
+                    runtime.initialize(key.config);
+                    instances.add(runtime);
+                }
+                LOG.info("Initialized {} instance(s) of custom processor {} with strategy {}", instanceCount, key.customProcessorImpl, key.strategy);
+                shared = new SharedInstances(key, instances);
+                sharedInstances.put(key, shared);
+            }
+            shared.refCount++;
+            return shared;
+        }
+    }
+
+    private static void releaseShared(SharedInstances shared) {
+        synchronized (sharedInstances) {
+            if (--shared.refCount == 0) {
+                sharedInstances.remove(shared.key);
+                for (CustomProcessorRuntime runtime : shared.instances) {
+                    cleanup(runtime);
+                }
+                LOG.info("Cleaned up {} instance(s) of custom processor {}", shared.instances.size(), shared.key.customProcessorImpl);
+            }
+        }
+    }
+
+    private static void cleanup(CustomProcessorRuntime runtime) {
+        try {
+            runtime.cleanup();
+        } catch (Exception e) {
+            LOG.error("Error while cleaning up custom processor instance {}", runtime, e);
+        }
+    }
+
+    private static final class PerExecutor extends CustomProcessorRuntimeProvider {
+        private final CustomProcessorRuntime runtime;
+        private final AtomicInteger inUse = new AtomicInteger();
+
+        PerExecutor(CustomProcessorRuntime runtime, Map<String, Object> config) {
+            this.runtime = runtime;
+            runtime.initialize(config);
+        }
+
+        @Override
+        public int getInstanceCount() {
+            return 1;
+        }
+
+        @Override
+        public int getInUseCount() {
+            return inUse.get();
+        }
+
+        @Override
+        protected CustomProcessorRuntime borrow() {
+            inUse.incrementAndGet();
+            return runtime;
+        }
+
+        @Override
+        protected void giveBack(CustomProcessorRuntime runtime) {
+            inUse.decrementAndGet();
+        }
+
+        @Override
+        protected void doRelease() {
+            cleanup(runtime);
+        }
+    }
+
+    private static final class Shared extends CustomProcessorRuntimeProvider {
+        private final SharedInstances shared;
+        private final CustomProcessorRuntime runtime;
+
+        Shared(SharedInstances shared) {
+            this.shared = shared;
+            this.runtime = shared.instances.get(0);
+        }
+
+        @Override
+        public int getInstanceCount() {
+            return 1;
+        }
+
+        @Override
+        public int getInUseCount() {
+            return shared.inUse.get();
+        }
+
+        @Override
+        protected CustomProcessorRuntime borrow() {
+            shared.inUse.incrementAndGet();
+            return runtime;
+        }
+
+        @Override
+        protected void giveBack(CustomProcessorRuntime runtime) {
+            shared.inUse.decrementAndGet();
+        }
+
+        @Override
+        protected void doRelease() {
+            releaseShared(shared);
+        }
+    }
+
+    private static final class Pooled extends CustomProcessorRuntimeProvider {
+        private final SharedInstances shared;
+
+        Pooled(SharedInstances shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public int getInstanceCount() {
+            return shared.instances.size();
+        }
+
+        @Override
+        public int getInUseCount() {
+            return shared.inUse.get();
+        }
+
+        @Override
+        protected CustomProcessorRuntime borrow() throws ProcessingException {
+            CustomProcessorRuntime runtime = shared.idle.poll();
+            if (runtime == null) {
+                long start = System.nanoTime();
+                try {
+                    runtime = shared.idle.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ProcessingException("Interrupted while waiting for a pooled custom processor instance", e);
+                }
+                recordBorrowWait(System.nanoTime() - start);
+            }
+            shared.inUse.incrementAndGet();
+            return runtime;
+        }
+
+        @Override
+        protected void giveBack(CustomProcessorRuntime runtime) {
+            shared.inUse.decrementAndGet();
+            shared.idle.offer(runtime);
+        }
+
+        @Override
+        protected void doRelease() {
+            releaseShared(shared);
+        }
+    }
+
+    private static final class SharedInstances {
+        private final InstanceKey key;
+        private final List<CustomProcessorRuntime> instances;
+        private final BlockingQueue<CustomProcessorRuntime> idle;
+        private final AtomicInteger inUse = new AtomicInteger();
+        // guarded by CustomProcessorRuntimeProvider.sharedInstances
+        private int refCount;
+
+        SharedInstances(InstanceKey key, List<CustomProcessorRuntime> instances) {
+            this.key = key;
+            this.instances = instances;
+            this.idle = new ArrayBlockingQueue<>(instances.size(), false, instances);
+        }
+    }
+
+    private static final class InstanceKey {
+        private final String customProcessorImpl;
+        private final CustomProcessorInstantiationStrategy strategy;
+        private final Map<String, Object> config;
+
+        InstanceKey(String customProcessorImpl, CustomProcessorInstantiationStrategy strategy, Map<String, Object> config) {
+            this.customProcessorImpl = customProcessorImpl;
+            this.strategy = strategy;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            InstanceKey that = (InstanceKey) o;
+            return Objects.equals(customProcessorImpl, that.customProcessorImpl) &&
+                    strategy == that.strategy &&
+                    Objects.equals(config, that.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customProcessorImpl, strategy, config);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.streamline.common.Constants;
+import com.hortonworks.streamline.common.util.Utils;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.exception.ProcessingException;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.StreamlineProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import com.hortonworks.streamline.streams.runtime.ProcessorRuntime;
+import com.hortonworks.streamline.streams.runtime.normalization.NormalizationProcessorRuntime;
+import com.hortonworks.streamline.streams.runtime.processor.RuleProcessorRuntime;
+import org.apache.storm.metric.api.MeanReducer;
+import org.apache.storm.metric.api.MultiCountMetric;
+import org.apache.storm.metric.api.MultiReducedMetric;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a chain of stateless processors in a single executor. Events are handed from one stage to the next by a method
+ * call instead of being serialized and transferred as a tuple, and all the emitted tuples are anchored to the input tuple.
+ * <p>
+ * Storm reports the built-in metrics of the bolt under the component id of the fused bolt, which is the id of the first
+ * processor of the chain. So that the other processors don't lose their metrics, each stage registers the counterparts of
+ * the built-in execute count, emit count, fail count, execute latency and process latency metrics, with the same names
+ * and keys, prefixed with the stage name, which is the component id of the processor, e.g.
+ * {@code <component id>.__execute-count}. The process latency of a stage includes the stages downstream of it in the
+ * chain, since the input tuple is acked only once all of them are done.
+ */
+public class FusedProcessorBolt extends AbstractProcessorBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(FusedProcessorBolt.class);
+
+    private static final String STAGE_NAME = "name";
+    private static final String STAGE_TYPE = "type";
+    private static final String STAGE_INPUT_STREAMS = "inputStreams";
+    private static final String STAGE_PROCESSOR = "processor";
+
+    private static final String EXECUTE_COUNT_METRIC = "__execute-count";
+    private static final String EMIT_COUNT_METRIC = "__emit-count";
+    private static final String FAIL_COUNT_METRIC = "__fail-count";
+    private static final String EXECUTE_LATENCY_METRIC = "__execute-latency";
+    private static final String PROCESS_LATENCY_METRIC = "__process-latency";
+
+    private final List<Stage> stages;
+
+    private transient List<ProcessorRuntime> runtimes;
+    private transient List<StageMetrics> stageMetrics;
+
+    public FusedProcessorBolt(List<Stage> stages) {
+        if (stages == null || stages.isEmpty()) {
+            throw new IllegalArgumentException("Fused processor bolt needs at least one stage");
+        }
+        this.stages = new ArrayList<>(stages);
+    }
+
+    public FusedProcessorBolt(String stagesJson) {
+        this(parseStages(stagesJson));
+    }
+
+    @Override
+    public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
+        super.prepare(stormConf, context, collector);
+        Map<String, Object> config = Collections.emptyMap();
+        if (stormConf != null) {
+            config = new HashMap<>();
+            config.put(Constants.CATALOG_ROOT_URL, stormConf.get(Constants.CATALOG_ROOT_URL));
+            config.put(Constants.LOCAL_FILES_PATH, stormConf.get(Constants.LOCAL_FILES_PATH));
+            if (context != null) {
+                config.put(Constants.TASK_ID, context.getThisTaskId());
+            }
+        }
+        runtimes = new ArrayList<>(stages.size());
+        stageMetrics = new ArrayList<>(stages.size());
+        for (Stage stage : stages) {
+            ProcessorRuntime runtime = stage.createRuntime();
+            runtime.initialize(config);
+            instrument(runtime);
+            runtimes.add(runtime);
+            stageMetrics.add(new StageMetrics());
+        }
+        if (context != null) {
+            int bucketSecs = getMetricsBucketSecs(stormConf);
+            for (int i = 0; i < stages.size(); i++) {
+                stageMetrics.get(i).register(stages.get(i).getName(), context, bucketSecs);
+            }
+        }
+    }
+
+    @Override
+    protected void process(Tuple input, StreamlineEvent event) throws Exception {
+        LOG.debug("Executing tuple [{}], StreamlineEvent [{}] through {} fused stages", input, event, stages.size());
+        processStage(0, input.getSourceComponent(), withStream(event, input.getSourceStreamId()), input);
+    }
+
+    private void processStage(int index, String sourceComponent, StreamlineEvent event, Tuple anchor)
+            throws ProcessingException {
+        StageMetrics metrics = stageMetrics.get(index);
+        String inputKey = sourceComponent + ":" + event.getSourceStream();
+        long start = System.nanoTime();
+        List<Result> results;
+        try {
+            results = runtimes.get(index).process(event);
+        } catch (ProcessingException | RuntimeException e) {
+            metrics.failCount.scope(inputKey).incr();
+            throw e;
+        }
+        metrics.executeCount.scope(inputKey).incr();
+        metrics.executeLatency.scope(inputKey).update(toMillis(System.nanoTime() - start));
+        boolean last = index == stages.size() - 1;
+        for (Result result : results) {
+            if (!last && !stages.get(index + 1).getInputStreams().contains(result.stream)) {
+                continue;
+            }
+            for (StreamlineEvent e : result.events) {
+                metrics.emitCount.scope(result.stream).incr();
+                if (last) {
+                    collector.emit(result.stream, anchor, new Values(e));
+                } else {
+                    processStage(index + 1, stages.get(index).getName(), withStream(e, result.stream), anchor);
+                }
+            }
+        }
+        metrics.processLatency.scope(inputKey).update(toMillis(System.nanoTime() - start));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private StreamlineEvent withStream(StreamlineEvent event, String stream) {
+        return new StreamlineEventImpl(event, event.getDataSourceId(), event.getId(),
+                event.getHeader(), stream, event.getAuxiliaryFieldsAndValues());
+    }
+
+    @Override
+    public void declareOutputFields(OutputFieldsDeclarer declarer) {
+        for (Stream stream : stages.get(stages.size() - 1).getProcessor().getOutputStreams()) {
+            declarer.declareStream(stream.getId(), new Fields(StreamlineEvent.STREAMLINE_EVENT));
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (runtimes != null) {
+            for (ProcessorRuntime runtime : runtimes) {
+                runtime.cleanup();
+            }
+        }
+    }
+
+    private static List<Stage> parseStages(String stagesJson) {
+        List<Stage> stages = new ArrayList<>();
+        try {
+            List<Map<String, Object>> stagesConfig = new ObjectMapper().readValue(stagesJson,
+                    new TypeReference<List<Map<String, Object>>>() { });
+            for (Map<String, Object> stageConfig : stagesConfig) {
+                String name = (String) stageConfig.get(STAGE_NAME);
+                String processorJson = (String) stageConfig.get(STAGE_PROCESSOR);
+                @SuppressWarnings("unchecked")
+                Collection<String> inputStreams = (Collection<String>) stageConfig.get(STAGE_INPUT_STREAMS);
+                Stage.Type type = Stage.Type.valueOf((String) stageConfig.get(STAGE_TYPE));
+                StreamlineProcessor processor = type == Stage.Type.RULES
+                        ? Utils.createObjectFromJson(processorJson, RulesProcessor.class)
+                        : Utils.createObjectFromJson(processorJson, NormalizationProcessor.class);
+                stages.add(new Stage(name, type, processor, inputStreams));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid fused stages configuration: " + stagesJson, e);
+        }
+        return stages;
+    }
+
+    /**
+     * The metrics of a stage, keyed the same way as the built-in metrics of Storm:
+     * by {@code <source component>:<stream>} for the input and by stream for the output.
+     */
+    private static class StageMetrics {
+        private final MultiCountMetric executeCount = new MultiCountMetric();
+        private final MultiCountMetric emitCount = new MultiCountMetric();
+        private final MultiCountMetric failCount = new MultiCountMetric();
+        private final MultiReducedMetric executeLatency = new MultiReducedMetric(new MeanReducer());
+        private final MultiReducedMetric processLatency = new MultiReducedMetric(new MeanReducer());
+
+        private void register(String componentId, TopologyContext context, int bucketSecs) {
+            context.registerMetric(componentId + "." + EXECUTE_COUNT_METRIC, executeCount, bucketSecs);
+            context.registerMetric(componentId + "." + EMIT_COUNT_METRIC, emitCount, bucketSecs);
+            context.registerMetric(componentId + "." + FAIL_COUNT_METRIC, failCount, bucketSecs);
+            context.registerMetric(componentId + "." + EXECUTE_LATENCY_METRIC, executeLatency, bucketSecs);
+            context.registerMetric(componentId + "." + PROCESS_LATENCY_METRIC, processLatency, bucketSecs);
+        }
+    }
+
+    /**
+     * A processor of the fused chain along with the streams of the previous stage it consumes.
+     */
+    public static class Stage implements Serializable {
+        public enum Type {
+            RULES, NORMALIZATION
+        }
+
+        private final String name;
+        private final Type type;
+        private final StreamlineProcessor processor;
+        private final Collection<String> inputStreams;
+
+        public Stage(String name, Type type, StreamlineProcessor processor, Collection<String> inputStreams) {
+            this.name = name;
+            this.type = type;
+            this.processor = processor;
+            this.inputStreams = inputStreams == null ? Collections.<String>emptyList() : new ArrayList<>(inputStreams);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public StreamlineProcessor getProcessor() {
+            return processor;
+        }
+
+        public Collection<String> getInputStreams() {
+            return inputStreams;
+        }
+
+        protected ProcessorRuntime createRuntime() {
+            switch (type) {
+                case RULES:
+                    return new RuleProcessorRuntime((RulesProcessor) processor, RuleProcessorRuntime.ScriptType.SQL);
+                case NORMALIZATION:
+                    return new NormalizationProcessorRuntime((NormalizationProcessor) processor);
+                default:
+                    throw new IllegalStateException("Unsupported stage type " + type);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Stage{" +
+                    "name='" + name + '\'' +
+                    ", type=" + type +
+                    ", inputStreams=" + inputStreams +
+                    '}';
+        }
+    }
+}
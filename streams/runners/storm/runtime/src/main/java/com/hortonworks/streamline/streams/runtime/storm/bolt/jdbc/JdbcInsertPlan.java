@@ -0,0 +1,97 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.jdbc;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The statement writing a row of a table along with the event field and the SQL type bound to each of its parameters,
+ * resolved once from the table metadata so that binding an event is a plain loop over arrays.
+ */
+final class JdbcInsertPlan {
+    private final String sql;
+    private final String[] fields;
+    private final int[] sqlTypes;
+
+    private JdbcInsertPlan(String sql, String[] fields, int[] sqlTypes) {
+        this.sql = sql;
+        this.fields = fields;
+        this.sqlTypes = sqlTypes;
+    }
+
+    /**
+     * Resolves the columns of the given fields, matched case insensitively as database identifiers usually are.
+     */
+    static JdbcInsertPlan create(Connection connection, String tableName, List<String> fields,
+                                 JdbcUpsertDialect dialect, List<String> keyColumns) throws SQLException {
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        List<String> columnNames = new ArrayList<>();
+        List<Integer> columnTypes = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + tableName + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columnIndexes.put(metaData.getColumnName(i).toUpperCase(), columnNames.size());
+                columnNames.add(metaData.getColumnName(i));
+                columnTypes.add(metaData.getColumnType(i));
+            }
+        }
+
+        List<String> columns = new ArrayList<>(fields.size());
+        int[] sqlTypes = new int[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            Integer index = columnIndexes.get(fields.get(i).toUpperCase());
+            if (index == null) {
+                throw new IllegalArgumentException("Could not find database column: " + fields.get(i));
+            }
+            columns.add(columnNames.get(index));
+            sqlTypes[i] = columnTypes.get(index);
+        }
+        String sql = dialect.statement(tableName, columns, keyColumns);
+        return new JdbcInsertPlan(sql, fields.toArray(new String[fields.size()]), sqlTypes);
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    void bind(PreparedStatement statement, StreamlineEvent event) throws SQLException {
+        for (int i = 0; i < fields.length; i++) {
+            Object value = event.get(fields[i]);
+            if (value == null) {
+                statement.setNull(i + 1, sqlTypes[i]);
+            } else {
+                statement.setObject(i + 1, value, sqlTypes[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JdbcInsertPlan{sql='" + sql + "'}";
+    }
+}
@@ -0,0 +1,301 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.jdbc;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.AbstractProcessorBolt;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.BaseTickTupleAwareRichBolt;
+import org.apache.storm.Config;
+import org.apache.storm.jdbc.common.ConnectionProvider;
+import org.apache.storm.metric.api.CountMetric;
+import org.apache.storm.metric.api.MeanReducer;
+import org.apache.storm.metric.api.ReducedMetric;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.tuple.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the received events to a database table with JDBC batches.
+ * <p>
+ * The tuples are buffered and written in one batch once {@link #withBatchSize(int) batch size} tuples are received, or
+ * on the next tick tuple, every {@link #withBatchFlushIntervalSecs(int) flush interval}. Each executor keeps a
+ * connection and a prepared statement open across batches, and the tuples of a batch are acked only once the batch is
+ * committed. When a batch fails, its tuples are written again one by one: a tuple which can not be written, for instance
+ * because it violates a constraint of the table, is reported and acked so that it is not replayed forever, while the
+ * remaining tuples are failed when the failure is transient: the database can not be reached, the transaction was
+ * rolled back (e.g. on a deadlock), the statement timed out or the database is shutting down. Those are recognized by
+ * the type of the exception or by its SQLState, since many drivers throw plain {@link SQLException}s.
+ * <p>
+ * The flush latency, the number of written tuples and the number of failed tuples are reported as metrics.
+ */
+public class JdbcSinkBolt extends BaseTickTupleAwareRichBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcSinkBolt.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_BATCH_FLUSH_INTERVAL_SECS = 1;
+    private static final int DEFAULT_QUERY_TIMEOUT_SECS = 30;
+
+    private final ConnectionProvider connectionProvider;
+    private final String tableName;
+    private final List<String> fields;
+    private JdbcUpsertDialect upsertDialect = JdbcUpsertDialect.NONE;
+    private List<String> keyColumns = Collections.emptyList();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int batchFlushIntervalSecs = DEFAULT_BATCH_FLUSH_INTERVAL_SECS;
+    private int queryTimeoutSecs = DEFAULT_QUERY_TIMEOUT_SECS;
+
+    private transient OutputCollector collector;
+    private transient List<Tuple> batch;
+    private transient JdbcInsertPlan plan;
+    private transient Connection connection;
+    private transient PreparedStatement statement;
+    private transient ReducedMetric flushLatencyMetric;
+    private transient CountMetric writtenMetric;
+    private transient CountMetric failedMetric;
+
+    public JdbcSinkBolt(ConnectionProvider connectionProvider, String tableName, List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("JDBC sink needs at least one field");
+        }
+        this.connectionProvider = connectionProvider;
+        this.tableName = tableName;
+        this.fields = new ArrayList<>(fields);
+    }
+
+    public JdbcSinkBolt withBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive, got " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public JdbcSinkBolt withBatchFlushIntervalSecs(int batchFlushIntervalSecs) {
+        if (batchFlushIntervalSecs < 1) {
+            throw new IllegalArgumentException("batchFlushIntervalSecs must be positive, got " + batchFlushIntervalSecs);
+        }
+        this.batchFlushIntervalSecs = batchFlushIntervalSecs;
+        return this;
+    }
+
+    public JdbcSinkBolt withQueryTimeoutSecs(int queryTimeoutSecs) {
+        this.queryTimeoutSecs = queryTimeoutSecs;
+        return this;
+    }
+
+    public JdbcSinkBolt withUpsertDialect(String upsertDialect) {
+        this.upsertDialect = JdbcUpsertDialect.valueOf(upsertDialect.toUpperCase());
+        return this;
+    }
+
+    public JdbcSinkBolt withKeyColumns(List<String> keyColumns) {
+        this.keyColumns = new ArrayList<>(keyColumns);
+        return this;
+    }
+
+    @Override
+    public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
+        this.collector = collector;
+        this.batch = new ArrayList<>(batchSize);
+        connectionProvider.prepare();
+        flushLatencyMetric = new ReducedMetric(new MeanReducer());
+        writtenMetric = new CountMetric();
+        failedMetric = new CountMetric();
+        if (context != null) {
+            int timeBucketSizeInSecs = AbstractProcessorBolt.getMetricsBucketSecs(stormConf);
+            context.registerMetric("jdbc.flushLatencyMs", flushLatencyMetric, timeBucketSizeInSecs);
+            context.registerMetric("jdbc.written", writtenMetric, timeBucketSizeInSecs);
+            context.registerMetric("jdbc.failed", failedMetric, timeBucketSizeInSecs);
+        }
+    }
+
+    @Override
+    protected void process(Tuple input) {
+        batch.add(input);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        flush();
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            PreparedStatement statement = statement();
+            for (Tuple input : batch) {
+                plan.bind(statement, (StreamlineEvent) input.getValueByField(StreamlineEvent.STREAMLINE_EVENT));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            LOG.warn("Failed to write a batch of [{}] tuples to table [{}], writing them one by one",
+                    batch.size(), tableName, e);
+            rollbackAndClose();
+            writeOneByOne();
+            batch.clear();
+            return;
+        }
+        flushLatencyMetric.update((System.nanoTime() - start) / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        writtenMetric.incrBy(batch.size());
+        for (Tuple input : batch) {
+            collector.ack(input);
+        }
+        batch.clear();
+    }
+
+    private void writeOneByOne() {
+        for (int i = 0; i < batch.size(); i++) {
+            Tuple input = batch.get(i);
+            PreparedStatement statement;
+            try {
+                statement = statement();
+            } catch (SQLException | RuntimeException e) {
+                failRemaining(i, e);
+                return;
+            }
+            try {
+                plan.bind(statement, (StreamlineEvent) input.getValueByField(StreamlineEvent.STREAMLINE_EVENT));
+                statement.executeUpdate();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                rollbackAndClose();
+                if (isTransientFailure(e)) {
+                    failRemaining(i, e);
+                    return;
+                }
+                // the tuple itself can not be written, replaying it would fail again
+                LOG.error("Failed to write tuple [{}] to table [{}], dropping it", input, tableName, e);
+                collector.reportError(e);
+                failedMetric.incr();
+                collector.ack(input);
+                continue;
+            }
+            writtenMetric.incr();
+            collector.ack(input);
+        }
+    }
+
+    private void failRemaining(int from, Exception e) {
+        List<Tuple> remaining = batch.subList(from, batch.size());
+        LOG.error("Failed to write to table [{}], failing the remaining [{}] tuples", tableName, remaining.size(), e);
+        collector.reportError(e);
+        for (Tuple input : remaining) {
+            collector.fail(input);
+        }
+        failedMetric.incrBy(remaining.size());
+    }
+
+    private static boolean isTransientFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientException || t instanceof SQLRecoverableException
+                    || t instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (t instanceof SQLException && isTransientSqlState(((SQLException) t).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // SQLState classes 08 (connection exception), 40 (transaction rollback), 57 (operator intervention, e.g. the
+    // database shutting down or the query being canceled) and HY008 (operation canceled, e.g. on query timeout)
+    private static boolean isTransientSqlState(String sqlState) {
+        return sqlState != null && (sqlState.startsWith("08") || sqlState.startsWith("40") || sqlState.startsWith("57")
+                || sqlState.equals("HY008"));
+    }
+
+    private PreparedStatement statement() throws SQLException {
+        if (statement == null) {
+            connection = connectionProvider.getConnection();
+            connection.setAutoCommit(false);
+            if (plan == null) {
+                plan = JdbcInsertPlan.create(connection, tableName, fields, upsertDialect, keyColumns);
+                LOG.info("Writing fields {} to table [{}] with {}", fields, tableName, plan);
+            }
+            statement = connection.prepareStatement(plan.getSql());
+            if (queryTimeoutSecs > 0) {
+                statement.setQueryTimeout(queryTimeoutSecs);
+            }
+        }
+        return statement;
+    }
+
+    private void rollbackAndClose() {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOG.warn("Failed to roll back the failed batch", e);
+            }
+        }
+        close();
+    }
+
+    private void close() {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            LOG.warn("Failed to close the connection to the database", e);
+        } finally {
+            statement = null;
+            connection = null;
+        }
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        return Collections.singletonMap(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS, batchFlushIntervalSecs);
+    }
+
+    @Override
+    public void cleanup() {
+        close();
+        connectionProvider.cleanup();
+    }
+
+    @Override
+    public void declareOutputFields(OutputFieldsDeclarer declarer) {
+    }
+}
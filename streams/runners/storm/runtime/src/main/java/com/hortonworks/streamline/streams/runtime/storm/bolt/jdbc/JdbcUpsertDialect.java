@@ -0,0 +1,114 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The statement used by {@link JdbcSinkBolt} to write a row, either a plain insert or one of the database specific
+ * upserts.
+ */
+public enum JdbcUpsertDialect {
+    /**
+     * INSERT INTO t (a, b) VALUES (?, ?)
+     */
+    NONE {
+        @Override
+        String statement(String tableName, List<String> columns, List<String> keyColumns) {
+            return insert("INSERT", tableName, columns);
+        }
+    },
+
+    /**
+     * INSERT INTO t (a, b) VALUES (?, ?) ON DUPLICATE KEY UPDATE b = VALUES(b), relying on the unique keys of the table.
+     */
+    MYSQL {
+        @Override
+        String statement(String tableName, List<String> columns, List<String> keyColumns) {
+            List<String> updated = nonKeyColumns(columns, keyColumns);
+            if (updated.isEmpty()) {
+                updated = columns;
+            }
+            StringBuilder sql = new StringBuilder(insert("INSERT", tableName, columns)).append(" ON DUPLICATE KEY UPDATE ");
+            for (int i = 0; i < updated.size(); i++) {
+                sql.append(i > 0 ? ", " : "").append(updated.get(i)).append(" = VALUES(").append(updated.get(i)).append(')');
+            }
+            return sql.toString();
+        }
+    },
+
+    /**
+     * INSERT INTO t (a, b) VALUES (?, ?) ON CONFLICT (a) DO UPDATE SET b = EXCLUDED.b, the key columns are required.
+     */
+    POSTGRES {
+        @Override
+        String statement(String tableName, List<String> columns, List<String> keyColumns) {
+            if (keyColumns.isEmpty()) {
+                throw new IllegalArgumentException("Key columns are required for " + this + " upserts");
+            }
+            StringBuilder sql = new StringBuilder(insert("INSERT", tableName, columns))
+                    .append(" ON CONFLICT (").append(String.join(", ", keyColumns)).append(')');
+            List<String> updated = nonKeyColumns(columns, keyColumns);
+            if (updated.isEmpty()) {
+                return sql.append(" DO NOTHING").toString();
+            }
+            sql.append(" DO UPDATE SET ");
+            for (int i = 0; i < updated.size(); i++) {
+                sql.append(i > 0 ? ", " : "").append(updated.get(i)).append(" = EXCLUDED.").append(updated.get(i));
+            }
+            return sql.toString();
+        }
+    },
+
+    /**
+     * UPSERT INTO t (a, b) VALUES (?, ?)
+     */
+    PHOENIX {
+        @Override
+        String statement(String tableName, List<String> columns, List<String> keyColumns) {
+            return insert("UPSERT", tableName, columns);
+        }
+    };
+
+    /**
+     * Returns the parameterized statement writing the given columns, in order, to the table.
+     */
+    abstract String statement(String tableName, List<String> columns, List<String> keyColumns);
+
+    private static String insert(String verb, String tableName, List<String> columns) {
+        StringBuilder sql = new StringBuilder(verb).append(" INTO ").append(tableName)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        return sql.append(')').toString();
+    }
+
+    private static List<String> nonKeyColumns(List<String> columns, List<String> keyColumns) {
+        List<String> result = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            boolean key = false;
+            for (String keyColumn : keyColumns) {
+                key |= keyColumn.equalsIgnoreCase(column);
+            }
+            if (!key) {
+                result.add(column);
+            }
+        }
+        return result;
+    }
+}
@@ -26,6 +26,8 @@ import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotSerializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.Utils;
 import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +41,10 @@ public class StreamlineEventSerializer implements Serializer<StreamlineEvent> {
     private final AvroSnapshotSerializer avroSnapshotSerializer;
     private SchemaRegistryClient schemaRegistryClient;
 
+    // serializers are created by the Kafka producer, not by a component, so worker level instrumentation is used
+    private Instrumentation instrumentation = Instrumentation.NOOP;
+    private Instrumentation.Timer serializeTimer = Instrumentation.NOOP.timer(null);
+
     public StreamlineEventSerializer () {
         avroSnapshotSerializer = new AvroSnapshotSerializer();
     }
@@ -52,6 +58,14 @@ public class StreamlineEventSerializer implements Serializer<StreamlineEvent> {
 
     @Override
     public byte[] serialize(String topic, StreamlineEvent streamlineEvent) {
+        Instrumentation.Timer timer = getSerializeTimer();
+        long start = timer.start();
+        byte[] serialized = doSerialize(topic, streamlineEvent);
+        timer.stop(start);
+        return serialized;
+    }
+
+    private byte[] doSerialize(String topic, StreamlineEvent streamlineEvent) {
         SchemaMetadata schemaMetadata = Utils.getSchemaKey(topic, false);
         SchemaVersionInfo schemaVersionInfo;
         try {
@@ -69,6 +83,15 @@ public class StreamlineEventSerializer implements Serializer<StreamlineEvent> {
         }
     }
 
+    private Instrumentation.Timer getSerializeTimer() {
+        Instrumentation current = Instrumentations.worker();
+        if (current != instrumentation) {
+            instrumentation = current;
+            serializeTimer = current.timer("kafkaSerializer.serialize");
+        }
+        return serializeTimer;
+    }
+
     @Override
     public void close() {
         try {
@@ -0,0 +1,80 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.BaseTickTupleAwareRichBolt;
+
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Scores the received events with a PMML model and emits the scored events to all the output streams of the model
+ * processor. The evaluator of the model is shared by all the executors of the worker through the
+ * {@link PMMLEvaluatorCache}.
+ */
+public class ModelEvaluationBolt extends BaseTickTupleAwareRichBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(ModelEvaluationBolt.class);
+
+    private final StreamlineJPMMLModelRunnerFactory runnerFactory;
+    private final StreamlineEventModelOutputs modelOutputs;
+
+    private transient OutputCollector collector;
+    private transient StreamlineJPMMLModelRunner runner;
+
+    public ModelEvaluationBolt(StreamlineJPMMLModelRunnerFactory runnerFactory, StreamlineEventModelOutputs modelOutputs) {
+        this.runnerFactory = runnerFactory;
+        this.modelOutputs = modelOutputs;
+    }
+
+    @Override
+    public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
+        this.collector = collector;
+        this.runner = runnerFactory.newModelRunner();
+    }
+
+    @Override
+    protected void process(Tuple input) {
+        StreamlineEvent scored;
+        try {
+            scored = runner.score(input);
+        } catch (Exception e) {
+            collector.reportError(e);
+            collector.fail(input);
+            return;
+        }
+        LOG.debug("Input tuple [{}] generated scored event [{}]", input, scored);
+        for (String streamId : runner.getStreamIds()) {
+            collector.emit(streamId, input, new Values(scored));
+        }
+        collector.ack(input);
+    }
+
+    @Override
+    public void declareOutputFields(OutputFieldsDeclarer declarer) {
+        for (Map.Entry<String, ? extends Fields> streamFields : modelOutputs.streamFields().entrySet()) {
+            declarer.declareStream(streamFields.getKey(), streamFields.getValue());
+        }
+    }
+}
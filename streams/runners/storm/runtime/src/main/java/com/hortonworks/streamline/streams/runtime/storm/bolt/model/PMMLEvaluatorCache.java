@@ -0,0 +1,99 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
+
+import com.google.common.base.Stopwatch;
+
+import org.apache.storm.pmml.runner.jpmml.JpmmlFactory;
+import org.dmg.pmml.PMML;
+import org.jpmml.evaluator.Evaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker wide cache of PMML evaluators, keyed by the model id and the checksum of the model document. All the
+ * executors of a worker evaluating the same model share one evaluator, so that the document is parsed and the
+ * evaluator is built once per worker instead of once per executor. JPMML evaluators are immutable once built and can
+ * be used concurrently from several threads.
+ * <p>
+ * Only the latest version of a model is kept: loading a model with a different checksum replaces the previous one.
+ */
+final class PMMLEvaluatorCache {
+    private static final Logger LOG = LoggerFactory.getLogger(PMMLEvaluatorCache.class);
+
+    private static final ConcurrentMap<String, Entry> EVALUATORS = new ConcurrentHashMap<>();
+
+    interface DocumentSource {
+        InputStream open() throws Exception;
+    }
+
+    private PMMLEvaluatorCache() {
+    }
+
+    static Evaluator get(String modelId, String checksum, DocumentSource source) {
+        Entry entry = EVALUATORS.compute(modelId, (id, current) ->
+                current != null && current.checksum.equals(checksum) ? current : new Entry(checksum));
+        return entry.get(modelId, source);
+    }
+
+    static void clear() {
+        EVALUATORS.clear();
+    }
+
+    private static final class Entry {
+        private final String checksum;
+        private volatile Evaluator evaluator;
+
+        private Entry(String checksum) {
+            this.checksum = Objects.requireNonNull(checksum, "checksum");
+        }
+
+        private Evaluator get(String modelId, DocumentSource source) {
+            Evaluator result = evaluator;
+            if (result == null) {
+                // executors of the same model wait for the one building the evaluator instead of building their own
+                synchronized (this) {
+                    result = evaluator;
+                    if (result == null) {
+                        evaluator = result = load(modelId, source);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private Evaluator load(String modelId, DocumentSource source) {
+            LOG.info("Building the PMML evaluator of model [{}] with checksum [{}]", modelId, checksum);
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            PMML pmml;
+            try (InputStream in = source.open()) {
+                pmml = JpmmlFactory.newPmml(in);
+            } catch (Exception e) {
+                throw new RuntimeException("Exception occurred while creating PMML model object", e);
+            }
+            Evaluator result = JpmmlFactory.newEvaluator(pmml);
+            LOG.info("Built the PMML evaluator of model [{}] - elapsed: {} ms", modelId,
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            return result;
+        }
+    }
+}
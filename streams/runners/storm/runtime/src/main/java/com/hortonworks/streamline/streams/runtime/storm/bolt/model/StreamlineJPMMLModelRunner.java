@@ -13,7 +13,6 @@
   * See the License for the specific language governing permissions and
   * limitations under the License.
  **/
-
 package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
 
 import com.hortonworks.streamline.streams.StreamlineEvent;
@@ -22,7 +21,6 @@ import com.hortonworks.streamline.streams.layout.component.Stream;
 
 import org.apache.storm.pmml.model.ModelOutputs;
 import org.apache.storm.pmml.runner.jpmml.JPmmlModelRunner;
-import org.apache.storm.shade.com.google.common.collect.ImmutableMap;
 import org.apache.storm.tuple.Tuple;
 import org.dmg.pmml.FieldName;
 import org.jpmml.evaluator.Evaluator;
@@ -31,22 +29,60 @@ import org.jpmml.evaluator.FieldValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
+/**
+ * Scores streamline events with a PMML model. The evaluator may be shared with other runners, but a runner itself is
+ * meant to be used by a single executor: the fields of the model are resolved once into arrays, and the map of
+ * arguments passed to the evaluator is reused from one event to the next.
+ */
 public class StreamlineJPMMLModelRunner extends JPmmlModelRunner {
     private static final Logger LOG = LoggerFactory.getLogger(StreamlineJPMMLModelRunner.class);
     private final String modelId;
-    private final Set<Stream> outputStreams;
+    private final Evaluator evaluator;
+    private final String[] streamIds;
+
+    private final FieldName[] activeFields;
+    private final String[] activeFieldNames;
+    private final FieldName[] resultFields;
+    private final String[] resultFieldNames;
+
+    // the last raw value seen for each active field and its prepared value, reused while the raw value repeats
+    private final Object[] lastRawValues;
+    private final FieldValue[] lastPreparedValues;
+    private final Map<FieldName, FieldValue> arguments;
 
     public StreamlineJPMMLModelRunner(Set<Stream> outputStreams, String modelId, Evaluator evaluator, ModelOutputs modelOutputs) {
         super(evaluator, modelOutputs);
         this.modelId = modelId;
-        this.outputStreams = outputStreams;
+        this.evaluator = evaluator;
+        this.streamIds = outputStreams.stream().map(Stream::getId).toArray(String[]::new);
+
+        this.activeFields = getActiveFields().toArray(new FieldName[0]);
+        this.activeFieldNames = names(activeFields);
+        List<FieldName> results = new ArrayList<>(getPredictedFields());
+        results.addAll(getOutputFields());
+        this.resultFields = results.toArray(new FieldName[0]);
+        this.resultFieldNames = names(resultFields);
+
+        this.lastRawValues = new Object[activeFields.length];
+        this.lastPreparedValues = new FieldValue[activeFields.length];
+        this.arguments = new HashMap<>(activeFields.length * 2);
+    }
+
+    private static String[] names(FieldName[] fields) {
+        String[] names = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            names[i] = fields[i].getValue();
+        }
+        return names;
     }
 
     /**
@@ -55,17 +91,15 @@ public class StreamlineJPMMLModelRunner extends JPmmlModelRunner {
     @Override
     public Map<FieldName, Object> extractRawInputs(Tuple tuple) {
         LOG.debug("Extracting raw inputs from tuple: = [{}]", tuple);
-        Object event = tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
-        final Map<FieldName, Object> rawInputs = new LinkedHashMap<>();
-        if(event instanceof StreamlineEvent) {
-            StreamlineEvent streamlineEvent = (StreamlineEvent) event;
-            for (FieldName fieldName : getActiveFields()) {
-                if (streamlineEvent.containsKey(fieldName.getValue())) {
-                    rawInputs.put(fieldName, streamlineEvent.get(fieldName.getValue()));
+        StreamlineEvent streamlineEvent = toStreamlineEvent(tuple);
+        final Map<FieldName, Object> rawInputs = new LinkedHashMap<>(activeFields.length * 2);
+        if (streamlineEvent != null) {
+            for (int i = 0; i < activeFields.length; i++) {
+                Object value = streamlineEvent.get(activeFieldNames[i]);
+                if (value != null || streamlineEvent.containsKey(activeFieldNames[i])) {
+                    rawInputs.put(activeFields[i], value);
                 }
             }
-        } else {
-            LOG.debug("Not processing invalid input tuple:[{}] with streamline event:[{}]", tuple, event);
         }
 
         LOG.debug("Raw inputs = [{}]", rawInputs);
@@ -74,30 +108,70 @@ public class StreamlineJPMMLModelRunner extends JPmmlModelRunner {
 
     @Override
     public Map<String, List<Object>> scoredTuplePerStream(Tuple input) {
-        final Map<FieldName, Object> rawInputs = extractRawInputs(input);
-        final Map<FieldName, FieldValue> preProcInputs = preProcessInputs(rawInputs);
-        final Map<FieldName, ?> predScores = predictScores(preProcInputs);
+        return toStreamLineEvents(score(input));
+    }
 
-        return toStreamLineEvents(predScores);
+    /**
+     * @return the ids of the streams the scored events are emitted to
+     */
+    public String[] getStreamIds() {
+        return streamIds;
     }
 
-    private Map<String, List<Object>> toStreamLineEvents(Map<FieldName, ?> predScores) {
-        Map<String, List<Object>> streamsToEvents = new HashMap<>();
+    /**
+     * Scores the event of a tuple. A raw value repeated by consecutive events, typically a categorical field, is
+     * converted to the type of the model field only once.
+     *
+     * @return the event holding the predicted and output fields of the model
+     */
+    public StreamlineEvent score(Tuple input) {
+        bindArguments(toStreamlineEvent(input));
+        final Map<FieldName, ?> predScores = predictScores(arguments);
+
         StreamlineEventImpl.Builder eventBuilder = StreamlineEventImpl.builder();
-        for (FieldName predictedField : getPredictedFields()) {
-            Object targetValue = predScores.get(predictedField);
-            eventBuilder.put(predictedField.getValue(), EvaluatorUtil.decode(targetValue));
+        for (int i = 0; i < resultFields.length; i++) {
+            eventBuilder.put(resultFieldNames[i], EvaluatorUtil.decode(predScores.get(resultFields[i])));
         }
+        return eventBuilder.dataSourceId(modelId).build();
+    }
 
-        for (FieldName outputField : getOutputFields()) {
-            Object targetValue = predScores.get(outputField);
-            eventBuilder.put(outputField.getValue(), EvaluatorUtil.decode(targetValue));
-        };
+    private void bindArguments(StreamlineEvent streamlineEvent) {
+        arguments.clear();
+        if (streamlineEvent == null) {
+            return;
+        }
+        for (int i = 0; i < activeFields.length; i++) {
+            Object value = streamlineEvent.get(activeFieldNames[i]);
+            if (value == null && !streamlineEvent.containsKey(activeFieldNames[i])) {
+                continue;
+            }
+            FieldValue prepared;
+            if (value != null && lastPreparedValues[i] != null && Objects.equals(value, lastRawValues[i])) {
+                prepared = lastPreparedValues[i];
+            } else {
+                prepared = EvaluatorUtil.prepare(evaluator, activeFields[i], value);
+                lastRawValues[i] = value;
+                lastPreparedValues[i] = prepared;
+            }
+            arguments.put(activeFields[i], prepared);
+        }
+    }
 
-        for (Stream stream : outputStreams) {
-            streamsToEvents.put(stream.getId(), Collections.singletonList(eventBuilder.dataSourceId(modelId).build()));
+    private StreamlineEvent toStreamlineEvent(Tuple tuple) {
+        Object event = tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+        if (event instanceof StreamlineEvent) {
+            return (StreamlineEvent) event;
         }
+        LOG.debug("Not processing invalid input tuple:[{}] with streamline event:[{}]", tuple, event);
+        return null;
+    }
 
+    private Map<String, List<Object>> toStreamLineEvents(StreamlineEvent scored) {
+        Map<String, List<Object>> streamsToEvents = new HashMap<>(streamIds.length * 2);
+        List<Object> values = Collections.singletonList(scored);
+        for (String streamId : streamIds) {
+            streamsToEvents.put(streamId, values);
+        }
         return streamsToEvents;
     }
 }
@@ -15,19 +15,23 @@
  **/
 package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
 
+import com.hortonworks.streamline.common.MLModelArtifact;
 import com.hortonworks.streamline.common.util.Utils;
 import com.hortonworks.streamline.streams.layout.component.impl.model.ModelProcessor;
 
 import org.apache.storm.pmml.model.ModelOutputs;
-import org.apache.storm.pmml.runner.ModelRunner;
 import org.apache.storm.pmml.runner.ModelRunnerFactory;
-import org.apache.storm.pmml.runner.jpmml.JpmmlFactory;
-import org.dmg.pmml.PMML;
+import org.jpmml.evaluator.Evaluator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Creates the model runner of each executor. The evaluator is taken from the {@link PMMLEvaluatorCache}, so the model
+ * is parsed once per worker.
+ */
 public class StreamlineJPMMLModelRunnerFactory implements ModelRunnerFactory {
     protected static final Logger LOG = LoggerFactory.getLogger(StreamlineJPMMLModelRunnerFactory.class);
 
@@ -40,20 +44,23 @@ public class StreamlineJPMMLModelRunnerFactory implements ModelRunnerFactory {
     }
 
     @Override
-    public ModelRunner newModelRunner() {
+    public StreamlineJPMMLModelRunner newModelRunner() {
         final ModelProcessor modelProcessor = Utils.createObjectFromJson(modelProcessorJson, ModelProcessor.class);
-        PMML pmmlModel;
-        try {
-            pmmlModel = JpmmlFactory.newPmml(
-                    new ByteArrayInputStream(modelProcessor.getPmml().getBytes()));
-        } catch (Exception e) {
-            throw new RuntimeException("Exception occurred while creating PMML model object", e);
+        final MLModelArtifact artifact = modelProcessor.getModelArtifact();
+        final Evaluator evaluator;
+        if (artifact != null) {
+            evaluator = PMMLEvaluatorCache.get(artifact.getName(), artifact.getChecksum(), artifact::openStream);
+        } else {
+            // topologies deployed before models were shipped as artifacts embed the raw document
+            final String pmml = modelProcessor.getPmml();
+            evaluator = PMMLEvaluatorCache.get(modelProcessor.getId(), MLModelArtifact.checksum(pmml),
+                    () -> new ByteArrayInputStream(pmml.getBytes(StandardCharsets.UTF_8)));
         }
 
         return new StreamlineJPMMLModelRunner(
                 modelProcessor.getOutputStreams(),
                 modelProcessor.getId(),
-                JpmmlFactory.newEvaluator(pmmlModel),
+                evaluator,
                 modelOutputs);
     }
 }
@@ -62,6 +62,7 @@ public class NormalizationBolt extends AbstractProcessorBolt {
         }
         normalizationProcessorRuntime = new NormalizationProcessorRuntime(normalizationProcessor);
         normalizationProcessorRuntime.initialize(Collections.<String, Object>emptyMap());
+        instrument(normalizationProcessorRuntime);
     }
 
     public void process(Tuple inputTuple, StreamlineEvent event) throws Exception {
@@ -73,8 +73,12 @@ public class RulesBolt extends AbstractProcessorBolt {
             config = new HashMap<>();
             config.put(Constants.CATALOG_ROOT_URL, stormConf.get(Constants.CATALOG_ROOT_URL));
             config.put(Constants.LOCAL_FILES_PATH, stormConf.get(Constants.LOCAL_FILES_PATH));
+            if (context != null) {
+                config.put(Constants.TASK_ID, context.getThisTaskId());
+            }
         }
         ruleProcessorRuntime.initialize(config);
+        instrument(ruleProcessorRuntime);
     }
 
     @Override
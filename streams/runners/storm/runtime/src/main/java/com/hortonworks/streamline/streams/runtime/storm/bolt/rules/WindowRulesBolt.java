@@ -23,6 +23,7 @@ import com.hortonworks.streamline.streams.exception.ProcessingException;
 import com.hortonworks.streamline.streams.layout.component.Stream;
 import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
 import com.hortonworks.streamline.streams.layout.component.rule.expression.Window;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
 import com.hortonworks.streamline.streams.runtime.processor.RuleProcessorRuntime;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
@@ -31,6 +32,7 @@ import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
 import org.apache.storm.windowing.TupleWindow;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.AbstractProcessorBolt;
 import com.hortonworks.streamline.streams.runtime.storm.bolt.StreamlineWindowedBolt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +59,7 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
     private final RulesProcessor rulesProcessor;
     private final RuleProcessorRuntime.ScriptType scriptType;
     private OutputCollector collector;
+    private Instrumentation.Timer executeTimer = Instrumentation.NOOP.timer(null);
     private long windowId;
 
     public WindowRulesBolt(RulesProcessor rulesProcessor, RuleProcessorRuntime.ScriptType scriptType) {
@@ -76,6 +79,9 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
         ruleProcessorRuntime = new RuleProcessorRuntime(rulesProcessor, scriptType);
         Map<String, Object> config = Collections.emptyMap();
         ruleProcessorRuntime.initialize(config);
+        Instrumentation instrumentation = AbstractProcessorBolt.createInstrumentation(stormConf, context);
+        ruleProcessorRuntime.setInstrumentation(instrumentation);
+        executeTimer = instrumentation.timer("execute");
     }
 
     /**
@@ -88,6 +94,7 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
         ++windowId;
         LOG.debug("Window activated, window id {}, number of tuples in window {}", windowId, inputWindow.get().size());
         List<Tuple> curGroup = new ArrayList<>();
+        long start = executeTimer.start();
         try {
             StreamlineEvent event;
             for (Tuple input : inputWindow.get()) {
@@ -99,6 +106,7 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
             }
             // force evaluation of the last group by
             processAndEmit(GROUP_BY_TRIGGER_EVENT, curGroup);
+            executeTimer.stop(start);
         } catch (Exception e) {
             collector.reportError(e);
             LOG.debug("", e);                        // useful to debug unit tests
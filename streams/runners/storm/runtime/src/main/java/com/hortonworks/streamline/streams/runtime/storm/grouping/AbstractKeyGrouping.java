@@ -0,0 +1,126 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.grouping;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.storm.StreamlineRuntimeUtil;
+import org.apache.storm.generated.GlobalStreamId;
+import org.apache.storm.grouping.CustomStreamGrouping;
+import org.apache.storm.task.WorkerTopologyContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class for groupings which route a StreamlineEvent based on the values of its grouping fields.
+ * <p>
+ * Grouping field names are split into their nested keys once and the single task lists returned from
+ * {@link #chooseTasks(int, List)} are created in {@link #prepare(WorkerTopologyContext, GlobalStreamId, List)},
+ * so choosing a task does not allocate per tuple.
+ */
+public abstract class AbstractKeyGrouping implements CustomStreamGrouping {
+    private static final int SEED = 0x9747b28c;
+
+    private final List<String> groupingFields;
+    private final String[][] nestedGroupingKeys;
+    private transient List<Integer>[] singleTaskLists;
+
+    protected AbstractKeyGrouping(List<String> groupingFields) {
+        if (groupingFields == null || groupingFields.isEmpty()) {
+            throw new IllegalArgumentException("Grouping fields can not be empty");
+        }
+        this.groupingFields = Collections.unmodifiableList(groupingFields);
+        this.nestedGroupingKeys = new String[groupingFields.size()][];
+        for (int i = 0; i < groupingFields.size(); ++i) {
+            nestedGroupingKeys[i] = groupingFields.get(i).split(StreamlineEvent.NESTED_FIELD_SPLIT_REGEX);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void prepare(WorkerTopologyContext context, GlobalStreamId stream, List<Integer> targetTasks) {
+        singleTaskLists = new List[targetTasks.size()];
+        for (int i = 0; i < targetTasks.size(); ++i) {
+            singleTaskLists[i] = Collections.singletonList(targetTasks.get(i));
+        }
+        prepare(targetTasks.size());
+    }
+
+    @Override
+    public List<Integer> chooseTasks(int taskId, List<Object> values) {
+        return singleTaskLists[chooseTaskIndex(keyHash((StreamlineEvent) values.get(0)), singleTaskLists.length)];
+    }
+
+    public List<String> getGroupingFields() {
+        return groupingFields;
+    }
+
+    /**
+     * Called once the number of target tasks is known.
+     */
+    protected void prepare(int numTasks) {
+    }
+
+    /**
+     * Returns the index of the target task in [0, numTasks) for a key with the given hash.
+     */
+    protected abstract int chooseTaskIndex(int keyHash, int numTasks);
+
+    /**
+     * Hash of the grouping field values of the event. Equal values always produce equal hashes, also across workers.
+     */
+    protected int keyHash(StreamlineEvent event) {
+        int hash = 1;
+        for (String[] nestedKeys : nestedGroupingKeys) {
+            Object value = StreamlineRuntimeUtil.getFieldValue(event, nestedKeys);
+            hash = 31 * hash + valueHash(value);
+        }
+        return mix(hash, SEED);
+    }
+
+    /**
+     * Maps a hash to [0, bound) without the sign issues of {@code hash % bound}.
+     */
+    protected static int nonNegativeMod(int hash, int bound) {
+        return (hash & Integer.MAX_VALUE) % bound;
+    }
+
+    /**
+     * Murmur3 finalization of the hash combined with the seed, so that keys which only differ in the low bits of their
+     * hashCode still spread across tasks and independent hash functions can be derived from different seeds.
+     */
+    protected static int mix(int hash, int seed) {
+        int h = hash ^ seed;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int valueHash(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof Object[]) {
+            return Arrays.deepHashCode((Object[]) value);
+        } else if (value.getClass().isArray()) {
+            return Arrays.deepHashCode(new Object[]{value});
+        }
+        return value.hashCode();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.grouping;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fields grouping on a consistent hash ring with virtual nodes. Like {@link FieldsGroupingAsCustomGrouping} a key is always
+ * sent to the same task, but the virtual nodes even out the share of the key space owned by each task and only a small part
+ * of the keys move when the number of tasks changes. Meant for windowed and join components which need strict key affinity.
+ */
+public class ConsistentHashGrouping extends AbstractKeyGrouping {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+    private static final int RING_SEED = 0x3c074a61;
+
+    private final int virtualNodes;
+    private transient int[] ringPoints;
+    private transient int[] ringTaskIndexes;
+
+    public ConsistentHashGrouping(List<String> groupingFields) {
+        this(groupingFields, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashGrouping(List<String> groupingFields, int virtualNodes) {
+        super(groupingFields);
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Number of virtual nodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    @Override
+    protected void prepare(int numTasks) {
+        int size = numTasks * virtualNodes;
+        long[] points = new long[size];
+        for (int task = 0; task < numTasks; ++task) {
+            for (int node = 0; node < virtualNodes; ++node) {
+                int point = mix(task * virtualNodes + node, RING_SEED);
+                // sort on the point and keep the task index in the low bits
+                points[task * virtualNodes + node] = ((long) point << 32) | task;
+            }
+        }
+        Arrays.sort(points);
+        ringPoints = new int[size];
+        ringTaskIndexes = new int[size];
+        for (int i = 0; i < size; ++i) {
+            ringPoints[i] = (int) (points[i] >> 32);
+            ringTaskIndexes[i] = (int) points[i];
+        }
+    }
+
+    @Override
+    protected int chooseTaskIndex(int keyHash, int numTasks) {
+        int idx = Arrays.binarySearch(ringPoints, keyHash);
+        if (idx < 0) {
+            idx = -idx - 1;
+            if (idx == ringPoints.length) {
+                idx = 0;
+            }
+        }
+        return ringTaskIndexes[idx];
+    }
+}
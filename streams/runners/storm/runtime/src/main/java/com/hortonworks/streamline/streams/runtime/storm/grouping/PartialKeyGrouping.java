@@ -0,0 +1,55 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.grouping;
+
+import java.util.List;
+
+/**
+ * Partial key grouping based on the power of two choices. Every key has two candidate tasks derived from two independent
+ * hashes and each event goes to the candidate which this grouping has sent fewer events to so far. A key is therefore
+ * processed by at most two tasks, which spreads hot keys while keeping the per key state of the downstream tasks small.
+ * <p>
+ * Only suitable for downstream components which can merge partial results of a key, e.g. stateless processors or aggregations
+ * that are combined further downstream. Use {@link FieldsGroupingAsCustomGrouping} or {@link ConsistentHashGrouping} when
+ * a key has to be processed by a single task.
+ */
+public class PartialKeyGrouping extends AbstractKeyGrouping {
+    private static final int SECOND_SEED = 0x5bd1e995;
+
+    private transient long[] sentCounts;
+
+    public PartialKeyGrouping(List<String> groupingFields) {
+        super(groupingFields);
+    }
+
+    @Override
+    protected void prepare(int numTasks) {
+        sentCounts = new long[numTasks];
+    }
+
+    @Override
+    protected int chooseTaskIndex(int keyHash, int numTasks) {
+        int first = nonNegativeMod(keyHash, numTasks);
+        if (numTasks == 1) {
+            return first;
+        }
+        // pick the second candidate among the other tasks so that a hot key always has two distinct tasks
+        int second = (first + 1 + nonNegativeMod(mix(keyHash, SECOND_SEED), numTasks - 1)) % numTasks;
+        int chosen = sentCounts[first] <= sentCounts[second] ? first : second;
+        sentCounts[chosen]++;
+        return chosen;
+    }
+}
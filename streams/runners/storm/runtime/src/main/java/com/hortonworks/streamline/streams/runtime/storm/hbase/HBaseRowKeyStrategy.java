@@ -0,0 +1,147 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hbase;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the HBase row key of an event.
+ */
+public interface HBaseRowKeyStrategy extends Serializable {
+
+    byte[] rowKey(StreamlineEvent event);
+
+    enum Type {
+        /**
+         * The id of the event, a random UUID.
+         */
+        EVENT_ID,
+        /**
+         * A salt byte followed by the event timestamp and the event id, see {@link SaltedTimeOrdered}.
+         */
+        SALTED_TIME,
+        /**
+         * The values of the configured event fields, see {@link Composite}.
+         */
+        FIELDS
+    }
+
+    static HBaseRowKeyStrategy create(Type type, List<String> fields, int saltBuckets, String timestampField) {
+        switch (type) {
+            case EVENT_ID:
+                return new EventId();
+            case SALTED_TIME:
+                return new SaltedTimeOrdered(saltBuckets, timestampField);
+            case FIELDS:
+                return new Composite(fields);
+            default:
+                throw new IllegalArgumentException("Unsupported row key strategy " + type);
+        }
+    }
+
+    class EventId implements HBaseRowKeyStrategy {
+        @Override
+        public byte[] rowKey(StreamlineEvent event) {
+            return Bytes.toBytes(event.getId());
+        }
+    }
+
+    /**
+     * Row keys ordered by time within each of the salt buckets: one salt byte derived from the event id, the timestamp
+     * as a big endian long and the event id. The salt spreads the writes over the regions of a pre-split table while a
+     * time range is still read with one scan per bucket. The timestamp is taken from the given numeric event field,
+     * or is the current time when no field is configured.
+     */
+    class SaltedTimeOrdered implements HBaseRowKeyStrategy {
+        private final int saltBuckets;
+        private final String timestampField;
+
+        public SaltedTimeOrdered(int saltBuckets, String timestampField) {
+            if (saltBuckets < 1 || saltBuckets > 256) {
+                throw new IllegalArgumentException("saltBuckets must be between 1 and 256, got " + saltBuckets);
+            }
+            this.saltBuckets = saltBuckets;
+            this.timestampField = timestampField;
+        }
+
+        @Override
+        public byte[] rowKey(StreamlineEvent event) {
+            byte[] id = Bytes.toBytes(event.getId());
+            byte[] key = new byte[1 + Bytes.SIZEOF_LONG + id.length];
+            key[0] = (byte) ((event.getId().hashCode() & Integer.MAX_VALUE) % saltBuckets);
+            Bytes.putLong(key, 1, timestamp(event));
+            System.arraycopy(id, 0, key, 1 + Bytes.SIZEOF_LONG, id.length);
+            return key;
+        }
+
+        private long timestamp(StreamlineEvent event) {
+            if (timestampField == null) {
+                return System.currentTimeMillis();
+            }
+            Object value = event.get(timestampField);
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("Timestamp field " + timestampField + " is not a number: " + value);
+            }
+            return ((Number) value).longValue();
+        }
+    }
+
+    /**
+     * Row keys made of the values of the given fields, in order. Integral numbers are written big endian with the sign
+     * bit flipped so that the keys sort as the numbers do, strings are written in UTF-8 followed by a zero byte and
+     * any other value is written as its string form.
+     */
+    class Composite implements HBaseRowKeyStrategy {
+        private final List<String> fields;
+
+        public Composite(List<String> fields) {
+            if (fields == null || fields.isEmpty()) {
+                throw new IllegalArgumentException("Composite row keys need at least one field");
+            }
+            this.fields = new ArrayList<>(fields);
+        }
+
+        @Override
+        public byte[] rowKey(StreamlineEvent event) {
+            ByteArrayOutputStream key = new ByteArrayOutputStream(32);
+            for (String field : fields) {
+                Object value = event.get(field);
+                if (value == null) {
+                    throw new IllegalArgumentException("Row key field " + field + " is missing in event " + event.getId());
+                }
+                if (value instanceof Long) {
+                    key.write(Bytes.toBytes((Long) value ^ Long.MIN_VALUE), 0, Bytes.SIZEOF_LONG);
+                } else if (value instanceof Integer) {
+                    key.write(Bytes.toBytes((Integer) value ^ Integer.MIN_VALUE), 0, Bytes.SIZEOF_INT);
+                } else if (value instanceof Short) {
+                    key.write(Bytes.toBytes((short) ((Short) value ^ Short.MIN_VALUE)), 0, Bytes.SIZEOF_SHORT);
+                } else {
+                    byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+                    key.write(bytes, 0, bytes.length);
+                    key.write(0);
+                }
+            }
+            return key.toByteArray();
+        }
+    }
+}
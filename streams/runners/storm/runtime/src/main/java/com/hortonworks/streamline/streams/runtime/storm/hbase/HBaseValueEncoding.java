@@ -0,0 +1,251 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hbase;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes event field values to HBase cell values.
+ * <p>
+ * Strings, numbers, booleans and byte arrays are encoded with {@link Bytes#toBytes}, so they can be read back with
+ * the matching {@code Bytes.toXxx} method. Nested values, maps and lists, are encoded in a compact tagged binary form
+ * which is read back by {@link #decodeNested(byte[])}. Any other value is written with Java serialization in the same
+ * tagged form.
+ */
+public final class HBaseValueEncoding {
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte SHORT = 4;
+    private static final byte BYTE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte BYTES = 10;
+    private static final byte LIST = 11;
+    private static final byte MAP = 12;
+    private static final byte SERIALIZED = 13;
+
+    private HBaseValueEncoding() {
+    }
+
+    public static byte[] encode(Object value) {
+        if (value instanceof String) {
+            return Bytes.toBytes((String) value);
+        } else if (value instanceof Integer) {
+            return Bytes.toBytes((Integer) value);
+        } else if (value instanceof Long) {
+            return Bytes.toBytes((Long) value);
+        } else if (value instanceof Double) {
+            return Bytes.toBytes((Double) value);
+        } else if (value instanceof Float) {
+            return Bytes.toBytes((Float) value);
+        } else if (value instanceof Short) {
+            return Bytes.toBytes((Short) value);
+        } else if (value instanceof Byte) {
+            return new byte[] {(Byte) value};
+        } else if (value instanceof Boolean) {
+            return Bytes.toBytes((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            return Bytes.toBytes((BigDecimal) value);
+        } else if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeNested(out, value);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to encode value of " + value.getClass(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a value encoded by {@link #encode(Object)} in the tagged form, that is anything but a string, a number, a
+     * boolean or a byte array.
+     */
+    public static Object decodeNested(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return readNested(in);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Failed to decode nested value", e);
+        }
+    }
+
+    private static void writeNested(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            writeLength(out, list.size());
+            for (Object element : list) {
+                writeNested(out, element);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            writeLength(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeNested(out, entry.getKey());
+                writeNested(out, entry.getValue());
+            }
+        } else {
+            out.writeByte(SERIALIZED);
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            serialize(serialized, value);
+            writeBytes(out, serialized.toByteArray());
+        }
+    }
+
+    private static Object readNested(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case BIG_DECIMAL:
+                return new BigDecimal(new String(readBytes(in), StandardCharsets.UTF_8));
+            case BYTES:
+                return readBytes(in);
+            case LIST: {
+                int size = readLength(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readNested(in));
+                }
+                return list;
+            }
+            case MAP: {
+                int size = readLength(in);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readNested(in), readNested(in));
+                }
+                return map;
+            }
+            case SERIALIZED:
+                try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    return objectIn.readObject();
+                }
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void serialize(OutputStream out, Object value) throws IOException {
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Can not encode value of " + value.getClass());
+        }
+        ObjectOutputStream objectOut = new ObjectOutputStream(out);
+        objectOut.writeObject(value);
+        objectOut.flush();
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeLength(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    // lengths are written as unsigned varints, a single byte for anything shorter than 128
+    private static void writeLength(DataOutputStream out, int length) throws IOException {
+        while ((length & ~0x7F) != 0) {
+            out.writeByte((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.writeByte(length);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return length;
+            }
+        }
+    }
+}
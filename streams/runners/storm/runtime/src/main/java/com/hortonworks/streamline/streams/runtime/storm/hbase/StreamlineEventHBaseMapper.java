@@ -17,39 +17,142 @@ package com.hortonworks.streamline.streams.runtime.storm.hbase;
 
 import com.google.common.base.Charsets;
 import com.hortonworks.streamline.streams.StreamlineEvent;
+import org.apache.hadoop.hbase.client.Put;
 import org.apache.storm.hbase.bolt.mapper.HBaseMapper;
 import org.apache.storm.hbase.common.ColumnList;
 import org.apache.storm.tuple.Tuple;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import static org.apache.storm.hbase.common.Utils.toBytes;
-
+/**
+ * Maps events to HBase rows of a single column family, one column per field.
+ * <p>
+ * By default every non null field of the event is written, with the event id as the row key. With
+ * {@link #withFields(List) fields} only the given fields are written, with their qualifiers encoded once. Values are
+ * encoded by {@link HBaseValueEncoding} and the row key is built by the configured {@link HBaseRowKeyStrategy}.
+ */
 public class StreamlineEventHBaseMapper implements HBaseMapper {
+    // bounds the qualifiers cached when the fields are not configured, in case the events carry arbitrary keys
+    private static final int MAX_CACHED_QUALIFIERS = 4096;
+
     private final byte[] columnFamily;
+    private String[] fields;
+    private byte[][] qualifiers;
+    private HBaseRowKeyStrategy.Type rowKeyStrategyType = HBaseRowKeyStrategy.Type.EVENT_ID;
+    private List<String> rowKeyFields;
+    private int saltBuckets = 16;
+    private String timestampField;
+
+    private transient HBaseRowKeyStrategy rowKeyStrategy;
+    private transient Map<String, byte[]> qualifierCache;
 
     public StreamlineEventHBaseMapper(String columnFamily) {
         this.columnFamily = columnFamily.getBytes(Charsets.UTF_8);
     }
 
+    public StreamlineEventHBaseMapper withFields(List<String> fields) {
+        this.fields = fields.toArray(new String[fields.size()]);
+        this.qualifiers = new byte[fields.size()][];
+        for (int i = 0; i < fields.size(); i++) {
+            qualifiers[i] = fields.get(i).getBytes(Charsets.UTF_8);
+        }
+        return this;
+    }
+
+    public StreamlineEventHBaseMapper withRowKeyStrategy(String rowKeyStrategy) {
+        this.rowKeyStrategyType = HBaseRowKeyStrategy.Type.valueOf(rowKeyStrategy.toUpperCase());
+        return this;
+    }
+
+    public StreamlineEventHBaseMapper withRowKeyFields(List<String> rowKeyFields) {
+        this.rowKeyFields = new ArrayList<>(rowKeyFields);
+        return this;
+    }
+
+    public StreamlineEventHBaseMapper withSaltBuckets(int saltBuckets) {
+        this.saltBuckets = saltBuckets;
+        return this;
+    }
+
+    public StreamlineEventHBaseMapper withTimestampField(String timestampField) {
+        this.timestampField = timestampField;
+        return this;
+    }
+
     @Override
     public byte[] rowKey(Tuple tuple) {
-        StreamlineEvent event = (StreamlineEvent) tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
-        return toBytes(event.getId());
+        return rowKey(event(tuple));
     }
 
     @Override
     public ColumnList columns(Tuple tuple) {
-        StreamlineEvent event = (StreamlineEvent) tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
-
+        StreamlineEvent event = event(tuple);
         ColumnList columnList = new ColumnList();
-        for (String key : event.keySet()) {
-            //Hbase bolt can not handle null values.
-            if (event.get(key) != null) {
-                columnList.addColumn(columnFamily, key.getBytes(Charsets.UTF_8), toBytes(event.get(key)));
+        if (fields != null) {
+            for (int i = 0; i < fields.length; i++) {
+                Object value = event.get(fields[i]);
+                //Hbase bolt can not handle null values.
+                if (value != null) {
+                    columnList.addColumn(columnFamily, qualifiers[i], HBaseValueEncoding.encode(value));
+                }
+            }
+        } else {
+            for (Map.Entry<String, Object> field : event.entrySet()) {
+                if (field.getValue() != null) {
+                    columnList.addColumn(columnFamily, qualifier(field.getKey()), HBaseValueEncoding.encode(field.getValue()));
+                }
             }
         }
         return columnList;
     }
+
+    /**
+     * Returns the mutation writing the event, without going through a {@link ColumnList}.
+     */
+    public Put put(StreamlineEvent event) {
+        Put put = new Put(rowKey(event));
+        if (fields != null) {
+            for (int i = 0; i < fields.length; i++) {
+                Object value = event.get(fields[i]);
+                if (value != null) {
+                    put.addColumn(columnFamily, qualifiers[i], HBaseValueEncoding.encode(value));
+                }
+            }
+        } else {
+            for (Map.Entry<String, Object> field : event.entrySet()) {
+                if (field.getValue() != null) {
+                    put.addColumn(columnFamily, qualifier(field.getKey()), HBaseValueEncoding.encode(field.getValue()));
+                }
+            }
+        }
+        return put;
+    }
+
+    public byte[] rowKey(StreamlineEvent event) {
+        if (rowKeyStrategy == null) {
+            rowKeyStrategy = HBaseRowKeyStrategy.create(rowKeyStrategyType, rowKeyFields, saltBuckets, timestampField);
+        }
+        return rowKeyStrategy.rowKey(event);
+    }
+
+    private byte[] qualifier(String field) {
+        if (qualifierCache == null) {
+            qualifierCache = new HashMap<>();
+        }
+        byte[] qualifier = qualifierCache.get(field);
+        if (qualifier == null) {
+            qualifier = field.getBytes(Charsets.UTF_8);
+            if (qualifierCache.size() < MAX_CACHED_QUALIFIERS) {
+                qualifierCache.put(field, qualifier);
+            }
+        }
+        return qualifier;
+    }
+
+    private static StreamlineEvent event(Tuple tuple) {
+        return (StreamlineEvent) tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+    }
 }
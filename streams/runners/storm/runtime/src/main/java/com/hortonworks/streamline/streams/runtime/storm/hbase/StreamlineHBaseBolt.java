@@ -0,0 +1,234 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hbase;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.AbstractProcessorBolt;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.BaseTickTupleAwareRichBolt;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Durability;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.security.UserProvider;
+import org.apache.storm.Config;
+import org.apache.storm.hbase.security.HBaseSecurityUtil;
+import org.apache.storm.metric.api.CountMetric;
+import org.apache.storm.metric.api.MeanReducer;
+import org.apache.storm.metric.api.ReducedMetric;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.tuple.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the received events to an HBase table through a {@link BufferedMutator}.
+ * <p>
+ * The mutations are buffered by the mutator and flushed once {@link #withBatchSize(int) batch size} tuples are
+ * received, or on the next tick tuple, every {@link #withFlushIntervalSecs(int) flush interval}. The tuples are acked
+ * only once the flush succeeds; when it fails all the tuples received since the previous flush are failed. A tuple
+ * whose event can not be mapped to a row is reported and acked, so that it is not replayed forever.
+ * <p>
+ * As with storm's HBaseBolt, the HBase client configuration is read from the topology configuration under the
+ * {@link #withConfigKey(String) config key}.
+ */
+public class StreamlineHBaseBolt extends BaseTickTupleAwareRichBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamlineHBaseBolt.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_FLUSH_INTERVAL_SECS = 1;
+
+    private final String tableName;
+    private final StreamlineEventHBaseMapper mapper;
+    private String configKey;
+    private boolean writeToWAL = true;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int flushIntervalSecs = DEFAULT_FLUSH_INTERVAL_SECS;
+
+    private transient OutputCollector collector;
+    private transient Connection connection;
+    private transient BufferedMutator mutator;
+    private transient List<Tuple> pending;
+    private transient ReducedMetric flushLatencyMetric;
+    private transient CountMetric writtenMetric;
+    private transient CountMetric failedMetric;
+
+    public StreamlineHBaseBolt(String tableName, StreamlineEventHBaseMapper mapper) {
+        this.tableName = tableName;
+        this.mapper = mapper;
+    }
+
+    public StreamlineHBaseBolt withConfigKey(String configKey) {
+        this.configKey = configKey;
+        return this;
+    }
+
+    public StreamlineHBaseBolt writeToWAL(boolean writeToWAL) {
+        this.writeToWAL = writeToWAL;
+        return this;
+    }
+
+    public StreamlineHBaseBolt withBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive, got " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public StreamlineHBaseBolt withFlushIntervalSecs(int flushIntervalSecs) {
+        if (flushIntervalSecs < 1) {
+            throw new IllegalArgumentException("flushIntervalSecs must be positive, got " + flushIntervalSecs);
+        }
+        this.flushIntervalSecs = flushIntervalSecs;
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
+        this.collector = collector;
+        this.pending = new ArrayList<>(batchSize);
+        Map<String, Object> hbaseConf = (Map<String, Object>) stormConf.get(configKey);
+        if (hbaseConf == null) {
+            throw new IllegalArgumentException("HBase configuration not found using key '" + configKey + "'");
+        }
+        Configuration configuration = HBaseConfiguration.create();
+        for (Map.Entry<String, Object> entry : hbaseConf.entrySet()) {
+            configuration.set(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        Map<String, Object> securityConf = new HashMap<>(hbaseConf);
+        securityConf.put(Config.TOPOLOGY_AUTO_CREDENTIALS, stormConf.get(Config.TOPOLOGY_AUTO_CREDENTIALS));
+        try {
+            UserProvider userProvider = HBaseSecurityUtil.login(securityConf, configuration);
+            connection = ConnectionFactory.createConnection(configuration, userProvider.getCurrent());
+            mutator = connection.getBufferedMutator(new BufferedMutatorParams(TableName.valueOf(tableName)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to connect to HBase table " + tableName, e);
+        }
+        prepareMetrics(stormConf, context);
+    }
+
+    private void prepareMetrics(Map stormConf, TopologyContext context) {
+        flushLatencyMetric = new ReducedMetric(new MeanReducer());
+        writtenMetric = new CountMetric();
+        failedMetric = new CountMetric();
+        if (context != null) {
+            int timeBucketSizeInSecs = AbstractProcessorBolt.getMetricsBucketSecs(stormConf);
+            context.registerMetric("hbase.flushLatencyMs", flushLatencyMetric, timeBucketSizeInSecs);
+            context.registerMetric("hbase.written", writtenMetric, timeBucketSizeInSecs);
+            context.registerMetric("hbase.failed", failedMetric, timeBucketSizeInSecs);
+        }
+    }
+
+    @Override
+    protected void process(Tuple input) {
+        Put put;
+        try {
+            put = mapper.put((StreamlineEvent) input.getValueByField(StreamlineEvent.STREAMLINE_EVENT));
+        } catch (IllegalArgumentException e) {
+            // the event itself can not be mapped, replaying it would fail again
+            LOG.error("Failed to map tuple [{}] to an HBase row, dropping it", input, e);
+            collector.reportError(e);
+            failedMetric.incr();
+            collector.ack(input);
+            return;
+        }
+        put.setDurability(writeToWAL ? Durability.SYNC_WAL : Durability.SKIP_WAL);
+        pending.add(input);
+        try {
+            mutator.mutate(put);
+        } catch (IOException e) {
+            // a previous background flush of the mutator failed
+            failPending(e);
+            return;
+        }
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        flush();
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            mutator.flush();
+        } catch (IOException e) {
+            failPending(e);
+            return;
+        }
+        flushLatencyMetric.update((System.nanoTime() - start) / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        writtenMetric.incrBy(pending.size());
+        for (Tuple input : pending) {
+            collector.ack(input);
+        }
+        pending.clear();
+    }
+
+    private void failPending(IOException e) {
+        LOG.error("Failed to write [{}] tuples to HBase table [{}]", pending.size(), tableName, e);
+        collector.reportError(e);
+        for (Tuple input : pending) {
+            collector.fail(input);
+        }
+        failedMetric.incrBy(pending.size());
+        pending.clear();
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        return Collections.singletonMap(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS, flushIntervalSecs);
+    }
+
+    @Override
+    public void cleanup() {
+        try {
+            if (mutator != null) {
+                mutator.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to close the HBase connection", e);
+        }
+    }
+
+    @Override
+    public void declareOutputFields(OutputFieldsDeclarer declarer) {
+    }
+}
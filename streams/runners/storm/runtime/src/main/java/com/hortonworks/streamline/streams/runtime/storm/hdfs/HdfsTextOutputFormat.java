@@ -22,14 +22,29 @@ import org.apache.storm.hdfs.bolt.format.RecordFormat;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
+/**
+ * Formats the given fields of an event as a delimited UTF-8 text record. Each executor formats the records into a
+ * reused buffer: strings are encoded in place and integral numbers are written digit by digit, without building an
+ * intermediate String per record.
+ */
 public class HdfsTextOutputFormat implements RecordFormat {
     public static final String DEFAULT_FIELD_DELIMITER = ",";
     public static final String DEFAULT_RECORD_DELIMITER = "\n";
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
     private String fieldDelimiter = DEFAULT_FIELD_DELIMITER;
     private String recordDelimiter = DEFAULT_RECORD_DELIMITER;
     private Fields fields = null;
 
+    private transient String[] fieldNames;
+    private transient byte[] fieldDelimiterBytes;
+    private transient byte[] recordDelimiterBytes;
+    private transient byte[] buffer;
+    private transient int length;
+
     /**
      * Only output the specified fields.
      *
@@ -44,6 +59,7 @@ public class HdfsTextOutputFormat implements RecordFormat {
         }
 
         fields = new Fields(trimmedFields);
+        fieldNames = null;
         return this;
     }
 
@@ -55,6 +71,7 @@ public class HdfsTextOutputFormat implements RecordFormat {
      */
     public HdfsTextOutputFormat withFieldDelimiter(String delimiter){
         this.fieldDelimiter = delimiter;
+        fieldNames = null;
         return this;
     }
 
@@ -66,6 +83,7 @@ public class HdfsTextOutputFormat implements RecordFormat {
      */
     public HdfsTextOutputFormat withRecordDelimiter(String delimiter){
         this.recordDelimiter = delimiter;
+        fieldNames = null;
         return this;
     }
 
@@ -74,20 +92,88 @@ public class HdfsTextOutputFormat implements RecordFormat {
         if (fields==null || fields.size()==0) {
             throw new IllegalArgumentException("Output field names not specified. Set them using withFields().");
         }
+        if (fieldNames == null) {
+            fieldNames = fields.toList().toArray(new String[fields.size()]);
+            fieldDelimiterBytes = fieldDelimiter.getBytes(StandardCharsets.UTF_8);
+            recordDelimiterBytes = recordDelimiter.getBytes(StandardCharsets.UTF_8);
+            buffer = new byte[INITIAL_BUFFER_SIZE];
+        }
 
         StreamlineEvent event = ((StreamlineEvent) tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT));
-        StringBuilder sb = new StringBuilder();
-
-        for(int i = 0; i < fields.size(); i++) {
-            Object value = event.get(fields.get(i));
-            if (value!=null) {
-                sb.append( value );
+        length = 0;
+        for (int i = 0; i < fieldNames.length; i++) {
+            Object value = event.get(fieldNames[i]);
+            if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                appendLong(((Number) value).longValue());
+            } else if (value != null) {
+                appendString(value.toString());
             }
-            if ( i != fields.size()-1 ) {
-                sb.append(this.fieldDelimiter);
+            if (i != fieldNames.length - 1) {
+                append(fieldDelimiterBytes);
             }
         }
-        sb.append(this.recordDelimiter);
-        return sb.toString().getBytes();
+        append(recordDelimiterBytes);
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void appendLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            appendString(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // the digits were written least significant first
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    private void appendString(String value) {
+        // a char never takes more than three bytes in UTF-8, surrogate pairs take four bytes for two chars
+        ensureCapacity(value.length() * 3);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[length++] = '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
     }
 }
@@ -0,0 +1,322 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hdfs;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.AbstractProcessorBolt;
+import com.hortonworks.streamline.streams.runtime.storm.bolt.BaseTickTupleAwareRichBolt;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.storm.Config;
+import org.apache.storm.hdfs.bolt.format.FileNameFormat;
+import org.apache.storm.hdfs.common.security.HdfsSecurityUtil;
+import org.apache.storm.metric.api.CountMetric;
+import org.apache.storm.metric.api.MeanReducer;
+import org.apache.storm.metric.api.ReducedMetric;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.tuple.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the received events to Parquet files, one column per configured field.
+ * <p>
+ * The rows are buffered in memory by the Parquet writer and written out a row group at a time, once the buffered row
+ * group reaches {@link #withRowGroupSizeBytes(int) row group size}. The file is rolled over when it reaches
+ * {@link #withRotationSizeBytes(long) rotation size} or once it has been open for {@link #withRotationIntervalSecs(int)
+ * rotation interval}. A file is written under a hidden name, starting with a dot, and renamed once closed, so that
+ * readers only see complete files.
+ * <p>
+ * Parquet files can not be read before they are closed, so the tuples are acked when the file they were written to is
+ * closed. The rotation interval is therefore capped to half of the topology message timeout, so that the tuples are
+ * acked before they time out and get replayed.
+ */
+public class ParquetHdfsBolt extends BaseTickTupleAwareRichBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(ParquetHdfsBolt.class);
+
+    private static final int DEFAULT_ROW_GROUP_SIZE_BYTES = 16 * 1024 * 1024;
+    private static final long DEFAULT_ROTATION_SIZE_BYTES = 128 * 1024 * 1024L;
+    private static final int DEFAULT_ROTATION_INTERVAL_SECS = 15;
+    private static final int DEFAULT_MESSAGE_TIMEOUT_SECS = 30;
+
+    private String fsUrl;
+    private String configKey;
+    private FileNameFormat fileNameFormat;
+    private List<String> fields;
+    private List<String> fieldTypes;
+    private String compressionCodec = CompressionCodecName.SNAPPY.name();
+    private int rowGroupSizeBytes = DEFAULT_ROW_GROUP_SIZE_BYTES;
+    private long rotationSizeBytes = DEFAULT_ROTATION_SIZE_BYTES;
+    private int rotationIntervalSecs = DEFAULT_ROTATION_INTERVAL_SECS;
+
+    private transient OutputCollector collector;
+    private transient Configuration hadoopConf;
+    private transient FileSystem fs;
+    private transient ParquetRecordMapper recordMapper;
+    private transient ParquetWriter<GenericRecord> writer;
+    private transient Path hiddenPath;
+    private transient Path path;
+    private transient long openedAtMs;
+    private transient int effectiveRotationIntervalSecs;
+    private transient long rotation;
+    private transient List<Tuple> pending;
+    private transient ReducedMetric closeLatencyMetric;
+    private transient CountMetric writtenMetric;
+    private transient CountMetric failedMetric;
+
+    public ParquetHdfsBolt withFsUrl(String fsUrl) {
+        this.fsUrl = fsUrl;
+        return this;
+    }
+
+    public ParquetHdfsBolt withConfigKey(String configKey) {
+        this.configKey = configKey;
+        return this;
+    }
+
+    public ParquetHdfsBolt withFileNameFormat(FileNameFormat fileNameFormat) {
+        this.fileNameFormat = fileNameFormat;
+        return this;
+    }
+
+    public ParquetHdfsBolt withFields(List<String> fields) {
+        this.fields = new ArrayList<>(fields);
+        return this;
+    }
+
+    /**
+     * The streamline schema types of the {@link #withFields(List) fields}, in the same order.
+     */
+    public ParquetHdfsBolt withFieldTypes(List<String> fieldTypes) {
+        this.fieldTypes = new ArrayList<>(fieldTypes);
+        return this;
+    }
+
+    public ParquetHdfsBolt withCompressionCodec(String compressionCodec) {
+        this.compressionCodec = CompressionCodecName.valueOf(compressionCodec.toUpperCase()).name();
+        return this;
+    }
+
+    public ParquetHdfsBolt withRowGroupSizeBytes(int rowGroupSizeBytes) {
+        this.rowGroupSizeBytes = rowGroupSizeBytes;
+        return this;
+    }
+
+    public ParquetHdfsBolt withRotationSizeBytes(long rotationSizeBytes) {
+        this.rotationSizeBytes = rotationSizeBytes;
+        return this;
+    }
+
+    /**
+     * The time after which a file is rolled over. Since the tuples are acked only when their file is closed, an
+     * interval above half of the topology message timeout ({@link Config#TOPOLOGY_MESSAGE_TIMEOUT_SECS}) is capped to
+     * that value when the bolt is prepared, and a warning is logged.
+     */
+    public ParquetHdfsBolt withRotationIntervalSecs(int rotationIntervalSecs) {
+        if (rotationIntervalSecs < 1) {
+            throw new IllegalArgumentException("rotationIntervalSecs must be positive, got " + rotationIntervalSecs);
+        }
+        this.rotationIntervalSecs = rotationIntervalSecs;
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
+        if (fsUrl == null || fileNameFormat == null || fields == null || fieldTypes == null) {
+            throw new IllegalStateException("File system url, file name format, fields and field types must be set");
+        }
+        this.collector = collector;
+        this.pending = new ArrayList<>();
+        this.recordMapper = new ParquetRecordMapper(fields, fieldTypes);
+        this.hadoopConf = new Configuration();
+        if (configKey != null) {
+            Map<String, Object> map = (Map<String, Object>) stormConf.get(configKey);
+            if (map != null) {
+                for (Map.Entry<String, Object> entry : map.entrySet()) {
+                    hadoopConf.set(entry.getKey(), String.valueOf(entry.getValue()));
+                }
+            }
+        }
+        fileNameFormat.prepare(stormConf, context);
+        try {
+            HdfsSecurityUtil.login(stormConf, hadoopConf);
+            fs = FileSystem.get(URI.create(fsUrl), hadoopConf);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to connect to " + fsUrl, e);
+        }
+        effectiveRotationIntervalSecs = getEffectiveRotationIntervalSecs(stormConf);
+        LOG.info("Writing fields {} as Parquet schema {}", fields, recordMapper.getSchema());
+        prepareMetrics(stormConf, context);
+    }
+
+    private int getEffectiveRotationIntervalSecs(Map stormConf) {
+        Object timeout = stormConf.get(Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS);
+        int messageTimeoutSecs = timeout instanceof Number ? ((Number) timeout).intValue() : DEFAULT_MESSAGE_TIMEOUT_SECS;
+        int maxRotationIntervalSecs = Math.max(1, messageTimeoutSecs / 2);
+        if (rotationIntervalSecs > maxRotationIntervalSecs) {
+            LOG.warn("Rotation interval of {} secs is above half of the topology message timeout of {} secs ({}), files are "
+                            + "rolled over every {} secs instead so that the tuples are acked before they time out",
+                    rotationIntervalSecs, messageTimeoutSecs, Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS, maxRotationIntervalSecs);
+            return maxRotationIntervalSecs;
+        }
+        return rotationIntervalSecs;
+    }
+
+    private void prepareMetrics(Map stormConf, TopologyContext context) {
+        closeLatencyMetric = new ReducedMetric(new MeanReducer());
+        writtenMetric = new CountMetric();
+        failedMetric = new CountMetric();
+        if (context != null) {
+            int timeBucketSizeInSecs = AbstractProcessorBolt.getMetricsBucketSecs(stormConf);
+            context.registerMetric("parquet.closeLatencyMs", closeLatencyMetric, timeBucketSizeInSecs);
+            context.registerMetric("parquet.written", writtenMetric, timeBucketSizeInSecs);
+            context.registerMetric("parquet.failed", failedMetric, timeBucketSizeInSecs);
+        }
+    }
+
+    @Override
+    protected void process(Tuple input) {
+        GenericRecord record;
+        try {
+            record = recordMapper.toRecord((StreamlineEvent) input.getValueByField(StreamlineEvent.STREAMLINE_EVENT));
+        } catch (RuntimeException e) {
+            // the event itself does not fit the schema, replaying it would not help so it is dropped
+            LOG.error("Failed to map tuple [{}] to a Parquet record, dropping it", input, e);
+            collector.reportError(e);
+            failedMetric.incr();
+            collector.ack(input);
+            return;
+        }
+        // added first, so that the tuple is failed along with the others if the file can not be opened
+        pending.add(input);
+        try {
+            if (writer == null) {
+                open();
+            }
+            writer.write(record);
+            if (writer.getDataSize() >= rotationSizeBytes) {
+                close();
+            }
+        } catch (IOException e) {
+            abort(e);
+        }
+    }
+
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        if (writer != null && System.currentTimeMillis() - openedAtMs >= TimeUnit.SECONDS.toMillis(effectiveRotationIntervalSecs)) {
+            try {
+                close();
+            } catch (IOException e) {
+                abort(e);
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        openedAtMs = System.currentTimeMillis();
+        String name = fileNameFormat.getName(rotation++, openedAtMs);
+        // qualified with the file system url, the writer would otherwise resolve the default file system
+        path = fs.makeQualified(new Path(fileNameFormat.getPath(), name));
+        hiddenPath = fs.makeQualified(new Path(fileNameFormat.getPath(), "." + name));
+        writer = AvroParquetWriter.<GenericRecord>builder(hiddenPath)
+                .withSchema(recordMapper.getSchema())
+                .withConf(hadoopConf)
+                .withCompressionCodec(CompressionCodecName.valueOf(compressionCodec))
+                .withRowGroupSize(rowGroupSizeBytes)
+                .build();
+        LOG.debug("Opened Parquet file {}", hiddenPath);
+    }
+
+    private void close() throws IOException {
+        long start = System.nanoTime();
+        writer.close();
+        writer = null;
+        if (!fs.rename(hiddenPath, path)) {
+            throw new IOException("Failed to rename " + hiddenPath + " to " + path);
+        }
+        closeLatencyMetric.update((System.nanoTime() - start) / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        writtenMetric.incrBy(pending.size());
+        LOG.debug("Closed Parquet file {} with {} records", path, pending.size());
+        for (Tuple input : pending) {
+            collector.ack(input);
+        }
+        pending.clear();
+    }
+
+    private void abort(IOException e) {
+        LOG.error("Failed to write [{}] tuples to Parquet file [{}]", pending.size(), hiddenPath, e);
+        collector.reportError(e);
+        for (Tuple input : pending) {
+            collector.fail(input);
+        }
+        failedMetric.incrBy(pending.size());
+        pending.clear();
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException closeException) {
+                LOG.warn("Failed to close Parquet file {}", hiddenPath, closeException);
+            }
+            writer = null;
+        }
+        if (hiddenPath != null) {
+            try {
+                fs.delete(hiddenPath, false);
+            } catch (IOException deleteException) {
+                LOG.warn("Failed to delete Parquet file {}", hiddenPath, deleteException);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        return Collections.singletonMap(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS, 1);
+    }
+
+    @Override
+    public void cleanup() {
+        // the pending tuples are not acked, they are replayed and written again by the next run
+        if (writer != null) {
+            try {
+                writer.close();
+                fs.delete(hiddenPath, false);
+            } catch (IOException e) {
+                LOG.warn("Failed to close Parquet file {}", hiddenPath, e);
+            }
+        }
+    }
+
+    @Override
+    public void declareOutputFields(OutputFieldsDeclarer declarer) {
+    }
+}
@@ -0,0 +1,121 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hdfs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps events to Avro records of a schema derived from the streamline schema of the written fields, as written to
+ * Parquet by {@link ParquetHdfsBolt}. Every column is nullable. Bytes, shorts and integers are written as ints, binary
+ * fields as bytes, and nested and array fields as their JSON form.
+ */
+class ParquetRecordMapper {
+    private static final String RECORD_NAME = "StreamlineEvent";
+
+    private final Schema schema;
+    private final String[] fields;
+    private final Schema.Type[] columnTypes;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    ParquetRecordMapper(List<String> fields, List<String> fieldTypes) {
+        if (fields.size() != fieldTypes.size()) {
+            throw new IllegalArgumentException("Expected a type for each of the fields " + fields + ", got " + fieldTypes);
+        }
+        this.fields = fields.toArray(new String[fields.size()]);
+        this.columnTypes = new Schema.Type[fields.size()];
+        SchemaBuilder.FieldAssembler<Schema> columns = SchemaBuilder.record(RECORD_NAME)
+                .namespace(getClass().getPackage().getName()).fields();
+        for (int i = 0; i < fields.size(); i++) {
+            columnTypes[i] = columnType(fieldTypes.get(i));
+            Schema nullable = Schema.createUnion(Arrays.asList(Schema.create(Schema.Type.NULL), Schema.create(columnTypes[i])));
+            columns = columns.name(fields.get(i)).type(nullable).noDefault();
+        }
+        this.schema = columns.endRecord();
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    GenericRecord toRecord(StreamlineEvent event) {
+        GenericData.Record record = new GenericData.Record(schema);
+        for (int i = 0; i < fields.length; i++) {
+            Object value = event.get(fields[i]);
+            if (value != null) {
+                record.put(i, convert(value, columnTypes[i]));
+            }
+        }
+        return record;
+    }
+
+    private Object convert(Object value, Schema.Type columnType) {
+        switch (columnType) {
+            case INT:
+                return ((Number) value).intValue();
+            case LONG:
+                return ((Number) value).longValue();
+            case FLOAT:
+                return ((Number) value).floatValue();
+            case DOUBLE:
+                return ((Number) value).doubleValue();
+            case BYTES:
+                return ByteBuffer.wrap((byte[]) value);
+            case STRING:
+                if (value instanceof String) {
+                    return value;
+                }
+                try {
+                    return objectMapper.writeValueAsString(value);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Failed to write value as JSON: " + value, e);
+                }
+            default:
+                return value;
+        }
+    }
+
+    private static Schema.Type columnType(String fieldType) {
+        switch (fieldType) {
+            case "BOOLEAN":
+                return Schema.Type.BOOLEAN;
+            case "BYTE":
+            case "SHORT":
+            case "INTEGER":
+                return Schema.Type.INT;
+            case "LONG":
+                return Schema.Type.LONG;
+            case "FLOAT":
+                return Schema.Type.FLOAT;
+            case "DOUBLE":
+                return Schema.Type.DOUBLE;
+            case "BINARY":
+            case "BLOB":
+                return Schema.Type.BYTES;
+            default:
+                return Schema.Type.STRING;
+        }
+    }
+}
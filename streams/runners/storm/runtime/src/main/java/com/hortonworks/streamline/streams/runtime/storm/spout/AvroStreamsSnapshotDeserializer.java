@@ -44,7 +44,11 @@ public class AvroStreamsSnapshotDeserializer extends AvroSnapshotDeserializer {
                                    Integer writerSchemaVersion,
                                    Integer readerSchemaVersion) throws SerDesException {
         Object deserializedObj = super.doDeserialize(payloadInputStream, protocolId, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+        return toFieldsAndValues(deserializedObj);
+    }
 
+    //package level access for benchmarks
+    Map<String, Object> toFieldsAndValues(Object deserializedObj) {
         ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
         Object values = convertValue(deserializedObj);
         if (values instanceof Map) {
@@ -20,24 +20,49 @@ import com.hortonworks.streamline.common.util.Utils;
 import com.hortonworks.streamline.streams.StreamlineEvent;
 import com.hortonworks.streamline.streams.layout.component.impl.testing.TestRunSink;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.storm.Config;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.topology.base.BaseRichBolt;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.utils.TupleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
 import java.util.Map;
 
+/**
+ * Writes every received event to the output file of the test run sink, one JSON document per line.
+ * <p>
+ * The file is kept open for the lifetime of the bolt and written through a buffer which is flushed
+ * every {@link #FLUSH_EVENT_COUNT} events, before it would exceed {@link #WRITE_BUFFER_SIZE} bytes,
+ * on every tick tuple and on cleanup.
+ * <p>
+ * The tasks of a sink with a parallelism greater than one all append to the same file, so the buffer
+ * only ever holds complete lines and each flush appends it with a single write. Concurrent flushes may
+ * interleave lines of different tasks but never split a line.
+ */
 public class TestRunSinkBolt extends BaseRichBolt {
     private static final Logger LOG = LoggerFactory.getLogger(TestRunSinkBolt.class);
 
+    private static final int FLUSH_EVENT_COUNT = 1000;
+    private static final int FLUSH_INTERVAL_SECS = 1;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
     private transient OutputCollector collector;
     private transient ObjectMapper objectMapper;
+    private transient FileChannel channel;
+    private transient ByteArrayOutputStream buffer;
+    private transient int unflushedEvents;
 
     private final TestRunSink testRunSink;
 
@@ -63,8 +88,10 @@ public class TestRunSinkBolt extends BaseRichBolt {
 
         String outputFilePath = testRunSink.getOutputFilePath();
         LOG.info("output file path: " + outputFilePath);
-        try (FileWriter fw = new FileWriter(outputFilePath, true)) {
-            // no op
+        try {
+            channel = FileChannel.open(Paths.get(outputFilePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            buffer = new ByteArrayOutputStream(WRITE_BUFFER_SIZE);
         } catch (IOException e) {
             LOG.error("Can't open file for preparing to write: " + outputFilePath);
             throw new RuntimeException(e);
@@ -74,24 +101,57 @@ public class TestRunSinkBolt extends BaseRichBolt {
     @Override
     public void execute(Tuple input) {
         String outputFilePath = testRunSink.getOutputFilePath();
-        try (FileWriter fw = new FileWriter(outputFilePath, true)) {
-            LOG.info("writing event to file " + outputFilePath);
-            Object value = input.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
-            StreamlineEvent event = (StreamlineEvent) value;
-            fw.write(objectMapper.writeValueAsString(event) + "\n");
-            fw.flush();
+        try {
+            if (TupleUtils.isTick(input)) {
+                flush();
+            } else {
+                StreamlineEvent event = (StreamlineEvent) input.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+                byte[] line = (objectMapper.writeValueAsString(event) + '\n').getBytes(StandardCharsets.UTF_8);
+                if (buffer.size() + line.length > WRITE_BUFFER_SIZE) {
+                    flush();
+                }
+                buffer.write(line);
+                if (++unflushedEvents >= FLUSH_EVENT_COUNT) {
+                    flush();
+                }
+            }
             collector.ack(input);
-        } catch (FileNotFoundException e) {
-            LOG.error("Can't open file for write: " + outputFilePath);
-            throw new RuntimeException(e);
         } catch (IOException e) {
             LOG.error("Fail to write event to output file " + outputFilePath + " : exception occurred.", e);
             throw new RuntimeException(e);
         }
     }
 
+    @Override
+    public void cleanup() {
+        if (channel != null) {
+            try {
+                flush();
+                channel.close();
+            } catch (IOException e) {
+                LOG.error("Fail to close output file " + testRunSink.getOutputFilePath(), e);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        return Collections.singletonMap(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS, FLUSH_INTERVAL_SECS);
+    }
+
     @Override
     public void declareOutputFields(OutputFieldsDeclarer declarer) {
         // nothing to emit
     }
+
+    private void flush() throws IOException {
+        if (unflushedEvents > 0) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            buffer.reset();
+            unflushedEvents = 0;
+        }
+    }
 }
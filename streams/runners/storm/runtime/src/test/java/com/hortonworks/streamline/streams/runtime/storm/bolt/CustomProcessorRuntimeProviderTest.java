@@ -0,0 +1,136 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt;
+
+import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.exception.ConfigException;
+import com.hortonworks.streamline.streams.exception.ProcessingException;
+import com.hortonworks.streamline.streams.runtime.CustomProcessorRuntime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CustomProcessorRuntimeProviderTest {
+    private static final AtomicInteger initialized = new AtomicInteger();
+    private static final AtomicInteger cleanedUp = new AtomicInteger();
+
+    private final String impl = CountingProcessor.class.getName();
+    private final Map<String, Object> config = new HashMap<>();
+
+    @Before
+    public void setup() {
+        initialized.set(0);
+        cleanedUp.set(0);
+        config.put("key", "value");
+    }
+
+    @Test
+    public void testPerExecutor() throws Exception {
+        CustomProcessorRuntimeProvider first = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.PER_EXECUTOR, 1, config);
+        CustomProcessorRuntimeProvider second = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.PER_EXECUTOR, 1, config);
+        Assert.assertEquals(2, initialized.get());
+        first.process(null);
+        Assert.assertEquals(1, first.getAndResetProcessedCount());
+        Assert.assertEquals(0, second.getAndResetProcessedCount());
+        first.release();
+        first.release();
+        Assert.assertEquals(1, cleanedUp.get());
+        second.release();
+        Assert.assertEquals(2, cleanedUp.get());
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        CustomProcessorRuntimeProvider first = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.SHARED, 1, config);
+        CustomProcessorRuntimeProvider second = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.SHARED, 1, config);
+        Assert.assertEquals(1, initialized.get());
+        first.release();
+        Assert.assertEquals(0, cleanedUp.get());
+        second.release();
+        Assert.assertEquals(1, cleanedUp.get());
+        // a new instance is initialized once the previous one is cleaned up
+        CustomProcessorRuntimeProvider third = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.SHARED, 1, config);
+        Assert.assertEquals(2, initialized.get());
+        third.release();
+    }
+
+    @Test
+    public void testSharedWithDifferentConfig() throws Exception {
+        Map<String, Object> otherConfig = new HashMap<>();
+        CustomProcessorRuntimeProvider first = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.SHARED, 1, config);
+        CustomProcessorRuntimeProvider second = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.SHARED, 1, otherConfig);
+        Assert.assertEquals(2, initialized.get());
+        first.release();
+        second.release();
+        Assert.assertEquals(2, cleanedUp.get());
+    }
+
+    @Test
+    public void testPooled() throws Exception {
+        CustomProcessorRuntimeProvider first = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.POOLED, 3, config);
+        CustomProcessorRuntimeProvider second = CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.POOLED, 3, config);
+        Assert.assertEquals(3, initialized.get());
+        Assert.assertEquals(3, first.getInstanceCount());
+        for (int i = 0; i < 10; ++i) {
+            first.process(null);
+            second.process(null);
+        }
+        Assert.assertEquals(0, first.getInUseCount());
+        Assert.assertEquals(10, first.getAndResetProcessedCount());
+        first.release();
+        Assert.assertEquals(0, cleanedUp.get());
+        second.release();
+        Assert.assertEquals(3, cleanedUp.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPooledWithInvalidSize() {
+        CustomProcessorRuntimeProvider.acquire(impl, CustomProcessorInstantiationStrategy.POOLED, 0, config);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidImpl() {
+        CustomProcessorRuntimeProvider.acquire("unknown.Processor", CustomProcessorInstantiationStrategy.PER_EXECUTOR, 1, config);
+    }
+
+    public static class CountingProcessor implements CustomProcessorRuntime {
+        @Override
+        public void validateConfig(Map<String, Object> config) throws ConfigException {
+        }
+
+        @Override
+        public List<Result> process(StreamlineEvent event) throws ProcessingException {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void initialize(Map<String, Object> config) {
+            initialized.incrementAndGet();
+        }
+
+        @Override
+        public void cleanup() {
+            cleanedUp.incrementAndGet();
+        }
+    }
+}
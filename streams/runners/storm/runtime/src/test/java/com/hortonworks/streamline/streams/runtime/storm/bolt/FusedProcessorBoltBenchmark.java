@@ -0,0 +1,243 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt;
+
+import com.google.common.collect.ImmutableList;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.layout.Transform;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.impl.RulesProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldBasedNormalizationConfig;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldValueGenerator;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationConfig;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.Transformer;
+import com.hortonworks.streamline.streams.layout.component.rule.Rule;
+import com.hortonworks.streamline.streams.layout.component.rule.action.Action;
+import com.hortonworks.streamline.streams.layout.component.rule.action.TransformAction;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Condition;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Expression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.FieldExpression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.FunctionExpression;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Literal;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Operator;
+import com.hortonworks.streamline.streams.layout.component.rule.expression.Projection;
+import org.apache.storm.Config;
+import org.apache.storm.LocalCluster;
+import org.apache.storm.spout.SpoutOutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.BasicOutputCollector;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.topology.TopologyBuilder;
+import org.apache.storm.topology.base.BaseBasicBolt;
+import org.apache.storm.topology.base.BaseRichSpout;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.Utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares a chain of three single stage bolts with one bolt running the same three stages fused, on a local cluster.
+ * The chain is the one fusion is meant for: a field based normalization converting the temperature to Celsius, a SQL
+ * rule filtering on the converted temperature and a SQL rule projecting the event with a function call.
+ * Run the main method and compare the reported acked tuples per second and mean complete latency.
+ */
+public class FusedProcessorBoltBenchmark {
+    private static final String NORMALIZATION = "normalization";
+    private static final String FILTER = "filter";
+    private static final String PROJECTION = "projection";
+    private static final String NORMALIZED_STREAM = "normalized";
+    private static final String FILTERED_STREAM = "filtered";
+    private static final String PROJECTED_STREAM = "projected";
+    private static final long RUN_MILLIS = 30_000;
+
+    private static final Schema.Field TEMPERATURE = Schema.Field.of("temperature", Schema.Type.INTEGER);
+    private static final Schema.Field TEMPERATURE_CELSIUS = Schema.Field.of("temperature", Schema.Type.FLOAT);
+    private static final Schema.Field HUMIDITY = Schema.Field.of("humidity", Schema.Type.INTEGER);
+    private static final Schema.Field DEVICE_NAME = Schema.Field.of("devicename", Schema.Type.STRING);
+
+    private static final AtomicLong ACKED = new AtomicLong();
+    private static final AtomicLong LATENCY_NANOS = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        run("chained", createChainedTopology());
+        run("fused", createFusedTopology());
+        System.exit(0);
+    }
+
+    private static void run(String name, TopologyBuilder builder) throws Exception {
+        Config config = new Config();
+        config.setMaxSpoutPending(1000);
+        config.setNumAckers(1);
+        ACKED.set(0);
+        LATENCY_NANOS.set(0);
+        LocalCluster localCluster = new LocalCluster();
+        localCluster.submitTopology(name, config, builder.createTopology());
+        Utils.sleep(RUN_MILLIS);
+        long acked = ACKED.get();
+        long latencyNanos = LATENCY_NANOS.get();
+        localCluster.killTopology(name);
+        localCluster.shutdown();
+        System.out.printf("%s: %.0f tuples/sec, mean complete latency %.3f ms%n", name,
+                acked * 1000.0 / RUN_MILLIS,
+                acked == 0 ? 0.0 : latencyNanos / (double) acked / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static TopologyBuilder createChainedTopology() {
+        TopologyBuilder builder = new TopologyBuilder();
+        builder.setSpout("spout", new TimestampSpout());
+        List<FusedProcessorBolt.Stage> stages = createStages();
+        String previous = "spout";
+        String previousStream = Utils.DEFAULT_STREAM_ID;
+        for (FusedProcessorBolt.Stage stage : stages) {
+            builder.setBolt(stage.getName(), new FusedProcessorBolt(Collections.singletonList(stage)))
+                    .shuffleGrouping(previous, previousStream);
+            previous = stage.getName();
+            previousStream = stage.getProcessor().getOutputStreams().iterator().next().getId();
+        }
+        builder.setBolt("sink", new SinkBolt()).shuffleGrouping(previous, PROJECTED_STREAM);
+        return builder;
+    }
+
+    private static TopologyBuilder createFusedTopology() {
+        TopologyBuilder builder = new TopologyBuilder();
+        builder.setSpout("spout", new TimestampSpout());
+        builder.setBolt(NORMALIZATION, new FusedProcessorBolt(createStages())).shuffleGrouping("spout");
+        builder.setBolt("sink", new SinkBolt()).shuffleGrouping(NORMALIZATION, PROJECTED_STREAM);
+        return builder;
+    }
+
+    private static List<FusedProcessorBolt.Stage> createStages() {
+        return Arrays.asList(
+                new FusedProcessorBolt.Stage(NORMALIZATION, FusedProcessorBolt.Stage.Type.NORMALIZATION,
+                        createNormalizationProcessor(), Collections.<String>emptyList()),
+                new FusedProcessorBolt.Stage(FILTER, FusedProcessorBolt.Stage.Type.RULES,
+                        createFilterProcessor(), Collections.singletonList(NORMALIZED_STREAM)),
+                new FusedProcessorBolt.Stage(PROJECTION, FusedProcessorBolt.Stage.Type.RULES,
+                        createProjectionProcessor(), Collections.singletonList(FILTERED_STREAM)));
+    }
+
+    private static NormalizationProcessor createNormalizationProcessor() {
+        Transformer transformer = new Transformer(TEMPERATURE, TEMPERATURE_CELSIUS);
+        transformer.setConverterScript("new Float((temperature-32)*5/9f)");
+        Schema inputSchema = Schema.of(TEMPERATURE, HUMIDITY, DEVICE_NAME);
+        NormalizationConfig normalizationConfig = new FieldBasedNormalizationConfig(inputSchema,
+                Collections.singletonList(transformer), Collections.<String>emptyList(),
+                Collections.<FieldValueGenerator>emptyList());
+        Map<String, NormalizationConfig> inputStreamsWithConfig = new HashMap<>();
+        inputStreamsWithConfig.put(Utils.DEFAULT_STREAM_ID, normalizationConfig);
+
+        Stream outputStream = new Stream(NORMALIZED_STREAM, Schema.of(TEMPERATURE_CELSIUS, HUMIDITY, DEVICE_NAME));
+        NormalizationProcessor processor = new NormalizationProcessor(inputStreamsWithConfig, outputStream,
+                NormalizationProcessor.Type.fineGrained);
+        processor.addOutputStream(outputStream);
+        return processor;
+    }
+
+    // temperature > 30 AND humidity > 50
+    private static RulesProcessor createFilterProcessor() {
+        Condition condition = new Condition();
+        condition.setExpression(new BinaryExpression(Operator.AND,
+                new BinaryExpression(Operator.GREATER_THAN, new FieldExpression(TEMPERATURE_CELSIUS), new Literal("30")),
+                new BinaryExpression(Operator.GREATER_THAN, new FieldExpression(HUMIDITY), new Literal("50"))));
+        Rule rule = createRule(FILTER, NORMALIZED_STREAM, FILTERED_STREAM);
+        rule.setCondition(condition);
+        return createRulesProcessor(FILTER, rule, new Stream(FILTERED_STREAM,
+                Schema.of(TEMPERATURE_CELSIUS, HUMIDITY, DEVICE_NAME)));
+    }
+
+    // SELECT temperature, humidity, UPPER(devicename)
+    private static RulesProcessor createProjectionProcessor() {
+        Projection projection = new Projection();
+        projection.setExpressions(ImmutableList.<Expression>of(new FieldExpression(TEMPERATURE_CELSIUS),
+                new FieldExpression(HUMIDITY),
+                new FunctionExpression("UPPER", ImmutableList.<Expression>of(new FieldExpression(DEVICE_NAME)))));
+        Rule rule = createRule(PROJECTION, FILTERED_STREAM, PROJECTED_STREAM);
+        rule.setProjection(projection);
+        return createRulesProcessor(PROJECTION, rule, new Stream(PROJECTED_STREAM,
+                Schema.of(TEMPERATURE_CELSIUS, HUMIDITY, Schema.Field.of("UPPER(devicename)", Schema.Type.STRING))));
+    }
+
+    private static Rule createRule(String name, String inputStream, String outputStream) {
+        Rule rule = new Rule();
+        rule.setId(1L);
+        rule.setName(name);
+        rule.setRuleProcessorName(name);
+        rule.setStreams(Collections.singleton(inputStream));
+        rule.setActions(Collections.<Action>singletonList(new TransformAction(Collections.<Transform>emptyList(),
+                Collections.singleton(outputStream))));
+        return rule;
+    }
+
+    private static RulesProcessor createRulesProcessor(String name, Rule rule, Stream outputStream) {
+        RulesProcessor processor = new RulesProcessor();
+        processor.setId(name);
+        processor.setName(name);
+        processor.setRules(Collections.singletonList(rule));
+        processor.addOutputStream(outputStream);
+        return processor;
+    }
+
+    private static class TimestampSpout extends BaseRichSpout {
+        private SpoutOutputCollector collector;
+
+        @Override
+        public void open(Map conf, TopologyContext context, SpoutOutputCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        public void nextTuple() {
+            Map<String, Object> fieldsAndValues = new HashMap<>();
+            fieldsAndValues.put(TEMPERATURE.getName(), 101);
+            fieldsAndValues.put(HUMIDITY.getName(), 51);
+            fieldsAndValues.put(DEVICE_NAME.getName(), "nestdevice");
+            collector.emit(new Values(new StreamlineEventImpl(fieldsAndValues, "dataSrcId")), System.nanoTime());
+        }
+
+        @Override
+        public void ack(Object msgId) {
+            LATENCY_NANOS.addAndGet(System.nanoTime() - (Long) msgId);
+            ACKED.incrementAndGet();
+        }
+
+        @Override
+        public void declareOutputFields(OutputFieldsDeclarer declarer) {
+            declarer.declare(new Fields(StreamlineEvent.STREAMLINE_EVENT));
+        }
+    }
+
+    private static class SinkBolt extends BaseBasicBolt {
+        @Override
+        public void execute(Tuple input, BasicOutputCollector collector) {
+        }
+
+        @Override
+        public void declareOutputFields(OutputFieldsDeclarer declarer) {
+        }
+    }
+}
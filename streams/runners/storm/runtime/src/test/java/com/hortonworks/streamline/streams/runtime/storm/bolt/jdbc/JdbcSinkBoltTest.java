@@ -0,0 +1,302 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.jdbc;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.storm.Constants;
+import org.apache.storm.jdbc.common.ConnectionProvider;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Tuple;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(JMockit.class)
+public class JdbcSinkBoltTest {
+    private static final String URL = "jdbc:h2:mem:jdbc-sink;DB_CLOSE_DELAY=-1";
+    private static final List<String> FIELDS = Arrays.asList("id", "name");
+
+    @Injectable
+    private OutputCollector collector;
+
+    @Injectable
+    private Tuple first;
+
+    @Injectable
+    private Tuple second;
+
+    @Injectable
+    private Tuple tick;
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection(URL);
+        execute("CREATE TABLE events (ID INT PRIMARY KEY, NAME VARCHAR(64))");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP TABLE events");
+        connection.close();
+    }
+
+    @Test
+    public void testWritesFullBatch() throws Exception {
+        expectEvents(1, 2);
+        JdbcSinkBolt bolt = newBolt().withBatchSize(2);
+
+        bolt.execute(first);
+        Assert.assertEquals(0, countRows());
+        bolt.execute(second);
+        Assert.assertEquals(2, countRows());
+
+        new Verifications() {{
+            collector.ack(first); times = 1;
+            collector.ack(second); times = 1;
+            collector.fail((Tuple) any); times = 0;
+        }};
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testWritesPartialBatchOnTick() throws Exception {
+        expectEvents(1, 2);
+        new Expectations() {{
+            tick.getSourceComponent(); result = Constants.SYSTEM_COMPONENT_ID;
+            tick.getSourceStreamId(); result = Constants.SYSTEM_TICK_STREAM_ID;
+        }};
+        JdbcSinkBolt bolt = newBolt().withBatchSize(10);
+
+        bolt.execute(first);
+        bolt.execute(tick);
+        Assert.assertEquals(1, countRows());
+
+        new Verifications() {{
+            collector.ack(first); times = 1;
+            collector.ack(tick); times = 0;
+        }};
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testDropsBadRowOfFailedBatch() throws Exception {
+        expectEvents(1, 1);
+        JdbcSinkBolt bolt = newBolt().withBatchSize(2);
+
+        bolt.execute(first);
+        bolt.execute(second);
+        Assert.assertEquals(1, countRows());
+
+        new Verifications() {{
+            collector.ack(first); times = 1;
+            collector.ack(second); times = 1;
+            collector.reportError((Throwable) any); times = 1;
+            collector.fail((Tuple) any); times = 0;
+        }};
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testFailsBatchWhenDatabaseIsUnavailable() throws Exception {
+        expectEvents(1, 2);
+        JdbcSinkBolt bolt = new JdbcSinkBolt(new UnavailableConnectionProvider(), "events", FIELDS).withBatchSize(2);
+        bolt.prepare(new HashMap<>(), null, collector);
+
+        bolt.execute(first);
+        bolt.execute(second);
+
+        new Verifications() {{
+            collector.fail(first); times = 1;
+            collector.fail(second); times = 1;
+            collector.ack((Tuple) any); times = 0;
+        }};
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testFailsBatchOnTransientSqlState() throws Exception {
+        expectEvents(1, 2);
+        List<String> sqlStates = Arrays.asList("08S01", "40001", "57014", "HY008");
+        for (String sqlState : sqlStates) {
+            JdbcSinkBolt bolt = new JdbcSinkBolt(new FailingStatementConnectionProvider(sqlState), "events", FIELDS)
+                    .withBatchSize(2);
+            bolt.prepare(new HashMap<>(), null, collector);
+
+            bolt.execute(first);
+            bolt.execute(second);
+            bolt.cleanup();
+        }
+        Assert.assertEquals(0, countRows());
+
+        final int batches = sqlStates.size();
+        new Verifications() {{
+            collector.fail(first); times = batches;
+            collector.fail(second); times = batches;
+            collector.ack((Tuple) any); times = 0;
+        }};
+    }
+
+    @Test
+    public void testUpsertStatements() throws Exception {
+        List<String> columns = Arrays.asList("ID", "NAME");
+        List<String> keys = Collections.singletonList("id");
+        Assert.assertEquals("INSERT INTO events (ID, NAME) VALUES (?, ?)",
+                JdbcUpsertDialect.NONE.statement("events", columns, keys));
+        Assert.assertEquals("INSERT INTO events (ID, NAME) VALUES (?, ?) ON DUPLICATE KEY UPDATE NAME = VALUES(NAME)",
+                JdbcUpsertDialect.MYSQL.statement("events", columns, keys));
+        Assert.assertEquals("INSERT INTO events (ID, NAME) VALUES (?, ?) ON CONFLICT (id) DO UPDATE SET NAME = EXCLUDED.NAME",
+                JdbcUpsertDialect.POSTGRES.statement("events", columns, keys));
+        Assert.assertEquals("UPSERT INTO events (ID, NAME) VALUES (?, ?)",
+                JdbcUpsertDialect.PHOENIX.statement("events", columns, keys));
+    }
+
+    private JdbcSinkBolt newBolt() {
+        JdbcSinkBolt bolt = new JdbcSinkBolt(new H2ConnectionProvider(), "events", FIELDS);
+        bolt.prepare(new HashMap<>(), null, collector);
+        return bolt;
+    }
+
+    private void expectEvents(final int firstId, final int secondId) {
+        new Expectations() {{
+            first.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = event(firstId); minTimes = 0;
+            second.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = event(secondId); minTimes = 0;
+        }};
+    }
+
+    private static StreamlineEvent event(int id) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("id", id);
+        fields.put("name", "event-" + id);
+        return new StreamlineEventImpl(fields, "ds-1");
+    }
+
+    private int countRows() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM events")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static class UnavailableConnectionProvider implements ConnectionProvider {
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Connection getConnection() {
+            throw new RuntimeException(new SQLTransientConnectionException("Connection refused"));
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+
+    /**
+     * Provides H2 connections whose statements fail to execute with a plain {@link SQLException} carrying the given
+     * SQLState, as most drivers report transient failures.
+     */
+    private static class FailingStatementConnectionProvider extends H2ConnectionProvider {
+        private final String sqlState;
+
+        private FailingStatementConnectionProvider(String sqlState) {
+            this.sqlState = sqlState;
+        }
+
+        @Override
+        public Connection getConnection() {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement) {
+                            return failingStatement((PreparedStatement) result);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement failingStatement(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            throw new SQLException("Failed with SQLState " + sqlState, sqlState);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class H2ConnectionProvider implements ConnectionProvider {
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Connection getConnection() {
+            try {
+                return DriverManager.getConnection(URL);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
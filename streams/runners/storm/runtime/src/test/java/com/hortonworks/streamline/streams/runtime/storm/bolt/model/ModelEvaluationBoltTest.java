@@ -0,0 +1,95 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JMockit.class)
+public class ModelEvaluationBoltTest {
+
+    @Injectable
+    private OutputCollector collector;
+
+    @Injectable
+    private Tuple tuple;
+
+    @After
+    public void tearDown() {
+        PMMLEvaluatorCache.clear();
+    }
+
+    @Test
+    public void testEmitsScoredEventToAllStreamsAndAcks() throws Exception {
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+            result = StreamlineJPMMLModelRunnerTest.event(2, "blue");
+        }};
+        ModelEvaluationBolt bolt = newBolt();
+        bolt.execute(tuple);
+
+        new Verifications() {{
+            List<String> streamIds = new ArrayList<>();
+            List<Values> values = new ArrayList<>();
+            collector.emit(withCapture(streamIds), tuple, withCapture(values)); times = 2;
+            assertEquals(2, streamIds.size());
+            for (Values value : values) {
+                assertEquals(25.0, ((StreamlineEvent) value.get(0)).get("y"));
+            }
+            collector.ack(tuple); times = 1;
+            collector.fail(tuple); times = 0;
+        }};
+    }
+
+    @Test
+    public void testFailsTupleWhichCannotBeScored() throws Exception {
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+            result = StreamlineJPMMLModelRunnerTest.event(2, "green");
+        }};
+        ModelEvaluationBolt bolt = newBolt();
+        bolt.execute(tuple);
+
+        new Verifications() {{
+            collector.emit(anyString, tuple, (Values) any); times = 0;
+            collector.reportError((Throwable) any); times = 1;
+            collector.fail(tuple); times = 1;
+            collector.ack(tuple); times = 0;
+        }};
+    }
+
+    private ModelEvaluationBolt newBolt() throws Exception {
+        StreamlineJPMMLModelRunnerFactory runnerFactory = StreamlineJPMMLModelRunnerTest.newRunnerFactory();
+        ModelEvaluationBolt bolt = new ModelEvaluationBolt(runnerFactory, null);
+        bolt.prepare(new HashMap<>(), null, collector);
+        return bolt;
+    }
+}
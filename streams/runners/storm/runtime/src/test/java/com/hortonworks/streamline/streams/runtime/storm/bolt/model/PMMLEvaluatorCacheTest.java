@@ -0,0 +1,92 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
+
+import org.jpmml.evaluator.Evaluator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PMMLEvaluatorCacheTest {
+    private final AtomicInteger opened = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        PMMLEvaluatorCache.clear();
+    }
+
+    @Test
+    public void testEvaluatorIsSharedForSameChecksum() {
+        Evaluator evaluator = PMMLEvaluatorCache.get("model", "checksum-1", this::open);
+        assertSame(evaluator, PMMLEvaluatorCache.get("model", "checksum-1", this::open));
+        assertEquals(1, opened.get());
+    }
+
+    @Test
+    public void testEvaluatorIsRebuiltForNewChecksum() {
+        Evaluator evaluator = PMMLEvaluatorCache.get("model", "checksum-1", this::open);
+        Evaluator updated = PMMLEvaluatorCache.get("model", "checksum-2", this::open);
+        assertNotSame(evaluator, updated);
+        assertSame(updated, PMMLEvaluatorCache.get("model", "checksum-2", this::open));
+        assertEquals(2, opened.get());
+    }
+
+    @Test
+    public void testModelsAreCachedSeparately() {
+        Evaluator evaluator = PMMLEvaluatorCache.get("model-1", "checksum", this::open);
+        assertNotSame(evaluator, PMMLEvaluatorCache.get("model-2", "checksum", this::open));
+        assertSame(evaluator, PMMLEvaluatorCache.get("model-1", "checksum", this::open));
+        assertEquals(2, opened.get());
+    }
+
+    @Test
+    public void testConcurrentExecutorsBuildTheEvaluatorOnce() throws Exception {
+        int executors = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(executors);
+        try {
+            List<Callable<Evaluator>> tasks = new ArrayList<>();
+            for (int i = 0; i < executors; i++) {
+                tasks.add(() -> PMMLEvaluatorCache.get("model", "checksum", this::open));
+            }
+            List<Future<Evaluator>> evaluators = executorService.invokeAll(tasks);
+            for (Future<Evaluator> evaluator : evaluators) {
+                assertSame(evaluators.get(0).get(), evaluator.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(1, opened.get());
+    }
+
+    private InputStream open() {
+        opened.incrementAndGet();
+        return new ByteArrayInputStream(StreamlineJPMMLModelRunnerTest.PMML.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.bolt.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.common.MLModelArtifact;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.layout.component.Stream;
+import com.hortonworks.streamline.streams.layout.component.impl.model.ModelProcessor;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.storm.tuple.Tuple;
+import org.dmg.pmml.FieldName;
+import org.jpmml.evaluator.Evaluator;
+import org.jpmml.evaluator.EvaluatorUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JMockit.class)
+public class StreamlineJPMMLModelRunnerTest {
+    // y = 1 + 2 * x + 10 if color is red, + 20 if color is blue
+    static final String PMML = "<PMML xmlns=\"http://www.dmg.org/PMML-4_2\" version=\"4.2\">" +
+            "<Header/>" +
+            "<DataDictionary>" +
+            "<DataField name=\"x\" optype=\"continuous\" dataType=\"double\"/>" +
+            "<DataField name=\"color\" optype=\"categorical\" dataType=\"string\">" +
+            "<Value value=\"red\"/><Value value=\"blue\"/>" +
+            "</DataField>" +
+            "<DataField name=\"y\" optype=\"continuous\" dataType=\"double\"/>" +
+            "</DataDictionary>" +
+            "<RegressionModel functionName=\"regression\">" +
+            "<MiningSchema>" +
+            "<MiningField name=\"x\"/>" +
+            "<MiningField name=\"color\"/>" +
+            "<MiningField name=\"y\" usageType=\"target\"/>" +
+            "</MiningSchema>" +
+            "<RegressionTable intercept=\"1.0\">" +
+            "<NumericPredictor name=\"x\" coefficient=\"2.0\"/>" +
+            "<CategoricalPredictor name=\"color\" value=\"red\" coefficient=\"10.0\"/>" +
+            "<CategoricalPredictor name=\"color\" value=\"blue\" coefficient=\"20.0\"/>" +
+            "</RegressionTable>" +
+            "</RegressionModel>" +
+            "</PMML>";
+
+    @Injectable
+    private Tuple tuple;
+
+    private StreamlineJPMMLModelRunner runner;
+
+    @Before
+    public void setUp() throws Exception {
+        runner = newRunnerFactory().newModelRunner();
+    }
+
+    @After
+    public void tearDown() {
+        PMMLEvaluatorCache.clear();
+    }
+
+    static StreamlineJPMMLModelRunnerFactory newRunnerFactory() throws Exception {
+        ModelProcessor modelProcessor = new ModelProcessor();
+        modelProcessor.setId("model");
+        modelProcessor.addOutputStream(new Stream("scored1", Collections.singletonList(new Schema.Field("y", Schema.Type.DOUBLE))));
+        modelProcessor.addOutputStream(new Stream("scored2", Collections.singletonList(new Schema.Field("y", Schema.Type.DOUBLE))));
+        modelProcessor.setModelArtifact(MLModelArtifact.fromPmml("model", PMML));
+        return new StreamlineJPMMLModelRunnerFactory(new ObjectMapper().writeValueAsString(modelProcessor),
+                new StreamlineEventModelOutputs(modelProcessor));
+    }
+
+    static StreamlineEvent event(double x, String color) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("x", x);
+        values.put("color", color);
+        return new StreamlineEventImpl(values, "ds-1");
+    }
+
+    @Test
+    public void testScore() {
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+            returns(event(1, "red"), event(1, "blue"), event(2, "blue"), event(2, "red"));
+        }};
+        assertEquals(13.0, runner.score(tuple).get("y"));
+        assertEquals(23.0, runner.score(tuple).get("y"));
+        assertEquals(25.0, runner.score(tuple).get("y"));
+        assertEquals(15.0, runner.score(tuple).get("y"));
+        assertEquals("model", runner.score(tuple).getDataSourceId());
+    }
+
+    @Test
+    public void testPreparedArgumentsAreReusedWhileRawValuesRepeat() {
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+            returns(event(1, "red"), event(1, "red"), event(1, "red"), event(3, "red"));
+        }};
+        new Expectations(EvaluatorUtil.class) {};
+
+        assertEquals(13.0, runner.score(tuple).get("y"));
+        assertEquals(13.0, runner.score(tuple).get("y"));
+        assertEquals(13.0, runner.score(tuple).get("y"));
+        assertEquals(17.0, runner.score(tuple).get("y"));
+
+        new Verifications() {{
+            // x and color for the first event, then only x once it changes
+            EvaluatorUtil.prepare((Evaluator) any, (FieldName) any, any); times = 3;
+        }};
+    }
+
+    @Test
+    public void testScoredEventGoesToAllOutputStreams() {
+        String[] streamIds = runner.getStreamIds().clone();
+        Arrays.sort(streamIds);
+        assertArrayEquals(new String[] {"scored1", "scored2"}, streamIds);
+    }
+}
@@ -0,0 +1,170 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.grouping;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class KeyGroupingTest {
+    private static final Logger LOG = LoggerFactory.getLogger(KeyGroupingTest.class);
+    private static final List<String> GROUPING_FIELDS = Collections.singletonList("deviceId");
+
+    @Test
+    public void testFieldsGroupingIsStableAndNonNegative() {
+        List<Integer> targetTasks = targetTasks(7);
+        FieldsGroupingAsCustomGrouping grouping = new FieldsGroupingAsCustomGrouping(GROUPING_FIELDS);
+        grouping.prepare(null, null, targetTasks);
+        for (int i = -5000; i < 5000; ++i) {
+            List<Object> values = values(i);
+            List<Integer> tasks = grouping.chooseTasks(0, values);
+            Assert.assertEquals(1, tasks.size());
+            Assert.assertTrue(targetTasks.contains(tasks.get(0)));
+            Assert.assertEquals(tasks, grouping.chooseTasks(0, values));
+        }
+    }
+
+    @Test
+    public void testNestedGroupingField() {
+        FieldsGroupingAsCustomGrouping grouping = new FieldsGroupingAsCustomGrouping(Collections.singletonList("device.id"));
+        grouping.prepare(null, null, targetTasks(4));
+        Map<String, Object> device = new HashMap<>();
+        device.put("id", 42);
+        Map<String, Object> fieldsAndValues = new HashMap<>();
+        fieldsAndValues.put("device", device);
+        List<Object> values = Collections.<Object>singletonList(new StreamlineEventImpl(fieldsAndValues, "dsrcid"));
+        Assert.assertEquals(grouping.chooseTasks(0, values), grouping.chooseTasks(0, values));
+    }
+
+    @Test
+    public void testPartialKeyGroupingUsesAtMostTwoTasksPerKey() {
+        PartialKeyGrouping grouping = new PartialKeyGrouping(GROUPING_FIELDS);
+        grouping.prepare(null, null, targetTasks(8));
+        for (int key = 0; key < 100; ++key) {
+            Set<Integer> tasks = new HashSet<>();
+            for (int i = 0; i < 50; ++i) {
+                tasks.addAll(grouping.chooseTasks(0, values(key)));
+            }
+            Assert.assertTrue(tasks.size() <= 2);
+        }
+    }
+
+    @Test
+    public void testConsistentHashGroupingMovesFewKeysOnRescale() {
+        ConsistentHashGrouping eight = new ConsistentHashGrouping(GROUPING_FIELDS);
+        eight.prepare(null, null, targetTasks(8));
+        ConsistentHashGrouping nine = new ConsistentHashGrouping(GROUPING_FIELDS);
+        nine.prepare(null, null, targetTasks(9));
+        int keys = 10000;
+        int moved = 0;
+        for (int key = 0; key < keys; ++key) {
+            List<Object> values = values(key);
+            Assert.assertEquals(eight.chooseTasks(0, values), eight.chooseTasks(0, values));
+            if (!eight.chooseTasks(0, values).equals(nine.chooseTasks(0, values))) {
+                moved++;
+            }
+        }
+        // ideally 1/9 of the keys move to the new task, a modulo hash would move most of them
+        Assert.assertTrue("moved " + moved, moved < keys / 4);
+    }
+
+    /**
+     * Skew benchmark: routes a Zipf distributed key stream and compares the load of the busiest task to the average.
+     */
+    @Test
+    public void testSkewedKeys() {
+        int numTasks = 8;
+        int[] keys = zipfKeys(10000, 1.2, 200000, new Random(7));
+        double fieldsImbalance = imbalance(new FieldsGroupingAsCustomGrouping(GROUPING_FIELDS), numTasks, keys);
+        double consistentHashImbalance = imbalance(new ConsistentHashGrouping(GROUPING_FIELDS), numTasks, keys);
+        double partialKeyImbalance = imbalance(new PartialKeyGrouping(GROUPING_FIELDS), numTasks, keys);
+        LOG.info("Max task load / average task load for zipf keys: fields {}, consistent hash {}, partial key {}",
+                fieldsImbalance, consistentHashImbalance, partialKeyImbalance);
+        Assert.assertTrue(partialKeyImbalance < fieldsImbalance);
+        Assert.assertTrue(partialKeyImbalance < 1.5);
+    }
+
+    private double imbalance(AbstractKeyGrouping grouping, int numTasks, int[] keys) {
+        List<Integer> targetTasks = targetTasks(numTasks);
+        grouping.prepare(null, null, targetTasks);
+        List<List<Object>> values = new ArrayList<>();
+        Map<Integer, List<Object>> valuesByKey = new HashMap<>();
+        for (int key : keys) {
+            List<Object> v = valuesByKey.get(key);
+            if (v == null) {
+                v = values(key);
+                valuesByKey.put(key, v);
+            }
+            values.add(v);
+        }
+        long[] load = new long[numTasks];
+        long start = System.nanoTime();
+        for (List<Object> v : values) {
+            load[targetTasks.indexOf(grouping.chooseTasks(0, v).get(0))]++;
+        }
+        LOG.info("{} routed {} events in {} ms", grouping.getClass().getSimpleName(), keys.length,
+                (System.nanoTime() - start) / 1000000);
+        long max = 0;
+        for (long l : load) {
+            max = Math.max(max, l);
+        }
+        return max / ((double) keys.length / numTasks);
+    }
+
+    private int[] zipfKeys(int numKeys, double exponent, int count, Random random) {
+        double[] cdf = new double[numKeys];
+        double sum = 0;
+        for (int i = 0; i < numKeys; ++i) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        int[] keys = new int[count];
+        for (int i = 0; i < count; ++i) {
+            double r = random.nextDouble() * sum;
+            int idx = Arrays.binarySearch(cdf, r);
+            keys[i] = idx >= 0 ? idx : -idx - 1;
+        }
+        return keys;
+    }
+
+    private List<Integer> targetTasks(int count) {
+        List<Integer> tasks = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            tasks.add(10 + i);
+        }
+        return tasks;
+    }
+
+    private List<Object> values(Object deviceId) {
+        Map<String, Object> fieldsAndValues = new HashMap<>();
+        fieldsAndValues.put("deviceId", deviceId);
+        StreamlineEvent event = new StreamlineEventImpl(fieldsAndValues, "dsrcid");
+        return Collections.<Object>singletonList(event);
+    }
+}
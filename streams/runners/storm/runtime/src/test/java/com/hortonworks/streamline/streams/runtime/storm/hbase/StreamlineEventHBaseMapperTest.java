@@ -21,6 +21,8 @@ import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
 import mockit.Expectations;
 import mockit.Mocked;
 import mockit.integration.junit4.JMockit;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.storm.hbase.common.ColumnList;
 import org.apache.storm.tuple.Tuple;
 import org.junit.Assert;
@@ -29,7 +31,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.google.common.base.Charsets.UTF_8;
@@ -52,7 +57,7 @@ public class StreamlineEventHBaseMapperTest {
     @Before
     public void setup() {
         new Expectations() {{
-            mockTuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT); returns(TEST_EVENT);
+            mockTuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT); returns(TEST_EVENT); minTimes = 0;
         }};
     }
 
@@ -69,4 +74,51 @@ public class StreamlineEventHBaseMapperTest {
         Assert.assertTrue(Arrays.equals(COLUMN_FIELD.getBytes(Charsets.UTF_8), column.getValue()));
     }
 
+    @Test
+    public void testNestedValueEncoding() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("name", "driver");
+        nested.put("ids", Arrays.asList(1, 2L, 3.5d, null));
+        nested.put("certified", true);
+        byte[] encoded = HBaseValueEncoding.encode(nested);
+        Assert.assertEquals(nested, HBaseValueEncoding.decodeNested(encoded));
+        Assert.assertTrue(Arrays.equals(Bytes.toBytes(42L), HBaseValueEncoding.encode(42L)));
+    }
+
+    @Test
+    public void testConfiguredFieldsAndCompositeRowKey() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("truckId", 7);
+        values.put("eventTime", 1000L);
+        values.put("speed", 60);
+        StreamlineEvent event = new StreamlineEventImpl(values, "dsrcid1", ROW_KEY_FIELD);
+        StreamlineEventHBaseMapper fieldsMapper = new StreamlineEventHBaseMapper(COLUMN_FAMILY)
+                .withFields(Collections.singletonList("speed"))
+                .withRowKeyStrategy("fields")
+                .withRowKeyFields(Arrays.asList("truckId", "eventTime"));
+
+        Put put = fieldsMapper.put(event);
+        Assert.assertEquals(1, put.size());
+        Assert.assertTrue(put.has(COLUMN_FAMILY.getBytes(UTF_8), "speed".getBytes(UTF_8), Bytes.toBytes(60)));
+        Assert.assertTrue(Arrays.equals(Bytes.add(Bytes.toBytes(7 ^ Integer.MIN_VALUE), Bytes.toBytes(1000L ^ Long.MIN_VALUE)),
+                put.getRow()));
+
+        values.put("truckId", -1);
+        byte[] negative = fieldsMapper.rowKey(new StreamlineEventImpl(values, "dsrcid1", ROW_KEY_FIELD));
+        Assert.assertTrue(Bytes.compareTo(negative, put.getRow()) < 0);
+    }
+
+    @Test
+    public void testSaltedTimeRowKey() {
+        HBaseRowKeyStrategy strategy = HBaseRowKeyStrategy.create(HBaseRowKeyStrategy.Type.SALTED_TIME,
+                Collections.<String>emptyList(), 4, "eventTime");
+        List<byte[]> keys = Arrays.asList(
+                strategy.rowKey(new StreamlineEventImpl(Collections.<String, Object>singletonMap("eventTime", 1000L), "dsrcid1", "id1")),
+                strategy.rowKey(new StreamlineEventImpl(Collections.<String, Object>singletonMap("eventTime", 2000L), "dsrcid1", "id1")));
+        for (byte[] key : keys) {
+            Assert.assertTrue(key[0] >= 0 && key[0] < 4);
+        }
+        Assert.assertEquals(1000L, Bytes.toLong(keys.get(0), 1));
+        Assert.assertTrue(Bytes.compareTo(keys.get(0), keys.get(1)) < 0);
+    }
 }
@@ -0,0 +1,163 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hbase;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.security.User;
+import org.apache.storm.hbase.security.HBaseSecurityUtil;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Tuple;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(JMockit.class)
+public class StreamlineHBaseBoltTest {
+    private static final String CONFIG_KEY = "hbaseConf";
+
+    @Mocked
+    private ConnectionFactory connectionFactory;
+
+    @Mocked
+    private HBaseSecurityUtil hbaseSecurityUtil;
+
+    @Injectable
+    private Connection connection;
+
+    @Injectable
+    private BufferedMutator mutator;
+
+    @Injectable
+    private OutputCollector collector;
+
+    @Injectable
+    private Tuple first;
+
+    @Injectable
+    private Tuple second;
+
+    @Before
+    public void setUp() throws Exception {
+        new Expectations() {{
+            ConnectionFactory.createConnection((Configuration) any, (User) any); result = connection; minTimes = 0;
+            connection.getBufferedMutator((BufferedMutatorParams) any); result = mutator; minTimes = 0;
+        }};
+    }
+
+    @Test
+    public void testAcksOnFlush() throws Exception {
+        expectEvents(event("1"), event("2"));
+        StreamlineHBaseBolt bolt = newBolt(new StreamlineEventHBaseMapper("cf"));
+
+        bolt.execute(first);
+        new Verifications() {{
+            mutator.mutate((Mutation) any); times = 1;
+            mutator.flush(); times = 0;
+            collector.ack((Tuple) any); times = 0;
+        }};
+
+        bolt.execute(second);
+        new Verifications() {{
+            mutator.mutate((Mutation) any); times = 2;
+            mutator.flush(); times = 1;
+            collector.ack(first); times = 1;
+            collector.ack(second); times = 1;
+            collector.fail((Tuple) any); times = 0;
+        }};
+    }
+
+    @Test
+    public void testFailsPendingWhenFlushFails() throws Exception {
+        expectEvents(event("1"), event("2"));
+        new Expectations() {{
+            mutator.flush(); result = new IOException("Region server unavailable");
+        }};
+        StreamlineHBaseBolt bolt = newBolt(new StreamlineEventHBaseMapper("cf"));
+
+        bolt.execute(first);
+        bolt.execute(second);
+
+        new Verifications() {{
+            collector.fail(first); times = 1;
+            collector.fail(second); times = 1;
+            collector.ack((Tuple) any); times = 0;
+        }};
+    }
+
+    @Test
+    public void testAcksEventWhichCanNotBeMapped() throws Exception {
+        // the row key field is missing from the first event
+        expectEvents(event("1"), new StreamlineEventImpl(Collections.<String, Object>singletonMap("truckId", 7), "ds-1"));
+        StreamlineEventHBaseMapper mapper = new StreamlineEventHBaseMapper("cf")
+                .withRowKeyStrategy("fields")
+                .withRowKeyFields(Collections.singletonList("truckId"));
+        StreamlineHBaseBolt bolt = newBolt(mapper);
+
+        bolt.execute(first);
+        new Verifications() {{
+            collector.reportError((Throwable) any); times = 1;
+            collector.ack(first); times = 1;
+            collector.fail((Tuple) any); times = 0;
+            mutator.mutate((Mutation) any); times = 0;
+        }};
+
+        // the dropped event does not count toward the batch
+        bolt.execute(second);
+        new Verifications() {{
+            mutator.mutate((Mutation) any); times = 1;
+            mutator.flush(); times = 0;
+            collector.ack(second); times = 0;
+        }};
+    }
+
+    private StreamlineHBaseBolt newBolt(StreamlineEventHBaseMapper mapper) {
+        StreamlineHBaseBolt bolt = new StreamlineHBaseBolt("events", mapper).withConfigKey(CONFIG_KEY).withBatchSize(2);
+        Map<String, Object> stormConf = new HashMap<>();
+        stormConf.put(CONFIG_KEY, new HashMap<String, Object>());
+        bolt.prepare(stormConf, null, collector);
+        return bolt;
+    }
+
+    private void expectEvents(final StreamlineEvent firstEvent, final StreamlineEvent secondEvent) {
+        new Expectations() {{
+            first.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = firstEvent; minTimes = 0;
+            second.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = secondEvent; minTimes = 0;
+        }};
+    }
+
+    private static StreamlineEvent event(String name) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", name);
+        return new StreamlineEventImpl(fields, "ds-1");
+    }
+}
@@ -0,0 +1,213 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.hdfs;
+
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.storm.Config;
+import org.apache.storm.Constants;
+import org.apache.storm.hdfs.bolt.format.FileNameFormat;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.tuple.Tuple;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JMockit.class)
+public class ParquetHdfsBoltTest {
+
+    @Injectable
+    private OutputCollector collector;
+
+    @Injectable
+    private Tuple tuple;
+
+    @Injectable
+    private Tuple tick;
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("parquet-hdfs-bolt").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testWritesAndAcksOnRotation() throws Exception {
+        Map<String, Object> driver = new HashMap<>();
+        driver.put("name", "driver-1");
+        Map<String, Object> values = new HashMap<>();
+        values.put("truckId", 7);
+        values.put("speed", 61.5d);
+        values.put("driver", driver);
+        final StreamlineEvent event = new StreamlineEventImpl(values, "ds-1");
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = event;
+            tick.getSourceComponent(); result = Constants.SYSTEM_COMPONENT_ID;
+            tick.getSourceStreamId(); result = Constants.SYSTEM_TICK_STREAM_ID;
+        }};
+        ParquetHdfsBolt bolt = new ParquetHdfsBolt()
+                .withFsUrl("file:///")
+                .withFileNameFormat(new TestFileNameFormat(directory.getAbsolutePath()))
+                .withFields(Arrays.asList("truckId", "speed", "driver", "eventType"))
+                .withFieldTypes(Arrays.asList("INTEGER", "DOUBLE", "NESTED", "STRING"))
+                .withRotationIntervalSecs(1);
+        bolt.prepare(new HashMap<>(), null, collector);
+
+        bolt.execute(tuple);
+        new Verifications() {{
+            collector.ack(tuple); times = 0;
+        }};
+        Thread.sleep(1100);
+        bolt.execute(tick);
+        new Verifications() {{
+            collector.ack(tuple); times = 1;
+        }};
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".parquet"));
+        Assert.assertEquals(1, files.length);
+        try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(new Path(files[0].toURI())).build()) {
+            GenericRecord record = reader.read();
+            Assert.assertEquals(7, record.get("truckId"));
+            Assert.assertEquals(61.5d, record.get("speed"));
+            Assert.assertEquals("{\"name\":\"driver-1\"}", record.get("driver").toString());
+            Assert.assertNull(record.get("eventType"));
+            Assert.assertNull(reader.read());
+        }
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testRotationIntervalIsCappedBelowMessageTimeout() throws Exception {
+        final StreamlineEvent event = new StreamlineEventImpl(Collections.<String, Object>singletonMap("truckId", 7), "ds-1");
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = event;
+            tick.getSourceComponent(); result = Constants.SYSTEM_COMPONENT_ID;
+            tick.getSourceStreamId(); result = Constants.SYSTEM_TICK_STREAM_ID;
+        }};
+        ParquetHdfsBolt bolt = new ParquetHdfsBolt()
+                .withFsUrl("file:///")
+                .withFileNameFormat(new TestFileNameFormat(directory.getAbsolutePath()))
+                .withFields(Collections.singletonList("truckId"))
+                .withFieldTypes(Collections.singletonList("INTEGER"))
+                .withRotationIntervalSecs((int) TimeUnit.HOURS.toSeconds(1));
+        Map<String, Object> stormConf = new HashMap<>();
+        stormConf.put(Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS, 2);
+        bolt.prepare(stormConf, null, collector);
+
+        bolt.execute(tuple);
+        Thread.sleep(1100);
+        bolt.execute(tick);
+        new Verifications() {{
+            collector.ack(tuple); times = 1;
+        }};
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testUnmappableEventIsAckedAndReported() throws Exception {
+        final StreamlineEvent event = new StreamlineEventImpl(Collections.<String, Object>singletonMap("truckId", "not a number"), "ds-1");
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = event;
+        }};
+        ParquetHdfsBolt bolt = new ParquetHdfsBolt()
+                .withFsUrl("file:///")
+                .withFileNameFormat(new TestFileNameFormat(directory.getAbsolutePath()))
+                .withFields(Collections.singletonList("truckId"))
+                .withFieldTypes(Collections.singletonList("INTEGER"));
+        bolt.prepare(new HashMap<>(), null, collector);
+
+        bolt.execute(tuple);
+        new Verifications() {{
+            collector.reportError((Throwable) any); times = 1;
+            collector.ack(tuple); times = 1;
+            collector.fail(tuple); times = 0;
+        }};
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testTupleIsFailedWhenFileCanNotBeOpened() throws Exception {
+        final StreamlineEvent event = new StreamlineEventImpl(Collections.<String, Object>singletonMap("truckId", 7), "ds-1");
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = event;
+        }};
+        // the parent of the output directory is a regular file
+        File notADirectory = new File(directory, "not-a-directory");
+        Assert.assertTrue(notADirectory.createNewFile());
+        ParquetHdfsBolt bolt = new ParquetHdfsBolt()
+                .withFsUrl("file:///")
+                .withFileNameFormat(new TestFileNameFormat(new File(notADirectory, "output").getAbsolutePath()))
+                .withFields(Collections.singletonList("truckId"))
+                .withFieldTypes(Collections.singletonList("INTEGER"));
+        bolt.prepare(new HashMap<>(), null, collector);
+
+        bolt.execute(tuple);
+        new Verifications() {{
+            collector.reportError((Throwable) any); times = 1;
+            collector.fail(tuple); times = 1;
+            collector.ack(tuple); times = 0;
+        }};
+        bolt.cleanup();
+    }
+
+    private static class TestFileNameFormat implements FileNameFormat {
+        private final String path;
+
+        TestFileNameFormat(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void prepare(Map conf, TopologyContext topologyContext) {
+        }
+
+        @Override
+        public String getName(long rotation, long timeStamp) {
+            return "events-" + rotation + ".parquet";
+        }
+
+        @Override
+        public String getPath() {
+            return path;
+        }
+    }
+}
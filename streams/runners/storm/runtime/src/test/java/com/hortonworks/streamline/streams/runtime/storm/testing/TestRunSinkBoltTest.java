@@ -0,0 +1,93 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.storm.testing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.layout.component.impl.testing.TestRunSink;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.integration.junit4.JMockit;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Tuple;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(JMockit.class)
+public class TestRunSinkBoltTest {
+    private static final int EVENTS_PER_TASK = 300;
+
+    @Injectable
+    private OutputCollector collector;
+
+    @Injectable
+    private Tuple tuple;
+
+    private File outputFile;
+
+    @Before
+    public void setUp() throws Exception {
+        outputFile = File.createTempFile("test-run-sink", ".json");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(outputFile.toPath());
+    }
+
+    @Test
+    public void testTasksOfSameSinkDoNotSplitLines() throws Exception {
+        // large enough for the write buffer to fill up several times
+        final StreamlineEvent event = new StreamlineEventImpl(
+                Collections.<String, Object>singletonMap("payload", Strings.repeat("x", 1000)), "ds-1");
+        new Expectations() {{
+            tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT); result = event;
+        }};
+        TestRunSink testRunSink = new TestRunSink(outputFile.getAbsolutePath());
+        TestRunSinkBolt task1 = new TestRunSinkBolt(testRunSink);
+        TestRunSinkBolt task2 = new TestRunSinkBolt(testRunSink);
+        task1.prepare(new HashMap<>(), null, collector);
+        task2.prepare(new HashMap<>(), null, collector);
+
+        for (int i = 0; i < EVENTS_PER_TASK; i++) {
+            task1.execute(tuple);
+            task2.execute(tuple);
+        }
+        task1.cleanup();
+        task2.cleanup();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> lines = Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(2 * EVENTS_PER_TASK, lines.size());
+        for (String line : lines) {
+            Map<?, ?> record = objectMapper.readValue(line, Map.class);
+            Assert.assertEquals(1000, ((String) record.get("payload")).length());
+        }
+    }
+}
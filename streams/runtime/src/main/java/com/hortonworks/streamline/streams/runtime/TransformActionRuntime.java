@@ -22,6 +22,8 @@ import com.hortonworks.streamline.streams.Result;
 import com.hortonworks.streamline.streams.layout.Transform;
 import com.hortonworks.streamline.streams.layout.component.rule.action.Action;
 import com.hortonworks.streamline.streams.layout.component.rule.action.TransformAction;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumented;
 import com.hortonworks.streamline.streams.runtime.rule.action.AbstractActionRuntime;
 import com.hortonworks.streamline.streams.runtime.rule.action.ActionRuntime;
 import com.hortonworks.streamline.streams.runtime.rule.action.ActionRuntimeContext;
@@ -37,7 +39,7 @@ import java.util.Set;
  * {@link ActionRuntime} instance for applying the given chain of {@link Transform}s.
  *
  */
-public class TransformActionRuntime extends AbstractActionRuntime {
+public class TransformActionRuntime extends AbstractActionRuntime implements Instrumented {
     private String stream;
     private final List<TransformRuntime> transformRuntimes;
 
@@ -115,6 +117,15 @@ public class TransformActionRuntime extends AbstractActionRuntime {
         return transformed;
     }
 
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        for (TransformRuntime transformRuntime : transformRuntimes) {
+            if (transformRuntime instanceof Instrumented) {
+                ((Instrumented) transformRuntime).setInstrumentation(instrumentation);
+            }
+        }
+    }
+
     @Override
     public Set<String> getOutputStreams() {
         return Collections.singleton(stream);
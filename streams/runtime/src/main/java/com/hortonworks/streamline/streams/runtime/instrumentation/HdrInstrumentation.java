@@ -0,0 +1,148 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.instrumentation;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation backed by {@link LongAdder} counters and HdrHistogram {@link Recorder}s.
+ * <p/>
+ * Recording is wait-free, so metrics can be shared by threads of a task. Each snapshot swaps the interval
+ * histograms, so percentiles reported are for the interval since the previous snapshot.
+ */
+public class HdrInstrumentation implements Instrumentation {
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, HdrCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HdrTimer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HdrLatencyRecorder> latencyRecorders = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new HdrCounter());
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new HdrTimer());
+    }
+
+    @Override
+    public LatencyRecorder latencyRecorder(String name) {
+        return latencyRecorders.computeIfAbsent(name, n -> new HdrLatencyRecorder());
+    }
+
+    @Override
+    public synchronized Map<String, Number> snapshotAndReset() {
+        Map<String, Number> values = new HashMap<>();
+        for (Map.Entry<String, HdrCounter> counter : counters.entrySet()) {
+            values.put(counter.getKey() + ".count", counter.getValue().count.sumThenReset());
+        }
+        for (Map.Entry<String, HdrTimer> timer : timers.entrySet()) {
+            // timers are reported in microseconds which is precise enough and keeps the numbers readable
+            putHistogram(values, timer.getKey(), "Us", timer.getValue().nextInterval(), NANOS_PER_MICRO);
+        }
+        for (Map.Entry<String, HdrLatencyRecorder> recorder : latencyRecorders.entrySet()) {
+            putHistogram(values, recorder.getKey(), "", recorder.getValue().nextInterval(), 1);
+        }
+        return values;
+    }
+
+    private static void putHistogram(Map<String, Number> values, String name, String unitSuffix, Histogram histogram,
+                                     long divisor) {
+        long count = histogram.getTotalCount();
+        values.put(name + ".count", count);
+        if (count == 0) {
+            return;
+        }
+        values.put(name + ".p50" + unitSuffix, histogram.getValueAtPercentile(50.0) / divisor);
+        values.put(name + ".p99" + unitSuffix, histogram.getValueAtPercentile(99.0) / divisor);
+        values.put(name + ".p999" + unitSuffix, histogram.getValueAtPercentile(99.9) / divisor);
+        values.put(name + ".max" + unitSuffix, histogram.getMaxValue() / divisor);
+        values.put(name + ".mean" + unitSuffix, histogram.getMean() / divisor);
+    }
+
+    private static final class HdrCounter implements Counter {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void inc() {
+            count.increment();
+        }
+
+        @Override
+        public void inc(long delta) {
+            count.add(delta);
+        }
+    }
+
+    private static class IntervalHistogram {
+        // auto-resizing, so no upper bound has to be guessed
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private Histogram recycled;
+
+        void recordValue(long value) {
+            // negative values can only come from clock adjustments, don't let them break the recorder
+            recorder.recordValue(value < 0 ? 0 : value);
+        }
+
+        Histogram nextInterval() {
+            Histogram interval = recorder.getIntervalHistogram(recycled);
+            recycled = interval;
+            return interval;
+        }
+    }
+
+    private static final class HdrTimer extends IntervalHistogram implements Timer {
+        @Override
+        public long start() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long stop(long start) {
+            long elapsed = System.nanoTime() - start;
+            recordValue(elapsed);
+            return elapsed;
+        }
+
+        @Override
+        public void recordNanos(long nanos) {
+            recordValue(nanos);
+        }
+    }
+
+    private static final class HdrLatencyRecorder extends IntervalHistogram implements LatencyRecorder {
+        @Override
+        public void record(long value) {
+            recordValue(value);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.instrumentation;
+
+import java.util.Map;
+
+/**
+ * Named counters, timers and latency recorders for instrumenting runtime hot paths.
+ * <p/>
+ * Instances are scoped to a component task. Metric objects should be looked up once (e.g. when the runtime is
+ * instrumented) and kept in fields, rather than looked up by name per event. When instrumentation is disabled,
+ * {@link #NOOP} is used, whose metric objects do nothing and don't even read the clock.
+ */
+public interface Instrumentation {
+    Instrumentation NOOP = NoopInstrumentation.INSTANCE;
+
+    boolean isEnabled();
+
+    /**
+     * Returns the counter with the given name, creating it if needed.
+     */
+    Counter counter(String name);
+
+    /**
+     * Returns the timer with the given name, creating it if needed. Timers record elapsed nanoseconds.
+     */
+    Timer timer(String name);
+
+    /**
+     * Returns the latency recorder with the given name, creating it if needed.
+     * Latency recorders record values in the unit chosen by the caller, e.g. milliseconds of waiting time.
+     */
+    LatencyRecorder latencyRecorder(String name);
+
+    /**
+     * Returns values of all metrics collected since the last call, and resets them.
+     * Keys are composed of metric name and statistic, e.g. 'rule.alert.evaluate.p99Us'.
+     */
+    Map<String, Number> snapshotAndReset();
+
+    interface Counter {
+        void inc();
+
+        void inc(long delta);
+    }
+
+    interface Timer {
+        /**
+         * @return start time to pass to {@link #stop(long)}
+         */
+        long start();
+
+        /**
+         * Records the time elapsed from the start.
+         *
+         * @return elapsed nanoseconds, 0 when instrumentation is disabled
+         */
+        long stop(long start);
+
+        void recordNanos(long nanos);
+    }
+
+    interface LatencyRecorder {
+        void record(long value);
+    }
+}
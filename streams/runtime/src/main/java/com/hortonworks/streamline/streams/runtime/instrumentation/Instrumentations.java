@@ -0,0 +1,90 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.instrumentation;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Creates {@link Instrumentation} instances according to the topology configuration.
+ * <p/>
+ * Instrumentation is disabled unless {@link #INSTRUMENTATION_ENABLED} is set to true in the topology configuration.
+ * Besides the per component instances, there is one instance per worker for code which isn't owned by a component
+ * task, like Kafka serializers. It's enabled by the first component which enables instrumentation.
+ */
+public final class Instrumentations {
+    public static final String INSTRUMENTATION_ENABLED = "streamline.instrumentation.enabled";
+
+    private static volatile Instrumentation worker = Instrumentation.NOOP;
+    private static final AtomicBoolean WORKER_EXPORT_CLAIMED = new AtomicBoolean(false);
+
+    private Instrumentations() {
+    }
+
+    public static boolean isEnabled(Map<?, ?> conf) {
+        if (conf == null) {
+            return false;
+        }
+        Object enabled = conf.get(INSTRUMENTATION_ENABLED);
+        return enabled instanceof Boolean ? (Boolean) enabled : Boolean.parseBoolean(String.valueOf(enabled));
+    }
+
+    /**
+     * Creates the instrumentation for a component task: a new {@link HdrInstrumentation} if instrumentation is
+     * enabled, {@link Instrumentation#NOOP} otherwise.
+     */
+    public static Instrumentation create(Map<?, ?> conf) {
+        if (!isEnabled(conf)) {
+            return Instrumentation.NOOP;
+        }
+        synchronized (Instrumentations.class) {
+            if (!worker.isEnabled()) {
+                worker = new HdrInstrumentation();
+            }
+        }
+        return new HdrInstrumentation();
+    }
+
+    /**
+     * Returns the instrumentation shared by the worker. This could change from NOOP to enabled once, so callers on
+     * hot paths should compare it with the instance they looked up their metrics from.
+     */
+    public static Instrumentation worker() {
+        return worker;
+    }
+
+    /**
+     * Makes sure the worker instrumentation is exported by exactly one task: returns true only for the first caller.
+     */
+    public static boolean claimWorkerExport() {
+        return worker.isEnabled() && WORKER_EXPORT_CLAIMED.compareAndSet(false, true);
+    }
+
+    /**
+     * Converts a user given name (e.g. rule name) to a metric name segment which metrics sinks don't split or reject.
+     */
+    public static String sanitize(String name) {
+        if (name == null || name.isEmpty()) {
+            return "unnamed";
+        }
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sb.append(Character.isLetterOrDigit(c) || c == '-' || c == '_' ? c : '_');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,24 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.instrumentation;
+
+/**
+ * Implemented by runtimes which record metrics of their hot paths. Runtimes start with {@link Instrumentation#NOOP}
+ * and should look up their metric objects when instrumentation is set, and pass it down to the runtimes they own.
+ */
+public interface Instrumented {
+    void setInstrumentation(Instrumentation instrumentation);
+}
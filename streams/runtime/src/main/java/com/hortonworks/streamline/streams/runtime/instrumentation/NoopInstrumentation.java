@@ -0,0 +1,81 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.instrumentation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Instrumentation which is used when instrumentation is disabled. It is also the only metric object it returns,
+ * so that instrumented call sites stay monomorphic and can be inlined away by the JIT.
+ * <p/>
+ * An enum so that runtimes holding it stay serializable.
+ */
+enum NoopInstrumentation implements Instrumentation, Instrumentation.Counter, Instrumentation.Timer,
+        Instrumentation.LatencyRecorder {
+    INSTANCE;
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return this;
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return this;
+    }
+
+    @Override
+    public LatencyRecorder latencyRecorder(String name) {
+        return this;
+    }
+
+    @Override
+    public Map<String, Number> snapshotAndReset() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public void inc() {
+    }
+
+    @Override
+    public void inc(long delta) {
+    }
+
+    @Override
+    public long start() {
+        return 0L;
+    }
+
+    @Override
+    public long stop(long start) {
+        return 0L;
+    }
+
+    @Override
+    public void recordNanos(long nanos) {
+    }
+
+    @Override
+    public void record(long value) {
+    }
+}
@@ -0,0 +1,36 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.normalization;
+
+/**
+ * Thrown by the combined converter script of a {@link NormalizationPlan} when the converter script of one of the
+ * transformers fails, so that the failure can be reported against that transformer.
+ */
+public class ConverterScriptException extends RuntimeException {
+    private final int scriptIndex;
+
+    public ConverterScriptException(int scriptIndex, Throwable cause) {
+        super(cause);
+        this.scriptIndex = scriptIndex;
+    }
+
+    /**
+     * @return the index of the failed converter script in the combined script
+     */
+    public int getScriptIndex() {
+        return scriptIndex;
+    }
+}
@@ -17,7 +17,6 @@
 package com.hortonworks.streamline.streams.runtime.normalization;
 
 import com.hortonworks.registries.common.Schema;
-import com.hortonworks.registries.common.exception.ParserException;
 import com.hortonworks.streamline.streams.StreamlineEvent;
 import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldValueGenerator;
 import com.hortonworks.streamline.streams.runtime.script.GroovyScript;
@@ -36,11 +35,14 @@ public class FieldValueGeneratorRuntime {
     private static final Logger LOG = LoggerFactory.getLogger(FieldValueGeneratorRuntime.class);
 
     private final Schema.Field field;
+    // resolved once, instead of looking up the type of every generated value
+    private final Class<?> javaType;
     private GroovyScript<Object> groovyScript;
     private Object value;
 
     private FieldValueGeneratorRuntime(Schema.Field field) {
         this.field = field;
+        this.javaType = field.getType().getJavaType();
     }
 
     public Object generateValue(StreamlineEvent event) throws NormalizationException {
@@ -54,12 +56,11 @@ public class FieldValueGeneratorRuntime {
             Object evaluatedValue = groovyScript.evaluate(event);
 
             LOG.debug("Computed value is {}. field: [{}] script: [{}] input: [{}]", value, field, groovyScript, event);
-            Schema.Type type = field.getType();
-            if(!type.valueOfSameType(evaluatedValue)) {
-                throw new NormalizationException("Computed value is not of expected type: "+ type);
+            if(evaluatedValue != null && !javaType.isInstance(evaluatedValue)) {
+                throw new NormalizationException("Computed value is not of expected type: "+ field.getType());
             }
             return evaluatedValue;
-        } catch (ScriptException | ParserException e) {
+        } catch (ScriptException e) {
             throw new NormalizationException(e);
         }
     }
@@ -0,0 +1,125 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+
+package com.hortonworks.streamline.streams.runtime.normalization;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldBasedNormalizationConfig;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldValueGenerator;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.Transformer;
+import com.hortonworks.streamline.streams.runtime.script.GroovyScript;
+import com.hortonworks.streamline.streams.runtime.script.engine.GroovyScriptEngine;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiles a {@link FieldBasedNormalizationConfig} and the declared output schema into a {@link NormalizationPlan}.
+ * <p>
+ * The converter scripts of all the transformers are combined into one script, which returns the converted values in
+ * the order of the transformers. Each converter is wrapped in a closure so that its local variables stay apart, and
+ * starts from a cleared binding so that the variables it assigns without declaring them do not leak into the next
+ * converters. A failure of a converter is rethrown as a {@link ConverterScriptException} carrying its index. Scripts
+ * which can not be wrapped in a closure, e.g. with imports or method definitions, make the combined script fail to
+ * compile: the converter scripts are then evaluated one by one, as separate scripts. The expected type of every transformed and generated field is resolved here once, as are the fields to be filtered.
+ */
+public class NormalizationCompiler {
+    private static final Logger LOG = LoggerFactory.getLogger(NormalizationCompiler.class);
+
+    public NormalizationPlan compile(FieldBasedNormalizationConfig normalizationConfig, Schema declaredOutputSchema) {
+        List<NormalizationPlan.TransformerSlot> transformers = new ArrayList<>();
+        List<String> converterScripts = new ArrayList<>();
+        if (normalizationConfig.getTransformers() != null) {
+            for (Transformer transformer : normalizationConfig.getTransformers()) {
+                if (transformer.getInputField() == null) {
+                    throw new IllegalArgumentException("input field should always be set for transformer");
+                }
+                int scriptIndex = -1;
+                if (transformer.getConverterScript() != null) {
+                    scriptIndex = converterScripts.size();
+                    converterScripts.add(transformer.getConverterScript());
+                }
+                transformers.add(new NormalizationPlan.TransformerSlot(transformer.getInputField().getName(),
+                        transformer.getOutputField().getName(), transformer.getOutputField().getType(), scriptIndex));
+            }
+        }
+
+        List<FieldValueGeneratorRuntime> generators = new ArrayList<>();
+        if (normalizationConfig.getNewFieldValueGenerators() != null) {
+            for (FieldValueGenerator fieldValueGenerator : normalizationConfig.getNewFieldValueGenerators()) {
+                generators.add(new FieldValueGeneratorRuntime.Builder(fieldValueGenerator).build());
+            }
+        }
+
+        List<String> fieldsToBeFiltered = normalizationConfig.getFieldsToBeFiltered();
+        if (fieldsToBeFiltered == null || fieldsToBeFiltered.isEmpty()) {
+            fieldsToBeFiltered = computeFieldsToBeFiltered(normalizationConfig.getInputSchema(), declaredOutputSchema);
+        }
+
+        if (converterScripts.isEmpty()) {
+            return new NormalizationPlan(transformers, null, Collections.<GroovyScript<Object>>emptyList(), generators,
+                    fieldsToBeFiltered, declaredOutputSchema.getFields().size());
+        }
+        GroovyScript<List<Object>> combinedScript = combine(converterScripts);
+        try {
+            combinedScript.compile();
+        } catch (CompilationFailedException e) {
+            LOG.info("Converter scripts can not be combined, they are evaluated separately: {}", e.getMessage());
+            List<GroovyScript<Object>> separateScripts = new ArrayList<>();
+            for (String converterScript : converterScripts) {
+                separateScripts.add(new GroovyScript<>(converterScript, new GroovyScriptEngine()));
+            }
+            return new NormalizationPlan(transformers, null, separateScripts, generators, fieldsToBeFiltered,
+                    declaredOutputSchema.getFields().size());
+        }
+        return new NormalizationPlan(transformers, combinedScript, Collections.<GroovyScript<Object>>emptyList(),
+                generators, fieldsToBeFiltered, declaredOutputSchema.getFields().size());
+    }
+
+    private GroovyScript<List<Object>> combine(List<String> converterScripts) {
+        StringBuilder script = new StringBuilder("[");
+        for (int i = 0; i < converterScripts.size(); i++) {
+            if (i > 0) {
+                script.append(", ");
+            }
+            script.append("{ ->\ngetBinding().getVariables().clear()\ntry {\n")
+                    .append(converterScripts.get(i))
+                    .append("\n} catch (Exception e) {\nthrow new ").append(ConverterScriptException.class.getName())
+                    .append('(').append(i).append(", e)\n}\n}.call()");
+        }
+        script.append(']');
+        LOG.debug("Combined converter scripts: [{}]", script);
+        return new GroovyScript<>(script.toString(), new GroovyScriptEngine());
+    }
+
+    private List<String> computeFieldsToBeFiltered(Schema inputSchema, Schema declaredOutputSchema) {
+        Set<Schema.Field> outputFields = new HashSet<>(declaredOutputSchema.getFields());
+        List<String> fieldsToBeFiltered = new ArrayList<>();
+        for (Schema.Field inputField : inputSchema.getFields()) {
+            if (!outputFields.contains(inputField)) {
+                fieldsToBeFiltered.add(inputField.getName());
+            }
+        }
+        LOG.debug("Creating fields to be filtered: [{}]", fieldsToBeFiltered);
+        return fieldsToBeFiltered;
+    }
+}
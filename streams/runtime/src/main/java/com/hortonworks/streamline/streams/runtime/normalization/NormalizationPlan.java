@@ -0,0 +1,185 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+
+package com.hortonworks.streamline.streams.runtime.normalization;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.runtime.script.GroovyScript;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.ScriptException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A field based normalization compiled by {@link NormalizationCompiler}. For each event it copies the received fields,
+ * applies the transformers (evaluating all their converter scripts at once, or one by one when they could not be
+ * combined), generates the missing new fields and
+ * removes the filtered fields.
+ */
+public class NormalizationPlan {
+    private static final Logger LOG = LoggerFactory.getLogger(NormalizationPlan.class);
+
+    private final TransformerSlot[] transformers;
+    private final GroovyScript<List<Object>> converterScript;
+    // used instead of the combined converter script when the converter scripts could not be combined
+    private final GroovyScript<Object>[] separateConverterScripts;
+    private final FieldValueGeneratorRuntime[] generators;
+    private final String[] fieldsToBeFiltered;
+    private final int outputFields;
+
+    @SuppressWarnings("unchecked")
+    NormalizationPlan(List<TransformerSlot> transformers, GroovyScript<List<Object>> converterScript,
+                      List<GroovyScript<Object>> separateConverterScripts, List<FieldValueGeneratorRuntime> generators,
+                      List<String> fieldsToBeFiltered, int outputFields) {
+        this.transformers = transformers.toArray(new TransformerSlot[transformers.size()]);
+        this.converterScript = converterScript;
+        this.separateConverterScripts = separateConverterScripts.toArray(new GroovyScript[separateConverterScripts.size()]);
+        this.generators = generators.toArray(new FieldValueGeneratorRuntime[generators.size()]);
+        this.fieldsToBeFiltered = fieldsToBeFiltered.toArray(new String[fieldsToBeFiltered.size()]);
+        this.outputFields = outputFields;
+    }
+
+    public Map<String, Object> normalize(StreamlineEvent event) throws NormalizationException {
+        LOG.debug("Received streamline event {}", event);
+
+        // sized so that neither the received nor the declared output fields make the map resize
+        Map<String, Object> output = new HashMap<>((int) (Math.max(event.size(), outputFields) / 0.75f) + 1);
+        output.putAll(event);
+
+        List<Object> converted = convert(event);
+        for (TransformerSlot transformer : transformers) {
+            Object value;
+            if (transformer.scriptIndex >= 0) {
+                value = converted.get(transformer.scriptIndex);
+                if (!transformer.outputType.isInstance(value)) {
+                    throw new NormalizationException("Computed value is not of expected type: " + transformer.outputFieldType
+                            + " in transformer " + transformer.name());
+                }
+            } else {
+                value = event.get(transformer.inputField);
+            }
+            output.remove(transformer.inputField);
+            output.put(transformer.outputField, value);
+        }
+
+        for (FieldValueGeneratorRuntime generator : generators) {
+            String name = generator.getField().getName();
+            if (!output.containsKey(name)) {
+                output.put(name, generator.generateValue(event));
+            } else {
+                LOG.debug("Default value for field [{}] is not generated as it exists in the received event [{}]", name, event);
+            }
+        }
+
+        // filtered fields should not exist in the output event.
+        for (String field : fieldsToBeFiltered) {
+            output.remove(field);
+        }
+        return output;
+    }
+
+    private List<Object> convert(StreamlineEvent event) throws NormalizationException {
+        for (TransformerSlot transformer : transformers) {
+            if (!event.containsKey(transformer.inputField)) {
+                throw new IllegalArgumentException("StreamlineEvent does not have input field: " + transformer.inputField);
+            }
+        }
+        if (converterScript == null) {
+            return convertSeparately(event);
+        }
+        try {
+            return converterScript.evaluate(event);
+        } catch (ConverterScriptException e) {
+            String transformer = transformerOf(e.getScriptIndex()).name();
+            LOG.error("Error occurred while converting input fields in transformer " + transformer + " of event: " + event);
+            throw new NormalizationException("Error occurred while converting input fields in transformer " + transformer,
+                    e.getCause());
+        } catch (ScriptException e) {
+            LOG.error("Error occurred while converting input fields of event: " + event);
+            throw new NormalizationException("Error occurred while converting input fields in a normalization", e);
+        }
+    }
+
+    private List<Object> convertSeparately(StreamlineEvent event) throws NormalizationException {
+        if (separateConverterScripts.length == 0) {
+            return Collections.emptyList();
+        }
+        Object[] converted = new Object[separateConverterScripts.length];
+        for (int i = 0; i < separateConverterScripts.length; i++) {
+            try {
+                converted[i] = separateConverterScripts[i].evaluate(event);
+            } catch (ScriptException | RuntimeException e) {
+                String transformer = transformerOf(i).name();
+                LOG.error("Error occurred while converting input fields in transformer " + transformer + " of event: " + event);
+                throw new NormalizationException("Error occurred while converting input fields in transformer " + transformer, e);
+            }
+        }
+        return Arrays.asList(converted);
+    }
+
+    private TransformerSlot transformerOf(int scriptIndex) {
+        for (TransformerSlot transformer : transformers) {
+            if (transformer.scriptIndex == scriptIndex) {
+                return transformer;
+            }
+        }
+        throw new IllegalStateException("No transformer for converter script " + scriptIndex);
+    }
+
+    @Override
+    public String toString() {
+        return "NormalizationPlan{" +
+                "transformers=" + Arrays.toString(transformers) +
+                ", converterScript=" + converterScript +
+                ", separateConverterScripts=" + Arrays.toString(separateConverterScripts) +
+                ", generators=" + Arrays.toString(generators) +
+                ", fieldsToBeFiltered=" + Arrays.toString(fieldsToBeFiltered) +
+                '}';
+    }
+
+    static final class TransformerSlot {
+        private final String inputField;
+        private final String outputField;
+        private final Schema.Type outputFieldType;
+        private final Class<?> outputType;
+        // index of the converted value in the result of the converter scripts, -1 to copy the input value
+        private final int scriptIndex;
+
+        TransformerSlot(String inputField, String outputField, Schema.Type outputFieldType, int scriptIndex) {
+            this.inputField = inputField;
+            this.outputField = outputField;
+            this.outputFieldType = outputFieldType;
+            this.outputType = outputFieldType.getJavaType();
+            this.scriptIndex = scriptIndex;
+        }
+
+        // transformers have no name of their own, they are told apart by their fields
+        String name() {
+            return "[" + inputField + " -> " + outputField + "]";
+        }
+
+        @Override
+        public String toString() {
+            return "TransformerSlot{" + inputField + " -> " + outputField + ", scriptIndex=" + scriptIndex + '}';
+        }
+    }
+}
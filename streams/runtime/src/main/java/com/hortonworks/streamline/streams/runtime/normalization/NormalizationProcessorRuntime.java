@@ -17,7 +17,6 @@
 package com.hortonworks.streamline.streams.runtime.normalization;
 
 import com.hortonworks.registries.common.Schema;
-import com.hortonworks.registries.common.exception.ParserException;
 import com.hortonworks.streamline.streams.StreamlineEvent;
 import com.hortonworks.streamline.streams.Result;
 import com.hortonworks.streamline.streams.exception.ProcessingException;
@@ -105,11 +104,18 @@ public class NormalizationProcessorRuntime implements ProcessorRuntime {
         private static final Logger LOG = LoggerFactory.getLogger(SchemaValidator.class);
 
         private final Map<String, Schema.Field> fields;
+        // java type accepted for the non null values of each field, resolved once per field. It is null for the
+        // fields (like optional or nested ones) which are not equal to a plain field of their name and type and
+        // so never matched a value.
+        private final Map<String, Class<?>> acceptedTypes;
 
         private SchemaValidator(Schema schema) {
             fields = new HashMap<>();
+            acceptedTypes = new HashMap<>();
             for (Schema.Field field : schema.getFields()) {
                 fields.put(field.getName(), field);
+                boolean plainField = field.equals(new Schema.Field(field.getName(), field.getType()));
+                acceptedTypes.put(field.getName(), plainField ? field.getType().getJavaType() : null);
             }
         }
 
@@ -123,22 +129,18 @@ public class NormalizationProcessorRuntime implements ProcessorRuntime {
             LOG.debug("Validating generated output field values: [{}] with [{}]", fieldNameValuePairs, fields);
 
             for (Map.Entry<String, Object> entry : fieldNameValuePairs.entrySet()) {
-                try {
-                    if(!fields.containsKey(entry.getKey())) {
-                        LOG.error("Schema does not contain field with name [{}]", entry.getKey());
-                        throw new NormalizationException("Normalized payload does not conform to declared output schema.");
-                    }
+                if(!fields.containsKey(entry.getKey())) {
+                    LOG.error("Schema does not contain field with name [{}]", entry.getKey());
+                    throw new NormalizationException("Normalized payload does not conform to declared output schema.");
+                }
 
-                    Object value = entry.getValue();
-                    if (value != null) {
-                        final Schema.Field field = new Schema.Field(entry.getKey(), Schema.fromJavaType(value));
-                        if (!fields.containsValue(field)) {
-                            LOG.error("Schema does not contain field with type [{}]", entry.getKey());
-                            throw new NormalizationException("Normalized payload does not conform to declared output schema.");
-                        }
+                Object value = entry.getValue();
+                if (value != null) {
+                    Class<?> acceptedType = acceptedTypes.get(entry.getKey());
+                    if (acceptedType == null || !acceptedType.isInstance(value)) {
+                        LOG.error("Schema does not contain field with type [{}]", entry.getKey());
+                        throw new NormalizationException("Normalized payload does not conform to declared output schema.");
                     }
-                } catch (ParserException e) {
-                    throw new NormalizationException("Error occurred while validating normalized payload.", e);
                 }
             }
         }
@@ -30,6 +30,8 @@ import com.hortonworks.streamline.streams.layout.component.rule.expression.Expre
 import com.hortonworks.streamline.streams.layout.component.rule.expression.FieldExpression;
 import com.hortonworks.streamline.streams.layout.component.rule.expression.GroupBy;
 import com.hortonworks.streamline.streams.runtime.ProcessorRuntime;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumented;
 import com.hortonworks.streamline.streams.runtime.rule.RuleRuntime;
 import org.apache.commons.lang3.StringUtils;
 import com.hortonworks.streamline.streams.runtime.rule.action.ActionRuntime;
@@ -60,7 +62,7 @@ import static com.hortonworks.streamline.streams.layout.component.rule.expressio
 /**
  * Represents a runtime rules processor
  */
-public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
+public class RuleProcessorRuntime implements Serializable, ProcessorRuntime, Instrumented {
     protected static final Logger LOG = LoggerFactory.getLogger(RuleProcessorRuntime.class);
     private static final GroupBy GROUP_BY_WINDOWID = new GroupBy(new FieldExpression(Schema.Field.of(WINDOW_ID, Schema.Type.LONG)));
 
@@ -128,6 +130,13 @@ public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
 
     }
 
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        for (RuleRuntime ruleRuntime : rulesRuntime) {
+            ruleRuntime.setInstrumentation(instrumentation);
+        }
+    }
+
     private List<RuleRuntime> getRulesRuntime(StreamlineEvent event) throws ProcessingException {
         if (event == GROUP_BY_TRIGGER_EVENT) {
             return allRuleRuntimes;
@@ -23,7 +23,11 @@ import com.hortonworks.streamline.streams.exception.ProcessingException;
 import com.hortonworks.streamline.streams.layout.component.rule.Rule;
 import com.hortonworks.streamline.streams.layout.component.rule.exception.ConditionEvaluationException;
 import com.hortonworks.streamline.streams.runtime.ProcessorRuntime;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentations;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumented;
 import com.hortonworks.streamline.streams.runtime.rule.action.ActionRuntime;
+import com.hortonworks.streamline.streams.runtime.rule.sql.SqlScript;
 import com.hortonworks.streamline.streams.runtime.script.Script;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,13 +42,18 @@ import java.util.Map;
 /**
  * Represents a rule runtime
  */
-public class RuleRuntime implements Serializable, ProcessorRuntime {
+public class RuleRuntime implements Serializable, ProcessorRuntime, Instrumented {
     protected static final Logger LOG = LoggerFactory.getLogger(RuleRuntime.class);
 
     protected final Rule rule;
     protected final Script<StreamlineEvent, Collection<StreamlineEvent>, ?> script;     // Script used to evaluate the condition
     protected final List<ActionRuntime> actions;
 
+    private Instrumentation.Timer evaluateTimer = Instrumentation.NOOP.timer(null);
+    private Instrumentation.Timer scriptTimer = Instrumentation.NOOP.timer(null);
+    private Instrumentation.Timer actionsTimer = Instrumentation.NOOP.timer(null);
+    private Instrumentation.Counter matchedCounter = Instrumentation.NOOP.counter(null);
+
     public RuleRuntime(Rule rule, Script<StreamlineEvent, Collection<StreamlineEvent>, ?> script, List<ActionRuntime> actions) {
         this.rule = rule;
         this.script = script;
@@ -54,7 +63,13 @@ public class RuleRuntime implements Serializable, ProcessorRuntime {
     public Collection<StreamlineEvent> evaluate(StreamlineEvent input) {
         try {
             LOG.debug("Evaluate {} with script {}", input, script);
-            return script.evaluate(input);
+            long start = evaluateTimer.start();
+            Collection<StreamlineEvent> results = script.evaluate(input);
+            scriptTimer.recordNanos(evaluateTimer.stop(start));
+            if (results != null && !results.isEmpty()) {
+                matchedCounter.inc();
+            }
+            return results;
         } catch (ScriptException e) {
             throw new ConditionEvaluationException("Exception occurred when evaluating rule condition. " + this, e);
         }
@@ -69,6 +84,7 @@ public class RuleRuntime implements Serializable, ProcessorRuntime {
     public List<Result> process (StreamlineEvent event) throws ProcessingException {
         LOG.debug("process invoked with StreamlineEvent {}", event);
         List<Result> allResults = new ArrayList<>();
+        long start = actionsTimer.start();
         try {
             for (ActionRuntime action : actions) {
                 List<Result> actionResults = action.execute(event);
@@ -82,6 +98,7 @@ public class RuleRuntime implements Serializable, ProcessorRuntime {
             LOG.error(message);
             throw new ProcessingException(message, e);
         }
+        actionsTimer.stop(start);
         LOG.debug("Returning allResults {}", allResults);
         return allResults;
     }
@@ -98,6 +115,24 @@ public class RuleRuntime implements Serializable, ProcessorRuntime {
 
     }
 
+    /**
+     * Records condition evaluation time and matches per rule, evaluation time per script type
+     * and action time per rule.
+     */
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        String prefix = "rule." + Instrumentations.sanitize(rule.getName() != null ? rule.getName() : String.valueOf(rule.getId()));
+        evaluateTimer = instrumentation.timer(prefix + ".evaluate");
+        actionsTimer = instrumentation.timer(prefix + ".actions");
+        matchedCounter = instrumentation.counter(prefix + ".matched");
+        scriptTimer = instrumentation.timer(script instanceof SqlScript ? "script.sql.evaluate" : "script.groovy.evaluate");
+        for (ActionRuntime action : actions) {
+            if (action instanceof Instrumented) {
+                ((Instrumented) action).setInstrumentation(instrumentation);
+            }
+        }
+    }
+
     public Rule getRule() {
         return rule;
     }
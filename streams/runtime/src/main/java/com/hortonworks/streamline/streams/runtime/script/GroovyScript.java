@@ -14,93 +14,152 @@
   * limitations under the License.
  **/
 
-
 package com.hortonworks.streamline.streams.runtime.script;
 
+import com.hortonworks.registries.common.Schema;
 import com.hortonworks.streamline.streams.StreamlineEvent;
 import com.hortonworks.streamline.streams.layout.component.rule.expression.Expression;
-import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.lang.model.SourceVersion;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Evaluates the {@link Expression} for each {@code Input} using the provided Groovy Engine
+ * <p>
+ * The script class is compiled once per process for a given text (see {@link GroovyScriptClassCache}) and the
+ * variables are resolved from the event itself (see {@link StreamlineEventBinding}). When a {@link Schema} of the
+ * input is given, the script can also be compiled with static type checking or static compilation: the referenced
+ * fields of the schema are then declared as typed variables ahead of the expression.
  *
  * @param <O> Type of output returned after the script is evaluated with {@link GroovyScript#evaluate(StreamlineEvent)}.
  */
 public class GroovyScript<O> extends Script<StreamlineEvent, O, javax.script.ScriptEngine> {
     private static final Logger LOG = LoggerFactory.getLogger(GroovyScript.class);
 
+    public enum CompileMode {
+        DYNAMIC, TYPE_CHECKED, COMPILE_STATIC
+    }
+
     // instance of parsed Script is not thread-safe so we want to store parsed script per each thread
     // transient to avoid NotSerializableException
     // volatile to safe lazy-init via Double Checking Lock
-    private transient volatile ThreadLocal<groovy.lang.Script> parsedScript;
+    private transient volatile ThreadLocal<BoundScript> boundScript;
     private final Map<String, Object> initialBindings;
+    private final Schema schema;
+    private final CompileMode compileMode;
 
     public GroovyScript(String expression, com.hortonworks.streamline.streams.runtime.script.engine.ScriptEngine<ScriptEngine> scriptEngine) {
         this(expression, scriptEngine, Collections.<String, Object>emptyMap());
     }
 
     public GroovyScript(String expression, com.hortonworks.streamline.streams.runtime.script.engine.ScriptEngine<ScriptEngine> scriptEngine, Map<String, Object> initialBindings) {
+        this(expression, scriptEngine, initialBindings, null, CompileMode.DYNAMIC);
+    }
+
+    /**
+     * @param schema      schema of the events the script is evaluated on, used to declare the types of the fields
+     *                    when the compile mode is not {@link CompileMode#DYNAMIC}
+     * @param compileMode how the script is compiled
+     */
+    public GroovyScript(String expression, com.hortonworks.streamline.streams.runtime.script.engine.ScriptEngine<ScriptEngine> scriptEngine,
+                        Map<String, Object> initialBindings, Schema schema, CompileMode compileMode) {
         super(expression, scriptEngine);
+        if (compileMode != CompileMode.DYNAMIC && schema == null) {
+            throw new IllegalArgumentException("A schema is required to compile the script in " + compileMode + " mode");
+        }
         this.initialBindings = initialBindings;
+        this.schema = schema;
+        this.compileMode = compileMode;
     }
 
     @Override
     public O evaluate(StreamlineEvent event) throws ScriptException {
         LOG.debug("Evaluating [{}] with [{}]", expression, event);
-        groovy.lang.Script parsedScript = getParsedScript();
         O evaluatedResult = null;
 
         if (event != null) {
+            BoundScript boundScript = getBoundScript();
             try {
-                Binding binding = createBinding(event);
-                parsedScript.setBinding(binding);
+                boundScript.binding.setEvent(event);
                 LOG.debug("Set script binding to [{}]", event);
 
-                evaluatedResult = (O) parsedScript.run();
+                evaluatedResult = (O) boundScript.script.run();
 
                 LOG.debug("Expression [{}] evaluated to [{}]", expression, evaluatedResult);
             } catch (groovy.lang.MissingPropertyException e) {
                 LOG.debug("Missing property: Expression [{}] params [{}]", expression, event);
                 throw new ScriptException(e);
+            } finally {
+                // don't hold on to the event until the next evaluation
+                boundScript.binding.setEvent(Collections.<String, Object>emptyMap());
             }
         }
         return evaluatedResult;
     }
 
-    private Binding createBinding(Map<String, Object> fieldsToValues) {
-        Binding binding = new Binding();
-        addToBinding(initialBindings, binding);
-        addToBinding(fieldsToValues, binding);
-
-        return binding;
+    /**
+     * Compiles the script ahead of its first evaluation.
+     *
+     * @throws org.codehaus.groovy.control.CompilationFailedException if the script does not compile
+     */
+    public void compile() {
+        GroovyScriptClassCache.get(scriptText(), compileMode);
     }
 
-    private void addToBinding(Map<String, Object> fieldsToValues, Binding binding) {
-        for (Map.Entry<String, Object> entry : fieldsToValues.entrySet()) {
-            binding.setProperty(entry.getKey(), entry.getValue());
+    private BoundScript getBoundScript() {
+        if (boundScript == null) {
+            synchronized (this) {
+                if (boundScript == null) {
+                    final Class<? extends groovy.lang.Script> scriptClass = GroovyScriptClassCache.get(scriptText(), compileMode);
+                    boundScript = new ThreadLocal<BoundScript>() {
+                        @Override
+                        protected BoundScript initialValue() {
+                            return new BoundScript(scriptClass, initialBindings);
+                        }
+                    };
+                }
+            }
         }
+        return boundScript.get();
     }
 
-    private groovy.lang.Script getParsedScript() {
-        if (parsedScript == null) {
-            synchronized (this) {
-                parsedScript = new ThreadLocal<groovy.lang.Script>() {
-                    @Override
-                    protected groovy.lang.Script initialValue() {
-                        return new GroovyShell().parse(expression);
-                    }
-                };
+    /**
+     * The text compiled for this script. Outside of the dynamic mode the fields of the schema which the expression
+     * refers to are declared with their types, on the same line as the start of the expression to keep its line
+     * numbers. A field missing from the event is declared as null.
+     */
+    String scriptText() {
+        if (compileMode == CompileMode.DYNAMIC) {
+            return expression;
+        }
+        StringBuilder declarations = new StringBuilder();
+        for (Schema.Field field : schema.getFields()) {
+            String name = field.getName();
+            if (SourceVersion.isName(name) && Pattern.compile("\\b" + Pattern.quote(name) + "\\b").matcher(expression).find()) {
+                String type = field.getType().getJavaType().getCanonicalName();
+                // optional fields may be missing from the event, getVariable would throw
+                declarations.append(type).append(' ').append(name)
+                        .append(" = binding.hasVariable('").append(name).append("') ? (").append(type)
+                        .append(") binding.getVariable('").append(name).append("') : null; ");
             }
         }
-        return parsedScript.get();
+        return declarations.append(expression).toString();
     }
 
+    private static final class BoundScript {
+        private final StreamlineEventBinding binding;
+        private final groovy.lang.Script script;
+
+        private BoundScript(Class<? extends groovy.lang.Script> scriptClass, Map<String, Object> initialBindings) {
+            this.binding = new StreamlineEventBinding(initialBindings);
+            this.script = InvokerHelper.createScript(scriptClass, binding);
+        }
+    }
 }
@@ -0,0 +1,127 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.script;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import groovy.lang.GroovyClassLoader;
+import groovy.transform.CompileStatic;
+import groovy.transform.TypeChecked;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide cache of the classes compiled from Groovy scripts, keyed by the script text (which, for the statically
+ * checked scripts, includes the typed declarations of the bound fields) and the {@link GroovyScript.CompileMode}.
+ * <p>
+ * Rules, transformers and field value generators often share the same script text, and each of them used to compile
+ * its own class per thread. With the cache a text is compiled once per worker, and every thread only creates a cheap
+ * instance of the shared class. At most {@value #MAXIMUM_SIZE} classes are kept, the least recently used ones are
+ * evicted so that topologies generating many distinct scripts do not fill the metaspace. An evicted class stays in
+ * use by the scripts which already loaded it.
+ */
+public final class GroovyScriptClassCache {
+    private static final Logger LOG = LoggerFactory.getLogger(GroovyScriptClassCache.class);
+
+    static final int MAXIMUM_SIZE = 1000;
+
+    private static final Cache<Key, Class<? extends groovy.lang.Script>> CLASSES = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+    private static final AtomicLong COMPILATIONS = new AtomicLong();
+
+    private GroovyScriptClassCache() {
+    }
+
+    static Class<? extends groovy.lang.Script> get(String scriptText, GroovyScript.CompileMode compileMode) {
+        Key key = new Key(scriptText, compileMode);
+        try {
+            return CLASSES.get(key, () -> compile(key));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // compilation errors are runtime exceptions, rethrow them as they are
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @return the number of distinct compiled scripts
+     */
+    public static int size() {
+        return (int) CLASSES.size();
+    }
+
+    /**
+     * @return the number of script compilations done by this process
+     */
+    public static long compilations() {
+        return COMPILATIONS.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends groovy.lang.Script> compile(Key key) {
+        CompilerConfiguration configuration = new CompilerConfiguration();
+        switch (key.compileMode) {
+            case TYPE_CHECKED:
+                configuration.addCompilationCustomizers(new ASTTransformationCustomizer(TypeChecked.class));
+                break;
+            case COMPILE_STATIC:
+                configuration.addCompilationCustomizers(new ASTTransformationCustomizer(CompileStatic.class));
+                break;
+            default:
+                break;
+        }
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        GroovyClassLoader classLoader = new GroovyClassLoader(parent != null ? parent : GroovyScriptClassCache.class.getClassLoader(),
+                configuration);
+        Class<? extends groovy.lang.Script> scriptClass = classLoader.parseClass(key.scriptText);
+        LOG.debug("Compiled script [{}] in {} mode", key.scriptText, key.compileMode);
+        COMPILATIONS.incrementAndGet();
+        return scriptClass;
+    }
+
+    private static final class Key {
+        private final String scriptText;
+        private final GroovyScript.CompileMode compileMode;
+
+        private Key(String scriptText, GroovyScript.CompileMode compileMode) {
+            this.scriptText = scriptText;
+            this.compileMode = compileMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return scriptText.equals(key.scriptText) && compileMode == key.compileMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scriptText, compileMode);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.script;
+
+import groovy.lang.Binding;
+import groovy.lang.MissingPropertyException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link Binding} resolving the script variables from the event being evaluated, without copying its fields.
+ * Variables are looked up in the variables assigned by the script itself, then in the event, then in the initial
+ * bindings of the script. {@link #getVariables()} only holds the variables assigned by the script.
+ * <p>
+ * A binding is reused for the events evaluated by one thread, {@link #setEvent(Map)} resets it for the next one.
+ */
+class StreamlineEventBinding extends Binding {
+    private final Map<String, Object> initialBindings;
+    private Map<String, Object> event = Collections.emptyMap();
+
+    StreamlineEventBinding(Map<String, Object> initialBindings) {
+        super(new HashMap());
+        this.initialBindings = initialBindings;
+    }
+
+    void setEvent(Map<String, Object> event) {
+        this.event = event;
+        getVariables().clear();
+    }
+
+    @Override
+    public Object getVariable(String name) {
+        Map variables = getVariables();
+        Object value = variables.get(name);
+        if (value != null || variables.containsKey(name)) {
+            return value;
+        }
+        value = event.get(name);
+        if (value != null || event.containsKey(name)) {
+            return value;
+        }
+        value = initialBindings.get(name);
+        if (value != null || initialBindings.containsKey(name)) {
+            return value;
+        }
+        throw new MissingPropertyException(name, getClass());
+    }
+
+    @Override
+    public boolean hasVariable(String name) {
+        return getVariables().containsKey(name) || event.containsKey(name) || initialBindings.containsKey(name);
+    }
+}
@@ -17,12 +17,12 @@
 package com.hortonworks.streamline.streams.runtime.splitjoin;
 
 import com.hortonworks.streamline.streams.StreamlineEvent;
+import com.hortonworks.streamline.streams.common.EventIds;
 import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Default implementation of {@link Joiner}
@@ -45,6 +45,6 @@ public class DefaultJoiner implements Joiner {
         }
 
         return new StreamlineEventImpl(fieldValues, eventGroup.getDataSourceId(),
-                UUID.randomUUID().toString(), Collections.<String, Object>emptyMap(), null, auxiliaryFieldValues);
+                EventIds.next(), Collections.<String, Object>emptyMap(), null, auxiliaryFieldValues);
     }
 }
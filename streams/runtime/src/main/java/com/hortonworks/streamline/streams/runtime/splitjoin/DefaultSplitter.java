@@ -18,6 +18,7 @@ package com.hortonworks.streamline.streams.runtime.splitjoin;
 
 import com.hortonworks.streamline.streams.StreamlineEvent;
 import com.hortonworks.streamline.streams.Result;
+import com.hortonworks.streamline.streams.common.EventIds;
 import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
 
 import java.util.ArrayList;
@@ -26,20 +27,37 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class broadcasts the received event to all the output streams. This can be extended to customize split logic.
+ * <p>
+ * All the partitions of an event share its fields and header; each partition only adds the split headers on top of them.
+ * Group ids are numbers made of the id of the task doing the split (16 bits) and a counter of that task (48 bits)
+ * starting at a random value, so they are unique across the tasks without any coordination.
  */
 public class DefaultSplitter implements Splitter {
+    private static final int COUNTER_BITS = 48;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final long groupIdPrefix;
+    private long groupIdCounter = ThreadLocalRandom.current().nextLong();
 
     public DefaultSplitter() {
+        this(ThreadLocalRandom.current().nextInt(1 << (Long.SIZE - COUNTER_BITS)));
+    }
+
+    /**
+     * @param taskId id of the task using this splitter, encoded in the generated group ids
+     */
+    public DefaultSplitter(int taskId) {
+        this.groupIdPrefix = (taskId & ((1L << (Long.SIZE - COUNTER_BITS)) - 1)) << COUNTER_BITS;
     }
 
     @Override
     public List<Result> splitEvent(StreamlineEvent inputEvent, Set<String> outputStreams) {
-        List<Result> results = new ArrayList<>();
-        String groupId = getGroupId(inputEvent);
+        List<Result> results = new ArrayList<>(outputStreams.size());
+        Object groupId = getGroupId(inputEvent);
         int curPartNo = 0;
         int totalParts = outputStreams.size();
         for (String stream : outputStreams) {
@@ -50,7 +68,11 @@ public class DefaultSplitter implements Splitter {
         return results;
     }
 
-    private StreamlineEvent createPartitionEvent(StreamlineEvent event, String groupId, int partNo, String stream, int totalParts) {
+    private StreamlineEvent createPartitionEvent(StreamlineEvent event, Object groupId, int partNo, String stream, int totalParts) {
+        if (event instanceof StreamlineEventImpl) {
+            return ((StreamlineEventImpl) event).derive(EventIds.next(),
+                    new SplitPartitionHeader(event.getHeader(), groupId, partNo, totalParts), stream);
+        }
         Map<String, Object> headers = new HashMap<>();
         if (event.getHeader() != null) {
             headers.putAll(event.getHeader());
@@ -59,14 +81,14 @@ public class DefaultSplitter implements Splitter {
         headers.put(SplitActionRuntime.SPLIT_PARTITION_ID, partNo);
         headers.put(SplitActionRuntime.SPLIT_TOTAL_PARTITIONS_ID, totalParts);
         return new StreamlineEventImpl(event, event.getDataSourceId(),
-                UUID.randomUUID().toString(), headers, stream, event.getAuxiliaryFieldsAndValues());
+                EventIds.next(), headers, stream, event.getAuxiliaryFieldsAndValues());
     }
 
     /**
-     * @return groupid for a given {@code event}
+     * @return groupid for a given {@code event}. Any value with proper equals and hashCode can be used, e.g. a String.
      */
-    protected String getGroupId(StreamlineEvent event) {
-        return UUID.randomUUID().toString();
+    protected Object getGroupId(StreamlineEvent event) {
+        return groupIdPrefix | (groupIdCounter++ & COUNTER_MASK);
     }
 
 }
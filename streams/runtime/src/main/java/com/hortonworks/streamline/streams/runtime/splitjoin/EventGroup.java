@@ -16,33 +16,40 @@
 
 package com.hortonworks.streamline.streams.runtime.splitjoin;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.hortonworks.streamline.streams.StreamlineEvent;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
- * This class stores all split events of a specific split group.
+ * This class stores all split events of a specific split group. Split events expire after the event expiry interval and
+ * are then no longer part of the group.
  */
 public class EventGroup {
-    private final Cache<Integer, StreamlineEvent> splitEvents;
-    private final String groupId;
+    private final Map<Integer, PartitionEvent> splitEvents = new HashMap<>(4);
+    private final Object groupId;
     private final String dataSourceId;
     private final long eventExpiryInterval;
 
+    private final long createdAt = System.currentTimeMillis();
+
     private int totalPartitionEvents = -1;
 
     public EventGroup(String groupId, String dataSourceId, long eventExpiryInterval) {
+        this((Object) groupId, dataSourceId, eventExpiryInterval);
+    }
+
+    /**
+     * @param groupId group id of the split events, as set by the splitter in the {@link SplitActionRuntime#SPLIT_GROUP_ID} header
+     */
+    public EventGroup(Object groupId, String dataSourceId, long eventExpiryInterval) {
         this.groupId = groupId;
         this.dataSourceId = dataSourceId;
         this.eventExpiryInterval = eventExpiryInterval;
-
-        splitEvents =
-                CacheBuilder.newBuilder()
-                .expireAfterWrite(eventExpiryInterval, TimeUnit.MILLISECONDS).build();
     }
 
     public void addPartitionEvent(StreamlineEvent partitionedEvent) {
@@ -51,7 +58,8 @@ public class EventGroup {
             throw new IllegalArgumentException("Received event is not of partition event as it doe not contain header  with name: "+SplitActionRuntime.SPLIT_PARTITION_ID);
         }
 
-        splitEvents.put((Integer) header.get(SplitActionRuntime.SPLIT_PARTITION_ID), partitionedEvent);
+        splitEvents.put((Integer) header.get(SplitActionRuntime.SPLIT_PARTITION_ID),
+                new PartitionEvent(partitionedEvent, System.currentTimeMillis()));
         if(header.get(SplitActionRuntime.SPLIT_TOTAL_PARTITIONS_ID) != null) {
             int x = (Integer) header.get(SplitActionRuntime.SPLIT_TOTAL_PARTITIONS_ID);
             if(totalPartitionEvents < x) {
@@ -62,19 +70,48 @@ public class EventGroup {
     }
 
     public boolean isComplete() {
+        if (splitEvents.size() != totalPartitionEvents) {
+            return false;
+        }
+        removeExpiredEvents();
         return splitEvents.size() == totalPartitionEvents;
     }
 
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
     public String getDataSourceId() {
         return dataSourceId;
     }
 
     public String getGroupId() {
+        return String.valueOf(groupId);
+    }
+
+    /**
+     * @return the group id as set by the splitter, which is the key of this group
+     */
+    public Object getGroupKey() {
         return groupId;
     }
 
     public Iterable<StreamlineEvent> getSplitEvents() {
-        return Collections.unmodifiableCollection(splitEvents.asMap().values());
+        removeExpiredEvents();
+        List<StreamlineEvent> events = new ArrayList<>(splitEvents.size());
+        for (PartitionEvent partitionEvent : splitEvents.values()) {
+            events.add(partitionEvent.event);
+        }
+        return Collections.unmodifiableList(events);
+    }
+
+    private void removeExpiredEvents() {
+        long expiredBefore = System.currentTimeMillis() - eventExpiryInterval;
+        for (Iterator<PartitionEvent> it = splitEvents.values().iterator(); it.hasNext(); ) {
+            if (it.next().addedAt < expiredBefore) {
+                it.remove();
+            }
+        }
     }
 
     @Override
@@ -86,4 +123,19 @@ public class EventGroup {
                 ", totalPartitionEvents=" + totalPartitionEvents +
                 '}';
     }
+
+    private static final class PartitionEvent {
+        private final StreamlineEvent event;
+        private final long addedAt;
+
+        PartitionEvent(StreamlineEvent event, long addedAt) {
+            this.event = event;
+            this.addedAt = addedAt;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(event);
+        }
+    }
 }
@@ -24,6 +24,8 @@ import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
 import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.JoinAction;
 import com.hortonworks.streamline.streams.layout.component.rule.action.Action;
 import com.hortonworks.streamline.streams.runtime.RuntimeService;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumented;
 import com.hortonworks.streamline.streams.runtime.rule.action.ActionRuntime;
 
 import java.util.ArrayList;
@@ -36,10 +38,14 @@ import java.util.concurrent.TimeUnit;
 /**
  * {@link ActionRuntime} implementation for {@link JoinAction}
  */
-public class JoinActionRuntime extends AbstractSplitJoinActionRuntime {
-    private Cache<String, EventGroup> groupedEvents;
+public class JoinActionRuntime extends AbstractSplitJoinActionRuntime implements Instrumented {
+    // keyed by the group ids set by the splitter, numbers for the default splitter
+    private Cache<Object, EventGroup> groupedEvents;
     private final JoinAction joinAction;
     private Joiner joiner;
+    private boolean instrumented;
+    private Instrumentation.LatencyRecorder groupWaitRecorder = Instrumentation.NOOP.latencyRecorder(null);
+    private Instrumentation.Timer joinTimer = Instrumentation.NOOP.timer(null);
 
     public JoinActionRuntime(JoinAction joinAction) {
         this.joinAction = joinAction;
@@ -80,13 +86,18 @@ public class JoinActionRuntime extends AbstractSplitJoinActionRuntime {
      * @param eventGroup
      */
     protected List<Result> joinEvents(EventGroup eventGroup) {
+        if (instrumented) {
+            groupWaitRecorder.record(System.currentTimeMillis() - eventGroup.getCreatedAt());
+        }
+        long start = joinTimer.start();
         StreamlineEvent joinedEvent = joiner.join(eventGroup);
+        joinTimer.stop(start);
 
         List<Result> results = new ArrayList<>();
         for (String stream : getOutputStreams()) {
             results.add(new Result(stream, Collections.singletonList(getStreamlineEvent(joinedEvent, stream))));
         }
-        groupedEvents.invalidate(eventGroup.getGroupId());
+        groupedEvents.invalidate(eventGroup.getGroupKey());
 
         return results;
     }
@@ -98,8 +109,8 @@ public class JoinActionRuntime extends AbstractSplitJoinActionRuntime {
     protected EventGroup groupEvents(StreamlineEvent event) {
 
         final Map<String, Object> header = event.getHeader();
-        if (header != null && header.containsKey(SplitActionRuntime.SPLIT_GROUP_ID)) {
-            final String groupId = (String) header.get(SplitActionRuntime.SPLIT_GROUP_ID);
+        final Object groupId = header != null ? header.get(SplitActionRuntime.SPLIT_GROUP_ID) : null;
+        if (groupId != null) {
             final String dataSourceId = event.getDataSourceId();
             final EventGroup eventGroup = getEventGroup(groupId, dataSourceId);
             eventGroup.addPartitionEvent(event);
@@ -110,7 +121,7 @@ public class JoinActionRuntime extends AbstractSplitJoinActionRuntime {
         return null;
     }
 
-    private EventGroup getEventGroup(String groupId, String dataSourceId) {
+    private EventGroup getEventGroup(Object groupId, String dataSourceId) {
         EventGroup eventGroup = groupedEvents.getIfPresent(groupId);
         if (eventGroup == null) {
             eventGroup = new EventGroup(groupId, dataSourceId, joinAction.getEventExpiryInterval());
@@ -119,6 +130,17 @@ public class JoinActionRuntime extends AbstractSplitJoinActionRuntime {
         return eventGroup;
     }
 
+    /**
+     * Records the time from the first event of a group to its completion in milliseconds as 'join.groupWaitMs',
+     * and the time spent by the joiner as 'join.join'.
+     */
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        instrumented = instrumentation.isEnabled();
+        groupWaitRecorder = instrumentation.latencyRecorder("join.groupWaitMs");
+        joinTimer = instrumentation.timer("join.join");
+    }
+
     @Override
     public Set<String> getOutputStreams() {
         return joinAction.getOutputStreams();
@@ -16,6 +16,7 @@
 
 package com.hortonworks.streamline.streams.runtime.splitjoin;
 
+import com.hortonworks.streamline.common.Constants;
 import com.hortonworks.streamline.streams.StreamlineEvent;
 import com.hortonworks.streamline.streams.Result;
 import com.hortonworks.streamline.streams.layout.component.impl.splitjoin.SplitAction;
@@ -61,7 +62,8 @@ public class SplitActionRuntime extends AbstractSplitJoinActionRuntime {
         final String splitterClassName = splitAction.getSplitterClassName();
         splitter = getInstance(jarId, splitterClassName, Splitter.class);
         if(splitter == null) {
-            splitter = new DefaultSplitter();
+            Object taskId = config != null ? config.get(Constants.TASK_ID) : null;
+            splitter = taskId instanceof Number ? new DefaultSplitter(((Number) taskId).intValue()) : new DefaultSplitter();
         }
     }
 
@@ -0,0 +1,145 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.splitjoin;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read only header of a split partition event: the header of the split event overlaid with the group id, partition id
+ * and total partitions of the partition. The header of the split event is shared by all its partitions instead of being
+ * copied for each of them.
+ */
+final class SplitPartitionHeader extends AbstractMap<String, Object> implements Serializable {
+    private static final String[] KEYS = {SplitActionRuntime.SPLIT_GROUP_ID, SplitActionRuntime.SPLIT_PARTITION_ID,
+            SplitActionRuntime.SPLIT_TOTAL_PARTITIONS_ID};
+
+    private final Map<String, Object> base;
+    private final Object groupId;
+    private final Integer partitionId;
+    private final Integer totalPartitions;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    SplitPartitionHeader(Map<String, Object> base, Object groupId, int partitionId, int totalPartitions) {
+        this.base = base != null ? base : Collections.emptyMap();
+        this.groupId = groupId;
+        this.partitionId = partitionId;
+        this.totalPartitions = totalPartitions;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? value(index) : base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0 || base.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        int size = base.size() + KEYS.length;
+        for (String key : KEYS) {
+            if (base.containsKey(key)) {
+                size--;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return SplitPartitionHeader.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private static int indexOf(Object key) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Object value(int index) {
+        switch (index) {
+            case 0:
+                return groupId;
+            case 1:
+                return partitionId;
+            default:
+                return totalPartitions;
+        }
+    }
+
+    // the overlaid entries first, then the entries of the base header which are not overlaid
+    private class EntryIterator implements Iterator<Entry<String, Object>> {
+        private final Iterator<Entry<String, Object>> baseIterator = base.entrySet().iterator();
+        private int index;
+        private Entry<String, Object> next;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (index < KEYS.length) {
+                next = new SimpleImmutableEntry<>(KEYS[index], value(index));
+                index++;
+                return true;
+            }
+            while (baseIterator.hasNext()) {
+                Entry<String, Object> entry = baseIterator.next();
+                if (indexOf(entry.getKey()) < 0) {
+                    next = new SimpleImmutableEntry<>(entry);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Object> result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -19,6 +19,8 @@ package com.hortonworks.streamline.streams.runtime.transform;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumented;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -27,7 +29,7 @@ import java.util.concurrent.TimeUnit;
  * This class creates a loadable cache for given backing {@link TransformDataProviderRuntime} with caching configuration like maximum size, expiration interval
  * and refresh interval.
  */
-public class CachedTransformDataProviderRuntime implements TransformDataProviderRuntime {
+public class CachedTransformDataProviderRuntime implements TransformDataProviderRuntime, Instrumented {
 
     private final TransformDataProviderRuntime backedTransformDataProviderRuntime;
     private final long maxCacheSize;
@@ -36,6 +38,9 @@ public class CachedTransformDataProviderRuntime implements TransformDataProvider
 
     private LoadingCache<Object, Object> loadingCache;
 
+    private Instrumentation.Counter lookupCounter = Instrumentation.NOOP.counter(null);
+    private Instrumentation.Timer loadTimer = Instrumentation.NOOP.timer(null);
+
     /**
      * Creates CachedDataProvider.
      *
@@ -62,7 +67,11 @@ public class CachedTransformDataProviderRuntime implements TransformDataProvider
                         .build(new CacheLoader<Object, Object>() {
                             @Override
                             public Object load(Object key) throws Exception {
-                                return backedTransformDataProviderRuntime.get(key);
+                                // only called on cache misses, so misses are the count of this timer
+                                long start = loadTimer.start();
+                                Object value = backedTransformDataProviderRuntime.get(key);
+                                loadTimer.stop(start);
+                                return value;
                             }
                         });
 
@@ -70,6 +79,7 @@ public class CachedTransformDataProviderRuntime implements TransformDataProvider
 
     @Override
     public Object get(Object key) {
+        lookupCounter.inc();
         try {
             return loadingCache.get(key);
         } catch (ExecutionException e) {
@@ -77,6 +87,15 @@ public class CachedTransformDataProviderRuntime implements TransformDataProvider
         }
     }
 
+    /**
+     * Records lookups as 'enrichment.lookups' and cache misses as 'enrichment.load', along with the time to load.
+     */
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        lookupCounter = instrumentation.counter("enrichment.lookups");
+        loadTimer = instrumentation.timer("enrichment.load");
+    }
+
     @Override
     public void cleanup() {
         loadingCache.cleanUp();
@@ -22,6 +22,8 @@ import com.hortonworks.streamline.streams.layout.component.rule.action.transform
 import com.hortonworks.streamline.streams.layout.component.rule.action.transform.TransformDataProvider;
 import com.hortonworks.streamline.streams.runtime.RuntimeService;
 import com.hortonworks.streamline.streams.runtime.TransformRuntime;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumentation;
+import com.hortonworks.streamline.streams.runtime.instrumentation.Instrumented;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,7 +35,7 @@ import java.util.Map;
 /**
  * Enrichment adds an extra enriched message of original message's fields.
  */
-public class EnrichmentTransformRuntime implements TransformRuntime {
+public class EnrichmentTransformRuntime implements TransformRuntime, Instrumented {
     private static final Logger log = LoggerFactory.getLogger(EnrichmentTransformRuntime.class);
 
     private final EnrichmentTransform enrichmentTransform;
@@ -72,6 +74,11 @@ public class EnrichmentTransformRuntime implements TransformRuntime {
         return Collections.singletonList(event);
     }
 
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        cachedDataProvider.setInstrumentation(instrumentation);
+    }
+
     public static class Factory implements RuntimeService.Factory<TransformRuntime, Transform> {
 
         @Override
@@ -0,0 +1,82 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.instrumentation;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HdrInstrumentationTest {
+
+    @Test
+    public void testSnapshotAndReset() throws Exception {
+        Instrumentation instrumentation = new HdrInstrumentation();
+        Instrumentation.Counter counter = instrumentation.counter("rule.alert.matched");
+        Instrumentation.LatencyRecorder recorder = instrumentation.latencyRecorder("join.groupWaitMs");
+        Instrumentation.Timer timer = instrumentation.timer("execute");
+
+        counter.inc();
+        counter.inc(2);
+        for (int i = 1; i <= 100; i++) {
+            recorder.record(i);
+        }
+        timer.recordNanos(2_000_000L);
+
+        // metrics are looked up by name
+        assertSame(counter, instrumentation.counter("rule.alert.matched"));
+
+        Map<String, Number> snapshot = instrumentation.snapshotAndReset();
+        assertEquals(3L, snapshot.get("rule.alert.matched.count"));
+        assertEquals(100L, snapshot.get("join.groupWaitMs.count"));
+        assertEquals(50L, snapshot.get("join.groupWaitMs.p50").longValue());
+        assertEquals(99L, snapshot.get("join.groupWaitMs.p99").longValue());
+        assertEquals(100L, snapshot.get("join.groupWaitMs.max").longValue());
+        assertEquals(1L, snapshot.get("execute.count"));
+        // timers are reported in microseconds, with 2 significant digits
+        assertEquals(2000.0, snapshot.get("execute.p50Us").doubleValue(), 40.0);
+
+        snapshot = instrumentation.snapshotAndReset();
+        assertEquals(0L, snapshot.get("rule.alert.matched.count"));
+        assertEquals(0L, snapshot.get("join.groupWaitMs.count"));
+        assertFalse(snapshot.containsKey("join.groupWaitMs.p50"));
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        assertSame(Instrumentation.NOOP, Instrumentations.create(Collections.emptyMap()));
+        assertSame(Instrumentation.NOOP, Instrumentations.create(null));
+        assertFalse(Instrumentation.NOOP.isEnabled());
+        assertEquals(0L, Instrumentation.NOOP.timer("execute").stop(Instrumentation.NOOP.timer("execute").start()));
+        assertTrue(Instrumentation.NOOP.snapshotAndReset().isEmpty());
+
+        Instrumentation enabled = Instrumentations.create(Collections.singletonMap(Instrumentations.INSTRUMENTATION_ENABLED, "true"));
+        assertTrue(enabled.isEnabled());
+        assertTrue(Instrumentations.worker().isEnabled());
+    }
+
+    @Test
+    public void testSanitize() throws Exception {
+        assertEquals("high_temp_alert", Instrumentations.sanitize("high temp.alert"));
+        assertEquals("rule-1_x", Instrumentations.sanitize("rule-1_x"));
+        assertEquals("unnamed", Instrumentations.sanitize(null));
+    }
+}
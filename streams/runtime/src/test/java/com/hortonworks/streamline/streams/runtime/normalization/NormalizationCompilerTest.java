@@ -0,0 +1,164 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.normalization;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldBasedNormalizationConfig;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldValueGenerator;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.Transformer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link NormalizationCompiler}
+ */
+public class NormalizationCompilerTest {
+    private static final Schema.Field TEMPERATURE = Schema.Field.of("temperature", Schema.Type.INTEGER);
+    private static final Schema.Field CITY = Schema.Field.of("city", Schema.Type.STRING);
+    private static final Schema.Field DEVICE = Schema.Field.of("device", Schema.Type.STRING);
+
+    private final NormalizationCompiler compiler = new NormalizationCompiler();
+
+    @Test
+    public void testFieldsNotInOutputSchemaAreFiltered() throws Exception {
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(TEMPERATURE, CITY, DEVICE),
+                Collections.<Transformer>emptyList(), null, Collections.<FieldValueGenerator>emptyList());
+
+        NormalizationPlan plan = compiler.compile(config, Schema.of(TEMPERATURE, CITY));
+
+        Map<String, Object> output = plan.normalize(event("temperature", 20, "city", "Seattle", "device", "d-1"));
+        assertEquals(fields("temperature", 20, "city", "Seattle"), output);
+    }
+
+    @Test
+    public void testConfiguredFieldsToBeFilteredAreKept() throws Exception {
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(TEMPERATURE, CITY, DEVICE),
+                Collections.<Transformer>emptyList(), Collections.singletonList("city"),
+                Collections.<FieldValueGenerator>emptyList());
+
+        NormalizationPlan plan = compiler.compile(config, Schema.of(TEMPERATURE, CITY));
+
+        Map<String, Object> output = plan.normalize(event("temperature", 20, "city", "Seattle", "device", "d-1"));
+        assertEquals(fields("temperature", 20, "device", "d-1"), output);
+    }
+
+    @Test
+    public void testTransformersWithoutScriptDoNotCompileAScript() throws Exception {
+        Transformer transformer = new Transformer(CITY, Schema.Field.of("location", Schema.Type.STRING));
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(CITY),
+                Collections.singletonList(transformer), null, Collections.<FieldValueGenerator>emptyList());
+
+        NormalizationPlan plan = compiler.compile(config, Schema.of(Schema.Field.of("location", Schema.Type.STRING)));
+
+        assertTrue(plan.toString().contains("converterScript=null"));
+        assertEquals(fields("location", "Seattle"), plan.normalize(event("city", "Seattle")));
+    }
+
+    @Test
+    public void testTransformerWithoutInputField() throws Exception {
+        Transformer transformer = new Transformer(null, CITY);
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(CITY),
+                Collections.singletonList(transformer), null, Collections.<FieldValueGenerator>emptyList());
+        try {
+            compiler.compile(config, Schema.of(CITY));
+            fail("A transformer without input field should not compile");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testConverterScriptsAreEvaluatedApart() throws Exception {
+        Schema.Field fahrenheit = Schema.Field.of("fahrenheit", Schema.Type.INTEGER);
+        Schema.Field label = Schema.Field.of("label", Schema.Type.STRING);
+        Transformer toFahrenheit = new Transformer(TEMPERATURE, fahrenheit);
+        // assigns an undeclared variable named after a field of the event
+        toFahrenheit.setConverterScript("city = 'assigned'\nscale = 'F'\n(temperature * 9).intdiv(5) + 32");
+        Transformer toLabel = new Transformer(CITY, label);
+        toLabel.setConverterScript("city + (getBinding().hasVariable('scale') ? ' in ' + scale : '')");
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(TEMPERATURE, CITY),
+                Arrays.asList(toFahrenheit, toLabel), null, Collections.<FieldValueGenerator>emptyList());
+
+        NormalizationPlan plan = compiler.compile(config, Schema.of(fahrenheit, label));
+
+        // the second converter sees neither the city nor the scale assigned by the first one
+        Map<String, Object> output = plan.normalize(event("temperature", 20, "city", "Seattle"));
+        assertEquals(fields("fahrenheit", 68, "label", "Seattle"), output);
+        output = plan.normalize(event("temperature", 30, "city", "Sunnyvale"));
+        assertEquals(fields("fahrenheit", 86, "label", "Sunnyvale"), output);
+    }
+
+    @Test
+    public void testConverterScriptsWithImportsAndMethodDefinitions() throws Exception {
+        Schema.Field fahrenheit = Schema.Field.of("fahrenheit", Schema.Type.INTEGER);
+        Schema.Field label = Schema.Field.of("label", Schema.Type.STRING);
+        Transformer toFahrenheit = new Transformer(TEMPERATURE, fahrenheit);
+        toFahrenheit.setConverterScript("def toFahrenheit(celsius) {\n(celsius * 9).intdiv(5) + 32\n}\ntoFahrenheit(temperature)");
+        Transformer toLabel = new Transformer(CITY, label);
+        toLabel.setConverterScript("import org.apache.commons.lang3.StringUtils\nStringUtils.upperCase(city)");
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(TEMPERATURE, CITY),
+                Arrays.asList(toFahrenheit, toLabel), null, Collections.<FieldValueGenerator>emptyList());
+
+        NormalizationPlan plan = compiler.compile(config, Schema.of(fahrenheit, label));
+
+        Map<String, Object> output = plan.normalize(event("temperature", 20, "city", "Seattle"));
+        assertEquals(fields("fahrenheit", 68, "label", "SEATTLE"), output);
+        output = plan.normalize(event("temperature", 30, "city", "Sunnyvale"));
+        assertEquals(fields("fahrenheit", 86, "label", "SUNNYVALE"), output);
+    }
+
+    @Test
+    public void testFieldValueGenerators() throws Exception {
+        Schema.Field source = Schema.Field.of("source", Schema.Type.STRING);
+        Schema.Field description = Schema.Field.of("description", Schema.Type.STRING);
+        FieldValueGenerator staticValue = new FieldValueGenerator(source, "sensor");
+        FieldValueGenerator scripted = new FieldValueGenerator();
+        scripted.setField(description);
+        scripted.setScript("city + ': ' + temperature");
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(TEMPERATURE, CITY),
+                Collections.<Transformer>emptyList(), null, Arrays.asList(staticValue, scripted));
+
+        NormalizationPlan plan = compiler.compile(config, Schema.of(TEMPERATURE, CITY, source, description));
+
+        Map<String, Object> output = plan.normalize(event("temperature", 20, "city", "Seattle"));
+        assertEquals("sensor", output.get("source"));
+        assertEquals("Seattle: 20", output.get("description"));
+        // a received field is not generated again
+        output = plan.normalize(event("temperature", 20, "city", "Seattle", "source", "gateway"));
+        assertEquals("gateway", output.get("source"));
+    }
+
+    static StreamlineEventImpl event(Object... fieldsAndValues) {
+        return new StreamlineEventImpl(fields(fieldsAndValues), "1");
+    }
+
+    static Map<String, Object> fields(Object... fieldsAndValues) {
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < fieldsAndValues.length; i += 2) {
+            fields.put((String) fieldsAndValues[i], fieldsAndValues[i + 1]);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.runtime.normalization;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldBasedNormalizationConfig;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.FieldValueGenerator;
+import com.hortonworks.streamline.streams.layout.component.impl.normalization.Transformer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.hortonworks.streamline.streams.runtime.normalization.NormalizationCompilerTest.event;
+import static com.hortonworks.streamline.streams.runtime.normalization.NormalizationCompilerTest.fields;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link NormalizationPlan}
+ */
+public class NormalizationPlanTest {
+    private static final Schema.Field TEMPERATURE = Schema.Field.of("temperature", Schema.Type.INTEGER);
+    private static final Schema.Field HUMIDITY = Schema.Field.of("humidity", Schema.Type.INTEGER);
+    private static final Schema.Field LABEL = Schema.Field.of("label", Schema.Type.STRING);
+
+    private NormalizationPlan plan;
+
+    @Before
+    public void setUp() throws Exception {
+        Transformer label = new Transformer(TEMPERATURE, LABEL);
+        label.setConverterScript("temperature > 30 ? 'hot' : (temperature < 0 ? temperature : 'mild')");
+        Transformer humidity = new Transformer(HUMIDITY, HUMIDITY);
+        humidity.setConverterScript("if (humidity > 100) { throw new IllegalStateException('humidity ' + humidity) }\nhumidity");
+        FieldBasedNormalizationConfig config = new FieldBasedNormalizationConfig(Schema.of(TEMPERATURE, HUMIDITY),
+                Arrays.asList(label, humidity), null, Collections.<FieldValueGenerator>emptyList());
+        plan = new NormalizationCompiler().compile(config, Schema.of(LABEL, HUMIDITY));
+    }
+
+    @Test
+    public void testNormalize() throws Exception {
+        assertEquals(fields("label", "hot", "humidity", 40), plan.normalize(event("temperature", 35, "humidity", 40)));
+        assertEquals(fields("label", "mild", "humidity", 60), plan.normalize(event("temperature", 20, "humidity", 60)));
+    }
+
+    @Test
+    public void testValueOfUnexpectedTypeNamesTheTransformer() throws Exception {
+        try {
+            plan.normalize(event("temperature", -5, "humidity", 40));
+            fail("A converted value of the wrong type should fail the normalization");
+        } catch (NormalizationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("[temperature -> label]"));
+        }
+    }
+
+    @Test
+    public void testFailedConverterNamesTheTransformer() throws Exception {
+        try {
+            plan.normalize(event("temperature", 20, "humidity", 120));
+            fail("A failing converter should fail the normalization");
+        } catch (NormalizationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("[humidity -> humidity]"));
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("humidity 120", e.getCause().getMessage());
+        }
+        // the plan keeps working after a failure
+        assertEquals(fields("label", "mild", "humidity", 60), plan.normalize(event("temperature", 20, "humidity", 60)));
+    }
+
+    @Test
+    public void testMissingInputField() throws Exception {
+        try {
+            plan.normalize(event("temperature", 20));
+            fail("An event without the input field of a transformer should not be normalized");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("humidity"));
+        }
+    }
+}
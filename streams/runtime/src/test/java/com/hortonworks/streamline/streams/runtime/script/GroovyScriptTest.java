@@ -17,6 +17,7 @@
 
 package com.hortonworks.streamline.streams.runtime.script;
 
+import com.hortonworks.registries.common.Schema;
 import com.hortonworks.streamline.streams.common.StreamlineEventImpl;
 import com.hortonworks.streamline.streams.runtime.script.engine.GroovyScriptEngine;
 import org.junit.Assert;
@@ -26,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.script.ScriptException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
@@ -33,6 +35,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class GroovyScriptTest {
@@ -112,4 +115,58 @@ public class GroovyScriptTest {
             Assert.fail("Exception occurred within thread, first one is " + anyException.get().getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScriptClassIsSharedBetweenInstances() throws ScriptException {
+        String groovyExpression = "shared_a + shared_b > 10";
+        HashMap<String, Object> fieldsAndValue = new HashMap<>();
+        fieldsAndValue.put("shared_a", 5);
+        fieldsAndValue.put("shared_b", 7);
+
+        assertTrue(new GroovyScript<Boolean>(groovyExpression, new GroovyScriptEngine()).evaluate(new StreamlineEventImpl(fieldsAndValue, "1")));
+        long compilations = GroovyScriptClassCache.compilations();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(new GroovyScript<Boolean>(groovyExpression, new GroovyScriptEngine()).evaluate(new StreamlineEventImpl(fieldsAndValue, "1")));
+        }
+        assertEquals(compilations, GroovyScriptClassCache.compilations());
+    }
+
+    @Test
+    public void testScriptVariablesDoNotLeakBetweenEvaluations() throws ScriptException {
+        GroovyScript<Integer> groovyScript = new GroovyScript<>("if (a > 0) { total = a }; total",
+                new GroovyScriptEngine(), Collections.<String, Object>singletonMap("total", -1));
+
+        assertEquals(Integer.valueOf(5), groovyScript.evaluate(new StreamlineEventImpl(Collections.<String, Object>singletonMap("a", 5), "1")));
+        assertEquals(Integer.valueOf(-1), groovyScript.evaluate(new StreamlineEventImpl(Collections.<String, Object>singletonMap("a", 0), "1")));
+    }
+
+    @Test
+    public void testStaticallyCompiledScript() throws ScriptException {
+        Schema schema = Schema.of(Schema.Field.of("temperature", Schema.Type.INTEGER),
+                Schema.Field.of("city", Schema.Type.STRING), Schema.Field.of("humidity", Schema.Type.INTEGER));
+        GroovyScript<Boolean> groovyScript = new GroovyScript<>("temperature > 10 && city.startsWith('S')",
+                new GroovyScriptEngine(), Collections.<String, Object>emptyMap(), schema, GroovyScript.CompileMode.COMPILE_STATIC);
+        HashMap<String, Object> fieldsAndValue = new HashMap<>();
+        fieldsAndValue.put("temperature", 20);
+        fieldsAndValue.put("city", "Seattle");
+
+        // humidity is not referenced, so it does not have to be set
+        assertTrue(groovyScript.evaluate(new StreamlineEventImpl(fieldsAndValue, "1")));
+        fieldsAndValue.put("temperature", 5);
+        assertFalse(groovyScript.evaluate(new StreamlineEventImpl(fieldsAndValue, "1")));
+    }
+
+    @Test
+    public void testStaticallyCompiledScriptWithMissingOptionalField() throws ScriptException {
+        Schema schema = Schema.of(Schema.Field.of("temperature", Schema.Type.INTEGER),
+                Schema.Field.optional("humidity", Schema.Type.INTEGER));
+        GroovyScript<Boolean> groovyScript = new GroovyScript<>("temperature > 10 && (humidity == null || humidity > 50)",
+                new GroovyScriptEngine(), Collections.<String, Object>emptyMap(), schema, GroovyScript.CompileMode.COMPILE_STATIC);
+
+        assertTrue(groovyScript.evaluate(new StreamlineEventImpl(Collections.<String, Object>singletonMap("temperature", 20), "1")));
+        HashMap<String, Object> fieldsAndValue = new HashMap<>();
+        fieldsAndValue.put("temperature", 20);
+        fieldsAndValue.put("humidity", 40);
+        assertFalse(groovyScript.evaluate(new StreamlineEventImpl(fieldsAndValue, "1")));
+    }
+}
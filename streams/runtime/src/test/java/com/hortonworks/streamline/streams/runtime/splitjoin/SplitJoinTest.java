@@ -17,6 +17,7 @@
 package com.hortonworks.streamline.streams.runtime.splitjoin;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.hortonworks.streamline.common.Constants;
 import com.hortonworks.streamline.streams.StreamlineEvent;
@@ -200,6 +201,37 @@ public class SplitJoinTest {
         Assert.assertTrue(MyJoiner.invocationCount == 1);
     }
 
+    @Test
+    public void testDefaultSplitterGroupIds() {
+        final int taskId = 7;
+        DefaultSplitter splitter = new DefaultSplitter(taskId);
+        StreamlineEvent event = createRootEvent();
+        Set<String> outputStreams = Sets.newLinkedHashSet(Lists.newArrayList("stream-1", "stream-2", "stream-3"));
+
+        List<Result> first = splitter.splitEvent(event, outputStreams);
+        List<Result> second = splitter.splitEvent(event, outputStreams);
+
+        Object groupId = first.get(0).events.get(0).getHeader().get(SplitActionRuntime.SPLIT_GROUP_ID);
+        Assert.assertTrue(groupId instanceof Long);
+        Assert.assertEquals(taskId, (long) groupId >>> 48);
+        Assert.assertNotEquals(groupId, second.get(0).events.get(0).getHeader().get(SplitActionRuntime.SPLIT_GROUP_ID));
+
+        int partNo = 0;
+        for (Result result : first) {
+            StreamlineEvent partition = result.events.get(0);
+            Map<String, Object> header = partition.getHeader();
+            Assert.assertEquals(result.stream, partition.getSourceStream());
+            Assert.assertEquals(groupId, header.get(SplitActionRuntime.SPLIT_GROUP_ID));
+            Assert.assertEquals(++partNo, header.get(SplitActionRuntime.SPLIT_PARTITION_ID));
+            Assert.assertEquals(3, header.get(SplitActionRuntime.SPLIT_TOTAL_PARTITIONS_ID));
+            Assert.assertEquals(new HashMap<>(event), new HashMap<>(partition));
+            Assert.assertNotEquals(event.getId(), partition.getId());
+            for (Map.Entry<String, Object> entry : event.getHeader().entrySet()) {
+                Assert.assertEquals(entry.getValue(), header.get(entry.getKey()));
+            }
+        }
+    }
+
     protected void resetCounters() {
         MySplitter.invocationCount= 0;
         MyJoiner.invocationCount = 0;
@@ -0,0 +1,47 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET resource method whose response only depends on the storables of the given namespaces (and on the
+ * caller's permissions). Such responses carry an ETag built from the namespace versions, so a client polling with
+ * If-None-Match gets a 304 until one of the namespaces is written. See {@link ConditionalGetFeature}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ConditionalGet {
+
+    /**
+     * The storable namespaces the response is built from.
+     */
+    String[] namespaces();
+
+    /**
+     * Query parameters which, when set to true, make the response depend on state outside of the storage (like
+     * runtime metrics), in which case the response is neither tagged nor cached.
+     */
+    String[] unlessQueryParams() default {};
+
+    /**
+     * Whether the serialized response is kept on the server and served again while the namespaces do not change.
+     */
+    boolean cacheResponse() default false;
+}
@@ -0,0 +1,73 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hortonworks.streamline.storage.StorageVersions;
+import com.hortonworks.streamline.streams.security.catalog.AclEntry;
+import com.hortonworks.streamline.streams.security.catalog.Role;
+import com.hortonworks.streamline.streams.security.catalog.RoleHierarchy;
+import com.hortonworks.streamline.streams.security.catalog.User;
+import com.hortonworks.streamline.streams.security.catalog.UserRole;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.DynamicFeature;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.FeatureContext;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registers a {@link ConditionalGetFilter} for the GET resource methods annotated with {@link ConditionalGet}.
+ * <p>
+ * The ETags also cover the security namespaces, so that a change of permissions is never answered with a 304 or a
+ * cached response. Responses kept on the server are shared by all the annotated methods and bounded by their size.
+ */
+public class ConditionalGetFeature implements DynamicFeature {
+    static final List<String> SECURITY_NAMESPACES = Arrays.asList(AclEntry.NAMESPACE, Role.NAMESPACE,
+            RoleHierarchy.NAMESPACE, User.NAMESPACE, UserRole.NAMESPACE);
+
+    private static final long DEFAULT_MAX_CACHED_BYTES = 32 * 1024 * 1024;
+
+    private final StorageVersions versions;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, ConditionalGetFilter.CachedResponse> responseCache;
+
+    public ConditionalGetFeature(StorageVersions versions, ObjectMapper objectMapper) {
+        this(versions, objectMapper, DEFAULT_MAX_CACHED_BYTES);
+    }
+
+    public ConditionalGetFeature(StorageVersions versions, ObjectMapper objectMapper, long maxCachedBytes) {
+        this.versions = versions;
+        this.objectMapper = objectMapper;
+        this.responseCache = CacheBuilder.newBuilder()
+                .maximumWeight(maxCachedBytes)
+                .weigher((String key, ConditionalGetFilter.CachedResponse response) -> key.length() + response.getBytes().length)
+                .build();
+    }
+
+    @Override
+    public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+        ConditionalGet conditionalGet = resourceInfo.getResourceMethod().getAnnotation(ConditionalGet.class);
+        if (conditionalGet != null && resourceInfo.getResourceMethod().isAnnotationPresent(GET.class)) {
+            // after the authentication filters, which set the principal the responses are keyed by
+            context.register(new ConditionalGetFilter(conditionalGet, versions, objectMapper, responseCache), Priorities.USER);
+        }
+    }
+}
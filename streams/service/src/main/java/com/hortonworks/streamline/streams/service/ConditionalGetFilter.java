@@ -0,0 +1,154 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.hortonworks.streamline.storage.StorageVersions;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers the GET requests of a {@link ConditionalGet} method from the versions of its namespaces: the versions are
+ * read before the resource method runs and make up the (weak) ETag of the response, a matching If-None-Match gets a
+ * 304 and, when enabled, a response serialized for the same request and versions is written again as is.
+ * <p>
+ * Responses are keyed by the caller too, since the resources filter what they return by permission. Reading the
+ * versions before the storage means a response is never tagged with versions newer than the data it holds.
+ */
+class ConditionalGetFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final String ETAG_PROPERTY = ConditionalGetFilter.class.getName() + ".etag";
+    private static final String CACHE_KEY_PROPERTY = ConditionalGetFilter.class.getName() + ".cacheKey";
+    private static final CacheControl NO_CACHE = CacheControl.valueOf("private, no-cache");
+
+    private final ConditionalGet conditionalGet;
+    private final List<String> namespaces;
+    private final StorageVersions versions;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedResponse> responseCache;
+
+    ConditionalGetFilter(ConditionalGet conditionalGet, StorageVersions versions, ObjectMapper objectMapper,
+                         Cache<String, CachedResponse> responseCache) {
+        this.conditionalGet = conditionalGet;
+        this.namespaces = new ArrayList<>(ConditionalGetFeature.SECURITY_NAMESPACES);
+        for (String namespace : conditionalGet.namespaces()) {
+            if (!namespaces.contains(namespace)) {
+                namespaces.add(namespace);
+            }
+        }
+        this.versions = versions;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        if (!"GET".equals(requestContext.getMethod()) || bypassed(requestContext)) {
+            return;
+        }
+        String principal = principal(requestContext);
+        EntityTag etag = new EntityTag(tagValue(principal), true);
+        requestContext.setProperty(ETAG_PROPERTY, etag);
+
+        Response.ResponseBuilder notModified = requestContext.getRequest().evaluatePreconditions(etag);
+        if (notModified != null) {
+            requestContext.abortWith(notModified.tag(etag).cacheControl(NO_CACHE).build());
+            return;
+        }
+        if (conditionalGet.cacheResponse()) {
+            String cacheKey = requestContext.getUriInfo().getRequestUri().getRawPath() + "?"
+                    + requestContext.getUriInfo().getRequestUri().getRawQuery() + "#" + principal + "#" + etag.getValue();
+            CachedResponse cached = responseCache.getIfPresent(cacheKey);
+            if (cached != null) {
+                requestContext.abortWith(Response.ok(cached.getBytes(), cached.getMediaType()).build());
+            } else {
+                requestContext.setProperty(CACHE_KEY_PROPERTY, cacheKey);
+            }
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        EntityTag etag = (EntityTag) requestContext.getProperty(ETAG_PROPERTY);
+        if (etag == null || responseContext.getStatus() != Response.Status.OK.getStatusCode()) {
+            return;
+        }
+        responseContext.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+        responseContext.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, NO_CACHE);
+
+        String cacheKey = (String) requestContext.getProperty(CACHE_KEY_PROPERTY);
+        if (cacheKey != null && responseContext.hasEntity()) {
+            MediaType mediaType = responseContext.getMediaType() != null
+                    ? responseContext.getMediaType() : MediaType.APPLICATION_JSON_TYPE;
+            byte[] bytes = objectMapper.writeValueAsBytes(responseContext.getEntity());
+            responseCache.put(cacheKey, new CachedResponse(bytes, mediaType));
+            responseContext.setEntity(bytes, responseContext.getEntityAnnotations(), mediaType);
+        }
+    }
+
+    private boolean bypassed(ContainerRequestContext requestContext) {
+        for (String param : conditionalGet.unlessQueryParams()) {
+            if (Boolean.parseBoolean(requestContext.getUriInfo().getQueryParameters().getFirst(param))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String tagValue(String principal) {
+        StringBuilder value = new StringBuilder(Long.toHexString(versions.getEpoch()));
+        for (String namespace : namespaces) {
+            value.append('-').append(Long.toHexString(versions.get(namespace)));
+        }
+        return value.append('-').append(Integer.toHexString(principal.hashCode())).toString();
+    }
+
+    private static String principal(ContainerRequestContext requestContext) {
+        Principal principal = requestContext.getSecurityContext() != null
+                ? requestContext.getSecurityContext().getUserPrincipal() : null;
+        return principal != null && principal.getName() != null ? principal.getName() : "";
+    }
+
+    static final class CachedResponse {
+        private final byte[] bytes;
+        private final MediaType mediaType;
+
+        CachedResponse(byte[] bytes, MediaType mediaType) {
+            this.bytes = bytes;
+            this.mediaType = mediaType;
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+}
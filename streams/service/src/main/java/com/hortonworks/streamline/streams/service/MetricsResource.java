@@ -20,7 +20,6 @@ package com.hortonworks.streamline.streams.service;
 import com.codahale.metrics.annotation.Timed;
 import com.hortonworks.streamline.common.exception.service.exception.request.BadRequestException;
 import com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException;
-import com.hortonworks.streamline.common.util.ParallelStreamUtil;
 import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Topology;
 import com.hortonworks.streamline.streams.catalog.TopologyComponent;
@@ -30,7 +29,6 @@ import com.hortonworks.streamline.streams.metrics.topology.TopologyTimeSeriesMet
 import com.hortonworks.streamline.streams.metrics.topology.service.TopologyMetricsService;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,12 +43,11 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ForkJoinPool;
 
 import static com.hortonworks.streamline.streams.security.Permission.READ;
-import static java.util.stream.Collectors.toMap;
 import static javax.ws.rs.core.Response.Status.OK;
 
 /**
@@ -60,10 +57,6 @@ import static javax.ws.rs.core.Response.Status.OK;
 @Produces(MediaType.APPLICATION_JSON)
 public class MetricsResource {
     private static final Logger LOG = LoggerFactory.getLogger(MetricsResource.class);
-    private static final int FORK_JOIN_POOL_PARALLELISM = 10;
-
-    private final ForkJoinPool forkJoinPool = new ForkJoinPool(FORK_JOIN_POOL_PARALLELISM);
-
     private final StreamlineAuthorizer authorizer;
     private final StreamCatalogService catalogService;
     private final TopologyMetricsService metricsService;
@@ -94,13 +87,14 @@ public class MetricsResource {
     public Response getTopologyMetricsViaTimeSeriesById(@PathParam("id") Long id,
                                                         @QueryParam("from") Long from,
                                                         @QueryParam("to") Long to,
+                                                        @QueryParam("resolution") Long resolution,
                                                         @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, id, READ);
         assertTimeRange(from, to);
         Topology topology = catalogService.getTopology(id);
         if (topology != null) {
             TopologyTimeSeriesMetrics.TimeSeriesComponentMetric topologyMetrics =
-                    metricsService.getTopologyStats(topology, from, to);
+                    metricsService.getTopologyStats(topology, from, to, toResolution(resolution));
             return WSUtils.respondEntity(topologyMetrics, OK);
         }
 
@@ -136,6 +130,7 @@ public class MetricsResource {
     public Response getComponentStats(@PathParam("id") Long id,
                                       @QueryParam("from") Long from,
                                       @QueryParam("to") Long to,
+                                      @QueryParam("resolution") Long resolution,
                                       @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, id, READ);
         assertTimeRange(from, to);
@@ -150,16 +145,9 @@ public class MetricsResource {
             topologyComponents.addAll(catalogService.listTopologyProcessors(queryParams));
             topologyComponents.addAll(catalogService.listTopologySinks(queryParams));
 
-            Map<String, TopologyTimeSeriesMetrics.TimeSeriesComponentMetric> topologyMetrics = ParallelStreamUtil.execute(() ->
-                    topologyComponents.parallelStream()
-                            .map(c -> {
-                                try {
-                                    return Pair.of(c, metricsService.getComponentStats(topology, c, from, to));
-                                } catch (IOException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            })
-                            .collect(toMap(m -> m.getKey().getId().toString(), m -> m.getValue())), forkJoinPool);
+            // stats for all the components are retrieved with one batched query
+            Map<String, TopologyTimeSeriesMetrics.TimeSeriesComponentMetric> topologyMetrics =
+                    metricsService.getComponentStats(topology, topologyComponents, from, to, toResolution(resolution));
 
             return WSUtils.respondEntity(topologyMetrics, OK);
         }
@@ -174,6 +162,7 @@ public class MetricsResource {
                                       @PathParam("topologyComponentId") Long topologyComponentId,
                                       @QueryParam("from") Long from,
                                       @QueryParam("to") Long to,
+                                      @QueryParam("resolution") Long resolution,
                                       @Context SecurityContext securityContext) throws IOException {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, id, READ);
         assertTimeRange(from, to);
@@ -181,7 +170,8 @@ public class MetricsResource {
         TopologyComponent topologyComponent = catalogService.getTopologyComponent(id, topologyComponentId);
         if (topology != null && topologyComponent != null) {
             TopologyTimeSeriesMetrics.TimeSeriesComponentMetric metrics =
-                    metricsService.getComponentStats(topology, topologyComponent, from, to);
+                    metricsService.getComponentStats(topology, Collections.singletonList(topologyComponent), from, to,
+                            toResolution(resolution)).get(topologyComponent.getId().toString());
             return WSUtils.respondEntity(metrics, OK);
         } else if (topology == null) {
             throw EntityNotFoundException.byId("Topology: " + id.toString());
@@ -222,4 +212,15 @@ public class MetricsResource {
             throw BadRequestException.missingParameter("to");
         }
     }
+
+    // resolution is optional: when missing, data points are returned in the resolution they're stored
+    private long toResolution(Long resolution) {
+        if (resolution == null) {
+            return 0L;
+        }
+        if (resolution < 0) {
+            throw BadRequestException.message("resolution should be equal or greater than 0");
+        }
+        return resolution;
+    }
 }
@@ -19,6 +19,7 @@ package com.hortonworks.streamline.streams.service;
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
@@ -47,6 +48,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import static javax.ws.rs.core.Response.Status.OK;
 
@@ -58,11 +60,19 @@ public class SchemaResource {
     private static final Logger LOG = LoggerFactory.getLogger(SchemaResource.class);
 
     private final StreamlineAuthorizer authorizer;
-    private final SchemaRegistryClient schemaRegistryClient;
+    private final Supplier<SchemaRegistryClient> schemaRegistryClient;
 
     public SchemaResource(StreamlineAuthorizer authorizer, SchemaRegistryClient schemaRegistryClient) {
+        this(authorizer, () -> schemaRegistryClient);
+    }
+
+    /**
+     * Creates the resource with a supplier of the schema registry client, so that the client is only created
+     * when the first schema request comes in.
+     */
+    public SchemaResource(StreamlineAuthorizer authorizer, Supplier<SchemaRegistryClient> schemaRegistryClient) {
         this.authorizer = authorizer;
-        this.schemaRegistryClient = schemaRegistryClient;
+        this.schemaRegistryClient = Suppliers.memoize(schemaRegistryClient::get)::get;
     }
 
     @POST
@@ -76,7 +86,7 @@ public class SchemaResource {
         SchemaIdVersion schemaIdVersion = null;
         SchemaMetadata schemaMetadata = streamsSchemaInfo.getSchemaMetadata();
         String schemaName = schemaMetadata.getName();
-        Long schemaMetadataId = schemaRegistryClient.registerSchemaMetadata(schemaMetadata);
+        Long schemaMetadataId = schemaRegistryClient.get().registerSchemaMetadata(schemaMetadata);
         LOG.info("Registered schemaMetadataId [{}] for schema with name:[{}]", schemaMetadataId, schemaName);
 
         String streamsSchemaText = streamsSchemaInfo.getSchemaVersion().getSchemaText();
@@ -84,7 +94,7 @@ public class SchemaResource {
             // convert streams schema to avro schema.
             String avroSchemaText = AvroStreamlineSchemaConverter.convertStreamlineSchemaToAvroSchema(streamsSchemaText);
             SchemaVersion avroSchemaVersion = new SchemaVersion(avroSchemaText, streamsSchemaInfo.getSchemaVersion().getDescription());
-            schemaIdVersion = schemaRegistryClient.addSchemaVersion(schemaName, avroSchemaVersion);
+            schemaIdVersion = schemaRegistryClient.get().addSchemaVersion(schemaName, avroSchemaVersion);
         } catch (SchemaNotFoundException e) {
             LOG.error("Schema not found for topic: [{}]", schemaName, e);
             throw EntityNotFoundException.byId(schemaName);
@@ -118,7 +128,7 @@ public class SchemaResource {
             // for now, takes care of kafka for topic values. We will enhance to work this to get schema for different
             // sources based on given properties.
             String schemaName = topicName + ":v";
-            SchemaVersionInfo schemaVersionInfo = schemaRegistryClient.getLatestSchemaVersionInfo(schemaName);
+            SchemaVersionInfo schemaVersionInfo = schemaRegistryClient.get().getLatestSchemaVersionInfo(schemaName);
             String schema = schemaVersionInfo != null ? schemaVersionInfo.getSchemaText() : null;
             LOG.debug("######### Received schema from schema registry: ", schema);
             if (schema != null && !schema.isEmpty()) {
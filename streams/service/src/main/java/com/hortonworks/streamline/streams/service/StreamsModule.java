@@ -71,7 +71,7 @@ public class StreamsModule implements ModuleRegistration, StorageManagerAware {
         final CatalogService catalogService = new CatalogService(storageManager, fileStorage, tagClient);
         final TopologyActionsService topologyActionsService = new TopologyActionsService(streamcatalogService,
                 environmentService, fileStorage, modelRegistryClient, config);
-        final TopologyMetricsService topologyMetricsService = new TopologyMetricsService(environmentService);
+        final TopologyMetricsService topologyMetricsService = new TopologyMetricsService(environmentService, config);
 
         environmentService.addNamespaceAwareContainer(topologyActionsService);
         environmentService.addNamespaceAwareContainer(topologyMetricsService);
@@ -93,7 +93,7 @@ public class StreamsModule implements ModuleRegistration, StorageManagerAware {
                 topologyMetricsService, securityCatalogService));
         result.add(new UDFCatalogResource(authorizer, streamcatalogService, fileStorage));
         result.addAll(getNotificationsRelatedResources(authorizer, streamcatalogService));
-        result.add(new SchemaResource(authorizer, createSchemaRegistryClient()));
+        result.add(new SchemaResource(authorizer, this::createSchemaRegistryClient));
         result.addAll(getServiceMetadataResources(authorizer, environmentService));
         result.add(new NamespaceCatalogResource(authorizer, streamcatalogService, topologyActionsService, environmentService));
         watchFiles(streamcatalogService);
@@ -120,6 +120,8 @@ public class TopologyCatalogResource {
     @GET
     @Path("/topologies")
     @Timed
+    @ConditionalGet(namespaces = {NAMESPACE, TopologyVersion.NAME_SPACE}, unlessQueryParams = "detail",
+            cacheResponse = true)
     public Response listTopologies (@javax.ws.rs.QueryParam("detail") Boolean detail,
                                     @javax.ws.rs.QueryParam("sort") String sortType,
                                     @javax.ws.rs.QueryParam("ascending") Boolean ascending,
@@ -153,6 +155,7 @@ public class TopologyCatalogResource {
     @GET
     @Path("/topologies/{topologyId}")
     @Timed
+    @ConditionalGet(namespaces = {NAMESPACE, TopologyVersion.NAME_SPACE}, unlessQueryParams = "detail")
     public Response getTopologyById(@PathParam("topologyId") Long topologyId,
                                     @javax.ws.rs.QueryParam("detail") Boolean detail,
                                     @javax.ws.rs.QueryParam("latencyTopN") Integer latencyTopN,
@@ -171,6 +174,7 @@ public class TopologyCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}")
     @Timed
+    @ConditionalGet(namespaces = {NAMESPACE, TopologyVersion.NAME_SPACE}, unlessQueryParams = "detail")
     public Response getTopologyByIdAndVersion(@PathParam("topologyId") Long topologyId,
                                               @PathParam("versionId") Long versionId,
                                               @javax.ws.rs.QueryParam("detail") Boolean detail,
@@ -202,6 +206,7 @@ public class TopologyCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions")
     @Timed
+    @ConditionalGet(namespaces = {NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response listTopologyVersions(@PathParam("topologyId") Long topologyId, @Context SecurityContext securityContext) {
         SecurityUtil.checkPermissions(authorizer, securityContext, NAMESPACE, topologyId, READ);
         Collection<TopologyVersion> versionInfos = catalogService.listTopologyVersionInfos(
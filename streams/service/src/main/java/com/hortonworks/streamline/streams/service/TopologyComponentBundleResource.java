@@ -18,6 +18,7 @@ package com.hortonworks.streamline.streams.service;
 
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.streamline.common.QueryParam;
 import com.hortonworks.streamline.common.exception.service.exception.request.BadRequestException;
@@ -67,9 +68,16 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.CREATED;
@@ -83,16 +91,22 @@ public class TopologyComponentBundleResource {
     public static final String CP_INFO_PARAM_NAME = "customProcessorInfo";
     public static final String BUNDLE_JAR_FILE_PARAM_NAME = "bundleJar";
     public static final String TOPOLOGY_COMPONENT_BUNDLE_PARAM_NAME = "topologyComponentBundle";
+    private static final int HINT_PROVIDER_PARALLELISM = 8;
+    // a hint provider calls external services, the request does not wait for the slow ones beyond this
+    private static final long HINT_PROVIDER_TIMEOUT_MS = 30_000L;
     private final StreamlineAuthorizer authorizer;
     private final StreamCatalogService catalogService;
     private final EnvironmentService environmentService;
     private final ProxyUtil<ComponentBundleHintProvider> hintProviderProxyUtil;
+    private final ExecutorService hintExecutor;
 
     public TopologyComponentBundleResource(StreamlineAuthorizer authorizer, StreamCatalogService catalogService, EnvironmentService environmentService) {
         this.authorizer = authorizer;
         this.catalogService = catalogService;
         this.environmentService = environmentService;
         this.hintProviderProxyUtil = new ProxyUtil<>(ComponentBundleHintProvider.class);
+        this.hintExecutor = Executors.newFixedThreadPool(HINT_PROVIDER_PARALLELISM,
+                new ThreadFactoryBuilder().setNameFormat("bundle-hints-%d").setDaemon(true).build());
     }
 
     /**
@@ -517,15 +531,7 @@ public class TopologyComponentBundleResource {
 
         String providerClass = bundle.getFieldHintProviderClass();
         if (StringUtils.isNotEmpty(providerClass)) {
-            ComponentBundleHintProvider provider;
-            if (bundle.getBuiltin()) {
-                Class<ComponentBundleHintProvider> clazz = (Class<ComponentBundleHintProvider>) Class.forName(providerClass);
-                provider = clazz.newInstance();
-            } else {
-                provider = hintProviderProxyUtil.loadClassFromJar(bundle.getBundleJar(), providerClass);
-            }
-
-            provider.init(environmentService);
+            ComponentBundleHintProvider provider = createHintProvider(bundle);
 
             Namespace namespace = environmentService.getNamespace(namespaceId);
             if (namespace == null) {
@@ -539,6 +545,74 @@ public class TopologyComponentBundleResource {
         }
     }
 
+    /**
+     * Get the field hints of all the component bundles having a hint provider, for the selected namespace. The hint
+     * providers are called in parallel, and a bundle whose hints cannot be retrieved, or are not retrieved within
+     * {@value #HINT_PROVIDER_TIMEOUT_MS} ms overall, is left out of the response.
+     * <p>
+     * GET api/v1/catalog/streams/componentbundles/hints/namespaces/1
+     * </p>
+     * <pre>
+     * {"responseCode":1000,"responseMessage":"Success","entity":{"1":{"1":{"cluster":{...},"hints":{"topic":["t1"]}}}}}
+     * </pre>
+     */
+    @GET
+    @Path("/componentbundles/hints/namespaces/{namespaceId}")
+    @Timed
+    public Response getAllFieldHints(@PathParam("namespaceId") Long namespaceId,
+                                     @Context SecurityContext securityContext) throws Exception {
+        SecurityUtil.checkRole(authorizer, securityContext, Roles.ROLE_TOPOLOGY_COMPONENT_BUNDLE_USER);
+        Namespace namespace = environmentService.getNamespace(namespaceId);
+        if (namespace == null) {
+            throw EntityNotFoundException.byId("namespace id: " + namespaceId);
+        }
+
+        Map<Long, Future<Map<Long, ComponentBundleHintProvider.BundleHintsResponse>>> futures = new LinkedHashMap<>();
+        for (TopologyComponentBundle.TopologyComponentType componentType : TopologyComponentBundle.TopologyComponentType.values()) {
+            Collection<TopologyComponentBundle> bundles = catalogService.listTopologyComponentBundlesForTypeWithFilter(
+                    componentType, Collections.emptyList());
+            if (bundles == null) {
+                continue;
+            }
+            for (TopologyComponentBundle bundle : bundles) {
+                if (StringUtils.isNotEmpty(bundle.getFieldHintProviderClass())) {
+                    // a plain future, unlike a CompletableFuture, interrupts the provider when cancelled on timeout
+                    futures.put(bundle.getId(), hintExecutor.submit(() -> createHintProvider(bundle).provide(namespace)));
+                }
+            }
+        }
+
+        Map<Long, Map<Long, ComponentBundleHintProvider.BundleHintsResponse>> hints = new LinkedHashMap<>();
+        long deadline = System.currentTimeMillis() + HINT_PROVIDER_TIMEOUT_MS;
+        for (Map.Entry<Long, Future<Map<Long, ComponentBundleHintProvider.BundleHintsResponse>>> entry : futures.entrySet()) {
+            try {
+                long remainingMs = Math.max(0L, deadline - System.currentTimeMillis());
+                hints.put(entry.getKey(), entry.getValue().get(remainingMs, TimeUnit.MILLISECONDS));
+            } catch (ExecutionException e) {
+                LOG.warn("Unable to get field hints of component bundle {}", entry.getKey(), e.getCause());
+            } catch (TimeoutException e) {
+                LOG.warn("Field hints of component bundle {} not retrieved within {} ms", entry.getKey(),
+                        HINT_PROVIDER_TIMEOUT_MS);
+                entry.getValue().cancel(true);
+            }
+        }
+        return WSUtils.respondEntity(hints, OK);
+    }
+
+    private ComponentBundleHintProvider createHintProvider(TopologyComponentBundle bundle) throws Exception {
+        String providerClass = bundle.getFieldHintProviderClass();
+        ComponentBundleHintProvider provider;
+        if (bundle.getBuiltin()) {
+            Class<ComponentBundleHintProvider> clazz = (Class<ComponentBundleHintProvider>) Class.forName(providerClass);
+            provider = clazz.newInstance();
+        } else {
+            provider = hintProviderProxyUtil.loadClassFromJar(bundle.getBundleJar(), providerClass);
+        }
+
+        provider.init(environmentService);
+        return provider;
+    }
+
     private void validateTopologyBundle (TopologyComponentBundle topologyComponentBundle) {
         Optional<String> missingParam = Optional.empty();
         if (StringUtils.isEmpty(topologyComponentBundle.getName())) {
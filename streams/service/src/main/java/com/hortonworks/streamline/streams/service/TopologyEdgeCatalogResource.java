@@ -22,6 +22,7 @@ import com.hortonworks.streamline.common.exception.service.exception.request.Ent
 import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Topology;
 import com.hortonworks.streamline.streams.catalog.TopologyEdge;
+import com.hortonworks.streamline.streams.catalog.TopologyVersion;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
@@ -90,6 +91,7 @@ public class TopologyEdgeCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/edges")
     @Timed
+    @ConditionalGet(namespaces = {TopologyEdge.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologyEdges(@PathParam("topologyId") Long topologyId, @Context UriInfo uriInfo,
                                       @Context SecurityContext securityContext) throws Exception {
         Long currentVersionId = catalogService.getCurrentVersionId(topologyId);
@@ -102,6 +104,7 @@ public class TopologyEdgeCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/edges")
     @Timed
+    @ConditionalGet(namespaces = {TopologyEdge.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologyEdgesForVersion(@PathParam("topologyId") Long topologyId,
                                                 @PathParam("versionId") Long versionId,
                                                 @Context UriInfo uriInfo,
@@ -149,6 +152,7 @@ public class TopologyEdgeCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/edges/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologyEdge.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologyEdgeById(@PathParam("topologyId") Long topologyId, @PathParam("id") Long edgeId,
                                         @Context SecurityContext securityContext) {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, topologyId, READ);
@@ -163,6 +167,7 @@ public class TopologyEdgeCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/edges/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologyEdge.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologyEdgeByIdAndVersion(@PathParam("topologyId") Long topologyId,
                                                   @PathParam("id") Long edgeId,
                                                   @PathParam("versionId") Long versionId,
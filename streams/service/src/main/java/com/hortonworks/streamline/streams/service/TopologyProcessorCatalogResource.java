@@ -22,6 +22,9 @@ import com.hortonworks.streamline.common.exception.service.exception.request.Ent
 import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Topology;
 import com.hortonworks.streamline.streams.catalog.TopologyProcessor;
+import com.hortonworks.streamline.streams.catalog.TopologyProcessorStreamMapping;
+import com.hortonworks.streamline.streams.catalog.TopologyStream;
+import com.hortonworks.streamline.streams.catalog.TopologyVersion;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
@@ -90,6 +93,8 @@ public class TopologyProcessorCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/processors")
     @Timed
+    @ConditionalGet(namespaces = {TopologyProcessor.NAMESPACE, TopologyProcessorStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologyProcessors(@PathParam("topologyId") Long topologyId, @Context UriInfo uriInfo,
                                            @Context SecurityContext securityContext) throws Exception {
         Long currentVersionId = catalogService.getCurrentVersionId(topologyId);
@@ -102,6 +107,8 @@ public class TopologyProcessorCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/processors")
     @Timed
+    @ConditionalGet(namespaces = {TopologyProcessor.NAMESPACE, TopologyProcessorStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologyProcessorsForVersion(@PathParam("topologyId") Long topologyId,
                                                      @PathParam("versionId") Long versionId,
                                                      @Context UriInfo uriInfo,
@@ -149,6 +156,8 @@ public class TopologyProcessorCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/processors/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologyProcessor.NAMESPACE, TopologyProcessorStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologyProcessorById(@PathParam("topologyId") Long topologyId, @PathParam("id") Long processorId,
                                              @Context SecurityContext securityContext) {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, topologyId, READ);
@@ -163,6 +172,8 @@ public class TopologyProcessorCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/processors/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologyProcessor.NAMESPACE, TopologyProcessorStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologyProcessorByIdAndVersion(@PathParam("topologyId") Long topologyId,
                                                        @PathParam("id") Long processorId,
                                                        @PathParam("versionId") Long versionId,
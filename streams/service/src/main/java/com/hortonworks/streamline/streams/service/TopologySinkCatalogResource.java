@@ -22,6 +22,7 @@ import com.hortonworks.streamline.common.exception.service.exception.request.Ent
 import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Topology;
 import com.hortonworks.streamline.streams.catalog.TopologySink;
+import com.hortonworks.streamline.streams.catalog.TopologyVersion;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
@@ -89,6 +90,7 @@ public class TopologySinkCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/sinks")
     @Timed
+    @ConditionalGet(namespaces = {TopologySink.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologySinks(@PathParam("topologyId") Long topologyId, @Context UriInfo uriInfo,
                                       @Context SecurityContext securityContext) throws Exception {
         Long currentVersionId = catalogService.getCurrentVersionId(topologyId);
@@ -101,6 +103,7 @@ public class TopologySinkCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/sinks")
     @Timed
+    @ConditionalGet(namespaces = {TopologySink.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologySinksForVersion(@PathParam("topologyId") Long topologyId,
                                                 @PathParam("versionId") Long versionId,
                                                 @Context UriInfo uriInfo,
@@ -148,6 +151,7 @@ public class TopologySinkCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/sinks/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologySink.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologySinkById(@PathParam("topologyId") Long topologyId, @PathParam("id") Long sinkId,
                                         @Context SecurityContext securityContext) {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, topologyId, READ);
@@ -162,6 +166,7 @@ public class TopologySinkCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/sinks/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologySink.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologySinkByIdAndVersion(@PathParam("topologyId") Long topologyId,
                                                   @PathParam("id") Long sourceId,
                                                   @PathParam("versionId") Long versionId,
@@ -22,6 +22,9 @@ import com.hortonworks.streamline.common.exception.service.exception.request.Ent
 import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Topology;
 import com.hortonworks.streamline.streams.catalog.TopologySource;
+import com.hortonworks.streamline.streams.catalog.TopologySourceStreamMapping;
+import com.hortonworks.streamline.streams.catalog.TopologyStream;
+import com.hortonworks.streamline.streams.catalog.TopologyVersion;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
@@ -91,6 +94,8 @@ public class TopologySourceCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/sources")
     @Timed
+    @ConditionalGet(namespaces = {TopologySource.NAMESPACE, TopologySourceStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologySources(@PathParam("topologyId") Long topologyId, @Context UriInfo uriInfo,
                                         @Context SecurityContext securityContext) throws Exception {
         Long currentVersionId = catalogService.getCurrentVersionId(topologyId);
@@ -103,6 +108,8 @@ public class TopologySourceCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/sources")
     @Timed
+    @ConditionalGet(namespaces = {TopologySource.NAMESPACE, TopologySourceStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listTopologySourcesForVersion(@PathParam("topologyId") Long topologyId,
                                                   @PathParam("versionId") Long versionId,
                                                   @Context UriInfo uriInfo,
@@ -152,6 +159,8 @@ public class TopologySourceCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/sources/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologySource.NAMESPACE, TopologySourceStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologySourceById(@PathParam("topologyId") Long topologyId, @PathParam("id") Long sourceId,
                                           @Context SecurityContext securityContext) {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, topologyId, READ);
@@ -166,6 +175,8 @@ public class TopologySourceCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/sources/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologySource.NAMESPACE, TopologySourceStreamMapping.NAMESPACE,
+            TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getTopologySourceByIdAndVersion(@PathParam("topologyId") Long topologyId,
                                                     @PathParam("id") Long sourceId,
                                                     @PathParam("versionId") Long versionId,
@@ -22,6 +22,7 @@ import com.hortonworks.streamline.common.exception.service.exception.request.Ent
 import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Topology;
 import com.hortonworks.streamline.streams.catalog.TopologyStream;
+import com.hortonworks.streamline.streams.catalog.TopologyVersion;
 import com.hortonworks.streamline.streams.catalog.service.StreamCatalogService;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
@@ -95,6 +96,7 @@ public class TopologyStreamCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/streams")
     @Timed
+    @ConditionalGet(namespaces = {TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listStreamInfos(@PathParam("topologyId") Long topologyId, @Context UriInfo uriInfo,
                                     @Context SecurityContext securityContext) throws Exception {
         return listTopologyStreams(
@@ -106,6 +108,7 @@ public class TopologyStreamCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/streams")
     @Timed
+    @ConditionalGet(namespaces = {TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE}, cacheResponse = true)
     public Response listStreamInfosForVersion(@PathParam("topologyId") Long topologyId,
                                               @PathParam("versionId") Long versionId,
                                               @Context UriInfo uriInfo,
@@ -155,6 +158,7 @@ public class TopologyStreamCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/streams/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getStreamInfoById(@PathParam("topologyId") Long topologyId, @PathParam("id") Long streamId,
                                       @Context SecurityContext securityContext) {
         SecurityUtil.checkPermissions(authorizer, securityContext, Topology.NAMESPACE, topologyId, READ);
@@ -169,6 +173,7 @@ public class TopologyStreamCatalogResource {
     @GET
     @Path("/topologies/{topologyId}/versions/{versionId}/streams/{id}")
     @Timed
+    @ConditionalGet(namespaces = {TopologyStream.NAMESPACE, TopologyVersion.NAME_SPACE})
     public Response getStreamInfoById(@PathParam("topologyId") Long topologyId,
                                       @PathParam("versionId") Long versionId,
                                       @PathParam("id") Long streamId,
@@ -43,6 +43,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 
@@ -135,6 +136,50 @@ public class TopologyTestRunResource {
         }
     }
 
+    @GET
+    @Path("/topologies/{topologyId}/testhistories/{historyId}/actualoutput")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Timed
+    public Response getActualOutputOfTestRunTopology (@PathParam("topologyId") Long topologyId,
+                                                      @PathParam("historyId") Long historyId) throws Exception {
+        TopologyTestRunHistory history = catalogService.getTopologyTestRunHistory(historyId);
+
+        if (history == null) {
+            throw EntityNotFoundException.byId(String.valueOf(historyId));
+        }
+
+        if (!history.getTopologyId().equals(topologyId)) {
+            throw BadRequestException.message("Test history " + historyId + " is not belong to topology " + topologyId);
+        }
+
+        if (history.getActualOutputRecordsFile() != null) {
+            InputStream inputStream = catalogService.downloadFileFromStorage(history.getActualOutputRecordsFile());
+            return Response.ok(WSUtils.wrapWithStreamingOutput(inputStream)).build();
+        } else if (history.getActualOutputRecords() != null) {
+            return Response.ok(history.getActualOutputRecords()).build();
+        }
+
+        throw EntityNotFoundException.byFilter("actual output of test history " + historyId);
+    }
+
+    @DELETE
+    @Path("/topologies/{topologyId}/testhistories/{historyId}")
+    @Timed
+    public Response removeHistoryOfTestRunTopology (@PathParam("topologyId") Long topologyId,
+                                                    @PathParam("historyId") Long historyId) throws Exception {
+        TopologyTestRunHistory history = catalogService.getTopologyTestRunHistory(historyId);
+
+        if (history == null) {
+            throw EntityNotFoundException.byId(String.valueOf(historyId));
+        }
+
+        if (!history.getTopologyId().equals(topologyId)) {
+            throw BadRequestException.message("Test history " + historyId + " is not belong to topology " + topologyId);
+        }
+
+        return WSUtils.respondEntity(catalogService.removeTopologyTestRunHistory(historyId), OK);
+    }
+
     private List<TopologyTestRunHistory> filterHistories(Integer limit, Collection<TopologyTestRunHistory> histories) {
         if (limit == null) {
             limit = DEFAULT_LIST_ENTITIES_COUNT;
@@ -20,7 +20,7 @@ import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.exception.EntityNotFoundException;
 import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
-import com.hortonworks.streamline.streams.cluster.service.metadata.HBaseMetadataService;
+import com.hortonworks.streamline.streams.cluster.service.metadata.ClusterMetadataClients;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
 import org.slf4j.Logger;
@@ -30,6 +30,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -54,10 +55,11 @@ public class HBaseMetadataResource {
     @Path("/clusters/{clusterId}/services/hbase/namespaces")
     @Timed
     public Response getNamespacesByClusterId(@PathParam("clusterId") Long clusterId,
+                                             @QueryParam("refresh") boolean refresh,
                                              @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Cluster.NAMESPACE, clusterId, READ);
-        try (HBaseMetadataService hbaseMetadataService = HBaseMetadataService.newInstance(environmentService, clusterId)) {
-            return WSUtils.respondEntity(hbaseMetadataService.getHBaseNamespaces(), OK);
+        try {
+            return WSUtils.respondEntity(metadataClients(clusterId, refresh).getHBaseNamespaces(clusterId), OK);
         } catch (EntityNotFoundException ex) {
             throw com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException.byId(ex.getMessage());
         }
@@ -69,10 +71,11 @@ public class HBaseMetadataResource {
     @Path("/clusters/{clusterId}/services/hbase/tables")
     @Timed
     public Response getTablesByClusterId(@PathParam("clusterId") Long clusterId,
+                                         @QueryParam("refresh") boolean refresh,
                                          @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Cluster.NAMESPACE, clusterId, READ);
-        try (HBaseMetadataService hbaseMetadataService = HBaseMetadataService.newInstance(environmentService, clusterId)) {
-            return WSUtils.respondEntity(hbaseMetadataService.getHBaseTables(), OK);
+        try {
+            return WSUtils.respondEntity(metadataClients(clusterId, refresh).getHBaseTables(clusterId), OK);
         } catch (EntityNotFoundException ex) {
             throw com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException.byId(ex.getMessage());
         }
@@ -84,14 +87,21 @@ public class HBaseMetadataResource {
     @Path("/clusters/{clusterId}/services/hbase/namespaces/{namespace}/tables")
     @Timed
     public Response getNamespaceTablesByClusterId(@PathParam("clusterId") Long clusterId, @PathParam("namespace") String namespace,
+                                                  @QueryParam("refresh") boolean refresh,
                                                   @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Cluster.NAMESPACE, clusterId, READ);
-        try (HBaseMetadataService hbaseMetadataService = HBaseMetadataService.newInstance(environmentService, clusterId)) {
-            return WSUtils.respondEntity(hbaseMetadataService.getHBaseTables(namespace), OK);
+        try {
+            return WSUtils.respondEntity(metadataClients(clusterId, refresh).getHBaseTables(clusterId, namespace), OK);
         } catch (EntityNotFoundException ex) {
             throw com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException.byId(ex.getMessage());
         }
     }
 
-
+    private ClusterMetadataClients metadataClients(Long clusterId, boolean refresh) {
+        ClusterMetadataClients metadataClients = environmentService.getMetadataClients();
+        if (refresh) {
+            metadataClients.refresh(clusterId);
+        }
+        return metadataClients;
+    }
 }
@@ -20,7 +20,7 @@ import com.hortonworks.streamline.common.util.WSUtils;
 import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.catalog.exception.EntityNotFoundException;
 import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
-import com.hortonworks.streamline.streams.cluster.service.metadata.HiveMetadataService;
+import com.hortonworks.streamline.streams.cluster.service.metadata.ClusterMetadataClients;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
 
@@ -28,6 +28,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -51,10 +52,11 @@ public class HiveMetadataResource {
     @Path("/clusters/{clusterId}/services/hive/databases")
     @Timed
     public Response getDatabasesByClusterId(@PathParam("clusterId") Long clusterId,
+                                            @QueryParam("refresh") boolean refresh,
                                             @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Cluster.NAMESPACE, clusterId, READ);
-        try(final HiveMetadataService hiveMetadataService = HiveMetadataService.newInstance(environmentService, clusterId)) {
-            return WSUtils.respondEntity(hiveMetadataService.getHiveDatabases(), OK);
+        try {
+            return WSUtils.respondEntity(metadataClients(clusterId, refresh).getHiveDatabases(clusterId), OK);
         } catch (EntityNotFoundException ex) {
             throw com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException.byId(ex.getMessage());
         }
@@ -64,12 +66,21 @@ public class HiveMetadataResource {
     @Path("/clusters/{clusterId}/services/hive/databases/{dbName}/tables")
     @Timed
     public Response getDatabaseTablesByClusterId(@PathParam("clusterId") Long clusterId, @PathParam("dbName") String dbName,
+                                                 @QueryParam("refresh") boolean refresh,
                                                  @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Cluster.NAMESPACE, clusterId, READ);
-        try(final HiveMetadataService hiveMetadataService = HiveMetadataService.newInstance(environmentService, clusterId)) {
-            return WSUtils.respondEntity(hiveMetadataService.getHiveTables(dbName), OK);
+        try {
+            return WSUtils.respondEntity(metadataClients(clusterId, refresh).getHiveTables(clusterId, dbName), OK);
         } catch (EntityNotFoundException ex) {
             throw com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException.byId(ex.getMessage());
         }
     }
+
+    private ClusterMetadataClients metadataClients(Long clusterId, boolean refresh) {
+        ClusterMetadataClients metadataClients = environmentService.getMetadataClients();
+        if (refresh) {
+            metadataClients.refresh(clusterId);
+        }
+        return metadataClients;
+    }
 }
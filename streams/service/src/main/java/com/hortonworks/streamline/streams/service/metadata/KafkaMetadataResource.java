@@ -21,7 +21,7 @@ import com.hortonworks.streamline.streams.catalog.Cluster;
 import com.hortonworks.streamline.streams.cluster.service.EnvironmentService;
 
 import com.hortonworks.streamline.streams.catalog.exception.EntityNotFoundException;
-import com.hortonworks.streamline.streams.cluster.service.metadata.KafkaMetadataService;
+import com.hortonworks.streamline.streams.cluster.service.metadata.ClusterMetadataClients;
 import com.hortonworks.streamline.streams.security.SecurityUtil;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
 import org.slf4j.Logger;
@@ -31,6 +31,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -55,10 +56,11 @@ public class KafkaMetadataResource {
     @Path("/clusters/{clusterId}/services/kafka/brokers")
     @Timed
     public Response getBrokersByClusterId(@PathParam("clusterId") Long clusterId,
+                                          @QueryParam("refresh") boolean refresh,
                                           @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Cluster.NAMESPACE, clusterId, READ);
-        try(final KafkaMetadataService kafkaMetadataService = KafkaMetadataService.newInstance(environmentService, clusterId)) {
-            return WSUtils.respondEntity(kafkaMetadataService.getBrokerHostPortFromStreamsJson(clusterId), OK);
+        try {
+            return WSUtils.respondEntity(metadataClients(clusterId, refresh).getKafkaBrokerHostPorts(clusterId), OK);
         } catch (EntityNotFoundException ex) {
             throw com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException.byId(ex.getMessage());
         }
@@ -68,12 +70,21 @@ public class KafkaMetadataResource {
     @Path("/clusters/{clusterId}/services/kafka/topics")
     @Timed
     public Response getTopicsByClusterId(@PathParam("clusterId") Long clusterId,
+                                         @QueryParam("refresh") boolean refresh,
                                          @Context SecurityContext securityContext) throws Exception {
         SecurityUtil.checkPermissions(authorizer, securityContext, Cluster.NAMESPACE, clusterId, READ);
-        try(final KafkaMetadataService kafkaMetadataService = KafkaMetadataService.newInstance(environmentService, clusterId)) {
-            return WSUtils.respondEntity(kafkaMetadataService.getTopicsFromZk(), OK);
+        try {
+            return WSUtils.respondEntity(metadataClients(clusterId, refresh).getKafkaTopics(clusterId), OK);
         } catch (EntityNotFoundException ex) {
             throw com.hortonworks.streamline.common.exception.service.exception.request.EntityNotFoundException.byId(ex.getMessage());
         }
     }
+
+    private ClusterMetadataClients metadataClients(Long clusterId, boolean refresh) {
+        ClusterMetadataClients metadataClients = environmentService.getMetadataClients();
+        if (refresh) {
+            metadataClients.refresh(clusterId);
+        }
+        return metadataClients;
+    }
 }
@@ -0,0 +1,140 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.streams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.CacheBuilder;
+import com.hortonworks.streamline.storage.StorageVersions;
+import com.hortonworks.streamline.streams.catalog.Topology;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@RunWith(JMockit.class)
+public class ConditionalGetFilterTest {
+
+    @Mocked
+    ContainerRequestContext requestContext;
+
+    @Mocked
+    Request request;
+
+    @Mocked
+    UriInfo uriInfo;
+
+    private final StorageVersions versions = new StorageVersions();
+
+    @ConditionalGet(namespaces = Topology.NAMESPACE)
+    public void taggedResource() {
+    }
+
+    @ConditionalGet(namespaces = Topology.NAMESPACE, unlessQueryParams = "detail")
+    public void detailedResource() {
+    }
+
+    @Test
+    public void testETagFollowsNamespaceVersions() throws Exception {
+        ConditionalGetFilter filter = newFilter("taggedResource");
+        new Expectations() {
+            {
+                requestContext.getMethod(); result = "GET";
+                requestContext.getRequest(); result = request;
+                request.evaluatePreconditions((EntityTag) any); result = null;
+            }
+        };
+
+        filter.filter(requestContext);
+        versions.increment(Topology.NAMESPACE);
+        filter.filter(requestContext);
+        versions.increment("unrelated_namespace");
+        filter.filter(requestContext);
+
+        List<Object> etags = new ArrayList<>();
+        new Verifications() {
+            {
+                requestContext.setProperty(anyString, withCapture(etags));
+            }
+        };
+        assertEquals(3, etags.size());
+        assertNotEquals(etags.get(0), etags.get(1));
+        assertEquals(etags.get(1), etags.get(2));
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        ConditionalGetFilter filter = newFilter("taggedResource");
+        new Expectations() {
+            {
+                requestContext.getMethod(); result = "GET";
+                requestContext.getRequest(); result = request;
+                request.evaluatePreconditions((EntityTag) any); result = Response.notModified();
+            }
+        };
+
+        filter.filter(requestContext);
+
+        new Verifications() {
+            {
+                Response response;
+                requestContext.abortWith(response = withCapture());
+                assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+            }
+        };
+    }
+
+    @Test
+    public void testBypassedByQueryParam() throws Exception {
+        ConditionalGetFilter filter = newFilter("detailedResource");
+        MultivaluedHashMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("detail", "true");
+        new Expectations() {
+            {
+                requestContext.getMethod(); result = "GET";
+                requestContext.getUriInfo(); result = uriInfo;
+                uriInfo.getQueryParameters(); result = queryParams;
+            }
+        };
+
+        filter.filter(requestContext);
+
+        new Verifications() {
+            {
+                requestContext.setProperty(anyString, any); times = 0;
+                requestContext.abortWith((Response) any); times = 0;
+            }
+        };
+    }
+
+    private ConditionalGetFilter newFilter(String method) throws NoSuchMethodException {
+        ConditionalGet conditionalGet = getClass().getMethod(method).getAnnotation(ConditionalGet.class);
+        return new ConditionalGetFilter(conditionalGet, versions, new ObjectMapper(), CacheBuilder.newBuilder().build());
+    }
+}
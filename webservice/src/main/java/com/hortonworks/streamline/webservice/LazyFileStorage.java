@@ -0,0 +1,75 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.webservice;
+
+import com.hortonworks.streamline.common.util.FileStorage;
+import com.hortonworks.streamline.common.util.ReflectionHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * A {@link FileStorage} which creates and initializes the configured implementation on first use, so that
+ * connecting to a remote file system does not hold up the startup.
+ */
+class LazyFileStorage implements FileStorage {
+    private final FileStorageConfiguration configuration;
+    private volatile FileStorage delegate;
+
+    LazyFileStorage(FileStorageConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void init(Map<String, String> config) {
+        // initialized from the configuration on first use
+    }
+
+    @Override
+    public String uploadFile(InputStream inputStream, String name) throws IOException {
+        return delegate().uploadFile(inputStream, name);
+    }
+
+    @Override
+    public InputStream downloadFile(String name) throws IOException {
+        return delegate().downloadFile(name);
+    }
+
+    @Override
+    public boolean deleteFile(String name) throws IOException {
+        return delegate().deleteFile(name);
+    }
+
+    private FileStorage delegate() {
+        FileStorage result = delegate;
+        if (result == null) {
+            synchronized (this) {
+                result = delegate;
+                if (result == null) {
+                    try {
+                        result = ReflectionHelper.newInstance(configuration.getClassName());
+                        result.init(configuration.getProperties());
+                    } catch (Exception e) {
+                        throw new RuntimeException("Failed to initialize file storage " + configuration.getClassName(), e);
+                    }
+                    delegate = result;
+                }
+            }
+        }
+        return result;
+    }
+}
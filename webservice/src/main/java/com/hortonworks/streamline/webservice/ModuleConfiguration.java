@@ -15,6 +15,8 @@
  **/
 package com.hortonworks.streamline.webservice;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,6 +26,7 @@ public class ModuleConfiguration {
     private String name;
     private String className;
     private Map<String, Object>  config;
+    private List<String> dependsOn = Collections.emptyList();
 
     public String getClassName() {
 
@@ -49,4 +52,16 @@ public class ModuleConfiguration {
     public void setName(String name) {
         this.name = name;
     }
+
+    /**
+     * Names of the modules that must be initialized before this one. Modules without dependencies between them
+     * are initialized in parallel.
+     */
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<String> dependsOn) {
+        this.dependsOn = dependsOn != null ? dependsOn : Collections.emptyList();
+    }
 }
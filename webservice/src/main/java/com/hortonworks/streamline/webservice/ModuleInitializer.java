@@ -0,0 +1,150 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.webservice;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hortonworks.streamline.streams.exception.ConfigException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Initializes the configured modules, running the modules which do not depend on each other in parallel. A module
+ * is started only after all the modules listed in its {@link ModuleConfiguration#getDependsOn()} are initialized.
+ * The resources are returned in the order the modules are configured in, so the Jersey registration does not
+ * depend on which module finished first.
+ */
+class ModuleInitializer {
+    private static final Logger LOG = LoggerFactory.getLogger(ModuleInitializer.class);
+
+    /**
+     * Initializes a single module and returns its resources.
+     */
+    @FunctionalInterface
+    interface ModuleLoader {
+        List<Object> load(ModuleConfiguration moduleConfiguration) throws Exception;
+    }
+
+    private final int parallelism;
+
+    ModuleInitializer(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    List<Object> initialize(List<ModuleConfiguration> modules, ModuleLoader loader) throws ConfigException {
+        Map<String, ModuleConfiguration> byName = new LinkedHashMap<>();
+        for (ModuleConfiguration module : modules) {
+            if (byName.put(module.getName(), module) != null) {
+                throw new ConfigException("Module [" + module.getName() + "] is configured more than once");
+            }
+        }
+        validate(byName);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, modules.size())),
+                new ThreadFactoryBuilder().setNameFormat("module-init-%d").setDaemon(true).build());
+        try {
+            Map<String, CompletableFuture<List<Object>>> futures = new HashMap<>();
+            for (String name : byName.keySet()) {
+                schedule(name, byName, futures, loader, executor);
+            }
+            List<Object> resources = new ArrayList<>();
+            for (String name : byName.keySet()) {
+                resources.addAll(futures.get(name).get());
+            }
+            return resources;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigException("Interrupted while initializing the modules", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ConfigException) {
+                throw (ConfigException) e.getCause();
+            }
+            throw new ConfigException("Failed to initialize the modules", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<List<Object>> schedule(String name,
+                                                     Map<String, ModuleConfiguration> byName,
+                                                     Map<String, CompletableFuture<List<Object>>> futures,
+                                                     ModuleLoader loader,
+                                                     ExecutorService executor) {
+        CompletableFuture<List<Object>> future = futures.get(name);
+        if (future != null) {
+            return future;
+        }
+        ModuleConfiguration module = byName.get(name);
+        List<CompletableFuture<List<Object>>> dependencies = new ArrayList<>();
+        for (String dependency : module.getDependsOn()) {
+            dependencies.add(schedule(dependency, byName, futures, loader, executor));
+        }
+        future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[dependencies.size()]))
+                .thenApplyAsync(ignored -> {
+                    long start = System.nanoTime();
+                    try {
+                        List<Object> resources = loader.load(module);
+                        LOG.info("Initialized module [{}] in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+                        return resources;
+                    } catch (Exception e) {
+                        throw new CompletionException(new ConfigException("Failed to initialize module [" + name + "]", e));
+                    }
+                }, executor);
+        futures.put(name, future);
+        return future;
+    }
+
+    private void validate(Map<String, ModuleConfiguration> byName) throws ConfigException {
+        for (ModuleConfiguration module : byName.values()) {
+            for (String dependency : module.getDependsOn()) {
+                if (!byName.containsKey(dependency)) {
+                    throw new ConfigException("Module [" + module.getName() + "] depends on unknown module [" + dependency + "]");
+                }
+            }
+        }
+        Set<String> visited = new HashSet<>();
+        for (String name : byName.keySet()) {
+            checkCycle(name, byName, visited, new LinkedHashMap<>());
+        }
+    }
+
+    private void checkCycle(String name, Map<String, ModuleConfiguration> byName, Set<String> visited,
+                            LinkedHashMap<String, Boolean> path) throws ConfigException {
+        if (path.containsKey(name)) {
+            throw new ConfigException("Cyclic module dependencies " + path.keySet() + " -> " + name);
+        }
+        if (!visited.add(name)) {
+            return;
+        }
+        path.put(name, Boolean.TRUE);
+        for (String dependency : byName.get(name).getDependsOn()) {
+            checkCycle(dependency, byName, visited, path);
+        }
+        path.remove(name);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.webservice;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each phase of the web service startup takes and logs them as one report.
+ */
+class StartupTimings {
+    private final long startNanos = System.nanoTime();
+    private final List<String> phases = new ArrayList<>();
+
+    /**
+     * Runs the given phase, recording its elapsed time.
+     */
+    <T, E extends Exception> T time(String phase, Phase<T, E> body) throws E {
+        long start = System.nanoTime();
+        try {
+            return body.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    synchronized void record(String phase, long elapsedNanos) {
+        phases.add(String.format("  %-40s %6d ms", phase, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+    }
+
+    synchronized void log(Logger log) {
+        StringBuilder report = new StringBuilder("Startup phase timings:");
+        phases.forEach(phase -> report.append(System.lineSeparator()).append(phase));
+        report.append(System.lineSeparator())
+                .append(String.format("  %-40s %6d ms", "total", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        log.info(report.toString());
+    }
+
+    @FunctionalInterface
+    interface Phase<T, E extends Exception> {
+        T run() throws E;
+    }
+}
@@ -23,8 +23,8 @@ import com.hortonworks.registries.common.ServletFilterConfiguration;
 import com.hortonworks.streamline.cache.Cache;
 import com.hortonworks.streamline.common.Constants;
 import com.hortonworks.streamline.common.ModuleRegistration;
+import com.hortonworks.streamline.common.util.ClassIndex;
 import com.hortonworks.streamline.common.util.FileStorage;
-import com.hortonworks.streamline.common.util.ReflectionHelper;
 import com.hortonworks.streamline.storage.CacheBackedStorageManager;
 import com.hortonworks.streamline.storage.Storable;
 import com.hortonworks.streamline.storage.StorableKey;
@@ -33,11 +33,13 @@ import com.hortonworks.streamline.storage.StorageManagerAware;
 import com.hortonworks.streamline.storage.cache.impl.GuavaCache;
 import com.hortonworks.streamline.storage.cache.writer.StorageWriteThrough;
 import com.hortonworks.streamline.storage.cache.writer.StorageWriter;
+import com.hortonworks.streamline.storage.util.StorageUtils;
 import com.hortonworks.streamline.streams.exception.ConfigException;
 import com.hortonworks.streamline.streams.security.StreamlineAuthorizer;
 import com.hortonworks.streamline.streams.security.authentication.StreamlineBasicAuthorizationRequestFilter;
 import com.hortonworks.streamline.streams.security.impl.DefaultStreamlineAuthorizer;
 import com.hortonworks.streamline.streams.security.service.SecurityCatalogService;
+import com.hortonworks.streamline.streams.service.ConditionalGetFeature;
 import com.hortonworks.streamline.streams.service.GenericExceptionMapper;
 
 import org.apache.commons.lang3.StringUtils;
@@ -52,6 +54,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
@@ -65,8 +68,6 @@ import io.dropwizard.server.DefaultServerFactory;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 
-import static com.hortonworks.streamline.storage.util.StorageUtils.getStreamlineEntities;
-
 public class StreamlineApplication extends Application<StreamlineConfiguration> {
     private static final Logger LOG = LoggerFactory.getLogger(StreamlineApplication.class);
 
@@ -93,7 +94,8 @@ public class StreamlineApplication extends Application<StreamlineConfiguration>
 
         environment.jersey().register(GenericExceptionMapper.class);
 
-        registerResources(configuration, environment);
+        StartupTimings timings = new StartupTimings();
+        registerResources(configuration, environment, timings);
 
         if (configuration.isEnableCors()) {
             List<String> urlPatterns = configuration.getCorsUrlPatterns();
@@ -105,6 +107,7 @@ public class StreamlineApplication extends Application<StreamlineConfiguration>
         setupCustomTrustStore(configuration);
 
         addServletFilters(configuration, environment);
+        timings.log(LOG);
     }
 
     private void addServletFilters(StreamlineConfiguration configuration, Environment environment) {
@@ -151,7 +154,7 @@ public class StreamlineApplication extends Application<StreamlineConfiguration>
         cors.addMappingForUrlPatterns(EnumSet.allOf(DispatcherType.class), true, urls);
     }
 
-    private StorageManager getCacheBackedDao(StreamlineConfiguration configuration) {
+    private CacheBackedStorageManager getCacheBackedDao(StreamlineConfiguration configuration) {
         StorageProviderConfiguration storageProviderConfiguration = configuration.getStorageProviderConfiguration();
         final StorageManager dao = getStorageManager(storageProviderConfiguration);
         final CacheBuilder cacheBuilder = getGuavaCacheBuilder();
@@ -178,7 +181,7 @@ public class StreamlineApplication extends Application<StreamlineConfiguration>
         return new StorageWriteThrough(dao);
     }
 
-    private StorageManager doGetCacheBackedDao(Cache<StorableKey, Storable> cache, StorageWriter writer) {
+    private CacheBackedStorageManager doGetCacheBackedDao(Cache<StorableKey, Storable> cache, StorageWriter writer) {
         return new CacheBackedStorageManager(cache, writer);
     }
 
@@ -192,20 +195,17 @@ public class StreamlineApplication extends Application<StreamlineConfiguration>
     }
 
     private FileStorage getJarStorage (StreamlineConfiguration configuration) {
-        FileStorage fileStorage = null;
-        try {
-            fileStorage = ReflectionHelper.newInstance(configuration.getFileStorageConfiguration().getClassName());
-            fileStorage.init(configuration.getFileStorageConfiguration().getProperties());
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        return fileStorage;
+        // the storage may connect to a remote file system, so it is only initialized when first used
+        return new LazyFileStorage(configuration.getFileStorageConfiguration());
     }
 
-    private void registerResources(StreamlineConfiguration configuration, Environment environment) throws ConfigException, ClassNotFoundException, IllegalAccessException, InstantiationException {
-        StorageManager storageManager = getCacheBackedDao(configuration);
-        Collection<Class<? extends Storable>> streamlineEntities = getStreamlineEntities();
-        storageManager.registerStorables(streamlineEntities);
+    private void registerResources(StreamlineConfiguration configuration, Environment environment, StartupTimings timings) throws ConfigException, ClassNotFoundException, IllegalAccessException, InstantiationException {
+        CacheBackedStorageManager storageManager = timings.time("storage manager", () -> getCacheBackedDao(configuration));
+        Collection<Class<? extends Storable>> streamlineEntities = timings.time("storable entities", StorageUtils::getStreamlineEntities);
+        timings.time("register storables", () -> {
+            storageManager.registerStorables(streamlineEntities);
+            return null;
+        });
         LOG.info("Registered streamline entities {}", streamlineEntities);
         FileStorage fileStorage = this.getJarStorage(configuration);
         int appPort = ((HttpConnectorFactory) ((DefaultServerFactory) configuration.getServerFactory()).getApplicationConnectors().get(0)).getPort();
@@ -234,34 +234,62 @@ public class StreamlineApplication extends Application<StreamlineConfiguration>
             authorizer = ((Class<StreamlineAuthorizer>) Class.forName(noopAuthorizerClassName)).newInstance();
         }
         //
-        for (ModuleConfiguration moduleConfiguration: modules) {
-            String moduleName = moduleConfiguration.getName();
-            String moduleClassName = moduleConfiguration.getClassName();
-            LOG.info("Registering module [{}] with class [{}]", moduleName, moduleClassName);
-            ModuleRegistration moduleRegistration = (ModuleRegistration) Class.forName(moduleClassName).newInstance();
-            if (moduleConfiguration.getConfig() == null) {
-                moduleConfiguration.setConfig(new HashMap<String, Object>());
-            }
-            if (moduleName.equals(Constants.CONFIG_STREAMS_MODULE)) {
-                moduleConfiguration.getConfig().put(Constants.CONFIG_CATALOG_ROOT_URL, catalogRootUrl);
-            }
-            Map<String, Object> initConfig = new HashMap<>(moduleConfiguration.getConfig());
-            initConfig.put(Constants.CONFIG_AUTHORIZER, authorizer);
-            initConfig.put(Constants.CONFIG_SECURITY_CATALOG_SERVICE, securityCatalogService);
-            moduleRegistration.init(initConfig, fileStorage);
-            if (moduleRegistration instanceof StorageManagerAware) {
-                LOG.info("Module [{}] is StorageManagerAware and setting StorageManager.", moduleName);
-                StorageManagerAware storageManagerAware = (StorageManagerAware) moduleRegistration;
-                storageManagerAware.setStorageManager(storageManager);
+        final StreamlineAuthorizer moduleAuthorizer = authorizer;
+        ModuleInitializer moduleInitializer = new ModuleInitializer(Runtime.getRuntime().availableProcessors());
+        resourcesToRegister.addAll(timings.time("modules", () -> moduleInitializer.initialize(modules, moduleConfiguration -> {
+            long start = System.nanoTime();
+            List<Object> resources = initModule(moduleConfiguration, moduleAuthorizer, securityCatalogService,
+                    storageManager, fileStorage, catalogRootUrl);
+            timings.record("module " + moduleConfiguration.getName(), System.nanoTime() - start);
+            return resources;
+        })));
+
+        LOG.info("Registering resources to Jersey environment: [{}]", resourcesToRegister);
+        timings.time("jersey registration", () -> {
+            for (Object resource : resourcesToRegister) {
+                environment.jersey().register(resource);
             }
-            resourcesToRegister.addAll(moduleRegistration.getResources());
+            return null;
+        });
+        environment.jersey().register(MultiPartFeature.class);
+        // ETags and server side caching of the responses of the polled catalog resources
+        environment.jersey().register(new ConditionalGetFeature(storageManager.getVersions(), environment.getObjectMapper()));
+    }
 
+    private List<Object> initModule(ModuleConfiguration moduleConfiguration, StreamlineAuthorizer authorizer,
+                                    SecurityCatalogService securityCatalogService, StorageManager storageManager,
+                                    FileStorage fileStorage, String catalogRootUrl) throws Exception {
+        String moduleName = moduleConfiguration.getName();
+        String moduleClassName = moduleConfiguration.getClassName();
+        LOG.info("Registering module [{}] with class [{}]", moduleName, moduleClassName);
+        ModuleRegistration moduleRegistration = (ModuleRegistration) loadModuleClass(moduleName, moduleClassName).newInstance();
+        if (moduleConfiguration.getConfig() == null) {
+            moduleConfiguration.setConfig(new HashMap<String, Object>());
+        }
+        if (moduleName.equals(Constants.CONFIG_STREAMS_MODULE)) {
+            moduleConfiguration.getConfig().put(Constants.CONFIG_CATALOG_ROOT_URL, catalogRootUrl);
+        }
+        Map<String, Object> initConfig = new HashMap<>(moduleConfiguration.getConfig());
+        initConfig.put(Constants.CONFIG_AUTHORIZER, authorizer);
+        initConfig.put(Constants.CONFIG_SECURITY_CATALOG_SERVICE, securityCatalogService);
+        moduleRegistration.init(initConfig, fileStorage);
+        if (moduleRegistration instanceof StorageManagerAware) {
+            LOG.info("Module [{}] is StorageManagerAware and setting StorageManager.", moduleName);
+            StorageManagerAware storageManagerAware = (StorageManagerAware) moduleRegistration;
+            storageManagerAware.setStorageManager(storageManager);
         }
+        return moduleRegistration.getResources();
+    }
 
-        LOG.info("Registering resources to Jersey environment: [{}]", resourcesToRegister);
-        for(Object resource : resourcesToRegister) {
-            environment.jersey().register(resource);
+    private Class<?> loadModuleClass(String moduleName, String moduleClassName) throws ConfigException {
+        try {
+            return Class.forName(moduleClassName);
+        } catch (ClassNotFoundException e) {
+            String available = ClassIndex.getClasses(ClassIndex.MODULE_REGISTRATIONS)
+                    .map(classes -> classes.stream().map(Class::getName).collect(Collectors.toList()).toString())
+                    .orElse("unknown");
+            throw new ConfigException("Class [" + moduleClassName + "] of module [" + moduleName
+                    + "] not found, available modules: " + available, e);
         }
-        environment.jersey().register(MultiPartFeature.class);
     }
 }
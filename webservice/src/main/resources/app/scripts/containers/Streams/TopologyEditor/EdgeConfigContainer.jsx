@@ -72,6 +72,12 @@ export default class EdgeConfigContainer extends Component {
         }, {
           value: "FIELDS",
           label: "FIELDS"
+        }, {
+          value: "PARTIAL_KEY",
+          label: "PARTIAL_KEY"
+        }, {
+          value: "CONSISTENT_HASH",
+          label: "CONSISTENT_HASH"
         }
       ],
       groupingFieldsArr: [],
@@ -305,6 +311,23 @@ export default class EdgeConfigContainer extends Component {
     }
   }
 
+  isKeyGrouping(grouping) {
+    return grouping === 'FIELDS' || grouping === 'PARTIAL_KEY' || grouping === 'CONSISTENT_HASH';
+  }
+
+  // window and join bolts need all the events of a key on one task, which PARTIAL_KEY splits between two tasks
+  requiresKeyAffinity() {
+    const targetType = this.props.data.edge.target.currentType.toLowerCase();
+    return targetType === 'window' || targetType === 'join';
+  }
+
+  getGroupings() {
+    const {groupingsArr} = this.state;
+    return this.requiresKeyAffinity()
+      ? groupingsArr.filter((g) => g.value !== 'PARTIAL_KEY')
+      : groupingsArr;
+  }
+
   validate() {
     let {streamId, grouping, rules, showRules, groupingFields} = this.state;
     let validDataFlag = true;
@@ -314,7 +337,10 @@ export default class EdgeConfigContainer extends Component {
     if (showRules && rules.length === 0) {
       validDataFlag = false;
     }
-    if (grouping === 'FIELDS' && groupingFields === '') {
+    if (this.isKeyGrouping(grouping) && groupingFields === '') {
+      validDataFlag = false;
+    }
+    if (grouping === 'PARTIAL_KEY' && this.requiresKeyAffinity()) {
       validDataFlag = false;
     }
     if (!validDataFlag){
@@ -347,7 +373,7 @@ export default class EdgeConfigContainer extends Component {
         }
       ]
     };
-    if (grouping === "FIELDS") {
+    if (this.isKeyGrouping(grouping)) {
       edgeData.streamGroupings[0].fields = groupingFields;
     }
     if (nodeType === 'window' || nodeType === 'rule' || nodeType === 'branch') {
@@ -491,7 +517,6 @@ export default class EdgeConfigContainer extends Component {
       streamId,
       streamsArr,
       grouping,
-      groupingsArr,
       groupingFields,
       groupingFieldsArr
     } = this.state;
@@ -540,10 +565,10 @@ export default class EdgeConfigContainer extends Component {
             <span className="text-danger">*</span>
           </label>
           <div>
-            <Select value={grouping} name='grouping' options={groupingsArr} onChange={this.handleGroupingChange.bind(this)} clearable={false} required={true}/>
+            <Select value={grouping} name='grouping' options={this.getGroupings()} onChange={this.handleGroupingChange.bind(this)} clearable={false} required={true}/>
           </div>
         </div>
-        {grouping === 'FIELDS'
+        {this.isKeyGrouping(grouping)
           ? <div className="form-group">
               <label>Select Fields
                 <span className="text-danger">*</span>
@@ -0,0 +1,92 @@
+/**
+  * Copyright 2017 Hortonworks.
+  *
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+
+  *   http://www.apache.org/licenses/LICENSE-2.0
+
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+ **/
+package com.hortonworks.streamline.webservice;
+
+import com.hortonworks.streamline.streams.exception.ConfigException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ModuleInitializerTest {
+
+    @Test
+    public void testResourcesInConfiguredOrder() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        List<Object> resources = new ModuleInitializer(4).initialize(
+                Arrays.asList(module("a"), module("b")),
+                module -> {
+                    // both modules have to run at the same time for the latch to open
+                    bothStarted.countDown();
+                    Assert.assertTrue(bothStarted.await(10, TimeUnit.SECONDS));
+                    return Collections.singletonList(module.getName());
+                });
+        Assert.assertEquals(Arrays.asList("a", "b"), resources);
+    }
+
+    @Test
+    public void testDependenciesInitializedFirst() throws Exception {
+        List<String> initialized = Collections.synchronizedList(new ArrayList<>());
+        List<Object> resources = new ModuleInitializer(4).initialize(
+                Arrays.asList(module("streams", "tags", "models"), module("tags"), module("models", "tags")),
+                module -> {
+                    for (String dependency : module.getDependsOn()) {
+                        Assert.assertTrue(initialized.contains(dependency));
+                    }
+                    initialized.add(module.getName());
+                    return Collections.singletonList(module.getName());
+                });
+        Assert.assertEquals(Arrays.asList("streams", "tags", "models"), resources);
+        Assert.assertEquals(Arrays.asList("tags", "models", "streams"), initialized);
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testUnknownDependency() throws Exception {
+        new ModuleInitializer(4).initialize(Collections.singletonList(module("a", "b")),
+                module -> Collections.emptyList());
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testCyclicDependencies() throws Exception {
+        new ModuleInitializer(4).initialize(Arrays.asList(module("a", "b"), module("b", "c"), module("c", "a")),
+                module -> Collections.emptyList());
+    }
+
+    @Test
+    public void testModuleFailure() throws Exception {
+        try {
+            new ModuleInitializer(4).initialize(Arrays.asList(module("a"), module("b", "a")), module -> {
+                throw new IllegalStateException("failed");
+            });
+            Assert.fail("Expected ConfigException");
+        } catch (ConfigException e) {
+            Assert.assertTrue(e.getMessage().contains("[a]"));
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    private ModuleConfiguration module(String name, String... dependsOn) {
+        ModuleConfiguration module = new ModuleConfiguration();
+        module.setName(name);
+        module.setDependsOn(Arrays.asList(dependsOn));
+        return module;
+    }
+}